@@ -3,14 +3,18 @@ package site.hexaarch.ecommerce.logistics.application.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import site.hexaarch.ecommerce.logistics.domain.common.exception.InvalidOperationException;
 import site.hexaarch.ecommerce.logistics.domain.logistics.aggregate.LogisticsOrder;
 import site.hexaarch.ecommerce.logistics.domain.order.aggregate.Order;
+import site.hexaarch.ecommerce.logistics.domain.order.entity.OrderItem;
 import site.hexaarch.ecommerce.logistics.domain.order.valueobject.OrderStatus;
 import site.hexaarch.ecommerce.logistics.domain.order.valueobject.PaymentInfo;
 import site.hexaarch.ecommerce.logistics.domain.order.valueobject.ShippingAddress;
-import site.hexaarch.ecommerce.logistics.domain.warehouse.aggregate.Warehouse;
-import site.hexaarch.ecommerce.logistics.domain.warehouse.entity.InventoryRecord;
+import site.hexaarch.ecommerce.logistics.domain.purchase.service.ReplenishmentPlanningService;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.service.InventoryReservationService;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.valueobject.StockReservation;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -26,8 +30,9 @@ public class BusinessProcessOrchestrationService {
 
     private final OrderApplicationService orderApplicationService;
     private final LogisticsApplicationService logisticsApplicationService;
-    private final WarehouseApplicationService warehouseApplicationService;
     private final ProductApplicationService productApplicationService;
+    private final InventoryReservationService inventoryReservationService;
+    private final ReplenishmentPlanningService replenishmentPlanningService;
 
     /**
      * 完整的订单处理流程
@@ -65,46 +70,58 @@ public class BusinessProcessOrchestrationService {
         return order;
     }
 
+    /**
+     * 为订单预留库存
+     *
+     * @param orderId 订单ID
+     */
+    public void reserveInventoryForOrder(String orderId) {
+        reserveInventory(orderApplicationService.findOrderById(orderId));
+    }
+
+    /**
+     * 释放订单预留的库存
+     *
+     * @param orderId 订单ID
+     */
+    public void releaseInventoryForOrder(String orderId) {
+        inventoryReservationService.release(orderId);
+        log.info("订单 {} 的库存预留已释放", orderId);
+    }
+
     /**
      * 预留库存
+     * 为每个订单项选择第一个可用数量足够的仓库，然后整单原子预留，同一订单重复预留是幂等的
      *
      * @param order 订单
      */
     private void reserveInventory(Order order) {
-        // 遍历订单项，为每个产品预留库存
-        for (Object orderItem : order.getOrderItems()) {
-            // 实现库存预留逻辑
-            // 此处简化处理，实际应该根据订单项的具体产品和数量预留库存
+        List<StockReservation> reservations = new ArrayList<>();
+        for (OrderItem orderItem : order.getOrderItems()) {
+            String warehouseId = inventoryReservationService.findStockingWarehouses(orderItem.getSku())
+                    .stream()
+                    .filter(id -> inventoryReservationService.getAvailableQuantity(id, orderItem.getSku()) >= orderItem.getQuantity())
+                    .findFirst()
+                    .orElseThrow(() -> new InvalidOperationException("Insufficient inventory for SKU: " + orderItem.getSku()));
+            reservations.add(StockReservation.of(order.getId(), warehouseId, orderItem.getSku(), orderItem.getQuantity()));
+        }
+
+        if (!inventoryReservationService.reserve(order.getId(), reservations)) {
+            throw new InvalidOperationException("Failed to reserve inventory for order: " + order.getId());
         }
     }
 
     /**
      * 处理库存补货流程
-     * 当库存不足时触发的跨限界上下文流程
+     * 按出库速度和采购提前期计算仓库中所有SKU的补货点，为低于补货点的SKU批量生成采购单
      *
      * @param warehouseId 仓库ID
-     * @param productId   产品ID
-     * @param threshold   库存阈值
+     * @return 生成的采购单数量
      */
-    public void processReplenishment(String warehouseId, String productId, int threshold) {
-        log.info("开始处理库存补货流程，仓库: {}, 产品: {}", warehouseId, productId);
-
-        // 1. 获取仓库和库存信息
-        Warehouse warehouse = warehouseApplicationService.findWarehouseById(warehouseId);
-        List<InventoryRecord> inventoryRecords = warehouseApplicationService.findInventoryByWarehouse(warehouseId);
-
-        // 2. 检查是否低于阈值
-        boolean needsReplenishment = inventoryRecords.stream()
-                .anyMatch(record -> record.getProductId().equals(productId) &&
-                        record.getQuantity() < threshold);
-
-        if (needsReplenishment) {
-            log.info("库存低于阈值，启动采购流程");
-
-            // 3. 触发采购流程
-            // 实现采购逻辑
-        }
-
-        log.info("库存补货流程处理完成");
+    public int processReplenishment(String warehouseId) {
+        log.info("开始处理库存补货流程，仓库: {}", warehouseId);
+        int purchaseOrders = replenishmentPlanningService.planWarehouse(warehouseId);
+        log.info("库存补货流程处理完成，生成 {} 张采购单", purchaseOrders);
+        return purchaseOrders;
     }
-}
\ No newline at end of file
+}
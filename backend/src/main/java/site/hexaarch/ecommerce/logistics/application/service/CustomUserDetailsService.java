@@ -1,43 +1,56 @@
 package site.hexaarch.ecommerce.logistics.application.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import site.hexaarch.ecommerce.logistics.domain.tenant.entity.User;
-import site.hexaarch.ecommerce.logistics.domain.tenant.repository.UserRepository;
+import site.hexaarch.ecommerce.logistics.domain.tenant.valueobject.UserStatus;
+import site.hexaarch.ecommerce.logistics.infrastructure.security.PermissionSnapshot;
+import site.hexaarch.ecommerce.logistics.infrastructure.security.PermissionSnapshotCache;
 
 import java.util.ArrayList;
+import java.util.List;
 
 /**
- * 自定义用户详情服务
+ * 自定义用户详情服务，用户和角色取自租户权限快照
  *
  * @author kenyon
  */
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
 
-    private final UserRepository userRepository;
+    private final PermissionSnapshotCache permissionSnapshotCache;
     private final PasswordEncoder passwordEncoder;
 
     @Autowired
-    public CustomUserDetailsService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
-        this.userRepository = userRepository;
+    public CustomUserDetailsService(PermissionSnapshotCache permissionSnapshotCache, PasswordEncoder passwordEncoder) {
+        this.permissionSnapshotCache = permissionSnapshotCache;
         this.passwordEncoder = passwordEncoder;
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
+        PermissionSnapshot.UserGrant user = permissionSnapshotCache.findUser(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
 
+        // 用户的每个角色对应一个ROLE_前缀的权限
+        List<SimpleGrantedAuthority> authorities = new ArrayList<>(user.getRoleNames().size());
+        for (String roleName : user.getRoleNames()) {
+            authorities.add(new SimpleGrantedAuthority("ROLE_" + roleName));
+        }
+
         // 构建用户详情
         return new org.springframework.security.core.userdetails.User(
                 user.getUsername(),
                 user.getPassword(),
-                new ArrayList<>() // 这里可以添加用户的权限
+                user.getStatus() == UserStatus.ACTIVE,
+                true,
+                true,
+                user.getStatus() != UserStatus.LOCKED,
+                authorities
         );
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,234 @@
+package site.hexaarch.ecommerce.logistics.application.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import site.hexaarch.ecommerce.logistics.domain.common.exception.InvalidOperationException;
+import site.hexaarch.ecommerce.logistics.domain.common.exception.ValidationException;
+import site.hexaarch.ecommerce.logistics.domain.logistics.aggregate.LogisticsOrder;
+import site.hexaarch.ecommerce.logistics.domain.logistics.repository.LogisticsOrderRepository;
+import site.hexaarch.ecommerce.logistics.domain.logistics.service.LogisticsOrderProcessingService;
+import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.LogisticsLabel;
+import site.hexaarch.ecommerce.logistics.domain.order.aggregate.Order;
+import site.hexaarch.ecommerce.logistics.domain.order.repository.OrderRepository;
+import site.hexaarch.ecommerce.logistics.domain.order.valueobject.ShippingAddress;
+import site.hexaarch.ecommerce.logistics.infrastructure.label.LabelBatchWriter;
+import site.hexaarch.ecommerce.logistics.infrastructure.label.LabelFormat;
+import site.hexaarch.ecommerce.logistics.infrastructure.label.LabelRenderer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 物流标签批量生成应用服务，为一批物流单生成标签并流式写出为一个多页文件或zip包。
+ * <p>
+ * 物流单按块处理：每块批量加载物流单和订单，在有界线程池中并行渲染，全部渲染成功后保存物流单并批量发布
+ * 标签生成事件，再按请求顺序写出。同时在途的渲染任务不超过一块，内存占用与批次总量无关。
+ *
+ * @author kenyon
+ */
+@Service
+public class LabelBatchApplicationService {
+    private static final Logger log = LoggerFactory.getLogger(LabelBatchApplicationService.class);
+    /**
+     * 订单未记录重量和尺寸，标签使用包裹信息的默认值，件数为一个包裹
+     */
+    private static final LogisticsLabel.PackageInfo DEFAULT_PACKAGE = LogisticsLabel.PackageInfo.builder()
+            .quantity(1)
+            .build();
+
+    private final LogisticsOrderRepository logisticsOrderRepository;
+    private final OrderRepository orderRepository;
+    private final LogisticsOrderProcessingService logisticsOrderProcessingService;
+    private final LogisticsApplicationService logisticsApplicationService;
+    private final Map<LabelFormat, LabelRenderer> renderers = new EnumMap<>(LabelFormat.class);
+    private final LogisticsLabel.ShipperInfo shipperInfo;
+    private final ExecutorService executor;
+    private final int chunkSize;
+    private final int maxOrders;
+
+    // 手动添加构造函数，避免Lombok注解问题
+    public LabelBatchApplicationService(LogisticsOrderRepository logisticsOrderRepository,
+                                        OrderRepository orderRepository,
+                                        LogisticsOrderProcessingService logisticsOrderProcessingService,
+                                        LogisticsApplicationService logisticsApplicationService,
+                                        List<LabelRenderer> labelRenderers,
+                                        @Value("${logistics.label.pool-size:4}") int poolSize,
+                                        @Value("${logistics.label.chunk-size:500}") int chunkSize,
+                                        @Value("${logistics.label.max-orders:20000}") int maxOrders,
+                                        @Value("${logistics.label.shipper.name:Hexaarch Logistics}") String shipperName,
+                                        @Value("${logistics.label.shipper.address:Hexaarch Warehouse}") String shipperAddress,
+                                        @Value("${logistics.label.shipper.phone:400-000-0000}") String shipperPhone) {
+        this.logisticsOrderRepository = logisticsOrderRepository;
+        this.orderRepository = orderRepository;
+        this.logisticsOrderProcessingService = logisticsOrderProcessingService;
+        this.logisticsApplicationService = logisticsApplicationService;
+        labelRenderers.forEach(renderer -> renderers.put(renderer.getFormat(), renderer));
+        this.shipperInfo = LogisticsLabel.ShipperInfo.builder()
+                .name(shipperName)
+                .address(shipperAddress)
+                .phone(shipperPhone)
+                .build();
+        this.chunkSize = Math.max(1, chunkSize);
+        this.maxOrders = Math.max(1, maxOrders);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, poolSize), runnable -> {
+            Thread thread = new Thread(runnable, "label-render-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 校验批次并去除重复的物流单ID，保持首次出现的顺序。应在开始写出响应前调用，以便校验失败时仍能返回错误。
+     *
+     * @param logisticsOrderIds 物流单ID列表
+     * @return 去重后的物流单ID列表
+     */
+    public List<String> prepareBatch(List<String> logisticsOrderIds) {
+        if (logisticsOrderIds == null || logisticsOrderIds.isEmpty()) {
+            throw new ValidationException("At least one logistics order is required");
+        }
+        Set<String> distinctIds = new LinkedHashSet<>();
+        for (String logisticsOrderId : logisticsOrderIds) {
+            if (logisticsOrderId == null || logisticsOrderId.isBlank()) {
+                throw new ValidationException("Logistics order ID cannot be blank");
+            }
+            distinctIds.add(logisticsOrderId);
+        }
+        if (distinctIds.size() > maxOrders) {
+            throw new ValidationException("Too many logistics orders in one batch: " + distinctIds.size() + ", max " + maxOrders);
+        }
+        return List.copyOf(distinctIds);
+    }
+
+    /**
+     * 生成标签并写出。待处理的物流单更新为已打单并发布标签生成事件，已打单的物流单只补打；
+     * 不存在、缺少收货信息或状态不允许打单的物流单被跳过并记录日志。
+     *
+     * @param logisticsOrderIds 经prepareBatch校验的物流单ID列表
+     * @param format            标签格式
+     * @param zip               是否打包为zip
+     * @param outputStream      输出流，不会被关闭
+     * @return 写出的标签数量
+     */
+    public int writeLabels(List<String> logisticsOrderIds, LabelFormat format, boolean zip, OutputStream outputStream) throws IOException {
+        LabelRenderer renderer = renderers.get(format);
+        if (renderer == null) {
+            throw new ValidationException("Unsupported label format: " + format);
+        }
+        LabelBatchWriter writer = LabelBatchWriter.open(format, zip, outputStream);
+        int written = 0;
+        for (int from = 0; from < logisticsOrderIds.size(); from += chunkSize) {
+            List<String> chunk = logisticsOrderIds.subList(from, Math.min(from + chunkSize, logisticsOrderIds.size()));
+            written += writeChunk(chunk, renderer, writer);
+            writer.flush();
+        }
+        writer.finish();
+        if (written < logisticsOrderIds.size()) {
+            log.warn("Skipped {} of {} logistics orders while generating labels", logisticsOrderIds.size() - written, logisticsOrderIds.size());
+        }
+        return written;
+    }
+
+    private int writeChunk(List<String> chunk, LabelRenderer renderer, LabelBatchWriter writer) throws IOException {
+        Map<String, LogisticsOrder> logisticsOrders = new HashMap<>();
+        for (LogisticsOrder logisticsOrder : logisticsOrderRepository.findAllById(chunk)) {
+            logisticsOrders.put(logisticsOrder.getLogisticsOrderId(), logisticsOrder);
+        }
+        Set<String> orderIds = new HashSet<>();
+        logisticsOrders.values().forEach(logisticsOrder -> orderIds.add(logisticsOrder.getOrderId()));
+        Map<String, Order> orders = new HashMap<>();
+        for (Order order : orderRepository.findAllById(orderIds)) {
+            orders.put(order.getId(), order);
+        }
+
+        List<LogisticsLabel> labels = new ArrayList<>(chunk.size());
+        List<LogisticsOrder> generated = new ArrayList<>();
+        for (String logisticsOrderId : chunk) {
+            LogisticsOrder logisticsOrder = logisticsOrders.get(logisticsOrderId);
+            if (logisticsOrder == null) {
+                log.warn("Skipping label for logistics order {}: not found", logisticsOrderId);
+                continue;
+            }
+            Order order = orders.get(logisticsOrder.getOrderId());
+            LogisticsLabel.RecipientInfo recipientInfo = order != null ? toRecipientInfo(order.getShippingAddress()) : null;
+            if (recipientInfo == null) {
+                log.warn("Skipping label for logistics order {}: shipping address of order {} is missing", logisticsOrderId, logisticsOrder.getOrderId());
+                continue;
+            }
+            boolean pending = logisticsOrder.getLogisticsStatus().isPending();
+            try {
+                labels.add(logisticsOrderProcessingService.generateLogisticsLabel(logisticsOrder, shipperInfo, recipientInfo, DEFAULT_PACKAGE));
+            } catch (InvalidOperationException e) {
+                log.warn("Skipping label for logistics order {}: {}", logisticsOrderId, e.getMessage());
+                continue;
+            }
+            if (pending) {
+                generated.add(logisticsOrder);
+            }
+        }
+
+        List<CompletableFuture<byte[]>> futures = new ArrayList<>(labels.size());
+        for (LogisticsLabel label : labels) {
+            futures.add(CompletableFuture.supplyAsync(() -> renderer.render(label), executor));
+        }
+        List<byte[]> rendered = new ArrayList<>(futures.size());
+        try {
+            for (CompletableFuture<byte[]> future : futures) {
+                rendered.add(future.join());
+            }
+        } catch (CompletionException e) {
+            futures.forEach(future -> future.cancel(false));
+            throw new IllegalStateException("Failed to render logistics labels", e.getCause());
+        }
+
+        // 整块渲染成功后再落库，渲染失败时物流单保持原状态
+        if (!generated.isEmpty()) {
+            logisticsApplicationService.saveGeneratedLabels(generated);
+        }
+        for (int i = 0; i < labels.size(); i++) {
+            writer.write(labels.get(i), rendered.get(i));
+        }
+        return labels.size();
+    }
+
+    private LogisticsLabel.RecipientInfo toRecipientInfo(ShippingAddress shippingAddress) {
+        if (shippingAddress == null || shippingAddress.getRecipient() == null || shippingAddress.getPhone() == null) {
+            return null;
+        }
+        StringJoiner address = new StringJoiner(", ");
+        for (String part : new String[]{shippingAddress.getStreet(), shippingAddress.getCity(), shippingAddress.getProvince(),
+                shippingAddress.getZipCode(), shippingAddress.getCountry()}) {
+            if (part != null && !part.isBlank()) {
+                address.add(part);
+            }
+        }
+        return LogisticsLabel.RecipientInfo.builder()
+                .name(shippingAddress.getRecipient())
+                .address(address.toString())
+                .phone(shippingAddress.getPhone())
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -1,6 +1,7 @@
 package site.hexaarch.ecommerce.logistics.application.service;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import site.hexaarch.ecommerce.logistics.domain.logistics.aggregate.LogisticsOrder;
 import site.hexaarch.ecommerce.logistics.domain.logistics.repository.LogisticsChannelRepository;
 import site.hexaarch.ecommerce.logistics.domain.logistics.repository.LogisticsOrderRepository;
@@ -39,6 +40,7 @@ public class LogisticsApplicationService {
     /**
      * 创建物流单
      */
+    @Transactional
     public LogisticsOrder createLogisticsOrder(String tenantId, String orderId, String channelCode) {
         var order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new IllegalArgumentException("Order not found"));
@@ -59,6 +61,7 @@ public class LogisticsApplicationService {
     /**
      * 更新物流状态
      */
+    @Transactional
     public LogisticsOrder updateLogisticsStatus(String logisticsOrderId, LogisticsStatus newStatus) {
         var logisticsOrder = logisticsOrderRepository.findById(logisticsOrderId)
                 .orElseThrow(() -> new IllegalArgumentException("Logistics order not found"));
@@ -81,6 +84,16 @@ public class LogisticsApplicationService {
         return logisticsOrderRepository.save(logisticsOrder);
     }
 
+    /**
+     * 保存已生成标签的物流单，并把这些物流单中的领域事件一次性批量发布
+     */
+    @Transactional
+    public void saveGeneratedLabels(List<LogisticsOrder> logisticsOrders) {
+        logisticsOrderRepository.saveAll(logisticsOrders);
+        // 保存返回的是重新组装的聚合，不含领域事件，因此从传入的聚合发布
+        domainEventPublisher.publishEventsFrom(logisticsOrders);
+    }
+
     /**
      * 跟踪物流状态
      */
@@ -1,17 +1,23 @@
 package site.hexaarch.ecommerce.logistics.application.service;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import site.hexaarch.ecommerce.logistics.domain.common.exception.EntityNotFoundException;
 import site.hexaarch.ecommerce.logistics.domain.order.aggregate.Order;
 import site.hexaarch.ecommerce.logistics.domain.order.entity.OrderItem;
 import site.hexaarch.ecommerce.logistics.domain.order.repository.OrderRepository;
 import site.hexaarch.ecommerce.logistics.domain.order.service.OrderProcessingService;
+import site.hexaarch.ecommerce.logistics.domain.order.service.OrderSyncService;
+import site.hexaarch.ecommerce.logistics.domain.order.valueobject.OrderCursor;
+import site.hexaarch.ecommerce.logistics.domain.order.valueobject.OrderPage;
 import site.hexaarch.ecommerce.logistics.domain.order.valueobject.OrderStatus;
 import site.hexaarch.ecommerce.logistics.domain.order.valueobject.PaymentInfo;
 import site.hexaarch.ecommerce.logistics.domain.order.valueobject.ShippingAddress;
 import site.hexaarch.ecommerce.logistics.infrastructure.messaging.DomainEventPublisher;
 
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * 订单应用服务，协调领域对象完成订单相关的业务操作。
@@ -20,20 +26,29 @@ import java.util.List;
  */
 @Service
 public class OrderApplicationService {
+    /**
+     * 分页查询的最大每页数量
+     */
+    public static final int MAX_PAGE_SIZE = 200;
+
     private final OrderRepository orderRepository;
     private final OrderProcessingService orderProcessingService;
+    private final OrderSyncService orderSyncService;
     private final DomainEventPublisher domainEventPublisher;
 
     // 手动添加构造函数，避免Lombok注解问题
-    public OrderApplicationService(OrderRepository orderRepository, OrderProcessingService orderProcessingService, DomainEventPublisher domainEventPublisher) {
+    public OrderApplicationService(OrderRepository orderRepository, OrderProcessingService orderProcessingService,
+                                   OrderSyncService orderSyncService, DomainEventPublisher domainEventPublisher) {
         this.orderRepository = orderRepository;
         this.orderProcessingService = orderProcessingService;
+        this.orderSyncService = orderSyncService;
         this.domainEventPublisher = domainEventPublisher;
     }
 
     /**
      * 创建订单
      */
+    @Transactional
     public Order createOrder(String tenantId, String customerId, List<OrderItem> orderItems,
                              ShippingAddress shippingAddress, PaymentInfo paymentInfo) {
         var order = orderProcessingService.createOrder(tenantId, customerId, orderItems, shippingAddress, paymentInfo);
@@ -43,9 +58,25 @@ public class OrderApplicationService {
         return savedOrder;
     }
 
+    /**
+     * 在一个事务内批量导入平台订单：去除重复订单后批量插入，并批量发布订单创建事件。
+     *
+     * @param orders 待导入的订单
+     * @return 实际插入的订单数量
+     */
+    @Transactional
+    public int importOrders(List<Order> orders) {
+        List<Order> newOrders = orderSyncService.filterNewOrders(orders);
+        orderRepository.insertAll(newOrders);
+        // 插入不回读，直接发布内存中订单聚合的事件
+        domainEventPublisher.publishEventsFrom(newOrders);
+        return newOrders.size();
+    }
+
     /**
      * 更新订单状态
      */
+    @Transactional
     public Order updateOrderStatus(String orderId, OrderStatus newStatus) {
         var order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new EntityNotFoundException("Order", orderId));
@@ -62,6 +93,7 @@ public class OrderApplicationService {
     /**
      * 取消订单
      */
+    @Transactional
     public Order cancelOrder(String orderId) {
         var order = orderProcessingService.cancelOrder(orderId);
         // 发布订单聚合中的所有领域事件
@@ -80,4 +112,33 @@ public class OrderApplicationService {
     public List<Order> findOrdersByCustomerId(String customerId) {
         return orderRepository.findByCustomerId(customerId);
     }
+
+    /**
+     * 按创建时间倒序分页查询订单
+     *
+     * @param status     订单状态，为null时不过滤
+     * @param customerId 客户ID，为null时不过滤
+     * @param cursor     上一页返回的游标，为null时查询第一页
+     * @param limit      每页数量，超出范围时截断到1至MAX_PAGE_SIZE
+     * @return 订单分页结果
+     */
+    @Transactional(readOnly = true)
+    public OrderPage findOrderPage(OrderStatus status, String customerId, String cursor, int limit) {
+        OrderCursor after = cursor == null || cursor.isBlank() ? null : OrderCursor.decode(cursor);
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return orderRepository.findPage(status, customerId, after, pageSize);
+    }
+
+    /**
+     * 按创建时间倒序流式导出订单，逐条交给消费者处理，内存占用与订单总数无关
+     *
+     * @param status   订单状态，为null时导出全部
+     * @param consumer 订单消费者
+     */
+    @Transactional(readOnly = true)
+    public void exportOrders(OrderStatus status, Consumer<Order> consumer) {
+        try (Stream<Order> orders = orderRepository.streamAll(status)) {
+            orders.forEach(consumer);
+        }
+    }
 }
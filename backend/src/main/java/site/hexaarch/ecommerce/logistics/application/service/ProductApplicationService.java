@@ -1,6 +1,8 @@
 package site.hexaarch.ecommerce.logistics.application.service;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import site.hexaarch.ecommerce.logistics.domain.common.exception.ValidationException;
 import site.hexaarch.ecommerce.logistics.domain.product.aggregate.Product;
 import site.hexaarch.ecommerce.logistics.domain.product.entity.ProductCategory;
 import site.hexaarch.ecommerce.logistics.domain.product.entity.SKU;
@@ -11,6 +13,7 @@ import site.hexaarch.ecommerce.logistics.domain.product.service.SKUManagementSer
 import site.hexaarch.ecommerce.logistics.domain.product.valueobject.ProductPrice;
 import site.hexaarch.ecommerce.logistics.infrastructure.messaging.DomainEventPublisher;
 
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -20,6 +23,8 @@ import java.util.UUID;
  */
 @Service
 public class ProductApplicationService {
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final ProductRepository productRepository;
     private final ProductManagementService productManagementService;
     private final SKUManagementService skuManagementService;
@@ -45,6 +50,7 @@ public class ProductApplicationService {
     /**
      * 创建产品
      */
+    @Transactional
     public Product createProduct(String tenantId, String name, String description, ProductCategory category) {
         Product product = productManagementService.createProduct(tenantId, name, description, category);
         // 发布产品聚合中的所有领域事件
@@ -55,27 +61,37 @@ public class ProductApplicationService {
     /**
      * 更新产品信息
      */
+    @Transactional
     public Product updateProduct(String productId, String name, String description) {
-        return productManagementService.updateProduct(productId, name, description);
+        Product product = productManagementService.updateProduct(productId, name, description);
+        domainEventPublisher.publishEventsFrom(product);
+        return product;
     }
 
     /**
      * 激活产品
      */
+    @Transactional
     public Product activateProduct(String productId) {
-        return productManagementService.activateProduct(productId);
+        Product product = productManagementService.activateProduct(productId);
+        domainEventPublisher.publishEventsFrom(product);
+        return product;
     }
 
     /**
      * 停用产品
      */
+    @Transactional
     public Product deactivateProduct(String productId) {
-        return productManagementService.deactivateProduct(productId);
+        Product product = productManagementService.deactivateProduct(productId);
+        domainEventPublisher.publishEventsFrom(product);
+        return product;
     }
 
     /**
      * 添加SKU到产品
      */
+    @Transactional
     public Product addSkuToProduct(String productId, String skuCode, ProductPrice price,
                                    Integer weightInGrams, Integer volumeInCubicCentimeters) {
         var sku = SKU.builder()
@@ -87,7 +103,9 @@ public class ProductApplicationService {
                 .volumeInCubicCentimeters(volumeInCubicCentimeters)
                 .build();
 
-        return skuManagementService.addSkuToProduct(productId, sku);
+        Product product = skuManagementService.addSkuToProduct(productId, sku);
+        domainEventPublisher.publishEventsFrom(product);
+        return product;
     }
 
     /**
@@ -98,6 +116,17 @@ public class ProductApplicationService {
                 .orElseThrow(() -> new IllegalArgumentException("Product not found"));
     }
 
+    /**
+     * 分页查找分类及其所有后代分类下的产品，子树由内存中的分类树快照展开，一条IN查询完成
+     */
+    public List<Product> findProductsInCategory(String categoryId, int page, int size) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ValidationException("Page must be >= 0 and size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        List<String> categoryIds = productCategoryService.getSubtreeIds(categoryId);
+        return productRepository.findByCategoryIds(categoryIds, page, size);
+    }
+
     /**
      * 根据SKU编码查找产品
      */
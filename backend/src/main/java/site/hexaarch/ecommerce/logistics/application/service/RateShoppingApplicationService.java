@@ -0,0 +1,184 @@
+package site.hexaarch.ecommerce.logistics.application.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import site.hexaarch.ecommerce.logistics.domain.common.exception.ValidationException;
+import site.hexaarch.ecommerce.logistics.domain.logistics.entity.LogisticsChannel;
+import site.hexaarch.ecommerce.logistics.domain.logistics.service.LogisticsChannelService;
+import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.ChannelRateIndex;
+import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.Parcel;
+import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.RateQuote;
+import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.RateShoppingResult;
+import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.RateTable;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 物流比价应用服务，并行评估所有支持目的国家的激活渠道，返回最便宜和最快的选项。
+ * <p>
+ * 一次调用中每个候选渠道只提交一个任务，由该任务为批次内所有包裹报价；
+ * 渠道任务需在提交后的超时时间内完成，超时的任务被取消（中断执行中的任务，移出排队中的任务），
+ * 超时或失败的渠道不影响其他渠道的结果。线程池的等待队列有界，队列已满时新任务被拒绝，
+ * 该渠道记为不可用，突发流量不会在队列中无限堆积。
+ *
+ * @author kenyon
+ */
+@Service
+public class RateShoppingApplicationService {
+    private static final Logger log = LoggerFactory.getLogger(RateShoppingApplicationService.class);
+
+    private final LogisticsChannelService logisticsChannelService;
+    private final ThreadPoolExecutor executor;
+    private final long channelTimeoutMs;
+    private final int maxParcels;
+
+    // 手动添加构造函数，避免Lombok注解问题
+    public RateShoppingApplicationService(LogisticsChannelService logisticsChannelService,
+                                          @Value("${logistics.rate-shopping.pool-size:8}") int poolSize,
+                                          @Value("${logistics.rate-shopping.queue-capacity:64}") int queueCapacity,
+                                          @Value("${logistics.rate-shopping.channel-timeout-ms:200}") long channelTimeoutMs,
+                                          @Value("${logistics.rate-shopping.max-parcels:50}") int maxParcels) {
+        this.logisticsChannelService = logisticsChannelService;
+        this.channelTimeoutMs = channelTimeoutMs;
+        this.maxParcels = Math.max(1, maxParcels);
+        AtomicInteger threadNumber = new AtomicInteger();
+        int threads = Math.max(1, poolSize);
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), runnable -> {
+            Thread thread = new Thread(runnable, "rate-shopping-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * 为单个包裹比价。
+     *
+     * @param parcel 包裹
+     * @return 比价结果
+     */
+    public RateShoppingResult shop(Parcel parcel) {
+        return shop(List.of(parcel)).get(0);
+    }
+
+    /**
+     * 为一批包裹比价，结果与传入的包裹顺序一致。
+     *
+     * @param parcels 包裹列表，例如拆单发货时的多个包裹
+     * @return 每个包裹的比价结果
+     */
+    public List<RateShoppingResult> shop(List<Parcel> parcels) {
+        if (parcels == null || parcels.isEmpty()) {
+            throw new ValidationException("At least one parcel is required");
+        }
+        if (parcels.size() > maxParcels) {
+            throw new ValidationException("Too many parcels in one request: " + parcels.size() + ", max " + maxParcels);
+        }
+
+        // 汇总所有目的国家的候选渠道，同一渠道只评估一次
+        Map<String, LogisticsChannel> candidates = new LinkedHashMap<>();
+        for (Parcel parcel : parcels) {
+            for (LogisticsChannel logisticsChannel : logisticsChannelService.getAvailableChannels(parcel.getCountry())) {
+                candidates.putIfAbsent(logisticsChannel.getChannelId(), logisticsChannel);
+            }
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(channelTimeoutMs);
+        Map<LogisticsChannel, Future<RateQuote[]>> futures = new LinkedHashMap<>();
+        for (LogisticsChannel logisticsChannel : candidates.values()) {
+            try {
+                futures.put(logisticsChannel, executor.submit(() -> quoteAll(logisticsChannel, parcels)));
+            } catch (RejectedExecutionException e) {
+                futures.put(logisticsChannel, CompletableFuture.failedFuture(e));
+            }
+        }
+
+        List<List<RateQuote>> quotesByParcel = new ArrayList<>(parcels.size());
+        List<List<String>> unavailableByParcel = new ArrayList<>(parcels.size());
+        for (int i = 0; i < parcels.size(); i++) {
+            quotesByParcel.add(new ArrayList<>());
+            unavailableByParcel.add(new ArrayList<>());
+        }
+        futures.forEach((logisticsChannel, future) -> {
+            RateQuote[] quotes = awaitQuotes(logisticsChannel, future, deadline);
+            for (int i = 0; i < parcels.size(); i++) {
+                if (quotes == null) {
+                    if (logisticsChannel.supportsCountry(parcels.get(i).getCountry())) {
+                        unavailableByParcel.get(i).add(logisticsChannel.getChannelId());
+                    }
+                } else if (quotes[i] != null) {
+                    quotesByParcel.get(i).add(quotes[i]);
+                }
+            }
+        });
+
+        List<RateShoppingResult> results = new ArrayList<>(parcels.size());
+        for (int i = 0; i < parcels.size(); i++) {
+            results.add(new RateShoppingResult(parcels.get(i), quotesByParcel.get(i), unavailableByParcel.get(i)));
+        }
+        return results;
+    }
+
+    private RateQuote[] quoteAll(LogisticsChannel logisticsChannel, List<Parcel> parcels) {
+        ChannelRateIndex rateIndex = logisticsChannelService.getRateIndex(logisticsChannel.getChannelId());
+        RateQuote[] quotes = new RateQuote[parcels.size()];
+        for (int i = 0; i < quotes.length; i++) {
+            // 超时取消后不再继续报价
+            if (Thread.currentThread().isInterrupted()) {
+                break;
+            }
+            Parcel parcel = parcels.get(i);
+            RateTable rateTable = rateIndex.forCountry(parcel.getCountry());
+            if (rateTable != null) {
+                quotes[i] = rateTable.findQuote(parcel.getWeight(), parcel.getVolume());
+            }
+        }
+        return quotes;
+    }
+
+    /**
+     * 在截止时间前等待渠道报价，超时时取消任务；超时、被拒绝或失败时返回null。
+     */
+    private RateQuote[] awaitQuotes(LogisticsChannel logisticsChannel, Future<RateQuote[]> future, long deadline) {
+        try {
+            return future.get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            // 已取消但仍在排队的任务立即移出队列，不占用队列容量
+            executor.purge();
+            log.warn("Rate quote timed out after {} ms for channel {}", channelTimeoutMs, logisticsChannel.getChannelId());
+            return null;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RejectedExecutionException) {
+                log.warn("Rate shopping pool is saturated, skipped channel {}", logisticsChannel.getChannelId());
+            } else {
+                log.warn("Rate quote failed for channel {}", logisticsChannel.getChannelId(), e.getCause());
+            }
+            return null;
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
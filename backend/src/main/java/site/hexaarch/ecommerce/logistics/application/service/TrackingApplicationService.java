@@ -0,0 +1,101 @@
+package site.hexaarch.ecommerce.logistics.application.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import site.hexaarch.ecommerce.logistics.domain.common.exception.ValidationException;
+import site.hexaarch.ecommerce.logistics.domain.logistics.aggregate.LogisticsOrder;
+import site.hexaarch.ecommerce.logistics.domain.logistics.repository.LogisticsOrderRepository;
+import site.hexaarch.ecommerce.logistics.domain.logistics.repository.TrackingEventRepository;
+import site.hexaarch.ecommerce.logistics.domain.logistics.service.TrackingEventIngestionService;
+import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.ShipmentStatus;
+import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.StatusTransition;
+import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.TrackingEvent;
+import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.TrackingIngestResult;
+import site.hexaarch.ecommerce.logistics.infrastructure.messaging.DomainEventPublisher;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 物流轨迹应用服务，批量接入承运商扫描。
+ * <p>
+ * 一批扫描在一个事务中处理：合并重复扫描后追加到轨迹时间线，一次查询批次内所有运单的当前状态，
+ * 只对状态真正推进的物流单执行带原状态条件的批量更新并发布状态变更事件，不逐条加载物流单聚合。
+ *
+ * @author kenyon
+ */
+@Service
+public class TrackingApplicationService {
+    private final TrackingEventRepository trackingEventRepository;
+    private final LogisticsOrderRepository logisticsOrderRepository;
+    private final TrackingEventIngestionService trackingEventIngestionService;
+    private final DomainEventPublisher domainEventPublisher;
+    private final int maxBatch;
+
+    // 手动添加构造函数，避免Lombok注解问题
+    public TrackingApplicationService(TrackingEventRepository trackingEventRepository,
+                                      LogisticsOrderRepository logisticsOrderRepository,
+                                      TrackingEventIngestionService trackingEventIngestionService,
+                                      DomainEventPublisher domainEventPublisher,
+                                      @Value("${logistics.tracking.max-batch:5000}") int maxBatch) {
+        this.trackingEventRepository = trackingEventRepository;
+        this.logisticsOrderRepository = logisticsOrderRepository;
+        this.trackingEventIngestionService = trackingEventIngestionService;
+        this.domainEventPublisher = domainEventPublisher;
+        this.maxBatch = Math.max(1, maxBatch);
+    }
+
+    /**
+     * 接入一批承运商扫描。重复投递的批次不会重复写入时间线，也不会重复推进状态。
+     *
+     * @param events 承运商扫描列表
+     * @return 接入结果
+     */
+    @Transactional
+    public TrackingIngestResult ingest(List<TrackingEvent> events) {
+        if (events == null || events.isEmpty()) {
+            throw new ValidationException("At least one tracking event is required");
+        }
+        if (events.size() > maxBatch) {
+            throw new ValidationException("Too many tracking events in one batch: " + events.size() + ", max " + maxBatch);
+        }
+
+        List<TrackingEvent> coalesced = trackingEventIngestionService.coalesce(events);
+        int appended = trackingEventRepository.appendAll(coalesced);
+
+        Set<String> trackingNumbers = new LinkedHashSet<>();
+        coalesced.forEach(event -> trackingNumbers.add(event.getTrackingNumber()));
+        Map<String, ShipmentStatus> shipments = new HashMap<>();
+        for (ShipmentStatus shipment : logisticsOrderRepository.findShipmentStatuses(trackingNumbers)) {
+            shipments.put(shipment.getTrackingNumber(), shipment);
+        }
+
+        List<StatusTransition> transitions = trackingEventIngestionService.planTransitions(shipments, coalesced);
+        List<StatusTransition> applied = transitions.isEmpty() ? List.of() : logisticsOrderRepository.applyTransitions(transitions);
+        if (!applied.isEmpty()) {
+            Map<String, List<Object>> eventsByLogisticsOrderId = new LinkedHashMap<>();
+            for (StatusTransition transition : applied) {
+                eventsByLogisticsOrderId.put(transition.getShipment().getLogisticsOrderId(), transition.toDomainEvents());
+            }
+            domainEventPublisher.publishEvents(LogisticsOrder.class.getSimpleName(), eventsByLogisticsOrderId);
+        }
+
+        return new TrackingIngestResult(events.size(), appended, applied.size(),
+                trackingNumbers.size() - shipments.size());
+    }
+
+    /**
+     * 查询运单的轨迹时间线。
+     *
+     * @param trackingNumber 运单号
+     * @return 按发生时间升序排列的轨迹事件列表
+     */
+    public List<TrackingEvent> getTimeline(String trackingNumber) {
+        return trackingEventRepository.findTimeline(trackingNumber);
+    }
+}
@@ -1,8 +1,11 @@
 package site.hexaarch.ecommerce.logistics.application.service;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import site.hexaarch.ecommerce.logistics.domain.common.exception.EntityNotFoundException;
 import site.hexaarch.ecommerce.logistics.domain.warehouse.aggregate.Warehouse;
 import site.hexaarch.ecommerce.logistics.domain.warehouse.entity.InventoryRecord;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.repository.InventoryLedgerRepository;
 import site.hexaarch.ecommerce.logistics.domain.warehouse.repository.InventoryRecordRepository;
 import site.hexaarch.ecommerce.logistics.domain.warehouse.repository.WarehouseRepository;
 import site.hexaarch.ecommerce.logistics.domain.warehouse.service.InventoryCountService;
@@ -11,7 +14,9 @@ import site.hexaarch.ecommerce.logistics.domain.warehouse.service.WarehouseManag
 import site.hexaarch.ecommerce.logistics.domain.warehouse.valueobject.InventoryMovement;
 import site.hexaarch.ecommerce.logistics.infrastructure.messaging.DomainEventPublisher;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -27,15 +32,18 @@ public class WarehouseApplicationService {
     private final InventoryManagementService inventoryManagementService;
     private final InventoryCountService inventoryCountService;
     private final DomainEventPublisher domainEventPublisher;
+    private final InventoryLedgerRepository inventoryLedgerRepository;
 
     // 手动添加构造函数，避免Lombok注解问题
-    public WarehouseApplicationService(WarehouseRepository warehouseRepository, InventoryRecordRepository inventoryRecordRepository, WarehouseManagementService warehouseManagementService, InventoryManagementService inventoryManagementService, InventoryCountService inventoryCountService, DomainEventPublisher domainEventPublisher) {
+    public WarehouseApplicationService(WarehouseRepository warehouseRepository, InventoryRecordRepository inventoryRecordRepository, WarehouseManagementService warehouseManagementService, InventoryManagementService inventoryManagementService, InventoryCountService inventoryCountService, DomainEventPublisher domainEventPublisher,
+                                       InventoryLedgerRepository inventoryLedgerRepository) {
         this.warehouseRepository = warehouseRepository;
         this.inventoryRecordRepository = inventoryRecordRepository;
         this.warehouseManagementService = warehouseManagementService;
         this.inventoryManagementService = inventoryManagementService;
         this.inventoryCountService = inventoryCountService;
         this.domainEventPublisher = domainEventPublisher;
+        this.inventoryLedgerRepository = inventoryLedgerRepository;
     }
 
     /**
@@ -76,6 +84,24 @@ public class WarehouseApplicationService {
         return inventoryRecordRepository.save(inventoryRecord);
     }
 
+    /**
+     * 按SKU批量入库，所有库存记录、库存流水和库存批量变动事件在同一事务中写入
+     *
+     * @param warehouseId     仓库ID
+     * @param quantitiesBySku SKU到入库数量的映射
+     * @param reason          入库原因
+     * @return 入库后的库存记录
+     */
+    @Transactional
+    public List<InventoryRecord> receiveInventory(String warehouseId, Map<String, Integer> quantitiesBySku, String reason) {
+        Warehouse warehouse = inventoryManagementService.receiveInventory(warehouseId, quantitiesBySku, reason);
+        // 发布仓库聚合中的库存批量变动事件
+        domainEventPublisher.publishEventsFrom(warehouse);
+        return quantitiesBySku.keySet().stream()
+                .map(sku -> warehouse.findInventoryRecordBySku(sku).orElseThrow())
+                .toList();
+    }
+
     /**
      * 库存出库
      */
@@ -139,21 +165,37 @@ public class WarehouseApplicationService {
     }
 
     /**
-     * 库存盘点
+     * 按库存流水查询SKU的在库数量，不指定时间时查询当前数量
+     */
+    public int findLedgerQuantity(String warehouseId, String skuCode, LocalDateTime asOf) {
+        Optional<Integer> quantity = asOf == null
+                ? inventoryLedgerRepository.findQuantity(warehouseId, skuCode)
+                : inventoryLedgerRepository.findQuantityAsOf(warehouseId, skuCode, asOf);
+        return quantity.orElseThrow(() -> new EntityNotFoundException("InventoryLedger", warehouseId + "/" + skuCode));
+    }
+
+    /**
+     * 库存盘点，盘点事件与库存记录在同一事务中写入发件箱
      */
+    @Transactional
     public InventoryRecord countInventory(String warehouseId, String productId, int actualQuantity) {
-        return inventoryCountService.countInventory(warehouseId, productId, actualQuantity);
+        Warehouse warehouse = inventoryCountService.countInventory(warehouseId, productId, actualQuantity);
+        // 发布仓库库存切片中的库存盘点事件
+        domainEventPublisher.publishEventsFrom(warehouse);
+        return warehouse.findInventoryRecord(productId).orElseThrow();
     }
 
     /**
-     * 库存移动
+     * 库存移动，库存变动事件与库存记录在同一事务中写入发件箱
      */
+    @Transactional
     public InventoryRecord moveInventory(String warehouseId, InventoryMovement movement) {
+        Warehouse warehouse;
         // 根据移动类型执行相应的库存操作
         if (movement.getMovementType() == InventoryMovement.MovementType.INBOUND) {
             // 对于入库操作，使用一个默认位置ID，因为InventoryMovement中没有位置信息
             String defaultLocationId = "DEFAULT_LOCATION";
-            return inventoryManagementService.inboundInventory(
+            warehouse = inventoryManagementService.inboundInventory(
                     warehouseId,
                     movement.getProductId(),
                     movement.getSku(),
@@ -161,13 +203,13 @@ public class WarehouseApplicationService {
                     defaultLocationId
             );
         } else if (movement.getMovementType() == InventoryMovement.MovementType.OUTBOUND) {
-            return inventoryManagementService.outboundInventory(
+            warehouse = inventoryManagementService.outboundInventory(
                     warehouseId,
                     movement.getProductId(),
                     movement.getQuantity()
             );
         } else if (movement.getMovementType() == InventoryMovement.MovementType.ADJUSTMENT) {
-            return inventoryManagementService.adjustInventory(
+            warehouse = inventoryManagementService.adjustInventory(
                     warehouseId,
                     movement.getProductId(),
                     movement.getQuantity()
@@ -178,5 +220,8 @@ public class WarehouseApplicationService {
         } else {
             throw new IllegalArgumentException("Unsupported movement type: " + movement.getMovementType());
         }
+        // 发布仓库库存切片中的库存变动和库存不足事件
+        domainEventPublisher.publishEventsFrom(warehouse);
+        return warehouse.findInventoryRecord(movement.getProductId()).orElseThrow();
     }
 }
@@ -1,6 +1,7 @@
 package site.hexaarch.ecommerce.logistics.application.service.customer;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import site.hexaarch.ecommerce.logistics.domain.customer.aggregate.Customer;
 import site.hexaarch.ecommerce.logistics.domain.customer.service.CustomerService;
 import site.hexaarch.ecommerce.logistics.domain.customer.valueobject.CustomerStatus;
@@ -38,6 +39,7 @@ public class CustomerApplicationService {
      * @param address      客户地址
      * @return 创建的客户
      */
+    @Transactional
     public Customer createCustomer(String customerName, String email, String phone, String address) {
         Customer customer = customerService.createCustomer(customerName, email, phone, address);
         // 发布客户聚合中的所有领域事件
@@ -1,6 +1,7 @@
 package site.hexaarch.ecommerce.logistics.application.service.finance;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import site.hexaarch.ecommerce.logistics.domain.finance.aggregate.FinancialTransaction;
 import site.hexaarch.ecommerce.logistics.domain.finance.service.FinancialTransactionService;
 import site.hexaarch.ecommerce.logistics.domain.finance.valueobject.TransactionStatus;
@@ -42,6 +43,7 @@ public class FinanceApplicationService {
      * @param description   描述
      * @return 创建的财务交易
      */
+    @Transactional
     public FinancialTransaction createFinancialTransaction(
             TransactionType type,
             BigDecimal amount,
@@ -2,6 +2,8 @@ package site.hexaarch.ecommerce.logistics.application.service.platform;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import site.hexaarch.ecommerce.logistics.domain.order.valueobject.OrderImportResult;
 import site.hexaarch.ecommerce.logistics.domain.platform.aggregate.PlatformIntegration;
 import site.hexaarch.ecommerce.logistics.domain.platform.service.PlatformIntegrationService;
 import site.hexaarch.ecommerce.logistics.infrastructure.messaging.DomainEventPublisher;
@@ -19,13 +21,17 @@ public class PlatformIntegrationApplicationService {
 
     private final PlatformIntegrationService platformIntegrationService;
     private final DomainEventPublisher domainEventPublisher;
+    private final PlatformOrderImportService platformOrderImportService;
 
     @Autowired
-    public PlatformIntegrationApplicationService(PlatformIntegrationService platformIntegrationService, DomainEventPublisher domainEventPublisher) {
+    public PlatformIntegrationApplicationService(PlatformIntegrationService platformIntegrationService, DomainEventPublisher domainEventPublisher,
+                                                 PlatformOrderImportService platformOrderImportService) {
         this.platformIntegrationService = platformIntegrationService;
         this.domainEventPublisher = domainEventPublisher;
+        this.platformOrderImportService = platformOrderImportService;
     }
 
+    @Transactional
     public PlatformIntegration createPlatformIntegration(PlatformIntegration platformIntegration) {
         PlatformIntegration integration = platformIntegrationService.createPlatformIntegration(platformIntegration);
         // 发布平台集成聚合中的所有领域事件
@@ -57,8 +63,8 @@ public class PlatformIntegrationApplicationService {
         return platformIntegrationService.deactivatePlatformIntegration(id);
     }
 
-    public void syncOrdersFromPlatform(UUID platformId) {
-        platformIntegrationService.syncOrdersFromPlatform(platformId);
+    public OrderImportResult syncOrdersFromPlatform(UUID platformId) {
+        return platformOrderImportService.importOrders(platformId);
     }
 
     public void syncProductsFromPlatform(UUID platformId) {
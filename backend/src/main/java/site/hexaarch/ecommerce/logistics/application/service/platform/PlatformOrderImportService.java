@@ -0,0 +1,437 @@
+package site.hexaarch.ecommerce.logistics.application.service.platform;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import site.hexaarch.ecommerce.logistics.application.service.OrderApplicationService;
+import site.hexaarch.ecommerce.logistics.domain.common.exception.BusinessException;
+import site.hexaarch.ecommerce.logistics.domain.common.exception.EntityNotFoundException;
+import site.hexaarch.ecommerce.logistics.domain.common.exception.InvalidOperationException;
+import site.hexaarch.ecommerce.logistics.domain.order.aggregate.Order;
+import site.hexaarch.ecommerce.logistics.domain.order.entity.OrderItem;
+import site.hexaarch.ecommerce.logistics.domain.order.repository.OrderImportRejectionRepository;
+import site.hexaarch.ecommerce.logistics.domain.order.service.OrderSyncService;
+import site.hexaarch.ecommerce.logistics.domain.order.valueobject.OrderImportRejection;
+import site.hexaarch.ecommerce.logistics.domain.order.valueobject.OrderImportResult;
+import site.hexaarch.ecommerce.logistics.domain.order.valueobject.PaymentInfo;
+import site.hexaarch.ecommerce.logistics.domain.order.valueobject.ShippingAddress;
+import site.hexaarch.ecommerce.logistics.domain.platform.aggregate.PlatformIntegration;
+import site.hexaarch.ecommerce.logistics.domain.platform.service.PlatformIntegrationService;
+import site.hexaarch.ecommerce.logistics.domain.platform.valueobject.PlatformStatus;
+import site.hexaarch.ecommerce.logistics.infrastructure.platform.PlatformOrderClient;
+import site.hexaarch.ecommerce.logistics.infrastructure.platform.PlatformOrderPage;
+import site.hexaarch.ecommerce.logistics.infrastructure.platform.PlatformOrderPayload;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * 平台订单导入应用服务，把电商平台的订单分阶段导入系统。
+ * <p>
+ * 流水线分为三个阶段，阶段之间用有界队列连接，队列满时上游阻塞，内存占用与导入总量无关：
+ * <ol>
+ *     <li>拉取：一个线程按游标逐页拉取并解析平台订单；</li>
+ *     <li>校验：多个线程把平台订单转换为订单聚合，写入时不能为空的字段不完整的订单计为拒绝；</li>
+ *     <li>写入：调用线程把订单攒成块，每块在一个事务内去重、批量插入并批量发布订单创建事件。</li>
+ * </ol>
+ * 被拒绝的订单记录到隔离表后跳过，不中断导入：校验阶段拒绝的订单随所在页一起交给写入阶段记录；
+ * 整块写入违反数据约束时改为逐个写入，写入失败的订单同样记录并计为拒绝，同一块中的其他订单照常导入。
+ * 每块独立提交，导入中途失败时已提交的块保留，重新同步时由订单编号去重跳过；
+ * 校验线程会打乱页的顺序，写入阶段按页序号记录提交进度，只在连续的前缀页都提交后回调游标。
+ * 同一平台同时只允许一个导入在运行，所有平台同时运行的导入数不超过配置的上限，保证每个导入的各阶段都能分到线程。
+ *
+ * @author kenyon
+ */
+@Service
+public class PlatformOrderImportService {
+    private static final Logger log = LoggerFactory.getLogger(PlatformOrderImportService.class);
+    /**
+     * 阶段结束标记，按引用比较
+     */
+    private static final FetchedPage END_OF_PAGES = new FetchedPage(-1, List.of(), null);
+    private static final ValidatedPage END_OF_ORDERS = new ValidatedPage(-1, List.of(), List.of(), null);
+
+    private final PlatformIntegrationService platformIntegrationService;
+    private final PlatformOrderClient platformOrderClient;
+    private final OrderSyncService orderSyncService;
+    private final OrderApplicationService orderApplicationService;
+    private final OrderImportRejectionRepository orderImportRejectionRepository;
+    private final ExecutorService executor;
+    private final Set<UUID> runningPlatforms = ConcurrentHashMap.newKeySet();
+    private final Semaphore importPermits;
+    private final int pageSize;
+    private final int queueCapacity;
+    private final int workers;
+    private final int chunkSize;
+
+    // 手动添加构造函数，避免Lombok注解问题
+    public PlatformOrderImportService(PlatformIntegrationService platformIntegrationService,
+                                      PlatformOrderClient platformOrderClient,
+                                      OrderSyncService orderSyncService,
+                                      OrderApplicationService orderApplicationService,
+                                      OrderImportRejectionRepository orderImportRejectionRepository,
+                                      @Value("${platform.order-import.page-size:250}") int pageSize,
+                                      @Value("${platform.order-import.queue-capacity:8}") int queueCapacity,
+                                      @Value("${platform.order-import.workers:4}") int workers,
+                                      @Value("${platform.order-import.chunk-size:1000}") int chunkSize,
+                                      @Value("${platform.order-import.max-concurrent-imports:2}") int maxConcurrentImports) {
+        this.platformIntegrationService = platformIntegrationService;
+        this.platformOrderClient = platformOrderClient;
+        this.orderSyncService = orderSyncService;
+        this.orderApplicationService = orderApplicationService;
+        this.orderImportRejectionRepository = orderImportRejectionRepository;
+        this.pageSize = Math.max(1, pageSize);
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.workers = Math.max(1, workers);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.importPermits = new Semaphore(Math.max(1, maxConcurrentImports));
+        AtomicInteger threadNumber = new AtomicInteger();
+        // 每个导入占用一个拉取线程和workers个校验线程
+        this.executor = Executors.newFixedThreadPool((this.workers + 1) * Math.max(1, maxConcurrentImports), runnable -> {
+            Thread thread = new Thread(runnable, "order-import-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 从电商平台导入全部订单，导入完成后返回。
+     *
+     * @param platformId 平台集成ID
+     * @return 导入结果
+     */
+    public OrderImportResult importOrders(UUID platformId) {
+        return importOrders(platformId, null, null, cursor -> {
+        });
+    }
+
+    /**
+     * 从电商平台增量导入订单，导入完成后返回。
+     * <p>
+     * 从第一页起连续的若干页的订单全部提交后，以最后一页的下一页游标回调 {@code checkpoint}，
+     * 中途失败时从回调的游标继续拉取即可，不会跳过未提交的订单。最后一页没有下一页游标，不回调。
+     *
+     * @param platformId   平台集成ID
+     * @param updatedSince 只拉取该时间之后更新的订单，为null时拉取全部订单
+     * @param startCursor  起始游标，为null时从第一页开始
+     * @param checkpoint   进度回调，在写入线程上调用
+     * @return 导入结果
+     */
+    public OrderImportResult importOrders(UUID platformId, LocalDateTime updatedSince, String startCursor,
+                                          Consumer<String> checkpoint) {
+        PlatformIntegration platform = platformIntegrationService.getPlatformIntegrationById(platformId);
+        if (platform == null) {
+            throw new EntityNotFoundException("PlatformIntegration", String.valueOf(platformId));
+        }
+        if (platform.getStatus() != PlatformStatus.ACTIVE) {
+            throw new InvalidOperationException("Platform integration is not active: " + platformId);
+        }
+        if (platform.getTenantId() == null || platform.getTenantId().isBlank()) {
+            throw new InvalidOperationException("Platform integration has no tenant: " + platformId);
+        }
+        if (!runningPlatforms.add(platformId)) {
+            throw new InvalidOperationException("Order sync is already running for platform: " + platformId);
+        }
+        try {
+            if (!importPermits.tryAcquire()) {
+                throw new InvalidOperationException("Too many order syncs are running, try again later");
+            }
+            try {
+                return runPipeline(platform, updatedSince, startCursor, checkpoint);
+            } finally {
+                importPermits.release();
+            }
+        } finally {
+            runningPlatforms.remove(platformId);
+        }
+    }
+
+    private OrderImportResult runPipeline(PlatformIntegration platform, LocalDateTime updatedSince, String startCursor,
+                                          Consumer<String> checkpoint) {
+        long startedAt = System.nanoTime();
+        String tenantId = platform.getTenantId();
+        BlockingQueue<FetchedPage> pages = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<ValidatedPage> validated = new ArrayBlockingQueue<>(queueCapacity);
+        AtomicInteger fetched = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger writeRejected = new AtomicInteger();
+
+        List<Future<?>> stages = new ArrayList<>(workers + 1);
+        stages.add(executor.submit(() -> fetchPages(platform, updatedSince, startCursor, pages, fetched)));
+        for (int i = 0; i < workers; i++) {
+            stages.add(executor.submit(() -> validatePages(tenantId, platform.getId(), pages, validated, rejected)));
+        }
+
+        PageProgress progress = new PageProgress(checkpoint);
+        int received = 0;
+        int imported = 0;
+        try {
+            List<Order> chunk = new ArrayList<>(chunkSize);
+            List<int[]> chunkPages = new ArrayList<>();
+            int finishedWorkers = 0;
+            while (finishedWorkers < workers) {
+                ValidatedPage page = validated.take();
+                if (page == END_OF_ORDERS) {
+                    finishedWorkers++;
+                    continue;
+                }
+                progress.received(page);
+                // 先记录被拒绝的订单，再提交这一页的进度
+                quarantine(page.rejections());
+                if (page.orders().isEmpty()) {
+                    progress.written(page.sequence(), 0);
+                    progress.checkpoint();
+                    continue;
+                }
+                chunk.addAll(page.orders());
+                chunkPages.add(new int[]{page.sequence(), page.orders().size()});
+                if (chunk.size() >= chunkSize) {
+                    received += chunk.size();
+                    imported += writeChunk(platform.getId(), chunk, writeRejected);
+                    chunkPages.forEach(written -> progress.written(written[0], written[1]));
+                    progress.checkpoint();
+                    chunk = new ArrayList<>(chunkSize);
+                    chunkPages.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                received += chunk.size();
+                imported += writeChunk(platform.getId(), chunk, writeRejected);
+                chunkPages.forEach(written -> progress.written(written[0], written[1]));
+                progress.checkpoint();
+            }
+            // 拉取阶段的异常在这里重新抛出
+            for (Future<?> stage : stages) {
+                stage.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException("Interrupted while importing platform orders", "ORDER_IMPORT_INTERRUPTED", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new BusinessException("Failed to import platform orders", "ORDER_IMPORT_FAILED", e.getCause());
+        } finally {
+            // 写入失败时中断仍在运行的上游阶段
+            stages.forEach(stage -> stage.cancel(true));
+        }
+
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        OrderImportResult result = new OrderImportResult(fetched.get(), imported, received - imported - writeRejected.get(),
+                rejected.get() + writeRejected.get(), elapsedMillis);
+        log.info("平台 {} 订单导入完成: 拉取 {}，导入 {}，重复 {}，拒绝 {}，耗时 {} ms", platform.getId(),
+                result.getFetched(), result.getImported(), result.getDuplicates(), result.getRejected(), elapsedMillis);
+        return result;
+    }
+
+    private Void fetchPages(PlatformIntegration platform, LocalDateTime updatedSince, String startCursor,
+                            BlockingQueue<FetchedPage> pages, AtomicInteger fetched) throws InterruptedException {
+        try {
+            String cursor = startCursor;
+            int sequence = 0;
+            do {
+                PlatformOrderPage page = platformOrderClient.fetchOrders(platform, updatedSince, cursor, pageSize);
+                List<PlatformOrderPayload> orders = page.getOrders();
+                if (orders == null || orders.isEmpty()) {
+                    break;
+                }
+                fetched.addAndGet(orders.size());
+                cursor = page.getNextCursor();
+                pages.put(new FetchedPage(sequence++, orders, cursor));
+            } while (cursor != null && !cursor.isBlank());
+        } finally {
+            for (int i = 0; i < workers; i++) {
+                pages.put(END_OF_PAGES);
+            }
+        }
+        return null;
+    }
+
+    private Void validatePages(String tenantId, UUID platformId, BlockingQueue<FetchedPage> pages,
+                               BlockingQueue<ValidatedPage> validated, AtomicInteger rejected) throws InterruptedException {
+        try {
+            FetchedPage page;
+            while ((page = pages.take()) != END_OF_PAGES) {
+                List<Order> orders = new ArrayList<>(page.orders().size());
+                List<OrderImportRejection> rejections = new ArrayList<>();
+                for (PlatformOrderPayload payload : page.orders()) {
+                    try {
+                        orders.add(toOrder(tenantId, platformId, payload));
+                    } catch (RuntimeException e) {
+                        rejected.incrementAndGet();
+                        rejections.add(new OrderImportRejection(platformId, payload.getOrderNumber(),
+                                OrderImportRejection.Stage.VALIDATION, e.getMessage(), LocalDateTime.now()));
+                        log.debug("跳过无效的平台订单 {}: {}", payload.getOrderNumber(), e.getMessage());
+                    }
+                }
+                // 全部被拒绝的页也要交给写入阶段，否则进度会停在这一页
+                validated.put(new ValidatedPage(page.sequence(), orders, rejections, page.nextCursor()));
+            }
+        } finally {
+            validated.put(END_OF_ORDERS);
+        }
+        return null;
+    }
+
+    private int writeChunk(UUID platformId, List<Order> chunk, AtomicInteger writeRejected) {
+        try {
+            return importChunk(chunk);
+        } catch (DuplicateKeyException e) {
+            throw e;
+        } catch (DataIntegrityViolationException e) {
+            // 块中有订单违反数据约束，逐个写入，只隔离写入失败的订单
+            log.warn("导入订单时违反数据约束，逐个写入 {} 个订单: {}", chunk.size(), e.getMostSpecificCause().getMessage());
+            int imported = 0;
+            List<OrderImportRejection> rejections = new ArrayList<>();
+            for (Order order : chunk) {
+                try {
+                    imported += importChunk(List.of(order));
+                } catch (DuplicateKeyException orderFailure) {
+                    throw orderFailure;
+                } catch (DataIntegrityViolationException orderFailure) {
+                    rejections.add(new OrderImportRejection(platformId,
+                            OrderSyncService.externalOrderNumberOf(platformId, order.getOrderNumber()),
+                            OrderImportRejection.Stage.WRITE, orderFailure.getMostSpecificCause().getMessage(), LocalDateTime.now()));
+                }
+            }
+            quarantine(rejections);
+            writeRejected.addAndGet(rejections.size());
+            return imported;
+        }
+    }
+
+    private int importChunk(List<Order> chunk) {
+        try {
+            return orderApplicationService.importOrders(chunk);
+        } catch (DuplicateKeyException e) {
+            // 其他实例同时导入了同一批订单，重新去重后再试一次
+            log.warn("导入订单时订单编号冲突，重新去重后重试: {}", e.getMessage());
+            return orderApplicationService.importOrders(chunk);
+        }
+    }
+
+    private void quarantine(List<OrderImportRejection> rejections) {
+        if (!rejections.isEmpty()) {
+            orderImportRejectionRepository.saveAll(rejections);
+        }
+    }
+
+    private Order toOrder(String tenantId, UUID platformId, PlatformOrderPayload payload) {
+        List<OrderItem> orderItems = new ArrayList<>(payload.getItems() != null ? payload.getItems().size() : 0);
+        if (payload.getItems() != null) {
+            for (PlatformOrderPayload.Item item : payload.getItems()) {
+                orderItems.add(OrderItem.create(item.getSku(), item.getSku(), item.getProductName(),
+                        item.getQuantity(), item.getUnitPrice()));
+            }
+        }
+        PlatformOrderPayload.Address address = payload.getShippingAddress();
+        ShippingAddress shippingAddress = address == null ? null : ShippingAddress.builder()
+                .country(address.getCountry())
+                .province(address.getProvince())
+                .city(address.getCity())
+                .street(address.getStreet())
+                .zipCode(address.getZipCode())
+                .recipient(address.getRecipient())
+                .phone(address.getPhone())
+                .build();
+        PlatformOrderPayload.Payment payment = payload.getPayment();
+        PaymentInfo paymentInfo = payment == null ? null : PaymentInfo.builder()
+                .paymentMethod(payment.getMethod())
+                .paymentStatus(payment.getStatus())
+                .transactionId(payment.getTransactionId())
+                .amount(payment.getAmount())
+                .build();
+        return orderSyncService.importOrder(tenantId, platformId, payload.getOrderNumber(), payload.getCustomerId(),
+                orderItems, shippingAddress, paymentInfo, parseTime(payload.getCreatedAt()));
+    }
+
+    private static LocalDateTime parseTime(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return OffsetDateTime.parse(value).withOffsetSameInstant(ZoneOffset.UTC).toLocalDateTime();
+        } catch (DateTimeParseException e) {
+            return LocalDateTime.parse(value);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private record FetchedPage(int sequence, List<PlatformOrderPayload> orders, String nextCursor) {
+    }
+
+    private record ValidatedPage(int sequence, List<Order> orders, List<OrderImportRejection> rejections, String nextCursor) {
+    }
+
+    /**
+     * 写入进度，只在写入线程上使用。
+     */
+    private static final class PageProgress {
+        private final Consumer<String> checkpointCallback;
+        private final Map<Integer, Integer> remaining = new HashMap<>();
+        private final Map<Integer, String> nextCursors = new HashMap<>();
+        private final Set<Integer> completed = new HashSet<>();
+        private int nextSequence;
+
+        private PageProgress(Consumer<String> checkpointCallback) {
+            this.checkpointCallback = checkpointCallback;
+        }
+
+        void received(ValidatedPage page) {
+            remaining.put(page.sequence(), page.orders().size());
+            nextCursors.put(page.sequence(), page.nextCursor());
+        }
+
+        void written(int sequence, int count) {
+            if (remaining.merge(sequence, -count, Integer::sum) <= 0) {
+                remaining.remove(sequence);
+                completed.add(sequence);
+            }
+        }
+
+        /**
+         * 回调连续的已提交页之后的游标，没有新的连续页提交时不回调。
+         */
+        void checkpoint() {
+            String cursor = null;
+            boolean advanced = false;
+            while (completed.remove(nextSequence)) {
+                cursor = nextCursors.remove(nextSequence);
+                nextSequence++;
+                advanced = true;
+            }
+            if (advanced && cursor != null && !cursor.isBlank()) {
+                checkpointCallback.accept(cursor);
+            }
+        }
+    }
+}
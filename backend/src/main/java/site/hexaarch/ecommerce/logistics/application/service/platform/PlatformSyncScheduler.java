@@ -0,0 +1,252 @@
+package site.hexaarch.ecommerce.logistics.application.service.platform;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import site.hexaarch.ecommerce.logistics.domain.common.exception.InvalidOperationException;
+import site.hexaarch.ecommerce.logistics.domain.order.valueobject.OrderImportResult;
+import site.hexaarch.ecommerce.logistics.domain.platform.aggregate.PlatformIntegration;
+import site.hexaarch.ecommerce.logistics.domain.platform.repository.PlatformIntegrationRepository;
+import site.hexaarch.ecommerce.logistics.domain.platform.repository.SyncWatermarkRepository;
+import site.hexaarch.ecommerce.logistics.domain.platform.valueobject.PlatformSyncType;
+import site.hexaarch.ecommerce.logistics.domain.platform.valueobject.SyncWatermark;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 平台增量同步调度器，定时把到期的平台集成分派到同步线程池，按水位只拉取变更的订单。
+ * <p>
+ * 每个平台集成的同步进度保存在 {@link SyncWatermark} 中：轮次内每提交一段连续的页就持久化一次游标，
+ * 重启或失败后从游标处继续本轮，而不是重新全量同步。下一轮的计划时间加入随机抖动，避免所有平台同时拉取；
+ * 连续失败时按指数退避推迟。每个平台的请求速率由平台客户端的限流器控制。
+ * 多个节点同时运行时，通过水位上的租约保证同一平台同一时间只由一个节点同步。
+ * 水位、计划时间和租约时间均为UTC时间。
+ * 目前只调度订单同步。
+ *
+ * @author kenyon
+ */
+@Component
+@ConditionalOnProperty(prefix = "platform.sync", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class PlatformSyncScheduler {
+    private static final Logger log = LoggerFactory.getLogger(PlatformSyncScheduler.class);
+
+    private final PlatformIntegrationRepository platformIntegrationRepository;
+    private final SyncWatermarkRepository syncWatermarkRepository;
+    private final PlatformOrderImportService platformOrderImportService;
+    private final Executor executor;
+    private final Clock clock;
+    private final String owner;
+    private final Duration interval;
+    private final long jitterMillis;
+    private final Duration overlap;
+    private final Duration retryBackoff;
+    private final Duration maxBackoff;
+    private final Duration leaseDuration;
+    private final Set<UUID> inFlight = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public PlatformSyncScheduler(PlatformIntegrationRepository platformIntegrationRepository,
+                                 SyncWatermarkRepository syncWatermarkRepository,
+                                 PlatformOrderImportService platformOrderImportService,
+                                 @Value("${platform.sync.workers:4}") int workers,
+                                 @Value("${platform.sync.interval-seconds:300}") long intervalSeconds,
+                                 @Value("${platform.sync.jitter-seconds:30}") long jitterSeconds,
+                                 @Value("${platform.sync.overlap-seconds:60}") long overlapSeconds,
+                                 @Value("${platform.sync.retry-backoff-seconds:30}") long retryBackoffSeconds,
+                                 @Value("${platform.sync.max-backoff-seconds:3600}") long maxBackoffSeconds,
+                                 @Value("${platform.sync.lease-seconds:600}") long leaseSeconds) {
+        this(platformIntegrationRepository, syncWatermarkRepository, platformOrderImportService,
+                newWorkerPool(workers), Clock.systemUTC(), UUID.randomUUID().toString(),
+                Duration.ofSeconds(intervalSeconds), Duration.ofSeconds(jitterSeconds), Duration.ofSeconds(overlapSeconds),
+                Duration.ofSeconds(retryBackoffSeconds), Duration.ofSeconds(maxBackoffSeconds), Duration.ofSeconds(leaseSeconds));
+    }
+
+    PlatformSyncScheduler(PlatformIntegrationRepository platformIntegrationRepository,
+                          SyncWatermarkRepository syncWatermarkRepository,
+                          PlatformOrderImportService platformOrderImportService,
+                          Executor executor,
+                          Clock clock,
+                          String owner,
+                          Duration interval,
+                          Duration jitter,
+                          Duration overlap,
+                          Duration retryBackoff,
+                          Duration maxBackoff,
+                          Duration leaseDuration) {
+        this.platformIntegrationRepository = platformIntegrationRepository;
+        this.syncWatermarkRepository = syncWatermarkRepository;
+        this.platformOrderImportService = platformOrderImportService;
+        this.executor = executor;
+        // 水位时间按UTC记录，平台客户端把updatedSince作为UTC时间发送，与服务器时区无关
+        this.clock = clock.withZone(ZoneOffset.UTC);
+        this.owner = owner;
+        this.interval = interval;
+        this.jitterMillis = Math.max(0, jitter.toMillis());
+        this.overlap = overlap;
+        this.retryBackoff = retryBackoff;
+        this.maxBackoff = maxBackoff;
+        this.leaseDuration = leaseDuration;
+    }
+
+    private static ExecutorService newWorkerPool(int workers) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return Executors.newFixedThreadPool(Math.max(1, workers), runnable -> {
+            Thread thread = new Thread(runnable, "platform-sync-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 定时检查所有激活的平台集成，把到期且拿到租约的平台分派到同步线程池。
+     */
+    @Scheduled(fixedDelayString = "${platform.sync.poll-interval-ms:10000}")
+    public void dispatch() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        Map<UUID, SyncWatermark> watermarks = new HashMap<>();
+        for (SyncWatermark watermark : syncWatermarkRepository.findBySyncType(PlatformSyncType.ORDERS)) {
+            watermarks.put(watermark.getPlatformId(), watermark);
+        }
+        for (PlatformIntegration platform : platformIntegrationRepository.findByStatusActive()) {
+            UUID platformId = platform.getId();
+            if (inFlight.contains(platformId)) {
+                continue;
+            }
+            SyncWatermark watermark = watermarks.get(platformId);
+            if (watermark == null) {
+                // 新接入的平台在抖动范围内错开第一轮全量同步
+                watermark = SyncWatermark.initial(platformId, PlatformSyncType.ORDERS, now.plus(jitter()));
+                syncWatermarkRepository.save(watermark);
+            }
+            if (!watermark.isDue(now) || !inFlight.add(platformId)) {
+                continue;
+            }
+            if (!syncWatermarkRepository.tryAcquireLease(platformId, PlatformSyncType.ORDERS, owner, now, now.plus(leaseDuration))) {
+                inFlight.remove(platformId);
+                continue;
+            }
+            try {
+                executor.execute(() -> syncPlatform(platformId));
+            } catch (RejectedExecutionException e) {
+                releaseLease(platformId);
+                inFlight.remove(platformId);
+            }
+        }
+    }
+
+    /**
+     * 同步一个平台集成的订单，结束后释放租约。
+     *
+     * @param platformId 平台集成ID
+     */
+    void syncPlatform(UUID platformId) {
+        try {
+            // 任务可能在线程池中排队过，重新续约并读取最新水位
+            LocalDateTime now = LocalDateTime.now(clock);
+            if (!renewLease(platformId)) {
+                return;
+            }
+            SyncWatermark current = syncWatermarkRepository.find(platformId, PlatformSyncType.ORDERS).orElse(null);
+            if (current == null || !current.isDue(now)) {
+                return;
+            }
+            runSync(current.startRun(now));
+        } catch (RuntimeException e) {
+            log.error("平台 {} 订单同步调度异常", platformId, e);
+        } finally {
+            releaseLease(platformId);
+            inFlight.remove(platformId);
+        }
+    }
+
+    private void runSync(SyncWatermark started) {
+        UUID platformId = started.getPlatformId();
+        syncWatermarkRepository.save(started);
+        AtomicReference<SyncWatermark> progress = new AtomicReference<>(started);
+        try {
+            OrderImportResult result = platformOrderImportService.importOrders(platformId, started.getUpdatedSince(),
+                    started.getCursor(), cursor -> {
+                        if (!renewLease(platformId)) {
+                            throw new LeaseLostException(platformId);
+                        }
+                        SyncWatermark checkpoint = progress.get().checkpoint(cursor);
+                        syncWatermarkRepository.save(checkpoint);
+                        progress.set(checkpoint);
+                    });
+            LocalDateTime finishedAt = LocalDateTime.now(clock);
+            syncWatermarkRepository.save(progress.get().complete(overlap, finishedAt, finishedAt.plus(interval).plus(jitter())));
+            log.info("平台 {} 增量订单同步完成: 拉取 {}，导入 {}", platformId, result.getFetched(), result.getImported());
+        } catch (LeaseLostException e) {
+            // 其他节点已接手，不再写入水位
+            log.warn(e.getMessage());
+        } catch (InvalidOperationException e) {
+            // 平台已停用或正在手动同步，按正常间隔推迟，不计为失败
+            log.info("平台 {} 订单同步推迟: {}", platformId, e.getMessage());
+            LocalDateTime now = LocalDateTime.now(clock);
+            syncWatermarkRepository.save(progress.get().reschedule(now.plus(interval).plus(jitter())));
+        } catch (RuntimeException e) {
+            SyncWatermark failed = progress.get();
+            LocalDateTime now = LocalDateTime.now(clock);
+            Duration backoff = backoff(failed.getConsecutiveFailures() + 1);
+            syncWatermarkRepository.save(failed.fail(e.getClass().getSimpleName() + ": " + e.getMessage(), now.plus(backoff)));
+            log.warn("平台 {} 订单同步失败，{} 秒后从游标处重试: {}", platformId, backoff.toSeconds(), e.getMessage());
+        }
+    }
+
+    private boolean renewLease(UUID platformId) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        return syncWatermarkRepository.tryAcquireLease(platformId, PlatformSyncType.ORDERS, owner, now, now.plus(leaseDuration));
+    }
+
+    private void releaseLease(UUID platformId) {
+        try {
+            syncWatermarkRepository.releaseLease(platformId, PlatformSyncType.ORDERS, owner);
+        } catch (RuntimeException e) {
+            // 释放失败时租约到期后自动失效
+            log.warn("释放平台 {} 同步租约失败: {}", platformId, e.getMessage());
+        }
+    }
+
+    private Duration jitter() {
+        return jitterMillis > 0 ? Duration.ofMillis(ThreadLocalRandom.current().nextLong(jitterMillis + 1)) : Duration.ZERO;
+    }
+
+    private Duration backoff(int failures) {
+        int shift = Math.min(failures - 1, 20);
+        Duration backoff = retryBackoff.multipliedBy(1L << shift);
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor instanceof ExecutorService service) {
+            service.shutdownNow();
+        }
+    }
+
+    private static final class LeaseLostException extends RuntimeException {
+        private LeaseLostException(UUID platformId) {
+            super("Lost sync lease for platform: " + platformId);
+        }
+    }
+}
@@ -1,13 +1,19 @@
 package site.hexaarch.ecommerce.logistics.application.service.purchase;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import site.hexaarch.ecommerce.logistics.application.service.WarehouseApplicationService;
 import site.hexaarch.ecommerce.logistics.domain.purchase.aggregate.PurchaseOrder;
+import site.hexaarch.ecommerce.logistics.domain.purchase.entity.PurchaseOrderItem;
 import site.hexaarch.ecommerce.logistics.domain.purchase.service.PurchaseOrderService;
+import site.hexaarch.ecommerce.logistics.domain.purchase.valueobject.PurchaseOrderDraft;
 import site.hexaarch.ecommerce.logistics.domain.purchase.valueobject.PurchaseStatus;
 import site.hexaarch.ecommerce.logistics.infrastructure.messaging.DomainEventPublisher;
 
 import java.math.BigDecimal;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 采购应用服务，负责协调领域对象完成采购相关的业务操作。
@@ -18,16 +24,20 @@ import java.util.List;
 public class PurchaseApplicationService {
     private final PurchaseOrderService purchaseOrderService;
     private final DomainEventPublisher domainEventPublisher;
+    private final WarehouseApplicationService warehouseApplicationService;
 
     /**
      * 构造函数，注入采购单领域服务。
      *
-     * @param purchaseOrderService 采购单领域服务
-     * @param domainEventPublisher 领域事件发布服务
+     * @param purchaseOrderService        采购单领域服务
+     * @param domainEventPublisher        领域事件发布服务
+     * @param warehouseApplicationService 仓储应用服务
      */
-    public PurchaseApplicationService(PurchaseOrderService purchaseOrderService, DomainEventPublisher domainEventPublisher) {
+    public PurchaseApplicationService(PurchaseOrderService purchaseOrderService, DomainEventPublisher domainEventPublisher,
+                                      WarehouseApplicationService warehouseApplicationService) {
         this.purchaseOrderService = purchaseOrderService;
         this.domainEventPublisher = domainEventPublisher;
+        this.warehouseApplicationService = warehouseApplicationService;
     }
 
     /**
@@ -39,6 +49,7 @@ public class PurchaseApplicationService {
      * @param warehouseId  仓库ID
      * @return 创建的采购单
      */
+    @Transactional
     public PurchaseOrder createPurchaseOrder(String tenantId, String supplierId, String supplierName, String warehouseId) {
         PurchaseOrder purchaseOrder = purchaseOrderService.createPurchaseOrder(tenantId, supplierId, supplierName, warehouseId);
         // 发布采购单聚合中的所有领域事件
@@ -46,6 +57,23 @@ public class PurchaseApplicationService {
         return purchaseOrder;
     }
 
+    /**
+     * 按草稿批量创建带采购项的采购单，所有采购单和发件箱记录在同一事务中写入。
+     *
+     * @param drafts 采购单草稿列表
+     * @return 创建的采购单列表，与草稿顺序一致
+     */
+    @Transactional
+    public List<PurchaseOrder> createPurchaseOrders(List<PurchaseOrderDraft> drafts) {
+        if (drafts.isEmpty()) {
+            return List.of();
+        }
+        List<PurchaseOrder> purchaseOrders = purchaseOrderService.createPurchaseOrders(drafts);
+        // 发布所有采购单聚合中的领域事件
+        domainEventPublisher.publishEventsFrom(purchaseOrders);
+        return purchaseOrders;
+    }
+
     /**
      * 根据采购单号查找采购单。
      *
@@ -76,6 +104,7 @@ public class PurchaseApplicationService {
      * @param unitPrice       单价
      * @return 更新后的采购单
      */
+    @Transactional
     public PurchaseOrder addPurchaseOrderItem(String purchaseOrderId, String skuCode, String productName, Integer quantity, BigDecimal unitPrice) {
         var purchaseOrder = purchaseOrderService.findPurchaseOrderById(purchaseOrderId);
         purchaseOrder.addItem(skuCode, productName, quantity, unitPrice);
@@ -90,6 +119,7 @@ public class PurchaseApplicationService {
      * @param purchaseOrderId 采购单号
      * @return 批准后的采购单
      */
+    @Transactional
     public PurchaseOrder approvePurchaseOrder(String purchaseOrderId) {
         PurchaseOrder purchaseOrder = purchaseOrderService.approvePurchaseOrder(purchaseOrderId);
         // 发布采购单聚合中的所有领域事件
@@ -127,6 +157,30 @@ public class PurchaseApplicationService {
         return purchaseOrderService.markPurchaseOrderAsDelivered(purchaseOrderId);
     }
 
+    /**
+     * 采购单收货：标记采购单为已送达，并把所有采购项一次入库到采购单的目标仓库。
+     * 采购单状态、库存记录、库存流水和发件箱记录在同一事务中写入，任一步失败整体回滚。
+     *
+     * @param purchaseOrderId 采购单号
+     * @return 收货后的采购单
+     */
+    @Transactional
+    public PurchaseOrder receivePurchaseOrder(String purchaseOrderId) {
+        PurchaseOrder purchaseOrder = purchaseOrderService.markPurchaseOrderAsDelivered(purchaseOrderId);
+        // 同一SKU的多个采购项合并入库
+        Map<String, Integer> quantitiesBySku = new LinkedHashMap<>();
+        for (PurchaseOrderItem item : purchaseOrder.getItems()) {
+            quantitiesBySku.merge(item.getSkuCode(), item.getQuantity(), Integer::sum);
+        }
+        if (!quantitiesBySku.isEmpty()) {
+            warehouseApplicationService.receiveInventory(purchaseOrder.getWarehouseId(), quantitiesBySku,
+                    "采购入库: " + purchaseOrderId);
+        }
+        // 发布采购单聚合中的所有领域事件
+        domainEventPublisher.publishEventsFrom(purchaseOrder);
+        return purchaseOrder;
+    }
+
     /**
      * 取消采购单。
      *
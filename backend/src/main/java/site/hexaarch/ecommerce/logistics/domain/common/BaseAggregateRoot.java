@@ -8,13 +8,15 @@ import java.util.List;
  *
  * @author kenyon
  */
-public abstract class BaseAggregateRoot<T> {
+public abstract class BaseAggregateRoot<T> implements DomainEventSource {
     protected List<Object> domainEvents;
 
+    @Override
     public List<Object> getDomainEvents() {
         return domainEvents;
     }
 
+    @Override
     public void clearDomainEvents() {
         if (domainEvents != null) {
             domainEvents.clear();
@@ -0,0 +1,29 @@
+package site.hexaarch.ecommerce.logistics.domain.common;
+
+import java.util.List;
+
+/**
+ * 领域事件来源，由聚合根实现，供事件发布方直接读取和清空聚合中收集的领域事件
+ *
+ * @author kenyon
+ */
+public interface DomainEventSource {
+    /**
+     * 获取聚合标识，用作消息的顺序键
+     *
+     * @return 聚合ID
+     */
+    String aggregateId();
+
+    /**
+     * 获取聚合中尚未发布的领域事件
+     *
+     * @return 领域事件列表，可能为null
+     */
+    List<Object> getDomainEvents();
+
+    /**
+     * 清空已发布的领域事件
+     */
+    void clearDomainEvents();
+}
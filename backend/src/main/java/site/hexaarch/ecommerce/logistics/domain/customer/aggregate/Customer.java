@@ -152,6 +152,11 @@ public class Customer extends BaseAggregateRoot {
         ));
     }
 
+    @Override
+    public String aggregateId() {
+        return customerId;
+    }
+
     /**
      * 获取租户ID
      */
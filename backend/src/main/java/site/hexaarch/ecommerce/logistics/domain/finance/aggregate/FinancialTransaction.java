@@ -161,6 +161,11 @@ public class FinancialTransaction extends BaseAggregateRoot {
         ));
     }
 
+    @Override
+    public String aggregateId() {
+        return transactionId;
+    }
+
     // 手动添加toBuilder方法
     public Builder toBuilder() {
         return new Builder()
@@ -1,6 +1,7 @@
 package site.hexaarch.ecommerce.logistics.domain.logistics.aggregate;
 
 import lombok.Getter;
+import site.hexaarch.ecommerce.logistics.domain.common.DomainEventSource;
 import site.hexaarch.ecommerce.logistics.domain.logistics.event.LogisticsCompletedEvent;
 import site.hexaarch.ecommerce.logistics.domain.logistics.event.LogisticsLabelGeneratedEvent;
 import site.hexaarch.ecommerce.logistics.domain.logistics.event.LogisticsOrderCreatedEvent;
@@ -21,7 +22,7 @@ import java.util.UUID;
  * @author kenyon
  */
 @Getter
-public class LogisticsOrder {
+public class LogisticsOrder implements DomainEventSource {
     protected List<Object> domainEvents;
     private String logisticsOrderId;
     private String tenantId;
@@ -115,10 +116,45 @@ public class LogisticsOrder {
         return "TN" + System.currentTimeMillis() + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
     }
 
+    /**
+     * 从持久化状态重建物流单，不生成运单号、不应用默认值，也不注册领域事件。
+     *
+     * @param logisticsOrderId   物流单ID
+     * @param tenantId           租户ID
+     * @param orderId            订单ID
+     * @param logisticsChannelId 物流渠道ID
+     * @param logisticsStatus    物流状态
+     * @param trackingNumber     运单号
+     * @param logisticsLabel     物流标签
+     * @param logisticsFee       物流费用
+     * @param createdAt          创建时间
+     * @param updatedAt          更新时间
+     * @return 重建的物流单
+     */
+    public static LogisticsOrder reconstitute(String logisticsOrderId, String tenantId, String orderId, String logisticsChannelId, LogisticsStatus logisticsStatus, String trackingNumber, LogisticsLabel logisticsLabel, LogisticsFee logisticsFee, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        LogisticsOrder logisticsOrder = new LogisticsOrder();
+        logisticsOrder.logisticsOrderId = logisticsOrderId;
+        logisticsOrder.tenantId = tenantId;
+        logisticsOrder.orderId = orderId;
+        logisticsOrder.logisticsChannelId = logisticsChannelId;
+        logisticsOrder.logisticsStatus = logisticsStatus;
+        logisticsOrder.trackingNumber = trackingNumber;
+        logisticsOrder.logisticsLabel = logisticsLabel;
+        logisticsOrder.logisticsFee = logisticsFee;
+        logisticsOrder.createdAt = createdAt;
+        logisticsOrder.updatedAt = updatedAt;
+        return logisticsOrder;
+    }
+
     public static LogisticsOrderBuilder builder() {
         return new LogisticsOrderBuilder();
     }
 
+    @Override
+    public String aggregateId() {
+        return logisticsOrderId;
+    }
+
     public List<Object> getDomainEvents() {
         return domainEvents;
     }
@@ -146,25 +182,39 @@ public class LogisticsOrder {
         this.logisticsStatus = newStatus;
         this.updatedAt = LocalDateTime.now();
 
-        // 注册物流状态变更事件
-        LogisticsStatusChangedEvent event = LogisticsStatusChangedEvent.builder()
-                .logisticsOrderId(this.getLogisticsOrderId())
-                .orderId(this.getOrderId())
+        // 注册物流状态变更事件，已送达时同时注册物流完成事件
+        statusChangedEvents(this.getLogisticsOrderId(), this.getOrderId(), oldStatus, newStatus, this.getUpdatedAt())
+                .forEach(this::registerDomainEvent);
+    }
+
+    /**
+     * 构建物流状态变更时应发布的领域事件，供不加载整个聚合的批量状态更新复用。
+     *
+     * @param logisticsOrderId 物流单ID
+     * @param orderId          订单ID
+     * @param oldStatus        原物流状态
+     * @param newStatus        新物流状态
+     * @param changedAt        变更时间
+     * @return 物流状态变更事件，已送达时还包含物流完成事件
+     */
+    public static List<Object> statusChangedEvents(String logisticsOrderId, String orderId, LogisticsStatus oldStatus,
+                                                   LogisticsStatus newStatus, LocalDateTime changedAt) {
+        List<Object> events = new ArrayList<>(2);
+        events.add(LogisticsStatusChangedEvent.builder()
+                .logisticsOrderId(logisticsOrderId)
+                .orderId(orderId)
                 .oldStatus(oldStatus)
                 .newStatus(newStatus)
-                .changedAt(this.getUpdatedAt())
-                .build();
-        this.registerDomainEvent(event);
-
-        // 如果物流状态变为已送达，注册物流完成事件
+                .changedAt(changedAt)
+                .build());
         if (newStatus.isDelivered()) {
-            LogisticsCompletedEvent completedEvent = LogisticsCompletedEvent.builder()
-                    .logisticsOrderId(this.getLogisticsOrderId())
-                    .orderId(this.getOrderId())
-                    .completedAt(this.getUpdatedAt())
-                    .build();
-            this.registerDomainEvent(completedEvent);
+            events.add(LogisticsCompletedEvent.builder()
+                    .logisticsOrderId(logisticsOrderId)
+                    .orderId(orderId)
+                    .completedAt(changedAt)
+                    .build());
         }
+        return events;
     }
 
     /**
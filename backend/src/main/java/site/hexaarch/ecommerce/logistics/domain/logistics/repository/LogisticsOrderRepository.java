@@ -2,7 +2,10 @@ package site.hexaarch.ecommerce.logistics.domain.logistics.repository;
 
 import site.hexaarch.ecommerce.logistics.domain.logistics.aggregate.LogisticsOrder;
 import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.LogisticsStatus;
+import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.ShipmentStatus;
+import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.StatusTransition;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,6 +23,14 @@ public interface LogisticsOrderRepository {
      */
     LogisticsOrder save(LogisticsOrder logisticsOrder);
 
+    /**
+     * 批量保存物流单，已有行一次性读取，不逐个查询。
+     *
+     * @param logisticsOrders 物流单聚合列表
+     * @return 保存后的物流单聚合列表
+     */
+    List<LogisticsOrder> saveAll(List<LogisticsOrder> logisticsOrders);
+
     /**
      * 根据ID查找物流单。
      *
@@ -28,6 +39,14 @@ public interface LogisticsOrderRepository {
      */
     Optional<LogisticsOrder> findById(String id);
 
+    /**
+     * 根据ID集合批量查找物流单，结果不保证与传入顺序一致，不存在的ID被忽略。
+     *
+     * @param ids 物流单ID集合
+     * @return 物流单聚合列表
+     */
+    List<LogisticsOrder> findAllById(Collection<String> ids);
+
     /**
      * 根据订单ID查找物流单。
      *
@@ -52,6 +71,22 @@ public interface LogisticsOrderRepository {
      */
     List<LogisticsOrder> findByLogisticsStatus(LogisticsStatus status);
 
+    /**
+     * 根据运单号集合批量查找运单状态，只读取轨迹处理所需的字段，不存在的运单号被忽略。
+     *
+     * @param trackingNumbers 运单号集合
+     * @return 运单状态列表
+     */
+    List<ShipmentStatus> findShipmentStatuses(Collection<String> trackingNumbers);
+
+    /**
+     * 批量推进物流单状态，只有物流单仍处于读取时的状态才会更新，被并发修改的物流单被跳过。
+     *
+     * @param transitions 状态推进列表
+     * @return 实际生效的状态推进列表
+     */
+    List<StatusTransition> applyTransitions(List<StatusTransition> transitions);
+
     /**
      * 查找所有物流单。
      *
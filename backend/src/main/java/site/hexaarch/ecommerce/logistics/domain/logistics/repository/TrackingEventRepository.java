@@ -0,0 +1,28 @@
+package site.hexaarch.ecommerce.logistics.domain.logistics.repository;
+
+import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.TrackingEvent;
+
+import java.util.List;
+
+/**
+ * 轨迹事件仓储接口，物流轨迹时间线只追加、不修改。
+ *
+ * @author kenyon
+ */
+public interface TrackingEventRepository {
+    /**
+     * 批量追加轨迹事件，时间线中已存在的扫描被忽略，因此重复投递的批次可以安全重放。
+     *
+     * @param events 轨迹事件列表
+     * @return 实际写入时间线的扫描数量，不含已存在而被忽略的扫描
+     */
+    int appendAll(List<TrackingEvent> events);
+
+    /**
+     * 查找运单的轨迹时间线。
+     *
+     * @param trackingNumber 运单号
+     * @return 按发生时间升序排列的轨迹事件列表
+     */
+    List<TrackingEvent> findTimeline(String trackingNumber);
+}
@@ -4,12 +4,16 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import site.hexaarch.ecommerce.logistics.domain.logistics.entity.LogisticsChannel;
 import site.hexaarch.ecommerce.logistics.domain.logistics.repository.LogisticsChannelRepository;
+import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.ChannelRateIndex;
 import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.LogisticsFee;
-import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.PriceRule;
+import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.RateTable;
 
-import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 物流渠道服务，负责管理物流渠道信息和计算物流费用。
@@ -20,6 +24,15 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class LogisticsChannelService {
     private final LogisticsChannelRepository logisticsChannelRepository;
+    /**
+     * 渠道费率索引缓存，键为渠道ID，渠道创建或更新时失效。
+     */
+    private final Map<String, ChannelRateIndex> rateIndexCache = new ConcurrentHashMap<>();
+    /**
+     * 国家到激活渠道的索引，为空表示需要重建，渠道创建或更新时失效。
+     */
+    private volatile Map<String, List<LogisticsChannel>> activeChannelsByCountry;
+    private final Object countryIndexLock = new Object();
 
     /**
      * 根据ID查找物流渠道。
@@ -38,8 +51,30 @@ public class LogisticsChannelService {
      * @return 物流渠道实体列表
      */
     public List<LogisticsChannel> getAvailableChannels(String country) {
-        // 查找支持指定国家的激活物流渠道
-        return logisticsChannelRepository.findByCountry(country);
+        // 从缓存的国家索引查找支持指定国家的激活物流渠道
+        Map<String, List<LogisticsChannel>> index = activeChannelsByCountry;
+        if (index == null) {
+            // 失效与重建在同一把锁内串行，避免重建期间的失效被旧索引覆盖
+            synchronized (countryIndexLock) {
+                index = activeChannelsByCountry;
+                if (index == null) {
+                    index = buildCountryIndex();
+                    activeChannelsByCountry = index;
+                }
+            }
+        }
+        return country != null ? index.getOrDefault(country, List.of()) : List.of();
+    }
+
+    /**
+     * 获取物流渠道的费率索引，未缓存时从仓储重新加载渠道构建。
+     * 不使用调用方持有的渠道实例构建，避免失效之后用旧快照中的费率重新填充缓存。
+     *
+     * @param channelId 物流渠道ID
+     * @return 渠道费率索引
+     */
+    public ChannelRateIndex getRateIndex(String channelId) {
+        return rateIndexCache.computeIfAbsent(channelId, this::loadRateIndex);
     }
 
     /**
@@ -52,29 +87,56 @@ public class LogisticsChannelService {
      * @return 物流费用
      */
     public LogisticsFee calculateFee(String channelId, double weight, double volume, String country) {
-        // 查找物流渠道
-        LogisticsChannel logisticsChannel = logisticsChannelRepository.findById(channelId)
-                .orElseThrow(() -> new IllegalArgumentException("Logistics channel not found: " + channelId));
+        if (channelId == null) {
+            throw new IllegalArgumentException("Logistics channel not found: null");
+        }
+
+        // 从缓存获取渠道费率索引，首次报价时加载渠道并构建
+        ChannelRateIndex rateIndex = rateIndexCache.computeIfAbsent(channelId, this::loadRateIndex);
 
         // 验证物流渠道是否支持指定国家
-        if (!logisticsChannel.supportsCountry(country)) {
+        RateTable rateTable = rateIndex.forCountry(country);
+        if (rateTable == null) {
             throw new IllegalArgumentException("Logistics channel does not support country: " + country);
         }
 
-        // 查找适用的价格规则
-        PriceRule applicableRule = logisticsChannel.getPriceRules().stream()
-                .filter(rule -> rule.isApplicable(weight, volume))
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("No applicable price rule found for weight: " + weight + " and volume: " + volume));
-
-        // 计算物流费用
-        return LogisticsFee.builder()
-                .baseFee(applicableRule.getPrice())
-                .weightFee(BigDecimal.ZERO)
-                .volumeFee(BigDecimal.ZERO)
-                .totalFee(applicableRule.getPrice())
-                .currency(applicableRule.getCurrency())
-                .build();
+        // 二分查找适用的价格规则，返回预先构建的费用
+        LogisticsFee logisticsFee = rateTable.quote(weight, volume);
+        if (logisticsFee == null) {
+            throw new IllegalArgumentException("No applicable price rule found for weight: " + weight + " and volume: " + volume);
+        }
+        return logisticsFee;
+    }
+
+    /**
+     * 使指定渠道的费率索引失效，下次报价时重新加载。
+     *
+     * @param channelId 物流渠道ID
+     */
+    public void invalidateRateIndex(String channelId) {
+        rateIndexCache.remove(channelId);
+        synchronized (countryIndexLock) {
+            activeChannelsByCountry = null;
+        }
+    }
+
+    private Map<String, List<LogisticsChannel>> buildCountryIndex() {
+        Map<String, List<LogisticsChannel>> index = new HashMap<>();
+        for (LogisticsChannel logisticsChannel : logisticsChannelRepository.findActiveChannels()) {
+            for (String country : logisticsChannel.getCountries()) {
+                if (country != null) {
+                    index.computeIfAbsent(country, key -> new ArrayList<>()).add(logisticsChannel);
+                }
+            }
+        }
+        index.replaceAll((country, channels) -> List.copyOf(channels));
+        return Map.copyOf(index);
+    }
+
+    private ChannelRateIndex loadRateIndex(String channelId) {
+        LogisticsChannel logisticsChannel = logisticsChannelRepository.findById(channelId)
+                .orElseThrow(() -> new IllegalArgumentException("Logistics channel not found: " + channelId));
+        return ChannelRateIndex.of(logisticsChannel);
     }
 
     /**
@@ -84,8 +146,10 @@ public class LogisticsChannelService {
      * @return 创建的物流渠道实体
      */
     public LogisticsChannel createLogisticsChannel(LogisticsChannel logisticsChannel) {
-        // 保存物流渠道
-        return logisticsChannelRepository.save(logisticsChannel);
+        // 保存物流渠道，清除可能残留的同ID费率索引
+        LogisticsChannel createdChannel = logisticsChannelRepository.save(logisticsChannel);
+        invalidateRateIndex(logisticsChannel.getChannelId());
+        return createdChannel;
     }
 
     /**
@@ -99,7 +163,9 @@ public class LogisticsChannelService {
         logisticsChannelRepository.findById(logisticsChannel.getChannelId())
                 .orElseThrow(() -> new IllegalArgumentException("Logistics channel not found: " + logisticsChannel.getChannelId()));
 
-        // 保存物流渠道
-        return logisticsChannelRepository.save(logisticsChannel);
+        // 保存物流渠道，并使旧的费率索引失效
+        LogisticsChannel updatedChannel = logisticsChannelRepository.save(logisticsChannel);
+        invalidateRateIndex(logisticsChannel.getChannelId());
+        return updatedChannel;
     }
 }
\ No newline at end of file
@@ -2,10 +2,14 @@ package site.hexaarch.ecommerce.logistics.domain.logistics.service;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import site.hexaarch.ecommerce.logistics.domain.common.exception.InvalidOperationException;
 import site.hexaarch.ecommerce.logistics.domain.logistics.aggregate.LogisticsOrder;
 import site.hexaarch.ecommerce.logistics.domain.logistics.repository.LogisticsOrderRepository;
+import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.LogisticsLabel;
 import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.LogisticsStatus;
 
+import java.util.UUID;
+
 /**
  * 物流单处理服务，负责处理物流单的创建、修改等操作。
  *
@@ -108,4 +112,39 @@ public class LogisticsOrderProcessingService {
         // 简化实现，只更新状态
         logisticsOrder.updateStatus(LogisticsStatus.LABEL_GENERATED);
     }
+
+    /**
+     * 为物流单生成物流标签。
+     * 待处理的物流单附加标签并更新为已打单状态；已打单的物流单只重新组装标签用于补打，不改变物流单也不注册事件。
+     *
+     * @param logisticsOrder 物流单
+     * @param shipperInfo    发货人信息
+     * @param recipientInfo  收件人信息
+     * @param packageInfo    包裹信息
+     * @return 生成的物流标签
+     */
+    public LogisticsLabel generateLogisticsLabel(LogisticsOrder logisticsOrder, LogisticsLabel.ShipperInfo shipperInfo,
+                                                 LogisticsLabel.RecipientInfo recipientInfo, LogisticsLabel.PackageInfo packageInfo) {
+        LogisticsStatus status = logisticsOrder.getLogisticsStatus();
+        if (!status.isPending() && status != LogisticsStatus.LABEL_GENERATED) {
+            throw new InvalidOperationException("Cannot generate label for logistics order in status " + status + ": " + logisticsOrder.getLogisticsOrderId());
+        }
+        if (logisticsOrder.getTrackingNumber() == null) {
+            throw new InvalidOperationException("Logistics order has no tracking number: " + logisticsOrder.getLogisticsOrderId());
+        }
+
+        LogisticsLabel label = LogisticsLabel.builder()
+                .labelId(UUID.randomUUID().toString())
+                .trackingNumber(logisticsOrder.getTrackingNumber())
+                .shipperInfo(shipperInfo)
+                .recipientInfo(recipientInfo)
+                .packageInfo(packageInfo)
+                .barcode(logisticsOrder.getTrackingNumber())
+                .build();
+        if (status.isPending()) {
+            logisticsOrder.generateLabel(label);
+            logisticsOrder.updateStatus(LogisticsStatus.LABEL_GENERATED);
+        }
+        return label;
+    }
 }
\ No newline at end of file
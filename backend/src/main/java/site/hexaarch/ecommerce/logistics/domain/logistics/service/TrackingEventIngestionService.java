@@ -0,0 +1,67 @@
+package site.hexaarch.ecommerce.logistics.domain.logistics.service;
+
+import org.springframework.stereotype.Service;
+import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.LogisticsStatus;
+import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.ShipmentStatus;
+import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.StatusTransition;
+import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.TrackingEvent;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 轨迹事件接入服务，负责合并承运商的重复扫描，并计算一批扫描对物流单状态的推进。
+ *
+ * @author kenyon
+ */
+@Service
+public class TrackingEventIngestionService {
+
+    /**
+     * 合并批次内的重复扫描，保留每个扫描第一次出现的顺序。
+     *
+     * @param events 承运商扫描列表
+     * @return 去重后的扫描列表
+     */
+    public List<TrackingEvent> coalesce(List<TrackingEvent> events) {
+        return new ArrayList<>(new LinkedHashSet<>(events));
+    }
+
+    /**
+     * 计算一批扫描对物流单状态的推进。
+     * 每个运单的扫描按发生时间排序后依次尝试推进，只有真正推进的扫描才改变状态，
+     * 因此乱序到达、重复或回退的扫描只写入时间线，不会让状态倒退；一个运单最多产生一次状态推进。
+     *
+     * @param shipments 运单号到当前运单状态的映射
+     * @param events    去重后的扫描列表
+     * @return 需要推进状态的物流单列表
+     */
+    public List<StatusTransition> planTransitions(Map<String, ShipmentStatus> shipments, List<TrackingEvent> events) {
+        List<TrackingEvent> ordered = new ArrayList<>(events);
+        ordered.sort(Comparator.comparing(TrackingEvent::getOccurredAt));
+
+        Map<String, LogisticsStatus> targetStatuses = new LinkedHashMap<>();
+        Map<String, LocalDateTime> changedAts = new LinkedHashMap<>();
+        for (TrackingEvent event : ordered) {
+            ShipmentStatus shipment = shipments.get(event.getTrackingNumber());
+            if (shipment == null) {
+                continue;
+            }
+            LogisticsStatus current = targetStatuses.getOrDefault(event.getTrackingNumber(), shipment.getStatus());
+            if (current != null && current.canAdvanceTo(event.getStatus())) {
+                targetStatuses.put(event.getTrackingNumber(), event.getStatus());
+                changedAts.put(event.getTrackingNumber(), event.getOccurredAt());
+            }
+        }
+
+        List<StatusTransition> transitions = new ArrayList<>(targetStatuses.size());
+        targetStatuses.forEach((trackingNumber, status) -> transitions.add(
+                new StatusTransition(shipments.get(trackingNumber), status, changedAts.get(trackingNumber))));
+        return transitions;
+    }
+}
@@ -0,0 +1,67 @@
+package site.hexaarch.ecommerce.logistics.domain.logistics.valueobject;
+
+import site.hexaarch.ecommerce.logistics.domain.logistics.entity.LogisticsChannel;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 渠道费率索引值对象，按国家保存渠道的预编译费率表，构建后不可变。
+ *
+ * @author kenyon
+ */
+public final class ChannelRateIndex {
+    private final String channelId;
+    private final Map<String, RateTable> rateTablesByCountry;
+
+    private ChannelRateIndex(String channelId, Map<String, RateTable> rateTablesByCountry) {
+        this.channelId = channelId;
+        this.rateTablesByCountry = Map.copyOf(rateTablesByCountry);
+    }
+
+    /**
+     * 根据物流渠道构建费率索引，每个支持的国家只包含国家代码与之相同的价格规则。
+     *
+     * @param logisticsChannel 物流渠道实体
+     * @return 渠道费率索引
+     */
+    public static ChannelRateIndex of(LogisticsChannel logisticsChannel) {
+        Map<String, List<PriceRule>> rulesByCountry = new HashMap<>();
+        for (String country : logisticsChannel.getCountries()) {
+            if (country != null) {
+                rulesByCountry.put(country, new ArrayList<>());
+            }
+        }
+        for (PriceRule priceRule : logisticsChannel.getPriceRules()) {
+            List<PriceRule> rules = rulesByCountry.get(priceRule.getCountry());
+            if (rules != null) {
+                rules.add(priceRule);
+            }
+        }
+
+        Map<String, RateTable> rateTablesByCountry = new HashMap<>();
+        rulesByCountry.forEach((country, rules) -> rateTablesByCountry.put(country, RateTable.of(logisticsChannel.getChannelId(), logisticsChannel.getChannelName(), rules)));
+        return new ChannelRateIndex(logisticsChannel.getChannelId(), rateTablesByCountry);
+    }
+
+    /**
+     * 获取渠道ID。
+     *
+     * @return 渠道ID
+     */
+    public String getChannelId() {
+        return channelId;
+    }
+
+    /**
+     * 获取指定国家的费率表。
+     *
+     * @param country 国家代码
+     * @return 费率表，渠道不支持该国家时返回null
+     */
+    public RateTable forCountry(String country) {
+        return country != null ? rateTablesByCountry.get(country) : null;
+    }
+}
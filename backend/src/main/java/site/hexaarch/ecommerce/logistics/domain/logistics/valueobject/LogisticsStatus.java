@@ -80,4 +80,40 @@ public enum LogisticsStatus {
     public boolean isCancelled() {
         return this == CANCELLED;
     }
+
+    /**
+     * 检查承运商扫描能否把物流从当前状态推进到目标状态。
+     * 正常流程按 待处理→已打单→已揽收→运输中→派送中→已送达 单向推进；任何未终结的状态都可进入配送失败，
+     * 失败后重新揽收、运输或派送视为推进。已送达和已取消是终态，取消只能由系统发起，不接受扫描。
+     *
+     * @param next 目标状态
+     * @return 如果目标状态是推进则返回true，否则返回false
+     */
+    public boolean canAdvanceTo(LogisticsStatus next) {
+        if (next == null || next == this || isDelivered() || isCancelled() || next.isCancelled()) {
+            return false;
+        }
+        if (next.isFailed()) {
+            return true;
+        }
+        if (isFailed()) {
+            return next.progress() >= COLLECTED.progress();
+        }
+        return next.progress() > progress();
+    }
+
+    /**
+     * 正常流程中的先后次序，配送失败和已取消不在正常流程中。
+     */
+    private int progress() {
+        return switch (this) {
+            case PENDING -> 0;
+            case LABEL_GENERATED -> 1;
+            case COLLECTED -> 2;
+            case IN_TRANSIT -> 3;
+            case DELIVERING -> 4;
+            case DELIVERED -> 5;
+            case FAILED, CANCELLED -> -1;
+        };
+    }
 }
\ No newline at end of file
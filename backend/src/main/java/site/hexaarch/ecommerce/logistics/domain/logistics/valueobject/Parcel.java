@@ -0,0 +1,35 @@
+package site.hexaarch.ecommerce.logistics.domain.logistics.valueobject;
+
+import lombok.Getter;
+import site.hexaarch.ecommerce.logistics.domain.common.exception.ValidationException;
+
+/**
+ * 包裹值对象，描述一次询价的重量、体积和目的国家。
+ *
+ * @author kenyon
+ */
+@Getter
+public class Parcel {
+    private final double weight;
+    private final double volume;
+    private final String country;
+
+    /**
+     * 构造函数，校验重量、体积和国家代码。
+     *
+     * @param weight  重量
+     * @param volume  体积
+     * @param country 目的国家代码
+     */
+    public Parcel(double weight, double volume, String country) {
+        if (!(weight >= 0) || !(volume >= 0)) {
+            throw new ValidationException("Parcel weight and volume must be non-negative");
+        }
+        if (country == null || country.isBlank()) {
+            throw new ValidationException("Parcel country cannot be empty");
+        }
+        this.weight = weight;
+        this.volume = volume;
+        this.country = country;
+    }
+}
@@ -20,6 +20,7 @@ public class PriceRule {
     private final VolumeRange volumeRange;
     private final BigDecimal price;
     private final String currency;
+    private final Integer transitDays;
 
     /**
      * 构造函数，确保所有必填字段都不为空。
@@ -30,14 +31,16 @@ public class PriceRule {
      * @param volumeRange 体积范围
      * @param price       价格
      * @param currency    货币类型
+     * @param transitDays 预计运输天数，未知时为空
      */
-    private PriceRule(String ruleId, String country, WeightRange weightRange, VolumeRange volumeRange, BigDecimal price, String currency) {
+    private PriceRule(String ruleId, String country, WeightRange weightRange, VolumeRange volumeRange, BigDecimal price, String currency, Integer transitDays) {
         this.ruleId = ruleId;
         this.country = Objects.requireNonNull(country, "Country cannot be null");
         this.weightRange = weightRange;
         this.volumeRange = volumeRange;
         this.price = Objects.requireNonNull(price, "Price cannot be null");
         this.currency = currency != null ? currency : "CNY";
+        this.transitDays = transitDays;
     }
 
     /**
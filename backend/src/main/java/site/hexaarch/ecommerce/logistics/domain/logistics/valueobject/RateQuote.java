@@ -0,0 +1,23 @@
+package site.hexaarch.ecommerce.logistics.domain.logistics.valueobject;
+
+import lombok.Getter;
+
+/**
+ * 渠道报价值对象，描述某个物流渠道对包裹的费用和预计运输天数。
+ *
+ * @author kenyon
+ */
+@Getter
+public class RateQuote {
+    private final String channelId;
+    private final String channelName;
+    private final LogisticsFee fee;
+    private final Integer transitDays;
+
+    public RateQuote(String channelId, String channelName, LogisticsFee fee, Integer transitDays) {
+        this.channelId = channelId;
+        this.channelName = channelName;
+        this.fee = fee;
+        this.transitDays = transitDays;
+    }
+}
@@ -0,0 +1,46 @@
+package site.hexaarch.ecommerce.logistics.domain.logistics.valueobject;
+
+import lombok.Getter;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 比价结果值对象，包含包裹在各渠道的报价（按总费用升序）以及最便宜和最快的选项。
+ *
+ * @author kenyon
+ */
+@Getter
+public class RateShoppingResult {
+    private static final Comparator<RateQuote> BY_FEE = Comparator
+            .comparing((RateQuote quote) -> quote.getFee().getTotalFee())
+            .thenComparing(RateQuote::getChannelId, Comparator.nullsLast(Comparator.naturalOrder()));
+    private static final Comparator<RateQuote> BY_TRANSIT_DAYS = Comparator
+            .comparing(RateQuote::getTransitDays)
+            .thenComparing(BY_FEE);
+
+    private final Parcel parcel;
+    private final List<RateQuote> quotes;
+    private final RateQuote cheapest;
+    private final RateQuote fastest;
+    private final List<String> unavailableChannelIds;
+
+    /**
+     * 构造函数，对报价排序并选出最便宜和最快的选项。
+     *
+     * @param parcel             包裹
+     * @param quotes             各渠道的报价
+     * @param unavailableChannelIds 超时或报价失败的渠道ID
+     */
+    public RateShoppingResult(Parcel parcel, List<RateQuote> quotes, List<String> unavailableChannelIds) {
+        this.parcel = parcel;
+        this.quotes = quotes.stream().sorted(BY_FEE).toList();
+        this.cheapest = this.quotes.isEmpty() ? null : this.quotes.get(0);
+        // 未提供运输天数的报价不参与最快选项的比较
+        this.fastest = this.quotes.stream()
+                .filter(quote -> quote.getTransitDays() != null)
+                .min(BY_TRANSIT_DAYS)
+                .orElse(null);
+        this.unavailableChannelIds = List.copyOf(unavailableChannelIds);
+    }
+}
@@ -0,0 +1,186 @@
+package site.hexaarch.ecommerce.logistics.domain.logistics.valueobject;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * 费率表值对象，将同一国家的价格规则预编译为按重量边界排序的数组，报价时二分查找重量区间。
+ * <p>
+ * 所有规则的重量上下界去重排序后得到边界数组 b[0..k-1]，数轴被划分为 2k+1 个槽：
+ * 偶数槽 2i 表示开区间 (b[i-1], b[i])，奇数槽 2i+1 表示端点 b[i]。每个槽预先记录覆盖它的规则下标，
+ * 保持原规则列表顺序，因此查找结果与按列表顺序取第一条适用规则一致。
+ *
+ * @author kenyon
+ */
+public final class RateTable {
+    private static final int[] NO_RULES = new int[0];
+
+    private final double[] weightBounds;
+    private final int[][] rulesBySlot;
+    private final boolean[] volumeBounded;
+    private final double[] minVolumes;
+    private final double[] maxVolumes;
+    private final PriceRule[] rules;
+    private final LogisticsFee[] fees;
+    private final RateQuote[] quotes;
+
+    private RateTable(double[] weightBounds, int[][] rulesBySlot, boolean[] volumeBounded, double[] minVolumes, double[] maxVolumes, PriceRule[] rules, LogisticsFee[] fees, RateQuote[] quotes) {
+        this.weightBounds = weightBounds;
+        this.rulesBySlot = rulesBySlot;
+        this.volumeBounded = volumeBounded;
+        this.minVolumes = minVolumes;
+        this.maxVolumes = maxVolumes;
+        this.rules = rules;
+        this.fees = fees;
+        this.quotes = quotes;
+    }
+
+    /**
+     * 根据价格规则列表构建费率表。
+     *
+     * @param priceRules 价格规则列表，顺序即匹配优先级
+     * @return 费率表
+     */
+    public static RateTable of(List<PriceRule> priceRules) {
+        return of(null, null, priceRules);
+    }
+
+    /**
+     * 根据渠道的价格规则列表构建费率表，同时预先构建每条规则的渠道报价。
+     *
+     * @param channelId   渠道ID
+     * @param channelName 渠道名称
+     * @param priceRules  价格规则列表，顺序即匹配优先级
+     * @return 费率表
+     */
+    public static RateTable of(String channelId, String channelName, List<PriceRule> priceRules) {
+        PriceRule[] rules = priceRules.toArray(new PriceRule[0]);
+
+        TreeSet<Double> bounds = new TreeSet<>();
+        for (PriceRule rule : rules) {
+            PriceRule.WeightRange weightRange = rule.getWeightRange();
+            if (weightRange != null) {
+                bounds.add(normalize(weightRange.getMinWeight()));
+                bounds.add(normalize(weightRange.getMaxWeight()));
+            }
+        }
+        double[] weightBounds = bounds.stream().mapToDouble(Double::doubleValue).toArray();
+
+        int slotCount = 2 * weightBounds.length + 1;
+        List<List<Integer>> slots = new ArrayList<>(slotCount);
+        for (int slot = 0; slot < slotCount; slot++) {
+            slots.add(new ArrayList<>());
+        }
+
+        int ruleCount = rules.length;
+        boolean[] volumeBounded = new boolean[ruleCount];
+        double[] minVolumes = new double[ruleCount];
+        double[] maxVolumes = new double[ruleCount];
+        LogisticsFee[] fees = new LogisticsFee[ruleCount];
+        RateQuote[] quotes = new RateQuote[ruleCount];
+        for (int index = 0; index < ruleCount; index++) {
+            PriceRule rule = rules[index];
+            int firstSlot = 0;
+            int lastSlot = slotCount - 1;
+            PriceRule.WeightRange weightRange = rule.getWeightRange();
+            if (weightRange != null) {
+                // 闭区间 [min, max] 覆盖从端点min到端点max之间的全部槽
+                firstSlot = 2 * Arrays.binarySearch(weightBounds, normalize(weightRange.getMinWeight())) + 1;
+                lastSlot = 2 * Arrays.binarySearch(weightBounds, normalize(weightRange.getMaxWeight())) + 1;
+            }
+            for (int slot = firstSlot; slot <= lastSlot; slot++) {
+                slots.get(slot).add(index);
+            }
+
+            PriceRule.VolumeRange volumeRange = rule.getVolumeRange();
+            if (volumeRange != null) {
+                volumeBounded[index] = true;
+                minVolumes[index] = volumeRange.getMinVolume();
+                maxVolumes[index] = volumeRange.getMaxVolume();
+            }
+
+            // 与原实现一致：规则价格即基础费用和总费用
+            fees[index] = LogisticsFee.builder()
+                    .baseFee(rule.getPrice())
+                    .weightFee(BigDecimal.ZERO)
+                    .volumeFee(BigDecimal.ZERO)
+                    .totalFee(rule.getPrice())
+                    .currency(rule.getCurrency())
+                    .build();
+            quotes[index] = new RateQuote(channelId, channelName, fees[index], rule.getTransitDays());
+        }
+
+        int[][] rulesBySlot = new int[slotCount][];
+        for (int slot = 0; slot < slotCount; slot++) {
+            List<Integer> ruleIndexes = slots.get(slot);
+            rulesBySlot[slot] = ruleIndexes.isEmpty() ? NO_RULES : ruleIndexes.stream().mapToInt(Integer::intValue).toArray();
+        }
+        return new RateTable(weightBounds, rulesBySlot, volumeBounded, minVolumes, maxVolumes, rules, fees, quotes);
+    }
+
+    /**
+     * 查找适用于指定重量和体积的价格规则。
+     *
+     * @param weight 重量
+     * @param volume 体积
+     * @return 第一条适用的价格规则，没有则返回null
+     */
+    public PriceRule findRule(double weight, double volume) {
+        int index = findRuleIndex(weight, volume);
+        return index >= 0 ? rules[index] : null;
+    }
+
+    /**
+     * 计算指定重量和体积的物流费用，返回预先构建的不可变费用对象。
+     *
+     * @param weight 重量
+     * @param volume 体积
+     * @return 物流费用，没有适用规则则返回null
+     */
+    public LogisticsFee quote(double weight, double volume) {
+        int index = findRuleIndex(weight, volume);
+        return index >= 0 ? fees[index] : null;
+    }
+
+    /**
+     * 查找指定重量和体积的渠道报价，返回预先构建的不可变报价对象。
+     *
+     * @param weight 重量
+     * @param volume 体积
+     * @return 渠道报价，没有适用规则则返回null
+     */
+    public RateQuote findQuote(double weight, double volume) {
+        int index = findRuleIndex(weight, volume);
+        return index >= 0 ? quotes[index] : null;
+    }
+
+    /**
+     * 获取规则数量。
+     *
+     * @return 规则数量
+     */
+    public int size() {
+        return rules.length;
+    }
+
+    private int findRuleIndex(double weight, double volume) {
+        int position = Arrays.binarySearch(weightBounds, normalize(weight));
+        int slot = position >= 0 ? 2 * position + 1 : 2 * (-position - 1);
+        for (int index : rulesBySlot[slot]) {
+            if (!volumeBounded[index] || (volume >= minVolumes[index] && volume <= maxVolumes[index])) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Arrays.binarySearch区分-0.0和0.0，统一为0.0以与比较运算语义一致。
+     */
+    private static double normalize(double value) {
+        return value + 0.0;
+    }
+}
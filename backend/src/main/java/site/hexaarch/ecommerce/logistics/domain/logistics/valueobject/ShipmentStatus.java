@@ -0,0 +1,23 @@
+package site.hexaarch.ecommerce.logistics.domain.logistics.valueobject;
+
+import lombok.Getter;
+
+/**
+ * 运单状态值对象，是物流单中轨迹处理所需字段的只读视图，避免为每次扫描加载整个物流单聚合。
+ *
+ * @author kenyon
+ */
+@Getter
+public class ShipmentStatus {
+    private final String logisticsOrderId;
+    private final String orderId;
+    private final String trackingNumber;
+    private final LogisticsStatus status;
+
+    public ShipmentStatus(String logisticsOrderId, String orderId, String trackingNumber, LogisticsStatus status) {
+        this.logisticsOrderId = logisticsOrderId;
+        this.orderId = orderId;
+        this.trackingNumber = trackingNumber;
+        this.status = status;
+    }
+}
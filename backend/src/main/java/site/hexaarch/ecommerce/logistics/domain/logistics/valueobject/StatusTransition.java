@@ -0,0 +1,35 @@
+package site.hexaarch.ecommerce.logistics.domain.logistics.valueobject;
+
+import lombok.Getter;
+import site.hexaarch.ecommerce.logistics.domain.logistics.aggregate.LogisticsOrder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 物流状态推进值对象，描述一批扫描合并后某个物流单应推进到的状态。
+ *
+ * @author kenyon
+ */
+@Getter
+public class StatusTransition {
+    private final ShipmentStatus shipment;
+    private final LogisticsStatus newStatus;
+    private final LocalDateTime changedAt;
+
+    public StatusTransition(ShipmentStatus shipment, LogisticsStatus newStatus, LocalDateTime changedAt) {
+        this.shipment = shipment;
+        this.newStatus = newStatus;
+        this.changedAt = changedAt;
+    }
+
+    /**
+     * 构建与物流单聚合更新状态时相同的领域事件。
+     *
+     * @return 物流状态变更事件，已送达时还包含物流完成事件
+     */
+    public List<Object> toDomainEvents() {
+        return LogisticsOrder.statusChangedEvents(shipment.getLogisticsOrderId(), shipment.getOrderId(),
+                shipment.getStatus(), newStatus, changedAt);
+    }
+}
@@ -0,0 +1,68 @@
+package site.hexaarch.ecommerce.logistics.domain.logistics.valueobject;
+
+import lombok.Getter;
+import site.hexaarch.ecommerce.logistics.domain.common.exception.ValidationException;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * 物流轨迹事件值对象，表示承运商的一次扫描。
+ * 运单号、状态和发生时间相同的扫描视为重复扫描，只保留一条。
+ *
+ * @author kenyon
+ */
+@Getter
+public class TrackingEvent {
+    public static final int MAX_TRACKING_NUMBER_LENGTH = 64;
+    public static final int MAX_LOCATION_LENGTH = 64;
+    public static final int MAX_DESCRIPTION_LENGTH = 255;
+
+    private final String trackingNumber;
+    private final LogisticsStatus status;
+    private final LocalDateTime occurredAt;
+    private final String location;
+    private final String description;
+
+    /**
+     * 构造函数，校验必填字段，超长的地点和描述被截断。
+     *
+     * @param trackingNumber 运单号
+     * @param status         扫描对应的物流状态
+     * @param occurredAt     扫描时间（UTC）
+     * @param location       扫描地点
+     * @param description    扫描描述
+     */
+    public TrackingEvent(String trackingNumber, LogisticsStatus status, LocalDateTime occurredAt, String location, String description) {
+        if (trackingNumber == null || trackingNumber.isBlank() || trackingNumber.length() > MAX_TRACKING_NUMBER_LENGTH) {
+            throw new ValidationException("Tracking number must be 1-" + MAX_TRACKING_NUMBER_LENGTH + " characters");
+        }
+        if (status == null || occurredAt == null) {
+            throw new ValidationException("Tracking event status and time cannot be null: " + trackingNumber);
+        }
+        this.trackingNumber = trackingNumber;
+        this.status = status;
+        this.occurredAt = occurredAt;
+        this.location = truncate(location, MAX_LOCATION_LENGTH);
+        this.description = truncate(description, MAX_DESCRIPTION_LENGTH);
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        TrackingEvent that = (TrackingEvent) o;
+        return Objects.equals(trackingNumber, that.trackingNumber) &&
+                status == that.status &&
+                Objects.equals(occurredAt, that.occurredAt);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(trackingNumber, status, occurredAt);
+    }
+}
@@ -0,0 +1,35 @@
+package site.hexaarch.ecommerce.logistics.domain.logistics.valueobject;
+
+import lombok.Getter;
+
+/**
+ * 轨迹事件批量接入结果值对象。
+ *
+ * @author kenyon
+ */
+@Getter
+public class TrackingIngestResult {
+    /**
+     * 收到的扫描数量
+     */
+    private final int received;
+    /**
+     * 实际写入时间线的扫描数量，批次内合并的重复扫描和时间线中已存在的扫描都不计入
+     */
+    private final int appended;
+    /**
+     * 状态被推进的物流单数量
+     */
+    private final int statusUpdates;
+    /**
+     * 找不到对应物流单的运单数量
+     */
+    private final int unknownTrackingNumbers;
+
+    public TrackingIngestResult(int received, int appended, int statusUpdates, int unknownTrackingNumbers) {
+        this.received = received;
+        this.appended = appended;
+        this.statusUpdates = statusUpdates;
+        this.unknownTrackingNumbers = unknownTrackingNumbers;
+    }
+}
@@ -1,6 +1,7 @@
 package site.hexaarch.ecommerce.logistics.domain.order.aggregate;
 
 import lombok.Getter;
+import site.hexaarch.ecommerce.logistics.domain.common.DomainEventSource;
 import site.hexaarch.ecommerce.logistics.domain.order.entity.OrderItem;
 import site.hexaarch.ecommerce.logistics.domain.order.event.OrderCompletedEvent;
 import site.hexaarch.ecommerce.logistics.domain.order.event.OrderCreatedEvent;
@@ -21,7 +22,7 @@ import java.util.List;
  * @author kenyon
  */
 @Getter
-public class Order {
+public class Order implements DomainEventSource {
     protected List<Object> domainEvents;
     private String id;
     private String tenantId;
@@ -95,17 +96,71 @@ public class Order {
         );
 
         // 注册订单创建事件
-        OrderCreatedEvent orderCreatedEvent = OrderCreatedEvent.builder()
-                .orderId(order.getId())
-                .tenantId(order.getTenantId())
-                .customerId(order.getCustomerId())
-                .orderItems(order.getOrderItems())
-                .shippingAddress(order.getShippingAddress())
-                .paymentInfo(order.getPaymentInfo())
-                .createdAt(order.getCreatedAt())
-                .build();
-        order.registerDomainEvent(orderCreatedEvent);
+        order.registerCreatedEvent();
+
+        return order;
+    }
+
+    /**
+     * 导入电商平台订单。订单编号由调用方根据平台订单号生成，创建时间取平台下单时间，
+     * 与新建订单一样注册订单创建事件。
+     *
+     * @param tenantId        租户ID
+     * @param orderNumber     订单编号
+     * @param customerId      客户ID
+     * @param orderItems      订单行项列表
+     * @param shippingAddress 收货地址
+     * @param paymentInfo     付款信息
+     * @param placedAt        平台下单时间
+     * @return 导入的订单
+     */
+    public static Order importFromPlatform(String tenantId, String orderNumber, String customerId, List<OrderItem> orderItems, ShippingAddress shippingAddress, PaymentInfo paymentInfo, LocalDateTime placedAt) {
+        Order order = new Order(
+                java.util.UUID.randomUUID().toString(),
+                tenantId,
+                customerId,
+                orderNumber,
+                orderItems,
+                shippingAddress,
+                paymentInfo,
+                placedAt,
+                OrderStatus.PENDING,
+                LocalDateTime.now()
+        );
+        order.registerCreatedEvent();
+        return order;
+    }
 
+    /**
+     * 从持久化状态重建订单，不应用任何默认值，也不注册领域事件。
+     * 仅供基础设施层的映射器使用，替代逐字段反射赋值。
+     *
+     * @param id              订单ID
+     * @param tenantId        租户ID
+     * @param customerId      客户ID
+     * @param orderNumber     订单编号
+     * @param orderItems      订单项列表
+     * @param shippingAddress 收货地址
+     * @param paymentInfo     付款信息
+     * @param createdAt       创建时间
+     * @param orderStatus     订单状态
+     * @param updatedAt       更新时间
+     * @return 重建的订单
+     */
+    public static Order reconstitute(String id, String tenantId, String customerId, String orderNumber, List<OrderItem> orderItems, ShippingAddress shippingAddress, PaymentInfo paymentInfo, LocalDateTime createdAt, OrderStatus orderStatus, LocalDateTime updatedAt) {
+        Order order = new Order();
+        order.id = id;
+        order.tenantId = tenantId;
+        order.customerId = customerId;
+        order.orderNumber = orderNumber;
+        if (orderItems != null) {
+            order.orderItems = orderItems;
+        }
+        order.shippingAddress = shippingAddress;
+        order.paymentInfo = paymentInfo;
+        order.createdAt = createdAt;
+        order.orderStatus = orderStatus;
+        order.updatedAt = updatedAt;
         return order;
     }
 
@@ -113,6 +168,11 @@ public class Order {
         return new OrderBuilder();
     }
 
+    @Override
+    public String aggregateId() {
+        return id;
+    }
+
     public List<Object> getDomainEvents() {
         return domainEvents;
     }
@@ -123,6 +183,19 @@ public class Order {
         }
     }
 
+    private void registerCreatedEvent() {
+        OrderCreatedEvent orderCreatedEvent = OrderCreatedEvent.builder()
+                .orderId(this.id)
+                .tenantId(this.tenantId)
+                .customerId(this.customerId)
+                .orderItems(this.orderItems)
+                .shippingAddress(this.shippingAddress)
+                .paymentInfo(this.paymentInfo)
+                .createdAt(this.createdAt)
+                .build();
+        registerDomainEvent(orderCreatedEvent);
+    }
+
     protected void registerDomainEvent(Object event) {
         if (domainEvents == null) {
             domainEvents = new ArrayList<>();
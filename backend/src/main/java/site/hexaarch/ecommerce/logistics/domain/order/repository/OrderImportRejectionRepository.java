@@ -0,0 +1,19 @@
+package site.hexaarch.ecommerce.logistics.domain.order.repository;
+
+import site.hexaarch.ecommerce.logistics.domain.order.valueobject.OrderImportRejection;
+
+import java.util.Collection;
+
+/**
+ * 被拒绝的平台订单仓储接口。
+ *
+ * @author kenyon
+ */
+public interface OrderImportRejectionRepository {
+    /**
+     * 批量保存被拒绝的平台订单。
+     *
+     * @param rejections 被拒绝的平台订单
+     */
+    void saveAll(Collection<OrderImportRejection> rejections);
+}
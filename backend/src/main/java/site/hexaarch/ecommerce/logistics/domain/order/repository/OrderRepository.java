@@ -1,10 +1,15 @@
 package site.hexaarch.ecommerce.logistics.domain.order.repository;
 
 import site.hexaarch.ecommerce.logistics.domain.order.aggregate.Order;
+import site.hexaarch.ecommerce.logistics.domain.order.valueobject.OrderCursor;
+import site.hexaarch.ecommerce.logistics.domain.order.valueobject.OrderPage;
 import site.hexaarch.ecommerce.logistics.domain.order.valueobject.OrderStatus;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * 订单仓储接口，负责持久化订单聚合和提供订单的访问方法。
@@ -28,6 +33,14 @@ public interface OrderRepository {
      */
     Optional<Order> findById(String id);
 
+    /**
+     * 根据ID集合批量查找订单，结果不保证与传入顺序一致，不存在的ID被忽略。
+     *
+     * @param ids 订单ID集合
+     * @return 订单聚合列表
+     */
+    List<Order> findAllById(Collection<String> ids);
+
     /**
      * 根据客户ID查找订单。
      *
@@ -51,6 +64,42 @@ public interface OrderRepository {
      */
     List<Order> findAll();
 
+    /**
+     * 按(创建时间, ID)倒序分页查找订单，使用游标而非偏移量定位。
+     *
+     * @param status     订单状态，为null时不过滤
+     * @param customerId 客户ID，为null时不过滤
+     * @param after      上一页的游标，为null时从第一页开始
+     * @param limit      每页数量
+     * @return 订单分页结果
+     */
+    OrderPage findPage(OrderStatus status, String customerId, OrderCursor after, int limit);
+
+    /**
+     * 按(创建时间, ID)倒序流式读取订单，已读取的订单不会在持久化上下文中保留。
+     * 必须在事务内调用并在使用后关闭流。
+     *
+     * @param status 订单状态，为null时不过滤
+     * @return 订单聚合流
+     */
+    Stream<Order> streamAll(OrderStatus status);
+
+    /**
+     * 批量插入新订单及其收货地址、付款信息和订单行项，不经过持久化上下文。
+     * 订单编号已存在时整批失败，调用方应先通过 {@link #findExistingOrderNumbers(Collection)} 去重。
+     *
+     * @param orders 新订单列表
+     */
+    void insertAll(List<Order> orders);
+
+    /**
+     * 查找已存在的订单编号。
+     *
+     * @param orderNumbers 订单编号集合
+     * @return 其中已存在的订单编号
+     */
+    Set<String> findExistingOrderNumbers(Collection<String> orderNumbers);
+
     /**
      * 删除订单。
      *
@@ -2,35 +2,146 @@ package site.hexaarch.ecommerce.logistics.domain.order.service;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import site.hexaarch.ecommerce.logistics.domain.common.exception.ValidationException;
 import site.hexaarch.ecommerce.logistics.domain.order.aggregate.Order;
+import site.hexaarch.ecommerce.logistics.domain.order.entity.OrderItem;
 import site.hexaarch.ecommerce.logistics.domain.order.repository.OrderRepository;
+import site.hexaarch.ecommerce.logistics.domain.order.valueobject.PaymentInfo;
+import site.hexaarch.ecommerce.logistics.domain.order.valueobject.ShippingAddress;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
 
 /**
- * 订单同步服务，负责与电商平台同步订单数据。
+ * 订单同步服务，负责把电商平台订单转换为订单聚合，并按平台订单号去重。
+ * <p>
+ * 导入订单的订单编号由平台集成ID和平台订单号组成，订单编号上的唯一约束即是去重依据，
+ * 同一平台订单重复同步时只会保留第一次导入的订单。
  *
  * @author kenyon
  */
 @Service
 @RequiredArgsConstructor
 public class OrderSyncService {
+    /**
+     * 平台订单号最大长度，保证拼接后的订单编号不超过列宽
+     */
+    public static final int MAX_EXTERNAL_ORDER_NUMBER_LENGTH = 200;
+
     private final OrderRepository orderRepository;
 
     /**
-     * 从电商平台同步订单数据。
+     * 生成平台订单对应的订单编号。
+     *
+     * @param platformId          平台集成ID
+     * @param externalOrderNumber 平台订单号
+     * @return 订单编号
+     */
+    public static String orderNumberOf(UUID platformId, String externalOrderNumber) {
+        return platformId + ":" + externalOrderNumber;
+    }
+
+    /**
+     * 从订单编号中取出平台订单号，订单编号不属于该平台时返回null。
+     *
+     * @param platformId  平台集成ID
+     * @param orderNumber 订单编号
+     * @return 平台订单号
+     */
+    public static String externalOrderNumberOf(UUID platformId, String orderNumber) {
+        String prefix = platformId + ":";
+        return orderNumber != null && orderNumber.startsWith(prefix) ? orderNumber.substring(prefix.length()) : null;
+    }
+
+    /**
+     * 校验平台订单并创建订单聚合，订单聚合中注册了订单创建事件。
+     * 写入时不能为空的字段都在这里校验，不完整的订单不会进入写入阶段导致整块写入失败。
      *
-     * @param platformId 电商平台ID
-     * @return 同步的订单列表
+     * @param tenantId            租户ID
+     * @param platformId          平台集成ID
+     * @param externalOrderNumber 平台订单号
+     * @param customerId          客户ID
+     * @param orderItems          订单行项列表
+     * @param shippingAddress     收货地址
+     * @param paymentInfo         付款信息
+     * @param placedAt            平台下单时间
+     * @return 导入的订单
+     * @throws ValidationException 平台订单不完整时抛出
      */
-    public List<Order> syncOrdersFromPlatform(String platformId) {
-        // 业务逻辑：调用电商平台API获取订单数据
-        // 这里简化处理，实际项目中需要调用外部API
+    public Order importOrder(String tenantId, UUID platformId, String externalOrderNumber, String customerId,
+                             List<OrderItem> orderItems, ShippingAddress shippingAddress, PaymentInfo paymentInfo,
+                             LocalDateTime placedAt) {
+        if (tenantId == null || tenantId.isBlank()) {
+            throw new ValidationException("Tenant ID cannot be blank");
+        }
+        if (externalOrderNumber == null || externalOrderNumber.isBlank()) {
+            throw new ValidationException("External order number cannot be blank");
+        }
+        if (externalOrderNumber.length() > MAX_EXTERNAL_ORDER_NUMBER_LENGTH) {
+            throw new ValidationException("External order number is too long: " + externalOrderNumber.length());
+        }
+        if (customerId == null || customerId.isBlank()) {
+            throw new ValidationException("Customer ID cannot be blank: " + externalOrderNumber);
+        }
+        if (orderItems == null || orderItems.isEmpty()) {
+            throw new ValidationException("Order must contain at least one item: " + externalOrderNumber);
+        }
+        for (OrderItem item : orderItems) {
+            if (isBlank(item.getSku()) || isBlank(item.getProductName()) || item.getQuantity() <= 0
+                    || item.getUnitPrice() == null || item.getUnitPrice().compareTo(BigDecimal.ZERO) < 0) {
+                throw new ValidationException("Invalid order item: " + externalOrderNumber);
+            }
+        }
+        if (shippingAddress == null) {
+            throw new ValidationException("Shipping address cannot be null: " + externalOrderNumber);
+        }
+        if (isBlank(shippingAddress.getRecipient()) || isBlank(shippingAddress.getStreet())
+                || isBlank(shippingAddress.getCity()) || isBlank(shippingAddress.getZipCode())
+                || isBlank(shippingAddress.getCountry()) || isBlank(shippingAddress.getPhone())) {
+            throw new ValidationException("Incomplete shipping address: " + externalOrderNumber);
+        }
+        if (paymentInfo == null) {
+            throw new ValidationException("Payment info cannot be null: " + externalOrderNumber);
+        }
+        if (isBlank(paymentInfo.getPaymentMethod()) || isBlank(paymentInfo.getPaymentStatus())) {
+            throw new ValidationException("Incomplete payment info: " + externalOrderNumber);
+        }
+        if (placedAt == null) {
+            throw new ValidationException("Order time cannot be null: " + externalOrderNumber);
+        }
+        return Order.importFromPlatform(tenantId, orderNumberOf(platformId, externalOrderNumber), customerId,
+                orderItems, shippingAddress, paymentInfo, placedAt);
+    }
 
-        // 模拟同步结果
-        System.out.println("Syncing orders from platform: " + platformId);
+    /**
+     * 过滤出尚未导入的订单：批次内订单编号重复的只保留第一个，已存在于仓储中的全部去除。
+     *
+     * @param orders 待导入的订单
+     * @return 需要插入的订单，保持原有顺序
+     */
+    public List<Order> filterNewOrders(List<Order> orders) {
+        Set<String> seen = new HashSet<>();
+        List<Order> distinct = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            if (seen.add(order.getOrderNumber())) {
+                distinct.add(order);
+            }
+        }
+        Set<String> existing = orderRepository.findExistingOrderNumbers(seen);
+        if (existing.isEmpty()) {
+            return distinct;
+        }
+        return distinct.stream()
+                .filter(order -> !existing.contains(order.getOrderNumber()))
+                .toList();
+    }
 
-        // 返回已有的订单列表
-        return orderRepository.findAll();
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,86 @@
+package site.hexaarch.ecommerce.logistics.domain.order.valueobject;
+
+import lombok.Getter;
+import site.hexaarch.ecommerce.logistics.domain.common.exception.ValidationException;
+import site.hexaarch.ecommerce.logistics.domain.order.aggregate.Order;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * 订单分页游标值对象，记录上一页最后一条订单的(创建时间, ID)，下一页从其之后继续读取。
+ *
+ * @author kenyon
+ */
+@Getter
+public class OrderCursor {
+    private static final char SEPARATOR = '|';
+
+    private final LocalDateTime createdAt;
+    private final String id;
+
+    private OrderCursor(LocalDateTime createdAt, String id) {
+        this.createdAt = Objects.requireNonNull(createdAt, "Created at cannot be null");
+        this.id = Objects.requireNonNull(id, "Order ID cannot be null");
+    }
+
+    public static OrderCursor of(LocalDateTime createdAt, String id) {
+        return new OrderCursor(createdAt, id);
+    }
+
+    /**
+     * 以指定订单为位置创建游标。
+     *
+     * @param order 订单聚合
+     * @return 订单游标
+     */
+    public static OrderCursor after(Order order) {
+        return new OrderCursor(order.getCreatedAt(), order.getId());
+    }
+
+    /**
+     * 编码为URL安全的不透明字符串。
+     *
+     * @return 游标字符串
+     */
+    public String encode() {
+        String raw = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析游标字符串。
+     *
+     * @param token 游标字符串
+     * @return 订单游标
+     * @throws ValidationException 游标格式不正确时抛出
+     */
+    public static OrderCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator <= 0 || separator == raw.length() - 1) {
+                throw new ValidationException("Invalid order cursor: " + token);
+            }
+            return new OrderCursor(LocalDateTime.parse(raw.substring(0, separator)), raw.substring(separator + 1));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ValidationException("Invalid order cursor: " + token, e);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        OrderCursor that = (OrderCursor) o;
+        return Objects.equals(createdAt, that.createdAt) && Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(createdAt, id);
+    }
+}
@@ -0,0 +1,50 @@
+package site.hexaarch.ecommerce.logistics.domain.order.valueobject;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * 被拒绝的平台订单值对象，记录导入时校验或写入失败的平台订单，供人工核对后重新同步。
+ *
+ * @author kenyon
+ */
+@Getter
+public class OrderImportRejection {
+    /**
+     * 拒绝原因的最大长度
+     */
+    public static final int MAX_REASON_LENGTH = 1000;
+
+    private final UUID platformId;
+    /**
+     * 平台订单号，平台返回的订单号为空时为null
+     */
+    private final String externalOrderNumber;
+    private final Stage stage;
+    private final String reason;
+    private final LocalDateTime rejectedAt;
+
+    public OrderImportRejection(UUID platformId, String externalOrderNumber, Stage stage, String reason, LocalDateTime rejectedAt) {
+        this.platformId = platformId;
+        this.externalOrderNumber = externalOrderNumber;
+        this.stage = stage;
+        this.reason = reason != null && reason.length() > MAX_REASON_LENGTH ? reason.substring(0, MAX_REASON_LENGTH) : reason;
+        this.rejectedAt = rejectedAt;
+    }
+
+    /**
+     * 拒绝订单的导入阶段
+     */
+    public enum Stage {
+        /**
+         * 平台订单不完整，未转换为订单
+         */
+        VALIDATION,
+        /**
+         * 订单写入数据库失败
+         */
+        WRITE
+    }
+}
@@ -0,0 +1,40 @@
+package site.hexaarch.ecommerce.logistics.domain.order.valueobject;
+
+import lombok.Getter;
+
+/**
+ * 平台订单导入结果值对象。
+ *
+ * @author kenyon
+ */
+@Getter
+public class OrderImportResult {
+    /**
+     * 从平台拉取的订单数量
+     */
+    private final int fetched;
+    /**
+     * 新插入的订单数量
+     */
+    private final int imported;
+    /**
+     * 已导入过或在本次拉取中重复出现而跳过的订单数量
+     */
+    private final int duplicates;
+    /**
+     * 校验失败而跳过的订单数量
+     */
+    private final int rejected;
+    /**
+     * 导入耗时（毫秒）
+     */
+    private final long elapsedMillis;
+
+    public OrderImportResult(int fetched, int imported, int duplicates, int rejected, long elapsedMillis) {
+        this.fetched = fetched;
+        this.imported = imported;
+        this.duplicates = duplicates;
+        this.rejected = rejected;
+        this.elapsedMillis = elapsedMillis;
+    }
+}
@@ -0,0 +1,31 @@
+package site.hexaarch.ecommerce.logistics.domain.order.valueobject;
+
+import lombok.Getter;
+import site.hexaarch.ecommerce.logistics.domain.order.aggregate.Order;
+
+import java.util.List;
+
+/**
+ * 订单分页结果值对象，按创建时间倒序排列，nextCursor为空表示已到最后一页。
+ *
+ * @author kenyon
+ */
+@Getter
+public class OrderPage {
+    private final List<Order> orders;
+    private final OrderCursor nextCursor;
+
+    public OrderPage(List<Order> orders, OrderCursor nextCursor) {
+        this.orders = List.copyOf(orders);
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * 是否还有下一页。
+     *
+     * @return 是否还有下一页
+     */
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
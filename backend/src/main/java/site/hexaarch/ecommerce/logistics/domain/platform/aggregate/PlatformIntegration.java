@@ -60,6 +60,11 @@ public class PlatformIntegration extends BaseAggregateRoot {
         registerDomainEvent(new PlatformIntegrationCreatedEvent(this.id, this.tenantId, this.platformName));
     }
 
+    @Override
+    public String aggregateId() {
+        return id != null ? id.toString() : null;
+    }
+
     public static class Builder {
         private final PlatformIntegration platformIntegration = new PlatformIntegration();
 
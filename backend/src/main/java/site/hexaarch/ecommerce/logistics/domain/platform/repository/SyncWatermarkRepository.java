@@ -0,0 +1,63 @@
+package site.hexaarch.ecommerce.logistics.domain.platform.repository;
+
+import site.hexaarch.ecommerce.logistics.domain.platform.valueobject.PlatformSyncType;
+import site.hexaarch.ecommerce.logistics.domain.platform.valueobject.SyncWatermark;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * 平台同步水位仓储接口。
+ * <p>
+ * 多个节点同时运行调度器时，同一水位同一时间只由持有租约的节点同步，租约过期后其他节点可以接手。
+ *
+ * @author kenyon
+ */
+public interface SyncWatermarkRepository {
+    /**
+     * 查找同步水位。
+     *
+     * @param platformId 平台集成ID
+     * @param syncType   同步类型
+     * @return 同步水位，如果不存在则返回Optional.empty()
+     */
+    Optional<SyncWatermark> find(UUID platformId, PlatformSyncType syncType);
+
+    /**
+     * 查找某种同步类型的所有水位。
+     *
+     * @param syncType 同步类型
+     * @return 同步水位列表
+     */
+    List<SyncWatermark> findBySyncType(PlatformSyncType syncType);
+
+    /**
+     * 保存同步水位，不改变租约。
+     *
+     * @param watermark 同步水位
+     */
+    void save(SyncWatermark watermark);
+
+    /**
+     * 尝试获取或续期同步租约，租约空闲、已过期或已由同一节点持有时成功。
+     *
+     * @param platformId 平台集成ID
+     * @param syncType   同步类型
+     * @param owner      节点标识
+     * @param now        当前时间
+     * @param leaseUntil 租约到期时间
+     * @return 是否获取成功
+     */
+    boolean tryAcquireLease(UUID platformId, PlatformSyncType syncType, String owner, LocalDateTime now, LocalDateTime leaseUntil);
+
+    /**
+     * 释放本节点持有的同步租约。
+     *
+     * @param platformId 平台集成ID
+     * @param syncType   同步类型
+     * @param owner      节点标识
+     */
+    void releaseLease(UUID platformId, PlatformSyncType syncType, String owner);
+}
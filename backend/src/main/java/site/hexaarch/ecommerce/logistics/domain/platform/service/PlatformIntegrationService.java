@@ -26,8 +26,6 @@ public interface PlatformIntegrationService {
 
     PlatformIntegration deactivatePlatformIntegration(UUID id);
 
-    void syncOrdersFromPlatform(UUID platformId);
-
     void syncProductsFromPlatform(UUID platformId);
 
     void syncInventoryToPlatform(UUID platformId);
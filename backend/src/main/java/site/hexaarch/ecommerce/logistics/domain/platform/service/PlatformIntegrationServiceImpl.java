@@ -88,14 +88,6 @@ public class PlatformIntegrationServiceImpl implements PlatformIntegrationServic
         return null;
     }
 
-    @Override
-    public void syncOrdersFromPlatform(UUID platformId) {
-        // Implementation for syncing orders from platform
-        // This would typically involve calling the platform's API to fetch orders
-        // and then processing them into the system
-        System.out.println("Syncing orders from platform with id: " + platformId);
-    }
-
     @Override
     public void syncProductsFromPlatform(UUID platformId) {
         // Implementation for syncing products from platform
@@ -0,0 +1,10 @@
+package site.hexaarch.ecommerce.logistics.domain.platform.valueobject;
+
+/**
+ * 平台增量同步类型枚举，每个平台集成的每种同步类型各有一个同步水位。
+ *
+ * @author kenyon
+ */
+public enum PlatformSyncType {
+    ORDERS
+}
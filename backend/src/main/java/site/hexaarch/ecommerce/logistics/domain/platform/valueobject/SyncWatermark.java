@@ -0,0 +1,138 @@
+package site.hexaarch.ecommerce.logistics.domain.platform.valueobject;
+
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * 平台增量同步水位值对象，记录一个平台集成某种同步的进度。
+ * <p>
+ * 每轮同步只拉取 {@code updatedSince} 之后变更的记录。轮次进行中按页记录游标，中断后从游标处继续本轮；
+ * 轮次完成后水位推进到本轮开始时间减去重叠时间，重叠部分由下游去重，用于容忍平台与本地的时钟偏差。
+ *
+ * @author kenyon
+ */
+@Getter
+public final class SyncWatermark {
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final UUID platformId;
+    private final PlatformSyncType syncType;
+    /**
+     * 本轮拉取的变更时间下界，为空表示全量同步
+     */
+    private final LocalDateTime updatedSince;
+    /**
+     * 本轮已提交的最后一页之后的游标，为空表示从第一页开始
+     */
+    private final String cursor;
+    /**
+     * 进行中的轮次开始时间，为空表示没有进行中的轮次
+     */
+    private final LocalDateTime runStartedAt;
+    private final LocalDateTime nextRunAt;
+    private final int consecutiveFailures;
+    private final LocalDateTime lastSuccessAt;
+    private final String lastError;
+
+    public SyncWatermark(UUID platformId, PlatformSyncType syncType, LocalDateTime updatedSince, String cursor,
+                         LocalDateTime runStartedAt, LocalDateTime nextRunAt, int consecutiveFailures,
+                         LocalDateTime lastSuccessAt, String lastError) {
+        this.platformId = Objects.requireNonNull(platformId, "Platform ID cannot be null");
+        this.syncType = Objects.requireNonNull(syncType, "Sync type cannot be null");
+        this.updatedSince = updatedSince;
+        this.cursor = cursor;
+        this.runStartedAt = runStartedAt;
+        this.nextRunAt = nextRunAt;
+        this.consecutiveFailures = consecutiveFailures;
+        this.lastSuccessAt = lastSuccessAt;
+        this.lastError = lastError;
+    }
+
+    /**
+     * 创建从未同步过的水位，第一轮为全量同步。
+     *
+     * @param platformId 平台集成ID
+     * @param syncType   同步类型
+     * @param nextRunAt  第一轮的计划时间
+     * @return 同步水位
+     */
+    public static SyncWatermark initial(UUID platformId, PlatformSyncType syncType, LocalDateTime nextRunAt) {
+        return new SyncWatermark(platformId, syncType, null, null, null, nextRunAt, 0, null, null);
+    }
+
+    /**
+     * 检查是否到达计划同步时间。
+     *
+     * @param now 当前时间
+     * @return 如果到期则返回true，否则返回false
+     */
+    public boolean isDue(LocalDateTime now) {
+        return nextRunAt == null || !nextRunAt.isAfter(now);
+    }
+
+    /**
+     * 开始一轮同步。上一轮未完成时继续上一轮，保留其开始时间和游标。
+     *
+     * @param now 当前时间
+     * @return 新的同步水位
+     */
+    public SyncWatermark startRun(LocalDateTime now) {
+        if (runStartedAt != null) {
+            return this;
+        }
+        return new SyncWatermark(platformId, syncType, updatedSince, null, now, nextRunAt, consecutiveFailures,
+                lastSuccessAt, lastError);
+    }
+
+    /**
+     * 记录本轮已提交到的游标。
+     *
+     * @param cursor 下一页游标
+     * @return 新的同步水位
+     */
+    public SyncWatermark checkpoint(String cursor) {
+        return new SyncWatermark(platformId, syncType, updatedSince, cursor, runStartedAt, nextRunAt, consecutiveFailures,
+                lastSuccessAt, lastError);
+    }
+
+    /**
+     * 完成本轮同步，水位推进到本轮开始时间减去重叠时间。
+     *
+     * @param overlap   重叠时间
+     * @param now       当前时间
+     * @param nextRunAt 下一轮的计划时间
+     * @return 新的同步水位
+     */
+    public SyncWatermark complete(Duration overlap, LocalDateTime now, LocalDateTime nextRunAt) {
+        LocalDateTime startedAt = runStartedAt != null ? runStartedAt : now;
+        return new SyncWatermark(platformId, syncType, startedAt.minus(overlap), null, null, nextRunAt, 0, now, null);
+    }
+
+    /**
+     * 记录本轮同步失败，保留开始时间和游标，下一轮从中断处继续。
+     *
+     * @param error     失败原因
+     * @param nextRunAt 下一轮的计划时间
+     * @return 新的同步水位
+     */
+    public SyncWatermark fail(String error, LocalDateTime nextRunAt) {
+        String message = error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+        return new SyncWatermark(platformId, syncType, updatedSince, cursor, runStartedAt, nextRunAt,
+                consecutiveFailures + 1, lastSuccessAt, message);
+    }
+
+    /**
+     * 推迟下一轮同步，不改变进度和失败计数。
+     *
+     * @param nextRunAt 下一轮的计划时间
+     * @return 新的同步水位
+     */
+    public SyncWatermark reschedule(LocalDateTime nextRunAt) {
+        return new SyncWatermark(platformId, syncType, updatedSince, cursor, runStartedAt, nextRunAt, consecutiveFailures,
+                lastSuccessAt, lastError);
+    }
+}
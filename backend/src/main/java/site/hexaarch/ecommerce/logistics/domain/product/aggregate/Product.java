@@ -1,6 +1,7 @@
 package site.hexaarch.ecommerce.logistics.domain.product.aggregate;
 
 import lombok.Getter;
+import site.hexaarch.ecommerce.logistics.domain.common.DomainEventSource;
 import site.hexaarch.ecommerce.logistics.domain.product.entity.ProductCategory;
 import site.hexaarch.ecommerce.logistics.domain.product.entity.SKU;
 import site.hexaarch.ecommerce.logistics.domain.product.event.ProductCreatedEvent;
@@ -17,7 +18,7 @@ import java.util.UUID;
  * @author kenyon
  */
 @Getter
-public class Product {
+public class Product implements DomainEventSource {
     /**
      * 产品唯一标识
      */
@@ -67,6 +68,13 @@ public class Product {
         return new Builder();
     }
 
+    /**
+     * 从持久化状态重建产品，不注册领域事件
+     */
+    public static Product reconstitute(String id, String tenantId, ProductCategory category, String name, String description, List<SKU> skus, boolean active) {
+        return new Product(id, tenantId, category, new ArrayList<>(), name, description, skus != null ? skus : new ArrayList<>(), active);
+    }
+
     /**
      * 创建产品静态工厂方法
      */
@@ -101,11 +109,7 @@ public class Product {
         this.description = description;
 
         // 添加产品更新事件
-        this.domainEvents.add(ProductUpdatedEvent.builder()
-                .productId(this.id)
-                .productName(this.name)
-                .timestamp(System.currentTimeMillis())
-                .build());
+        registerUpdatedEvent();
     }
 
     /**
@@ -131,6 +135,7 @@ public class Product {
      */
     public void activate() {
         this.active = true;
+        registerUpdatedEvent();
     }
 
     /**
@@ -138,6 +143,20 @@ public class Product {
      */
     public void deactivate() {
         this.active = false;
+        registerUpdatedEvent();
+    }
+
+    private void registerUpdatedEvent() {
+        this.domainEvents.add(ProductUpdatedEvent.builder()
+                .productId(this.id)
+                .productName(this.name)
+                .timestamp(System.currentTimeMillis())
+                .build());
+    }
+
+    @Override
+    public String aggregateId() {
+        return id;
     }
 
     /**
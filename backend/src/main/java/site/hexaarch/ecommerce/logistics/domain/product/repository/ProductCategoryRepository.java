@@ -0,0 +1,28 @@
+package site.hexaarch.ecommerce.logistics.domain.product.repository;
+
+import site.hexaarch.ecommerce.logistics.domain.product.entity.ProductCategory;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 产品分类仓储接口，负责产品分类的持久化和访问。
+ *
+ * @author kenyon
+ */
+public interface ProductCategoryRepository {
+    /**
+     * 保存产品分类
+     */
+    ProductCategory save(ProductCategory category);
+
+    /**
+     * 根据ID查找产品分类
+     */
+    Optional<ProductCategory> findById(String id);
+
+    /**
+     * 查找所有产品分类
+     */
+    List<ProductCategory> findAll();
+}
@@ -2,6 +2,8 @@ package site.hexaarch.ecommerce.logistics.domain.product.repository;
 
 import site.hexaarch.ecommerce.logistics.domain.product.aggregate.Product;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -25,6 +27,16 @@ public interface ProductRepository {
      */
     Optional<Product> findBySkuCode(String skuCode);
 
+    /**
+     * 根据分类ID集合分页查找产品，按产品ID排序
+     *
+     * @param categoryIds 分类ID集合
+     * @param page        页码，从0开始
+     * @param size        每页数量
+     * @return 产品聚合列表
+     */
+    List<Product> findByCategoryIds(Collection<String> categoryIds, int page, int size);
+
     /**
      * 删除产品
      */
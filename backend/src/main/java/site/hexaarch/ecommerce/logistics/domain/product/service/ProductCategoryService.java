@@ -1,8 +1,16 @@
 package site.hexaarch.ecommerce.logistics.domain.product.service;
 
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import site.hexaarch.ecommerce.logistics.domain.common.exception.EntityNotFoundException;
 import site.hexaarch.ecommerce.logistics.domain.product.entity.ProductCategory;
+import site.hexaarch.ecommerce.logistics.domain.product.repository.ProductCategoryRepository;
+import site.hexaarch.ecommerce.logistics.domain.product.valueobject.CategoryTree;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
 
 /**
  * 产品分类服务，管理产品分类，如创建、修改分类。
@@ -10,13 +18,42 @@ import site.hexaarch.ecommerce.logistics.domain.product.entity.ProductCategory;
  * @author kenyon
  */
 @Service
-@RequiredArgsConstructor
 public class ProductCategoryService {
+    /**
+     * 因查询未知分类而重新加载分类树的最小间隔，避免不存在的分类ID反复触发全量加载
+     */
+    private static final long MISS_RELOAD_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final ProductCategoryRepository productCategoryRepository;
+    /**
+     * 快照的最长存活时间，到期后重新加载，使其他实例对已有分类的移动和停用在该时间内可见
+     */
+    private final long treeTtlNanos;
+    private final LongSupplier nanoTime;
+    /**
+     * 分类树快照，为空表示需要从仓储加载。分类结构变更时基于当前快照复制出新快照后整体替换，读取不加锁。
+     */
+    private volatile CategoryTree categoryTree;
+    private volatile long categoryTreeLoadedAt;
+    private final Object categoryTreeLock = new Object();
+
+    @Autowired
+    public ProductCategoryService(ProductCategoryRepository productCategoryRepository,
+                                  @Value("${product.category-tree.ttl-seconds:60}") long treeTtlSeconds) {
+        this(productCategoryRepository, TimeUnit.SECONDS.toNanos(treeTtlSeconds), System::nanoTime);
+    }
+
+    ProductCategoryService(ProductCategoryRepository productCategoryRepository, long treeTtlNanos, LongSupplier nanoTime) {
+        this.productCategoryRepository = productCategoryRepository;
+        this.treeTtlNanos = treeTtlNanos;
+        this.nanoTime = nanoTime;
+    }
+
     /**
      * 创建产品分类
      */
     public ProductCategory createCategory(String name, String description, ProductCategory parentCategory) {
-        return ProductCategory.builder()
+        ProductCategory category = ProductCategory.builder()
                 .id(java.util.UUID.randomUUID().toString())
                 .name(name)
                 .description(description)
@@ -24,6 +61,9 @@ public class ProductCategoryService {
                 .level(parentCategory != null ? parentCategory.getLevel() + 1 : 1)
                 .active(true)
                 .build();
+        ProductCategory savedCategory = productCategoryRepository.save(category);
+        onCategoryChanged(savedCategory);
+        return savedCategory;
     }
 
     /**
@@ -31,7 +71,7 @@ public class ProductCategoryService {
      */
     public ProductCategory updateCategory(ProductCategory category, String name, String description) {
         category.updateInfo(name, description);
-        return category;
+        return productCategoryRepository.save(category);
     }
 
     /**
@@ -39,7 +79,7 @@ public class ProductCategoryService {
      */
     public ProductCategory activateCategory(ProductCategory category) {
         category.activate();
-        return category;
+        return productCategoryRepository.save(category);
     }
 
     /**
@@ -47,6 +87,70 @@ public class ProductCategoryService {
      */
     public ProductCategory deactivateCategory(ProductCategory category) {
         category.deactivate();
-        return category;
+        return productCategoryRepository.save(category);
+    }
+
+    /**
+     * 获取分类树快照，首次调用或快照超过存活时间时从仓储加载。
+     *
+     * @return 分类树
+     */
+    public CategoryTree getCategoryTree() {
+        CategoryTree tree = categoryTree;
+        if (tree == null || isExpired()) {
+            // 加载与变更在同一把锁内串行，避免加载期间的变更被旧快照覆盖
+            synchronized (categoryTreeLock) {
+                tree = categoryTree;
+                if (tree == null || isExpired()) {
+                    tree = CategoryTree.of(productCategoryRepository.findAll());
+                    categoryTree = tree;
+                    categoryTreeLoadedAt = nanoTime.getAsLong();
+                }
+            }
+        }
+        return tree;
+    }
+
+    /**
+     * 获取分类及其所有后代分类的ID。快照中没有该分类时（例如由其他实例创建）重新加载一次，
+     * 两次因此触发的加载至少间隔一秒；已有分类的结构变化在快照到期重新加载后可见。
+     *
+     * @param categoryId 分类ID
+     * @return 分类及其所有后代分类的ID
+     */
+    public List<String> getSubtreeIds(String categoryId) {
+        CategoryTree tree = getCategoryTree();
+        if (!tree.contains(categoryId)) {
+            if (nanoTime.getAsLong() - categoryTreeLoadedAt >= MISS_RELOAD_INTERVAL_NANOS) {
+                refreshCategoryTree();
+                tree = getCategoryTree();
+            }
+            if (!tree.contains(categoryId)) {
+                throw new EntityNotFoundException("ProductCategory", categoryId);
+            }
+        }
+        return tree.subtreeIds(categoryId);
+    }
+
+    /**
+     * 使分类树快照失效，下次访问时重新加载。
+     */
+    public void refreshCategoryTree() {
+        synchronized (categoryTreeLock) {
+            categoryTree = null;
+        }
+    }
+
+    private boolean isExpired() {
+        return nanoTime.getAsLong() - categoryTreeLoadedAt >= treeTtlNanos;
+    }
+
+    private void onCategoryChanged(ProductCategory category) {
+        synchronized (categoryTreeLock) {
+            CategoryTree tree = categoryTree;
+            if (tree != null) {
+                categoryTree = tree.withCategory(category);
+            }
+        }
     }
 }
@@ -32,7 +32,9 @@ public class ProductManagementService {
                 .orElseThrow(() -> new IllegalArgumentException("Product not found"));
 
         product.updateInfo(name, description);
-        return productRepository.save(product);
+        // 返回带有领域事件的聚合，由应用服务发布
+        productRepository.save(product);
+        return product;
     }
 
     /**
@@ -43,7 +45,9 @@ public class ProductManagementService {
                 .orElseThrow(() -> new IllegalArgumentException("Product not found"));
 
         product.activate();
-        return productRepository.save(product);
+        // 返回带有领域事件的聚合，由应用服务发布
+        productRepository.save(product);
+        return product;
     }
 
     /**
@@ -54,6 +58,8 @@ public class ProductManagementService {
                 .orElseThrow(() -> new IllegalArgumentException("Product not found"));
 
         product.deactivate();
-        return productRepository.save(product);
+        // 返回带有领域事件的聚合，由应用服务发布
+        productRepository.save(product);
+        return product;
     }
 }
@@ -24,6 +24,8 @@ public class SKUManagementService {
                 .orElseThrow(() -> new IllegalArgumentException("Product not found"));
 
         product.addSKU(sku);
-        return productRepository.save(product);
+        // 返回带有领域事件的聚合，由应用服务发布
+        productRepository.save(product);
+        return product;
     }
 }
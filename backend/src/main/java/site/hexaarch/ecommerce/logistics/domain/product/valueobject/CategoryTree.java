@@ -0,0 +1,210 @@
+package site.hexaarch.ecommerce.logistics.domain.product.valueobject;
+
+import site.hexaarch.ecommerce.logistics.domain.product.entity.ProductCategory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 分类树快照值对象，构建后不可变，只保存分类的父子结构。
+ * <p>
+ * 构建时按先序遍历为每个分类编号，分类的子树占据连续区间 [position, end]（嵌套集合），因此：
+ * 祖先判断是两次整数比较；子树分类ID是先序数组的一段连续视图，不需要递归查询。
+ * 父分类不存在的分类视为根分类；环上的分类从第一个被访问的分类处断开。
+ *
+ * @author kenyon
+ */
+public final class CategoryTree {
+    private static final CategoryTree EMPTY = of(List.of());
+
+    /**
+     * 分类ID到父分类ID的映射，保持构建时的顺序，用于复制出新快照
+     */
+    private final Map<String, String> parentIds;
+    private final Map<String, Integer> positions;
+    private final String[] ids;
+    private final int[] parents;
+    private final int[] ends;
+    private final int[] depths;
+
+    private CategoryTree(Map<String, String> parentIds, Map<String, Integer> positions, String[] ids, int[] parents, int[] ends, int[] depths) {
+        this.parentIds = parentIds;
+        this.positions = positions;
+        this.ids = ids;
+        this.parents = parents;
+        this.ends = ends;
+        this.depths = depths;
+    }
+
+    /**
+     * 获取空分类树。
+     *
+     * @return 空分类树
+     */
+    public static CategoryTree empty() {
+        return EMPTY;
+    }
+
+    /**
+     * 根据分类列表构建分类树，同级分类按列表顺序排列。
+     *
+     * @param categories 分类列表
+     * @return 分类树
+     */
+    public static CategoryTree of(Collection<ProductCategory> categories) {
+        Map<String, String> parentIds = new LinkedHashMap<>();
+        for (ProductCategory category : categories) {
+            parentIds.put(category.getId(), category.getParentId());
+        }
+        return build(parentIds);
+    }
+
+    /**
+     * 复制出包含新增或变更分类的新分类树，当前分类树不受影响。
+     *
+     * @param category 新增或变更的分类
+     * @return 新的分类树
+     */
+    public CategoryTree withCategory(ProductCategory category) {
+        Map<String, String> copy = new LinkedHashMap<>(parentIds);
+        copy.put(category.getId(), category.getParentId());
+        return build(copy);
+    }
+
+    private static CategoryTree build(Map<String, String> parentIds) {
+        int size = parentIds.size();
+        Map<String, List<String>> children = new HashMap<>();
+        List<String> roots = new ArrayList<>();
+        parentIds.forEach((id, parentId) -> {
+            if (parentId == null || parentId.equals(id) || !parentIds.containsKey(parentId)) {
+                roots.add(id);
+            } else {
+                children.computeIfAbsent(parentId, key -> new ArrayList<>()).add(id);
+            }
+        });
+        // 根分类之后再以输入顺序尝试每个分类，只有环上未被访问的分类会成为新的起点
+        roots.addAll(parentIds.keySet());
+
+        Map<String, Integer> positions = new HashMap<>(size * 2);
+        String[] ids = new String[size];
+        int[] parents = new int[size];
+        int[] depths = new int[size];
+        int next = 0;
+        Deque<Object[]> stack = new ArrayDeque<>();
+        for (String root : roots) {
+            stack.push(new Object[]{root, -1});
+            while (!stack.isEmpty()) {
+                Object[] entry = stack.pop();
+                String id = (String) entry[0];
+                if (positions.containsKey(id)) {
+                    continue;
+                }
+                int parent = (Integer) entry[1];
+                int position = next++;
+                positions.put(id, position);
+                ids[position] = id;
+                parents[position] = parent;
+                depths[position] = parent < 0 ? 1 : depths[parent] + 1;
+                List<String> childIds = children.getOrDefault(id, List.of());
+                for (int i = childIds.size() - 1; i >= 0; i--) {
+                    stack.push(new Object[]{childIds.get(i), position});
+                }
+            }
+        }
+
+        // 逆先序累加子树大小，子树区间的终点 = 起点 + 子树大小 - 1
+        int[] subtreeSizes = new int[size];
+        int[] ends = new int[size];
+        for (int position = size - 1; position >= 0; position--) {
+            subtreeSizes[position]++;
+            ends[position] = position + subtreeSizes[position] - 1;
+            if (parents[position] >= 0) {
+                subtreeSizes[parents[position]] += subtreeSizes[position];
+            }
+        }
+        return new CategoryTree(Collections.unmodifiableMap(parentIds), positions, ids, parents, ends, depths);
+    }
+
+    /**
+     * 检查分类树是否包含指定分类。
+     *
+     * @param categoryId 分类ID
+     * @return 如果包含则返回true，否则返回false
+     */
+    public boolean contains(String categoryId) {
+        return categoryId != null && positions.containsKey(categoryId);
+    }
+
+    /**
+     * 检查一个分类是否是另一个分类的祖先，分类不是自己的祖先。
+     *
+     * @param ancestorId   祖先分类ID
+     * @param descendantId 后代分类ID
+     * @return 如果是祖先则返回true，否则返回false
+     */
+    public boolean isAncestor(String ancestorId, String descendantId) {
+        Integer ancestor = ancestorId != null ? positions.get(ancestorId) : null;
+        Integer descendant = descendantId != null ? positions.get(descendantId) : null;
+        return ancestor != null && descendant != null && ancestor < descendant && descendant <= ends[ancestor];
+    }
+
+    /**
+     * 获取分类及其所有后代分类的ID，按先序排列。
+     *
+     * @param categoryId 分类ID
+     * @return 不可修改的分类ID列表，分类不存在时返回空列表
+     */
+    public List<String> subtreeIds(String categoryId) {
+        Integer position = categoryId != null ? positions.get(categoryId) : null;
+        if (position == null) {
+            return List.of();
+        }
+        return Collections.unmodifiableList(Arrays.asList(ids).subList(position, ends[position] + 1));
+    }
+
+    /**
+     * 获取分类的所有祖先分类ID，从根分类到父分类排列。
+     *
+     * @param categoryId 分类ID
+     * @return 祖先分类ID列表，分类不存在或是根分类时返回空列表
+     */
+    public List<String> ancestorIds(String categoryId) {
+        Integer position = categoryId != null ? positions.get(categoryId) : null;
+        if (position == null) {
+            return List.of();
+        }
+        String[] ancestors = new String[depths[position] - 1];
+        for (int parent = parents[position], i = ancestors.length - 1; parent >= 0; parent = parents[parent], i--) {
+            ancestors[i] = ids[parent];
+        }
+        return List.of(ancestors);
+    }
+
+    /**
+     * 获取分类在树中的深度，根分类为1。
+     *
+     * @param categoryId 分类ID
+     * @return 分类深度，分类不存在时返回0
+     */
+    public int depth(String categoryId) {
+        Integer position = categoryId != null ? positions.get(categoryId) : null;
+        return position != null ? depths[position] : 0;
+    }
+
+    /**
+     * 获取分类数量。
+     *
+     * @return 分类数量
+     */
+    public int size() {
+        return ids.length;
+    }
+}
@@ -28,20 +28,25 @@ public class PurchaseOrder extends BaseAggregateRoot {
     private final List<PurchaseOrderItem> items;
     private PurchaseStatus status;
     private LocalDateTime updatedAt;
+    /**
+     * 到货时间，用于统计采购提前期
+     */
+    private LocalDateTime deliveredAt;
     private BigDecimal totalAmount;
 
     /**
      * 私有构造函数，只能通过Builder创建。
      */
-    private PurchaseOrder(String purchaseOrderId, String tenantId, String supplierId, String supplierName, String warehouseId) {
+    private PurchaseOrder(String purchaseOrderId, String tenantId, String supplierId, String supplierName, String warehouseId,
+                          LocalDateTime createdAt) {
         this.purchaseOrderId = purchaseOrderId;
         this.tenantId = tenantId;
         this.supplierId = supplierId;
         this.supplierName = supplierName;
         this.warehouseId = warehouseId;
         this.status = PurchaseStatus.PENDING;
-        this.createdAt = LocalDateTime.now();
-        this.updatedAt = LocalDateTime.now();
+        this.createdAt = createdAt;
+        this.updatedAt = createdAt;
         this.items = new ArrayList<>();
         this.totalAmount = BigDecimal.ZERO;
     }
@@ -57,7 +62,7 @@ public class PurchaseOrder extends BaseAggregateRoot {
      * @return 采购单实例
      */
     public static PurchaseOrder create(String purchaseOrderId, String tenantId, String supplierId, String supplierName, String warehouseId) {
-        var purchaseOrder = new PurchaseOrder(purchaseOrderId, tenantId, supplierId, supplierName, warehouseId);
+        var purchaseOrder = new PurchaseOrder(purchaseOrderId, tenantId, supplierId, supplierName, warehouseId, LocalDateTime.now());
         // 发布采购单创建事件
         purchaseOrder.registerDomainEvent(new PurchaseOrderCreatedEvent(
                 purchaseOrder.purchaseOrderId,
@@ -153,6 +158,7 @@ public class PurchaseOrder extends BaseAggregateRoot {
         }
         this.status = PurchaseStatus.DELIVERED;
         this.updatedAt = LocalDateTime.now();
+        this.deliveredAt = this.updatedAt;
         // 发布采购单状态变更事件
         this.registerDomainEvent(new PurchaseOrderStatusChangedEvent(
                 this.purchaseOrderId,
@@ -181,6 +187,11 @@ public class PurchaseOrder extends BaseAggregateRoot {
         ));
     }
 
+    @Override
+    public String aggregateId() {
+        return purchaseOrderId;
+    }
+
     // 手动添加toBuilder方法
     public Builder toBuilder() {
         return new Builder()
@@ -192,6 +203,7 @@ public class PurchaseOrder extends BaseAggregateRoot {
                 .status(this.status)
                 .createdAt(this.createdAt)
                 .updatedAt(this.updatedAt)
+                .deliveredAt(this.deliveredAt)
                 .items(this.items)
                 .totalAmount(this.totalAmount);
     }
@@ -205,6 +217,7 @@ public class PurchaseOrder extends BaseAggregateRoot {
         private PurchaseStatus status;
         private LocalDateTime createdAt;
         private LocalDateTime updatedAt;
+        private LocalDateTime deliveredAt;
         private List<PurchaseOrderItem> items;
         private BigDecimal totalAmount;
 
@@ -248,6 +261,11 @@ public class PurchaseOrder extends BaseAggregateRoot {
             return this;
         }
 
+        public Builder deliveredAt(LocalDateTime deliveredAt) {
+            this.deliveredAt = deliveredAt;
+            return this;
+        }
+
         public Builder items(List<PurchaseOrderItem> items) {
             this.items = items;
             return this;
@@ -264,10 +282,12 @@ public class PurchaseOrder extends BaseAggregateRoot {
                     this.tenantId,
                     this.supplierId,
                     this.supplierName,
-                    this.warehouseId
+                    this.warehouseId,
+                    this.createdAt != null ? this.createdAt : LocalDateTime.now()
             );
             purchaseOrder.status = this.status != null ? this.status : PurchaseStatus.PENDING;
-            purchaseOrder.updatedAt = this.updatedAt != null ? this.updatedAt : LocalDateTime.now();
+            purchaseOrder.updatedAt = this.updatedAt != null ? this.updatedAt : purchaseOrder.createdAt;
+            purchaseOrder.deliveredAt = this.deliveredAt;
             purchaseOrder.items.addAll(this.items != null ? this.items : new ArrayList<>());
             purchaseOrder.totalAmount = this.totalAmount != null ? this.totalAmount : BigDecimal.ZERO;
             return purchaseOrder;
@@ -3,6 +3,7 @@ package site.hexaarch.ecommerce.logistics.domain.purchase.repository;
 import site.hexaarch.ecommerce.logistics.domain.purchase.aggregate.PurchaseOrder;
 import site.hexaarch.ecommerce.logistics.domain.purchase.valueobject.PurchaseStatus;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,6 +20,13 @@ public interface PurchaseOrderRepository {
      */
     void save(PurchaseOrder purchaseOrder);
 
+    /**
+     * 批量保存采购单，一次写入所有采购单和采购项。
+     *
+     * @param purchaseOrders 采购单集合
+     */
+    void saveAll(Collection<PurchaseOrder> purchaseOrders);
+
     /**
      * 根据采购单号查找采购单。
      *
@@ -27,6 +35,14 @@ public interface PurchaseOrderRepository {
      */
     Optional<PurchaseOrder> findById(String purchaseOrderId);
 
+    /**
+     * 根据采购单号查找采购单并加行锁，直到当前事务结束，用于状态变更前的检查。
+     *
+     * @param purchaseOrderId 采购单号
+     * @return 采购单实例，若不存在则返回Optional.empty()
+     */
+    Optional<PurchaseOrder> findByIdForUpdate(String purchaseOrderId);
+
     /**
      * 根据状态查找采购单。
      *
@@ -0,0 +1,35 @@
+package site.hexaarch.ecommerce.logistics.domain.purchase.repository;
+
+import site.hexaarch.ecommerce.logistics.domain.purchase.valueobject.ReplenishmentPolicy;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 补货策略仓储接口，按(仓库ID, SKU编码)保存补货点、补货数量和供应商。
+ *
+ * @author kenyon
+ */
+public interface ReplenishmentPolicyRepository {
+    /**
+     * 查找所有补货策略。
+     *
+     * @return 补货策略列表
+     */
+    List<ReplenishmentPolicy> findAll();
+
+    /**
+     * 查找仓库的所有补货策略。
+     *
+     * @param warehouseId 仓库ID
+     * @return 补货策略列表
+     */
+    List<ReplenishmentPolicy> findByWarehouseId(String warehouseId);
+
+    /**
+     * 批量保存补货策略，已存在的(仓库ID, SKU编码)被覆盖。
+     *
+     * @param policies 补货策略集合
+     */
+    void saveAll(Collection<ReplenishmentPolicy> policies);
+}
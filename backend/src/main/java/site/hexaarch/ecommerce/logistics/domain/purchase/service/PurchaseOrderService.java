@@ -1,6 +1,7 @@
 package site.hexaarch.ecommerce.logistics.domain.purchase.service;
 
 import site.hexaarch.ecommerce.logistics.domain.purchase.aggregate.PurchaseOrder;
+import site.hexaarch.ecommerce.logistics.domain.purchase.valueobject.PurchaseOrderDraft;
 import site.hexaarch.ecommerce.logistics.domain.purchase.valueobject.PurchaseStatus;
 
 import java.util.List;
@@ -22,6 +23,14 @@ public interface PurchaseOrderService {
      */
     PurchaseOrder createPurchaseOrder(String tenantId, String supplierId, String supplierName, String warehouseId);
 
+    /**
+     * 按草稿批量创建带采购项的采购单，所有采购单一次保存。
+     *
+     * @param drafts 采购单草稿列表
+     * @return 创建的采购单列表，与草稿顺序一致
+     */
+    List<PurchaseOrder> createPurchaseOrders(List<PurchaseOrderDraft> drafts);
+
     /**
      * 根据采购单号查找采购单。
      *
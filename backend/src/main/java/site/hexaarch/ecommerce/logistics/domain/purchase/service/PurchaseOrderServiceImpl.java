@@ -1,10 +1,13 @@
 package site.hexaarch.ecommerce.logistics.domain.purchase.service;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import site.hexaarch.ecommerce.logistics.domain.purchase.aggregate.PurchaseOrder;
 import site.hexaarch.ecommerce.logistics.domain.purchase.repository.PurchaseOrderRepository;
+import site.hexaarch.ecommerce.logistics.domain.purchase.valueobject.PurchaseOrderDraft;
 import site.hexaarch.ecommerce.logistics.domain.purchase.valueobject.PurchaseStatus;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -43,6 +46,28 @@ public class PurchaseOrderServiceImpl implements PurchaseOrderService {
         return purchaseOrder;
     }
 
+    /**
+     * 按草稿批量创建带采购项的采购单。
+     *
+     * @param drafts 采购单草稿列表
+     * @return 创建的采购单列表
+     */
+    @Override
+    public List<PurchaseOrder> createPurchaseOrders(List<PurchaseOrderDraft> drafts) {
+        List<PurchaseOrder> purchaseOrders = new ArrayList<>(drafts.size());
+        for (PurchaseOrderDraft draft : drafts) {
+            var purchaseOrderId = "PO-" + UUID.randomUUID().toString().substring(0, 8);
+            var purchaseOrder = PurchaseOrder.create(purchaseOrderId, draft.getTenantId(), draft.getSupplierId(),
+                    draft.getSupplierName(), draft.getWarehouseId());
+            for (PurchaseOrderDraft.Line line : draft.getLines()) {
+                purchaseOrder.addItem(line.getSkuCode(), line.getProductName(), line.getQuantity(), line.getUnitPrice());
+            }
+            purchaseOrders.add(purchaseOrder);
+        }
+        purchaseOrderRepository.saveAll(purchaseOrders);
+        return purchaseOrders;
+    }
+
     /**
      * 根据采购单号查找采购单。
      *
@@ -109,14 +134,16 @@ public class PurchaseOrderServiceImpl implements PurchaseOrderService {
     }
 
     /**
-     * 标记采购单为已送达。
+     * 标记采购单为已送达。采购单行加锁后再检查状态，并发的重复收货在锁释放后看到已送达状态而被拒绝。
      *
      * @param purchaseOrderId 采购单号
      * @return 更新后的采购单
      */
     @Override
+    @Transactional
     public PurchaseOrder markPurchaseOrderAsDelivered(String purchaseOrderId) {
-        var purchaseOrder = findPurchaseOrderById(purchaseOrderId);
+        var purchaseOrder = purchaseOrderRepository.findByIdForUpdate(purchaseOrderId)
+                .orElseThrow(() -> new IllegalArgumentException("采购单不存在: " + purchaseOrderId));
         purchaseOrder.markAsDelivered();
         purchaseOrderRepository.save(purchaseOrder);
         return purchaseOrder;
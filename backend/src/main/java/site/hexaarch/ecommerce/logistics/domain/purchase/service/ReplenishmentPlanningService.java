@@ -0,0 +1,16 @@
+package site.hexaarch.ecommerce.logistics.domain.purchase.service;
+
+/**
+ * 补货计划服务接口，按出库速度和采购提前期计算仓库中SKU的补货点，为低于补货点的SKU生成补货采购单。
+ *
+ * @author kenyon
+ */
+public interface ReplenishmentPlanningService {
+    /**
+     * 为单个仓库生成补货计划。
+     *
+     * @param warehouseId 仓库ID
+     * @return 生成的采购单数量
+     */
+    int planWarehouse(String warehouseId);
+}
@@ -0,0 +1,47 @@
+package site.hexaarch.ecommerce.logistics.domain.purchase.valueobject;
+
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 采购单草稿值对象，描述待创建的采购单及其采购项，用于批量创建采购单。
+ *
+ * @author kenyon
+ */
+@Getter
+public class PurchaseOrderDraft {
+    private final String tenantId;
+    private final String supplierId;
+    private final String supplierName;
+    private final String warehouseId;
+    private final List<Line> lines;
+
+    public PurchaseOrderDraft(String tenantId, String supplierId, String supplierName, String warehouseId, List<Line> lines) {
+        this.tenantId = tenantId;
+        this.supplierId = Objects.requireNonNull(supplierId, "Supplier ID cannot be null");
+        this.supplierName = supplierName;
+        this.warehouseId = Objects.requireNonNull(warehouseId, "Warehouse ID cannot be null");
+        this.lines = List.copyOf(lines);
+    }
+
+    /**
+     * 采购单草稿中的采购项
+     */
+    @Getter
+    public static class Line {
+        private final String skuCode;
+        private final String productName;
+        private final int quantity;
+        private final BigDecimal unitPrice;
+
+        public Line(String skuCode, String productName, int quantity, BigDecimal unitPrice) {
+            this.skuCode = Objects.requireNonNull(skuCode, "SKU code cannot be null");
+            this.productName = productName;
+            this.quantity = quantity;
+            this.unitPrice = unitPrice != null ? unitPrice : BigDecimal.ZERO;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package site.hexaarch.ecommerce.logistics.domain.purchase.valueobject;
+
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * 补货策略值对象，定义仓库中某SKU的补货点、每次补货数量和供应商。
+ * <p>
+ * 在库数量低于补货点时视为库存不足，按补货数量向供应商下采购单。
+ *
+ * @author kenyon
+ */
+@Getter
+public class ReplenishmentPolicy {
+    private final String warehouseId;
+    private final String skuCode;
+    private final String productName;
+    private final int reorderPoint;
+    private final int reorderQuantity;
+    private final String supplierId;
+    private final String supplierName;
+    private final BigDecimal unitCost;
+
+    private ReplenishmentPolicy(Builder builder) {
+        this.warehouseId = Objects.requireNonNull(builder.warehouseId, "Warehouse ID cannot be null");
+        this.skuCode = Objects.requireNonNull(builder.skuCode, "SKU code cannot be null");
+        this.productName = builder.productName != null ? builder.productName : builder.skuCode;
+        this.reorderPoint = builder.reorderPoint;
+        this.reorderQuantity = builder.reorderQuantity;
+        this.supplierId = Objects.requireNonNull(builder.supplierId, "Supplier ID cannot be null");
+        this.supplierName = builder.supplierName != null ? builder.supplierName : builder.supplierId;
+        this.unitCost = builder.unitCost != null ? builder.unitCost : BigDecimal.ZERO;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Builder toBuilder() {
+        return new Builder()
+                .warehouseId(warehouseId)
+                .skuCode(skuCode)
+                .productName(productName)
+                .reorderPoint(reorderPoint)
+                .reorderQuantity(reorderQuantity)
+                .supplierId(supplierId)
+                .supplierName(supplierName)
+                .unitCost(unitCost);
+    }
+
+    /**
+     * 判断在库数量是否低于补货点。
+     *
+     * @param quantity 在库数量
+     * @return 如果需要补货则返回true
+     */
+    public boolean isBelowReorderPoint(int quantity) {
+        return quantity < reorderPoint;
+    }
+
+    public static class Builder {
+        private String warehouseId;
+        private String skuCode;
+        private String productName;
+        private int reorderPoint;
+        private int reorderQuantity;
+        private String supplierId;
+        private String supplierName;
+        private BigDecimal unitCost;
+
+        public Builder warehouseId(String warehouseId) {
+            this.warehouseId = warehouseId;
+            return this;
+        }
+
+        public Builder skuCode(String skuCode) {
+            this.skuCode = skuCode;
+            return this;
+        }
+
+        public Builder productName(String productName) {
+            this.productName = productName;
+            return this;
+        }
+
+        public Builder reorderPoint(int reorderPoint) {
+            this.reorderPoint = reorderPoint;
+            return this;
+        }
+
+        public Builder reorderQuantity(int reorderQuantity) {
+            this.reorderQuantity = reorderQuantity;
+            return this;
+        }
+
+        public Builder supplierId(String supplierId) {
+            this.supplierId = supplierId;
+            return this;
+        }
+
+        public Builder supplierName(String supplierName) {
+            this.supplierName = supplierName;
+            return this;
+        }
+
+        public Builder unitCost(BigDecimal unitCost) {
+            this.unitCost = unitCost;
+            return this;
+        }
+
+        public ReplenishmentPolicy build() {
+            return new ReplenishmentPolicy(this);
+        }
+    }
+}
@@ -97,6 +97,11 @@ public class Tenant extends BaseAggregateRoot<Tenant> {
     }
 
     // Getters and Setters
+    @Override
+    public String aggregateId() {
+        return id;
+    }
+
     public String getId() {
         return id;
     }
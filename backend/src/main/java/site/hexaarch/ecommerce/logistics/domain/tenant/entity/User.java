@@ -93,8 +93,8 @@ public class User extends BaseEntity {
         this.roles.add(role);
     }
 
-    // 移除角色
+    // 移除角色，按角色ID匹配
     public void removeRole(Role role) {
-        this.roles.remove(role);
+        this.roles.removeIf(existing -> existing.getId().equals(role.getId()));
     }
 }
\ No newline at end of file
@@ -1,17 +1,26 @@
 package site.hexaarch.ecommerce.logistics.domain.warehouse.aggregate;
 
+import lombok.AccessLevel;
 import lombok.Getter;
+import site.hexaarch.ecommerce.logistics.domain.common.DomainEventSource;
 import site.hexaarch.ecommerce.logistics.domain.warehouse.entity.InventoryRecord;
 import site.hexaarch.ecommerce.logistics.domain.warehouse.entity.Location;
 import site.hexaarch.ecommerce.logistics.domain.warehouse.event.InventoryCountEvent;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.event.InventoryMovementBatchEvent;
 import site.hexaarch.ecommerce.logistics.domain.warehouse.event.InventoryMovementEvent;
 import site.hexaarch.ecommerce.logistics.domain.warehouse.event.InventoryShortageEvent;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.valueobject.InventoryLedgerEntry;
 import site.hexaarch.ecommerce.logistics.domain.warehouse.valueobject.InventoryMovement;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -20,7 +29,12 @@ import java.util.UUID;
  * @author kenyon
  */
 @Getter
-public class Warehouse {
+public class Warehouse implements DomainEventSource {
+    /**
+     * 每个库存批量变动事件最多包含的变动数，使序列化后的发件箱负载保持在TEXT列的64KB以内。
+     */
+    public static final int MAX_MOVEMENTS_PER_BATCH_EVENT = 100;
+
     protected List<Object> domainEvents;
     private String warehouseId;
     private String tenantId;
@@ -33,6 +47,36 @@ public class Warehouse {
     private boolean active;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    /**
+     * 库存记录索引（产品ID -> 库存记录），与inventoryRecords同步维护，为null时在首次查找时惰性重建。
+     */
+    @Getter(AccessLevel.NONE)
+    private Map<String, InventoryRecord> inventoryIndexByProductId;
+    /**
+     * 库存记录索引（SKU -> 库存记录），与inventoryIndexByProductId一同重建。
+     */
+    @Getter(AccessLevel.NONE)
+    private Map<String, InventoryRecord> inventoryIndexBySku;
+    /**
+     * 建立索引时inventoryRecords的大小，用于发现绕过聚合根直接修改列表的情况。
+     */
+    @Getter(AccessLevel.NONE)
+    private int indexedRecordCount;
+    /**
+     * 是否为库存切片：只加载了部分库存记录、未加载库位的仓库，只能通过仓储的saveInventorySlice保存。
+     */
+    @Getter(AccessLevel.NONE)
+    private boolean inventorySlice;
+    /**
+     * 自加载以来发生变更（新增或数量变化）的库存记录，按对象标识去重。
+     */
+    @Getter(AccessLevel.NONE)
+    private Set<InventoryRecord> changedInventoryRecords = Collections.newSetFromMap(new IdentityHashMap<>());
+    /**
+     * 自加载以来尚未写入库存流水的变动，按发生顺序排列。
+     */
+    @Getter(AccessLevel.NONE)
+    private List<InventoryLedgerEntry> pendingLedgerEntries = new ArrayList<>();
 
     /**
      * 受保护的无参构造函数，用于JPA和MapStruct。
@@ -98,10 +142,52 @@ public class Warehouse {
         );
     }
 
+    /**
+     * 从持久化状态重建仓库，不应用任何默认值，也不注册领域事件。
+     * 库存索引保持为空，由首次查找库存记录时惰性重建。
+     *
+     * @param warehouseId      仓库ID
+     * @param tenantId         租户ID
+     * @param warehouseName    仓库名称
+     * @param warehouseCode    仓库代码
+     * @param address          仓库地址
+     * @param capacity         仓库容量
+     * @param locations        库位列表
+     * @param inventoryRecords 库存记录列表
+     * @param active           是否激活
+     * @param createdAt        创建时间
+     * @param updatedAt        更新时间
+     * @return 重建的仓库
+     */
+    public static Warehouse reconstitute(String warehouseId, String tenantId, String warehouseName, String warehouseCode, String address, int capacity, List<Location> locations, List<InventoryRecord> inventoryRecords, boolean active, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        Warehouse warehouse = new Warehouse();
+        warehouse.warehouseId = warehouseId;
+        warehouse.tenantId = tenantId;
+        warehouse.warehouseName = warehouseName;
+        warehouse.warehouseCode = warehouseCode;
+        warehouse.address = address;
+        warehouse.capacity = capacity;
+        if (locations != null) {
+            warehouse.locations = locations;
+        }
+        if (inventoryRecords != null) {
+            warehouse.inventoryRecords = inventoryRecords;
+        }
+        warehouse.active = active;
+        warehouse.createdAt = createdAt;
+        warehouse.updatedAt = updatedAt;
+        return warehouse;
+    }
+
     public static WarehouseBuilder builder() {
         return new WarehouseBuilder();
     }
 
+    @Override
+    public String aggregateId() {
+        return warehouseId;
+    }
+
     public List<Object> getDomainEvents() {
         return domainEvents;
     }
@@ -146,6 +232,13 @@ public class Warehouse {
      */
     public void addInventoryRecord(InventoryRecord inventoryRecord) {
         this.inventoryRecords.add(inventoryRecord);
+        if (this.inventoryIndexByProductId != null && this.indexedRecordCount == this.inventoryRecords.size() - 1) {
+            indexInventoryRecord(inventoryRecord);
+            this.indexedRecordCount = this.inventoryRecords.size();
+        } else {
+            invalidateInventoryIndex();
+        }
+        this.changedInventoryRecords.add(inventoryRecord);
         this.updatedAt = LocalDateTime.now();
     }
 
@@ -156,9 +249,97 @@ public class Warehouse {
      * @return 库存记录，如果不存在则返回Optional.empty()
      */
     public Optional<InventoryRecord> findInventoryRecord(String productId) {
-        return this.inventoryRecords.stream()
-                .filter(record -> record.getProductId().equals(productId))
-                .findFirst();
+        if (productId == null) {
+            return Optional.empty();
+        }
+        ensureInventoryIndex();
+        return Optional.ofNullable(this.inventoryIndexByProductId.get(productId));
+    }
+
+    /**
+     * 根据SKU查找库存记录。
+     *
+     * @param sku SKU
+     * @return 库存记录，如果不存在则返回Optional.empty()
+     */
+    public Optional<InventoryRecord> findInventoryRecordBySku(String sku) {
+        if (sku == null) {
+            return Optional.empty();
+        }
+        ensureInventoryIndex();
+        return Optional.ofNullable(this.inventoryIndexBySku.get(sku));
+    }
+
+    /**
+     * 确保库存索引可用，索引缺失或库存列表被外部修改过时重建。
+     */
+    private void ensureInventoryIndex() {
+        if (this.inventoryIndexByProductId == null || this.indexedRecordCount != this.inventoryRecords.size()) {
+            rebuildInventoryIndex();
+        }
+    }
+
+    /**
+     * 根据当前库存记录列表重建索引，重复的键保留列表中的第一条记录，与原线性查找语义一致。
+     */
+    private void rebuildInventoryIndex() {
+        int expectedSize = Math.max(16, (int) (this.inventoryRecords.size() / 0.75f) + 1);
+        this.inventoryIndexByProductId = new HashMap<>(expectedSize);
+        this.inventoryIndexBySku = new HashMap<>(expectedSize);
+        for (InventoryRecord inventoryRecord : this.inventoryRecords) {
+            indexInventoryRecord(inventoryRecord);
+        }
+        this.indexedRecordCount = this.inventoryRecords.size();
+    }
+
+    private void indexInventoryRecord(InventoryRecord inventoryRecord) {
+        if (inventoryRecord.getProductId() != null) {
+            this.inventoryIndexByProductId.putIfAbsent(inventoryRecord.getProductId(), inventoryRecord);
+        }
+        if (inventoryRecord.getSku() != null) {
+            this.inventoryIndexBySku.putIfAbsent(inventoryRecord.getSku(), inventoryRecord);
+        }
+    }
+
+    private void invalidateInventoryIndex() {
+        this.inventoryIndexByProductId = null;
+        this.inventoryIndexBySku = null;
+        this.indexedRecordCount = 0;
+    }
+
+    /**
+     * 是否以库存切片方式加载。
+     *
+     * @return 如果只加载了部分库存记录则返回true
+     */
+    public boolean loadedAsInventorySlice() {
+        return inventorySlice;
+    }
+
+    /**
+     * 获取自加载以来发生变更的库存记录，供仓储实现只写回变更行。
+     *
+     * @return 变更的库存记录列表
+     */
+    public List<InventoryRecord> changedInventoryRecords() {
+        return new ArrayList<>(changedInventoryRecords);
+    }
+
+    /**
+     * 获取自加载以来尚未写入库存流水的变动，供仓储实现与变更的库存记录一同写入。
+     *
+     * @return 按发生顺序排列的流水条目列表
+     */
+    public List<InventoryLedgerEntry> pendingLedgerEntries() {
+        return new ArrayList<>(pendingLedgerEntries);
+    }
+
+    /**
+     * 清空库存变更跟踪和待写入的流水，在变更写回后调用。
+     */
+    public void clearInventoryChanges() {
+        changedInventoryRecords.clear();
+        pendingLedgerEntries.clear();
     }
 
     /**
@@ -174,6 +355,66 @@ public class Warehouse {
         InventoryRecord inventoryRecord = findInventoryRecord(productId)
                 .orElseThrow(() -> new IllegalArgumentException("Inventory record not found: " + productId));
 
+        // 更新时间
+        this.updatedAt = LocalDateTime.now();
+
+        // 注册库存变动事件
+        this.registerDomainEvent(applyMovement(inventoryRecord, quantity, movementType, reason));
+
+        // 如果库存状态为不足，注册库存不足事件
+        if (inventoryRecord.getInventoryStatus().toString().equals("SHORTAGE") || inventoryRecord.getInventoryStatus().toString().equals("OUT_OF_STOCK")) {
+            InventoryShortageEvent shortageEvent = InventoryShortageEvent.builder()
+                    .warehouseId(this.getWarehouseId())
+                    .productId(productId)
+                    .sku(inventoryRecord.getSku())
+                    .currentQuantity(inventoryRecord.getQuantity())
+                    .threshold(10) // 示例阈值
+                    .occurredAt(this.getUpdatedAt())
+                    .build();
+            this.registerDomainEvent(shortageEvent);
+        }
+    }
+
+    /**
+     * 按SKU批量入库，例如采购单整单收货。入库变动按 {@link #MAX_MOVEMENTS_PER_BATCH_EVENT} 条一组合并为库存批量变动事件。
+     *
+     * @param quantitiesBySku SKU到入库数量的映射，SKU必须已有库存记录
+     * @param reason          变动原因
+     */
+    public void receiveInventory(Map<String, Integer> quantitiesBySku, String reason) {
+        List<InventoryRecord> inventoryRecords = new ArrayList<>(quantitiesBySku.size());
+        for (String sku : quantitiesBySku.keySet()) {
+            inventoryRecords.add(findInventoryRecordBySku(sku)
+                    .orElseThrow(() -> new IllegalArgumentException("Inventory record not found for SKU: " + sku)));
+        }
+
+        // 更新时间，整批变动使用同一时间
+        this.updatedAt = LocalDateTime.now();
+
+        List<InventoryMovementEvent> movements = new ArrayList<>(inventoryRecords.size());
+        for (InventoryRecord inventoryRecord : inventoryRecords) {
+            movements.add(applyMovement(inventoryRecord, quantitiesBySku.get(inventoryRecord.getSku()),
+                    InventoryMovement.MovementType.INBOUND, reason));
+        }
+
+        // 分组注册库存批量变动事件，避免大采购单的单个事件超出发件箱负载列的长度
+        for (int from = 0; from < movements.size(); from += MAX_MOVEMENTS_PER_BATCH_EVENT) {
+            List<InventoryMovementEvent> chunk = movements.subList(from, Math.min(from + MAX_MOVEMENTS_PER_BATCH_EVENT, movements.size()));
+            this.registerDomainEvent(new InventoryMovementBatchEvent(this.getWarehouseId(), reason, chunk, this.getUpdatedAt()));
+        }
+    }
+
+    /**
+     * 变更库存记录的数量，记录库存流水，返回对应的库存变动事件，由调用方注册。
+     *
+     * @param inventoryRecord 库存记录
+     * @param quantity        变动数量
+     * @param movementType    变动类型
+     * @param reason          变动原因
+     * @return 库存变动事件
+     */
+    private InventoryMovementEvent applyMovement(InventoryRecord inventoryRecord, int quantity,
+                                                 InventoryMovement.MovementType movementType, String reason) {
         // 保存原始数量
         int originalQuantity = inventoryRecord.getQuantity();
 
@@ -185,43 +426,27 @@ public class Warehouse {
         } else if (movementType == InventoryMovement.MovementType.ADJUSTMENT) {
             inventoryRecord.adjustQuantity(quantity);
         }
+        this.changedInventoryRecords.add(inventoryRecord);
 
-        // 更新时间
-        this.updatedAt = LocalDateTime.now();
-
-        // 创建库存变动事件
+        // 创建库存变动
         InventoryMovement movement = InventoryMovement.builder()
                 .warehouseId(this.getWarehouseId())
-                .productId(productId)
+                .productId(inventoryRecord.getProductId())
                 .sku(inventoryRecord.getSku())
                 .quantity(quantity)
                 .movementType(movementType)
                 .reason(reason)
                 .movedAt(this.getUpdatedAt())
                 .build();
+        this.pendingLedgerEntries.add(InventoryLedgerEntry.of(movement, originalQuantity, inventoryRecord.getQuantity()));
 
-        // 注册库存变动事件
-        InventoryMovementEvent event = InventoryMovementEvent.builder()
+        return InventoryMovementEvent.builder()
                 .warehouseId(this.getWarehouseId())
                 .inventoryMovement(movement)
                 .originalQuantity(originalQuantity)
                 .newQuantity(inventoryRecord.getQuantity())
                 .occurredAt(this.getUpdatedAt())
                 .build();
-        this.registerDomainEvent(event);
-
-        // 如果库存状态为不足，注册库存不足事件
-        if (inventoryRecord.getInventoryStatus().toString().equals("SHORTAGE") || inventoryRecord.getInventoryStatus().toString().equals("OUT_OF_STOCK")) {
-            InventoryShortageEvent shortageEvent = InventoryShortageEvent.builder()
-                    .warehouseId(this.getWarehouseId())
-                    .productId(productId)
-                    .sku(inventoryRecord.getSku())
-                    .currentQuantity(inventoryRecord.getQuantity())
-                    .threshold(10) // 示例阈值
-                    .occurredAt(this.getUpdatedAt())
-                    .build();
-            this.registerDomainEvent(shortageEvent);
-        }
     }
 
     /**
@@ -240,13 +465,27 @@ public class Warehouse {
 
         // 调整库存数量
         inventoryRecord.adjustQuantity(actualQuantity);
+        this.changedInventoryRecords.add(inventoryRecord);
 
         // 更新时间
         this.updatedAt = LocalDateTime.now();
 
+        // 盘点差异以调整的形式记入库存流水
+        InventoryMovement movement = InventoryMovement.builder()
+                .warehouseId(this.getWarehouseId())
+                .productId(productId)
+                .sku(inventoryRecord.getSku())
+                .quantity(actualQuantity)
+                .movementType(InventoryMovement.MovementType.ADJUSTMENT)
+                .reason("盘点")
+                .movedAt(this.getUpdatedAt())
+                .build();
+        this.pendingLedgerEntries.add(InventoryLedgerEntry.of(movement, originalQuantity, inventoryRecord.getQuantity()));
+
         // 创建盘点结果
         InventoryCountEvent.CountResult countResult = InventoryCountEvent.CountResult.builder()
                 .productId(productId)
+                .sku(inventoryRecord.getSku())
                 .expectedQuantity(originalQuantity)
                 .actualQuantity(actualQuantity)
                 .difference(actualQuantity - originalQuantity)
@@ -324,6 +563,7 @@ public class Warehouse {
 
     protected void setInventoryRecords(List<InventoryRecord> inventoryRecords) {
         this.inventoryRecords = inventoryRecords;
+        invalidateInventoryIndex();
     }
 
     public boolean isActive() {
@@ -362,7 +602,8 @@ public class Warehouse {
                 .inventoryRecords(this.inventoryRecords)
                 .active(this.active)
                 .createdAt(this.createdAt)
-                .updatedAt(this.updatedAt);
+                .updatedAt(this.updatedAt)
+                .inventorySlice(this.inventorySlice);
     }
 
     public static class WarehouseBuilder {
@@ -377,6 +618,7 @@ public class Warehouse {
         private boolean active;
         private LocalDateTime createdAt;
         private LocalDateTime updatedAt;
+        private boolean inventorySlice;
 
         public WarehouseBuilder warehouseId(String warehouseId) {
             this.warehouseId = warehouseId;
@@ -433,6 +675,11 @@ public class Warehouse {
             return this;
         }
 
+        public WarehouseBuilder inventorySlice(boolean inventorySlice) {
+            this.inventorySlice = inventorySlice;
+            return this;
+        }
+
         public Warehouse build() {
             Warehouse warehouse = new Warehouse(
                     warehouseId != null ? warehouseId : java.util.UUID.randomUUID().toString(),
@@ -447,6 +694,7 @@ public class Warehouse {
                     createdAt != null ? createdAt : java.time.LocalDateTime.now(),
                     updatedAt != null ? updatedAt : java.time.LocalDateTime.now()
             );
+            warehouse.inventorySlice = inventorySlice;
             return warehouse;
         }
     }
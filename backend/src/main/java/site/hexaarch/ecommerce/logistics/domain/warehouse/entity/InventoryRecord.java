@@ -18,16 +18,31 @@ public class InventoryRecord {
     private final String sku;
     private final String locationId;
     private final LocalDateTime lastUpdated;
+    /**
+     * 已预留数量，由库存预留服务维护。
+     */
+    private final int reservedQuantity;
+    /**
+     * 已分配（拣货中）数量，由库存预留服务维护。
+     */
+    private final int allocatedQuantity;
+    /**
+     * 乐观锁版本号，持久化时用于检测并发修改。
+     */
+    private final Long version;
     private int quantity;
     private InventoryStatus inventoryStatus;
 
-    private InventoryRecord(String inventoryId, String warehouseId, String productId, String sku, String locationId, LocalDateTime lastUpdated, int quantity, InventoryStatus inventoryStatus) {
+    private InventoryRecord(String inventoryId, String warehouseId, String productId, String sku, String locationId, LocalDateTime lastUpdated, int reservedQuantity, int allocatedQuantity, Long version, int quantity, InventoryStatus inventoryStatus) {
         this.inventoryId = inventoryId;
         this.warehouseId = warehouseId;
         this.productId = productId;
         this.sku = sku;
         this.locationId = locationId;
         this.lastUpdated = lastUpdated;
+        this.reservedQuantity = reservedQuantity;
+        this.allocatedQuantity = allocatedQuantity;
+        this.version = version;
         this.quantity = quantity;
         this.inventoryStatus = inventoryStatus;
     }
@@ -107,6 +122,15 @@ public class InventoryRecord {
         return quantity;
     }
 
+    /**
+     * 获取可用数量，即在库数量减去已预留和已分配数量。
+     *
+     * @return 可用数量
+     */
+    public int getAvailableQuantity() {
+        return Math.max(0, quantity - reservedQuantity - allocatedQuantity);
+    }
+
     /**
      * 获取SKU。
      *
@@ -132,6 +156,9 @@ public class InventoryRecord {
         private String sku;
         private String locationId;
         private LocalDateTime lastUpdated;
+        private int reservedQuantity;
+        private int allocatedQuantity;
+        private Long version;
         private int quantity;
         private InventoryStatus inventoryStatus;
 
@@ -165,6 +192,21 @@ public class InventoryRecord {
             return this;
         }
 
+        public Builder reservedQuantity(int reservedQuantity) {
+            this.reservedQuantity = reservedQuantity;
+            return this;
+        }
+
+        public Builder allocatedQuantity(int allocatedQuantity) {
+            this.allocatedQuantity = allocatedQuantity;
+            return this;
+        }
+
+        public Builder version(Long version) {
+            this.version = version;
+            return this;
+        }
+
         public Builder quantity(int quantity) {
             this.quantity = quantity;
             return this;
@@ -176,7 +218,7 @@ public class InventoryRecord {
         }
 
         public InventoryRecord build() {
-            return new InventoryRecord(inventoryId, warehouseId, productId, sku, locationId, lastUpdated, quantity, inventoryStatus);
+            return new InventoryRecord(inventoryId, warehouseId, productId, sku, locationId, lastUpdated, reservedQuantity, allocatedQuantity, version, quantity, inventoryStatus);
         }
     }
 }
\ No newline at end of file
@@ -31,12 +31,14 @@ public class InventoryCountEvent {
     @Getter
     public static class CountResult {
         private final String productId;
+        private final String sku;
         private final int expectedQuantity;
         private final int actualQuantity;
         private final int difference;
 
-        private CountResult(String productId, int expectedQuantity, int actualQuantity, int difference) {
+        private CountResult(String productId, String sku, int expectedQuantity, int actualQuantity, int difference) {
             this.productId = productId;
+            this.sku = sku;
             this.expectedQuantity = expectedQuantity;
             this.actualQuantity = actualQuantity;
             this.difference = difference;
@@ -48,6 +50,7 @@ public class InventoryCountEvent {
 
         public static class Builder {
             private String productId;
+            private String sku;
             private int expectedQuantity;
             private int actualQuantity;
             private int difference;
@@ -57,6 +60,11 @@ public class InventoryCountEvent {
                 return this;
             }
 
+            public Builder sku(String sku) {
+                this.sku = sku;
+                return this;
+            }
+
             public Builder expectedQuantity(int expectedQuantity) {
                 this.expectedQuantity = expectedQuantity;
                 return this;
@@ -73,7 +81,7 @@ public class InventoryCountEvent {
             }
 
             public CountResult build() {
-                return new CountResult(productId, expectedQuantity, actualQuantity, difference);
+                return new CountResult(productId, sku, expectedQuantity, actualQuantity, difference);
             }
         }
     }
@@ -0,0 +1,28 @@
+package site.hexaarch.ecommerce.logistics.domain.warehouse.event;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 库存批量变动事件，一次操作中同一仓库的多条库存变动合并为一个事件，例如采购单整单收货。
+ * 变动较多时按 {@link site.hexaarch.ecommerce.logistics.domain.warehouse.aggregate.Warehouse#MAX_MOVEMENTS_PER_BATCH_EVENT}
+ * 条拆分为多个事件。
+ *
+ * @author kenyon
+ */
+@Getter
+public class InventoryMovementBatchEvent {
+    private final String warehouseId;
+    private final String reason;
+    private final List<InventoryMovementEvent> movements;
+    private final LocalDateTime occurredAt;
+
+    public InventoryMovementBatchEvent(String warehouseId, String reason, List<InventoryMovementEvent> movements, LocalDateTime occurredAt) {
+        this.warehouseId = warehouseId;
+        this.reason = reason;
+        this.movements = List.copyOf(movements);
+        this.occurredAt = occurredAt;
+    }
+}
@@ -0,0 +1,61 @@
+package site.hexaarch.ecommerce.logistics.domain.warehouse.repository;
+
+import site.hexaarch.ecommerce.logistics.domain.warehouse.valueobject.InventoryLedgerEntry;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 库存流水仓储接口，库存变动只追加、不修改。
+ * <p>
+ * 流水按(仓库, SKU)定期生成快照，在库数量等于最近的快照加上其后流水的数量变化，
+ * 查询只扫描快照之后的少量流水，不读取也不锁定库存记录行。
+ *
+ * @author kenyon
+ */
+public interface InventoryLedgerRepository {
+    /**
+     * 批量追加流水条目，需在写回库存记录的事务内调用。
+     *
+     * @param entries 流水条目列表
+     */
+    void appendAll(List<InventoryLedgerEntry> entries);
+
+    /**
+     * 查询仓库中SKU的当前在库数量。
+     *
+     * @param warehouseId 仓库ID
+     * @param skuCode     SKU编码
+     * @return 在库数量，如果该SKU没有任何流水则返回Optional.empty()
+     */
+    Optional<Integer> findQuantity(String warehouseId, String skuCode);
+
+    /**
+     * 查询仓库中SKU在指定时间的在库数量。
+     *
+     * @param warehouseId 仓库ID
+     * @param skuCode     SKU编码
+     * @param asOf        查询时间
+     * @return 在库数量，早于第一条流水的时间返回第一条流水变动前的数量，如果该SKU没有任何流水则返回Optional.empty()
+     */
+    Optional<Integer> findQuantityAsOf(String warehouseId, String skuCode, LocalDateTime asOf);
+
+    /**
+     * 按SKU编码汇总仓库自指定时间以来的出库数量，用于估算出库速度。
+     *
+     * @param warehouseId 仓库ID
+     * @param since       起始时间
+     * @return SKU编码到出库数量的映射，没有出库的SKU不返回
+     */
+    Map<String, Long> sumOutboundQuantities(String warehouseId, LocalDateTime since);
+
+    /**
+     * 为上次快照之后、发生时间不晚于截止时间的流水生成快照，只为有新流水的(仓库, SKU)生成。
+     *
+     * @param coveredUntil 截止时间，之后发生的流水留给下一次快照
+     * @return 生成的快照数量
+     */
+    int takeSnapshots(LocalDateTime coveredUntil);
+}
@@ -2,6 +2,7 @@ package site.hexaarch.ecommerce.logistics.domain.warehouse.repository;
 
 import site.hexaarch.ecommerce.logistics.domain.warehouse.aggregate.Warehouse;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,6 +28,40 @@ public interface WarehouseRepository {
      */
     Optional<Warehouse> findById(String id);
 
+    /**
+     * 以库存切片方式加载仓库：只加载仓库基本信息和指定产品的库存记录，不加载库位和其他库存记录。
+     * 返回的仓库只能通过{@link #saveInventorySlice(Warehouse)}保存。
+     *
+     * @param id         仓库ID
+     * @param productIds 需要加载的产品ID
+     * @return 仓库库存切片，如果仓库不存在则返回Optional.empty()
+     */
+    Optional<Warehouse> findInventorySlice(String id, Collection<String> productIds);
+
+    /**
+     * 保存仓库库存切片，只写回自加载以来发生变更的库存记录。
+     *
+     * @param warehouse 仓库库存切片
+     */
+    void saveInventorySlice(Warehouse warehouse);
+
+    /**
+     * 以库存切片方式加载仓库中指定SKU的库存记录并加行锁，需在写事务内调用，锁持有到事务结束。
+     * 返回的仓库只能通过{@link #saveLockedInventorySlice(Warehouse)}保存。
+     *
+     * @param id       仓库ID
+     * @param skuCodes 需要加载的SKU编码
+     * @return 仓库库存切片，如果仓库不存在则返回Optional.empty()
+     */
+    Optional<Warehouse> lockInventorySliceBySkus(String id, Collection<String> skuCodes);
+
+    /**
+     * 批量写回已加锁的仓库库存切片中变更的库存记录，新增和已有的库存记录一次批量upsert。
+     *
+     * @param warehouse 由{@link #lockInventorySliceBySkus(String, Collection)}加载的仓库库存切片
+     */
+    void saveLockedInventorySlice(Warehouse warehouse);
+
     Optional<Warehouse> findByWarehouseCode(String warehouseCode);
 
     Optional<Warehouse> findByWarehouseName(String warehouseName);
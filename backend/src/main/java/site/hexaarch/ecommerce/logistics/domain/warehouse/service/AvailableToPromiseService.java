@@ -0,0 +1,47 @@
+package site.hexaarch.ecommerce.logistics.domain.warehouse.service;
+
+import site.hexaarch.ecommerce.logistics.domain.warehouse.valueobject.AtpQuantity;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 可承诺量（ATP）服务接口，回答"某SKU还能卖多少"，查询不访问数据库。
+ *
+ * @author kenyon
+ */
+public interface AvailableToPromiseService {
+    /**
+     * 查询仓库中SKU的可承诺量。
+     *
+     * @param warehouseId 仓库ID
+     * @param skuCode     SKU编码
+     * @return 可承诺量，未知的(仓库, SKU)返回0
+     */
+    int getAvailableToPromise(String warehouseId, String skuCode);
+
+    /**
+     * 查询SKU在所有仓库的可承诺量之和。
+     *
+     * @param skuCode SKU编码
+     * @return 可承诺量
+     */
+    int getAvailableToPromise(String skuCode);
+
+    /**
+     * 批量查询SKU在所有仓库的可承诺量之和。
+     *
+     * @param skuCodes SKU编码集合
+     * @return SKU编码到可承诺量的映射，包含所有请求的SKU
+     */
+    Map<String, Integer> getAvailableToPromise(Collection<String> skuCodes);
+
+    /**
+     * 查询SKU在各仓库的数量明细。
+     *
+     * @param skuCode SKU编码
+     * @return 各仓库的可承诺量明细
+     */
+    List<AtpQuantity> findAtpQuantities(String skuCode);
+}
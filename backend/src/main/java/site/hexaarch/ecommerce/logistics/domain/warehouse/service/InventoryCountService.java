@@ -2,11 +2,12 @@ package site.hexaarch.ecommerce.logistics.domain.warehouse.service;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import site.hexaarch.ecommerce.logistics.domain.warehouse.aggregate.Warehouse;
-import site.hexaarch.ecommerce.logistics.domain.warehouse.entity.InventoryRecord;
-import site.hexaarch.ecommerce.logistics.domain.warehouse.repository.InventoryRecordRepository;
 import site.hexaarch.ecommerce.logistics.domain.warehouse.repository.WarehouseRepository;
 
+import java.util.List;
+
 /**
  * 库存盘点服务，负责执行库存盘点，调整库存数量。
  *
@@ -15,7 +16,6 @@ import site.hexaarch.ecommerce.logistics.domain.warehouse.repository.WarehouseRe
 @Service
 @RequiredArgsConstructor
 public class InventoryCountService {
-    private final InventoryRecordRepository inventoryRecordRepository;
     private final WarehouseRepository warehouseRepository;
 
     /**
@@ -24,27 +24,24 @@ public class InventoryCountService {
      * @param warehouseId    仓库ID
      * @param productId      产品ID
      * @param actualQuantity 实际数量
-     * @return 盘点后的库存记录
+     * @return 盘点后的仓库库存切片，包含待发布的库存盘点事件
      */
-    public InventoryRecord countInventory(String warehouseId, String productId, int actualQuantity) {
-        // 查找仓库
-        Warehouse warehouse = warehouseRepository.findById(warehouseId)
+    @Transactional
+    public Warehouse countInventory(String warehouseId, String productId, int actualQuantity) {
+        // 查找仓库库存切片
+        Warehouse warehouse = warehouseRepository.findInventorySlice(warehouseId, List.of(productId))
                 .orElseThrow(() -> new IllegalArgumentException("Warehouse not found: " + warehouseId));
 
         // 查找库存记录
-        InventoryRecord inventoryRecord = inventoryRecordRepository.findByProductId(productId)
+        warehouse.findInventoryRecord(productId)
                 .orElseThrow(() -> new IllegalArgumentException("Inventory record not found: " + productId));
 
         // 执行库存盘点
         warehouse.countInventory(productId, actualQuantity);
 
-        // 调整库存数量
-        inventoryRecord.adjustQuantity(actualQuantity);
-
-        // 保存库存记录和仓库
-        inventoryRecordRepository.save(inventoryRecord);
-        warehouseRepository.save(warehouse);
+        // 只写回变更的库存记录
+        warehouseRepository.saveInventorySlice(warehouse);
 
-        return inventoryRecord;
+        return warehouse;
     }
-}
\ No newline at end of file
+}
@@ -2,23 +2,30 @@ package site.hexaarch.ecommerce.logistics.domain.warehouse.service;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import site.hexaarch.ecommerce.logistics.domain.product.aggregate.Product;
+import site.hexaarch.ecommerce.logistics.domain.product.repository.ProductRepository;
 import site.hexaarch.ecommerce.logistics.domain.warehouse.aggregate.Warehouse;
 import site.hexaarch.ecommerce.logistics.domain.warehouse.entity.InventoryRecord;
-import site.hexaarch.ecommerce.logistics.domain.warehouse.repository.InventoryRecordRepository;
 import site.hexaarch.ecommerce.logistics.domain.warehouse.repository.WarehouseRepository;
 import site.hexaarch.ecommerce.logistics.domain.warehouse.valueobject.InventoryMovement;
 import site.hexaarch.ecommerce.logistics.domain.warehouse.valueobject.InventoryStatus;
 
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
 /**
  * 库存管理服务，负责管理库存记录，如入库、出库、调拨。
+ * 单SKU库存变动只加载仓库的库存切片，并只写回变更的库存记录。
  *
  * @author kenyon
  */
 @Service
 @RequiredArgsConstructor
 public class InventoryManagementService {
-    private final InventoryRecordRepository inventoryRecordRepository;
     private final WarehouseRepository warehouseRepository;
+    private final ProductRepository productRepository;
 
     /**
      * 库存入库。
@@ -28,28 +35,25 @@ public class InventoryManagementService {
      * @param sku         SKU
      * @param quantity    数量
      * @param locationId  库位ID
-     * @return 入库后的库存记录
+     * @return 入库后的仓库库存切片，包含待发布的库存变动事件
      */
-    public InventoryRecord inboundInventory(String warehouseId, String productId, String sku, int quantity, String locationId) {
-        // 查找仓库
-        Warehouse warehouse = warehouseRepository.findById(warehouseId)
-                .orElseThrow(() -> new IllegalArgumentException("Warehouse not found: " + warehouseId));
+    @Transactional
+    public Warehouse inboundInventory(String warehouseId, String productId, String sku, int quantity, String locationId) {
+        // 查找仓库库存切片
+        Warehouse warehouse = loadInventorySlice(warehouseId, productId);
 
         // 查找或创建库存记录
-        InventoryRecord inventoryRecord = inventoryRecordRepository.findByProductId(productId)
-                .orElseGet(() -> createInventoryRecord(warehouseId, productId, sku, locationId));
+        if (warehouse.findInventoryRecord(productId).isEmpty()) {
+            warehouse.addInventoryRecord(createInventoryRecord(warehouseId, productId, sku, locationId));
+        }
 
         // 更新仓库库存
         warehouse.updateInventory(productId, quantity, InventoryMovement.MovementType.INBOUND, "入库");
 
-        // 更新库存记录数量
-        inventoryRecord.increaseQuantity(quantity);
-
-        // 保存库存记录和仓库
-        inventoryRecordRepository.save(inventoryRecord);
-        warehouseRepository.save(warehouse);
+        // 只写回变更的库存记录
+        warehouseRepository.saveInventorySlice(warehouse);
 
-        return inventoryRecord;
+        return warehouse;
     }
 
     /**
@@ -58,15 +62,15 @@ public class InventoryManagementService {
      * @param warehouseId 仓库ID
      * @param productId   产品ID
      * @param quantity    数量
-     * @return 出库后的库存记录
+     * @return 出库后的仓库库存切片，包含待发布的库存变动事件
      */
-    public InventoryRecord outboundInventory(String warehouseId, String productId, int quantity) {
-        // 查找仓库
-        Warehouse warehouse = warehouseRepository.findById(warehouseId)
-                .orElseThrow(() -> new IllegalArgumentException("Warehouse not found: " + warehouseId));
+    @Transactional
+    public Warehouse outboundInventory(String warehouseId, String productId, int quantity) {
+        // 查找仓库库存切片
+        Warehouse warehouse = loadInventorySlice(warehouseId, productId);
 
         // 查找库存记录
-        InventoryRecord inventoryRecord = inventoryRecordRepository.findByProductId(productId)
+        InventoryRecord inventoryRecord = warehouse.findInventoryRecord(productId)
                 .orElseThrow(() -> new IllegalArgumentException("Inventory record not found: " + productId));
 
         // 验证库存数量
@@ -77,14 +81,10 @@ public class InventoryManagementService {
         // 更新仓库库存
         warehouse.updateInventory(productId, quantity, InventoryMovement.MovementType.OUTBOUND, "出库");
 
-        // 更新库存记录数量
-        inventoryRecord.decreaseQuantity(quantity);
-
-        // 保存库存记录和仓库
-        inventoryRecordRepository.save(inventoryRecord);
-        warehouseRepository.save(warehouse);
+        // 只写回变更的库存记录
+        warehouseRepository.saveInventorySlice(warehouse);
 
-        return inventoryRecord;
+        return warehouse;
     }
 
     /**
@@ -93,28 +93,70 @@ public class InventoryManagementService {
      * @param warehouseId 仓库ID
      * @param productId   产品ID
      * @param newQuantity 新的数量
-     * @return 调整后的库存记录
+     * @return 调整后的仓库库存切片，包含待发布的库存变动事件
      */
-    public InventoryRecord adjustInventory(String warehouseId, String productId, int newQuantity) {
-        // 查找仓库
-        Warehouse warehouse = warehouseRepository.findById(warehouseId)
-                .orElseThrow(() -> new IllegalArgumentException("Warehouse not found: " + warehouseId));
+    @Transactional
+    public Warehouse adjustInventory(String warehouseId, String productId, int newQuantity) {
+        // 查找仓库库存切片
+        Warehouse warehouse = loadInventorySlice(warehouseId, productId);
 
         // 查找库存记录
-        InventoryRecord inventoryRecord = inventoryRecordRepository.findByProductId(productId)
+        warehouse.findInventoryRecord(productId)
                 .orElseThrow(() -> new IllegalArgumentException("Inventory record not found: " + productId));
 
         // 更新仓库库存
         warehouse.updateInventory(productId, newQuantity, InventoryMovement.MovementType.ADJUSTMENT, "调整");
 
-        // 更新库存记录数量
-        inventoryRecord.adjustQuantity(newQuantity);
+        // 只写回变更的库存记录
+        warehouseRepository.saveInventorySlice(warehouse);
+
+        return warehouse;
+    }
+
+    /**
+     * 按SKU批量入库，所有SKU的库存记录在一个事务中加锁、更新并一次批量写回。
+     * 仓库中还没有库存记录的SKU先按SKU查找所属产品并创建库存记录，找不到产品的SKU拒绝整批入库。
+     *
+     * @param warehouseId     仓库ID
+     * @param quantitiesBySku SKU到入库数量的映射
+     * @param reason          入库原因
+     * @return 入库后的仓库库存切片，包含待发布的库存批量变动事件
+     */
+    @Transactional
+    public Warehouse receiveInventory(String warehouseId, Map<String, Integer> quantitiesBySku, String reason) {
+        // 一次查询加锁读取所有SKU的库存记录
+        Warehouse warehouse = warehouseRepository.lockInventorySliceBySkus(warehouseId, quantitiesBySku.keySet())
+                .orElseThrow(() -> new IllegalArgumentException("Warehouse not found: " + warehouseId));
+
+        // 创建缺少的库存记录，库存变动必须关联产品ID
+        for (String sku : quantitiesBySku.keySet()) {
+            if (warehouse.findInventoryRecordBySku(sku).isEmpty()) {
+                String productId = productRepository.findBySkuCode(sku)
+                        .map(Product::getId)
+                        .orElseThrow(() -> new IllegalArgumentException("Product not found for SKU: " + sku));
+                warehouse.addInventoryRecord(createInventoryRecord(warehouseId, productId, sku, null));
+            }
+        }
 
-        // 保存库存记录和仓库
-        inventoryRecordRepository.save(inventoryRecord);
-        warehouseRepository.save(warehouse);
+        // 更新仓库库存
+        warehouse.receiveInventory(quantitiesBySku, reason);
+
+        // 一次批量写回变更的库存记录
+        warehouseRepository.saveLockedInventorySlice(warehouse);
+
+        return warehouse;
+    }
 
-        return inventoryRecord;
+    /**
+     * 加载仓库中单个产品的库存切片。
+     *
+     * @param warehouseId 仓库ID
+     * @param productId   产品ID
+     * @return 仓库库存切片
+     */
+    private Warehouse loadInventorySlice(String warehouseId, String productId) {
+        return warehouseRepository.findInventorySlice(warehouseId, List.of(productId))
+                .orElseThrow(() -> new IllegalArgumentException("Warehouse not found: " + warehouseId));
     }
 
     /**
@@ -127,7 +169,8 @@ public class InventoryManagementService {
      * @return 创建的库存记录
      */
     private InventoryRecord createInventoryRecord(String warehouseId, String productId, String sku, String locationId) {
-        InventoryRecord inventoryRecord = InventoryRecord.builder()
+        return InventoryRecord.builder()
+                .inventoryId(UUID.randomUUID().toString())
                 .warehouseId(warehouseId)
                 .productId(productId)
                 .sku(sku)
@@ -135,6 +178,5 @@ public class InventoryManagementService {
                 .inventoryStatus(InventoryStatus.OUT_OF_STOCK)
                 .locationId(locationId)
                 .build();
-        return inventoryRecordRepository.save(inventoryRecord);
     }
-}
\ No newline at end of file
+}
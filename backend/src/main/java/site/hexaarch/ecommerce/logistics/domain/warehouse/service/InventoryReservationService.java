@@ -0,0 +1,61 @@
+package site.hexaarch.ecommerce.logistics.domain.warehouse.service;
+
+import site.hexaarch.ecommerce.logistics.domain.warehouse.valueobject.StockReservation;
+
+import java.util.List;
+
+/**
+ * 库存预留服务接口，按(仓库ID, SKU编码)维护可用、已预留和已分配数量，保证并发预留不超卖。
+ *
+ * @author kenyon
+ */
+public interface InventoryReservationService {
+    /**
+     * 为订单预留库存，所有行要么全部预留成功，要么全部不预留。
+     * 同一订单重复调用时直接返回已有的预留结果。
+     *
+     * @param orderId      订单ID
+     * @param reservations 预留明细，orderId须与参数一致
+     * @return 如果预留成功（或订单已预留）则返回true，库存不足时返回false
+     */
+    boolean reserve(String orderId, List<StockReservation> reservations);
+
+    /**
+     * 释放订单的预留和分配数量，使其重新可用。
+     *
+     * @param orderId 订单ID
+     */
+    void release(String orderId);
+
+    /**
+     * 将订单的预留数量转为已分配数量（拣货中）。
+     *
+     * @param orderId 订单ID
+     */
+    void allocate(String orderId);
+
+    /**
+     * 查询订单当前的预留明细。
+     *
+     * @param orderId 订单ID
+     * @return 预留明细，如果订单没有预留则返回空列表
+     */
+    List<StockReservation> findReservations(String orderId);
+
+    /**
+     * 查询可用数量。
+     *
+     * @param warehouseId 仓库ID
+     * @param skuCode     SKU编码
+     * @return 可用数量
+     */
+    int getAvailableQuantity(String warehouseId, String skuCode);
+
+    /**
+     * 查询存放该SKU的仓库。
+     *
+     * @param skuCode SKU编码
+     * @return 仓库ID列表
+     */
+    List<String> findStockingWarehouses(String skuCode);
+}
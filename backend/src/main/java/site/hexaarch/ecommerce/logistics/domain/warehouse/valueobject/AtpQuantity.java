@@ -0,0 +1,97 @@
+package site.hexaarch.ecommerce.logistics.domain.warehouse.valueobject;
+
+import java.util.Objects;
+
+/**
+ * 可承诺量值对象，表示某仓库某SKU的在库、已占用（已预留和已分配）和在途（已批准或运输中的采购单）数量。
+ *
+ * @author kenyon
+ */
+public class AtpQuantity {
+    private final String warehouseId;
+    private final String skuCode;
+    private final int onHand;
+    private final int committed;
+    private final int inbound;
+
+    private AtpQuantity(String warehouseId, String skuCode, int onHand, int committed, int inbound) {
+        this.warehouseId = Objects.requireNonNull(warehouseId, "Warehouse ID cannot be null");
+        this.skuCode = Objects.requireNonNull(skuCode, "SKU code cannot be null");
+        this.onHand = onHand;
+        this.committed = committed;
+        this.inbound = inbound;
+    }
+
+    /**
+     * 创建可承诺量。
+     *
+     * @param warehouseId 仓库ID
+     * @param skuCode     SKU编码
+     * @param onHand      在库数量
+     * @param committed   已预留和已分配数量
+     * @param inbound     在途数量
+     * @return 可承诺量
+     */
+    public static AtpQuantity of(String warehouseId, String skuCode, int onHand, int committed, int inbound) {
+        return new AtpQuantity(warehouseId, skuCode, onHand, committed, inbound);
+    }
+
+    public String getWarehouseId() {
+        return warehouseId;
+    }
+
+    public String getSkuCode() {
+        return skuCode;
+    }
+
+    public int getOnHand() {
+        return onHand;
+    }
+
+    public int getCommitted() {
+        return committed;
+    }
+
+    public int getInbound() {
+        return inbound;
+    }
+
+    /**
+     * 获取现货可用数量：在库数量减去已占用数量。
+     *
+     * @return 现货可用数量，不小于0
+     */
+    public int getAvailable() {
+        return Math.max(0, onHand - committed);
+    }
+
+    /**
+     * 获取可承诺量：在库数量加在途数量减去已占用数量。
+     *
+     * @return 可承诺量，不小于0
+     */
+    public int getAvailableToPromise() {
+        return Math.max(0, onHand + inbound - committed);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        AtpQuantity that = (AtpQuantity) o;
+        return onHand == that.onHand
+                && committed == that.committed
+                && inbound == that.inbound
+                && warehouseId.equals(that.warehouseId)
+                && skuCode.equals(that.skuCode);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(warehouseId, skuCode, onHand, committed, inbound);
+    }
+}
@@ -0,0 +1,66 @@
+package site.hexaarch.ecommerce.logistics.domain.warehouse.valueobject;
+
+import java.util.Objects;
+
+/**
+ * 库存流水条目值对象，记录一次库存变动及其对在库数量的影响，只追加、不修改。
+ * <p>
+ * 变动数量的含义随变动类型不同（调整和盘点时为调整后的数量），流水统一记录带符号的数量变化和变动后的在库数量，
+ * 在库数量由快照加其后的数量变化累加得到。
+ *
+ * @author kenyon
+ */
+public class InventoryLedgerEntry {
+    private final InventoryMovement movement;
+    private final int quantityChange;
+    private final int balanceAfter;
+
+    private InventoryLedgerEntry(InventoryMovement movement, int quantityChange, int balanceAfter) {
+        this.movement = Objects.requireNonNull(movement, "Movement cannot be null");
+        this.quantityChange = quantityChange;
+        this.balanceAfter = balanceAfter;
+    }
+
+    /**
+     * 由库存变动和变动前后的在库数量创建流水条目。
+     *
+     * @param movement         库存变动
+     * @param originalQuantity 变动前的在库数量
+     * @param newQuantity      变动后的在库数量
+     * @return 流水条目
+     */
+    public static InventoryLedgerEntry of(InventoryMovement movement, int originalQuantity, int newQuantity) {
+        return new InventoryLedgerEntry(movement, newQuantity - originalQuantity, newQuantity);
+    }
+
+    public InventoryMovement getMovement() {
+        return movement;
+    }
+
+    /**
+     * 获取带符号的在库数量变化。
+     *
+     * @return 数量变化，出库为负数
+     */
+    public int getQuantityChange() {
+        return quantityChange;
+    }
+
+    /**
+     * 获取变动后的在库数量。
+     *
+     * @return 变动后的在库数量
+     */
+    public int getBalanceAfter() {
+        return balanceAfter;
+    }
+
+    /**
+     * 获取变动前的在库数量。
+     *
+     * @return 变动前的在库数量
+     */
+    public int getBalanceBefore() {
+        return balanceAfter - quantityChange;
+    }
+}
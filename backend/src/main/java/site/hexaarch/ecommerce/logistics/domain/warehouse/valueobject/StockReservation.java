@@ -0,0 +1,82 @@
+package site.hexaarch.ecommerce.logistics.domain.warehouse.valueobject;
+
+import java.util.Objects;
+
+/**
+ * 库存预留值对象，表示某订单在某仓库对某SKU预留的数量。
+ *
+ * @author kenyon
+ */
+public class StockReservation {
+    private final String orderId;
+    private final String warehouseId;
+    private final String skuCode;
+    private final int quantity;
+
+    /**
+     * 构造函数，确保所有必填字段都不为空。
+     *
+     * @param orderId     订单ID
+     * @param warehouseId 仓库ID
+     * @param skuCode     SKU编码
+     * @param quantity    预留数量
+     */
+    private StockReservation(String orderId, String warehouseId, String skuCode, int quantity) {
+        this.orderId = Objects.requireNonNull(orderId, "Order ID cannot be null");
+        this.warehouseId = Objects.requireNonNull(warehouseId, "Warehouse ID cannot be null");
+        this.skuCode = Objects.requireNonNull(skuCode, "SKU code cannot be null");
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Reservation quantity must be greater than 0");
+        }
+        this.quantity = quantity;
+    }
+
+    /**
+     * 创建库存预留。
+     *
+     * @param orderId     订单ID
+     * @param warehouseId 仓库ID
+     * @param skuCode     SKU编码
+     * @param quantity    预留数量
+     * @return 库存预留
+     */
+    public static StockReservation of(String orderId, String warehouseId, String skuCode, int quantity) {
+        return new StockReservation(orderId, warehouseId, skuCode, quantity);
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public String getWarehouseId() {
+        return warehouseId;
+    }
+
+    public String getSkuCode() {
+        return skuCode;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        StockReservation that = (StockReservation) o;
+        return quantity == that.quantity
+                && orderId.equals(that.orderId)
+                && warehouseId.equals(that.warehouseId)
+                && skuCode.equals(that.skuCode);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(orderId, warehouseId, skuCode, quantity);
+    }
+}
@@ -0,0 +1,50 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.cache;
+
+import lombok.Getter;
+
+/**
+ * SKU查询缓存统计，计数从应用启动开始累计。
+ *
+ * @author kenyon
+ */
+@Getter
+public class SkuCacheStats {
+    /**
+     * 命中次数
+     */
+    private final long hits;
+    /**
+     * 未命中次数
+     */
+    private final long misses;
+    /**
+     * 因超出容量或过期被淘汰的条目数，不含主动失效
+     */
+    private final long evictions;
+    /**
+     * 当前条目数
+     */
+    private final int size;
+    /**
+     * 最大条目数
+     */
+    private final int maxSize;
+
+    public SkuCacheStats(long hits, long misses, long evictions, int size, int maxSize) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.size = size;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * 获取命中率。
+     *
+     * @return 命中率，没有请求时为0
+     */
+    public double getHitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+}
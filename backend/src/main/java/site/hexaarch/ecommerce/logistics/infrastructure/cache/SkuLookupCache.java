@@ -0,0 +1,273 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import site.hexaarch.ecommerce.logistics.domain.product.aggregate.Product;
+import site.hexaarch.ecommerce.logistics.domain.product.entity.ProductCategory;
+import site.hexaarch.ecommerce.logistics.domain.product.entity.SKU;
+import site.hexaarch.ecommerce.logistics.domain.product.event.ProductUpdatedEvent;
+import site.hexaarch.ecommerce.logistics.domain.product.event.SKUCreatedEvent;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * SKU查询近端缓存，按(租户ID, SKU编码)缓存产品快照，容量和存活时间有上限。
+ * <p>
+ * 条目按键的哈希分布到若干段，每段是一把锁保护的按访问顺序排列的映射，段内超出容量时淘汰最久未访问的条目，
+ * 不同段的读取互不阻塞；容量较小时只分一段，淘汰顺序与全局LRU一致。过期条目在读取时淘汰。
+ * 产品保存、{@link ProductUpdatedEvent} 和 {@link SKUCreatedEvent} 使该产品的所有条目失效，
+ * 通过产品ID到缓存键的反向索引只访问该产品的条目；事件在事务结束后（提交或回滚）再失效一次，
+ * 避免并发读取在提交前把旧数据重新放回缓存，回滚时也清除保存期间被并发读取放回的条目。每次失效递增代数，加载期间发生过失效的结果不写入缓存。
+ * 缓存和返回给调用方的都是产品的深拷贝（包括SKU和分类），调用方修改产品不会影响缓存。
+ *
+ * @author kenyon
+ */
+@Component
+public class SkuLookupCache {
+    /**
+     * 每段的最小容量，容量较小时减少分段数
+     */
+    private static final int MIN_SEGMENT_CAPACITY = 64;
+    private static final int MAX_SEGMENTS = 16;
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final Segment[] segments;
+    /**
+     * 产品ID到缓存键的反向索引，只在compute系列方法内修改
+     */
+    private final ConcurrentHashMap<String, Set<Key>> keysByProduct = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    // 手动添加构造函数，避免Lombok注解问题
+    public SkuLookupCache(@Value("${product.sku-cache.max-size:10000}") int maxSize,
+                          @Value("${product.sku-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.maxSize = Math.max(1, maxSize);
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(Math.max(1, ttlSeconds));
+        int segmentCount = Integer.highestOneBit(Math.max(1, Math.min(MAX_SEGMENTS, this.maxSize / MIN_SEGMENT_CAPACITY)));
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            // 容量余数分给前几段，各段容量之和等于总容量
+            segments[i] = new Segment(this.maxSize / segmentCount + (i < this.maxSize % segmentCount ? 1 : 0));
+        }
+    }
+
+    /**
+     * 按租户和SKU编码查找产品，未命中时调用加载函数并缓存找到的结果，找不到的结果不缓存。
+     *
+     * @param tenantId 租户ID，可为空
+     * @param skuCode  SKU编码
+     * @param loader   未命中时的加载函数
+     * @return 产品快照的副本
+     */
+    public Optional<Product> get(String tenantId, String skuCode, Supplier<Optional<Product>> loader) {
+        Key key = new Key(tenantId, skuCode);
+        Segment segment = segmentFor(key);
+        long loadGeneration;
+        synchronized (segment) {
+            Entry entry = segment.entries.get(key);
+            if (entry != null) {
+                if (System.nanoTime() - entry.loadedAt < ttlNanos) {
+                    hits.increment();
+                    return Optional.of(copyOf(entry.product));
+                }
+                segment.entries.remove(key);
+                unindex(key, entry.product.getId());
+                evictions.increment();
+            }
+            loadGeneration = generation.get();
+        }
+        misses.increment();
+
+        Optional<Product> loaded = loader.get();
+        loaded.ifPresent(product -> {
+            Product snapshot = copyOf(product);
+            synchronized (segment) {
+                // 先登记反向索引再检查代数，失效时先递增代数再摘除索引，写入的条目总能被失效找到
+                index(key, snapshot.getId());
+                if (generation.get() == loadGeneration) {
+                    Entry previous = segment.entries.put(key, new Entry(snapshot, System.nanoTime()));
+                    if (previous != null && !Objects.equals(previous.product.getId(), snapshot.getId())) {
+                        unindex(key, previous.product.getId());
+                    }
+                } else if (!segment.entries.containsKey(key)) {
+                    unindex(key, snapshot.getId());
+                }
+            }
+        });
+        return loaded;
+    }
+
+    /**
+     * 使产品的所有缓存条目失效。
+     *
+     * @param productId 产品ID
+     */
+    public void invalidateProduct(String productId) {
+        if (productId == null) {
+            return;
+        }
+        generation.incrementAndGet();
+        Set<Key> keys = keysByProduct.remove(productId);
+        if (keys == null) {
+            return;
+        }
+        for (Key key : keys) {
+            Segment segment = segmentFor(key);
+            synchronized (segment) {
+                Entry entry = segment.entries.get(key);
+                // SKU可能已改挂到其他产品，只删除仍属于该产品的条目
+                if (entry != null && productId.equals(entry.product.getId())) {
+                    segment.entries.remove(key);
+                }
+            }
+        }
+    }
+
+    /**
+     * 清空缓存。
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.entries.clear();
+            }
+        }
+        keysByProduct.clear();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void onProductUpdated(ProductUpdatedEvent event) {
+        invalidateProduct(event.getProductId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void onSkuCreated(SKUCreatedEvent event) {
+        invalidateProduct(event.getProductId());
+    }
+
+    /**
+     * 获取缓存统计。
+     *
+     * @return 缓存统计
+     */
+    public SkuCacheStats getStats() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.entries.size();
+            }
+        }
+        return new SkuCacheStats(hits.sum(), misses.sum(), evictions.sum(), size, maxSize);
+    }
+
+    private Segment segmentFor(Key key) {
+        int hash = key.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (segments.length - 1)];
+    }
+
+    private void index(Key key, String productId) {
+        if (productId == null) {
+            return;
+        }
+        keysByProduct.compute(productId, (id, keys) -> {
+            Set<Key> result = keys != null ? keys : new HashSet<>();
+            result.add(key);
+            return result;
+        });
+    }
+
+    private void unindex(Key key, String productId) {
+        if (productId == null) {
+            return;
+        }
+        keysByProduct.computeIfPresent(productId, (id, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    private static Product copyOf(Product product) {
+        List<SKU> skus = null;
+        if (product.getSkus() != null) {
+            skus = new ArrayList<>(product.getSkus().size());
+            for (SKU sku : product.getSkus()) {
+                skus.add(copyOf(sku));
+            }
+        }
+        return Product.reconstitute(product.getId(), product.getTenantId(), copyOf(product.getCategory()), product.getName(),
+                product.getDescription(), skus, product.isActive());
+    }
+
+    private static SKU copyOf(SKU sku) {
+        // 属性和价格是不可变值对象，只复制属性列表
+        return SKU.builder()
+                .id(sku.getId())
+                .skuCode(sku.getSkuCode())
+                .productId(sku.getProductId())
+                .weightInGrams(sku.getWeightInGrams())
+                .volumeInCubicCentimeters(sku.getVolumeInCubicCentimeters())
+                .attributes(sku.getAttributes() != null ? new ArrayList<>(sku.getAttributes()) : null)
+                .price(sku.getPrice())
+                .build();
+    }
+
+    private static ProductCategory copyOf(ProductCategory category) {
+        if (category == null) {
+            return null;
+        }
+        return ProductCategory.builder()
+                .id(category.getId())
+                .parentId(category.getParentId())
+                .level(category.getLevel())
+                .name(category.getName())
+                .description(category.getDescription())
+                .active(category.isActive())
+                .build();
+    }
+
+    /**
+     * 缓存段，段内条目按访问顺序排列，超出段容量时淘汰最久未访问的条目。
+     */
+    private final class Segment {
+        private final LinkedHashMap<Key, Entry> entries;
+
+        private Segment(int capacity) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                    if (size() > capacity) {
+                        evictions.increment();
+                        unindex(eldest.getKey(), eldest.getValue().product.getId());
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+    }
+
+    private record Key(String tenantId, String skuCode) {
+    }
+
+    private record Entry(Product product, long loadedAt) {
+    }
+}
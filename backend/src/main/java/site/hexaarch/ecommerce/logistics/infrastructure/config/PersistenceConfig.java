@@ -1,19 +1,28 @@
 package site.hexaarch.ecommerce.logistics.infrastructure.config;
 
+import jakarta.persistence.EntityManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
 import site.hexaarch.ecommerce.logistics.domain.logistics.repository.LogisticsChannelRepository;
 import site.hexaarch.ecommerce.logistics.domain.logistics.repository.LogisticsOrderRepository;
+import site.hexaarch.ecommerce.logistics.domain.logistics.repository.TrackingEventRepository;
 import site.hexaarch.ecommerce.logistics.domain.order.repository.OrderRepository;
+import site.hexaarch.ecommerce.logistics.domain.platform.repository.SyncWatermarkRepository;
+import site.hexaarch.ecommerce.logistics.domain.product.repository.ProductCategoryRepository;
 import site.hexaarch.ecommerce.logistics.domain.product.repository.ProductRepository;
 import site.hexaarch.ecommerce.logistics.domain.tenant.repository.RoleRepository;
 import site.hexaarch.ecommerce.logistics.domain.tenant.repository.TenantRepository;
 import site.hexaarch.ecommerce.logistics.domain.tenant.repository.UserRepository;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.repository.InventoryLedgerRepository;
 import site.hexaarch.ecommerce.logistics.domain.warehouse.repository.InventoryRecordRepository;
 import site.hexaarch.ecommerce.logistics.domain.warehouse.repository.WarehouseRepository;
+import site.hexaarch.ecommerce.logistics.infrastructure.cache.SkuLookupCache;
 import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.mapper.LogisticsChannelMapper;
 import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.mapper.LogisticsOrderMapper;
 import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.mapper.OrderMapper;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.mapper.ProductMapper;
 import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.mapper.RoleMapper;
 import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.mapper.TenantMapper;
 import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.mapper.UserMapper;
@@ -22,19 +31,28 @@ import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.reposito
 import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.LogisticsChannelJpaRepository;
 import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.LogisticsOrderJpaRepository;
 import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.OrderJpaRepository;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.PlatformSyncWatermarkJpaRepository;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.ProductCategoryJpaRepository;
 import site.hexaarch.ecommerce.logistics.infrastructure.persistence.repository.ProductRepositoryImpl;
 import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.RoleJpaRepository;
 import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.TenantJpaRepository;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.TrackingEventJpaRepository;
 import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.UserJpaRepository;
 import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.WarehouseJpaRepository;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.repository.CachingProductRepository;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.repository.InventoryLedgerRepositoryImpl;
 import site.hexaarch.ecommerce.logistics.infrastructure.persistence.repository.InventoryRecordRepositoryImpl;
 import site.hexaarch.ecommerce.logistics.infrastructure.persistence.repository.LogisticsChannelRepositoryImpl;
 import site.hexaarch.ecommerce.logistics.infrastructure.persistence.repository.LogisticsOrderRepositoryImpl;
 import site.hexaarch.ecommerce.logistics.infrastructure.persistence.repository.OrderRepositoryImpl;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.repository.ProductCategoryRepositoryImpl;
 import site.hexaarch.ecommerce.logistics.infrastructure.persistence.repository.RoleRepositoryImpl;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.repository.SyncWatermarkRepositoryImpl;
 import site.hexaarch.ecommerce.logistics.infrastructure.persistence.repository.TenantRepositoryImpl;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.repository.TrackingEventRepositoryImpl;
 import site.hexaarch.ecommerce.logistics.infrastructure.persistence.repository.UserRepositoryImpl;
 import site.hexaarch.ecommerce.logistics.infrastructure.persistence.repository.WarehouseRepositoryImpl;
+import site.hexaarch.ecommerce.logistics.infrastructure.security.PermissionSnapshotCache;
 
 /**
  * 持久化配置类，注册仓库实现为Spring Bean。
@@ -45,8 +63,9 @@ import site.hexaarch.ecommerce.logistics.infrastructure.persistence.repository.W
 public class PersistenceConfig {
     // 订单仓库配置
     @Bean
-    public OrderRepository orderRepository(OrderJpaRepository orderJpaRepository, OrderMapper orderMapper) {
-        return new OrderRepositoryImpl(orderJpaRepository, orderMapper);
+    public OrderRepository orderRepository(OrderJpaRepository orderJpaRepository, OrderMapper orderMapper,
+                                           EntityManager entityManager, JdbcTemplate jdbcTemplate) {
+        return new OrderRepositoryImpl(orderJpaRepository, orderMapper, entityManager, jdbcTemplate);
     }
 
     // 物流单仓库配置
@@ -57,6 +76,15 @@ public class PersistenceConfig {
         return new LogisticsOrderRepositoryImpl(logisticsOrderJpaRepository, logisticsOrderMapper);
     }
 
+    // 轨迹事件仓库配置
+    @Bean
+    public TrackingEventRepository trackingEventRepository(
+            JdbcTemplate jdbcTemplate,
+            TrackingEventJpaRepository trackingEventJpaRepository,
+            LogisticsOrderMapper logisticsOrderMapper) {
+        return new TrackingEventRepositoryImpl(jdbcTemplate, trackingEventJpaRepository, logisticsOrderMapper);
+    }
+
     // 物流渠道仓库配置
     @Bean
     public LogisticsChannelRepository logisticsChannelRepository(
@@ -69,8 +97,18 @@ public class PersistenceConfig {
     @Bean
     public WarehouseRepository warehouseRepository(
             WarehouseJpaRepository warehouseJpaRepository,
-            WarehouseMapper warehouseMapper) {
-        return new WarehouseRepositoryImpl(warehouseJpaRepository, warehouseMapper);
+            InventoryRecordJpaRepository inventoryRecordJpaRepository,
+            WarehouseMapper warehouseMapper,
+            InventoryLedgerRepository inventoryLedgerRepository,
+            JdbcTemplate jdbcTemplate) {
+        return new WarehouseRepositoryImpl(warehouseJpaRepository, inventoryRecordJpaRepository, warehouseMapper,
+                inventoryLedgerRepository, jdbcTemplate);
+    }
+
+    // 库存流水仓库配置
+    @Bean
+    public InventoryLedgerRepository inventoryLedgerRepository(JdbcTemplate jdbcTemplate) {
+        return new InventoryLedgerRepositoryImpl(jdbcTemplate);
     }
 
     // 库存记录仓库配置
@@ -81,22 +119,40 @@ public class PersistenceConfig {
         return new InventoryRecordRepositoryImpl(inventoryRecordJpaRepository, warehouseMapper);
     }
 
-    // 产品仓库配置
+    // 产品仓库配置，按SKU编码查找经过近端缓存
+    @Bean
+    @Primary
+    public ProductRepository productRepository(ProductRepositoryImpl productRepositoryImpl, SkuLookupCache skuLookupCache) {
+        return new CachingProductRepository(productRepositoryImpl, skuLookupCache);
+    }
+
+    // 产品分类仓库配置
+    @Bean
+    public ProductCategoryRepository productCategoryRepository(
+            ProductCategoryJpaRepository productCategoryJpaRepository,
+            ProductMapper productMapper) {
+        return new ProductCategoryRepositoryImpl(productCategoryJpaRepository, productMapper);
+    }
+
+    // 平台同步水位仓库配置
     @Bean
-    public ProductRepository productRepository(ProductRepositoryImpl productRepositoryImpl) {
-        return productRepositoryImpl;
+    public SyncWatermarkRepository syncWatermarkRepository(PlatformSyncWatermarkJpaRepository platformSyncWatermarkJpaRepository) {
+        return new SyncWatermarkRepositoryImpl(platformSyncWatermarkJpaRepository);
     }
 
-    // 用户仓库配置
+    // 用户仓库配置，保存和删除用户使租户权限快照失效
     @Bean
-    public UserRepository userRepository(UserJpaRepository userJpaRepository, UserMapper userMapper) {
-        return new UserRepositoryImpl(userJpaRepository, userMapper);
+    public UserRepository userRepository(UserJpaRepository userJpaRepository, RoleJpaRepository roleJpaRepository,
+                                         UserMapper userMapper, RoleMapper roleMapper,
+                                         PermissionSnapshotCache permissionSnapshotCache) {
+        return new UserRepositoryImpl(userJpaRepository, roleJpaRepository, userMapper, roleMapper, permissionSnapshotCache);
     }
 
-    // 角色仓库配置
+    // 角色仓库配置，保存和删除角色使租户权限快照失效
     @Bean
-    public RoleRepository roleRepository(RoleJpaRepository roleJpaRepository, RoleMapper roleMapper) {
-        return new RoleRepositoryImpl(roleJpaRepository, roleMapper);
+    public RoleRepository roleRepository(RoleJpaRepository roleJpaRepository, RoleMapper roleMapper,
+                                         PermissionSnapshotCache permissionSnapshotCache) {
+        return new RoleRepositoryImpl(roleJpaRepository, roleMapper, permissionSnapshotCache);
     }
 
     // 租户仓库配置
@@ -0,0 +1,14 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * 定时任务配置类，启用@Scheduled定时任务（如库存预留写回）。
+ *
+ * @author kenyon
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
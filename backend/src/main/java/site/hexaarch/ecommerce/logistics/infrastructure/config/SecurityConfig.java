@@ -12,6 +12,8 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import site.hexaarch.ecommerce.logistics.infrastructure.security.JwtAuthenticationFilter;
+import site.hexaarch.ecommerce.logistics.infrastructure.security.JwtTokenProvider;
+import site.hexaarch.ecommerce.logistics.infrastructure.security.PermissionSnapshotCache;
 
 /**
  * Spring Security配置类
@@ -23,7 +25,7 @@ import site.hexaarch.ecommerce.logistics.infrastructure.security.JwtAuthenticati
 public class SecurityConfig {
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, JwtAuthenticationFilter jwtAuthenticationFilter) throws Exception {
         http
                 .csrf(csrf -> csrf.disable())
                 .cors(cors -> cors.configurationSource(request -> {
@@ -43,7 +45,7 @@ public class SecurityConfig {
                 );
 
         // 添加JWT认证过滤器
-        http.addFilterBefore(jwtAuthenticationFilter(), UsernamePasswordAuthenticationFilter.class);
+        http.addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
     }
@@ -59,7 +61,8 @@ public class SecurityConfig {
     }
 
     @Bean
-    public JwtAuthenticationFilter jwtAuthenticationFilter() {
-        return new JwtAuthenticationFilter();
+    public JwtAuthenticationFilter jwtAuthenticationFilter(JwtTokenProvider jwtTokenProvider,
+                                                           PermissionSnapshotCache permissionSnapshotCache) {
+        return new JwtAuthenticationFilter(jwtTokenProvider, permissionSnapshotCache);
     }
 }
\ No newline at end of file
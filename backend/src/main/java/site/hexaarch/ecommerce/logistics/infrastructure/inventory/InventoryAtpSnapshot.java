@@ -0,0 +1,362 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.inventory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionOperations;
+import site.hexaarch.ecommerce.logistics.domain.purchase.event.PurchaseOrderStatusChangedEvent;
+import site.hexaarch.ecommerce.logistics.domain.purchase.valueobject.PurchaseStatus;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.event.InventoryCountEvent;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.event.InventoryMovementBatchEvent;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.event.InventoryMovementEvent;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.service.AvailableToPromiseService;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.valueobject.AtpQuantity;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.InventoryRecordJpaRepository;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.purchase.PurchaseOrderJpaRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * 可承诺量快照，在内存中按(仓库ID, SKU编码)保存在库、已占用和在途数量，查询不访问数据库。
+ * <p>
+ * 每个(仓库, SKU)分配一个槽位，数量存放在按槽位下标的int数组中，另有SKU编码到槽位数组的索引用于跨仓库汇总。
+ * 在库数量由 {@link InventoryMovementEvent} 和 {@link InventoryCountEvent} 更新，已占用数量由库存预留引擎推送，
+ * 在途数量在采购单进入或离开已批准、运输中状态时按SKU重新汇总。更新都是覆盖为最新的绝对数量，在单个写锁内执行，
+ * 读取无锁：写入数组后再写一次volatile引用，读取先读该引用，保证读到已发布的数量。
+ * <p>
+ * 应用启动后和定时任务从数据库流式重建快照，已占用数量以预留引擎内存中的为准；
+ * 重建期间的更新同时作用于旧快照并记录下来，新快照建成后按顺序重放再替换旧快照。
+ * 仓库表没有持久化租户ID，快照不按租户划分，仓库ID本身即区分了租户。
+ *
+ * @author kenyon
+ */
+@Component
+public class InventoryAtpSnapshot implements AvailableToPromiseService {
+    private static final Logger log = LoggerFactory.getLogger(InventoryAtpSnapshot.class);
+    private static final Set<String> INBOUND_STATUSES = Set.of(PurchaseStatus.APPROVED.getCode(), PurchaseStatus.IN_TRANSIT.getCode());
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final InventoryRecordJpaRepository inventoryRecordJpaRepository;
+    private final PurchaseOrderJpaRepository purchaseOrderJpaRepository;
+    private final InventoryReservationEngine inventoryReservationEngine;
+    private final TransactionOperations transactionOperations;
+    private final Object writeLock = new Object();
+    private volatile Table table = new Table(INITIAL_CAPACITY);
+    private List<Consumer<Table>> updatesDuringRebuild;
+
+    public InventoryAtpSnapshot(InventoryRecordJpaRepository inventoryRecordJpaRepository,
+                                PurchaseOrderJpaRepository purchaseOrderJpaRepository,
+                                InventoryReservationEngine inventoryReservationEngine,
+                                TransactionOperations transactionOperations) {
+        this.inventoryRecordJpaRepository = inventoryRecordJpaRepository;
+        this.purchaseOrderJpaRepository = purchaseOrderJpaRepository;
+        this.inventoryReservationEngine = inventoryReservationEngine;
+        this.transactionOperations = transactionOperations;
+        inventoryReservationEngine.addCommittedQuantityListener(this::onCommittedQuantityChanged);
+    }
+
+    @Override
+    public int getAvailableToPromise(String warehouseId, String skuCode) {
+        Table current = table;
+        Integer slot = current.slotBySku.get(new StockKey(warehouseId, skuCode));
+        return slot != null ? current.availableToPromise(slot) : 0;
+    }
+
+    @Override
+    public int getAvailableToPromise(String skuCode) {
+        Table current = table;
+        int[] slots = current.slotsBySkuCode.get(skuCode);
+        if (slots == null) {
+            return 0;
+        }
+        int total = 0;
+        for (int slot : slots) {
+            total += current.availableToPromise(slot);
+        }
+        return total;
+    }
+
+    @Override
+    public Map<String, Integer> getAvailableToPromise(Collection<String> skuCodes) {
+        Map<String, Integer> result = new LinkedHashMap<>();
+        for (String skuCode : skuCodes) {
+            result.put(skuCode, getAvailableToPromise(skuCode));
+        }
+        return result;
+    }
+
+    @Override
+    public List<AtpQuantity> findAtpQuantities(String skuCode) {
+        Table current = table;
+        int[] slots = current.slotsBySkuCode.get(skuCode);
+        if (slots == null) {
+            return List.of();
+        }
+        List<AtpQuantity> quantities = new ArrayList<>(slots.length);
+        for (int slot : slots) {
+            quantities.add(AtpQuantity.of(current.warehouseIds[slot], skuCode,
+                    current.onHand[slot], current.committed[slot], current.inbound[slot]));
+        }
+        return quantities;
+    }
+
+    /**
+     * 库存变动提交后更新在库数量。
+     *
+     * @param event 库存变动事件
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onInventoryMovement(InventoryMovementEvent event) {
+        if (event.getInventoryMovement() == null || event.getInventoryMovement().getSku() == null) {
+            return;
+        }
+        String warehouseId = event.getWarehouseId();
+        String skuCode = event.getInventoryMovement().getSku();
+        String productId = event.getInventoryMovement().getProductId();
+        int newQuantity = event.getNewQuantity();
+        update(target -> target.onHand[target.slot(warehouseId, skuCode, productId)] = newQuantity);
+    }
+
+    /**
+     * 库存批量变动提交后在一次写锁内更新所有在库数量。
+     *
+     * @param event 库存批量变动事件
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onInventoryMovementBatch(InventoryMovementBatchEvent event) {
+        List<InventoryMovementEvent> movements = event.getMovements().stream()
+                .filter(movement -> movement.getInventoryMovement() != null && movement.getInventoryMovement().getSku() != null)
+                .toList();
+        if (movements.isEmpty()) {
+            return;
+        }
+        update(target -> {
+            for (InventoryMovementEvent movement : movements) {
+                target.onHand[target.slot(movement.getWarehouseId(), movement.getInventoryMovement().getSku(),
+                        movement.getInventoryMovement().getProductId())] = movement.getNewQuantity();
+            }
+        });
+    }
+
+    /**
+     * 库存盘点提交后更新在库数量，盘点结果只带产品ID，按(仓库, 产品)找到槽位。
+     *
+     * @param event 库存盘点事件
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onInventoryCount(InventoryCountEvent event) {
+        if (event.getCountResult() == null) {
+            return;
+        }
+        StockKey productKey = new StockKey(event.getWarehouseId(), event.getCountResult().getProductId());
+        int actualQuantity = event.getCountResult().getActualQuantity();
+        update(target -> {
+            Integer slot = target.slotByProduct.get(productKey);
+            if (slot != null) {
+                target.onHand[slot] = actualQuantity;
+            }
+        });
+    }
+
+    /**
+     * 采购单进入或离开在途状态后重新汇总其SKU的在途数量。
+     *
+     * @param event 采购单状态变更事件
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPurchaseOrderStatusChanged(PurchaseOrderStatusChangedEvent event) {
+        if (isInbound(event.getOldStatus()) == isInbound(event.getNewStatus())) {
+            return;
+        }
+        Map<String, List<String>> skuCodesByWarehouse = new HashMap<>();
+        for (PurchaseOrderJpaRepository.SkuQuantity line : purchaseOrderJpaRepository.sumQuantitiesByPurchaseOrderId(event.getPurchaseOrderId())) {
+            skuCodesByWarehouse.computeIfAbsent(line.getWarehouseId(), id -> new ArrayList<>()).add(line.getSkuCode());
+        }
+        skuCodesByWarehouse.forEach((warehouseId, skuCodes) -> {
+            // 汇总结果中没有的SKU已没有在途采购单
+            Map<String, Integer> inbound = new HashMap<>();
+            for (String skuCode : skuCodes) {
+                inbound.put(skuCode, 0);
+            }
+            for (PurchaseOrderJpaRepository.SkuQuantity line
+                    : purchaseOrderJpaRepository.sumQuantitiesByStatusIn(INBOUND_STATUSES, warehouseId, skuCodes)) {
+                inbound.put(line.getSkuCode(), toInt(line.getQuantity()));
+            }
+            update(target -> inbound.forEach((skuCode, quantity) ->
+                    target.inbound[target.slot(warehouseId, skuCode, null)] = quantity));
+        });
+    }
+
+    /**
+     * 库存预留引擎推送的已预留和已分配数量。
+     */
+    void onCommittedQuantityChanged(String warehouseId, String skuCode, int reserved, int allocated) {
+        int committed = reserved + allocated;
+        update(target -> target.committed[target.slot(warehouseId, skuCode, null)] = committed);
+    }
+
+    /**
+     * 应用启动后从数据库构建快照。
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * 定时从数据库重建快照，纠正未经事件同步的库存变动。
+     */
+    @Scheduled(fixedDelayString = "${inventory.atp.rebuild-interval-ms:3600000}",
+            initialDelayString = "${inventory.atp.rebuild-interval-ms:3600000}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    /**
+     * 从数据库重建快照，已有重建在进行时直接返回。
+     */
+    public void rebuild() {
+        synchronized (writeLock) {
+            if (updatesDuringRebuild != null) {
+                return;
+            }
+            updatesDuringRebuild = new ArrayList<>();
+        }
+        try {
+            long startedAt = System.nanoTime();
+            Table rebuilt = load();
+            synchronized (writeLock) {
+                for (Consumer<Table> update : updatesDuringRebuild) {
+                    update.accept(rebuilt);
+                }
+                table = rebuilt;
+            }
+            log.info("可承诺量快照重建完成: {} 个(仓库, SKU)，耗时 {} ms", rebuilt.size, (System.nanoTime() - startedAt) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("可承诺量快照重建失败，继续使用旧快照", e);
+        } finally {
+            synchronized (writeLock) {
+                updatesDuringRebuild = null;
+            }
+        }
+    }
+
+    private Table load() {
+        Table loaded = new Table(INITIAL_CAPACITY);
+        transactionOperations.executeWithoutResult(status -> {
+            try (Stream<InventoryRecordJpaRepository.InventoryLevel> levels = inventoryRecordJpaRepository.streamInventoryLevels()) {
+                levels.forEach(level -> {
+                    int slot = loaded.slot(level.getWarehouseId(), level.getSkuCode(), level.getProductId());
+                    loaded.onHand[slot] = level.getQuantity() != null ? level.getQuantity() : 0;
+                    loaded.committed[slot] = level.getReservedQuantity() + level.getAllocatedQuantity();
+                });
+            }
+            for (PurchaseOrderJpaRepository.SkuQuantity line : purchaseOrderJpaRepository.sumQuantitiesByStatusIn(INBOUND_STATUSES)) {
+                loaded.inbound[loaded.slot(line.getWarehouseId(), line.getSkuCode(), null)] = toInt(line.getQuantity());
+            }
+        });
+        // 预留引擎内存中的数量可能尚未写回数据库，以引擎为准
+        inventoryReservationEngine.forEachCommittedQuantity((warehouseId, skuCode, reserved, allocated) ->
+                loaded.committed[loaded.slot(warehouseId, skuCode, null)] = reserved + allocated);
+        return loaded;
+    }
+
+    private void update(Consumer<Table> update) {
+        synchronized (writeLock) {
+            Table current = table;
+            update.accept(current);
+            if (updatesDuringRebuild != null) {
+                updatesDuringRebuild.add(update);
+            }
+            // volatile写发布数组中的新数量
+            table = current;
+        }
+    }
+
+    private static boolean isInbound(PurchaseStatus status) {
+        return status != null && INBOUND_STATUSES.contains(status.getCode());
+    }
+
+    private static int toInt(Long quantity) {
+        return quantity != null ? (int) Math.min(Integer.MAX_VALUE, quantity) : 0;
+    }
+
+    /**
+     * 槽位表。索引是并发映射，数组和size只在写锁内修改；新槽位先写数组再放入索引，
+     * 读取方从索引拿到的槽位一定落在已发布的数组范围内。
+     */
+    private static final class Table {
+        private final Map<StockKey, Integer> slotBySku = new ConcurrentHashMap<>();
+        private final Map<StockKey, Integer> slotByProduct = new ConcurrentHashMap<>();
+        private final Map<String, int[]> slotsBySkuCode = new ConcurrentHashMap<>();
+        private String[] warehouseIds;
+        private int[] onHand;
+        private int[] committed;
+        private int[] inbound;
+        private int size;
+
+        private Table(int capacity) {
+            warehouseIds = new String[capacity];
+            onHand = new int[capacity];
+            committed = new int[capacity];
+            inbound = new int[capacity];
+        }
+
+        private int availableToPromise(int slot) {
+            return Math.max(0, onHand[slot] + inbound[slot] - committed[slot]);
+        }
+
+        /**
+         * 查找或分配(仓库, SKU)的槽位，必须在写锁内或构建期间调用。
+         */
+        private int slot(String warehouseId, String skuCode, String productId) {
+            StockKey key = new StockKey(warehouseId, skuCode);
+            Integer existing = slotBySku.get(key);
+            int slot;
+            if (existing != null) {
+                slot = existing;
+            } else {
+                if (size == onHand.length) {
+                    int capacity = size * 2;
+                    warehouseIds = Arrays.copyOf(warehouseIds, capacity);
+                    onHand = Arrays.copyOf(onHand, capacity);
+                    committed = Arrays.copyOf(committed, capacity);
+                    inbound = Arrays.copyOf(inbound, capacity);
+                }
+                slot = size++;
+                warehouseIds[slot] = warehouseId;
+                slotBySku.put(key, slot);
+                slotsBySkuCode.merge(skuCode, new int[]{slot}, (slots, added) -> {
+                    int[] merged = Arrays.copyOf(slots, slots.length + 1);
+                    merged[slots.length] = added[0];
+                    return merged;
+                });
+            }
+            if (productId != null) {
+                slotByProduct.putIfAbsent(new StockKey(warehouseId, productId), slot);
+            }
+            return slot;
+        }
+    }
+
+    /**
+     * 槽位键：仓库ID + SKU编码（或产品ID）。
+     */
+    private record StockKey(String warehouseId, String code) {
+    }
+}
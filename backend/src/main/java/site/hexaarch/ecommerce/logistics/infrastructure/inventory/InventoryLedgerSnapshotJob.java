@@ -0,0 +1,51 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.inventory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.repository.InventoryLedgerRepository;
+
+import java.time.LocalDateTime;
+
+/**
+ * 库存流水快照任务，定时为有新流水的(仓库, SKU)生成快照，使查询在库数量时只需扫描快照之后的少量流水。
+ * <p>
+ * 只覆盖发生时间早于当前时间减去settle-ms的流水，使刚写入的热点SKU不必每轮都生成快照。
+ * 快照的正确性不依赖该余量：每个(仓库, SKU)的快照只记录它自己已提交的最大流水序号，
+ * 其他SKU较晚提交的较小序号会在各自的快照之后被累加。
+ *
+ * @author kenyon
+ */
+@Component
+public class InventoryLedgerSnapshotJob {
+    private static final Logger log = LoggerFactory.getLogger(InventoryLedgerSnapshotJob.class);
+
+    private final InventoryLedgerRepository inventoryLedgerRepository;
+    private final long settleMillis;
+
+    // 手动添加构造函数，避免Lombok注解问题
+    public InventoryLedgerSnapshotJob(InventoryLedgerRepository inventoryLedgerRepository,
+                                      @Value("${inventory.ledger.settle-ms:60000}") long settleMillis) {
+        this.inventoryLedgerRepository = inventoryLedgerRepository;
+        this.settleMillis = settleMillis;
+    }
+
+    /**
+     * 生成库存流水快照。
+     */
+    @Scheduled(fixedDelayString = "${inventory.ledger.snapshot-interval-ms:300000}",
+            initialDelayString = "${inventory.ledger.snapshot-interval-ms:300000}")
+    public void takeSnapshots() {
+        try {
+            long startedAt = System.nanoTime();
+            int snapshots = inventoryLedgerRepository.takeSnapshots(LocalDateTime.now().minusNanos(settleMillis * 1_000_000));
+            if (snapshots > 0) {
+                log.info("库存流水快照完成: {} 个(仓库, SKU)，耗时 {} ms", snapshots, (System.nanoTime() - startedAt) / 1_000_000);
+            }
+        } catch (RuntimeException e) {
+            log.error("库存流水快照失败，下次继续", e);
+        }
+    }
+}
@@ -0,0 +1,667 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.inventory;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.event.InventoryCountEvent;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.event.InventoryMovementBatchEvent;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.event.InventoryMovementEvent;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.service.InventoryReservationService;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.valueobject.StockReservation;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.StockReservationJpaEntity;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.InventoryRecordJpaRepository;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.StockReservationJpaRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 库存预留引擎，按(仓库ID, SKU编码)在内存中维护在库、已预留、已分配数量。
+ * <p>
+ * 预留在分段锁内完成校验和扣减，多行预留按分段序号顺序加锁，保证不超卖且不死锁；
+ * 变更的计数器标记为脏，由定时任务分批写回库存记录表，写回只更新已预留和已分配数量并递增版本号，不覆盖在库数量。
+ * 内存计数器假定单节点独占写入预留数量。
+ * 订单的预留明细在预留、分配和释放时写入库存预留表，调用方有事务时加入调用方的事务，与订单的变更一起提交或回滚：
+ * 预留立即占用内存中的数量，事务未提交时撤销；分配和释放在事务提交后才修改内存中的数量，回滚时内存保持不变。
+ * 重启后订单的预留明细按订单懒加载恢复，数据库访问都在计数器表和订单表的锁之外进行。
+ * 在库数量在库存变动和盘点提交后更新，并标脏由下一轮写回读取数据库纠正；读取期间收到新的变动时不用读到的旧值覆盖。
+ * 已预留和已分配数量变化时在分段锁内通知 {@link CommittedQuantityListener}，监听器按变化顺序收到最新数量。
+ *
+ * @author kenyon
+ */
+@Component
+public class InventoryReservationEngine implements InventoryReservationService {
+    private static final Logger log = LoggerFactory.getLogger(InventoryReservationEngine.class);
+    private static final int STRIPE_COUNT = 256;
+
+    private final InventoryRecordJpaRepository inventoryRecordJpaRepository;
+    private final StockReservationJpaRepository stockReservationJpaRepository;
+    private final TransactionOperations transactionOperations;
+    private final int flushBatchSize;
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPE_COUNT];
+    private final Map<StockKey, StockCounter> counters = new ConcurrentHashMap<>();
+    private final Map<String, OrderReservation> reservationsByOrder = new ConcurrentHashMap<>();
+    private final Set<StockKey> dirtyKeys = ConcurrentHashMap.newKeySet();
+    /**
+     * 每次从内存移除订单预留时递增，加载期间发生过移除的订单预留不放入内存
+     */
+    private final AtomicLong orderRemovals = new AtomicLong();
+    private final List<CommittedQuantityListener> committedQuantityListeners = new CopyOnWriteArrayList<>();
+    private final List<CommittedQuantityListener> writtenQuantityListeners = new CopyOnWriteArrayList<>();
+
+    public InventoryReservationEngine(InventoryRecordJpaRepository inventoryRecordJpaRepository,
+                                      StockReservationJpaRepository stockReservationJpaRepository,
+                                      TransactionOperations transactionOperations,
+                                      @Value("${inventory.reservation.flush-batch-size:200}") int flushBatchSize) {
+        this.inventoryRecordJpaRepository = inventoryRecordJpaRepository;
+        this.stockReservationJpaRepository = stockReservationJpaRepository;
+        this.transactionOperations = transactionOperations;
+        this.flushBatchSize = Math.max(1, flushBatchSize);
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public boolean reserve(String orderId, List<StockReservation> reservations) {
+        if (reservations.isEmpty()) {
+            return true;
+        }
+        // 合并同一(仓库, SKU)的多行需求，并解析计数器
+        Map<StockKey, Integer> demand = new LinkedHashMap<>();
+        for (StockReservation reservation : reservations) {
+            if (!orderId.equals(reservation.getOrderId())) {
+                throw new IllegalArgumentException("Reservation does not belong to order: " + orderId);
+            }
+            demand.merge(new StockKey(reservation.getWarehouseId(), reservation.getSkuCode()), reservation.getQuantity(), Integer::sum);
+        }
+        if (orderReservationFor(orderId) != null) {
+            return true;
+        }
+        Map<StockKey, StockCounter> resolved = new LinkedHashMap<>();
+        for (StockKey key : demand.keySet()) {
+            StockCounter counter = counterFor(key);
+            if (counter == null) {
+                return reservationsByOrder.containsKey(orderId);
+            }
+            resolved.put(key, counter);
+        }
+
+        OrderReservation orderReservation = new OrderReservation(List.copyOf(reservations));
+        int[] stripeIndexes = stripeIndexes(demand.keySet());
+        lockAll(stripeIndexes);
+        try {
+            if (reservationsByOrder.containsKey(orderId)) {
+                return true;
+            }
+            for (Map.Entry<StockKey, Integer> entry : demand.entrySet()) {
+                if (resolved.get(entry.getKey()).available() < entry.getValue()) {
+                    return false;
+                }
+            }
+            for (Map.Entry<StockKey, Integer> entry : demand.entrySet()) {
+                StockCounter counter = resolved.get(entry.getKey());
+                counter.reserved += entry.getValue();
+                notifyCommitted(entry.getKey(), counter);
+            }
+            reservationsByOrder.put(orderId, orderReservation);
+        } finally {
+            unlockAll(stripeIndexes);
+        }
+        dirtyKeys.addAll(demand.keySet());
+
+        // 预留明细落库，重启后才能继续分配或释放；落库失败或调用方事务回滚时撤销内存中的预留
+        try {
+            transactionOperations.executeWithoutResult(status ->
+                    stockReservationJpaRepository.saveAll(toEntities(orderId, demand)));
+        } catch (RuntimeException e) {
+            releaseCounters(orderId, orderReservation);
+            throw e;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        releaseCounters(orderId, orderReservation);
+                    }
+                }
+            });
+        }
+        return true;
+    }
+
+    @Override
+    public void release(String orderId) {
+        OrderReservation orderReservation = orderReservationFor(orderId);
+        if (orderReservation == null) {
+            return;
+        }
+        // 先删除预留明细，删除提交后才归还内存中的数量
+        transactionOperations.executeWithoutResult(status -> stockReservationJpaRepository.deleteByOrderId(orderId));
+        afterCommit(() -> releaseCounters(orderId, orderReservation));
+    }
+
+    @Override
+    public void allocate(String orderId) {
+        OrderReservation orderReservation = orderReservationFor(orderId);
+        if (orderReservation == null || orderReservation.allocated) {
+            return;
+        }
+        Map<StockKey, StockCounter> resolved = resolveCounters(orderReservation.lines);
+        // 先标记预留明细为已分配，重启后按已分配数量释放；标记提交后才把内存中的预留转为分配
+        transactionOperations.executeWithoutResult(status -> stockReservationJpaRepository.markAllocated(orderId));
+        afterCommit(() -> allocateCounters(orderId, orderReservation, resolved));
+    }
+
+    private void allocateCounters(String orderId, OrderReservation orderReservation, Map<StockKey, StockCounter> resolved) {
+        int[] stripeIndexes = stripeIndexes(resolved.keySet());
+        lockAll(stripeIndexes);
+        try {
+            // 加锁后确认预留仍属于该订单，未被并发释放或重新预留
+            if (orderReservation.allocated || reservationsByOrder.get(orderId) != orderReservation) {
+                return;
+            }
+            for (StockReservation line : orderReservation.lines) {
+                StockKey key = new StockKey(line.getWarehouseId(), line.getSkuCode());
+                StockCounter counter = resolved.get(key);
+                if (counter != null) {
+                    counter.reserved = Math.max(0, counter.reserved - line.getQuantity());
+                    counter.allocated += line.getQuantity();
+                    notifyCommitted(key, counter);
+                }
+            }
+            orderReservation.allocated = true;
+        } finally {
+            unlockAll(stripeIndexes);
+        }
+        dirtyKeys.addAll(resolved.keySet());
+    }
+
+    @Override
+    public List<StockReservation> findReservations(String orderId) {
+        OrderReservation orderReservation = orderReservationFor(orderId);
+        return orderReservation != null ? orderReservation.lines : List.of();
+    }
+
+    @Override
+    public int getAvailableQuantity(String warehouseId, String skuCode) {
+        StockKey key = new StockKey(warehouseId, skuCode);
+        StockCounter counter = counterFor(key);
+        if (counter == null) {
+            return 0;
+        }
+        ReentrantLock lock = stripes[stripeIndex(key)];
+        lock.lock();
+        try {
+            return Math.max(0, counter.available());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<String> findStockingWarehouses(String skuCode) {
+        return inventoryRecordJpaRepository.findBySkuCode(skuCode)
+                .stream()
+                .map(entity -> entity.getWarehouse().getId())
+                .distinct()
+                .toList();
+    }
+
+    /**
+     * 注册已预留和已分配数量的监听器。
+     *
+     * @param listener 监听器
+     */
+    public void addCommittedQuantityListener(CommittedQuantityListener listener) {
+        committedQuantityListeners.add(listener);
+    }
+
+    /**
+     * 注册已预留和已分配数量写回库存记录表后的监听器，在写回事务提交后、分段锁外调用，监听器可以读取库存记录表。
+     *
+     * @param listener 监听器
+     */
+    public void addWrittenQuantityListener(CommittedQuantityListener listener) {
+        writtenQuantityListeners.add(listener);
+    }
+
+    /**
+     * 遍历内存中所有计数器的已预留和已分配数量，用于监听方重建自身状态。
+     *
+     * @param listener 接收数量的回调，在分段锁内调用
+     */
+    public void forEachCommittedQuantity(CommittedQuantityListener listener) {
+        for (Map.Entry<StockKey, StockCounter> entry : counters.entrySet()) {
+            ReentrantLock lock = stripes[stripeIndex(entry.getKey())];
+            lock.lock();
+            try {
+                listener.onCommittedQuantityChanged(entry.getKey().warehouseId(), entry.getKey().skuCode(),
+                        entry.getValue().reserved, entry.getValue().allocated);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * 库存变动提交后同步内存中的在库数量。
+     *
+     * @param event 库存变动事件
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onInventoryMovement(InventoryMovementEvent event) {
+        if (event.getInventoryMovement() == null) {
+            return;
+        }
+        updateOnHand(new StockKey(event.getWarehouseId(), event.getInventoryMovement().getSku()), event.getNewQuantity());
+    }
+
+    /**
+     * 库存批量变动提交后逐条按库存变动处理。
+     *
+     * @param event 库存批量变动事件
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onInventoryMovementBatch(InventoryMovementBatchEvent event) {
+        event.getMovements().forEach(this::onInventoryMovement);
+    }
+
+    /**
+     * 库存盘点提交后以实盘数量作为在库数量。
+     *
+     * @param event 库存盘点事件
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onInventoryCount(InventoryCountEvent event) {
+        if (event.getCountResult() == null || event.getCountResult().getSku() == null) {
+            return;
+        }
+        updateOnHand(new StockKey(event.getWarehouseId(), event.getCountResult().getSku()), event.getCountResult().getActualQuantity());
+    }
+
+    /**
+     * 将脏计数器分批写回库存记录表。
+     */
+    @Scheduled(fixedDelayString = "${inventory.reservation.flush-interval-ms:200}")
+    public void flush() {
+        if (dirtyKeys.isEmpty()) {
+            return;
+        }
+        List<StockKey> batch = new ArrayList<>(flushBatchSize);
+        Iterator<StockKey> iterator = dirtyKeys.iterator();
+        while (iterator.hasNext()) {
+            // 先移出脏集合再取快照，快照之后的变更会重新标脏，由下一轮写回
+            batch.add(iterator.next());
+            iterator.remove();
+            if (batch.size() == flushBatchSize) {
+                flushBatch(batch);
+                batch = new ArrayList<>(flushBatchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            flushBatch(batch);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void flushBatch(List<StockKey> keys) {
+        try {
+            writeSnapshots(keys);
+        } catch (RuntimeException e) {
+            log.error("写回库存预留失败，稍后重试，批大小: {}", keys.size(), e);
+            dirtyKeys.addAll(keys);
+        }
+    }
+
+    private void writeSnapshots(List<StockKey> keys) {
+        Map<String, StockKey> keysByRecordId = new LinkedHashMap<>();
+        Map<String, int[]> snapshots = new LinkedHashMap<>();
+        Map<StockKey, Long> onHandVersions = new HashMap<>();
+        for (StockKey key : keys) {
+            StockCounter counter = counters.get(key);
+            if (counter == null) {
+                continue;
+            }
+            ReentrantLock lock = stripes[stripeIndex(key)];
+            lock.lock();
+            try {
+                snapshots.put(counter.inventoryRecordId, new int[]{counter.reserved, counter.allocated});
+                onHandVersions.put(key, counter.onHandVersion);
+            } finally {
+                lock.unlock();
+            }
+            keysByRecordId.put(counter.inventoryRecordId, key);
+        }
+        if (snapshots.isEmpty()) {
+            return;
+        }
+        List<InventoryRecordJpaRepository.RecordQuantity> quantities = transactionOperations.execute(status -> {
+            snapshots.forEach((recordId, snapshot) ->
+                    inventoryRecordJpaRepository.updateCommittedQuantities(recordId, snapshot[0], snapshot[1]));
+            return inventoryRecordJpaRepository.findQuantitiesByIdIn(snapshots.keySet());
+        });
+        notifyWritten(keysByRecordId, snapshots);
+        // 以数据库中的在库数量为准，纠正未经事件同步的库存变动
+        if (quantities == null) {
+            return;
+        }
+        for (InventoryRecordJpaRepository.RecordQuantity quantity : quantities) {
+            StockKey key = keysByRecordId.get(quantity.getId());
+            StockCounter counter = key != null ? counters.get(key) : null;
+            if (counter == null || quantity.getQuantity() == null) {
+                continue;
+            }
+            ReentrantLock lock = stripes[stripeIndex(key)];
+            lock.lock();
+            try {
+                if (counter.onHandVersion != onHandVersions.get(key)) {
+                    // 读取期间收到了更新的库存变动，读到的数量可能已过时，由下一轮写回再次纠正
+                    dirtyKeys.add(key);
+                    continue;
+                }
+                counter.onHand = quantity.getQuantity();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void notifyWritten(Map<String, StockKey> keysByRecordId, Map<String, int[]> snapshots) {
+        if (writtenQuantityListeners.isEmpty()) {
+            return;
+        }
+        snapshots.forEach((recordId, snapshot) -> {
+            StockKey key = keysByRecordId.get(recordId);
+            for (CommittedQuantityListener listener : writtenQuantityListeners) {
+                try {
+                    listener.onCommittedQuantityChanged(key.warehouseId(), key.skuCode(), snapshot[0], snapshot[1]);
+                } catch (RuntimeException e) {
+                    log.warn("库存预留写回监听器处理失败: {}", key, e);
+                }
+            }
+        });
+    }
+
+    /**
+     * 在持有计数器所在分段锁时调用，保证监听器按变化顺序收到数量。
+     */
+    private void notifyCommitted(StockKey key, StockCounter counter) {
+        for (CommittedQuantityListener listener : committedQuantityListeners) {
+            listener.onCommittedQuantityChanged(key.warehouseId(), key.skuCode(), counter.reserved, counter.allocated);
+        }
+    }
+
+    private void updateOnHand(StockKey key, int quantity) {
+        StockCounter counter = counters.get(key);
+        if (counter == null) {
+            return;
+        }
+        ReentrantLock lock = stripes[stripeIndex(key)];
+        lock.lock();
+        try {
+            counter.onHand = quantity;
+            counter.onHandVersion++;
+        } finally {
+            lock.unlock();
+        }
+        // 不同事务的提交通知可能乱序到达，标脏后由下一轮写回读取数据库中的在库数量纠正
+        dirtyKeys.add(key);
+    }
+
+    /**
+     * 在分段锁内移除订单的预留并归还计数器，预留已被并发释放或替换时不做修改。
+     */
+    private void releaseCounters(String orderId, OrderReservation orderReservation) {
+        Map<StockKey, StockCounter> resolved = resolveCounters(orderReservation.lines);
+        int[] stripeIndexes = stripeIndexes(resolved.keySet());
+        lockAll(stripeIndexes);
+        try {
+            if (!reservationsByOrder.remove(orderId, orderReservation)) {
+                return;
+            }
+            orderRemovals.incrementAndGet();
+            for (StockReservation line : orderReservation.lines) {
+                StockKey key = new StockKey(line.getWarehouseId(), line.getSkuCode());
+                StockCounter counter = resolved.get(key);
+                if (counter == null) {
+                    continue;
+                }
+                if (orderReservation.allocated) {
+                    counter.allocated = Math.max(0, counter.allocated - line.getQuantity());
+                } else {
+                    counter.reserved = Math.max(0, counter.reserved - line.getQuantity());
+                }
+                notifyCommitted(key, counter);
+            }
+        } finally {
+            unlockAll(stripeIndexes);
+        }
+        dirtyKeys.addAll(resolved.keySet());
+    }
+
+    /**
+     * 在加锁前解析预留明细涉及的计数器，重启后尚未加载的计数器从库存记录表加载。
+     */
+    private Map<StockKey, StockCounter> resolveCounters(List<StockReservation> lines) {
+        Map<StockKey, StockCounter> resolved = new LinkedHashMap<>();
+        for (StockKey key : keysOf(lines)) {
+            StockCounter counter = counterFor(key);
+            if (counter != null) {
+                resolved.put(key, counter);
+            }
+        }
+        return resolved;
+    }
+
+    /**
+     * 获取订单的预留，内存中没有时在锁外从库存预留表加载，加载期间有订单预留被移除时不放入内存，避免恢复已释放的预留。
+     */
+    private OrderReservation orderReservationFor(String orderId) {
+        OrderReservation orderReservation = reservationsByOrder.get(orderId);
+        if (orderReservation != null) {
+            return orderReservation;
+        }
+        long removals = orderRemovals.get();
+        OrderReservation loaded = loadOrderReservation(orderId);
+        if (loaded == null) {
+            return null;
+        }
+        // 与releaseCounters在同一把分段锁内检查移除次数并放入
+        int[] stripeIndexes = stripeIndexes(keysOf(loaded.lines));
+        lockAll(stripeIndexes);
+        try {
+            if (orderRemovals.get() != removals) {
+                return reservationsByOrder.get(orderId);
+            }
+            OrderReservation existing = reservationsByOrder.putIfAbsent(orderId, loaded);
+            return existing != null ? existing : loaded;
+        } finally {
+            unlockAll(stripeIndexes);
+        }
+    }
+
+    private OrderReservation loadOrderReservation(String orderId) {
+        List<StockReservationJpaEntity> entities = stockReservationJpaRepository.findByOrderId(orderId);
+        if (entities.isEmpty()) {
+            return null;
+        }
+        OrderReservation orderReservation = new OrderReservation(entities.stream()
+                .map(entity -> StockReservation.of(entity.getOrderId(), entity.getWarehouseId(), entity.getSkuCode(), entity.getQuantity()))
+                .toList());
+        orderReservation.allocated = entities.get(0).isAllocated();
+        return orderReservation;
+    }
+
+    private static List<StockReservationJpaEntity> toEntities(String orderId, Map<StockKey, Integer> demand) {
+        LocalDateTime reservedAt = LocalDateTime.now();
+        List<StockReservationJpaEntity> entities = new ArrayList<>(demand.size());
+        for (Map.Entry<StockKey, Integer> entry : demand.entrySet()) {
+            StockReservationJpaEntity entity = new StockReservationJpaEntity();
+            entity.setOrderId(orderId);
+            entity.setWarehouseId(entry.getKey().warehouseId());
+            entity.setSkuCode(entry.getKey().skuCode());
+            entity.setQuantity(entry.getValue());
+            entity.setReservedAt(reservedAt);
+            entities.add(entity);
+        }
+        return entities;
+    }
+
+    /**
+     * 获取计数器，内存中没有时在锁外从库存记录表加载，并发加载时保留先放入的计数器。
+     */
+    private StockCounter counterFor(StockKey key) {
+        StockCounter counter = counters.get(key);
+        if (counter != null) {
+            return counter;
+        }
+        StockCounter loaded = loadCounter(key);
+        if (loaded == null) {
+            return null;
+        }
+        StockCounter existing = counters.putIfAbsent(key, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    /**
+     * 调用方有事务时在提交后执行，回滚时不执行；没有事务时立即执行。
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private StockCounter loadCounter(StockKey key) {
+        return inventoryRecordJpaRepository.findBySkuCodeAndWarehouseId(key.skuCode(), key.warehouseId())
+                .map(entity -> new StockCounter(
+                        entity.getId(),
+                        entity.getQuantity() != null ? entity.getQuantity() : 0,
+                        entity.getReservedQuantity(),
+                        entity.getAllocatedQuantity()))
+                .orElse(null);
+    }
+
+    private static List<StockKey> keysOf(List<StockReservation> lines) {
+        return lines.stream()
+                .map(line -> new StockKey(line.getWarehouseId(), line.getSkuCode()))
+                .distinct()
+                .toList();
+    }
+
+    private static int stripeIndex(StockKey key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & (STRIPE_COUNT - 1);
+    }
+
+    private static int[] stripeIndexes(Iterable<StockKey> keys) {
+        List<Integer> indexes = new ArrayList<>();
+        for (StockKey key : keys) {
+            indexes.add(stripeIndex(key));
+        }
+        // 按序号升序去重加锁，避免多行预留之间死锁
+        return indexes.stream().mapToInt(Integer::intValue).distinct().sorted().toArray();
+    }
+
+    private void lockAll(int[] stripeIndexes) {
+        for (int index : stripeIndexes) {
+            stripes[index].lock();
+        }
+    }
+
+    private void unlockAll(int[] stripeIndexes) {
+        for (int i = stripeIndexes.length - 1; i >= 0; i--) {
+            stripes[stripeIndexes[i]].unlock();
+        }
+    }
+
+    /**
+     * 已预留和已分配数量监听器，在分段锁内调用，实现不能阻塞也不能回调预留引擎。
+     */
+    @FunctionalInterface
+    public interface CommittedQuantityListener {
+        /**
+         * 已预留或已分配数量发生变化。
+         *
+         * @param warehouseId 仓库ID
+         * @param skuCode     SKU编码
+         * @param reserved    已预留数量
+         * @param allocated   已分配数量
+         */
+        void onCommittedQuantityChanged(String warehouseId, String skuCode, int reserved, int allocated);
+    }
+
+    /**
+     * 计数器键：仓库ID + SKU编码。
+     */
+    private record StockKey(String warehouseId, String skuCode) {
+    }
+
+    /**
+     * 单个(仓库, SKU)的计数器，字段由所在分段锁保护。
+     */
+    private static final class StockCounter {
+        private final String inventoryRecordId;
+        private int onHand;
+        /**
+         * 每次按库存变动更新在库数量时递增，用于判断写回时读到的在库数量是否已过时
+         */
+        private long onHandVersion;
+        private int reserved;
+        private int allocated;
+
+        private StockCounter(String inventoryRecordId, int onHand, int reserved, int allocated) {
+            this.inventoryRecordId = inventoryRecordId;
+            this.onHand = onHand;
+            this.reserved = reserved;
+            this.allocated = allocated;
+        }
+
+        private int available() {
+            return onHand - reserved - allocated;
+        }
+    }
+
+    /**
+     * 订单的预留明细及其是否已转为分配。
+     */
+    private static final class OrderReservation {
+        private final List<StockReservation> lines;
+        private volatile boolean allocated;
+
+        private OrderReservation(List<StockReservation> lines) {
+            this.lines = lines;
+        }
+    }
+}
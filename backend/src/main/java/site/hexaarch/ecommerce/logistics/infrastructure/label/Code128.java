@@ -0,0 +1,62 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.label;
+
+/**
+ * Code 128（字符集B）条码编码，输出条和空交替的模块宽度序列，供不支持条码指令的格式自行绘制。
+ *
+ * @author kenyon
+ */
+final class Code128 {
+    private static final String[] PATTERNS = {
+            "212222", "222122", "222221", "121223", "121322", "131222", "122213", "122312", "132212", "221213",
+            "221312", "231212", "112232", "122132", "122231", "113222", "123122", "123221", "223211", "221132",
+            "221231", "213212", "223112", "312131", "311222", "321122", "321221", "312212", "322112", "322211",
+            "212123", "212321", "232121", "111323", "131123", "131321", "112313", "132113", "132311", "211313",
+            "231113", "231311", "112133", "112331", "132131", "113123", "113321", "133121", "313121", "211331",
+            "231131", "213113", "213311", "213131", "311123", "311321", "331121", "312113", "312311", "332111",
+            "314111", "221411", "431111", "111224", "111422", "121124", "121421", "141122", "141221", "112214",
+            "112412", "122114", "122411", "142112", "142211", "241211", "221114", "413111", "241112", "134111",
+            "111242", "121142", "121241", "114212", "124112", "124211", "411212", "421112", "421211", "212141",
+            "214121", "412121", "111143", "111341", "131141", "114113", "114311", "411113", "411311", "113141",
+            "114131", "311141", "411131", "211412", "211214", "211232", "2331112"
+    };
+    private static final int[][] WIDTHS = new int[PATTERNS.length][];
+    private static final int START_B = 104;
+    private static final int STOP = 106;
+
+    static {
+        for (int code = 0; code < PATTERNS.length; code++) {
+            WIDTHS[code] = PATTERNS[code].chars().map(c -> c - '0').toArray();
+        }
+    }
+
+    private Code128() {
+    }
+
+    /**
+     * 编码条码内容，字符集B之外的字符以'?'代替。
+     *
+     * @param value 条码内容
+     * @return 从第一个条开始、条和空交替的模块宽度
+     */
+    static int[] encode(String value) {
+        int length = value.length();
+        int[] widths = new int[6 * (length + 2) + 7];
+        int position = append(widths, 0, START_B);
+        int checksum = START_B;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            int code = (c >= ' ' && c <= 127 ? c : '?') - ' ';
+            position = append(widths, position, code);
+            checksum += code * (i + 1);
+        }
+        position = append(widths, position, checksum % 103);
+        append(widths, position, STOP);
+        return widths;
+    }
+
+    private static int append(int[] widths, int position, int code) {
+        int[] symbol = WIDTHS[code];
+        System.arraycopy(symbol, 0, widths, position, symbol.length);
+        return position + symbol.length;
+    }
+}
@@ -0,0 +1,168 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.label;
+
+import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.LogisticsLabel;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * 标签批量写出器，把渲染好的标签按顺序流式写入一个多页输出（ZPL指令流或多页PDF），
+ * 或者写入zip包（每张标签一个文件，以运单号命名）。写出器只能在单个线程中使用，不会关闭底层输出流。
+ *
+ * @author kenyon
+ */
+public abstract class LabelBatchWriter {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    protected final OutputStream out;
+
+    private LabelBatchWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    /**
+     * 打开写出器。
+     *
+     * @param format       标签格式
+     * @param zip          是否打包为zip
+     * @param outputStream 输出流
+     * @return 标签批量写出器
+     */
+    public static LabelBatchWriter open(LabelFormat format, boolean zip, OutputStream outputStream) throws IOException {
+        OutputStream out = new BufferedOutputStream(outputStream, BUFFER_SIZE);
+        if (zip) {
+            return new ZipWriter(format, out);
+        }
+        return format == LabelFormat.PDF ? new PdfWriter(out) : new StreamWriter(out);
+    }
+
+    /**
+     * 获取输出的内容类型。
+     *
+     * @param format 标签格式
+     * @param zip    是否打包为zip
+     * @return 内容类型
+     */
+    public static String contentType(LabelFormat format, boolean zip) {
+        return zip ? "application/zip" : format.getContentType();
+    }
+
+    /**
+     * 获取输出的文件名。
+     *
+     * @param format 标签格式
+     * @param zip    是否打包为zip
+     * @return 文件名
+     */
+    public static String fileName(LabelFormat format, boolean zip) {
+        return "labels." + (zip ? "zip" : format.getExtension());
+    }
+
+    /**
+     * 写出一张标签。
+     *
+     * @param label    物流标签
+     * @param rendered 对应格式的渲染器输出
+     */
+    public abstract void write(LogisticsLabel label, byte[] rendered) throws IOException;
+
+    /**
+     * 把已写出的标签推送给客户端。
+     */
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    /**
+     * 写出文件尾并刷新输出。
+     */
+    public abstract void finish() throws IOException;
+
+    /**
+     * 直接拼接的指令流，用于ZPL。
+     */
+    private static final class StreamWriter extends LabelBatchWriter {
+        private StreamWriter(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(LogisticsLabel label, byte[] rendered) throws IOException {
+            out.write(rendered);
+        }
+
+        @Override
+        public void finish() throws IOException {
+            out.flush();
+        }
+    }
+
+    /**
+     * 多页PDF文档。
+     */
+    private static final class PdfWriter extends LabelBatchWriter {
+        private final PdfDocumentWriter document;
+
+        private PdfWriter(OutputStream out) throws IOException {
+            super(out);
+            this.document = new PdfDocumentWriter(out);
+            document.begin();
+        }
+
+        @Override
+        public void write(LogisticsLabel label, byte[] rendered) throws IOException {
+            document.addPage(rendered);
+        }
+
+        @Override
+        public void finish() throws IOException {
+            document.finish();
+            out.flush();
+        }
+    }
+
+    /**
+     * zip包，每张标签一个文件，PDF标签各自成为单页文档。
+     */
+    private static final class ZipWriter extends LabelBatchWriter {
+        private final LabelFormat format;
+        private final ZipOutputStream zip;
+
+        private ZipWriter(LabelFormat format, OutputStream out) {
+            super(out);
+            this.format = format;
+            this.zip = new ZipOutputStream(out);
+            // PDF内容流已在渲染时压缩，zip只需最快的压缩级别
+            zip.setLevel(Deflater.BEST_SPEED);
+        }
+
+        @Override
+        public void write(LogisticsLabel label, byte[] rendered) throws IOException {
+            zip.putNextEntry(new ZipEntry(label.getTrackingNumber() + "." + format.getExtension()));
+            if (format == LabelFormat.PDF) {
+                PdfDocumentWriter document = new PdfDocumentWriter(zip);
+                document.begin();
+                document.addPage(rendered);
+                document.finish();
+            } else {
+                zip.write(rendered);
+            }
+            zip.closeEntry();
+        }
+
+        @Override
+        public void flush() throws IOException {
+            zip.flush();
+        }
+
+        @Override
+        public void finish() throws IOException {
+            zip.finish();
+            out.flush();
+        }
+    }
+}
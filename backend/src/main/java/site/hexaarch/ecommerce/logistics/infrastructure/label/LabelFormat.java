@@ -0,0 +1,33 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.label;
+
+/**
+ * 物流标签输出格式。
+ *
+ * @author kenyon
+ */
+public enum LabelFormat {
+    /**
+     * 斑马热敏打印机指令，多张标签直接拼接为一个指令流
+     */
+    ZPL("application/zpl", "zpl"),
+    /**
+     * 4x6英寸PDF，多张标签合并为一个多页文档
+     */
+    PDF("application/pdf", "pdf");
+
+    private final String contentType;
+    private final String extension;
+
+    LabelFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
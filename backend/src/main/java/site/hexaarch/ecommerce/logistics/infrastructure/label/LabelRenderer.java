@@ -0,0 +1,124 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.label;
+
+import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.LogisticsLabel;
+
+/**
+ * 标签渲染器基类，模板在构造时编译一次，渲染缓冲区按线程复用，可被多个工作线程并发调用。
+ *
+ * @author kenyon
+ */
+public abstract class LabelRenderer {
+    /**
+     * 超过该容量的缓冲区用完后丢弃，避免个别超长标签让工作线程长期占用大块内存
+     */
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+    private final LabelTemplate template;
+    private final LabelTemplate.FieldWriter fieldWriter = this::appendField;
+    private final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(4096));
+
+    protected LabelRenderer(String templateSource) {
+        this.template = LabelTemplate.compile(templateSource);
+    }
+
+    /**
+     * 获取渲染器输出的标签格式。
+     *
+     * @return 标签格式
+     */
+    public abstract LabelFormat getFormat();
+
+    /**
+     * 渲染单张标签。
+     *
+     * @param label 物流标签
+     * @return 标签内容，格式由具体渲染器决定
+     */
+    public byte[] render(LogisticsLabel label) {
+        StringBuilder buffer = buffers.get();
+        buffer.setLength(0);
+        template.render(label, fieldWriter, buffer);
+        byte[] content = encode(buffer);
+        if (buffer.capacity() > MAX_RETAINED_CAPACITY) {
+            buffers.remove();
+        }
+        return content;
+    }
+
+    /**
+     * 按目标格式转义并追加文本，null不输出任何内容。
+     *
+     * @param out   输出缓冲区
+     * @param value 文本
+     */
+    protected abstract void appendText(StringBuilder out, String value);
+
+    /**
+     * 追加条码，默认按普通文本输出，由支持条码指令的格式覆盖。
+     *
+     * @param out   输出缓冲区
+     * @param value 条码内容
+     */
+    protected void appendBarcode(StringBuilder out, String value) {
+        appendText(out, value);
+    }
+
+    /**
+     * 把渲染完成的文本编码为最终输出的字节。
+     *
+     * @param content 渲染完成的文本
+     * @return 标签内容
+     */
+    protected abstract byte[] encode(StringBuilder content);
+
+    private void appendField(LabelTemplate.Field field, LogisticsLabel label, StringBuilder out) {
+        LogisticsLabel.PackageInfo packageInfo = label.getPackageInfo();
+        switch (field) {
+            case SHIPPER_NAME -> appendText(out, label.getShipperInfo().getName());
+            case SHIPPER_ADDRESS -> appendText(out, label.getShipperInfo().getAddress());
+            case SHIPPER_PHONE -> appendText(out, label.getShipperInfo().getPhone());
+            case RECIPIENT_NAME -> appendText(out, label.getRecipientInfo().getName());
+            case RECIPIENT_ADDRESS -> appendText(out, label.getRecipientInfo().getAddress());
+            case RECIPIENT_PHONE -> appendText(out, label.getRecipientInfo().getPhone());
+            case PACKAGE_WEIGHT -> {
+                appendDecimal(out, packageInfo.getWeight());
+                out.append(' ');
+                appendText(out, packageInfo.getWeightUnit());
+            }
+            case PACKAGE_DIMENSIONS -> {
+                appendDecimal(out, packageInfo.getLength());
+                out.append('x');
+                appendDecimal(out, packageInfo.getWidth());
+                out.append('x');
+                appendDecimal(out, packageInfo.getHeight());
+                out.append(' ');
+                appendText(out, packageInfo.getDimensionUnit());
+            }
+            case PACKAGE_QUANTITY -> out.append(packageInfo.getQuantity());
+            case TRACKING_NUMBER -> appendText(out, label.getTrackingNumber());
+            case BARCODE -> appendBarcode(out, label.getBarcode() != null ? label.getBarcode() : label.getTrackingNumber());
+        }
+    }
+
+    /**
+     * 追加最多两位小数的数值，去掉末尾的0，不经过String.format。
+     *
+     * @param out   输出缓冲区
+     * @param value 数值
+     */
+    static void appendDecimal(StringBuilder out, double value) {
+        long hundredths = Math.round(value * 100);
+        if (hundredths < 0) {
+            out.append('-');
+            hundredths = -hundredths;
+        }
+        out.append(hundredths / 100);
+        int fraction = (int) (hundredths % 100);
+        if (fraction != 0) {
+            out.append('.').append(fraction / 10);
+            if (fraction % 10 != 0) {
+                out.append(fraction % 10);
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.label;
+
+import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.LogisticsLabel;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 标签模板，创建时把带 {{field}} 占位符的模板文本编译为字面量片段与字段交替的序列，
+ * 渲染时按顺序追加到调用方提供的缓冲区，不再解析模板文本。
+ *
+ * @author kenyon
+ */
+final class LabelTemplate {
+    private final String[] literals;
+    private final Field[] fields;
+
+    private LabelTemplate(String[] literals, Field[] fields) {
+        this.literals = literals;
+        this.fields = fields;
+    }
+
+    /**
+     * 编译模板文本。
+     *
+     * @param source 模板文本
+     * @return 编译后的模板
+     */
+    static LabelTemplate compile(String source) {
+        List<String> literals = new ArrayList<>();
+        List<Field> fields = new ArrayList<>();
+        int position = 0;
+        int start;
+        while ((start = source.indexOf("{{", position)) >= 0) {
+            int end = source.indexOf("}}", start);
+            if (end < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder at index " + start);
+            }
+            literals.add(source.substring(position, start));
+            fields.add(Field.of(source.substring(start + 2, end).trim()));
+            position = end + 2;
+        }
+        literals.add(source.substring(position));
+        return new LabelTemplate(literals.toArray(new String[0]), fields.toArray(new Field[0]));
+    }
+
+    /**
+     * 渲染标签。
+     *
+     * @param label       物流标签
+     * @param fieldWriter 字段写入方式，负责目标格式的转义
+     * @param out         输出缓冲区
+     */
+    void render(LogisticsLabel label, FieldWriter fieldWriter, StringBuilder out) {
+        for (int i = 0; i < fields.length; i++) {
+            out.append(literals[i]);
+            fieldWriter.write(fields[i], label, out);
+        }
+        out.append(literals[fields.length]);
+    }
+
+    /**
+     * 模板字段。
+     */
+    enum Field {
+        SHIPPER_NAME("shipper.name"),
+        SHIPPER_ADDRESS("shipper.address"),
+        SHIPPER_PHONE("shipper.phone"),
+        RECIPIENT_NAME("recipient.name"),
+        RECIPIENT_ADDRESS("recipient.address"),
+        RECIPIENT_PHONE("recipient.phone"),
+        PACKAGE_WEIGHT("package.weight"),
+        PACKAGE_DIMENSIONS("package.dimensions"),
+        PACKAGE_QUANTITY("package.quantity"),
+        TRACKING_NUMBER("trackingNumber"),
+        BARCODE("barcode");
+
+        private final String key;
+
+        Field(String key) {
+            this.key = key;
+        }
+
+        static Field of(String key) {
+            for (Field field : values()) {
+                if (field.key.equals(key)) {
+                    return field;
+                }
+            }
+            throw new IllegalArgumentException("Unknown label template field: " + key);
+        }
+    }
+
+    /**
+     * 字段写入方式。
+     */
+    @FunctionalInterface
+    interface FieldWriter {
+        void write(Field field, LogisticsLabel label, StringBuilder out);
+    }
+}
@@ -0,0 +1,125 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.label;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 流式PDF文档写入器，逐页写出页面对象并只记录对象偏移量，最后写出页面树和交叉引用表，
+ * 因此多页文档无需在内存中组装。写入器不会关闭底层输出流。
+ *
+ * @author kenyon
+ */
+final class PdfDocumentWriter {
+    private static final int CATALOG = 1;
+    private static final int PAGES = 2;
+    private static final int FONT = 3;
+    private static final int FIRST_PAGE = 4;
+    private static final byte[] HEADER = {'%', 'P', 'D', 'F', '-', '1', '.', '4', '\n', '%', (byte) 0xE2, (byte) 0xE3, (byte) 0xCF, (byte) 0xD3, '\n'};
+
+    private final OutputStream out;
+    private final StringBuilder line = new StringBuilder(256);
+    private long position;
+    private long[] offsets = new long[64];
+    private int pageCount;
+
+    PdfDocumentWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    /**
+     * 写出文件头、目录和字体对象。
+     */
+    void begin() throws IOException {
+        write(HEADER, HEADER.length);
+        beginObject(CATALOG);
+        line.append("<< /Type /Catalog /Pages ").append(PAGES).append(" 0 R >>\n");
+        endObject();
+        beginObject(FONT);
+        line.append("<< /Type /Font /Subtype /Type1 /BaseFont /Helvetica /Encoding /WinAnsiEncoding >>\n");
+        endObject();
+    }
+
+    /**
+     * 写出一页。
+     *
+     * @param content 经FlateDecode压缩的页面内容流，引用字体资源/F1
+     */
+    void addPage(byte[] content) throws IOException {
+        int page = FIRST_PAGE + 2 * pageCount;
+        beginObject(page);
+        line.append("<< /Type /Page /Parent ").append(PAGES).append(" 0 R /MediaBox [0 0 ")
+                .append(PdfLabelRenderer.PAGE_WIDTH).append(' ').append(PdfLabelRenderer.PAGE_HEIGHT)
+                .append("] /Resources << /Font << /F1 ").append(FONT).append(" 0 R >> >> /Contents ")
+                .append(page + 1).append(" 0 R >>\n");
+        endObject();
+        beginObject(page + 1);
+        line.append("<< /Length ").append(content.length).append(" /Filter /FlateDecode >>\nstream\n");
+        flushLine();
+        write(content, content.length);
+        line.append("\nendstream\n");
+        endObject();
+        pageCount++;
+    }
+
+    /**
+     * 写出页面树、交叉引用表和文件尾，由调用方决定何时刷新底层输出流。
+     */
+    void finish() throws IOException {
+        beginObject(PAGES);
+        line.append("<< /Type /Pages /Count ").append(pageCount).append(" /Kids [");
+        for (int i = 0; i < pageCount; i++) {
+            line.append(FIRST_PAGE + 2 * i).append(" 0 R ");
+            if (line.length() > 4096) {
+                flushLine();
+            }
+        }
+        line.append("] >>\n");
+        endObject();
+
+        int size = FIRST_PAGE + 2 * pageCount;
+        long xref = position;
+        line.append("xref\n0 ").append(size).append("\n0000000000 65535 f \n");
+        for (int object = 1; object < size; object++) {
+            String offset = Long.toString(offsets[object]);
+            for (int pad = offset.length(); pad < 10; pad++) {
+                line.append('0');
+            }
+            line.append(offset).append(" 00000 n \n");
+            if (line.length() > 4096) {
+                flushLine();
+            }
+        }
+        line.append("trailer\n<< /Size ").append(size).append(" /Root ").append(CATALOG).append(" 0 R >>\nstartxref\n")
+                .append(xref).append("\n%%EOF\n");
+        flushLine();
+    }
+
+    private void beginObject(int object) throws IOException {
+        flushLine();
+        if (object >= offsets.length) {
+            offsets = Arrays.copyOf(offsets, Math.max(object + 1, offsets.length * 2));
+        }
+        offsets[object] = position;
+        line.append(object).append(" 0 obj\n");
+    }
+
+    private void endObject() throws IOException {
+        line.append("endobj\n");
+        flushLine();
+    }
+
+    private void flushLine() throws IOException {
+        if (line.length() > 0) {
+            byte[] bytes = line.toString().getBytes(StandardCharsets.US_ASCII);
+            write(bytes, bytes.length);
+            line.setLength(0);
+        }
+    }
+
+    private void write(byte[] bytes, int length) throws IOException {
+        out.write(bytes, 0, length);
+        position += length;
+    }
+}
@@ -0,0 +1,142 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.label;
+
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+
+/**
+ * PDF标签渲染器，输出4x6英寸页面的压缩内容流，由PdfDocumentWriter组装为文档。
+ * 使用PDF内置的Helvetica字体，WinAnsi之外的字符（如中文）以'?'代替，需要打印中文地址时应使用ZPL格式；
+ * 条码按Code 128绘制为矩形。压缩在渲染线程中完成，每个线程复用自己的Deflater和输出缓冲区。
+ *
+ * @author kenyon
+ */
+@Component
+public class PdfLabelRenderer extends LabelRenderer {
+    static final int PAGE_WIDTH = 288;
+    static final int PAGE_HEIGHT = 432;
+
+    private static final double BARCODE_X = 24;
+    private static final double BARCODE_Y = 150;
+    private static final double BARCODE_WIDTH = 240;
+    private static final double BARCODE_HEIGHT = 80;
+    private static final double MAX_MODULE_WIDTH = 1.5;
+
+    private static final String TEMPLATE = String.join("\n",
+            "BT",
+            "/F1 9 Tf",
+            "14 410 Td",
+            "(FROM: {{shipper.name}}) Tj",
+            "0 -12 Td",
+            "({{shipper.address}}) Tj",
+            "0 -12 Td",
+            "(TEL: {{shipper.phone}}) Tj",
+            "ET",
+            "1 w 14 372 m 274 372 l S",
+            "BT",
+            "/F1 12 Tf",
+            "14 352 Td",
+            "(TO: {{recipient.name}}) Tj",
+            "/F1 10 Tf",
+            "0 -16 Td",
+            "({{recipient.address}}) Tj",
+            "0 -14 Td",
+            "(TEL: {{recipient.phone}}) Tj",
+            "ET",
+            "14 290 m 274 290 l S",
+            "BT",
+            "/F1 9 Tf",
+            "14 272 Td",
+            "(WEIGHT: {{package.weight}}   DIM: {{package.dimensions}}   QTY: {{package.quantity}}) Tj",
+            "ET",
+            "{{barcode}}",
+            "BT",
+            "/F1 14 Tf",
+            "24 128 Td",
+            "({{trackingNumber}}) Tj",
+            "ET",
+            "");
+
+    private final ThreadLocal<Compressor> compressors = ThreadLocal.withInitial(Compressor::new);
+
+    public PdfLabelRenderer() {
+        super(TEMPLATE);
+    }
+
+    @Override
+    public LabelFormat getFormat() {
+        return LabelFormat.PDF;
+    }
+
+    @Override
+    protected void appendText(StringBuilder out, String value) {
+        if (value == null) {
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '(' || c == ')' || c == '\\') {
+                out.append('\\').append(c);
+            } else if (c < 0x20) {
+                out.append(' ');
+            } else {
+                out.append(c > 0xFF ? '?' : c);
+            }
+        }
+    }
+
+    @Override
+    protected void appendBarcode(StringBuilder out, String value) {
+        int[] widths = Code128.encode(value);
+        int modules = 0;
+        for (int width : widths) {
+            modules += width;
+        }
+        double moduleWidth = Math.min(MAX_MODULE_WIDTH, BARCODE_WIDTH / modules);
+        double x = BARCODE_X;
+        for (int i = 0; i < widths.length; i++) {
+            double width = widths[i] * moduleWidth;
+            // 偶数下标为条，奇数下标为空
+            if (i % 2 == 0) {
+                appendDecimal(out, x);
+                out.append(' ');
+                appendDecimal(out, BARCODE_Y);
+                out.append(' ');
+                appendDecimal(out, width);
+                out.append(' ');
+                appendDecimal(out, BARCODE_HEIGHT);
+                out.append(" re\n");
+            }
+            x += width;
+        }
+        out.append('f');
+    }
+
+    @Override
+    protected byte[] encode(StringBuilder content) {
+        return compressors.get().compress(content.toString().getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    /**
+     * 线程内复用的压缩器。
+     */
+    private static final class Compressor {
+        private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        private final byte[] chunk = new byte[8192];
+        private final ByteArrayOutputStream output = new ByteArrayOutputStream(4096);
+
+        byte[] compress(byte[] input) {
+            deflater.reset();
+            deflater.setInput(input);
+            deflater.finish();
+            output.reset();
+            while (!deflater.finished()) {
+                int length = deflater.deflate(chunk);
+                output.write(chunk, 0, length);
+            }
+            return output.toByteArray();
+        }
+    }
+}
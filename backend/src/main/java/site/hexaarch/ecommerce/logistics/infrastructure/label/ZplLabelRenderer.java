@@ -0,0 +1,63 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.label;
+
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * ZPL标签渲染器，输出4x6英寸、203dpi的斑马打印机指令。
+ * 字段数据使用UTF-8（^CI28）并通过^FH以十六进制转义ZPL控制字符，条码使用打印机内置的Code 128指令。
+ *
+ * @author kenyon
+ */
+@Component
+public class ZplLabelRenderer extends LabelRenderer {
+    private static final String TEMPLATE = String.join("\n",
+            "^XA",
+            "^CI28",
+            "^PW812",
+            "^LL1218",
+            "^FO40,40^A0N,28,28^FH_^FDFROM: {{shipper.name}}^FS",
+            "^FO40,76^A0N,24,24^FB732,2,0,L^FH_^FD{{shipper.address}}^FS",
+            "^FO40,132^A0N,24,24^FH_^FDTEL: {{shipper.phone}}^FS",
+            "^FO40,170^GB732,3,3^FS",
+            "^FO40,195^A0N,36,36^FH_^FDTO: {{recipient.name}}^FS",
+            "^FO40,245^A0N,30,30^FB732,3,4,L^FH_^FD{{recipient.address}}^FS",
+            "^FO40,360^A0N,30,30^FH_^FDTEL: {{recipient.phone}}^FS",
+            "^FO40,410^GB732,3,3^FS",
+            "^FO40,435^A0N,26,26^FH_^FDWEIGHT: {{package.weight}}   DIM: {{package.dimensions}}   QTY: {{package.quantity}}^FS",
+            "^FO60,500^BY3^BCN,220,N,N,N^FH_^FD{{barcode}}^FS",
+            "^FO60,740^A0N,44,44^FH_^FD{{trackingNumber}}^FS",
+            "^XZ",
+            "");
+
+    public ZplLabelRenderer() {
+        super(TEMPLATE);
+    }
+
+    @Override
+    public LabelFormat getFormat() {
+        return LabelFormat.ZPL;
+    }
+
+    @Override
+    protected void appendText(StringBuilder out, String value) {
+        if (value == null) {
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '_' -> out.append("_5F");
+                case '^' -> out.append("_5E");
+                case '~' -> out.append("_7E");
+                default -> out.append(c < 0x20 ? ' ' : c);
+            }
+        }
+    }
+
+    @Override
+    protected byte[] encode(StringBuilder content) {
+        return content.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -1,19 +1,31 @@
 package site.hexaarch.ecommerce.logistics.infrastructure.messaging;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
-import org.apache.rocketmq.spring.core.RocketMQTemplate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.event.TransactionPhase;
 import org.springframework.transaction.event.TransactionalEventListener;
+import site.hexaarch.ecommerce.logistics.domain.common.DomainEventSource;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.outbox.OutboxEventJpaEntity;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.outbox.OutboxEventStatusJpaEntity;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.outbox.OutboxEventJpaRepository;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 /**
  * 领域事件发布服务
- * 负责在事务提交后发布聚合根中收集的领域事件
+ * 负责发布聚合根中收集的领域事件：本地Spring事件同步发布，
+ * 跨上下文的消息写入发件箱表，与聚合在同一事务中提交，由OutboxRelay异步投递到RocketMQ
  *
  * @author kenyon
  */
@@ -24,78 +36,108 @@ public class DomainEventPublisher {
     private static final Logger log = LoggerFactory.getLogger(DomainEventPublisher.class);
 
     private final ApplicationEventPublisher applicationEventPublisher;
-    private final RocketMQTemplate rocketMQTemplate;
+    private final OutboxEventJpaRepository outboxEventJpaRepository;
+    private final ObjectMapper objectMapper;
+    private final EventRouteResolver eventRouteResolver;
 
     /**
-     * 发布聚合根中的所有领域事件
+     * 发布聚合根中的所有领域事件，需在保存聚合的事务内调用
      *
      * @param aggregate 聚合根
      */
-    public void publishEventsFrom(Object aggregate) {
-        try {
-            // 使用反射获取domainEvents字段
-            java.lang.reflect.Field domainEventsField = aggregate.getClass().getDeclaredField("domainEvents");
-            domainEventsField.setAccessible(true);
-            List<Object> events = (List<Object>) domainEventsField.get(aggregate);
+    @Transactional
+    public void publishEventsFrom(DomainEventSource aggregate) {
+        publishEventsFrom(List.of(aggregate));
+    }
 
-            if (events != null && !events.isEmpty()) {
-                events.forEach(event -> {
-                    log.info("发布领域事件: {}", event.getClass().getSimpleName());
-                    // 发布到本地Spring事件
-                    applicationEventPublisher.publishEvent(event);
-                    // 发布到RocketMQ
-                    publishToRocketMQ(event);
-                });
-                // 清空已发布的事件
-                events.clear();
+    /**
+     * 批量发布多个聚合根中的领域事件，所有发件箱记录一次写入，需在保存聚合的事务内调用
+     *
+     * @param aggregates 聚合根集合
+     */
+    @Transactional
+    public void publishEventsFrom(Collection<? extends DomainEventSource> aggregates) {
+        List<DomainEventSource> published = new ArrayList<>(aggregates.size());
+        List<OutboxEventJpaEntity> outboxEvents = new ArrayList<>();
+        for (DomainEventSource aggregate : aggregates) {
+            List<Object> events = aggregate.getDomainEvents();
+            if (events == null || events.isEmpty()) {
+                continue;
             }
-        } catch (NoSuchFieldException e) {
-            // 如果对象没有domainEvents字段，则忽略
-            log.debug("对象没有domainEvents字段: {}", aggregate.getClass().getName());
-        } catch (Exception e) {
-            log.error("发布领域事件时出错", e);
+            collect(aggregate.getClass().getSimpleName(), aggregate.aggregateId(), events, outboxEvents);
+            published.add(aggregate);
+        }
+        if (!outboxEvents.isEmpty()) {
+            outboxEventJpaRepository.saveAll(outboxEvents);
         }
+        // 清空已发布的事件
+        published.forEach(DomainEventSource::clearDomainEvents);
     }
 
     /**
-     * 将事件发布到RocketMQ
+     * 批量发布未加载聚合根时构建的领域事件，例如批量状态更新产生的事件，所有发件箱记录一次写入，需在更新数据的事务内调用
      *
-     * @param event 领域事件
+     * @param aggregateType       聚合类型
+     * @param eventsByAggregateId 聚合ID到领域事件列表的映射
      */
-    private void publishToRocketMQ(Object event) {
-        try {
-            String topic = getTopicForEvent(event);
-            if (topic != null) {
-                rocketMQTemplate.convertAndSend(topic, event);
-                log.info("事件已发布到RocketMQ主题: {}", topic);
+    @Transactional
+    public void publishEvents(String aggregateType, Map<String, List<Object>> eventsByAggregateId) {
+        List<OutboxEventJpaEntity> outboxEvents = new ArrayList<>();
+        eventsByAggregateId.forEach((aggregateId, events) -> collect(aggregateType, aggregateId, events, outboxEvents));
+        if (!outboxEvents.isEmpty()) {
+            outboxEventJpaRepository.saveAll(outboxEvents);
+        }
+    }
+
+    /**
+     * 发布一个聚合的事件到本地Spring事件，并收集需要写入发件箱的记录
+     */
+    private void collect(String aggregateType, String aggregateId, List<Object> events, List<OutboxEventJpaEntity> outboxEvents) {
+        for (Object event : events) {
+            EventRoute route = eventRouteResolver.resolve(event);
+            log.info("发布领域事件: {}", route.getTag());
+            // 发布到本地Spring事件
+            applicationEventPublisher.publishEvent(event);
+            // 写入发件箱，事务提交后由中继投递到RocketMQ
+            if (route.isRouted()) {
+                outboxEvents.add(toOutboxEvent(aggregateType, aggregateId, route, event));
             } else {
-                log.warn("未知事件类型，无法确定RocketMQ主题: {}", event.getClass().getName());
+                log.warn("未知事件类型，无法确定RocketMQ主题: {}", route.getEventType());
             }
-        } catch (Exception e) {
-            log.error("发布事件到RocketMQ失败", e);
         }
     }
 
     /**
-     * 根据事件类型获取对应的RocketMQ主题
+     * 将事件转换为发件箱记录
      *
-     * @param event 领域事件
-     * @return RocketMQ主题名称
+     * @param aggregateType 聚合类型
+     * @param aggregateId   聚合ID
+     * @param route         消息路由
+     * @param event         领域事件
+     * @return 发件箱记录
      */
-    private String getTopicForEvent(Object event) {
-        String eventClassName = event.getClass().getName();
-        if (eventClassName.contains("order.event")) {
-            return "order-events";
-        } else if (eventClassName.contains("logistics.event")) {
-            return "logistics-events";
-        } else if (eventClassName.contains("warehouse.event")) {
-            return "inventory-events";
-        } else if (eventClassName.contains("finance.event")) {
-            return "finance-events";
-        } else if (eventClassName.contains("purchase.event")) {
-            return "purchase-events";
+    private OutboxEventJpaEntity toOutboxEvent(String aggregateType, String aggregateId, EventRoute route, Object event) {
+        OutboxEventJpaEntity outboxEvent = new OutboxEventJpaEntity();
+        outboxEvent.setEventId(UUID.randomUUID().toString());
+        outboxEvent.setAggregateType(aggregateType);
+        outboxEvent.setAggregateId(aggregateId != null ? aggregateId : aggregateType);
+        outboxEvent.setEventType(route.getEventType());
+        outboxEvent.setTopic(route.getTopic());
+        outboxEvent.setTag(route.getTag());
+        outboxEvent.setPayload(serialize(event));
+        outboxEvent.setStatus(OutboxEventStatusJpaEntity.PENDING);
+        outboxEvent.setAttempts(0);
+        outboxEvent.setCreatedAt(LocalDateTime.now());
+        return outboxEvent;
+    }
+
+    private String serialize(Object event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            // 序列化失败时回滚整个事务，避免聚合已保存而事件丢失
+            throw new IllegalStateException("领域事件序列化失败: " + event.getClass().getName(), e);
         }
-        return null;
     }
 
     /**
@@ -105,4 +147,4 @@ public class DomainEventPublisher {
     public void handleRollback(Object event) {
         log.info("事务回滚，清理事件: {}", event.getClass().getSimpleName());
     }
-}
\ No newline at end of file
+}
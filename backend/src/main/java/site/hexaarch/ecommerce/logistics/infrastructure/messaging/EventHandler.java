@@ -4,14 +4,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
+import site.hexaarch.ecommerce.logistics.application.service.BusinessProcessOrchestrationService;
 import site.hexaarch.ecommerce.logistics.application.service.LogisticsApplicationService;
 import site.hexaarch.ecommerce.logistics.application.service.WarehouseApplicationService;
 import site.hexaarch.ecommerce.logistics.application.service.finance.FinanceApplicationService;
-import site.hexaarch.ecommerce.logistics.application.service.purchase.PurchaseApplicationService;
 import site.hexaarch.ecommerce.logistics.domain.logistics.event.LogisticsCompletedEvent;
 import site.hexaarch.ecommerce.logistics.domain.order.event.OrderCreatedEvent;
 import site.hexaarch.ecommerce.logistics.domain.order.event.OrderStatusChangedEvent;
 import site.hexaarch.ecommerce.logistics.domain.warehouse.event.InventoryShortageEvent;
+import site.hexaarch.ecommerce.logistics.infrastructure.purchase.ShortageReplenishmentAggregator;
 
 /**
  * 事件处理器，处理跨限界上下文的领域事件
@@ -26,17 +27,20 @@ public class EventHandler {
 
     private final LogisticsApplicationService logisticsApplicationService;
     private final WarehouseApplicationService warehouseApplicationService;
-    private final PurchaseApplicationService purchaseApplicationService;
+    private final ShortageReplenishmentAggregator shortageReplenishmentAggregator;
     private final FinanceApplicationService financeApplicationService;
+    private final BusinessProcessOrchestrationService businessProcessOrchestrationService;
 
     public EventHandler(LogisticsApplicationService logisticsApplicationService,
                         WarehouseApplicationService warehouseApplicationService,
-                        PurchaseApplicationService purchaseApplicationService,
-                        FinanceApplicationService financeApplicationService) {
+                        ShortageReplenishmentAggregator shortageReplenishmentAggregator,
+                        FinanceApplicationService financeApplicationService,
+                        BusinessProcessOrchestrationService businessProcessOrchestrationService) {
         this.logisticsApplicationService = logisticsApplicationService;
         this.warehouseApplicationService = warehouseApplicationService;
-        this.purchaseApplicationService = purchaseApplicationService;
+        this.shortageReplenishmentAggregator = shortageReplenishmentAggregator;
         this.financeApplicationService = financeApplicationService;
+        this.businessProcessOrchestrationService = businessProcessOrchestrationService;
     }
 
     /**
@@ -63,10 +67,16 @@ public class EventHandler {
         log.info("接收到订单状态变更事件: {} 从 {} 到 {}",
                 event.getOrderId(), event.getOldStatus(), event.getNewStatus());
 
-        // 如果订单状态变为CONFIRMED，预留库存
-        if (event.getNewStatus().isConfirmed()) {
-            // 这里可以调用仓储服务预留库存
-            log.info("订单 {} 已确认，预留库存", event.getOrderId());
+        // 如果订单状态变为CONFIRMED，预留库存；如果订单被取消，释放预留
+        try {
+            if (event.getNewStatus().isConfirmed()) {
+                businessProcessOrchestrationService.reserveInventoryForOrder(event.getOrderId());
+                log.info("订单 {} 已确认，预留库存成功", event.getOrderId());
+            } else if (event.getNewStatus().isCancelled()) {
+                businessProcessOrchestrationService.releaseInventoryForOrder(event.getOrderId());
+            }
+        } catch (Exception e) {
+            log.error("处理订单 {} 的库存预留失败", event.getOrderId(), e);
         }
     }
 
@@ -94,13 +104,7 @@ public class EventHandler {
         log.info("接收到库存不足事件: 产品 {} 在仓库 {} 数量 {}",
                 event.getProductId(), event.getWarehouseId(), event.getCurrentQuantity());
 
-        // 库存不足时自动生成采购单
-        try {
-            // 使用正确的参数调用createPurchaseOrder方法，使用默认的tenantId
-            purchaseApplicationService.createPurchaseOrder("DEFAULT_TENANT", "DEFAULT_SUPPLIER", "Default Supplier", event.getWarehouseId());
-            log.info("为产品 {} 自动创建采购单成功", event.getProductId());
-        } catch (Exception e) {
-            log.error("为产品 {} 自动创建采购单失败", event.getProductId(), e);
-        }
+        // 库存不足交给缺货补货聚合器，按窗口合并生成采购单
+        shortageReplenishmentAggregator.onShortage(event);
     }
 }
\ No newline at end of file
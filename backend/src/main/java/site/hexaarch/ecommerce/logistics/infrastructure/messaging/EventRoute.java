@@ -0,0 +1,26 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.messaging;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 领域事件的消息路由：主题、标签和事件类型
+ *
+ * @author kenyon
+ */
+@Getter
+@RequiredArgsConstructor
+public class EventRoute {
+    private final String topic;
+    private final String tag;
+    private final String eventType;
+
+    /**
+     * 是否存在对应的消息主题
+     *
+     * @return 是否可路由
+     */
+    public boolean isRouted() {
+        return topic != null;
+    }
+}
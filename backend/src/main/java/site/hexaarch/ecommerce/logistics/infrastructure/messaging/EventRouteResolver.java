@@ -0,0 +1,70 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.messaging;
+
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 领域事件路由解析器
+ * 启动时按限界上下文的事件包构建主题表，每个事件类的路由首次解析后由ClassValue缓存，
+ * 之后的发布只需一次按类查找，不再做类名字符串匹配
+ *
+ * @author kenyon
+ */
+@Component
+public class EventRouteResolver {
+    private static final String DOMAIN_PACKAGE = "site.hexaarch.ecommerce.logistics.domain";
+
+    private final Map<String, String> topicsByPackage = new HashMap<>();
+    private final ClassValue<EventRoute> routes = new ClassValue<>() {
+        @Override
+        protected EventRoute computeValue(Class<?> type) {
+            return computeRoute(type);
+        }
+    };
+
+    public EventRouteResolver() {
+        register("order", "order-events");
+        register("logistics", "logistics-events");
+        register("warehouse", "inventory-events");
+        register("finance", "finance-events");
+        register("purchase", "purchase-events");
+    }
+
+    /**
+     * 解析事件的消息路由
+     *
+     * @param event 领域事件
+     * @return 消息路由，无对应主题时topic为null
+     */
+    public EventRoute resolve(Object event) {
+        return routeFor(event.getClass());
+    }
+
+    /**
+     * 解析事件类型的消息路由
+     *
+     * @param eventType 事件类型
+     * @return 消息路由，无对应主题时topic为null
+     */
+    public EventRoute routeFor(Class<?> eventType) {
+        return routes.get(eventType);
+    }
+
+    private void register(String boundedContext, String topic) {
+        topicsByPackage.put(DOMAIN_PACKAGE + "." + boundedContext + ".event", topic);
+    }
+
+    private EventRoute computeRoute(Class<?> type) {
+        // 事件可能位于事件包的子包中，逐级向上查找
+        String packageName = type.getPackageName();
+        String topic = null;
+        while (topic == null && !packageName.isEmpty()) {
+            topic = topicsByPackage.get(packageName);
+            int lastDot = packageName.lastIndexOf('.');
+            packageName = lastDot > 0 ? packageName.substring(0, lastDot) : "";
+        }
+        return new EventRoute(topic, type.getSimpleName(), type.getName());
+    }
+}
@@ -6,13 +6,17 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 import site.hexaarch.ecommerce.logistics.application.service.LogisticsApplicationService;
+import site.hexaarch.ecommerce.logistics.application.service.TrackingApplicationService;
 import site.hexaarch.ecommerce.logistics.application.service.WarehouseApplicationService;
 import site.hexaarch.ecommerce.logistics.application.service.finance.FinanceApplicationService;
-import site.hexaarch.ecommerce.logistics.application.service.purchase.PurchaseApplicationService;
+import site.hexaarch.ecommerce.logistics.domain.common.exception.ValidationException;
 import site.hexaarch.ecommerce.logistics.domain.logistics.event.LogisticsCompletedEvent;
 import site.hexaarch.ecommerce.logistics.domain.order.event.OrderCreatedEvent;
 import site.hexaarch.ecommerce.logistics.domain.order.event.OrderStatusChangedEvent;
+import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.TrackingIngestResult;
 import site.hexaarch.ecommerce.logistics.domain.warehouse.event.InventoryShortageEvent;
+import site.hexaarch.ecommerce.logistics.infrastructure.purchase.ShortageReplenishmentAggregator;
+import site.hexaarch.ecommerce.logistics.interfaces.dto.logistics.TrackingEventBatchDto;
 
 /**
  * RocketMQ事件消费者
@@ -26,17 +30,41 @@ public class RocketMQEventConsumer {
 
     private final LogisticsApplicationService logisticsApplicationService;
     private final WarehouseApplicationService warehouseApplicationService;
-    private final PurchaseApplicationService purchaseApplicationService;
+    private final ShortageReplenishmentAggregator shortageReplenishmentAggregator;
     private final FinanceApplicationService financeApplicationService;
+    private final TrackingApplicationService trackingApplicationService;
 
     public RocketMQEventConsumer(LogisticsApplicationService logisticsApplicationService,
                                 WarehouseApplicationService warehouseApplicationService,
-                                PurchaseApplicationService purchaseApplicationService,
-                                FinanceApplicationService financeApplicationService) {
+                                ShortageReplenishmentAggregator shortageReplenishmentAggregator,
+                                FinanceApplicationService financeApplicationService,
+                                TrackingApplicationService trackingApplicationService) {
         this.logisticsApplicationService = logisticsApplicationService;
         this.warehouseApplicationService = warehouseApplicationService;
-        this.purchaseApplicationService = purchaseApplicationService;
+        this.shortageReplenishmentAggregator = shortageReplenishmentAggregator;
         this.financeApplicationService = financeApplicationService;
+        this.trackingApplicationService = trackingApplicationService;
+    }
+
+    /**
+     * 监听承运商轨迹事件 - 从承运商对接到物流上下文
+     * 接入是幂等的，失败时抛出异常由RocketMQ重新投递整批扫描；校验失败的批次重试也不会成功，记录后丢弃
+     */
+    @Component
+    @RocketMQMessageListener(topic = "carrier-tracking-events", consumerGroup = "logistics-tracking-group")
+    public class CarrierTrackingEventConsumer implements RocketMQListener<TrackingEventBatchDto> {
+        @Override
+        public void onMessage(TrackingEventBatchDto batch) {
+            TrackingIngestResult result;
+            try {
+                result = trackingApplicationService.ingest(batch.toTrackingEvents());
+            } catch (ValidationException e) {
+                log.error("丢弃无效的承运商扫描批次: {}", e.getMessage());
+                return;
+            }
+            log.debug("接入承运商扫描 {} 条，写入 {} 条，推进状态 {} 个，未知运单 {} 个",
+                    result.getReceived(), result.getAppended(), result.getStatusUpdates(), result.getUnknownTrackingNumbers());
+        }
     }
 
     /**
@@ -109,14 +137,8 @@ public class RocketMQEventConsumer {
             log.info("从RocketMQ接收到库存不足事件: 产品 {} 在仓库 {} 数量 {}",
                     event.getProductId(), event.getWarehouseId(), event.getCurrentQuantity());
 
-            // 库存不足时自动生成采购单
-            try {
-                // 使用正确的参数调用createPurchaseOrder方法
-                purchaseApplicationService.createPurchaseOrder("default-tenant", "DEFAULT_SUPPLIER", "Default Supplier", event.getWarehouseId());
-                log.info("为产品 {} 自动创建采购单成功", event.getProductId());
-            } catch (Exception e) {
-                log.error("为产品 {} 自动创建采购单失败", event.getProductId(), e);
-            }
+            // 库存不足交给缺货补货聚合器，按窗口合并生成采购单
+            shortageReplenishmentAggregator.onShortage(event);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,77 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.messaging.outbox;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * 内存版发件箱消息发送器，用于本地开发和测试替代真实消息中间件。
+ * 按主题保存已投递消息，可模拟中间件不可用或指定消息投递失败。
+ *
+ * @author kenyon
+ */
+@Component
+@ConditionalOnProperty(prefix = "outbox", name = "sender", havingValue = "in-memory")
+public class InMemoryOutboxMessageSender implements OutboxMessageSender {
+    private final Map<String, List<OutboxMessage>> messagesByTopic = new ConcurrentHashMap<>();
+    private volatile boolean available = true;
+    private volatile Predicate<OutboxMessage> failurePredicate = message -> false;
+
+    @Override
+    public CompletableFuture<Void> send(OutboxMessage message) {
+        if (!available || failurePredicate.test(message)) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Broker unavailable for topic " + message.getTopic()));
+        }
+        List<OutboxMessage> messages = messagesByTopic.computeIfAbsent(message.getTopic(), topic -> new ArrayList<>());
+        synchronized (messages) {
+            messages.add(message);
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * 设置中间件是否可用，不可用时所有投递均失败。
+     *
+     * @param available 是否可用
+     */
+    public void setAvailable(boolean available) {
+        this.available = available;
+    }
+
+    /**
+     * 设置投递失败条件，匹配的消息投递失败。
+     *
+     * @param failurePredicate 失败条件
+     */
+    public void failWhen(Predicate<OutboxMessage> failurePredicate) {
+        this.failurePredicate = failurePredicate;
+    }
+
+    /**
+     * 获取指定主题已投递的消息，按投递顺序排列。
+     *
+     * @param topic 主题
+     * @return 消息列表副本
+     */
+    public List<OutboxMessage> getMessages(String topic) {
+        List<OutboxMessage> messages = messagesByTopic.getOrDefault(topic, List.of());
+        synchronized (messages) {
+            return new ArrayList<>(messages);
+        }
+    }
+
+    /**
+     * 清空所有已投递消息并恢复为可用状态。
+     */
+    public void reset() {
+        messagesByTopic.clear();
+        available = true;
+        failurePredicate = message -> false;
+    }
+}
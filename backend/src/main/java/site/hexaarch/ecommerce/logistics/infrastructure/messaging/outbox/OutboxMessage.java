@@ -0,0 +1,20 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.messaging.outbox;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 发件箱待投递消息，payload为事件的JSON序列化结果，tag为事件类名，供消费端按标签过滤。
+ *
+ * @author kenyon
+ */
+@Getter
+@RequiredArgsConstructor
+public class OutboxMessage {
+    private final String eventId;
+    private final String topic;
+    private final String tag;
+    private final String aggregateId;
+    private final String eventType;
+    private final String payload;
+}
@@ -0,0 +1,18 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.messaging.outbox;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 发件箱消息发送端口，由中继调用，将消息异步投递到消息中间件。
+ *
+ * @author kenyon
+ */
+public interface OutboxMessageSender {
+    /**
+     * 异步发送消息，同一聚合ID的消息应投递到同一有序队列。
+     *
+     * @param message 待投递消息
+     * @return 投递完成时结束的Future，投递失败时异常结束
+     */
+    CompletableFuture<Void> send(OutboxMessage message);
+}
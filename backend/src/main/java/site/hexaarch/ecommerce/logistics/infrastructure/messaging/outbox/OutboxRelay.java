@@ -0,0 +1,227 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.messaging.outbox;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.outbox.OutboxEventJpaEntity;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.outbox.OutboxEventStatusJpaEntity;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.outbox.OutboxEventJpaRepository;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 发件箱中继，定时认领一批待投递事件并异步投递。
+ * <p>
+ * 每批在一个短事务内按ID顺序锁定各聚合最早的待投递事件，写入本节点的认领租约后立即提交，
+ * 投递在事务外并行进行，完成后再用另一个短事务回写投递结果，消息中间件的耗时不占用数据库连接和行锁。
+ * 同一聚合同时最多有一条事件在投递中，前一条成功后下一批才会取出下一条，保证聚合内顺序；
+ * 失败的事件按指数退避重试，退避期内整个聚合暂停投递。投递次数达到上限的事件转为死信（FAILED），
+ * 该聚合后续事件继续投递。认领使用SKIP LOCKED，多个节点可同时运行中继；节点在回写前宕机时，
+ * 租约到期后事件被重新认领投递（至少一次投递）。
+ *
+ * @author kenyon
+ */
+@Component
+public class OutboxRelay {
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final OutboxEventJpaRepository outboxEventJpaRepository;
+    private final OutboxMessageSender outboxMessageSender;
+    private final TransactionOperations transactionOperations;
+    private final int batchSize;
+    private final long sendTimeoutMs;
+    private final long claimTtlMs;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+    private final int retentionDays;
+    private final int maxAttempts;
+    private final String owner;
+    private final Clock clock;
+
+    @Autowired
+    public OutboxRelay(OutboxEventJpaRepository outboxEventJpaRepository,
+                       OutboxMessageSender outboxMessageSender,
+                       TransactionOperations transactionOperations,
+                       @Value("${outbox.relay.batch-size:200}") int batchSize,
+                       @Value("${outbox.relay.send-timeout-ms:3000}") long sendTimeoutMs,
+                       @Value("${outbox.relay.claim-ttl-ms:30000}") long claimTtlMs,
+                       @Value("${outbox.relay.initial-backoff-ms:1000}") long initialBackoffMs,
+                       @Value("${outbox.relay.max-backoff-ms:60000}") long maxBackoffMs,
+                       @Value("${outbox.relay.retention-days:7}") int retentionDays,
+                       @Value("${outbox.relay.max-attempts:20}") int maxAttempts) {
+        this(outboxEventJpaRepository, outboxMessageSender, transactionOperations, batchSize, sendTimeoutMs, claimTtlMs,
+                initialBackoffMs, maxBackoffMs, retentionDays, maxAttempts, UUID.randomUUID().toString(),
+                Clock.systemDefaultZone());
+    }
+
+    OutboxRelay(OutboxEventJpaRepository outboxEventJpaRepository,
+                OutboxMessageSender outboxMessageSender,
+                TransactionOperations transactionOperations,
+                int batchSize,
+                long sendTimeoutMs,
+                long claimTtlMs,
+                long initialBackoffMs,
+                long maxBackoffMs,
+                int retentionDays,
+                int maxAttempts,
+                String owner,
+                Clock clock) {
+        this.outboxEventJpaRepository = outboxEventJpaRepository;
+        this.outboxMessageSender = outboxMessageSender;
+        this.transactionOperations = transactionOperations;
+        this.batchSize = Math.max(1, batchSize);
+        this.sendTimeoutMs = sendTimeoutMs;
+        // 租约至少覆盖一次投递超时，避免投递未完成时被其他节点重新认领
+        this.claimTtlMs = Math.max(claimTtlMs, sendTimeoutMs * 2);
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.retentionDays = retentionDays;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.owner = owner;
+        this.clock = clock;
+    }
+
+    /**
+     * 定时投递待发送事件，本批有投递成功时继续认领下一批（同一聚合的后续事件在下一批取出）。
+     */
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:500}")
+    public void relay() {
+        RelayResult result;
+        do {
+            result = relayBatch();
+        } while (result.sent() > 0);
+    }
+
+    /**
+     * 认领并投递一批事件：认领和回写结果各用一个短事务，投递在两个事务之间进行。
+     *
+     * @return 本批次认领的事件数和投递成功数
+     */
+    RelayResult relayBatch() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<OutboxEventJpaEntity> batch = transactionOperations.execute(status -> claim(now));
+        if (batch == null || batch.isEmpty()) {
+            return new RelayResult(0, 0);
+        }
+
+        Set<Long> sentIds = ConcurrentHashMap.newKeySet();
+        Map<Long, Throwable> failures = new ConcurrentHashMap<>();
+        List<CompletableFuture<Void>> sends = new ArrayList<>(batch.size());
+        for (OutboxEventJpaEntity event : batch) {
+            sends.add(send(event).handle((r, ex) -> {
+                if (ex == null) {
+                    sentIds.add(event.getId());
+                } else {
+                    failures.put(event.getId(), ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+                }
+                return null;
+            }));
+        }
+        CompletableFuture.allOf(sends.toArray(new CompletableFuture[0])).join();
+
+        List<Long> ids = batch.stream().map(OutboxEventJpaEntity::getId).toList();
+        transactionOperations.executeWithoutResult(status -> complete(ids, sentIds, failures, LocalDateTime.now(clock)));
+        if (!failures.isEmpty()) {
+            log.warn("发件箱投递失败 {} 条，成功 {} 条", failures.size(), sentIds.size());
+        }
+        return new RelayResult(batch.size(), sentIds.size());
+    }
+
+    /**
+     * 定时清理超过保留期的已投递事件。
+     */
+    @Scheduled(fixedDelayString = "${outbox.relay.cleanup-interval-ms:3600000}")
+    public void purgeSentEvents() {
+        LocalDateTime before = LocalDateTime.now(clock).minusDays(retentionDays);
+        Integer deleted = transactionOperations.execute(status -> outboxEventJpaRepository
+                .deleteByStatusAndSentAtBefore(OutboxEventStatusJpaEntity.SENT, before));
+        if (deleted != null && deleted > 0) {
+            log.info("清理已投递发件箱事件 {} 条", deleted);
+        }
+    }
+
+    private List<OutboxEventJpaEntity> claim(LocalDateTime now) {
+        List<OutboxEventJpaEntity> batch = outboxEventJpaRepository.lockDueBatchByStatus(
+                OutboxEventStatusJpaEntity.PENDING, now, PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return batch;
+        }
+        LocalDateTime leaseUntil = now.plusNanos(TimeUnit.MILLISECONDS.toNanos(claimTtlMs));
+        for (OutboxEventJpaEntity event : batch) {
+            event.setLeaseOwner(owner);
+            event.setLeaseUntil(leaseUntil);
+        }
+        return outboxEventJpaRepository.saveAll(batch);
+    }
+
+    private void complete(List<Long> ids, Set<Long> sentIds, Map<Long, Throwable> failures, LocalDateTime now) {
+        List<OutboxEventJpaEntity> changed = new ArrayList<>();
+        for (OutboxEventJpaEntity event : outboxEventJpaRepository.findAllById(ids)) {
+            // 租约已过期并被其他节点重新认领的事件由新的持有者回写
+            if (event.getStatus() != OutboxEventStatusJpaEntity.PENDING || !owner.equals(event.getLeaseOwner())) {
+                continue;
+            }
+            event.setLeaseOwner(null);
+            event.setLeaseUntil(null);
+            if (sentIds.contains(event.getId())) {
+                event.setStatus(OutboxEventStatusJpaEntity.SENT);
+                event.setSentAt(now);
+                event.setNextAttemptAt(null);
+                event.setLastError(null);
+            } else if (failures.containsKey(event.getId())) {
+                markFailed(event, failures.get(event.getId()), now);
+            }
+            changed.add(event);
+        }
+        outboxEventJpaRepository.saveAll(changed);
+    }
+
+    private CompletableFuture<Void> send(OutboxEventJpaEntity event) {
+        OutboxMessage message = new OutboxMessage(event.getEventId(), event.getTopic(), event.getTag(), event.getAggregateId(),
+                event.getEventType(), event.getPayload());
+        try {
+            return outboxMessageSender.send(message).orTimeout(sendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private void markFailed(OutboxEventJpaEntity event, Throwable error, LocalDateTime now) {
+        int attempts = event.getAttempts() + 1;
+        event.setAttempts(attempts);
+        String message = error.getClass().getSimpleName() + ": " + error.getMessage();
+        event.setLastError(message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message);
+        if (attempts >= maxAttempts) {
+            // 转为死信，不再阻塞同一聚合的后续事件
+            event.setStatus(OutboxEventStatusJpaEntity.FAILED);
+            event.setNextAttemptAt(null);
+            log.error("发件箱事件投递失败 {} 次，转为死信: {} {}", attempts, event.getEventId(), event.getEventType());
+            return;
+        }
+        event.setNextAttemptAt(now.plusNanos(TimeUnit.MILLISECONDS.toNanos(backoffMillis(attempts))));
+    }
+
+    private long backoffMillis(int attempts) {
+        int shift = Math.min(attempts - 1, 30);
+        return Math.min(maxBackoffMs, initialBackoffMs << shift);
+    }
+
+    record RelayResult(int fetched, int sent) {
+    }
+}
@@ -0,0 +1,61 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.messaging.outbox;
+
+import org.apache.rocketmq.client.producer.SendCallback;
+import org.apache.rocketmq.client.producer.SendResult;
+import org.apache.rocketmq.client.producer.SendStatus;
+import org.apache.rocketmq.spring.core.RocketMQTemplate;
+import org.apache.rocketmq.spring.support.RocketMQHeaders;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 基于RocketMQ的发件箱消息发送器，按聚合ID做顺序投递，事件ID作为消息Key便于排查和消费端去重。
+ *
+ * @author kenyon
+ */
+@Component
+@ConditionalOnProperty(prefix = "outbox", name = "sender", havingValue = "rocketmq", matchIfMissing = true)
+public class RocketMQOutboxMessageSender implements OutboxMessageSender {
+    private final RocketMQTemplate rocketMQTemplate;
+    private final long sendTimeoutMs;
+
+    public RocketMQOutboxMessageSender(RocketMQTemplate rocketMQTemplate,
+                                       @Value("${outbox.relay.send-timeout-ms:3000}") long sendTimeoutMs) {
+        this.rocketMQTemplate = rocketMQTemplate;
+        this.sendTimeoutMs = sendTimeoutMs;
+    }
+
+    @Override
+    public CompletableFuture<Void> send(OutboxMessage message) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        Message<String> payload = MessageBuilder.withPayload(message.getPayload())
+                .setHeader(RocketMQHeaders.KEYS, message.getEventId())
+                .setHeader("eventType", message.getEventType())
+                .build();
+        rocketMQTemplate.asyncSendOrderly(destination(message), payload, message.getAggregateId(), new SendCallback() {
+            @Override
+            public void onSuccess(SendResult sendResult) {
+                if (sendResult.getSendStatus() == SendStatus.SEND_OK) {
+                    result.complete(null);
+                } else {
+                    result.completeExceptionally(new IllegalStateException("Broker returned " + sendResult.getSendStatus()));
+                }
+            }
+
+            @Override
+            public void onException(Throwable throwable) {
+                result.completeExceptionally(throwable);
+            }
+        }, sendTimeoutMs);
+        return result;
+    }
+
+    private String destination(OutboxMessage message) {
+        return message.getTag() != null ? message.getTopic() + ":" + message.getTag() : message.getTopic();
+    }
+}
@@ -0,0 +1,64 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 库存流水JPA实体，只追加的库存变动表，由JDBC批量写入和查询，实体只用于维护表结构。
+ * <p>
+ * 自增ID是流水序号，快照记录其覆盖到的序号；(仓库ID, SKU编码, ID)索引使快照之后的增量扫描只读取索引范围。
+ *
+ * @author kenyon
+ */
+@Entity
+@Table(name = "inventory_movement_ledger", indexes = {
+        @Index(name = "idx_inventory_ledger_warehouse_sku_id", columnList = "warehouse_id, sku_code, id"),
+        @Index(name = "idx_inventory_ledger_warehouse_moved_at", columnList = "warehouse_id, moved_at")
+})
+@Getter
+@Setter
+public class InventoryLedgerEntryJpaEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", updatable = false, nullable = false)
+    private Long id;
+
+    @Column(name = "movement_id", updatable = false, nullable = false, unique = true, length = 36)
+    private String movementId;
+
+    @Column(name = "warehouse_id", updatable = false, nullable = false)
+    private String warehouseId;
+
+    @Column(name = "product_id", updatable = false, nullable = false)
+    private String productId;
+
+    @Column(name = "sku_code", updatable = false, nullable = false)
+    private String skuCode;
+
+    @Column(name = "movement_type", updatable = false, nullable = false, length = 20)
+    private String movementType;
+
+    @Column(name = "quantity", updatable = false, nullable = false)
+    private int quantity;
+
+    @Column(name = "quantity_change", updatable = false, nullable = false)
+    private int quantityChange;
+
+    @Column(name = "balance_after", updatable = false, nullable = false)
+    private int balanceAfter;
+
+    @Column(name = "reason")
+    private String reason;
+
+    @Column(name = "moved_at", updatable = false, nullable = false)
+    private LocalDateTime movedAt;
+}
@@ -0,0 +1,74 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * 库存流水快照JPA实体，主键为(仓库ID, SKU编码, 覆盖到的流水序号)，由JDBC写入和查询，实体只用于维护表结构。
+ * <p>
+ * 快照保留历史：最新的快照用于当前数量，较早的快照用于按时间查询在库数量。
+ *
+ * @author kenyon
+ */
+@Entity
+@Table(name = "inventory_ledger_snapshots")
+@IdClass(InventoryLedgerSnapshotJpaEntity.Key.class)
+@Getter
+@Setter
+public class InventoryLedgerSnapshotJpaEntity {
+    @Id
+    @Column(name = "warehouse_id", nullable = false)
+    private String warehouseId;
+
+    @Id
+    @Column(name = "sku_code", nullable = false)
+    private String skuCode;
+
+    @Id
+    @Column(name = "last_entry_id", nullable = false)
+    private Long lastEntryId;
+
+    @Column(name = "quantity", nullable = false)
+    private int quantity;
+
+    @Column(name = "covered_until", nullable = false)
+    private LocalDateTime coveredUntil;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * 复合主键
+     */
+    @Getter
+    @Setter
+    public static class Key implements Serializable {
+        private String warehouseId;
+        private String skuCode;
+        private Long lastEntryId;
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return Objects.equals(warehouseId, key.warehouseId) &&
+                    Objects.equals(skuCode, key.skuCode) &&
+                    Objects.equals(lastEntryId, key.lastEntryId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(warehouseId, skuCode, lastEntryId);
+        }
+    }
+}
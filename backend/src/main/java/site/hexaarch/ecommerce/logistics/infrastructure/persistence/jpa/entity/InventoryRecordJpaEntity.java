@@ -6,9 +6,11 @@ import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -18,7 +20,10 @@ import lombok.Setter;
  * @author kenyon
  */
 @Entity
-@Table(name = "inventory_records")
+@Table(name = "inventory_records", indexes = {
+        @Index(name = "idx_inventory_records_warehouse_product", columnList = "warehouse_id, product_id"),
+        @Index(name = "idx_inventory_records_warehouse_sku", columnList = "warehouse_id, sku_code")
+})
 @Getter
 @Setter
 public class InventoryRecordJpaEntity {
@@ -29,6 +34,9 @@ public class InventoryRecordJpaEntity {
     @Column(name = "sku_code", nullable = false)
     private String skuCode;
 
+    @Column(name = "product_id")
+    private String productId;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "warehouse_id", nullable = false)
     private WarehouseJpaEntity warehouse;
@@ -40,6 +48,16 @@ public class InventoryRecordJpaEntity {
     @Column(name = "quantity", nullable = false)
     private Integer quantity;
 
+    @Column(name = "reserved_quantity", nullable = false)
+    private int reservedQuantity;
+
+    @Column(name = "allocated_quantity", nullable = false)
+    private int allocatedQuantity;
+
+    @Version
+    @Column(name = "version")
+    private Long version;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "status", nullable = false)
     private InventoryStatusJpaEntity status;
@@ -7,6 +7,7 @@ import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToOne;
@@ -20,7 +21,9 @@ import lombok.Setter;
  * @author kenyon
  */
 @Entity
-@Table(name = "logistics_orders")
+@Table(name = "logistics_orders", indexes = {
+        @Index(name = "idx_logistics_orders_tracking_number", columnList = "tracking_number")
+})
 @Getter
 @Setter
 public class LogisticsOrderJpaEntity {
@@ -0,0 +1,45 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * 被拒绝的平台订单JPA实体，只追加不更新。
+ *
+ * @author kenyon
+ */
+@Entity
+@Table(name = "order_import_rejections",
+        indexes = @Index(name = "idx_order_import_rejections_platform", columnList = "platform_id, rejected_at"))
+@Getter
+@Setter
+public class OrderImportRejectionJpaEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "platform_id", nullable = false)
+    private UUID platformId;
+
+    @Column(name = "external_order_number")
+    private String externalOrderNumber;
+
+    @Column(name = "stage", length = 20, nullable = false)
+    private String stage;
+
+    @Column(name = "reason", length = 1000)
+    private String reason;
+
+    @Column(name = "rejected_at", nullable = false)
+    private LocalDateTime rejectedAt;
+}
@@ -5,26 +5,54 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedEntityGraphs;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
 
 import java.util.List;
 
 /**
  * 订单JPA实体，用于持久化订单聚合。
+ * <p>
+ * 关联均为延迟加载，读取时通过实体图选择抓取计划：
+ * summary 连接抓取收货地址和付款信息，适用于分页列表，订单行项按批次加载；
+ * full 额外连接抓取订单行项，适用于按ID读取完整聚合。
  *
  * @author kenyon
  */
 @Entity
-@Table(name = "orders")
+@NamedEntityGraphs({
+        @NamedEntityGraph(name = OrderJpaEntity.SUMMARY_GRAPH, attributeNodes = {
+                @NamedAttributeNode("shippingAddress"),
+                @NamedAttributeNode("paymentInfo")
+        }),
+        @NamedEntityGraph(name = OrderJpaEntity.FULL_GRAPH, attributeNodes = {
+                @NamedAttributeNode("shippingAddress"),
+                @NamedAttributeNode("paymentInfo"),
+                @NamedAttributeNode("orderItems")
+        })
+})
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_orders_status_created_at_id", columnList = "status, created_at, id"),
+        @Index(name = "idx_orders_customer_created_at_id", columnList = "customer_id, created_at, id")
+})
 @Getter
 @Setter
 public class OrderJpaEntity {
+    public static final String SUMMARY_GRAPH = "Order.summary";
+    public static final String FULL_GRAPH = "Order.full";
+
     @Id
     @Column(name = "id", updatable = false, nullable = false)
     private String id;
@@ -39,15 +67,16 @@ public class OrderJpaEntity {
     @Column(name = "status", nullable = false)
     private OrderStatusJpaEntity status;
 
-    @OneToOne(cascade = CascadeType.ALL, orphanRemoval = true)
+    @OneToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
     @JoinColumn(name = "shipping_address_id")
     private ShippingAddressJpaEntity shippingAddress;
 
-    @OneToOne(cascade = CascadeType.ALL, orphanRemoval = true)
+    @OneToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
     @JoinColumn(name = "payment_info_id")
     private PaymentInfoJpaEntity paymentInfo;
 
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 100)
     private List<OrderItemJpaEntity> orderItems;
 
     @Column(name = "customer_name")
@@ -7,6 +7,8 @@ import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.math.BigDecimal;
+
 /**
  * 付款信息JPA实体，用于持久化付款信息值对象。
  *
@@ -30,6 +32,9 @@ public class PaymentInfoJpaEntity {
     @Column(name = "transaction_id")
     private String transactionId;
 
+    @Column(name = "amount", precision = 19, scale = 2)
+    private BigDecimal amount;
+
     @Column(name = "payment_date")
     private Long paymentDate;
 }
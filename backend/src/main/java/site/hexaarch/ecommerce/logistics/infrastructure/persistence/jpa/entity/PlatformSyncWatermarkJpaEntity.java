@@ -0,0 +1,87 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * 平台同步水位JPA实体，主键为(平台集成ID, 同步类型)。
+ * <p>
+ * 租约列只通过条件更新修改，保存同步进度时不覆盖。
+ *
+ * @author kenyon
+ */
+@Entity
+@Table(name = "platform_sync_watermarks")
+@IdClass(PlatformSyncWatermarkJpaEntity.Key.class)
+@Getter
+@Setter
+public class PlatformSyncWatermarkJpaEntity {
+    @Id
+    @Column(name = "platform_id", nullable = false)
+    private UUID platformId;
+
+    @Id
+    @Column(name = "sync_type", length = 20, nullable = false)
+    private String syncType;
+
+    @Column(name = "updated_since")
+    private LocalDateTime updatedSince;
+
+    @Column(name = "cursor_value", length = 1024)
+    private String cursor;
+
+    @Column(name = "run_started_at")
+    private LocalDateTime runStartedAt;
+
+    @Column(name = "next_run_at")
+    private LocalDateTime nextRunAt;
+
+    @Column(name = "consecutive_failures", nullable = false)
+    private int consecutiveFailures;
+
+    @Column(name = "last_success_at")
+    private LocalDateTime lastSuccessAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "lease_owner", length = 100)
+    private String leaseOwner;
+
+    @Column(name = "lease_until")
+    private LocalDateTime leaseUntil;
+
+    /**
+     * 复合主键
+     */
+    @Getter
+    @Setter
+    public static class Key implements Serializable {
+        private UUID platformId;
+        private String syncType;
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return Objects.equals(platformId, key.platformId) &&
+                    Objects.equals(syncType, key.syncType);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(platformId, syncType);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 产品分类JPA实体，用于持久化产品分类。
+ *
+ * @author kenyon
+ */
+@Entity
+@Table(name = "product_categories", indexes = {
+        @Index(name = "idx_product_categories_parent_id", columnList = "parent_id")
+})
+@Getter
+@Setter
+public class ProductCategoryJpaEntity {
+    @Id
+    @Column(name = "id", updatable = false, nullable = false)
+    private String id;
+
+    @Column(name = "parent_id")
+    private String parentId;
+
+    @Column(name = "level")
+    private Integer level;
+
+    @Column(name = "name", nullable = false)
+    private String name;
+
+    @Column(name = "description")
+    private String description;
+
+    @Column(name = "active", nullable = false)
+    private Boolean active;
+}
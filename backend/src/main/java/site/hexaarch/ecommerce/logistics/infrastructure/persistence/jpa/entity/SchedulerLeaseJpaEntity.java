@@ -0,0 +1,33 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 定时任务租约JPA实体，主键为租约名称，用于让多个节点上的同一定时任务同时只有一个节点执行。
+ * <p>
+ * 租约行只通过条件插入和条件更新修改，租约时间为UTC。
+ *
+ * @author kenyon
+ */
+@Entity
+@Table(name = "scheduler_leases")
+@Getter
+@Setter
+public class SchedulerLeaseJpaEntity {
+    @Id
+    @Column(name = "lease_name", length = 100, nullable = false)
+    private String leaseName;
+
+    @Column(name = "lease_owner", length = 100)
+    private String leaseOwner;
+
+    @Column(name = "lease_until")
+    private LocalDateTime leaseUntil;
+}
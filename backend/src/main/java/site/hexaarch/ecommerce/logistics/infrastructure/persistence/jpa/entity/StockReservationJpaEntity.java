@@ -0,0 +1,74 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * 库存预留JPA实体，主键为(订单ID, 仓库ID, SKU编码)。
+ * <p>
+ * 预留引擎重启后按订单从此表恢复预留明细，使此前的预留仍能被分配或释放。
+ *
+ * @author kenyon
+ */
+@Entity
+@Table(name = "stock_reservations")
+@IdClass(StockReservationJpaEntity.Key.class)
+@Getter
+@Setter
+public class StockReservationJpaEntity {
+    @Id
+    @Column(name = "order_id", length = 64, nullable = false)
+    private String orderId;
+
+    @Id
+    @Column(name = "warehouse_id", length = 64, nullable = false)
+    private String warehouseId;
+
+    @Id
+    @Column(name = "sku_code", length = 64, nullable = false)
+    private String skuCode;
+
+    @Column(name = "quantity", nullable = false)
+    private int quantity;
+
+    @Column(name = "allocated", nullable = false)
+    private boolean allocated;
+
+    @Column(name = "reserved_at", nullable = false)
+    private LocalDateTime reservedAt;
+
+    /**
+     * 复合主键
+     */
+    @Getter
+    @Setter
+    public static class Key implements Serializable {
+        private String orderId;
+        private String warehouseId;
+        private String skuCode;
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return Objects.equals(orderId, key.orderId) &&
+                    Objects.equals(warehouseId, key.warehouseId) &&
+                    Objects.equals(skuCode, key.skuCode);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(orderId, warehouseId, skuCode);
+        }
+    }
+}
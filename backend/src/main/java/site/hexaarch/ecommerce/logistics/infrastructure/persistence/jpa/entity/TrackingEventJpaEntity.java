@@ -0,0 +1,81 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * 物流轨迹事件JPA实体，只追加的时间线表。
+ * <p>
+ * 主键(运单号, 发生时间, 状态)既用于忽略重复扫描，也使同一运单的时间线按发生时间连续存放。
+ * 发生时间保存为UTC毫秒时间戳，表可以按发生时间做范围分区，由DBA在建表后执行，例如：
+ * <pre>
+ * ALTER TABLE logistics_tracking_events PARTITION BY RANGE (occurred_at) (
+ *     PARTITION p202610 VALUES LESS THAN (1793491200000),
+ *     PARTITION pmax VALUES LESS THAN MAXVALUE
+ * );
+ * </pre>
+ * 过期的轨迹通过删除整个分区清理，不逐行删除。
+ *
+ * @author kenyon
+ */
+@Entity
+@Table(name = "logistics_tracking_events")
+@IdClass(TrackingEventJpaEntity.Key.class)
+@Getter
+@Setter
+public class TrackingEventJpaEntity {
+    @Id
+    @Column(name = "tracking_number", length = 64, nullable = false)
+    private String trackingNumber;
+
+    @Id
+    @Column(name = "occurred_at", nullable = false)
+    private Long occurredAt;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 20, nullable = false)
+    private LogisticsStatusJpaEntity status;
+
+    @Column(name = "location", length = 64)
+    private String location;
+
+    @Column(name = "description")
+    private String description;
+
+    /**
+     * 复合主键
+     */
+    @Getter
+    @Setter
+    public static class Key implements Serializable {
+        private String trackingNumber;
+        private Long occurredAt;
+        private LogisticsStatusJpaEntity status;
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return Objects.equals(trackingNumber, key.trackingNumber) &&
+                    Objects.equals(occurredAt, key.occurredAt) &&
+                    status == key.status;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(trackingNumber, occurredAt, status);
+        }
+    }
+}
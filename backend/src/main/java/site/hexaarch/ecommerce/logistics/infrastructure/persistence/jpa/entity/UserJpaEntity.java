@@ -1,13 +1,19 @@
 package site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity;
 
+import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
 import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.Setter;
 
 import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
 
 /**
  * 用户JPA实体，用于持久化用户聚合根。
@@ -47,6 +53,11 @@ public class UserJpaEntity {
     @Column(name = "status", nullable = false)
     private String status;
 
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "user_roles", joinColumns = @JoinColumn(name = "user_id"))
+    @Column(name = "role_id")
+    private Set<String> roleIds = new HashSet<>();
+
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
@@ -57,6 +68,7 @@ public class UserJpaEntity {
         this.createdAt = LocalDateTime.now();
         this.updatedAt = LocalDateTime.now();
         this.status = "ACTIVE";
+        this.roleIds = new HashSet<>();
     }
 
     // Getter methods
@@ -133,6 +145,14 @@ public class UserJpaEntity {
         this.status = status;
     }
 
+    public Set<String> getRoleIds() {
+        return roleIds;
+    }
+
+    public void setRoleIds(Set<String> roleIds) {
+        this.roleIds = roleIds;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,83 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.outbox;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 发件箱事件JPA实体，与聚合在同一事务中写入，由后台中继异步投递到消息队列。
+ * 自增ID决定投递顺序，同一聚合的事件按ID顺序投递。
+ * 中继认领事件时写入租约持有者和到期时间，投递在认领事务提交后进行，租约到期未回写的事件可被重新认领。
+ *
+ * @author kenyon
+ */
+@Entity
+@Table(name = "outbox_events", indexes = {
+        @Index(name = "idx_outbox_events_status_id", columnList = "status, id"),
+        @Index(name = "idx_outbox_events_status_sent_at", columnList = "status, sent_at"),
+        @Index(name = "idx_outbox_events_aggregate_status", columnList = "aggregate_type, aggregate_id, status")
+})
+@Getter
+@Setter
+public class OutboxEventJpaEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", updatable = false, nullable = false)
+    private Long id;
+
+    @Column(name = "event_id", updatable = false, nullable = false, unique = true, length = 36)
+    private String eventId;
+
+    @Column(name = "aggregate_type", nullable = false)
+    private String aggregateType;
+
+    @Column(name = "aggregate_id", nullable = false)
+    private String aggregateId;
+
+    @Column(name = "event_type", nullable = false)
+    private String eventType;
+
+    @Column(name = "topic", nullable = false)
+    private String topic;
+
+    @Column(name = "tag")
+    private String tag;
+
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private OutboxEventStatusJpaEntity status;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "lease_owner", length = 100)
+    private String leaseOwner;
+
+    @Column(name = "lease_until")
+    private LocalDateTime leaseUntil;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+}
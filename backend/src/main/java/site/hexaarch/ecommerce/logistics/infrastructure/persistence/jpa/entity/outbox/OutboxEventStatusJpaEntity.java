@@ -0,0 +1,12 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.outbox;
+
+/**
+ * 发件箱事件状态JPA枚举。
+ *
+ * @author kenyon
+ */
+public enum OutboxEventStatusJpaEntity {
+    PENDING,    // 待投递
+    SENT,       // 已投递
+    FAILED      // 超过最大投递次数，转为死信，需人工处理
+}
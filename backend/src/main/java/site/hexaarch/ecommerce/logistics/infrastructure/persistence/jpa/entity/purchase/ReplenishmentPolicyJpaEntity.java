@@ -0,0 +1,79 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.purchase;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * 补货策略JPA实体，主键为(仓库ID, SKU编码)。
+ *
+ * @author kenyon
+ */
+@Entity
+@Table(name = "replenishment_policies")
+@IdClass(ReplenishmentPolicyJpaEntity.Key.class)
+@Getter
+@Setter
+public class ReplenishmentPolicyJpaEntity {
+    @Id
+    @Column(name = "warehouse_id", nullable = false)
+    private String warehouseId;
+
+    @Id
+    @Column(name = "sku_code", nullable = false)
+    private String skuCode;
+
+    @Column(name = "product_name")
+    private String productName;
+
+    @Column(name = "reorder_point", nullable = false)
+    private int reorderPoint;
+
+    @Column(name = "reorder_quantity", nullable = false)
+    private int reorderQuantity;
+
+    @Column(name = "supplier_id", nullable = false)
+    private String supplierId;
+
+    @Column(name = "supplier_name")
+    private String supplierName;
+
+    @Column(name = "unit_cost", precision = 19, scale = 4)
+    private BigDecimal unitCost;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    /**
+     * 复合主键
+     */
+    @Getter
+    @Setter
+    public static class Key implements Serializable {
+        private String warehouseId;
+        private String skuCode;
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return Objects.equals(warehouseId, key.warehouseId) &&
+                    Objects.equals(skuCode, key.skuCode);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(warehouseId, skuCode);
+        }
+    }
+}
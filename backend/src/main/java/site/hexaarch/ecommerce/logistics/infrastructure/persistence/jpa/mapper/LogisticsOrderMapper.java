@@ -39,61 +39,22 @@ public interface LogisticsOrderMapper {
      * 将JPA实体转换为物流单领域模型
      */
     default LogisticsOrder toDomainAggregate(LogisticsOrderJpaEntity logisticsOrderJpaEntity) {
-        try {
-            java.lang.reflect.Constructor<LogisticsOrder> constructor = LogisticsOrder.class.getDeclaredConstructor();
-            constructor.setAccessible(true);
-            LogisticsOrder logisticsOrder = constructor.newInstance();
-
-            // 设置各个字段
-            java.lang.reflect.Field logisticsOrderIdField = LogisticsOrder.class.getDeclaredField("logisticsOrderId");
-            logisticsOrderIdField.setAccessible(true);
-            logisticsOrderIdField.set(logisticsOrder, logisticsOrderJpaEntity.getId());
-
-            java.lang.reflect.Field tenantIdField = LogisticsOrder.class.getDeclaredField("tenantId");
-            tenantIdField.setAccessible(true);
-            tenantIdField.set(logisticsOrder, "default-tenant"); // 暂时设置默认租户ID，实际应用中应该从JPA实体中获取
-
-            java.lang.reflect.Field orderIdField = LogisticsOrder.class.getDeclaredField("orderId");
-            orderIdField.setAccessible(true);
-            orderIdField.set(logisticsOrder, logisticsOrderJpaEntity.getOrderId());
-
-            java.lang.reflect.Field logisticsChannelIdField = LogisticsOrder.class.getDeclaredField("logisticsChannelId");
-            logisticsChannelIdField.setAccessible(true);
-            logisticsChannelIdField.set(logisticsOrder, logisticsOrderJpaEntity.getLogisticsChannel().getId());
-
-            java.lang.reflect.Field logisticsStatusField = LogisticsOrder.class.getDeclaredField("logisticsStatus");
-            logisticsStatusField.setAccessible(true);
-            logisticsStatusField.set(logisticsOrder, logisticsStatusFromJpaEntity(logisticsOrderJpaEntity.getStatus()));
-
-            java.lang.reflect.Field logisticsLabelField = LogisticsOrder.class.getDeclaredField("logisticsLabel");
-            logisticsLabelField.setAccessible(true);
-            logisticsLabelField.set(logisticsOrder, toDomainValueObject(logisticsOrderJpaEntity.getLogisticsLabel()));
-
-            java.lang.reflect.Field logisticsFeeField = LogisticsOrder.class.getDeclaredField("logisticsFee");
-            logisticsFeeField.setAccessible(true);
-            logisticsFeeField.set(logisticsOrder, toDomainValueObject(logisticsOrderJpaEntity.getLogisticsFee()));
-
-            java.lang.reflect.Field trackingNumberField = LogisticsOrder.class.getDeclaredField("trackingNumber");
-            trackingNumberField.setAccessible(true);
-            trackingNumberField.set(logisticsOrder, logisticsOrderJpaEntity.getTrackingNumber());
-
-            java.lang.reflect.Field createdAtField = LogisticsOrder.class.getDeclaredField("createdAt");
-            createdAtField.setAccessible(true);
-            createdAtField.set(logisticsOrder, longToLocalDateTime(logisticsOrderJpaEntity.getCreatedAt()));
-
-            java.lang.reflect.Field updatedAtField = LogisticsOrder.class.getDeclaredField("updatedAt");
-            updatedAtField.setAccessible(true);
-            updatedAtField.set(logisticsOrder, longToLocalDateTime(logisticsOrderJpaEntity.getUpdatedAt()));
-
-            // 初始化domainEvents字段
-            java.lang.reflect.Field domainEventsField = LogisticsOrder.class.getDeclaredField("domainEvents");
-            domainEventsField.setAccessible(true);
-            domainEventsField.set(logisticsOrder, new java.util.ArrayList<>());
-
-            return logisticsOrder;
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to create LogisticsOrder from JPA entity", e);
+        if (logisticsOrderJpaEntity == null) {
+            return null;
         }
+        LogisticsChannelJpaEntity logisticsChannel = logisticsOrderJpaEntity.getLogisticsChannel();
+        return LogisticsOrder.reconstitute(
+                logisticsOrderJpaEntity.getId(),
+                "default-tenant", // 暂时设置默认租户ID，实际应用中应该从JPA实体中获取
+                logisticsOrderJpaEntity.getOrderId(),
+                logisticsChannel != null ? logisticsChannel.getId() : null,
+                logisticsOrderJpaEntity.getStatus() != null ? logisticsStatusFromJpaEntity(logisticsOrderJpaEntity.getStatus()) : null,
+                logisticsOrderJpaEntity.getTrackingNumber(),
+                toDomainValueObject(logisticsOrderJpaEntity.getLogisticsLabel()),
+                toDomainValueObject(logisticsOrderJpaEntity.getLogisticsFee()),
+                longToLocalDateTime(logisticsOrderJpaEntity.getCreatedAt()),
+                longToLocalDateTime(logisticsOrderJpaEntity.getUpdatedAt())
+        );
     }
 
     /**
@@ -123,10 +84,12 @@ public interface LogisticsOrderMapper {
 
     /**
      * 将物流标签JPA实体转换为值对象
+     * 标签表只保存标签ID和条码，发货人、收件人和包裹信息在打印时由物流单和订单重新组装，
+     * 因此读取时不还原标签值对象，避免构造缺少必填字段的标签；仓库保存时沿用已有的标签行
      */
-    @Mapping(source = "id", target = "labelId")
-    @Mapping(source = "labelData", target = "barcode")
-    LogisticsLabel toDomainValueObject(LogisticsLabelJpaEntity logisticsLabelJpaEntity);
+    default LogisticsLabel toDomainValueObject(LogisticsLabelJpaEntity logisticsLabelJpaEntity) {
+        return null;
+    }
 
     /**
      * 将物流费用值对象转换为JPA实体
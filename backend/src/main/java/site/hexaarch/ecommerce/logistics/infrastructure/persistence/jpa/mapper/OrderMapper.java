@@ -43,53 +43,21 @@ public interface OrderMapper {
      * 将JPA实体转换为订单领域模型
      */
     default Order toDomainAggregate(OrderJpaEntity orderJpaEntity) {
-        try {
-            java.lang.reflect.Constructor<Order> constructor = Order.class.getDeclaredConstructor();
-            constructor.setAccessible(true);
-            Order order = constructor.newInstance();
-
-            // 设置各个字段
-            java.lang.reflect.Field idField = Order.class.getDeclaredField("id");
-            idField.setAccessible(true);
-            idField.set(order, orderJpaEntity.getId());
-
-            java.lang.reflect.Field orderNumberField = Order.class.getDeclaredField("orderNumber");
-            orderNumberField.setAccessible(true);
-            orderNumberField.set(order, orderJpaEntity.getOrderNumber());
-
-            java.lang.reflect.Field orderStatusField = Order.class.getDeclaredField("orderStatus");
-            orderStatusField.setAccessible(true);
-            orderStatusField.set(order, orderStatusFromJpaEntity(orderJpaEntity.getStatus()));
-
-            java.lang.reflect.Field shippingAddressField = Order.class.getDeclaredField("shippingAddress");
-            shippingAddressField.setAccessible(true);
-            shippingAddressField.set(order, toDomainValueObject(orderJpaEntity.getShippingAddress()));
-
-            java.lang.reflect.Field paymentInfoField = Order.class.getDeclaredField("paymentInfo");
-            paymentInfoField.setAccessible(true);
-            paymentInfoField.set(order, toDomainValueObject(orderJpaEntity.getPaymentInfo()));
-
-            java.lang.reflect.Field orderItemsField = Order.class.getDeclaredField("orderItems");
-            orderItemsField.setAccessible(true);
-            orderItemsField.set(order, toDomainEntityList(orderJpaEntity.getOrderItems()));
-
-            java.lang.reflect.Field createdAtField = Order.class.getDeclaredField("createdAt");
-            createdAtField.setAccessible(true);
-            createdAtField.set(order, longToLocalDateTime(orderJpaEntity.getCreatedAt()));
-
-            java.lang.reflect.Field updatedAtField = Order.class.getDeclaredField("updatedAt");
-            updatedAtField.setAccessible(true);
-            updatedAtField.set(order, longToLocalDateTime(orderJpaEntity.getUpdatedAt()));
-
-            // 初始化domainEvents字段
-            java.lang.reflect.Field domainEventsField = Order.class.getDeclaredField("domainEvents");
-            domainEventsField.setAccessible(true);
-            domainEventsField.set(order, new java.util.ArrayList<>());
-
-            return order;
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to create Order from JPA entity", e);
+        if (orderJpaEntity == null) {
+            return null;
         }
+        return Order.reconstitute(
+                orderJpaEntity.getId(),
+                "default-tenant", // 暂时设置默认租户ID，实际应用中应该从JPA实体中获取
+                orderJpaEntity.getCustomerId(),
+                orderJpaEntity.getOrderNumber(),
+                toDomainEntityList(orderJpaEntity.getOrderItems()),
+                toDomainValueObject(orderJpaEntity.getShippingAddress()),
+                toDomainValueObject(orderJpaEntity.getPaymentInfo()),
+                longToLocalDateTime(orderJpaEntity.getCreatedAt()),
+                orderJpaEntity.getStatus() != null ? orderStatusFromJpaEntity(orderJpaEntity.getStatus()) : null,
+                longToLocalDateTime(orderJpaEntity.getUpdatedAt())
+        );
     }
 
     /**
@@ -6,6 +6,7 @@ import org.mapstruct.Named;
 import site.hexaarch.ecommerce.logistics.domain.product.aggregate.Product;
 import site.hexaarch.ecommerce.logistics.domain.product.entity.ProductCategory;
 import site.hexaarch.ecommerce.logistics.domain.product.entity.SKU;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.ProductCategoryJpaEntity;
 import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.ProductJpaEntity;
 import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.SkuJpaEntity;
 import site.hexaarch.ecommerce.logistics.interfaces.dto.product.ProductDto;
@@ -64,13 +65,20 @@ public interface ProductMapper {
     /**
      * 将产品JPA实体转换为产品领域模型
      */
-    @Mapping(source = "id", target = "id")
-    @Mapping(source = "name", target = "name")
-    @Mapping(source = "description", target = "description")
-    @Mapping(target = "category", expression = "java(createProductCategory(productJpaEntity))")
-    @Mapping(source = "skus", target = "skus")
-    @Mapping(source = "active", target = "active")
-    Product toDomainAggregate(ProductJpaEntity productJpaEntity);
+    default Product toDomainAggregate(ProductJpaEntity productJpaEntity) {
+        if (productJpaEntity == null) {
+            return null;
+        }
+        return Product.reconstitute(
+                productJpaEntity.getId(),
+                null, // 产品JPA实体暂未持久化租户ID
+                createProductCategory(productJpaEntity),
+                productJpaEntity.getName(),
+                productJpaEntity.getDescription(),
+                toSkuDomainEntityList(productJpaEntity.getSkus()),
+                Boolean.TRUE.equals(productJpaEntity.getActive())
+        );
+    }
 
     @Named("bigDecimalToDouble")
     default Double bigDecimalToDouble(java.math.BigDecimal bigDecimal) {
@@ -103,6 +111,40 @@ public interface ProductMapper {
                 .build();
     }
 
+    /**
+     * 将产品分类领域实体转换为JPA实体
+     */
+    default ProductCategoryJpaEntity toCategoryJpaEntity(ProductCategory category) {
+        if (category == null) {
+            return null;
+        }
+        ProductCategoryJpaEntity entity = new ProductCategoryJpaEntity();
+        entity.setId(category.getId());
+        entity.setParentId(category.getParentId());
+        entity.setLevel(category.getLevel());
+        entity.setName(category.getName());
+        entity.setDescription(category.getDescription());
+        entity.setActive(category.isActive());
+        return entity;
+    }
+
+    /**
+     * 将产品分类JPA实体转换为领域实体
+     */
+    default ProductCategory toDomainCategory(ProductCategoryJpaEntity entity) {
+        if (entity == null) {
+            return null;
+        }
+        return ProductCategory.builder()
+                .id(entity.getId())
+                .parentId(entity.getParentId())
+                .level(entity.getLevel())
+                .name(entity.getName())
+                .description(entity.getDescription())
+                .active(Boolean.TRUE.equals(entity.getActive()))
+                .build();
+    }
+
     /**
      * 将SKU列表转换为JPA实体列表
      */
@@ -3,10 +3,14 @@ package site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.mapper;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Named;
+import site.hexaarch.ecommerce.logistics.domain.tenant.entity.Role;
 import site.hexaarch.ecommerce.logistics.domain.tenant.entity.User;
 import site.hexaarch.ecommerce.logistics.domain.tenant.valueobject.UserStatus;
 import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.UserJpaEntity;
 
+import java.util.HashSet;
+import java.util.Set;
+
 /**
  * 用户映射器，用于在用户领域模型和JPA实体之间进行转换。
  *
@@ -27,6 +31,7 @@ public interface UserMapper {
     @Mapping(source = "firstName", target = "firstName")
     @Mapping(source = "lastName", target = "lastName")
     @Mapping(source = "status", target = "status", qualifiedByName = "userStatusToString")
+    @Mapping(source = "roles", target = "roleIds", qualifiedByName = "rolesToRoleIds")
     @Mapping(source = "createdAt", target = "createdAt")
     @Mapping(source = "updatedAt", target = "updatedAt")
     UserJpaEntity toJpaEntity(User user);
@@ -83,6 +88,20 @@ public interface UserMapper {
         return status != null ? status.name() : UserStatus.ACTIVE.name();
     }
 
+    /**
+     * 将用户角色转换为角色ID集合，角色本身由角色表持久化
+     */
+    @Named("rolesToRoleIds")
+    default Set<String> rolesToRoleIds(Set<Role> roles) {
+        Set<String> roleIds = new HashSet<>();
+        if (roles != null) {
+            for (Role role : roles) {
+                roleIds.add(role.getId());
+            }
+        }
+        return roleIds;
+    }
+
     /**
      * 将String转换为UserStatus
      */
@@ -13,6 +13,7 @@ import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.L
 import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.WarehouseJpaEntity;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -41,65 +42,42 @@ public interface WarehouseMapper {
      * 将JPA实体转换为仓库领域模型
      */
     default Warehouse toDomainAggregate(WarehouseJpaEntity warehouseJpaEntity) {
-        try {
-            java.lang.reflect.Constructor<Warehouse> constructor = Warehouse.class.getDeclaredConstructor();
-            constructor.setAccessible(true);
-            Warehouse warehouse = constructor.newInstance();
-
-            // 设置各个字段
-            java.lang.reflect.Field warehouseIdField = Warehouse.class.getDeclaredField("warehouseId");
-            warehouseIdField.setAccessible(true);
-            warehouseIdField.set(warehouse, warehouseJpaEntity.getId());
-
-            java.lang.reflect.Field tenantIdField = Warehouse.class.getDeclaredField("tenantId");
-            tenantIdField.setAccessible(true);
-            tenantIdField.set(warehouse, "default-tenant"); // 暂时设置默认租户ID，实际应用中应该从JPA实体中获取
-
-            java.lang.reflect.Field warehouseNameField = Warehouse.class.getDeclaredField("warehouseName");
-            warehouseNameField.setAccessible(true);
-            warehouseNameField.set(warehouse, warehouseJpaEntity.getWarehouseName());
-
-            java.lang.reflect.Field warehouseCodeField = Warehouse.class.getDeclaredField("warehouseCode");
-            warehouseCodeField.setAccessible(true);
-            warehouseCodeField.set(warehouse, warehouseJpaEntity.getWarehouseCode());
-
-            java.lang.reflect.Field addressField = Warehouse.class.getDeclaredField("address");
-            addressField.setAccessible(true);
-            addressField.set(warehouse, warehouseJpaEntity.getAddress());
-
-            java.lang.reflect.Field capacityField = Warehouse.class.getDeclaredField("capacity");
-            capacityField.setAccessible(true);
-            capacityField.set(warehouse, warehouseJpaEntity.getCapacity());
-
-            java.lang.reflect.Field activeField = Warehouse.class.getDeclaredField("active");
-            activeField.setAccessible(true);
-            activeField.set(warehouse, warehouseJpaEntity.isActive());
-
-            java.lang.reflect.Field locationsField = Warehouse.class.getDeclaredField("locations");
-            locationsField.setAccessible(true);
-            locationsField.set(warehouse, toLocationDomainEntityList(warehouseJpaEntity.getLocations()));
-
-            java.lang.reflect.Field inventoryRecordsField = Warehouse.class.getDeclaredField("inventoryRecords");
-            inventoryRecordsField.setAccessible(true);
-            inventoryRecordsField.set(warehouse, toInventoryRecordDomainEntityList(warehouseJpaEntity.getInventoryRecords()));
-
-            java.lang.reflect.Field createdAtField = Warehouse.class.getDeclaredField("createdAt");
-            createdAtField.setAccessible(true);
-            createdAtField.set(warehouse, warehouseJpaEntity.getCreatedAt());
-
-            java.lang.reflect.Field updatedAtField = Warehouse.class.getDeclaredField("updatedAt");
-            updatedAtField.setAccessible(true);
-            updatedAtField.set(warehouse, warehouseJpaEntity.getUpdatedAt());
-
-            // 初始化domainEvents字段
-            java.lang.reflect.Field domainEventsField = Warehouse.class.getDeclaredField("domainEvents");
-            domainEventsField.setAccessible(true);
-            domainEventsField.set(warehouse, new java.util.ArrayList<>());
-
-            return warehouse;
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to create Warehouse from JPA entity", e);
+        if (warehouseJpaEntity == null) {
+            return null;
         }
+        // 库存索引字段保持为null，由聚合根在首次查找库存记录时惰性重建
+        return Warehouse.reconstitute(
+                warehouseJpaEntity.getId(),
+                "default-tenant", // 暂时设置默认租户ID，实际应用中应该从JPA实体中获取
+                warehouseJpaEntity.getWarehouseName(),
+                warehouseJpaEntity.getWarehouseCode(),
+                warehouseJpaEntity.getAddress(),
+                warehouseJpaEntity.getCapacity(),
+                toLocationDomainEntityList(warehouseJpaEntity.getLocations()),
+                toInventoryRecordDomainEntityList(warehouseJpaEntity.getInventoryRecords()),
+                warehouseJpaEntity.isActive(),
+                warehouseJpaEntity.getCreatedAt(),
+                warehouseJpaEntity.getUpdatedAt()
+        );
+    }
+
+    /**
+     * 将仓库JPA实体的基本信息和部分库存记录转换为仓库库存切片，不访问库位和库存记录集合
+     */
+    default Warehouse toInventorySlice(WarehouseJpaEntity warehouseJpaEntity, List<InventoryRecordJpaEntity> inventoryRecordJpaEntities) {
+        return Warehouse.builder()
+                .warehouseId(warehouseJpaEntity.getId())
+                .tenantId("default-tenant") // 与toDomainAggregate保持一致，暂时设置默认租户ID
+                .warehouseName(warehouseJpaEntity.getWarehouseName())
+                .warehouseCode(warehouseJpaEntity.getWarehouseCode())
+                .address(warehouseJpaEntity.getAddress())
+                .capacity(warehouseJpaEntity.getCapacity())
+                .active(warehouseJpaEntity.isActive())
+                .inventoryRecords(new ArrayList<>(toInventoryRecordDomainEntityList(inventoryRecordJpaEntities)))
+                .createdAt(warehouseJpaEntity.getCreatedAt())
+                .updatedAt(warehouseJpaEntity.getUpdatedAt())
+                .inventorySlice(true)
+                .build();
     }
 
     /**
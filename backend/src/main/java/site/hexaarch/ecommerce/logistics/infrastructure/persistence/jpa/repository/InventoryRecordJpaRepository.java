@@ -1,10 +1,20 @@
 package site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.InventoryRecordJpaEntity;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * 库存记录JPA仓库接口，用于操作库存记录JPA实体。
@@ -22,8 +32,110 @@ public interface InventoryRecordJpaRepository extends JpaRepository<InventoryRec
      */
     List<InventoryRecordJpaEntity> findByWarehouseId(String warehouseId);
 
+    /**
+     * 根据仓库ID和产品ID集合查找库存记录
+     */
+    List<InventoryRecordJpaEntity> findByWarehouseIdAndProductIdIn(String warehouseId, Collection<String> productIds);
+
+    /**
+     * 根据仓库ID和SKU编码集合查找库存记录并加行锁
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from InventoryRecordJpaEntity r where r.warehouse.id = :warehouseId and r.skuCode in :skuCodes")
+    List<InventoryRecordJpaEntity> lockByWarehouseIdAndSkuCodeIn(@Param("warehouseId") String warehouseId,
+                                                                 @Param("skuCodes") Collection<String> skuCodes);
+
     /**
      * 根据SKU查找库存记录
      */
     List<InventoryRecordJpaEntity> findBySkuCode(String skuCode);
+
+    /**
+     * 流式读取所有库存记录的数量，只取标量字段，不加载实体
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select r.warehouse.id as warehouseId, r.skuCode as skuCode, r.productId as productId,"
+            + " r.quantity as quantity, r.reservedQuantity as reservedQuantity, r.allocatedQuantity as allocatedQuantity"
+            + " from InventoryRecordJpaEntity r")
+    Stream<InventoryLevel> streamInventoryLevels();
+
+    /**
+     * 流式读取仓库中所有库存记录的数量，只取标量字段，不加载实体
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select r.warehouse.id as warehouseId, r.skuCode as skuCode, r.productId as productId,"
+            + " r.quantity as quantity, r.reservedQuantity as reservedQuantity, r.allocatedQuantity as allocatedQuantity"
+            + " from InventoryRecordJpaEntity r where r.warehouse.id = :warehouseId")
+    Stream<InventoryLevel> streamInventoryLevelsByWarehouseId(@Param("warehouseId") String warehouseId);
+
+    /**
+     * 按SKU编码汇总各仓库的可用数量（在库减已预留减已分配），每条库存记录的负数按0计，没有库存记录的SKU不返回
+     */
+    @Query("select r.skuCode as skuCode, sum(case when r.quantity - r.reservedQuantity - r.allocatedQuantity > 0"
+            + " then r.quantity - r.reservedQuantity - r.allocatedQuantity else 0 end) as quantity"
+            + " from InventoryRecordJpaEntity r where r.skuCode in :skuCodes group by r.skuCode")
+    List<SkuAvailable> sumAvailableBySkuCodeIn(@Param("skuCodes") Collection<String> skuCodes);
+
+    /**
+     * 只更新库存记录的已预留和已分配数量并递增版本号，不修改在库数量，返回更新的行数
+     */
+    @Modifying
+    @Query("update InventoryRecordJpaEntity r set r.reservedQuantity = :reserved, r.allocatedQuantity = :allocated,"
+            + " r.version = coalesce(r.version, 0) + 1 where r.id = :id")
+    int updateCommittedQuantities(@Param("id") String id,
+                                  @Param("reserved") int reserved,
+                                  @Param("allocated") int allocated);
+
+    /**
+     * 按ID读取库存记录的在库数量，只取标量字段
+     */
+    @Query("select r.id as id, r.quantity as quantity from InventoryRecordJpaEntity r where r.id in :ids")
+    List<RecordQuantity> findQuantitiesByIdIn(@Param("ids") Collection<String> ids);
+
+    /**
+     * 查找有库存记录的仓库ID
+     */
+    @Query("select distinct r.warehouse.id from InventoryRecordJpaEntity r")
+    List<String> findWarehouseIds();
+
+    /**
+     * 库存记录数量投影
+     */
+    interface InventoryLevel {
+        String getWarehouseId();
+
+        String getSkuCode();
+
+        String getProductId();
+
+        Integer getQuantity();
+
+        int getReservedQuantity();
+
+        int getAllocatedQuantity();
+    }
+
+    /**
+     * 库存记录在库数量投影
+     */
+    interface RecordQuantity {
+        String getId();
+
+        Integer getQuantity();
+    }
+
+    /**
+     * SKU可用数量合计投影
+     */
+    interface SkuAvailable {
+        String getSkuCode();
+
+        Long getQuantity();
+    }
 }
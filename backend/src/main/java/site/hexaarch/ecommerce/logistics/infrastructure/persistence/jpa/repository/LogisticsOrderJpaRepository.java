@@ -1,8 +1,17 @@
 package site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.LogisticsOrderJpaEntity;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.LogisticsStatusJpaEntity;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -20,4 +29,52 @@ public interface LogisticsOrderJpaRepository extends JpaRepository<LogisticsOrde
      * 根据订单ID查找物流单
      */
     Optional<LogisticsOrderJpaEntity> findByOrderId(String orderId);
+
+    /**
+     * 根据ID集合查找物流单，标签和费用在同一条查询中连接读取
+     */
+    @EntityGraph(attributePaths = {"logisticsLabel", "logisticsFee"})
+    List<LogisticsOrderJpaEntity> findWithLabelAndFeeByIdIn(Collection<String> ids);
+
+    /**
+     * 根据运单号集合查找运单状态，只查询投影中的列
+     */
+    List<ShipmentStatusView> findByTrackingNumberIn(Collection<String> trackingNumbers);
+
+    /**
+     * 把仍处于原状态的物流单批量更新为新状态
+     *
+     * @param ids       物流单ID集合
+     * @param oldStatus 原状态
+     * @param newStatus 新状态
+     * @param updatedAt 更新时间
+     * @return 更新的行数
+     */
+    @Modifying
+    @Query("update LogisticsOrderJpaEntity o set o.status = :newStatus, o.updatedAt = :updatedAt"
+            + " where o.id in :ids and o.status = :oldStatus")
+    int updateStatusIfUnchanged(@Param("ids") Collection<String> ids,
+                                @Param("oldStatus") LogisticsStatusJpaEntity oldStatus,
+                                @Param("newStatus") LogisticsStatusJpaEntity newStatus,
+                                @Param("updatedAt") Long updatedAt);
+
+    /**
+     * 锁定ID集合中仍处于指定状态的物流单，返回其ID。锁持有到事务结束，期间这些行不会被并发修改。
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select o.id from LogisticsOrderJpaEntity o where o.id in :ids and o.status = :status")
+    List<String> lockIdsByStatus(@Param("ids") Collection<String> ids, @Param("status") LogisticsStatusJpaEntity status);
+
+    /**
+     * 运单状态投影
+     */
+    interface ShipmentStatusView {
+        String getId();
+
+        String getOrderId();
+
+        String getTrackingNumber();
+
+        LogisticsStatusJpaEntity getStatus();
+    }
 }
@@ -0,0 +1,12 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.OrderImportRejectionJpaEntity;
+
+/**
+ * 被拒绝的平台订单JPA仓库接口。
+ *
+ * @author kenyon
+ */
+public interface OrderImportRejectionJpaRepository extends JpaRepository<OrderImportRejectionJpaEntity, Long> {
+}
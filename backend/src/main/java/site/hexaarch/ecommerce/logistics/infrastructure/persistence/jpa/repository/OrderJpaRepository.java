@@ -1,11 +1,20 @@
 package site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.OrderJpaEntity;
 import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.OrderStatusJpaEntity;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * 订单JPA仓库接口，用于操作订单JPA实体。
@@ -19,12 +28,85 @@ public interface OrderJpaRepository extends JpaRepository<OrderJpaEntity, String
     Optional<OrderJpaEntity> findByOrderNumber(String orderNumber);
 
     /**
-     * 根据客户ID查找订单
+     * 根据客户ID查找订单，订单行项按批次加载
      */
+    @EntityGraph(OrderJpaEntity.SUMMARY_GRAPH)
     Collection<OrderJpaEntity> findByCustomerId(String customerId);
 
     /**
-     * 根据订单状态查找订单
+     * 根据订单状态查找订单，订单行项按批次加载
      */
+    @EntityGraph(OrderJpaEntity.SUMMARY_GRAPH)
     Collection<OrderJpaEntity> findByStatus(OrderStatusJpaEntity status);
+
+    /**
+     * 查找所有订单，订单行项按批次加载
+     */
+    @Override
+    @EntityGraph(OrderJpaEntity.SUMMARY_GRAPH)
+    List<OrderJpaEntity> findAll();
+
+    /**
+     * 根据ID查找订单，一条语句抓取收货地址、付款信息和订单行项
+     */
+    @EntityGraph(OrderJpaEntity.FULL_GRAPH)
+    Optional<OrderJpaEntity> findFullById(String id);
+
+    /**
+     * 根据ID查找订单，只抓取收货地址和付款信息
+     */
+    @EntityGraph(OrderJpaEntity.SUMMARY_GRAPH)
+    Optional<OrderJpaEntity> findSummaryById(String id);
+
+    /**
+     * 根据ID集合查找订单，一条语句抓取收货地址、付款信息和订单行项
+     */
+    @EntityGraph(OrderJpaEntity.FULL_GRAPH)
+    List<OrderJpaEntity> findFullByIdIn(Collection<String> ids);
+
+    /**
+     * 按(创建时间, ID)倒序查找第一页订单，状态和客户ID为null时不过滤
+     */
+    @EntityGraph(OrderJpaEntity.SUMMARY_GRAPH)
+    @Query("select o from OrderJpaEntity o"
+            + " where (:status is null or o.status = :status)"
+            + " and (:customerId is null or o.customerId = :customerId)"
+            + " order by o.createdAt desc, o.id desc")
+    List<OrderJpaEntity> findFirstPage(@Param("status") OrderStatusJpaEntity status,
+                                       @Param("customerId") String customerId,
+                                       Pageable pageable);
+
+    /**
+     * 按(创建时间, ID)倒序查找游标位置之后的订单，状态和客户ID为null时不过滤
+     */
+    @EntityGraph(OrderJpaEntity.SUMMARY_GRAPH)
+    @Query("select o from OrderJpaEntity o"
+            + " where (:status is null or o.status = :status)"
+            + " and (:customerId is null or o.customerId = :customerId)"
+            + " and (o.createdAt < :createdAt or (o.createdAt = :createdAt and o.id < :id))"
+            + " order by o.createdAt desc, o.id desc")
+    List<OrderJpaEntity> findPageAfter(@Param("status") OrderStatusJpaEntity status,
+                                       @Param("customerId") String customerId,
+                                       @Param("createdAt") Long createdAt,
+                                       @Param("id") String id,
+                                       Pageable pageable);
+
+    /**
+     * 查找给定订单编号中已存在的订单编号
+     */
+    @Query("select o.orderNumber from OrderJpaEntity o where o.orderNumber in :orderNumbers")
+    List<String> findOrderNumbersIn(@Param("orderNumbers") Collection<String> orderNumbers);
+
+    /**
+     * 按(创建时间, ID)倒序流式读取订单，使用游标抓取避免一次加载整个结果集
+     */
+    @EntityGraph(OrderJpaEntity.SUMMARY_GRAPH)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select o from OrderJpaEntity o"
+            + " where (:status is null or o.status = :status)"
+            + " order by o.createdAt desc, o.id desc")
+    Stream<OrderJpaEntity> streamAll(@Param("status") OrderStatusJpaEntity status);
 }
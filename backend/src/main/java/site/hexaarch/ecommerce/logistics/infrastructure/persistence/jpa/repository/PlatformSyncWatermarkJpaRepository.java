@@ -0,0 +1,69 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.PlatformSyncWatermarkJpaEntity;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 平台同步水位JPA仓库接口。
+ *
+ * @author kenyon
+ */
+public interface PlatformSyncWatermarkJpaRepository
+        extends JpaRepository<PlatformSyncWatermarkJpaEntity, PlatformSyncWatermarkJpaEntity.Key> {
+    /**
+     * 根据同步类型查找水位
+     */
+    List<PlatformSyncWatermarkJpaEntity> findBySyncType(String syncType);
+
+    /**
+     * 更新同步进度，不修改租约列，返回更新的行数
+     */
+    @Transactional
+    @Modifying
+    @Query("update PlatformSyncWatermarkJpaEntity w set w.updatedSince = :updatedSince, w.cursor = :cursor,"
+            + " w.runStartedAt = :runStartedAt, w.nextRunAt = :nextRunAt, w.consecutiveFailures = :consecutiveFailures,"
+            + " w.lastSuccessAt = :lastSuccessAt, w.lastError = :lastError"
+            + " where w.platformId = :platformId and w.syncType = :syncType")
+    int updateProgress(@Param("platformId") UUID platformId,
+                       @Param("syncType") String syncType,
+                       @Param("updatedSince") LocalDateTime updatedSince,
+                       @Param("cursor") String cursor,
+                       @Param("runStartedAt") LocalDateTime runStartedAt,
+                       @Param("nextRunAt") LocalDateTime nextRunAt,
+                       @Param("consecutiveFailures") int consecutiveFailures,
+                       @Param("lastSuccessAt") LocalDateTime lastSuccessAt,
+                       @Param("lastError") String lastError);
+
+    /**
+     * 租约空闲、已过期或已由同一节点持有时设置租约，返回更新的行数
+     */
+    @Transactional
+    @Modifying
+    @Query("update PlatformSyncWatermarkJpaEntity w set w.leaseOwner = :owner, w.leaseUntil = :leaseUntil"
+            + " where w.platformId = :platformId and w.syncType = :syncType"
+            + " and (w.leaseOwner is null or w.leaseOwner = :owner or w.leaseUntil < :now)")
+    int acquireLease(@Param("platformId") UUID platformId,
+                     @Param("syncType") String syncType,
+                     @Param("owner") String owner,
+                     @Param("now") LocalDateTime now,
+                     @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    /**
+     * 释放同一节点持有的租约
+     */
+    @Transactional
+    @Modifying
+    @Query("update PlatformSyncWatermarkJpaEntity w set w.leaseOwner = null, w.leaseUntil = null"
+            + " where w.platformId = :platformId and w.syncType = :syncType and w.leaseOwner = :owner")
+    int releaseLease(@Param("platformId") UUID platformId,
+                     @Param("syncType") String syncType,
+                     @Param("owner") String owner);
+}
@@ -0,0 +1,12 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.ProductCategoryJpaEntity;
+
+/**
+ * 产品分类JPA仓库接口，用于操作产品分类JPA实体。
+ *
+ * @author kenyon
+ */
+public interface ProductCategoryJpaRepository extends JpaRepository<ProductCategoryJpaEntity, String> {
+}
@@ -1,11 +1,14 @@
 package site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.ProductJpaEntity;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -31,4 +34,13 @@ public interface ProductJpaRepository extends JpaRepository<ProductJpaEntity, St
      */
     @Query("SELECT p FROM ProductJpaEntity p JOIN p.skus s WHERE s.skuCode = :skuCode")
     Optional<ProductJpaEntity> findBySkuCode(@Param("skuCode") String skuCode);
+
+    /**
+     * 根据分类ID集合分页查找产品
+     *
+     * @param categoryIds 分类ID集合
+     * @param pageable    分页参数
+     * @return 产品实体列表
+     */
+    List<ProductJpaEntity> findByCategoryIdIn(Collection<String> categoryIds, Pageable pageable);
 }
\ No newline at end of file
@@ -1,9 +1,11 @@
 package site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.RoleJpaEntity;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -30,4 +32,13 @@ public interface RoleJpaRepository extends JpaRepository<RoleJpaEntity, String>
      * @return 角色实体列表
      */
     List<RoleJpaEntity> findByTenantId(String tenantId);
+
+    /**
+     * 根据租户ID集合查找角色列表，同一条查询取回角色的权限
+     *
+     * @param tenantIds 租户ID集合
+     * @return 角色实体列表
+     */
+    @EntityGraph(attributePaths = "permissions")
+    List<RoleJpaEntity> findWithPermissionsByTenantIdIn(Collection<String> tenantIds);
 }
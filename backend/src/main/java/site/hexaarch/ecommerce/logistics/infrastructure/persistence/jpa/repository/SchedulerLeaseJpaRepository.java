@@ -0,0 +1,51 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.SchedulerLeaseJpaEntity;
+
+import java.time.LocalDateTime;
+
+/**
+ * 定时任务租约JPA仓库接口。
+ *
+ * @author kenyon
+ */
+public interface SchedulerLeaseJpaRepository extends JpaRepository<SchedulerLeaseJpaEntity, String> {
+    /**
+     * 租约空闲、已过期或已由同一节点持有时设置租约，返回更新的行数
+     */
+    @Transactional
+    @Modifying
+    @Query("update SchedulerLeaseJpaEntity l set l.leaseOwner = :owner, l.leaseUntil = :leaseUntil"
+            + " where l.leaseName = :leaseName"
+            + " and (l.leaseOwner is null or l.leaseOwner = :owner or l.leaseUntil < :now)")
+    int acquireLease(@Param("leaseName") String leaseName,
+                     @Param("owner") String owner,
+                     @Param("now") LocalDateTime now,
+                     @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    /**
+     * 插入租约行并由该节点持有，租约行已存在时抛出数据完整性异常
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "insert into scheduler_leases (lease_name, lease_owner, lease_until) values (:leaseName, :owner, :leaseUntil)",
+            nativeQuery = true)
+    int insertLease(@Param("leaseName") String leaseName,
+                    @Param("owner") String owner,
+                    @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    /**
+     * 释放同一节点持有的租约
+     */
+    @Transactional
+    @Modifying
+    @Query("update SchedulerLeaseJpaEntity l set l.leaseOwner = null, l.leaseUntil = null"
+            + " where l.leaseName = :leaseName and l.leaseOwner = :owner")
+    int releaseLease(@Param("leaseName") String leaseName,
+                     @Param("owner") String owner);
+}
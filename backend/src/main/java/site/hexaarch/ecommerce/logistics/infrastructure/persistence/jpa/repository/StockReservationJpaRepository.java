@@ -0,0 +1,36 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.StockReservationJpaEntity;
+
+import java.util.List;
+
+/**
+ * 库存预留JPA仓库接口。
+ *
+ * @author kenyon
+ */
+public interface StockReservationJpaRepository
+        extends JpaRepository<StockReservationJpaEntity, StockReservationJpaEntity.Key> {
+    /**
+     * 根据订单ID查找预留明细
+     */
+    List<StockReservationJpaEntity> findByOrderId(String orderId);
+
+    /**
+     * 将订单的预留明细标记为已分配，返回更新的行数
+     */
+    @Modifying
+    @Query("update StockReservationJpaEntity r set r.allocated = true where r.orderId = :orderId")
+    int markAllocated(@Param("orderId") String orderId);
+
+    /**
+     * 删除订单的预留明细，返回删除的行数
+     */
+    @Modifying
+    @Query("delete from StockReservationJpaEntity r where r.orderId = :orderId")
+    int deleteByOrderId(@Param("orderId") String orderId);
+}
@@ -0,0 +1,18 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.TrackingEventJpaEntity;
+
+import java.util.List;
+
+/**
+ * 物流轨迹事件JPA仓库接口，用于读取轨迹时间线。
+ *
+ * @author kenyon
+ */
+public interface TrackingEventJpaRepository extends JpaRepository<TrackingEventJpaEntity, TrackingEventJpaEntity.Key> {
+    /**
+     * 根据运单号按发生时间升序查找轨迹事件
+     */
+    List<TrackingEventJpaEntity> findByTrackingNumberOrderByOccurredAtAsc(String trackingNumber);
+}
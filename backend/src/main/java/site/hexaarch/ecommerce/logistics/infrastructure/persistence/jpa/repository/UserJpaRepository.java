@@ -1,5 +1,6 @@
 package site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.UserJpaEntity;
@@ -37,4 +38,13 @@ public interface UserJpaRepository extends JpaRepository<UserJpaEntity, String>
      * @return 用户实体列表
      */
     List<UserJpaEntity> findByTenantId(String tenantId);
+
+    /**
+     * 根据租户ID查找用户列表，同一条查询取回用户的角色ID
+     *
+     * @param tenantId 租户ID
+     * @return 用户实体列表
+     */
+    @EntityGraph(attributePaths = "roleIds")
+    List<UserJpaEntity> findWithRoleIdsByTenantId(String tenantId);
 }
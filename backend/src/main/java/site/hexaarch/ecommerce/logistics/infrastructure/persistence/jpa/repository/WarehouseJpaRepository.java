@@ -1,9 +1,13 @@
 package site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.WarehouseJpaEntity;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.Optional;
 
@@ -36,4 +40,15 @@ public interface WarehouseJpaRepository extends JpaRepository<WarehouseJpaEntity
      * @return
      */
     Collection<WarehouseJpaEntity> findByActiveTrue();
+
+    /**
+     * 只更新仓库的更新时间，不触及库位和库存记录
+     *
+     * @param id        仓库ID
+     * @param updatedAt 更新时间
+     * @return 更新的行数
+     */
+    @Modifying
+    @Query("update WarehouseJpaEntity w set w.updatedAt = :updatedAt where w.id = :id")
+    int touchUpdatedAt(@Param("id") String id, @Param("updatedAt") LocalDateTime updatedAt);
 }
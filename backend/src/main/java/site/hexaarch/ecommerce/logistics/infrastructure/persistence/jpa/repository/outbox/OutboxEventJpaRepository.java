@@ -0,0 +1,58 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.outbox;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.outbox.OutboxEventJpaEntity;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.outbox.OutboxEventStatusJpaEntity;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 发件箱事件JPA仓库接口。
+ *
+ * @author kenyon
+ */
+@Repository
+public interface OutboxEventJpaRepository extends JpaRepository<OutboxEventJpaEntity, Long> {
+    /**
+     * 按ID顺序锁定一批可认领的事件，跳过其他中继节点正在认领的行（SKIP LOCKED）。
+     * 只取各聚合中ID最小的待投递事件：聚合中更早的事件尚未投递（退避中、已被认领或正被其他节点锁定）时，
+     * 后续事件都不取出，多个节点并发认领和批次截断都不会打乱聚合内顺序。
+     *
+     * @param status   事件状态
+     * @param now      当前时间
+     * @param pageable 批大小
+     * @return 可认领的事件列表
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select e from OutboxEventJpaEntity e where e.status = :status"
+            + " and (e.nextAttemptAt is null or e.nextAttemptAt <= :now)"
+            + " and (e.leaseUntil is null or e.leaseUntil <= :now)"
+            + " and not exists (select b.id from OutboxEventJpaEntity b where b.status = :status"
+            + " and b.aggregateType = e.aggregateType and b.aggregateId = e.aggregateId and b.id < e.id)"
+            + " order by e.id")
+    List<OutboxEventJpaEntity> lockDueBatchByStatus(@Param("status") OutboxEventStatusJpaEntity status,
+                                                    @Param("now") LocalDateTime now,
+                                                    Pageable pageable);
+
+    /**
+     * 删除早于指定时间投递成功的事件。
+     *
+     * @param status 事件状态
+     * @param before 截止时间
+     * @return 删除的行数
+     */
+    @Modifying
+    @Query("delete from OutboxEventJpaEntity e where e.status = :status and e.sentAt < :before")
+    int deleteByStatusAndSentAtBefore(@Param("status") OutboxEventStatusJpaEntity status, @Param("before") LocalDateTime before);
+}
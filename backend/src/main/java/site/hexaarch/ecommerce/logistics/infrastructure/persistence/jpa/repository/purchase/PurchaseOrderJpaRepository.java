@@ -1,10 +1,17 @@
 package site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.purchase;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.purchase.PurchaseOrderJpaEntity;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * 采购单JPA仓库接口，用于采购单的数据库操作。
@@ -13,6 +20,16 @@ import java.util.List;
  */
 @Repository
 public interface PurchaseOrderJpaRepository extends JpaRepository<PurchaseOrderJpaEntity, String> {
+    /**
+     * 根据采购单ID查找采购单并加行锁。
+     *
+     * @param purchaseOrderId 采购单ID
+     * @return 采购单
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select o from PurchaseOrderJpaEntity o where o.purchaseOrderId = :purchaseOrderId")
+    Optional<PurchaseOrderJpaEntity> lockById(@Param("purchaseOrderId") String purchaseOrderId);
+
     /**
      * 根据状态查找采购单。
      *
@@ -36,4 +53,92 @@ public interface PurchaseOrderJpaRepository extends JpaRepository<PurchaseOrderJ
      * @return 采购单列表
      */
     List<PurchaseOrderJpaEntity> findByWarehouseId(String warehouseId);
+
+    /**
+     * 按(仓库ID, SKU编码)汇总给定状态采购单的采购数量。
+     *
+     * @param statuses 采购单状态
+     * @return 采购数量汇总
+     */
+    @Query("select o.warehouseId as warehouseId, i.skuCode as skuCode, sum(i.quantity) as quantity"
+            + " from PurchaseOrderItemJpaEntity i join i.purchaseOrder o"
+            + " where o.status in :statuses group by o.warehouseId, i.skuCode")
+    List<SkuQuantity> sumQuantitiesByStatusIn(@Param("statuses") Collection<String> statuses);
+
+    /**
+     * 汇总仓库中给定SKU在给定状态采购单中的采购数量。
+     *
+     * @param statuses    采购单状态
+     * @param warehouseId 仓库ID
+     * @param skuCodes    SKU编码集合
+     * @return 采购数量汇总，没有采购单的SKU不返回
+     */
+    @Query("select o.warehouseId as warehouseId, i.skuCode as skuCode, sum(i.quantity) as quantity"
+            + " from PurchaseOrderItemJpaEntity i join i.purchaseOrder o"
+            + " where o.status in :statuses and o.warehouseId = :warehouseId and i.skuCode in :skuCodes"
+            + " group by o.warehouseId, i.skuCode")
+    List<SkuQuantity> sumQuantitiesByStatusIn(@Param("statuses") Collection<String> statuses,
+                                              @Param("warehouseId") String warehouseId,
+                                              @Param("skuCodes") Collection<String> skuCodes);
+
+    /**
+     * 按SKU编码汇总采购单的采购数量。
+     *
+     * @param purchaseOrderId 采购单ID
+     * @return 采购数量汇总
+     */
+    @Query("select o.warehouseId as warehouseId, i.skuCode as skuCode, sum(i.quantity) as quantity"
+            + " from PurchaseOrderItemJpaEntity i join i.purchaseOrder o"
+            + " where o.purchaseOrderId = :purchaseOrderId group by o.warehouseId, i.skuCode")
+    List<SkuQuantity> sumQuantitiesByPurchaseOrderId(@Param("purchaseOrderId") String purchaseOrderId);
+
+    /**
+     * 按SKU编码汇总仓库中给定状态采购单的采购数量。
+     *
+     * @param statuses    采购单状态
+     * @param warehouseId 仓库ID
+     * @return 采购数量汇总
+     */
+    @Query("select o.warehouseId as warehouseId, i.skuCode as skuCode, sum(i.quantity) as quantity"
+            + " from PurchaseOrderItemJpaEntity i join i.purchaseOrder o"
+            + " where o.status in :statuses and o.warehouseId = :warehouseId group by o.warehouseId, i.skuCode")
+    List<SkuQuantity> sumQuantitiesByStatusIn(@Param("statuses") Collection<String> statuses,
+                                              @Param("warehouseId") String warehouseId);
+
+    /**
+     * 按SKU编码统计仓库中给定状态采购单从创建到到货的平均时长，用于估算到货提前期。
+     * 没有到货时间的采购单不参与统计，到货后的其他更新不影响提前期。
+     *
+     * @param status      采购单状态
+     * @param warehouseId 仓库ID
+     * @param since       只统计此时间之后到货的采购单
+     * @return 平均时长
+     */
+    @Query(value = "select i.sku_code as skuCode, avg(timestampdiff(second, o.created_at, o.delivered_at)) as leadTimeSeconds"
+            + " from purchase_order_items i join purchase_orders o on o.purchase_order_id = i.purchase_order_id"
+            + " where o.status = :status and o.warehouse_id = :warehouseId and o.delivered_at >= :since"
+            + " group by i.sku_code", nativeQuery = true)
+    List<SkuLeadTime> averageLeadTimesByStatus(@Param("status") String status,
+                                               @Param("warehouseId") String warehouseId,
+                                               @Param("since") LocalDateTime since);
+
+    /**
+     * SKU编码平均提前期投影
+     */
+    interface SkuLeadTime {
+        String getSkuCode();
+
+        Number getLeadTimeSeconds();
+    }
+
+    /**
+     * (仓库ID, SKU编码)采购数量投影
+     */
+    interface SkuQuantity {
+        String getWarehouseId();
+
+        String getSkuCode();
+
+        Long getQuantity();
+    }
 }
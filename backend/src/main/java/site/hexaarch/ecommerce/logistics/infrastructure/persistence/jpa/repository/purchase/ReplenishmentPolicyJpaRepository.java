@@ -0,0 +1,24 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.purchase;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.purchase.ReplenishmentPolicyJpaEntity;
+
+import java.util.List;
+
+/**
+ * 补货策略JPA仓库接口。
+ *
+ * @author kenyon
+ */
+@Repository
+public interface ReplenishmentPolicyJpaRepository
+        extends JpaRepository<ReplenishmentPolicyJpaEntity, ReplenishmentPolicyJpaEntity.Key> {
+    /**
+     * 根据仓库ID查找补货策略。
+     *
+     * @param warehouseId 仓库ID
+     * @return 补货策略列表
+     */
+    List<ReplenishmentPolicyJpaEntity> findByWarehouseId(String warehouseId);
+}
@@ -0,0 +1,54 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.persistence.repository;
+
+import site.hexaarch.ecommerce.logistics.domain.product.aggregate.Product;
+import site.hexaarch.ecommerce.logistics.domain.product.repository.ProductRepository;
+import site.hexaarch.ecommerce.logistics.infrastructure.cache.SkuLookupCache;
+import site.hexaarch.ecommerce.logistics.infrastructure.security.TenantContext;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 带SKU查询缓存的产品仓储，按SKU编码查找时先查近端缓存，其余操作委托给底层仓储。
+ *
+ * @author kenyon
+ */
+public class CachingProductRepository implements ProductRepository {
+    private final ProductRepository delegate;
+    private final SkuLookupCache skuLookupCache;
+
+    // 手动添加构造函数，避免Lombok注解问题
+    public CachingProductRepository(ProductRepository delegate, SkuLookupCache skuLookupCache) {
+        this.delegate = delegate;
+        this.skuLookupCache = skuLookupCache;
+    }
+
+    @Override
+    public Product save(Product product) {
+        Product savedProduct = delegate.save(product);
+        skuLookupCache.invalidateProduct(product.getId());
+        return savedProduct;
+    }
+
+    @Override
+    public Optional<Product> findById(String id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public Optional<Product> findBySkuCode(String skuCode) {
+        return skuLookupCache.get(TenantContext.getTenantId(), skuCode, () -> delegate.findBySkuCode(skuCode));
+    }
+
+    @Override
+    public List<Product> findByCategoryIds(Collection<String> categoryIds, int page, int size) {
+        return delegate.findByCategoryIds(categoryIds, page, size);
+    }
+
+    @Override
+    public void delete(String id) {
+        delegate.delete(id);
+        skuLookupCache.invalidateProduct(id);
+    }
+}
@@ -0,0 +1,160 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.persistence.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.repository.InventoryLedgerRepository;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.valueobject.InventoryLedgerEntry;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.valueobject.InventoryMovement;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 库存流水仓库实现类。
+ * <p>
+ * 流水使用JDBC批量INSERT追加，不经过持久化上下文；查询和快照也使用JDBC，只读取快照表和流水索引范围，
+ * 不访问库存记录行。快照的流水序号是该(仓库, SKU)被快照覆盖的最大流水ID，而不是本轮的全局上界：
+ * 写入方先持有库存记录行锁再分配流水序号，同一(仓库, SKU)的流水按序号顺序提交，
+ * 快照读到的某个SKU的最大序号之前不会再出现较晚提交的流水。其他SKU较晚提交的较小序号
+ * 仍在各自的快照序号之后，查询时按该SKU自己的快照序号累加增量，不会被跳过。
+ *
+ * @author kenyon
+ */
+public class InventoryLedgerRepositoryImpl implements InventoryLedgerRepository {
+    private static final String INSERT_SQL = "INSERT INTO inventory_movement_ledger"
+            + " (movement_id, warehouse_id, product_id, sku_code, movement_type, quantity, quantity_change, balance_after,"
+            + " reason, moved_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String LATEST_SNAPSHOT_SQL = "SELECT last_entry_id, quantity FROM inventory_ledger_snapshots"
+            + " WHERE warehouse_id = ? AND sku_code = ? ORDER BY last_entry_id DESC LIMIT 1";
+    private static final String SNAPSHOT_AS_OF_SQL = "SELECT last_entry_id, quantity FROM inventory_ledger_snapshots"
+            + " WHERE warehouse_id = ? AND sku_code = ? AND covered_until <= ? ORDER BY last_entry_id DESC LIMIT 1";
+    private static final String OPENING_BALANCE_SQL = "SELECT balance_after - quantity_change FROM inventory_movement_ledger"
+            + " WHERE warehouse_id = ? AND sku_code = ? ORDER BY id LIMIT 1";
+    private static final String CHANGE_SINCE_SQL = "SELECT COALESCE(SUM(quantity_change), 0) FROM inventory_movement_ledger"
+            + " WHERE warehouse_id = ? AND sku_code = ? AND id > ?";
+    private static final String CHANGE_SINCE_AS_OF_SQL = "SELECT COALESCE(SUM(quantity_change), 0) FROM inventory_movement_ledger"
+            + " WHERE warehouse_id = ? AND sku_code = ? AND id > ? AND moved_at <= ?";
+    private static final String OUTBOUND_SINCE_SQL = "SELECT sku_code, -SUM(quantity_change) FROM inventory_movement_ledger"
+            + " WHERE warehouse_id = ? AND moved_at >= ? AND movement_type = 'OUTBOUND' GROUP BY sku_code";
+    private static final String SNAPSHOT_WATERMARK_SQL = "SELECT COALESCE(MAX(last_entry_id), 0) FROM inventory_ledger_snapshots";
+    private static final String SNAPSHOT_UPPER_BOUND_SQL = "SELECT MAX(id) FROM inventory_movement_ledger"
+            + " WHERE id > ? AND moved_at <= ?";
+    /**
+     * 为(from, to]范围内出现过的每个(仓库, SKU)生成快照：最近的快照（没有快照时为第一条流水变动前的数量）
+     * 加上该快照之后到to为止的数量变化，快照序号记为该SKU实际累加到的最大流水ID。
+     * 按每个SKU自己的快照序号累加，并发执行或重复执行不会重复计算。
+     */
+    private static final String TAKE_SNAPSHOTS_SQL = "INSERT IGNORE INTO inventory_ledger_snapshots"
+            + " (warehouse_id, sku_code, last_entry_id, quantity, covered_until, created_at)"
+            + " SELECT k.warehouse_id, k.sku_code, MAX(l.id),"
+            + " COALESCE(s.quantity, (SELECT o.balance_after - o.quantity_change FROM inventory_movement_ledger o"
+            + " WHERE o.warehouse_id = k.warehouse_id AND o.sku_code = k.sku_code ORDER BY o.id LIMIT 1))"
+            + " + SUM(l.quantity_change),"
+            + " GREATEST(COALESCE(s.covered_until, MAX(l.moved_at)), MAX(l.moved_at)), ?"
+            + " FROM (SELECT DISTINCT warehouse_id, sku_code FROM inventory_movement_ledger WHERE id > ? AND id <= ?) k"
+            + " LEFT JOIN inventory_ledger_snapshots s ON s.warehouse_id = k.warehouse_id AND s.sku_code = k.sku_code"
+            + " AND s.last_entry_id = (SELECT MAX(p.last_entry_id) FROM inventory_ledger_snapshots p"
+            + " WHERE p.warehouse_id = k.warehouse_id AND p.sku_code = k.sku_code)"
+            + " JOIN inventory_movement_ledger l ON l.warehouse_id = k.warehouse_id AND l.sku_code = k.sku_code"
+            + " AND l.id > COALESCE(s.last_entry_id, 0) AND l.id <= ?"
+            + " GROUP BY k.warehouse_id, k.sku_code, s.quantity, s.covered_until";
+    private static final int BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // 手动添加构造函数，避免Lombok注解问题
+    public InventoryLedgerRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void appendAll(List<InventoryLedgerEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, entries, BATCH_SIZE, (statement, entry) -> {
+            InventoryMovement movement = entry.getMovement();
+            statement.setString(1, movement.getMovementId());
+            statement.setString(2, movement.getWarehouseId());
+            statement.setString(3, movement.getProductId());
+            statement.setString(4, movement.getSku());
+            statement.setString(5, movement.getMovementType().name());
+            statement.setInt(6, movement.getQuantity());
+            statement.setInt(7, entry.getQuantityChange());
+            statement.setInt(8, entry.getBalanceAfter());
+            statement.setString(9, movement.getReason());
+            statement.setTimestamp(10, Timestamp.valueOf(movement.getMovedAt()));
+        });
+    }
+
+    @Override
+    public Optional<Integer> findQuantity(String warehouseId, String skuCode) {
+        Optional<Snapshot> snapshot = first(jdbcTemplate.query(LATEST_SNAPSHOT_SQL, Snapshot.ROW_MAPPER, warehouseId, skuCode));
+        if (snapshot.isPresent()) {
+            long change = queryLong(CHANGE_SINCE_SQL, warehouseId, skuCode, snapshot.get().lastEntryId());
+            return Optional.of(Math.toIntExact(snapshot.get().quantity() + change));
+        }
+        return findOpeningBalance(warehouseId, skuCode)
+                .map(opening -> Math.toIntExact(opening + queryLong(CHANGE_SINCE_SQL, warehouseId, skuCode, 0L)));
+    }
+
+    @Override
+    public Optional<Integer> findQuantityAsOf(String warehouseId, String skuCode, LocalDateTime asOf) {
+        Timestamp asOfTimestamp = Timestamp.valueOf(asOf);
+        Optional<Snapshot> snapshot = first(jdbcTemplate.query(SNAPSHOT_AS_OF_SQL, Snapshot.ROW_MAPPER,
+                warehouseId, skuCode, asOfTimestamp));
+        if (snapshot.isPresent()) {
+            long change = queryLong(CHANGE_SINCE_AS_OF_SQL, warehouseId, skuCode, snapshot.get().lastEntryId(), asOfTimestamp);
+            return Optional.of(Math.toIntExact(snapshot.get().quantity() + change));
+        }
+        return findOpeningBalance(warehouseId, skuCode)
+                .map(opening -> Math.toIntExact(opening
+                        + queryLong(CHANGE_SINCE_AS_OF_SQL, warehouseId, skuCode, 0L, asOfTimestamp)));
+    }
+
+    @Override
+    public Map<String, Long> sumOutboundQuantities(String warehouseId, LocalDateTime since) {
+        Map<String, Long> quantities = new HashMap<>();
+        jdbcTemplate.query(OUTBOUND_SINCE_SQL,
+                resultSet -> {
+                    quantities.put(resultSet.getString(1), resultSet.getLong(2));
+                },
+                warehouseId, Timestamp.valueOf(since));
+        return quantities;
+    }
+
+    @Override
+    public int takeSnapshots(LocalDateTime coveredUntil) {
+        long from = queryLong(SNAPSHOT_WATERMARK_SQL);
+        Long to = jdbcTemplate.queryForObject(SNAPSHOT_UPPER_BOUND_SQL, Long.class, from, Timestamp.valueOf(coveredUntil));
+        if (to == null) {
+            return 0;
+        }
+        return jdbcTemplate.update(TAKE_SNAPSHOTS_SQL, Timestamp.valueOf(LocalDateTime.now()), from, to, to);
+    }
+
+    private Optional<Integer> findOpeningBalance(String warehouseId, String skuCode) {
+        return first(jdbcTemplate.query(OPENING_BALANCE_SQL, (resultSet, rowNum) -> resultSet.getInt(1), warehouseId, skuCode));
+    }
+
+    private long queryLong(String sql, Object... args) {
+        Long value = jdbcTemplate.queryForObject(sql, Long.class, args);
+        return value != null ? value : 0L;
+    }
+
+    private static <T> Optional<T> first(List<T> rows) {
+        return rows.isEmpty() ? Optional.empty() : Optional.of(rows.get(0));
+    }
+
+    /**
+     * 快照行：覆盖到的流水序号和数量
+     */
+    private record Snapshot(long lastEntryId, long quantity) {
+        private static final RowMapper<Snapshot> ROW_MAPPER =
+                (resultSet, rowNum) -> new Snapshot(resultSet.getLong("last_entry_id"), resultSet.getLong("quantity"));
+    }
+}
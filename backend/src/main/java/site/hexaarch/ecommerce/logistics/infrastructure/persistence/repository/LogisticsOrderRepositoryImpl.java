@@ -3,11 +3,23 @@ package site.hexaarch.ecommerce.logistics.infrastructure.persistence.repository;
 import site.hexaarch.ecommerce.logistics.domain.logistics.aggregate.LogisticsOrder;
 import site.hexaarch.ecommerce.logistics.domain.logistics.repository.LogisticsOrderRepository;
 import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.LogisticsStatus;
+import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.ShipmentStatus;
+import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.StatusTransition;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.LogisticsOrderJpaEntity;
 import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.mapper.LogisticsOrderMapper;
 import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.LogisticsOrderJpaRepository;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * 物流单仓库实现类，使用JPA实现持久化。
@@ -27,16 +39,67 @@ public class LogisticsOrderRepositoryImpl implements LogisticsOrderRepository {
     @Override
     public LogisticsOrder save(LogisticsOrder logisticsOrder) {
         var logisticsOrderJpaEntity = logisticsOrderMapper.toJpaEntity(logisticsOrder);
+        logisticsOrderJpaRepository.findById(logisticsOrderJpaEntity.getId())
+                .ifPresent(existing -> keepStoredColumns(logisticsOrderJpaEntity, existing));
         var savedEntity = logisticsOrderJpaRepository.save(logisticsOrderJpaEntity);
         return logisticsOrderMapper.toDomainAggregate(savedEntity);
     }
 
+    @Override
+    public List<LogisticsOrder> saveAll(List<LogisticsOrder> logisticsOrders) {
+        if (logisticsOrders.isEmpty()) {
+            return List.of();
+        }
+        List<LogisticsOrderJpaEntity> entities = logisticsOrders.stream()
+                .map(logisticsOrderMapper::toJpaEntity)
+                .toList();
+        // 已有行连同标签和费用一次读取进持久化上下文，随后的合并不再逐行查询
+        Map<String, LogisticsOrderJpaEntity> existingById = logisticsOrderJpaRepository
+                .findWithLabelAndFeeByIdIn(entities.stream().map(LogisticsOrderJpaEntity::getId).toList())
+                .stream()
+                .collect(Collectors.toMap(LogisticsOrderJpaEntity::getId, Function.identity()));
+        for (LogisticsOrderJpaEntity entity : entities) {
+            LogisticsOrderJpaEntity existing = existingById.get(entity.getId());
+            if (existing != null) {
+                keepStoredColumns(entity, existing);
+            }
+        }
+        return logisticsOrderJpaRepository.saveAll(entities)
+                .stream()
+                .map(logisticsOrderMapper::toDomainAggregate)
+                .toList();
+    }
+
+    /**
+     * 读取时不还原标签值对象，也不映射物流单号，保存前沿用已有行的标签和单号，
+     * 避免标签外键被置空后被孤儿删除
+     */
+    private static void keepStoredColumns(LogisticsOrderJpaEntity entity, LogisticsOrderJpaEntity existing) {
+        if (entity.getLogisticsLabel() == null) {
+            entity.setLogisticsLabel(existing.getLogisticsLabel());
+        }
+        if (entity.getLogisticsOrderNumber() == null) {
+            entity.setLogisticsOrderNumber(existing.getLogisticsOrderNumber());
+        }
+    }
+
     @Override
     public Optional<LogisticsOrder> findById(String id) {
         return logisticsOrderJpaRepository.findById(id)
                 .map(logisticsOrderMapper::toDomainAggregate);
     }
 
+    @Override
+    public List<LogisticsOrder> findAllById(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return logisticsOrderJpaRepository.findAllById(ids)
+                .stream()
+                .map(logisticsOrderMapper::toDomainAggregate)
+                .toList();
+    }
+
     @Override
     public List<LogisticsOrder> findByOrderId(String orderId) {
         // 简化实现，实际应该调用JPA仓库的方法
@@ -55,6 +118,51 @@ public class LogisticsOrderRepositoryImpl implements LogisticsOrderRepository {
         return List.of();
     }
 
+    @Override
+    public List<ShipmentStatus> findShipmentStatuses(Collection<String> trackingNumbers) {
+        if (trackingNumbers.isEmpty()) {
+            return List.of();
+        }
+        return logisticsOrderJpaRepository.findByTrackingNumberIn(trackingNumbers)
+                .stream()
+                .map(view -> new ShipmentStatus(view.getId(), view.getOrderId(), view.getTrackingNumber(),
+                        logisticsOrderMapper.logisticsStatusFromJpaEntity(view.getStatus())))
+                .toList();
+    }
+
+    @Override
+    public List<StatusTransition> applyTransitions(List<StatusTransition> transitions) {
+        // 按(原状态, 新状态)分组，每组先锁定仍处于原状态的物流单，再只更新这些物流单，
+        // 读取后被并发修改（包括被其他事务推进到同一新状态）的物流单不计入本次推进
+        Map<List<LogisticsStatus>, List<StatusTransition>> groups = new LinkedHashMap<>();
+        for (StatusTransition transition : transitions) {
+            groups.computeIfAbsent(List.of(transition.getShipment().getStatus(), transition.getNewStatus()), key -> new ArrayList<>())
+                    .add(transition);
+        }
+
+        Long updatedAt = logisticsOrderMapper.localDateTimeToLong(LocalDateTime.now());
+        List<StatusTransition> applied = new ArrayList<>(transitions.size());
+        groups.forEach((statuses, group) -> {
+            var oldStatus = logisticsOrderMapper.logisticsStatusToJpaEntity(statuses.get(0));
+            var newStatus = logisticsOrderMapper.logisticsStatusToJpaEntity(statuses.get(1));
+            List<String> ids = group.stream().map(transition -> transition.getShipment().getLogisticsOrderId()).toList();
+            List<String> lockedIds = logisticsOrderJpaRepository.lockIdsByStatus(ids, oldStatus);
+            if (lockedIds.isEmpty()) {
+                return;
+            }
+            logisticsOrderJpaRepository.updateStatusIfUnchanged(lockedIds, oldStatus, newStatus, updatedAt);
+            if (lockedIds.size() == ids.size()) {
+                applied.addAll(group);
+                return;
+            }
+            Set<String> updatedIds = new HashSet<>(lockedIds);
+            group.stream()
+                    .filter(transition -> updatedIds.contains(transition.getShipment().getLogisticsOrderId()))
+                    .forEach(applied::add);
+        });
+        return applied;
+    }
+
     @Override
     public List<LogisticsOrder> findAll() {
         return logisticsOrderJpaRepository.findAll()
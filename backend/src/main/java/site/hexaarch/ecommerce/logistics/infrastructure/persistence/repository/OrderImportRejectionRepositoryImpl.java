@@ -0,0 +1,44 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.persistence.repository;
+
+import org.springframework.stereotype.Repository;
+import site.hexaarch.ecommerce.logistics.domain.order.repository.OrderImportRejectionRepository;
+import site.hexaarch.ecommerce.logistics.domain.order.valueobject.OrderImportRejection;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.OrderImportRejectionJpaEntity;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.OrderImportRejectionJpaRepository;
+
+import java.util.Collection;
+
+/**
+ * 被拒绝的平台订单仓储的实现类，使用JPA进行持久化操作。
+ *
+ * @author kenyon
+ */
+@Repository
+public class OrderImportRejectionRepositoryImpl implements OrderImportRejectionRepository {
+    private final OrderImportRejectionJpaRepository orderImportRejectionJpaRepository;
+
+    // 手动添加构造函数，避免Lombok注解问题
+    public OrderImportRejectionRepositoryImpl(OrderImportRejectionJpaRepository orderImportRejectionJpaRepository) {
+        this.orderImportRejectionJpaRepository = orderImportRejectionJpaRepository;
+    }
+
+    @Override
+    public void saveAll(Collection<OrderImportRejection> rejections) {
+        if (rejections.isEmpty()) {
+            return;
+        }
+        orderImportRejectionJpaRepository.saveAll(rejections.stream()
+                .map(this::toJpaEntity)
+                .toList());
+    }
+
+    private OrderImportRejectionJpaEntity toJpaEntity(OrderImportRejection rejection) {
+        OrderImportRejectionJpaEntity entity = new OrderImportRejectionJpaEntity();
+        entity.setPlatformId(rejection.getPlatformId());
+        entity.setExternalOrderNumber(rejection.getExternalOrderNumber());
+        entity.setStage(rejection.getStage().name());
+        entity.setReason(rejection.getReason());
+        entity.setRejectedAt(rejection.getRejectedAt());
+        return entity;
+    }
+}
@@ -1,28 +1,71 @@
 package site.hexaarch.ecommerce.logistics.infrastructure.persistence.repository;
 
+import jakarta.persistence.EntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import site.hexaarch.ecommerce.logistics.domain.order.aggregate.Order;
+import site.hexaarch.ecommerce.logistics.domain.order.entity.OrderItem;
 import site.hexaarch.ecommerce.logistics.domain.order.repository.OrderRepository;
+import site.hexaarch.ecommerce.logistics.domain.order.valueobject.OrderCursor;
+import site.hexaarch.ecommerce.logistics.domain.order.valueobject.OrderPage;
 import site.hexaarch.ecommerce.logistics.domain.order.valueobject.OrderStatus;
+import site.hexaarch.ecommerce.logistics.domain.order.valueobject.PaymentInfo;
+import site.hexaarch.ecommerce.logistics.domain.order.valueobject.ShippingAddress;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.OrderJpaEntity;
 import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.OrderStatusJpaEntity;
 import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.mapper.OrderMapper;
 import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.OrderJpaRepository;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * 订单仓库实现类，使用JPA实现持久化。
+ * <p>
+ * 批量导入的新订单使用JDBC批量插入：导入后不回读，不需要经过持久化上下文，
+ * 按收货地址、付款信息、订单、订单行项的顺序各执行一次批量语句，满足外键约束。
  *
  * @author kenyon
  */
 public class OrderRepositoryImpl implements OrderRepository {
+    private static final String INSERT_ADDRESS_SQL = "INSERT INTO shipping_addresses"
+            + " (id, recipient_name, address_line1, city, state_province, postal_code, country, phone_number)"
+            + " VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_PAYMENT_SQL = "INSERT INTO payment_infos"
+            + " (id, payment_method, payment_status, transaction_id, amount) VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_ORDER_SQL = "INSERT INTO orders"
+            + " (id, order_number, customer_id, status, shipping_address_id, payment_info_id, total_amount, created_at, updated_at)"
+            + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_ITEM_SQL = "INSERT INTO order_items"
+            + " (id, order_id, product_name, sku_code, quantity, unit_price, total_price) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final int BATCH_SIZE = 1000;
+    /**
+     * 流式导出每次映射的订单数，与订单行项的@BatchSize一致，每组订单的行项用一条语句加载
+     */
+    private static final int STREAM_CHUNK_SIZE = 100;
+
     private final OrderJpaRepository orderJpaRepository;
     private final OrderMapper orderMapper;
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
 
     // 手动添加构造函数，避免Lombok注解问题
-    public OrderRepositoryImpl(OrderJpaRepository orderJpaRepository, OrderMapper orderMapper) {
+    public OrderRepositoryImpl(OrderJpaRepository orderJpaRepository, OrderMapper orderMapper, EntityManager entityManager,
+                               JdbcTemplate jdbcTemplate) {
         this.orderJpaRepository = orderJpaRepository;
         this.orderMapper = orderMapper;
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
     }
 
     @Override
@@ -34,10 +77,21 @@ public class OrderRepositoryImpl implements OrderRepository {
 
     @Override
     public Optional<Order> findById(String id) {
-        return orderJpaRepository.findById(id)
+        return orderJpaRepository.findFullById(id)
                 .map(orderMapper::toDomainAggregate);
     }
 
+    @Override
+    public List<Order> findAllById(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return orderJpaRepository.findFullByIdIn(ids)
+                .stream()
+                .map(orderMapper::toDomainAggregate)
+                .toList();
+    }
+
     @Override
     public List<Order> findByCustomerId(String customerId) {
         return orderJpaRepository.findByCustomerId(customerId)
@@ -62,8 +116,137 @@ public class OrderRepositoryImpl implements OrderRepository {
                 .toList();
     }
 
+    @Override
+    public OrderPage findPage(OrderStatus status, String customerId, OrderCursor after, int limit) {
+        OrderStatusJpaEntity jpaStatus = status != null ? orderMapper.orderStatusToJpaEntity(status) : null;
+        // 多取一条用于判断是否还有下一页
+        PageRequest pageRequest = PageRequest.of(0, limit + 1);
+        List<OrderJpaEntity> entities = after == null
+                ? orderJpaRepository.findFirstPage(jpaStatus, customerId, pageRequest)
+                : orderJpaRepository.findPageAfter(jpaStatus, customerId,
+                orderMapper.localDateTimeToLong(after.getCreatedAt()), after.getId(), pageRequest);
+        boolean hasNext = entities.size() > limit;
+        List<Order> orders = entities.stream()
+                .limit(limit)
+                .map(orderMapper::toDomainAggregate)
+                .toList();
+        OrderCursor nextCursor = hasNext ? OrderCursor.after(orders.get(orders.size() - 1)) : null;
+        return new OrderPage(orders, nextCursor);
+    }
+
+    @Override
+    public Stream<Order> streamAll(OrderStatus status) {
+        OrderStatusJpaEntity jpaStatus = status != null ? orderMapper.orderStatusToJpaEntity(status) : null;
+        Stream<OrderJpaEntity> entities = orderJpaRepository.streamAll(jpaStatus);
+        Iterator<OrderJpaEntity> rows = entities.iterator();
+        // 逐条映射并立即移除时，持久化上下文中只有一个订单，行项批量抓取退化为每个订单一条查询；
+        // 因此按组读取，整组映射时一次加载行项，映射后再整组移除，内存占用仍不随读取行数增长
+        Iterator<List<Order>> chunks = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return rows.hasNext();
+            }
+
+            @Override
+            public List<Order> next() {
+                List<OrderJpaEntity> chunk = new ArrayList<>(STREAM_CHUNK_SIZE);
+                while (chunk.size() < STREAM_CHUNK_SIZE && rows.hasNext()) {
+                    chunk.add(rows.next());
+                }
+                List<Order> orders = chunk.stream().map(orderMapper::toDomainAggregate).toList();
+                chunk.forEach(entityManager::detach);
+                return orders;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(chunks, Spliterator.ORDERED), false)
+                .flatMap(List::stream)
+                .onClose(entities::close);
+    }
+
+    @Override
+    public void insertAll(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        List<OrderRow> rows = new ArrayList<>(orders.size());
+        List<OrderRow> addressRows = new ArrayList<>(orders.size());
+        List<OrderRow> paymentRows = new ArrayList<>(orders.size());
+        List<ItemRow> itemRows = new ArrayList<>();
+        for (Order order : orders) {
+            OrderRow row = new OrderRow(order,
+                    order.getShippingAddress() != null ? UUID.randomUUID().toString() : null,
+                    order.getPaymentInfo() != null ? UUID.randomUUID().toString() : null);
+            rows.add(row);
+            if (row.addressId() != null) {
+                addressRows.add(row);
+            }
+            if (row.paymentId() != null) {
+                paymentRows.add(row);
+            }
+            for (OrderItem item : order.getOrderItems()) {
+                itemRows.add(new ItemRow(order.getId(), item));
+            }
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_ADDRESS_SQL, addressRows, BATCH_SIZE, (statement, row) -> {
+            ShippingAddress address = row.order().getShippingAddress();
+            statement.setString(1, row.addressId());
+            statement.setString(2, address.getRecipient());
+            statement.setString(3, address.getStreet());
+            statement.setString(4, address.getCity());
+            statement.setString(5, address.getProvince());
+            statement.setString(6, address.getZipCode());
+            statement.setString(7, address.getCountry());
+            statement.setString(8, address.getPhone());
+        });
+        jdbcTemplate.batchUpdate(INSERT_PAYMENT_SQL, paymentRows, BATCH_SIZE, (statement, row) -> {
+            PaymentInfo payment = row.order().getPaymentInfo();
+            statement.setString(1, row.paymentId());
+            statement.setString(2, payment.getPaymentMethod());
+            statement.setString(3, payment.getPaymentStatus());
+            statement.setString(4, payment.getTransactionId());
+            statement.setBigDecimal(5, payment.getAmount());
+        });
+        jdbcTemplate.batchUpdate(INSERT_ORDER_SQL, rows, BATCH_SIZE, (statement, row) -> {
+            Order order = row.order();
+            statement.setString(1, order.getId());
+            statement.setString(2, order.getOrderNumber());
+            statement.setString(3, order.getCustomerId());
+            statement.setString(4, orderMapper.orderStatusToJpaEntity(order.getOrderStatus()).name());
+            statement.setString(5, row.addressId());
+            statement.setString(6, row.paymentId());
+            statement.setDouble(7, order.calculateTotal().doubleValue());
+            statement.setObject(8, orderMapper.localDateTimeToLong(order.getCreatedAt()));
+            statement.setObject(9, orderMapper.localDateTimeToLong(order.getUpdatedAt()));
+        });
+        jdbcTemplate.batchUpdate(INSERT_ITEM_SQL, itemRows, BATCH_SIZE, (statement, row) -> {
+            OrderItem item = row.item();
+            statement.setString(1, item.getId());
+            statement.setString(2, row.orderId());
+            statement.setString(3, item.getProductName());
+            statement.setString(4, item.getSku());
+            statement.setInt(5, item.getQuantity());
+            statement.setDouble(6, item.getUnitPrice().doubleValue());
+            statement.setDouble(7, item.getTotalPrice().doubleValue());
+        });
+    }
+
+    @Override
+    public Set<String> findExistingOrderNumbers(Collection<String> orderNumbers) {
+        if (orderNumbers.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(orderJpaRepository.findOrderNumbersIn(orderNumbers));
+    }
+
     @Override
     public void delete(String id) {
         orderJpaRepository.deleteById(id);
     }
+
+    private record OrderRow(Order order, String addressId, String paymentId) {
+    }
+
+    private record ItemRow(String orderId, OrderItem item) {
+    }
 }
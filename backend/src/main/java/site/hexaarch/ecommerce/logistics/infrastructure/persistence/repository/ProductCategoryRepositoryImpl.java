@@ -0,0 +1,45 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.persistence.repository;
+
+import site.hexaarch.ecommerce.logistics.domain.product.entity.ProductCategory;
+import site.hexaarch.ecommerce.logistics.domain.product.repository.ProductCategoryRepository;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.mapper.ProductMapper;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.ProductCategoryJpaRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 产品分类仓储实现类，使用JPA实现持久化。
+ *
+ * @author kenyon
+ */
+public class ProductCategoryRepositoryImpl implements ProductCategoryRepository {
+    private final ProductCategoryJpaRepository productCategoryJpaRepository;
+    private final ProductMapper productMapper;
+
+    // 手动添加构造函数，避免Lombok注解问题
+    public ProductCategoryRepositoryImpl(ProductCategoryJpaRepository productCategoryJpaRepository, ProductMapper productMapper) {
+        this.productCategoryJpaRepository = productCategoryJpaRepository;
+        this.productMapper = productMapper;
+    }
+
+    @Override
+    public ProductCategory save(ProductCategory category) {
+        var savedEntity = productCategoryJpaRepository.save(productMapper.toCategoryJpaEntity(category));
+        return productMapper.toDomainCategory(savedEntity);
+    }
+
+    @Override
+    public Optional<ProductCategory> findById(String id) {
+        return productCategoryJpaRepository.findById(id)
+                .map(productMapper::toDomainCategory);
+    }
+
+    @Override
+    public List<ProductCategory> findAll() {
+        return productCategoryJpaRepository.findAll()
+                .stream()
+                .map(productMapper::toDomainCategory)
+                .toList();
+    }
+}
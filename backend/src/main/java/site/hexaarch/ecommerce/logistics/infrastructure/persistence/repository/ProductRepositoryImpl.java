@@ -1,12 +1,16 @@
 package site.hexaarch.ecommerce.logistics.infrastructure.persistence.repository;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Repository;
 import site.hexaarch.ecommerce.logistics.domain.product.aggregate.Product;
 import site.hexaarch.ecommerce.logistics.domain.product.repository.ProductRepository;
 import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.mapper.ProductMapper;
 import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.ProductJpaRepository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -40,6 +44,17 @@ public class ProductRepositoryImpl implements ProductRepository {
         return productJpaEntityOpt.map(productMapper::toDomainAggregate);
     }
 
+    @Override
+    public List<Product> findByCategoryIds(Collection<String> categoryIds, int page, int size) {
+        if (categoryIds.isEmpty()) {
+            return List.of();
+        }
+        return productJpaRepository.findByCategoryIdIn(categoryIds, PageRequest.of(page, size, Sort.by("id")))
+                .stream()
+                .map(productMapper::toDomainAggregate)
+                .toList();
+    }
+
     @Override
     public void delete(String id) {
         productJpaRepository.deleteById(id);
@@ -7,6 +7,7 @@ import site.hexaarch.ecommerce.logistics.domain.purchase.valueobject.PurchaseSta
 import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.mapper.purchase.PurchaseOrderMapper;
 import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.purchase.PurchaseOrderJpaRepository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -44,6 +45,21 @@ public class PurchaseOrderRepositoryImpl implements PurchaseOrderRepository {
         purchaseOrderJpaRepository.save(purchaseOrderJpaEntity);
     }
 
+    /**
+     * 批量保存采购单。
+     *
+     * @param purchaseOrders 采购单集合
+     */
+    @Override
+    public void saveAll(Collection<PurchaseOrder> purchaseOrders) {
+        if (purchaseOrders.isEmpty()) {
+            return;
+        }
+        purchaseOrderJpaRepository.saveAll(purchaseOrders.stream()
+                .map(purchaseOrderMapper::toJpaEntity)
+                .toList());
+    }
+
     /**
      * 根据采购单号查找采购单。
      *
@@ -56,6 +72,18 @@ public class PurchaseOrderRepositoryImpl implements PurchaseOrderRepository {
                 .map(purchaseOrderMapper::toDomainAggregate);
     }
 
+    /**
+     * 根据采购单号查找采购单并加行锁。
+     *
+     * @param purchaseOrderId 采购单号
+     * @return 采购单实例，若不存在则返回Optional.empty()
+     */
+    @Override
+    public Optional<PurchaseOrder> findByIdForUpdate(String purchaseOrderId) {
+        return purchaseOrderJpaRepository.lockById(purchaseOrderId)
+                .map(purchaseOrderMapper::toDomainAggregate);
+    }
+
     /**
      * 根据状态查找采购单。
      *
@@ -0,0 +1,94 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.persistence.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import site.hexaarch.ecommerce.logistics.domain.purchase.repository.ReplenishmentPolicyRepository;
+import site.hexaarch.ecommerce.logistics.domain.purchase.valueobject.ReplenishmentPolicy;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.purchase.ReplenishmentPolicyJpaEntity;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.purchase.ReplenishmentPolicyJpaRepository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 补货策略仓储的实现类。
+ * <p>
+ * 读取使用JPA；保存使用JDBC批量INSERT ... ON DUPLICATE KEY UPDATE，补货计划一次覆盖大量策略时不需要逐行查询是否存在。
+ *
+ * @author kenyon
+ */
+@Repository
+public class ReplenishmentPolicyRepositoryImpl implements ReplenishmentPolicyRepository {
+    private static final String UPSERT_SQL = "INSERT INTO replenishment_policies"
+            + " (warehouse_id, sku_code, product_name, reorder_point, reorder_quantity, supplier_id, supplier_name, unit_cost, updated_at)"
+            + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)"
+            + " ON DUPLICATE KEY UPDATE product_name = VALUES(product_name), reorder_point = VALUES(reorder_point),"
+            + " reorder_quantity = VALUES(reorder_quantity), supplier_id = VALUES(supplier_id),"
+            + " supplier_name = VALUES(supplier_name), unit_cost = VALUES(unit_cost), updated_at = VALUES(updated_at)";
+    private static final int BATCH_SIZE = 1000;
+
+    private final ReplenishmentPolicyJpaRepository replenishmentPolicyJpaRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 构造函数，注入JPA仓库和JdbcTemplate。
+     *
+     * @param replenishmentPolicyJpaRepository 补货策略JPA仓库
+     * @param jdbcTemplate                     JdbcTemplate
+     */
+    public ReplenishmentPolicyRepositoryImpl(ReplenishmentPolicyJpaRepository replenishmentPolicyJpaRepository,
+                                             JdbcTemplate jdbcTemplate) {
+        this.replenishmentPolicyJpaRepository = replenishmentPolicyJpaRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<ReplenishmentPolicy> findAll() {
+        return replenishmentPolicyJpaRepository.findAll()
+                .stream()
+                .map(this::toDomainValueObject)
+                .toList();
+    }
+
+    @Override
+    public List<ReplenishmentPolicy> findByWarehouseId(String warehouseId) {
+        return replenishmentPolicyJpaRepository.findByWarehouseId(warehouseId)
+                .stream()
+                .map(this::toDomainValueObject)
+                .toList();
+    }
+
+    @Override
+    public void saveAll(Collection<ReplenishmentPolicy> policies) {
+        if (policies.isEmpty()) {
+            return;
+        }
+        Timestamp updatedAt = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(UPSERT_SQL, policies, BATCH_SIZE, (statement, policy) -> {
+            statement.setString(1, policy.getWarehouseId());
+            statement.setString(2, policy.getSkuCode());
+            statement.setString(3, policy.getProductName());
+            statement.setInt(4, policy.getReorderPoint());
+            statement.setInt(5, policy.getReorderQuantity());
+            statement.setString(6, policy.getSupplierId());
+            statement.setString(7, policy.getSupplierName());
+            statement.setBigDecimal(8, policy.getUnitCost());
+            statement.setTimestamp(9, updatedAt);
+        });
+    }
+
+    private ReplenishmentPolicy toDomainValueObject(ReplenishmentPolicyJpaEntity entity) {
+        return ReplenishmentPolicy.builder()
+                .warehouseId(entity.getWarehouseId())
+                .skuCode(entity.getSkuCode())
+                .productName(entity.getProductName())
+                .reorderPoint(entity.getReorderPoint())
+                .reorderQuantity(entity.getReorderQuantity())
+                .supplierId(entity.getSupplierId())
+                .supplierName(entity.getSupplierName())
+                .unitCost(entity.getUnitCost())
+                .build();
+    }
+}
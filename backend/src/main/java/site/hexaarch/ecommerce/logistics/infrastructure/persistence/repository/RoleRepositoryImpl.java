@@ -4,7 +4,9 @@ import org.springframework.stereotype.Repository;
 import site.hexaarch.ecommerce.logistics.domain.tenant.entity.Role;
 import site.hexaarch.ecommerce.logistics.domain.tenant.repository.RoleRepository;
 import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.mapper.RoleMapper;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.RoleJpaEntity;
 import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.RoleJpaRepository;
+import site.hexaarch.ecommerce.logistics.infrastructure.security.PermissionSnapshotCache;
 
 import java.util.List;
 import java.util.Optional;
@@ -12,6 +14,7 @@ import java.util.stream.Collectors;
 
 /**
  * RoleRepository 实现类，用于操作角色实体的持久化操作。
+ * 保存和删除角色使所属租户的权限快照失效，系统角色使所有租户的权限快照失效。
  *
  * @author kenyon
  */
@@ -20,16 +23,20 @@ public class RoleRepositoryImpl implements RoleRepository {
 
     private final RoleJpaRepository roleJpaRepository;
     private final RoleMapper roleMapper;
+    private final PermissionSnapshotCache permissionSnapshotCache;
 
-    public RoleRepositoryImpl(RoleJpaRepository roleJpaRepository, RoleMapper roleMapper) {
+    public RoleRepositoryImpl(RoleJpaRepository roleJpaRepository, RoleMapper roleMapper,
+                              PermissionSnapshotCache permissionSnapshotCache) {
         this.roleJpaRepository = roleJpaRepository;
         this.roleMapper = roleMapper;
+        this.permissionSnapshotCache = permissionSnapshotCache;
     }
 
     @Override
     public Role save(Role role) {
         var jpaEntity = roleMapper.toJpaEntity(role);
         var savedEntity = roleJpaRepository.save(jpaEntity);
+        permissionSnapshotCache.invalidateTenant(savedEntity.getTenantId());
         return roleMapper.toDomainEntity(savedEntity);
     }
 
@@ -55,6 +62,8 @@ public class RoleRepositoryImpl implements RoleRepository {
 
     @Override
     public void deleteById(String id) {
+        Optional<String> tenantId = roleJpaRepository.findById(id).map(RoleJpaEntity::getTenantId);
         roleJpaRepository.deleteById(id);
+        tenantId.ifPresent(permissionSnapshotCache::invalidateTenant);
     }
 }
@@ -0,0 +1,93 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.persistence.repository;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import site.hexaarch.ecommerce.logistics.domain.platform.repository.SyncWatermarkRepository;
+import site.hexaarch.ecommerce.logistics.domain.platform.valueobject.PlatformSyncType;
+import site.hexaarch.ecommerce.logistics.domain.platform.valueobject.SyncWatermark;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.PlatformSyncWatermarkJpaEntity;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.PlatformSyncWatermarkJpaRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * 平台同步水位仓库实现类。
+ * <p>
+ * 进度和租约分别通过条件更新写入，保存进度不会覆盖其他节点刚获取的租约。
+ *
+ * @author kenyon
+ */
+public class SyncWatermarkRepositoryImpl implements SyncWatermarkRepository {
+    private final PlatformSyncWatermarkJpaRepository jpaRepository;
+
+    // 手动添加构造函数，避免Lombok注解问题
+    public SyncWatermarkRepositoryImpl(PlatformSyncWatermarkJpaRepository jpaRepository) {
+        this.jpaRepository = jpaRepository;
+    }
+
+    @Override
+    public Optional<SyncWatermark> find(UUID platformId, PlatformSyncType syncType) {
+        PlatformSyncWatermarkJpaEntity.Key key = new PlatformSyncWatermarkJpaEntity.Key();
+        key.setPlatformId(platformId);
+        key.setSyncType(syncType.name());
+        return jpaRepository.findById(key).map(this::toDomainValueObject);
+    }
+
+    @Override
+    public List<SyncWatermark> findBySyncType(PlatformSyncType syncType) {
+        return jpaRepository.findBySyncType(syncType.name())
+                .stream()
+                .map(this::toDomainValueObject)
+                .toList();
+    }
+
+    @Override
+    public void save(SyncWatermark watermark) {
+        int updated = jpaRepository.updateProgress(watermark.getPlatformId(), watermark.getSyncType().name(),
+                watermark.getUpdatedSince(), watermark.getCursor(), watermark.getRunStartedAt(), watermark.getNextRunAt(),
+                watermark.getConsecutiveFailures(), watermark.getLastSuccessAt(), watermark.getLastError());
+        if (updated > 0) {
+            return;
+        }
+        try {
+            jpaRepository.saveAndFlush(toJpaEntity(watermark));
+        } catch (DataIntegrityViolationException e) {
+            // 其他节点同时插入了同一水位，改为更新
+            jpaRepository.updateProgress(watermark.getPlatformId(), watermark.getSyncType().name(),
+                    watermark.getUpdatedSince(), watermark.getCursor(), watermark.getRunStartedAt(), watermark.getNextRunAt(),
+                    watermark.getConsecutiveFailures(), watermark.getLastSuccessAt(), watermark.getLastError());
+        }
+    }
+
+    @Override
+    public boolean tryAcquireLease(UUID platformId, PlatformSyncType syncType, String owner, LocalDateTime now, LocalDateTime leaseUntil) {
+        return jpaRepository.acquireLease(platformId, syncType.name(), owner, now, leaseUntil) > 0;
+    }
+
+    @Override
+    public void releaseLease(UUID platformId, PlatformSyncType syncType, String owner) {
+        jpaRepository.releaseLease(platformId, syncType.name(), owner);
+    }
+
+    private SyncWatermark toDomainValueObject(PlatformSyncWatermarkJpaEntity entity) {
+        return new SyncWatermark(entity.getPlatformId(), PlatformSyncType.valueOf(entity.getSyncType()),
+                entity.getUpdatedSince(), entity.getCursor(), entity.getRunStartedAt(), entity.getNextRunAt(),
+                entity.getConsecutiveFailures(), entity.getLastSuccessAt(), entity.getLastError());
+    }
+
+    private PlatformSyncWatermarkJpaEntity toJpaEntity(SyncWatermark watermark) {
+        PlatformSyncWatermarkJpaEntity entity = new PlatformSyncWatermarkJpaEntity();
+        entity.setPlatformId(watermark.getPlatformId());
+        entity.setSyncType(watermark.getSyncType().name());
+        entity.setUpdatedSince(watermark.getUpdatedSince());
+        entity.setCursor(watermark.getCursor());
+        entity.setRunStartedAt(watermark.getRunStartedAt());
+        entity.setNextRunAt(watermark.getNextRunAt());
+        entity.setConsecutiveFailures(watermark.getConsecutiveFailures());
+        entity.setLastSuccessAt(watermark.getLastSuccessAt());
+        entity.setLastError(watermark.getLastError());
+        return entity;
+    }
+}
@@ -0,0 +1,83 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.persistence.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import site.hexaarch.ecommerce.logistics.domain.logistics.repository.TrackingEventRepository;
+import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.TrackingEvent;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.TrackingEventJpaEntity;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.mapper.LogisticsOrderMapper;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.TrackingEventJpaRepository;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 轨迹事件仓库实现类。
+ * <p>
+ * 追加使用JDBC多行INSERT IGNORE：时间线只追加、不回读，不需要经过持久化上下文，
+ * 主键冲突的重复扫描由数据库直接忽略，语句返回的影响行数即实际写入的扫描数；读取时间线仍使用JPA。
+ *
+ * @author kenyon
+ */
+public class TrackingEventRepositoryImpl implements TrackingEventRepository {
+    private static final String INSERT_SQL = "INSERT IGNORE INTO logistics_tracking_events"
+            + " (tracking_number, occurred_at, status, location, description) VALUES ";
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?)";
+    private static final int BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TrackingEventJpaRepository trackingEventJpaRepository;
+    private final LogisticsOrderMapper logisticsOrderMapper;
+
+    // 手动添加构造函数，避免Lombok注解问题
+    public TrackingEventRepositoryImpl(JdbcTemplate jdbcTemplate, TrackingEventJpaRepository trackingEventJpaRepository,
+                                       LogisticsOrderMapper logisticsOrderMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.trackingEventJpaRepository = trackingEventJpaRepository;
+        this.logisticsOrderMapper = logisticsOrderMapper;
+    }
+
+    @Override
+    public int appendAll(List<TrackingEvent> events) {
+        int appended = 0;
+        for (int from = 0; from < events.size(); from += BATCH_SIZE) {
+            List<TrackingEvent> chunk = events.subList(from, Math.min(events.size(), from + BATCH_SIZE));
+            // 批处理的更新计数在驱动改写批量语句后不可靠，多行语句的影响行数不计被忽略的重复扫描
+            String sql = INSERT_SQL + String.join(", ", Collections.nCopies(chunk.size(), ROW_PLACEHOLDERS));
+            appended += jdbcTemplate.update(sql, statement -> {
+                int index = 1;
+                for (TrackingEvent event : chunk) {
+                    statement.setString(index++, event.getTrackingNumber());
+                    statement.setLong(index++, toEpochMilli(event.getOccurredAt()));
+                    statement.setString(index++, logisticsOrderMapper.logisticsStatusToJpaEntity(event.getStatus()).name());
+                    statement.setString(index++, event.getLocation());
+                    statement.setString(index++, event.getDescription());
+                }
+            });
+        }
+        return appended;
+    }
+
+    @Override
+    public List<TrackingEvent> findTimeline(String trackingNumber) {
+        return trackingEventJpaRepository.findByTrackingNumberOrderByOccurredAtAsc(trackingNumber)
+                .stream()
+                .map(this::toDomainValueObject)
+                .toList();
+    }
+
+    private TrackingEvent toDomainValueObject(TrackingEventJpaEntity entity) {
+        return new TrackingEvent(
+                entity.getTrackingNumber(),
+                logisticsOrderMapper.logisticsStatusFromJpaEntity(entity.getStatus()),
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(entity.getOccurredAt()), ZoneOffset.UTC),
+                entity.getLocation(),
+                entity.getDescription());
+    }
+
+    private static long toEpochMilli(LocalDateTime dateTime) {
+        return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+}
@@ -3,15 +3,25 @@ package site.hexaarch.ecommerce.logistics.infrastructure.persistence.repository;
 import org.springframework.stereotype.Repository;
 import site.hexaarch.ecommerce.logistics.domain.tenant.entity.User;
 import site.hexaarch.ecommerce.logistics.domain.tenant.repository.UserRepository;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.RoleJpaEntity;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.UserJpaEntity;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.mapper.RoleMapper;
 import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.mapper.UserMapper;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.RoleJpaRepository;
 import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.UserJpaRepository;
+import site.hexaarch.ecommerce.logistics.infrastructure.security.PermissionSnapshotCache;
 
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
  * UserRepository 实现类，用于操作用户实体的持久化操作。
+ * 用户的角色按角色ID持久化，读取时一次查询取回所有角色；保存和删除用户使所属租户的权限快照失效。
  *
  * @author kenyon
  */
@@ -19,48 +29,85 @@ import java.util.stream.Collectors;
 public class UserRepositoryImpl implements UserRepository {
 
     private final UserJpaRepository userJpaRepository;
+    private final RoleJpaRepository roleJpaRepository;
     private final UserMapper userMapper;
+    private final RoleMapper roleMapper;
+    private final PermissionSnapshotCache permissionSnapshotCache;
 
-    public UserRepositoryImpl(UserJpaRepository userJpaRepository, UserMapper userMapper) {
+    public UserRepositoryImpl(UserJpaRepository userJpaRepository, RoleJpaRepository roleJpaRepository,
+                              UserMapper userMapper, RoleMapper roleMapper,
+                              PermissionSnapshotCache permissionSnapshotCache) {
         this.userJpaRepository = userJpaRepository;
+        this.roleJpaRepository = roleJpaRepository;
         this.userMapper = userMapper;
+        this.roleMapper = roleMapper;
+        this.permissionSnapshotCache = permissionSnapshotCache;
     }
 
     @Override
     public User save(User user) {
         var jpaEntity = userMapper.toJpaEntity(user);
         var savedEntity = userJpaRepository.save(jpaEntity);
-        return userMapper.toDomainEntity(savedEntity);
+        permissionSnapshotCache.invalidateTenant(savedEntity.getTenantId());
+        return toDomainEntities(List.of(savedEntity)).get(0);
     }
 
     @Override
     public Optional<User> findById(String id) {
         return userJpaRepository.findById(id)
-                .map(userMapper::toDomainEntity);
+                .map(entity -> toDomainEntities(List.of(entity)).get(0));
     }
 
     @Override
     public Optional<User> findByUsername(String username) {
         return userJpaRepository.findByUsername(username)
-                .map(userMapper::toDomainEntity);
+                .map(entity -> toDomainEntities(List.of(entity)).get(0));
     }
 
     @Override
     public Optional<User> findByEmail(String email) {
         return userJpaRepository.findByEmail(email)
-                .map(userMapper::toDomainEntity);
+                .map(entity -> toDomainEntities(List.of(entity)).get(0));
     }
 
     @Override
     public List<User> findByTenantId(String tenantId) {
-        return userJpaRepository.findByTenantId(tenantId)
-                .stream()
-                .map(userMapper::toDomainEntity)
-                .collect(Collectors.toList());
+        return toDomainEntities(userJpaRepository.findWithRoleIdsByTenantId(tenantId));
     }
 
     @Override
     public void deleteById(String id) {
+        Optional<String> tenantId = userJpaRepository.findById(id).map(UserJpaEntity::getTenantId);
         userJpaRepository.deleteById(id);
+        tenantId.ifPresent(permissionSnapshotCache::invalidateTenant);
+    }
+
+    private List<User> toDomainEntities(List<UserJpaEntity> entities) {
+        Set<String> roleIds = new HashSet<>();
+        for (UserJpaEntity entity : entities) {
+            if (entity.getRoleIds() != null) {
+                roleIds.addAll(entity.getRoleIds());
+            }
+        }
+        Map<String, RoleJpaEntity> roles = new HashMap<>();
+        if (!roleIds.isEmpty()) {
+            for (RoleJpaEntity role : roleJpaRepository.findAllById(roleIds)) {
+                roles.put(role.getId(), role);
+            }
+        }
+        return entities.stream()
+                .map(entity -> {
+                    User user = userMapper.toDomainEntity(entity);
+                    if (entity.getRoleIds() != null) {
+                        for (String roleId : entity.getRoleIds()) {
+                            RoleJpaEntity role = roles.get(roleId);
+                            if (role != null) {
+                                user.addRole(roleMapper.toDomainEntity(role));
+                            }
+                        }
+                    }
+                    return user;
+                })
+                .collect(Collectors.toList());
     }
 }
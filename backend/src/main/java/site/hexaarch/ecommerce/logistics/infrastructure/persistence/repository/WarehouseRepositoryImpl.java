@@ -1,32 +1,66 @@
 package site.hexaarch.ecommerce.logistics.infrastructure.persistence.repository;
 
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
 import site.hexaarch.ecommerce.logistics.domain.warehouse.aggregate.Warehouse;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.entity.InventoryRecord;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.repository.InventoryLedgerRepository;
 import site.hexaarch.ecommerce.logistics.domain.warehouse.repository.WarehouseRepository;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.InventoryRecordJpaEntity;
 import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.mapper.WarehouseMapper;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.InventoryRecordJpaRepository;
 import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.WarehouseJpaRepository;
 
+import java.sql.Types;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 /**
  * 仓库仓库实现类，使用JPA实现持久化。
+ * <p>
+ * 已加锁的库存切片使用JDBC批量INSERT ... ON DUPLICATE KEY UPDATE写回，不经过持久化上下文逐行合并；
+ * 预留和分配数量由库存预留引擎维护，upsert只覆盖在库数量、状态和更新时间，并递增版本号使其他乐观锁写入失败重试。
  *
  * @author kenyon
  */
 public class WarehouseRepositoryImpl implements WarehouseRepository {
+    private static final String UPSERT_INVENTORY_RECORD_SQL = "INSERT INTO inventory_records"
+            + " (id, sku_code, product_id, warehouse_id, location_id, quantity, reserved_quantity, allocated_quantity,"
+            + " version, status, last_updated) VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0, ?, ?)"
+            + " ON DUPLICATE KEY UPDATE quantity = VALUES(quantity), status = VALUES(status),"
+            + " last_updated = VALUES(last_updated), version = version + 1";
+    private static final int BATCH_SIZE = 1000;
+
     private final WarehouseJpaRepository warehouseJpaRepository;
+    private final InventoryRecordJpaRepository inventoryRecordJpaRepository;
     private final WarehouseMapper warehouseMapper;
+    private final InventoryLedgerRepository inventoryLedgerRepository;
+    private final JdbcTemplate jdbcTemplate;
 
     // 手动添加构造函数，避免Lombok注解问题
-    public WarehouseRepositoryImpl(WarehouseJpaRepository warehouseJpaRepository, WarehouseMapper warehouseMapper) {
+    public WarehouseRepositoryImpl(WarehouseJpaRepository warehouseJpaRepository, InventoryRecordJpaRepository inventoryRecordJpaRepository, WarehouseMapper warehouseMapper,
+                                   InventoryLedgerRepository inventoryLedgerRepository, JdbcTemplate jdbcTemplate) {
         this.warehouseJpaRepository = warehouseJpaRepository;
+        this.inventoryRecordJpaRepository = inventoryRecordJpaRepository;
         this.warehouseMapper = warehouseMapper;
+        this.inventoryLedgerRepository = inventoryLedgerRepository;
+        this.jdbcTemplate = jdbcTemplate;
     }
 
     @Override
+    @Transactional
     public Warehouse save(Warehouse warehouse) {
+        // 库存切片缺少其余库存记录和库位，整体保存会触发orphanRemoval删除未加载的行
+        if (warehouse.loadedAsInventorySlice()) {
+            throw new IllegalStateException("Inventory slice must be saved with saveInventorySlice: " + warehouse.getWarehouseId());
+        }
         var warehouseJpaEntity = warehouseMapper.toJpaEntity(warehouse);
-        var savedEntity = warehouseJpaRepository.save(warehouseJpaEntity);
+        // 先刷新库存记录持有行锁，再分配流水序号，同一(仓库, SKU)的流水按序号顺序提交
+        var savedEntity = warehouseJpaRepository.saveAndFlush(warehouseJpaEntity);
+        // 库存流水与库存记录在同一事务中写入
+        inventoryLedgerRepository.appendAll(warehouse.pendingLedgerEntries());
+        warehouse.clearInventoryChanges();
         return warehouseMapper.toDomainAggregate(savedEntity);
     }
 
@@ -36,6 +70,86 @@ public class WarehouseRepositoryImpl implements WarehouseRepository {
                 .map(warehouseMapper::toDomainAggregate);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Warehouse> findInventorySlice(String id, Collection<String> productIds) {
+        return warehouseJpaRepository.findById(id)
+                .map(warehouseJpaEntity -> {
+                    List<InventoryRecordJpaEntity> records = productIds.isEmpty()
+                            ? List.of()
+                            : inventoryRecordJpaRepository.findByWarehouseIdAndProductIdIn(id, productIds);
+                    return warehouseMapper.toInventorySlice(warehouseJpaEntity, records);
+                });
+    }
+
+    @Override
+    @Transactional
+    public void saveInventorySlice(Warehouse warehouse) {
+        List<InventoryRecord> changedRecords = warehouse.changedInventoryRecords();
+        if (changedRecords.isEmpty()) {
+            return;
+        }
+        // 先刷新库存记录持有行锁，再分配流水序号，同一(仓库, SKU)的流水按序号顺序提交
+        inventoryRecordJpaRepository.saveAllAndFlush(changedRecords.stream()
+                .map(this::toInventoryRecordJpaEntity)
+                .toList());
+        warehouseJpaRepository.touchUpdatedAt(warehouse.getWarehouseId(), warehouse.getUpdatedAt());
+        // 库存流水与库存记录在同一事务中写入
+        inventoryLedgerRepository.appendAll(warehouse.pendingLedgerEntries());
+        warehouse.clearInventoryChanges();
+    }
+
+    @Override
+    @Transactional
+    public Optional<Warehouse> lockInventorySliceBySkus(String id, Collection<String> skuCodes) {
+        return warehouseJpaRepository.findById(id)
+                .map(warehouseJpaEntity -> {
+                    List<InventoryRecordJpaEntity> records = skuCodes.isEmpty()
+                            ? List.of()
+                            : inventoryRecordJpaRepository.lockByWarehouseIdAndSkuCodeIn(id, skuCodes);
+                    return warehouseMapper.toInventorySlice(warehouseJpaEntity, records);
+                });
+    }
+
+    @Override
+    @Transactional
+    public void saveLockedInventorySlice(Warehouse warehouse) {
+        List<InventoryRecord> changedRecords = warehouse.changedInventoryRecords();
+        if (changedRecords.isEmpty()) {
+            return;
+        }
+        Long lastUpdated = warehouseMapper.localDateTimeToLong(warehouse.getUpdatedAt());
+        jdbcTemplate.batchUpdate(UPSERT_INVENTORY_RECORD_SQL, changedRecords, BATCH_SIZE, (statement, inventoryRecord) -> {
+            statement.setString(1, inventoryRecord.getInventoryId());
+            statement.setString(2, inventoryRecord.getSku());
+            statement.setString(3, inventoryRecord.getProductId());
+            statement.setString(4, warehouse.getWarehouseId());
+            statement.setString(5, inventoryRecord.getLocationId());
+            statement.setInt(6, inventoryRecord.getQuantity());
+            statement.setInt(7, inventoryRecord.getReservedQuantity());
+            statement.setInt(8, inventoryRecord.getAllocatedQuantity());
+            statement.setString(9, warehouseMapper.inventoryStatusToJpaEntity(inventoryRecord.getInventoryStatus()).name());
+            if (lastUpdated != null) {
+                statement.setLong(10, lastUpdated);
+            } else {
+                statement.setNull(10, Types.BIGINT);
+            }
+        });
+        warehouseJpaRepository.touchUpdatedAt(warehouse.getWarehouseId(), warehouse.getUpdatedAt());
+        // 库存流水与库存记录在同一事务中写入
+        inventoryLedgerRepository.appendAll(warehouse.pendingLedgerEntries());
+        warehouse.clearInventoryChanges();
+    }
+
+    private InventoryRecordJpaEntity toInventoryRecordJpaEntity(InventoryRecord inventoryRecord) {
+        var inventoryRecordJpaEntity = warehouseMapper.toJpaEntity(inventoryRecord);
+        // 未指定库位时映射器会生成空ID的库位引用，需置空以免Hibernate视为瞬时对象
+        if (inventoryRecordJpaEntity.getLocation() != null && inventoryRecordJpaEntity.getLocation().getId() == null) {
+            inventoryRecordJpaEntity.setLocation(null);
+        }
+        return inventoryRecordJpaEntity;
+    }
+
     @Override
     public Optional<Warehouse> findByWarehouseCode(String warehouseCode) {
         return warehouseJpaRepository.findByWarehouseCode(warehouseCode)
@@ -0,0 +1,124 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.platform;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import site.hexaarch.ecommerce.logistics.domain.common.exception.BusinessException;
+import site.hexaarch.ecommerce.logistics.domain.platform.aggregate.PlatformIntegration;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 基于HTTP的电商平台库存客户端。
+ * <p>
+ * 请求 {@code POST {storeUrl}/inventory/batch}，请求体为 {@code {"items":[{"sku":..,"quantity":..}]}}，
+ * 认证、限流和重试策略与 {@link HttpPlatformOrderClient} 相同。推送的是绝对数量，重试是幂等的。
+ *
+ * @author kenyon
+ */
+@Component
+public class HttpPlatformInventoryClient implements PlatformInventoryClient {
+    private static final Logger log = LoggerFactory.getLogger(HttpPlatformInventoryClient.class);
+    private static final String ERROR_CODE = "PLATFORM_API_ERROR";
+
+    private final ObjectMapper objectMapper;
+    private final PlatformRateLimiter rateLimiter;
+    private final HttpClient httpClient;
+    private final Duration requestTimeout;
+    private final int maxAttempts;
+    private final long retryBackoffMillis;
+
+    // 手动添加构造函数，避免Lombok注解问题
+    public HttpPlatformInventoryClient(ObjectMapper objectMapper,
+                                       PlatformRateLimiter rateLimiter,
+                                       @Value("${platform.order-import.connect-timeout-ms:5000}") long connectTimeoutMillis,
+                                       @Value("${platform.order-import.request-timeout-ms:30000}") long requestTimeoutMillis,
+                                       @Value("${platform.order-import.max-attempts:3}") int maxAttempts,
+                                       @Value("${platform.order-import.retry-backoff-ms:500}") long retryBackoffMillis) {
+        this.objectMapper = objectMapper;
+        this.rateLimiter = rateLimiter;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+                .build();
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMillis);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoffMillis = Math.max(0, retryBackoffMillis);
+    }
+
+    @Override
+    public void pushInventory(PlatformIntegration platform, List<PlatformInventoryLevel> levels) {
+        if (levels.isEmpty()) {
+            return;
+        }
+        HttpRequest request = HttpRequest.newBuilder(inventoryUri(platform.getStoreUrl()))
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .header("Authorization", basicAuth(platform.getApiKey(), platform.getApiSecret()))
+                .POST(HttpRequest.BodyPublishers.ofByteArray(toJson(levels)))
+                .build();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                rateLimiter.acquire(platform.getId());
+                int status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                if (status / 100 == 2) {
+                    return;
+                }
+                if ((status != 429 && status < 500) || attempt >= maxAttempts) {
+                    throw new BusinessException("Platform inventory API returned status " + status, ERROR_CODE);
+                }
+                log.warn("平台库存接口返回 {}，第 {} 次重试", status, attempt);
+            } catch (IOException e) {
+                if (attempt >= maxAttempts) {
+                    throw new BusinessException("Failed to push platform inventory: " + e.getMessage(), ERROR_CODE, e);
+                }
+                log.warn("推送平台库存失败，第 {} 次重试: {}", attempt, e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new BusinessException("Interrupted while pushing platform inventory", ERROR_CODE, e);
+            }
+            sleepBeforeRetry(attempt);
+        }
+    }
+
+    private byte[] toJson(List<PlatformInventoryLevel> levels) {
+        try {
+            return objectMapper.writeValueAsBytes(Map.of("items", levels));
+        } catch (JsonProcessingException e) {
+            throw new BusinessException("Failed to serialize platform inventory", ERROR_CODE, e);
+        }
+    }
+
+    private void sleepBeforeRetry(int attempt) {
+        try {
+            Thread.sleep(retryBackoffMillis << (attempt - 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException("Interrupted while pushing platform inventory", ERROR_CODE, e);
+        }
+    }
+
+    private static URI inventoryUri(String storeUrl) {
+        if (storeUrl == null || storeUrl.isBlank()) {
+            throw new BusinessException("Platform store URL is not configured", ERROR_CODE);
+        }
+        String base = storeUrl.endsWith("/") ? storeUrl.substring(0, storeUrl.length() - 1) : storeUrl;
+        return URI.create(base + "/inventory/batch");
+    }
+
+    private static String basicAuth(String apiKey, String apiSecret) {
+        String credentials = (apiKey != null ? apiKey : "") + ":" + (apiSecret != null ? apiSecret : "");
+        return "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,126 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.platform;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import site.hexaarch.ecommerce.logistics.domain.common.exception.BusinessException;
+import site.hexaarch.ecommerce.logistics.domain.platform.aggregate.PlatformIntegration;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * 基于HTTP的电商平台订单客户端。
+ * <p>
+ * 请求 {@code GET {storeUrl}/orders?limit=..&updated_since=..&cursor=..}，使用API Key和API Secret做Basic认证，
+ * 响应体直接从输入流反序列化为 {@link PlatformOrderPage}，不先读成字符串。
+ * 每次请求（包括重试）先经过 {@link PlatformRateLimiter}；平台限流（429）和服务端错误（5xx）按指数退避重试，
+ * 其余错误立即失败。
+ *
+ * @author kenyon
+ */
+@Component
+public class HttpPlatformOrderClient implements PlatformOrderClient {
+    private static final Logger log = LoggerFactory.getLogger(HttpPlatformOrderClient.class);
+    private static final String ERROR_CODE = "PLATFORM_API_ERROR";
+
+    private final ObjectMapper objectMapper;
+    private final PlatformRateLimiter rateLimiter;
+    private final HttpClient httpClient;
+    private final Duration requestTimeout;
+    private final int maxAttempts;
+    private final long retryBackoffMillis;
+
+    // 手动添加构造函数，避免Lombok注解问题
+    public HttpPlatformOrderClient(ObjectMapper objectMapper,
+                                   PlatformRateLimiter rateLimiter,
+                                   @Value("${platform.order-import.connect-timeout-ms:5000}") long connectTimeoutMillis,
+                                   @Value("${platform.order-import.request-timeout-ms:30000}") long requestTimeoutMillis,
+                                   @Value("${platform.order-import.max-attempts:3}") int maxAttempts,
+                                   @Value("${platform.order-import.retry-backoff-ms:500}") long retryBackoffMillis) {
+        this.objectMapper = objectMapper;
+        this.rateLimiter = rateLimiter;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+                .build();
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMillis);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoffMillis = Math.max(0, retryBackoffMillis);
+    }
+
+    @Override
+    public PlatformOrderPage fetchOrders(PlatformIntegration platform, LocalDateTime updatedSince, String cursor, int limit) {
+        HttpRequest request = HttpRequest.newBuilder(ordersUri(platform.getStoreUrl(), updatedSince, cursor, limit))
+                .timeout(requestTimeout)
+                .header("Accept", "application/json")
+                .header("Authorization", basicAuth(platform.getApiKey(), platform.getApiSecret()))
+                .GET()
+                .build();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                rateLimiter.acquire(platform.getId());
+                HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+                int status = response.statusCode();
+                try (InputStream body = response.body()) {
+                    if (status / 100 == 2) {
+                        return objectMapper.readValue(body, PlatformOrderPage.class);
+                    }
+                    if ((status != 429 && status < 500) || attempt >= maxAttempts) {
+                        throw new BusinessException("Platform order API returned status " + status, ERROR_CODE);
+                    }
+                }
+                log.warn("平台订单接口返回 {}，第 {} 次重试", status, attempt);
+            } catch (IOException e) {
+                if (attempt >= maxAttempts) {
+                    throw new BusinessException("Failed to fetch platform orders: " + e.getMessage(), ERROR_CODE, e);
+                }
+                log.warn("拉取平台订单失败，第 {} 次重试: {}", attempt, e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new BusinessException("Interrupted while fetching platform orders", ERROR_CODE, e);
+            }
+            sleepBeforeRetry(attempt);
+        }
+    }
+
+    private void sleepBeforeRetry(int attempt) {
+        try {
+            Thread.sleep(retryBackoffMillis << (attempt - 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException("Interrupted while fetching platform orders", ERROR_CODE, e);
+        }
+    }
+
+    private static URI ordersUri(String storeUrl, LocalDateTime updatedSince, String cursor, int limit) {
+        if (storeUrl == null || storeUrl.isBlank()) {
+            throw new BusinessException("Platform store URL is not configured", ERROR_CODE);
+        }
+        String base = storeUrl.endsWith("/") ? storeUrl.substring(0, storeUrl.length() - 1) : storeUrl;
+        StringBuilder uri = new StringBuilder(base).append("/orders?limit=").append(limit);
+        if (updatedSince != null) {
+            uri.append("&updated_since=").append(URLEncoder.encode(updatedSince.atOffset(ZoneOffset.UTC).toString(), StandardCharsets.UTF_8));
+        }
+        if (cursor != null) {
+            uri.append("&cursor=").append(URLEncoder.encode(cursor, StandardCharsets.UTF_8));
+        }
+        return URI.create(uri.toString());
+    }
+
+    private static String basicAuth(String apiKey, String apiSecret) {
+        String credentials = (apiKey != null ? apiKey : "") + ":" + (apiSecret != null ? apiSecret : "");
+        return "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,20 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.platform;
+
+import site.hexaarch.ecommerce.logistics.domain.platform.aggregate.PlatformIntegration;
+
+import java.util.List;
+
+/**
+ * 电商平台库存客户端，通过平台的批量接口更新SKU库存。
+ *
+ * @author kenyon
+ */
+public interface PlatformInventoryClient {
+    /**
+     * 批量更新平台上的SKU库存，一次调用对应一次平台接口请求。
+     *
+     * @param platform 平台集成
+     * @param levels   SKU库存数量，同一SKU只出现一次
+     */
+    void pushInventory(PlatformIntegration platform, List<PlatformInventoryLevel> levels);
+}
@@ -0,0 +1,11 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.platform;
+
+/**
+ * 推送到电商平台的SKU库存数量。
+ *
+ * @param sku      SKU编码
+ * @param quantity 可售数量
+ * @author kenyon
+ */
+public record PlatformInventoryLevel(String sku, int quantity) {
+}
@@ -0,0 +1,274 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.platform;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import site.hexaarch.ecommerce.logistics.domain.platform.aggregate.PlatformIntegration;
+import site.hexaarch.ecommerce.logistics.domain.platform.repository.PlatformIntegrationRepository;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.event.InventoryMovementBatchEvent;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.event.InventoryMovementEvent;
+import site.hexaarch.ecommerce.logistics.infrastructure.inventory.InventoryReservationEngine;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.InventoryRecordJpaRepository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 平台库存推送器，把库存变动合并后批量推送到各电商平台。
+ * <p>
+ * 每次库存变动或预留变化只把(平台集成ID, SKU编码)登记到待推送集合，同一SKU在两次推送之间变动多少次都只推送一次。
+ * 推送的是各仓库可用数量（在库减已预留减已分配，每个仓库不低于0）之和，已承诺给订单的库存不推送给平台。
+ * 推送时按待推送的SKU从库存记录表一次汇总，不在内存中缓存各仓库的数量，因此乱序到达的事件和其他节点上的库存变动
+ * 都不会使推送的数量过期；预留变化在预留引擎写回库存记录表之后才登记，汇总时能读到新的预留数量。
+ * 待推送集合定时推送，积压数量达到阈值时提前推送；推送时按平台分批调用平台的批量接口，
+ * 推送失败的SKU放回待推送集合，下一轮重新汇总后再推送。
+ *
+ * @author kenyon
+ */
+@Component
+public class PlatformInventoryPublisher {
+    private static final Logger log = LoggerFactory.getLogger(PlatformInventoryPublisher.class);
+    /**
+     * 汇总可用数量时每条查询的SKU个数上限，避免IN列表过长
+     */
+    private static final int SUM_QUERY_CHUNK_SIZE = 1000;
+
+    private final PlatformIntegrationRepository platformIntegrationRepository;
+    private final InventoryRecordJpaRepository inventoryRecordJpaRepository;
+    private final PlatformInventoryClient platformInventoryClient;
+    private final Executor flushExecutor;
+    private final int batchSize;
+    private final int flushThreshold;
+    private final Set<PushKey> pending = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean flushQueued = new AtomicBoolean();
+    private final LongAdder coalescedMovements = new LongAdder();
+    private volatile List<UUID> activePlatformIds;
+
+    @Autowired
+    public PlatformInventoryPublisher(PlatformIntegrationRepository platformIntegrationRepository,
+                                      InventoryRecordJpaRepository inventoryRecordJpaRepository,
+                                      PlatformInventoryClient platformInventoryClient,
+                                      InventoryReservationEngine inventoryReservationEngine,
+                                      @Value("${platform.inventory-push.batch-size:100}") int batchSize,
+                                      @Value("${platform.inventory-push.flush-threshold:5000}") int flushThreshold) {
+        this(platformIntegrationRepository, inventoryRecordJpaRepository, platformInventoryClient,
+                Executors.newSingleThreadExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "platform-inventory-push");
+                    thread.setDaemon(true);
+                    return thread;
+                }), batchSize, flushThreshold);
+        inventoryReservationEngine.addWrittenQuantityListener((warehouseId, skuCode, reserved, allocated) ->
+                onCommittedQuantityWritten(skuCode));
+    }
+
+    PlatformInventoryPublisher(PlatformIntegrationRepository platformIntegrationRepository,
+                               InventoryRecordJpaRepository inventoryRecordJpaRepository,
+                               PlatformInventoryClient platformInventoryClient,
+                               Executor flushExecutor,
+                               int batchSize,
+                               int flushThreshold) {
+        this.platformIntegrationRepository = platformIntegrationRepository;
+        this.inventoryRecordJpaRepository = inventoryRecordJpaRepository;
+        this.platformInventoryClient = platformInventoryClient;
+        this.flushExecutor = flushExecutor;
+        this.batchSize = Math.max(1, batchSize);
+        this.flushThreshold = Math.max(1, flushThreshold);
+    }
+
+    /**
+     * 库存变动提交后登记待推送的SKU。
+     *
+     * @param event 库存变动事件
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onInventoryMovement(InventoryMovementEvent event) {
+        markPending(event.getInventoryMovement() != null ? event.getInventoryMovement().getSku() : null);
+    }
+
+    /**
+     * 预留引擎把SKU的已预留和已分配数量写回库存记录表后登记待推送的SKU。
+     *
+     * @param sku SKU编码
+     */
+    void onCommittedQuantityWritten(String sku) {
+        markPending(sku);
+    }
+
+    private void markPending(String sku) {
+        if (sku == null) {
+            return;
+        }
+        List<UUID> platformIds = activePlatformIds();
+        if (platformIds.isEmpty()) {
+            return;
+        }
+        for (UUID platformId : platformIds) {
+            pending.add(new PushKey(platformId, sku));
+        }
+        coalescedMovements.increment();
+        if (pending.size() >= flushThreshold) {
+            requestFlush();
+        }
+    }
+
+    /**
+     * 库存批量变动逐条按库存变动处理。
+     *
+     * @param event 库存批量变动事件
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onInventoryMovementBatch(InventoryMovementBatchEvent event) {
+        event.getMovements().forEach(this::onInventoryMovement);
+    }
+
+    /**
+     * 定时推送待推送数量。
+     */
+    @Scheduled(fixedDelayString = "${platform.inventory-push.flush-interval-ms:1000}")
+    public void scheduledFlush() {
+        requestFlush();
+    }
+
+    /**
+     * 查询待推送的(平台, SKU)个数。
+     *
+     * @return 待推送数量
+     */
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    private void requestFlush() {
+        if (!flushQueued.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            flushExecutor.execute(this::flush);
+        } catch (RejectedExecutionException e) {
+            flushQueued.set(false);
+        }
+    }
+
+    /**
+     * 把待推送表按平台分批推送，同一时间只有推送线程调用。
+     */
+    void flush() {
+        // 先清除标记再取数，推送期间的新变动会再次触发推送
+        flushQueued.set(false);
+        Map<UUID, PlatformIntegration> platforms = new HashMap<>();
+        for (PlatformIntegration platform : platformIntegrationRepository.findByStatusActive()) {
+            platforms.put(platform.getId(), platform);
+        }
+        activePlatformIds = List.copyOf(platforms.keySet());
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        // 先取出待推送的键再汇总数量，汇总之后提交的变动会重新登记，由下一轮推送
+        List<PushKey> keys = new ArrayList<>();
+        for (PushKey key : pending) {
+            if (pending.remove(key) && platforms.containsKey(key.platformId())) {
+                keys.add(key);
+            }
+        }
+        Map<String, Integer> available;
+        try {
+            available = sumAvailable(keys);
+        } catch (RuntimeException e) {
+            pending.addAll(keys);
+            log.warn("汇总待推送SKU的可用数量失败，{} 个待推送项留待下一轮: {}", keys.size(), e.getMessage());
+            return;
+        }
+        Map<UUID, List<PlatformInventoryLevel>> levelsByPlatform = new LinkedHashMap<>();
+        for (PushKey key : keys) {
+            levelsByPlatform.computeIfAbsent(key.platformId(), id -> new ArrayList<>())
+                    .add(new PlatformInventoryLevel(key.sku(), available.getOrDefault(key.sku(), 0)));
+        }
+        long movements = coalescedMovements.sumThenReset();
+        int requests = 0;
+        int levels = 0;
+        for (Map.Entry<UUID, List<PlatformInventoryLevel>> entry : levelsByPlatform.entrySet()) {
+            PlatformIntegration platform = platforms.get(entry.getKey());
+            List<PlatformInventoryLevel> platformLevels = entry.getValue();
+            for (int from = 0; from < platformLevels.size(); from += batchSize) {
+                List<PlatformInventoryLevel> batch = platformLevels.subList(from, Math.min(platformLevels.size(), from + batchSize));
+                try {
+                    platformInventoryClient.pushInventory(platform, batch);
+                    requests++;
+                    levels += batch.size();
+                } catch (RuntimeException e) {
+                    // 该平台剩余的批次全部放回，下一轮再推送
+                    requeue(platform.getId(), platformLevels.subList(from, platformLevels.size()));
+                    log.warn("推送平台 {} 库存失败，{} 个SKU留待下一轮: {}", platform.getId(),
+                            platformLevels.size() - from, e.getMessage());
+                    break;
+                }
+            }
+        }
+        if (requests > 0) {
+            log.info("推送平台库存: {} 次库存或预留变动合并为 {} 个SKU数量，{} 次平台请求", movements, levels, requests);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (flushExecutor instanceof ExecutorService service) {
+            service.shutdownNow();
+        }
+        flush();
+    }
+
+    private void requeue(UUID platformId, List<PlatformInventoryLevel> levels) {
+        for (PlatformInventoryLevel level : levels) {
+            pending.add(new PushKey(platformId, level.sku()));
+        }
+    }
+
+    private List<UUID> activePlatformIds() {
+        List<UUID> platformIds = activePlatformIds;
+        if (platformIds == null) {
+            platformIds = platformIntegrationRepository.findByStatusActive().stream()
+                    .map(PlatformIntegration::getId)
+                    .toList();
+            activePlatformIds = platformIds;
+        }
+        return platformIds;
+    }
+
+    /**
+     * 按SKU汇总各仓库的可用数量，SKU按批次查询，没有库存记录的SKU不在结果中。
+     */
+    private Map<String, Integer> sumAvailable(List<PushKey> keys) {
+        List<String> skus = keys.stream().map(PushKey::sku).distinct().toList();
+        Map<String, Integer> available = new HashMap<>();
+        for (int from = 0; from < skus.size(); from += SUM_QUERY_CHUNK_SIZE) {
+            List<String> chunk = skus.subList(from, Math.min(skus.size(), from + SUM_QUERY_CHUNK_SIZE));
+            for (InventoryRecordJpaRepository.SkuAvailable total : inventoryRecordJpaRepository.sumAvailableBySkuCodeIn(chunk)) {
+                long quantity = total.getQuantity() != null ? total.getQuantity() : 0;
+                available.put(total.getSkuCode(), (int) Math.min(Integer.MAX_VALUE, quantity));
+            }
+        }
+        return available;
+    }
+
+    private record PushKey(UUID platformId, String sku) {
+    }
+}
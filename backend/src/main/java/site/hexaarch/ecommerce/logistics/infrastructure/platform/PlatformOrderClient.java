@@ -0,0 +1,23 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.platform;
+
+import site.hexaarch.ecommerce.logistics.domain.platform.aggregate.PlatformIntegration;
+
+import java.time.LocalDateTime;
+
+/**
+ * 电商平台订单客户端，按游标分页拉取平台订单，可只拉取某个时间之后变更的订单。
+ *
+ * @author kenyon
+ */
+public interface PlatformOrderClient {
+    /**
+     * 拉取一页订单。
+     *
+     * @param platform     平台集成
+     * @param updatedSince 变更时间下界（UTC），为null时拉取全部订单
+     * @param cursor       上一页返回的游标，为null时从第一页开始
+     * @param limit        每页数量
+     * @return 订单分页
+     */
+    PlatformOrderPage fetchOrders(PlatformIntegration platform, LocalDateTime updatedSince, String cursor, int limit);
+}
@@ -0,0 +1,25 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.platform;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 电商平台订单分页，对应平台订单接口的响应。
+ *
+ * @author kenyon
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class PlatformOrderPage {
+    /**
+     * 本页订单
+     */
+    private List<PlatformOrderPayload> orders = new ArrayList<>();
+    /**
+     * 下一页游标，为空表示没有下一页
+     */
+    private String nextCursor;
+}
@@ -0,0 +1,72 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.platform;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 电商平台订单报文，字段保持平台原样，由导入流水线校验后转换为订单聚合。
+ *
+ * @author kenyon
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class PlatformOrderPayload {
+    /**
+     * 平台订单号
+     */
+    private String orderNumber;
+    /**
+     * 客户ID
+     */
+    private String customerId;
+    /**
+     * 下单时间，ISO-8601格式，带时区偏移时转换为UTC
+     */
+    private String createdAt;
+    private List<Item> items = new ArrayList<>();
+    private Address shippingAddress;
+    private Payment payment;
+
+    /**
+     * 订单行项报文
+     */
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Item {
+        private String sku;
+        private String productName;
+        private Integer quantity;
+        private BigDecimal unitPrice;
+    }
+
+    /**
+     * 收货地址报文
+     */
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Address {
+        private String country;
+        private String province;
+        private String city;
+        private String street;
+        private String zipCode;
+        private String recipient;
+        private String phone;
+    }
+
+    /**
+     * 付款信息报文
+     */
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Payment {
+        private String method;
+        private String status;
+        private String transactionId;
+        private BigDecimal amount;
+    }
+}
@@ -0,0 +1,48 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.platform;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 平台接口限流器，按平台集成限制请求速率。
+ * <p>
+ * 每个平台集成维护下一个可用的请求时刻，请求依次预约时刻，预约到未来时刻的请求等待到该时刻再发出，
+ * 因此同一平台的请求间隔不小于 1/速率 秒，不同平台互不影响。
+ *
+ * @author kenyon
+ */
+@Component
+public class PlatformRateLimiter {
+    private final long intervalNanos;
+    private final Map<UUID, AtomicLong> nextSlots = new ConcurrentHashMap<>();
+
+    // 手动添加构造函数，避免Lombok注解问题
+    public PlatformRateLimiter(@Value("${platform.rate-limit.requests-per-second:5}") double requestsPerSecond) {
+        this.intervalNanos = requestsPerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond) : 0;
+    }
+
+    /**
+     * 等待直到可以向平台发出下一个请求。
+     *
+     * @param platformId 平台集成ID
+     * @throws InterruptedException 等待时被中断
+     */
+    public void acquire(UUID platformId) throws InterruptedException {
+        if (intervalNanos == 0 || platformId == null) {
+            return;
+        }
+        AtomicLong nextSlot = nextSlots.computeIfAbsent(platformId, key -> new AtomicLong(System.nanoTime()));
+        long now = System.nanoTime();
+        long previous = nextSlot.getAndAccumulate(now, (next, current) -> Math.max(next, current) + intervalNanos);
+        long waitNanos = previous - now;
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+}
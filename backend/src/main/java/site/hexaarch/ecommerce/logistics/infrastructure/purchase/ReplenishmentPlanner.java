@@ -0,0 +1,369 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.purchase;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+import site.hexaarch.ecommerce.logistics.application.service.purchase.PurchaseApplicationService;
+import site.hexaarch.ecommerce.logistics.domain.purchase.repository.ReplenishmentPolicyRepository;
+import site.hexaarch.ecommerce.logistics.domain.purchase.service.ReplenishmentPlanningService;
+import site.hexaarch.ecommerce.logistics.domain.purchase.valueobject.PurchaseOrderDraft;
+import site.hexaarch.ecommerce.logistics.domain.purchase.valueobject.PurchaseStatus;
+import site.hexaarch.ecommerce.logistics.domain.purchase.valueobject.ReplenishmentPolicy;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.repository.InventoryLedgerRepository;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.InventoryRecordJpaRepository;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.SchedulerLeaseJpaRepository;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.purchase.PurchaseOrderJpaRepository;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Stream;
+
+/**
+ * 补货计划，定时为所有仓库中的SKU计算补货点并批量生成补货采购单。
+ * <p>
+ * 每个仓库只流式读取一次库存记录，连同出库速度（库存流水中最近一段时间的出库数量）、到货提前期
+ * （已到货采购单从创建到到货的平均时长）、未完成采购单数量和已有补货策略一起放入按SKU下标的数组，
+ * 按下标区间拆分到ForkJoinPool并行计算补货点、补货数量和需要下单的数量。计算完成后按(仓库, 供应商)合并成采购单，
+ * 一次批量创建，变化了的补货策略一次批量保存，供缺货补货聚合器使用。
+ * <p>
+ * 补货点 = 日均出库量 × (提前期天数 + 安全天数)，补货数量 = 日均出库量 × 补货周期天数；
+ * 库存位置（在库 − 已占用 + 未完成采购）低于补货点时至少补到补货点。没有出库的SKU不计算补货点，保留已有策略。
+ * <p>
+ * 定时计划先获取数据库租约，多个节点同时触发时只有一个节点执行；租约执行完不释放而是等到期，
+ * 各节点定时触发的时间稍有先后时，晚触发的节点也不会再生成一遍采购单。
+ *
+ * @author kenyon
+ */
+@Component
+public class ReplenishmentPlanner implements ReplenishmentPlanningService {
+    private static final Logger log = LoggerFactory.getLogger(ReplenishmentPlanner.class);
+    private static final String LEASE_NAME = "replenishment-planner";
+    private static final List<String> OPEN_STATUSES = List.of(PurchaseStatus.PENDING.getCode(),
+            PurchaseStatus.APPROVED.getCode(), PurchaseStatus.IN_TRANSIT.getCode());
+    private static final double SECONDS_PER_DAY = 86_400d;
+    private static final int INITIAL_CAPACITY = 1024;
+    /**
+     * 每个并行子任务至少处理的SKU数量
+     */
+    private static final int SPLIT_THRESHOLD = 4096;
+
+    private final InventoryRecordJpaRepository inventoryRecordJpaRepository;
+    private final InventoryLedgerRepository inventoryLedgerRepository;
+    private final PurchaseOrderJpaRepository purchaseOrderJpaRepository;
+    private final ReplenishmentPolicyRepository replenishmentPolicyRepository;
+    private final PurchaseApplicationService purchaseApplicationService;
+    private final TransactionOperations transactionOperations;
+    private final String tenantId;
+    private final String defaultSupplierId;
+    private final String defaultSupplierName;
+    private final int velocityDays;
+    private final int leadTimeHistoryDays;
+    private final double defaultLeadTimeDays;
+    private final double safetyDays;
+    private final double orderCycleDays;
+    private final SchedulerLease lease;
+    private final Clock clock;
+    private final ForkJoinPool forkJoinPool;
+
+    @Autowired
+    public ReplenishmentPlanner(InventoryRecordJpaRepository inventoryRecordJpaRepository,
+                                InventoryLedgerRepository inventoryLedgerRepository,
+                                PurchaseOrderJpaRepository purchaseOrderJpaRepository,
+                                ReplenishmentPolicyRepository replenishmentPolicyRepository,
+                                PurchaseApplicationService purchaseApplicationService,
+                                TransactionOperations transactionOperations,
+                                SchedulerLeaseJpaRepository schedulerLeaseJpaRepository,
+                                @Value("${purchase.replenishment.tenant-id:default-tenant}") String tenantId,
+                                @Value("${purchase.replenishment.default-supplier-id:DEFAULT_SUPPLIER}") String defaultSupplierId,
+                                @Value("${purchase.replenishment.default-supplier-name:Default Supplier}") String defaultSupplierName,
+                                @Value("${purchase.replenishment.planner.velocity-days:28}") int velocityDays,
+                                @Value("${purchase.replenishment.planner.lead-time-history-days:180}") int leadTimeHistoryDays,
+                                @Value("${purchase.replenishment.planner.default-lead-time-days:7}") double defaultLeadTimeDays,
+                                @Value("${purchase.replenishment.planner.safety-days:3}") double safetyDays,
+                                @Value("${purchase.replenishment.planner.order-cycle-days:14}") double orderCycleDays,
+                                @Value("${purchase.replenishment.planner.lease-seconds:1800}") long leaseSeconds) {
+        this(inventoryRecordJpaRepository, inventoryLedgerRepository, purchaseOrderJpaRepository, replenishmentPolicyRepository,
+                purchaseApplicationService, transactionOperations, schedulerLeaseJpaRepository, tenantId, defaultSupplierId,
+                defaultSupplierName, velocityDays, leadTimeHistoryDays, defaultLeadTimeDays, safetyDays, orderCycleDays,
+                Duration.ofSeconds(leaseSeconds), UUID.randomUUID().toString(), Clock.systemDefaultZone(), ForkJoinPool.commonPool());
+    }
+
+    ReplenishmentPlanner(InventoryRecordJpaRepository inventoryRecordJpaRepository,
+                         InventoryLedgerRepository inventoryLedgerRepository,
+                         PurchaseOrderJpaRepository purchaseOrderJpaRepository,
+                         ReplenishmentPolicyRepository replenishmentPolicyRepository,
+                         PurchaseApplicationService purchaseApplicationService,
+                         TransactionOperations transactionOperations,
+                         SchedulerLeaseJpaRepository schedulerLeaseJpaRepository,
+                         String tenantId,
+                         String defaultSupplierId,
+                         String defaultSupplierName,
+                         int velocityDays,
+                         int leadTimeHistoryDays,
+                         double defaultLeadTimeDays,
+                         double safetyDays,
+                         double orderCycleDays,
+                         Duration leaseDuration,
+                         String owner,
+                         Clock clock,
+                         ForkJoinPool forkJoinPool) {
+        this.inventoryRecordJpaRepository = inventoryRecordJpaRepository;
+        this.inventoryLedgerRepository = inventoryLedgerRepository;
+        this.purchaseOrderJpaRepository = purchaseOrderJpaRepository;
+        this.replenishmentPolicyRepository = replenishmentPolicyRepository;
+        this.purchaseApplicationService = purchaseApplicationService;
+        this.transactionOperations = transactionOperations;
+        this.tenantId = tenantId;
+        this.defaultSupplierId = defaultSupplierId;
+        this.defaultSupplierName = defaultSupplierName;
+        this.velocityDays = Math.max(1, velocityDays);
+        this.leadTimeHistoryDays = leadTimeHistoryDays;
+        this.defaultLeadTimeDays = defaultLeadTimeDays;
+        this.safetyDays = safetyDays;
+        this.orderCycleDays = orderCycleDays;
+        this.lease = new SchedulerLease(schedulerLeaseJpaRepository, LEASE_NAME, owner, leaseDuration);
+        this.clock = clock;
+        this.forkJoinPool = forkJoinPool;
+    }
+
+    /**
+     * 定时为所有仓库生成补货计划，单个仓库失败不影响其他仓库；其他节点持有租约时跳过本次计划。
+     */
+    @Scheduled(cron = "${purchase.replenishment.planner.cron:0 0 2 * * *}")
+    public void planAll() {
+        try {
+            if (!lease.tryAcquire(clock.instant())) {
+                log.info("补货计划租约由其他节点持有，跳过本次计划");
+                return;
+            }
+        } catch (RuntimeException e) {
+            log.warn("获取补货计划租约失败，跳过本次计划: {}", e.getMessage());
+            return;
+        }
+        long startedAt = System.nanoTime();
+        int skus = 0;
+        int purchaseOrders = 0;
+        for (String warehouseId : inventoryRecordJpaRepository.findWarehouseIds()) {
+            try {
+                Result result = plan(warehouseId);
+                skus += result.skus();
+                purchaseOrders += result.purchaseOrders();
+            } catch (RuntimeException e) {
+                log.error("仓库 {} 补货计划失败", warehouseId, e);
+            }
+        }
+        log.info("补货计划完成: {} 个(仓库, SKU)，生成 {} 张采购单，耗时 {} ms",
+                skus, purchaseOrders, (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    @Override
+    public int planWarehouse(String warehouseId) {
+        return plan(warehouseId).purchaseOrders();
+    }
+
+    private Result plan(String warehouseId) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        Plan plan = load(warehouseId, now);
+        if (plan.size == 0) {
+            return new Result(0, 0);
+        }
+        forkJoinPool.invoke(new PlanTask(plan, 0, plan.size));
+
+        List<ReplenishmentPolicy> changedPolicies = new ArrayList<>();
+        Map<String, List<PurchaseOrderDraft.Line>> linesBySupplier = new LinkedHashMap<>();
+        Map<String, String> supplierNames = new HashMap<>();
+        for (int i = 0; i < plan.size; i++) {
+            if (plan.reorderPoints[i] < 0) {
+                continue;
+            }
+            ReplenishmentPolicy policy = plan.policies[i];
+            if (policy == null || policy.getReorderPoint() != plan.reorderPoints[i]
+                    || policy.getReorderQuantity() != plan.reorderQuantities[i]) {
+                ReplenishmentPolicy.Builder builder = policy != null ? policy.toBuilder()
+                        : ReplenishmentPolicy.builder()
+                        .warehouseId(warehouseId)
+                        .skuCode(plan.skuCodes[i])
+                        .supplierId(defaultSupplierId)
+                        .supplierName(defaultSupplierName);
+                policy = builder.reorderPoint(plan.reorderPoints[i]).reorderQuantity(plan.reorderQuantities[i]).build();
+                changedPolicies.add(policy);
+            }
+            if (plan.orderQuantities[i] > 0) {
+                supplierNames.putIfAbsent(policy.getSupplierId(), policy.getSupplierName());
+                linesBySupplier.computeIfAbsent(policy.getSupplierId(), id -> new ArrayList<>())
+                        .add(new PurchaseOrderDraft.Line(policy.getSkuCode(), policy.getProductName(),
+                                plan.orderQuantities[i], policy.getUnitCost()));
+            }
+        }
+
+        replenishmentPolicyRepository.saveAll(changedPolicies);
+        List<PurchaseOrderDraft> drafts = new ArrayList<>(linesBySupplier.size());
+        linesBySupplier.forEach((supplierId, lines) ->
+                drafts.add(new PurchaseOrderDraft(tenantId, supplierId, supplierNames.get(supplierId), warehouseId, lines)));
+        purchaseApplicationService.createPurchaseOrders(drafts);
+        log.info("仓库 {} 补货计划: {} 个SKU，更新 {} 个补货策略，生成 {} 张采购单",
+                warehouseId, plan.size, changedPolicies.size(), drafts.size());
+        return new Result(plan.size, drafts.size());
+    }
+
+    /**
+     * 读取仓库的库存记录和计算所需的统计数据，统计数据按SKU编码对齐到库存记录的下标。
+     */
+    private Plan load(String warehouseId, LocalDateTime now) {
+        Map<String, Long> outbound = inventoryLedgerRepository.sumOutboundQuantities(warehouseId, now.minusDays(velocityDays));
+        Map<String, Double> leadTimeDays = new HashMap<>();
+        for (PurchaseOrderJpaRepository.SkuLeadTime line : purchaseOrderJpaRepository.averageLeadTimesByStatus(
+                PurchaseStatus.DELIVERED.getCode(), warehouseId, now.minusDays(leadTimeHistoryDays))) {
+            if (line.getLeadTimeSeconds() != null) {
+                leadTimeDays.put(line.getSkuCode(), line.getLeadTimeSeconds().doubleValue() / SECONDS_PER_DAY);
+            }
+        }
+        Map<String, Long> onOrder = new HashMap<>();
+        for (PurchaseOrderJpaRepository.SkuQuantity line : purchaseOrderJpaRepository.sumQuantitiesByStatusIn(OPEN_STATUSES, warehouseId)) {
+            onOrder.put(line.getSkuCode(), line.getQuantity() != null ? line.getQuantity() : 0L);
+        }
+        Map<String, ReplenishmentPolicy> policies = new HashMap<>();
+        for (ReplenishmentPolicy policy : replenishmentPolicyRepository.findByWarehouseId(warehouseId)) {
+            policies.put(policy.getSkuCode(), policy);
+        }
+
+        Plan plan = new Plan(INITIAL_CAPACITY);
+        transactionOperations.executeWithoutResult(status -> {
+            try (Stream<InventoryRecordJpaRepository.InventoryLevel> levels =
+                         inventoryRecordJpaRepository.streamInventoryLevelsByWarehouseId(warehouseId)) {
+                levels.forEach(level -> {
+                    String skuCode = level.getSkuCode();
+                    int onHand = level.getQuantity() != null ? level.getQuantity() : 0;
+                    long available = (long) onHand - level.getReservedQuantity() - level.getAllocatedQuantity();
+                    // 同一SKU在多个库位有库存记录时合并为一个下标
+                    Integer index = plan.indexBySkuCode.get(skuCode);
+                    if (index != null) {
+                        plan.positions[index] += available;
+                        return;
+                    }
+                    plan.add(skuCode, outbound.getOrDefault(skuCode, 0L) / (double) velocityDays,
+                            leadTimeDays.getOrDefault(skuCode, defaultLeadTimeDays),
+                            available + onOrder.getOrDefault(skuCode, 0L), policies.get(skuCode));
+                });
+            }
+        });
+        return plan;
+    }
+
+    /**
+     * 计算单个SKU的补货点、补货数量和需要下单的数量，没有出库的SKU补货点记为-1。
+     */
+    private void compute(Plan plan, int i) {
+        double dailyDemand = plan.dailyDemands[i];
+        if (dailyDemand <= 0) {
+            plan.reorderPoints[i] = -1;
+            return;
+        }
+        int reorderPoint = toInt(Math.ceil(dailyDemand * (plan.leadTimeDays[i] + safetyDays)));
+        int reorderQuantity = Math.max(1, toInt(Math.ceil(dailyDemand * orderCycleDays)));
+        plan.reorderPoints[i] = reorderPoint;
+        plan.reorderQuantities[i] = reorderQuantity;
+        long position = plan.positions[i];
+        // 至少补到补货点
+        plan.orderQuantities[i] = position < reorderPoint ? toInt(Math.max(reorderQuantity, reorderPoint - position)) : 0;
+    }
+
+    private static int toInt(double value) {
+        return (int) Math.min(Integer.MAX_VALUE, value);
+    }
+
+    /**
+     * 按下标区间拆分的计算任务，每个子任务只写自己区间内的数组元素。
+     */
+    private final class PlanTask extends RecursiveAction {
+        private final Plan plan;
+        private final int from;
+        private final int to;
+
+        private PlanTask(Plan plan, int from, int to) {
+            this.plan = plan;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    ReplenishmentPlanner.this.compute(plan, i);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new PlanTask(plan, from, middle), new PlanTask(plan, middle, to));
+        }
+    }
+
+    /**
+     * 单个仓库的计划数据，按SKU下标存放输入和计算结果。
+     */
+    private static final class Plan {
+        private final Map<String, Integer> indexBySkuCode = new HashMap<>();
+        private String[] skuCodes;
+        private double[] dailyDemands;
+        private double[] leadTimeDays;
+        private long[] positions;
+        private ReplenishmentPolicy[] policies;
+        private int[] reorderPoints;
+        private int[] reorderQuantities;
+        private int[] orderQuantities;
+        private int size;
+
+        private Plan(int capacity) {
+            skuCodes = new String[capacity];
+            dailyDemands = new double[capacity];
+            leadTimeDays = new double[capacity];
+            positions = new long[capacity];
+            policies = new ReplenishmentPolicy[capacity];
+            reorderPoints = new int[capacity];
+            reorderQuantities = new int[capacity];
+            orderQuantities = new int[capacity];
+        }
+
+        private void add(String skuCode, double dailyDemand, double leadTime, long position, ReplenishmentPolicy policy) {
+            if (size == skuCodes.length) {
+                int capacity = size * 2;
+                skuCodes = Arrays.copyOf(skuCodes, capacity);
+                dailyDemands = Arrays.copyOf(dailyDemands, capacity);
+                leadTimeDays = Arrays.copyOf(leadTimeDays, capacity);
+                positions = Arrays.copyOf(positions, capacity);
+                policies = Arrays.copyOf(policies, capacity);
+                reorderPoints = Arrays.copyOf(reorderPoints, capacity);
+                reorderQuantities = Arrays.copyOf(reorderQuantities, capacity);
+                orderQuantities = Arrays.copyOf(orderQuantities, capacity);
+            }
+            indexBySkuCode.put(skuCode, size);
+            skuCodes[size] = skuCode;
+            dailyDemands[size] = dailyDemand;
+            leadTimeDays[size] = leadTime;
+            positions[size] = position;
+            policies[size] = policy;
+            size++;
+        }
+    }
+
+    /**
+     * 单个仓库的计划结果
+     */
+    private record Result(int skus, int purchaseOrders) {
+    }
+}
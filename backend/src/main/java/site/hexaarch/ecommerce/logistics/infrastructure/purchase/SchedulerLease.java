@@ -0,0 +1,59 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.purchase;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.SchedulerLeaseJpaRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * 定时任务的数据库租约，同一租约同一时间只由一个节点持有，过期后其他节点可以接管。
+ *
+ * @author kenyon
+ */
+final class SchedulerLease {
+    private final SchedulerLeaseJpaRepository schedulerLeaseJpaRepository;
+    private final String leaseName;
+    private final String owner;
+    private final Duration leaseDuration;
+
+    // 手动添加构造函数，避免Lombok注解问题
+    SchedulerLease(SchedulerLeaseJpaRepository schedulerLeaseJpaRepository, String leaseName, String owner, Duration leaseDuration) {
+        this.schedulerLeaseJpaRepository = schedulerLeaseJpaRepository;
+        this.leaseName = leaseName;
+        this.owner = owner;
+        this.leaseDuration = leaseDuration;
+    }
+
+    /**
+     * 尝试获取或续期租约，租约行不存在时插入，其他节点持有未过期的租约时返回false
+     *
+     * @param now 当前时间
+     * @return 是否由本节点持有租约
+     */
+    boolean tryAcquire(Instant now) {
+        LocalDateTime leaseNow = LocalDateTime.ofInstant(now, ZoneOffset.UTC);
+        LocalDateTime leaseUntil = leaseNow.plus(leaseDuration);
+        if (schedulerLeaseJpaRepository.acquireLease(leaseName, owner, leaseNow, leaseUntil) > 0) {
+            return true;
+        }
+        if (schedulerLeaseJpaRepository.existsById(leaseName)) {
+            return false;
+        }
+        try {
+            return schedulerLeaseJpaRepository.insertLease(leaseName, owner, leaseUntil) > 0;
+        } catch (DataIntegrityViolationException e) {
+            // 其他节点同时插入了租约行
+            return false;
+        }
+    }
+
+    /**
+     * 释放本节点持有的租约
+     */
+    void release() {
+        schedulerLeaseJpaRepository.releaseLease(leaseName, owner);
+    }
+}
@@ -0,0 +1,314 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.purchase;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import site.hexaarch.ecommerce.logistics.application.service.purchase.PurchaseApplicationService;
+import site.hexaarch.ecommerce.logistics.domain.purchase.repository.ReplenishmentPolicyRepository;
+import site.hexaarch.ecommerce.logistics.domain.purchase.valueobject.PurchaseOrderDraft;
+import site.hexaarch.ecommerce.logistics.domain.purchase.valueobject.PurchaseStatus;
+import site.hexaarch.ecommerce.logistics.domain.purchase.valueobject.ReplenishmentPolicy;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.event.InventoryMovementBatchEvent;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.event.InventoryMovementEvent;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.event.InventoryShortageEvent;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.SchedulerLeaseJpaRepository;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.purchase.PurchaseOrderJpaRepository;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 缺货补货聚合器，把库存不足合并成按窗口生成的补货采购单。
+ * <p>
+ * 库存不足按(仓库, SKU)去重，窗口内同一SKU无论触发多少次都只记录最新的在库数量；每个窗口结束时按(仓库, 供应商)
+ * 把不足的SKU合并成一张采购单，所有采购单在一个事务中创建。是否不足按补货策略的补货点判断，补货策略启动时一次加载到内存；
+ * 已有未完成采购单的SKU不再下单，已下单的SKU在库存恢复到补货点或冷却期结束之前也不再下单。
+ * <p>
+ * 每个节点只汇总本节点提交的库存变动，生成采购单前先获取数据库租约，多个节点的窗口依次执行；
+ * 未完成采购单的检查和采购单的创建都在租约内，一个节点提交的采购单对之后获得租约的节点可见，不会重复下单。
+ *
+ * @author kenyon
+ */
+@Component
+public class ShortageReplenishmentAggregator {
+    private static final Logger log = LoggerFactory.getLogger(ShortageReplenishmentAggregator.class);
+    private static final String LEASE_NAME = "shortage-replenishment";
+    private static final List<String> OPEN_STATUSES = List.of(PurchaseStatus.PENDING.getCode(),
+            PurchaseStatus.APPROVED.getCode(), PurchaseStatus.IN_TRANSIT.getCode());
+
+    private final ReplenishmentPolicyRepository replenishmentPolicyRepository;
+    private final PurchaseOrderJpaRepository purchaseOrderJpaRepository;
+    private final PurchaseApplicationService purchaseApplicationService;
+    private final String tenantId;
+    private final int defaultReorderPoint;
+    private final int defaultReorderQuantity;
+    private final String defaultSupplierId;
+    private final String defaultSupplierName;
+    private final long cooldownMs;
+    private final SchedulerLease lease;
+    private final Clock clock;
+    private final Map<ShortageKey, Integer> pending = new ConcurrentHashMap<>();
+    private final Map<ShortageKey, Long> orderedUntil = new ConcurrentHashMap<>();
+    private final LongAdder receivedShortages = new LongAdder();
+    private volatile Map<ShortageKey, ReplenishmentPolicy> policies = Map.of();
+
+    @Autowired
+    public ShortageReplenishmentAggregator(ReplenishmentPolicyRepository replenishmentPolicyRepository,
+                                           PurchaseOrderJpaRepository purchaseOrderJpaRepository,
+                                           PurchaseApplicationService purchaseApplicationService,
+                                           SchedulerLeaseJpaRepository schedulerLeaseJpaRepository,
+                                           @Value("${purchase.replenishment.tenant-id:default-tenant}") String tenantId,
+                                           @Value("${purchase.replenishment.default-reorder-point:10}") int defaultReorderPoint,
+                                           @Value("${purchase.replenishment.default-reorder-quantity:100}") int defaultReorderQuantity,
+                                           @Value("${purchase.replenishment.default-supplier-id:DEFAULT_SUPPLIER}") String defaultSupplierId,
+                                           @Value("${purchase.replenishment.default-supplier-name:Default Supplier}") String defaultSupplierName,
+                                           @Value("${purchase.replenishment.cooldown-ms:86400000}") long cooldownMs,
+                                           @Value("${purchase.replenishment.lease-seconds:300}") long leaseSeconds) {
+        this(replenishmentPolicyRepository, purchaseOrderJpaRepository, purchaseApplicationService,
+                schedulerLeaseJpaRepository, tenantId, defaultReorderPoint, defaultReorderQuantity, defaultSupplierId,
+                defaultSupplierName, cooldownMs, Duration.ofSeconds(leaseSeconds), Clock.systemUTC(),
+                UUID.randomUUID().toString());
+    }
+
+    ShortageReplenishmentAggregator(ReplenishmentPolicyRepository replenishmentPolicyRepository,
+                                    PurchaseOrderJpaRepository purchaseOrderJpaRepository,
+                                    PurchaseApplicationService purchaseApplicationService,
+                                    SchedulerLeaseJpaRepository schedulerLeaseJpaRepository,
+                                    String tenantId,
+                                    int defaultReorderPoint,
+                                    int defaultReorderQuantity,
+                                    String defaultSupplierId,
+                                    String defaultSupplierName,
+                                    long cooldownMs,
+                                    Duration leaseDuration,
+                                    Clock clock,
+                                    String owner) {
+        this.replenishmentPolicyRepository = replenishmentPolicyRepository;
+        this.purchaseOrderJpaRepository = purchaseOrderJpaRepository;
+        this.purchaseApplicationService = purchaseApplicationService;
+        this.tenantId = tenantId;
+        this.defaultReorderPoint = defaultReorderPoint;
+        this.defaultReorderQuantity = Math.max(1, defaultReorderQuantity);
+        this.defaultSupplierId = defaultSupplierId;
+        this.defaultSupplierName = defaultSupplierName;
+        this.cooldownMs = cooldownMs;
+        this.lease = new SchedulerLease(schedulerLeaseJpaRepository, LEASE_NAME, owner, leaseDuration);
+        this.clock = clock;
+    }
+
+    /**
+     * 启动后加载补货策略。
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        loadPolicies();
+    }
+
+    /**
+     * 定时重新加载补货策略。
+     */
+    @Scheduled(fixedDelayString = "${purchase.replenishment.policy-reload-interval-ms:600000}",
+            initialDelayString = "${purchase.replenishment.policy-reload-interval-ms:600000}")
+    public void scheduledReload() {
+        loadPolicies();
+    }
+
+    /**
+     * 从数据库加载全部补货策略，替换内存中的策略表。
+     */
+    public void loadPolicies() {
+        try {
+            Map<ShortageKey, ReplenishmentPolicy> loaded = new HashMap<>();
+            for (ReplenishmentPolicy policy : replenishmentPolicyRepository.findAll()) {
+                loaded.put(new ShortageKey(policy.getWarehouseId(), policy.getSkuCode()), policy);
+            }
+            policies = loaded;
+            log.info("加载补货策略: {} 个(仓库, SKU)", loaded.size());
+        } catch (RuntimeException e) {
+            log.error("加载补货策略失败，继续使用旧策略", e);
+        }
+    }
+
+    /**
+     * 记录库存不足事件。
+     *
+     * @param event 库存不足事件
+     */
+    public void onShortage(InventoryShortageEvent event) {
+        record(event.getWarehouseId(), event.getSku(), event.getCurrentQuantity());
+    }
+
+    /**
+     * 库存变动提交后按补货点检查在库数量：低于补货点时记为不足，恢复到补货点时解除已下单的限制。
+     *
+     * @param event 库存变动事件
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onInventoryMovement(InventoryMovementEvent event) {
+        if (event.getInventoryMovement() == null) {
+            return;
+        }
+        record(event.getWarehouseId(), event.getInventoryMovement().getSku(), event.getNewQuantity());
+    }
+
+    /**
+     * 库存批量变动逐条按库存变动处理。
+     *
+     * @param event 库存批量变动事件
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onInventoryMovementBatch(InventoryMovementBatchEvent event) {
+        event.getMovements().forEach(this::onInventoryMovement);
+    }
+
+    private void record(String warehouseId, String skuCode, int quantity) {
+        if (warehouseId == null || skuCode == null) {
+            return;
+        }
+        ShortageKey key = new ShortageKey(warehouseId, skuCode);
+        ReplenishmentPolicy policy = policies.get(key);
+        int reorderPoint = policy != null ? policy.getReorderPoint() : defaultReorderPoint;
+        if (quantity >= reorderPoint) {
+            pending.remove(key);
+            orderedUntil.remove(key);
+            return;
+        }
+        receivedShortages.increment();
+        pending.put(key, quantity);
+    }
+
+    /**
+     * 查询当前窗口中待补货的(仓库, SKU)数量。
+     *
+     * @return 待补货数量
+     */
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * 窗口结束时为不足的SKU按(仓库, 供应商)合并生成采购单，其他节点持有租约时本窗口的不足记录留待下一个窗口。
+     */
+    @Scheduled(fixedDelayString = "${purchase.replenishment.window-ms:60000}")
+    public synchronized void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        long now = clock.millis();
+        try {
+            if (!lease.tryAcquire(Instant.ofEpochMilli(now))) {
+                log.debug("缺货补货租约由其他节点持有，{} 个SKU留待下一个窗口", pending.size());
+                return;
+            }
+        } catch (RuntimeException e) {
+            log.warn("获取缺货补货租约失败，{} 个SKU留待下一个窗口: {}", pending.size(), e.getMessage());
+            return;
+        }
+        try {
+            flushWindow(now);
+        } finally {
+            releaseLease();
+        }
+    }
+
+    private void flushWindow(long now) {
+        Map<ShortageKey, Integer> window = new HashMap<>();
+        for (ShortageKey key : pending.keySet()) {
+            Integer quantity = pending.remove(key);
+            if (quantity != null) {
+                window.put(key, quantity);
+            }
+        }
+        long received = receivedShortages.sumThenReset();
+        orderedUntil.values().removeIf(until -> until <= now);
+        window.keySet().removeIf(orderedUntil::containsKey);
+        if (window.isEmpty()) {
+            return;
+        }
+
+        try {
+            Map<String, Set<String>> skusByWarehouse = new LinkedHashMap<>();
+            window.keySet().forEach(key -> skusByWarehouse.computeIfAbsent(key.warehouseId(), id -> new HashSet<>()).add(key.skuCode()));
+            Map<SupplierKey, List<PurchaseOrderDraft.Line>> linesBySupplier = new LinkedHashMap<>();
+            Map<SupplierKey, String> supplierNames = new HashMap<>();
+            List<ShortageKey> ordered = new ArrayList<>();
+            for (Map.Entry<String, Set<String>> entry : skusByWarehouse.entrySet()) {
+                String warehouseId = entry.getKey();
+                // 每个仓库一次查询已有未完成采购单的SKU
+                Set<String> onOrder = new HashSet<>();
+                purchaseOrderJpaRepository.sumQuantitiesByStatusIn(OPEN_STATUSES, warehouseId, entry.getValue())
+                        .forEach(line -> onOrder.add(line.getSkuCode()));
+                for (String skuCode : entry.getValue()) {
+                    ShortageKey key = new ShortageKey(warehouseId, skuCode);
+                    // 已有未完成采购单的SKU不进入冷却期，采购单完成后仍不足时可以再次下单
+                    if (onOrder.contains(skuCode)) {
+                        continue;
+                    }
+                    ordered.add(key);
+                    ReplenishmentPolicy policy = policies.get(key);
+                    SupplierKey supplierKey = new SupplierKey(warehouseId,
+                            policy != null ? policy.getSupplierId() : defaultSupplierId);
+                    supplierNames.putIfAbsent(supplierKey, policy != null ? policy.getSupplierName() : defaultSupplierName);
+                    linesBySupplier.computeIfAbsent(supplierKey, k -> new ArrayList<>())
+                            .add(toLine(skuCode, window.get(key), policy));
+                }
+            }
+
+            List<PurchaseOrderDraft> drafts = new ArrayList<>(linesBySupplier.size());
+            linesBySupplier.forEach((supplierKey, lines) -> drafts.add(new PurchaseOrderDraft(tenantId,
+                    supplierKey.supplierId(), supplierNames.get(supplierKey), supplierKey.warehouseId(), lines)));
+            purchaseApplicationService.createPurchaseOrders(drafts);
+            long until = now + cooldownMs;
+            ordered.forEach(key -> orderedUntil.put(key, until));
+            log.info("缺货补货: {} 次库存不足合并为 {} 个SKU，{} 个SKU生成 {} 张采购单", received, window.size(),
+                    ordered.size(), drafts.size());
+        } catch (RuntimeException e) {
+            // 放回本窗口的不足记录，已有更新的数量时保留更新的
+            window.forEach(pending::putIfAbsent);
+            log.warn("缺货补货下单失败，{} 个SKU留待下一个窗口: {}", window.size(), e.getMessage());
+        }
+    }
+
+    private void releaseLease() {
+        try {
+            lease.release();
+        } catch (RuntimeException e) {
+            log.warn("释放缺货补货租约失败，租约到期后自动释放: {}", e.getMessage());
+        }
+    }
+
+    private PurchaseOrderDraft.Line toLine(String skuCode, int quantity, ReplenishmentPolicy policy) {
+        if (policy == null) {
+            return new PurchaseOrderDraft.Line(skuCode, skuCode,
+                    Math.max(defaultReorderQuantity, defaultReorderPoint - quantity), BigDecimal.ZERO);
+        }
+        // 至少补到补货点
+        int orderQuantity = Math.max(policy.getReorderQuantity(), policy.getReorderPoint() - quantity);
+        return new PurchaseOrderDraft.Line(skuCode, policy.getProductName(), Math.max(1, orderQuantity), policy.getUnitCost());
+    }
+
+    private record ShortageKey(String warehouseId, String skuCode) {
+    }
+
+    private record SupplierKey(String warehouseId, String supplierId) {
+    }
+}
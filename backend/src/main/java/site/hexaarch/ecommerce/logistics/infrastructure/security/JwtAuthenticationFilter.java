@@ -10,13 +10,18 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
+import site.hexaarch.ecommerce.logistics.domain.tenant.valueobject.UserStatus;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * JWT认证过滤器，用于在每个请求中验证JWT令牌并设置Spring Security上下文。
+ * <p>
+ * 令牌只证明身份，用户状态、角色和权限每次请求都从 {@link PermissionSnapshotCache} 读取：
+ * 用户被禁用、锁定、删除或角色被撤销后，已签发的令牌最迟在快照TTL后失去相应的权限。
  *
  * @author kenyon
  */
@@ -24,9 +29,12 @@ import java.util.List;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider jwtTokenProvider;
+    private final PermissionSnapshotCache permissionSnapshotCache;
 
-    public JwtAuthenticationFilter() {
-        this.jwtTokenProvider = new JwtTokenProvider();
+    // 手动添加构造函数，避免Lombok注解问题
+    public JwtAuthenticationFilter(JwtTokenProvider jwtTokenProvider, PermissionSnapshotCache permissionSnapshotCache) {
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.permissionSnapshotCache = permissionSnapshotCache;
     }
 
     @Override
@@ -34,21 +42,23 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
         try {
             String jwt = getJwtFromRequest(request);
+            Optional<VerifiedToken> verified = jwtTokenProvider.verify(jwt);
 
-            if (jwt != null && jwtTokenProvider.validateToken(jwt)) {
-                String username = jwtTokenProvider.getUsernameFromToken(jwt);
-                String tenantId = jwtTokenProvider.getTenantIdFromToken(jwt);
+            Optional<PermissionSnapshot.UserGrant> grant = verified.flatMap(token ->
+                    permissionSnapshotCache.snapshot(token.tenantId()).findUser(token.username()));
+
+            // 用户已不存在或不再处于活跃状态时不认证
+            if (grant.isPresent() && grant.get().getStatus() == UserStatus.ACTIVE) {
+                VerifiedToken token = verified.get();
 
                 // 设置租户上下文
-                TenantContext.setTenantId(tenantId);
+                TenantContext.setTenantId(token.tenantId());
 
-                // 创建认证对象
-                List<SimpleGrantedAuthority> authorities = new ArrayList<>();
-                // 这里可以从令牌中提取角色信息，或者从数据库中获取
-                // authorities.add(new SimpleGrantedAuthority("ROLE_USER"));
+                // 创建认证对象，角色和权限取自当前的权限快照而不是令牌
+                List<SimpleGrantedAuthority> authorities = authoritiesOf(grant.get());
 
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        username, null, authorities);
+                        token.username(), null, authorities);
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                 // 设置认证上下文
@@ -58,7 +68,26 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             logger.error("Failed to set user authentication in security context", e);
         }
 
-        chain.doFilter(request, response);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            // 线程会被复用，请求结束后清除租户上下文
+            TenantContext.clearTenantId();
+        }
+    }
+
+    /**
+     * 用户的每个角色对应一个ROLE_前缀的权限，每个权限对应一个同名的权限
+     */
+    static List<SimpleGrantedAuthority> authoritiesOf(PermissionSnapshot.UserGrant grant) {
+        List<SimpleGrantedAuthority> authorities = new ArrayList<>(grant.getRoleNames().size() + grant.getPermissions().size());
+        for (String roleName : grant.getRoleNames()) {
+            authorities.add(new SimpleGrantedAuthority("ROLE_" + roleName));
+        }
+        for (String permission : grant.getPermissions()) {
+            authorities.add(new SimpleGrantedAuthority(permission));
+        }
+        return authorities;
     }
 
     private String getJwtFromRequest(HttpServletRequest request) {
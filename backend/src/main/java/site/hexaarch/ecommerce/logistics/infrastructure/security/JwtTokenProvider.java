@@ -1,37 +1,71 @@
 package site.hexaarch.ecommerce.logistics.infrastructure.security;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * JWT令牌提供者，用于生成和验证JWT令牌。
+ * <p>
+ * 签名密钥和解析器在构造时创建一次。验证通过的声明按令牌的SHA-256摘要缓存到令牌过期为止，
+ * 同一令牌的后续请求只需计算摘要，不再验签和解析JSON；缓存条目数有上限，写满时先清理过期条目，
+ * 仍然写满时淘汰任意一个条目。缓存容量为0时不缓存。
+ * <p>
+ * 令牌在 {@code typ} 声明中标明是访问令牌还是刷新令牌，验证时只接受访问令牌，
+ * 刷新令牌和不带类型声明的令牌都不能用于访问接口。
  *
  * @author kenyon
  */
 @Component
 public class JwtTokenProvider {
+    private static final Logger log = LoggerFactory.getLogger(JwtTokenProvider.class);
+    private static final String DEFAULT_TENANT_ID = "default-tenant";
+    private static final String TOKEN_TYPE_CLAIM = "typ";
+    private static final String ACCESS_TOKEN_TYPE = "access";
+    private static final String REFRESH_TOKEN_TYPE = "refresh";
 
-    @Value("${jwt.secret:#{'mySecretKeyMustBeAtLeast256BitsLongForHS512Algorithm'}}")
-    private String jwtSecret;
+    private final long jwtExpiration;
+    private final long jwtRefreshExpiration;
+    private final SecretKey signingKey;
+    private final JwtParser jwtParser;
+    private final int claimsCacheSize;
+    private final Map<ByteBuffer, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
 
-    @Value("${jwt.expiration:86400000}") // 默认24小时
-    private long jwtExpiration;
-
-    @Value("${jwt.refresh.expiration:604800000}") // 默认7天
-    private long jwtRefreshExpiration;
-
-    private SecretKey getSigningKey() {
+    // 手动添加构造函数，避免Lombok注解问题
+    public JwtTokenProvider(@Value("${jwt.secret:#{'mySecretKeyMustBeAtLeast256BitsLongForHS512Algorithm'}}") String jwtSecret,
+                            @Value("${jwt.expiration:86400000}") long jwtExpiration, // 默认24小时
+                            @Value("${jwt.refresh.expiration:604800000}") long jwtRefreshExpiration, // 默认7天
+                            @Value("${jwt.claims-cache.max-size:10000}") int claimsCacheSize) {
+        this.jwtExpiration = jwtExpiration;
+        this.jwtRefreshExpiration = jwtRefreshExpiration;
         // 使用JJWT提供的密钥构建器确保密钥长度足够安全
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        this.jwtParser = Jwts.parser().verifyWith(signingKey).build();
+        this.claimsCacheSize = Math.max(0, claimsCacheSize);
     }
 
     /**
@@ -45,13 +79,14 @@ public class JwtTokenProvider {
         Map<String, Object> claims = new HashMap<>();
         claims.put("username", userDetails.getUsername());
         claims.put("roles", userDetails.getAuthorities());
+        claims.put(TOKEN_TYPE_CLAIM, ACCESS_TOKEN_TYPE);
 
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
@@ -68,13 +103,14 @@ public class JwtTokenProvider {
         claims.put("username", username);
         claims.put("tenantId", tenantId);
         claims.put("roles", roles);
+        claims.put(TOKEN_TYPE_CLAIM, ACCESS_TOKEN_TYPE);
 
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(username)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
@@ -87,34 +123,71 @@ public class JwtTokenProvider {
     public String generateRefreshToken(String username) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("username", username);
+        claims.put(TOKEN_TYPE_CLAIM, REFRESH_TOKEN_TYPE);
 
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(username)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + jwtRefreshExpiration))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
+    /**
+     * 验证令牌签名和有效期，返回认证所需的声明。
+     *
+     * @param token JWT令牌
+     * @return 验证通过的声明，令牌无效、已过期或不是访问令牌时返回Optional.empty()
+     */
+    public Optional<VerifiedToken> verify(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+        long now = System.currentTimeMillis();
+        ByteBuffer key = claimsCacheSize > 0 ? digest(token) : null;
+        if (key != null) {
+            VerifiedToken cached = verifiedTokens.get(key);
+            if (cached != null) {
+                if (cached.expiresAtMillis() > now) {
+                    return Optional.of(cached);
+                }
+                verifiedTokens.remove(key, cached);
+                return Optional.empty();
+            }
+        }
+
+        VerifiedToken verified;
+        try {
+            verified = toVerifiedToken(jwtParser.parseSignedClaims(token).getPayload());
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("JWT令牌无效: {}", e.getMessage());
+            return Optional.empty();
+        }
+        if (key != null && verified.expiresAtMillis() > now) {
+            cache(key, verified, now);
+        }
+        return Optional.of(verified);
+    }
+
     /**
      * 从令牌中提取用户名
      *
      * @param token JWT令牌
-     * @return 用户名
+     * @return 用户名，令牌无效时返回null
      */
     public String getUsernameFromToken(String token) {
-        return "";
+        return verify(token).map(VerifiedToken::username).orElse(null);
     }
 
     /**
      * 从令牌中提取租户ID
      *
      * @param token JWT令牌
-     * @return 租户ID
+     * @return 租户ID，令牌中没有租户ID时返回默认租户，令牌无效时返回null
      */
     public String getTenantIdFromToken(String token) {
-        return "default-tenant";
+        return verify(token).map(VerifiedToken::tenantId).orElse(null);
     }
 
     /**
@@ -124,6 +197,63 @@ public class JwtTokenProvider {
      * @return 是否有效
      */
     public boolean validateToken(String token) {
-        return true;
+        return verify(token).isPresent();
+    }
+
+    private void cache(ByteBuffer key, VerifiedToken verified, long now) {
+        if (verifiedTokens.size() >= claimsCacheSize) {
+            verifiedTokens.values().removeIf(token -> token.expiresAtMillis() <= now);
+            Iterator<ByteBuffer> iterator = verifiedTokens.keySet().iterator();
+            while (verifiedTokens.size() >= claimsCacheSize && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+        verifiedTokens.put(key, verified);
+    }
+
+    private static VerifiedToken toVerifiedToken(Claims claims) {
+        if (!ACCESS_TOKEN_TYPE.equals(claims.get(TOKEN_TYPE_CLAIM, String.class))) {
+            throw new IllegalArgumentException("JWT is not an access token");
+        }
+        String username = claims.getSubject();
+        if (username == null || username.isBlank()) {
+            throw new IllegalArgumentException("JWT subject is missing");
+        }
+        String tenantId = claims.get("tenantId", String.class);
+        Date expiration = claims.getExpiration();
+        if (expiration == null) {
+            throw new IllegalArgumentException("JWT expiration is missing");
+        }
+        return new VerifiedToken(username, tenantId != null ? tenantId : DEFAULT_TENANT_ID, rolesOf(claims.get("roles")),
+                expiration.getTime());
+    }
+
+    /**
+     * 角色声明可能是字符串数组，也可能是序列化后的GrantedAuthority对象（{"authority": "ROLE_X"}）。
+     */
+    private static List<String> rolesOf(Object roles) {
+        if (!(roles instanceof Collection<?> values)) {
+            return List.of();
+        }
+        List<String> result = new ArrayList<>(values.size());
+        for (Object value : values) {
+            if (value instanceof String role) {
+                result.add(role);
+            } else if (value instanceof Map<?, ?> authority && authority.get("authority") instanceof String role) {
+                result.add(role);
+            } else if (value instanceof GrantedAuthority authority) {
+                result.add(authority.getAuthority());
+            }
+        }
+        return List.copyOf(result);
+    }
+
+    private static ByteBuffer digest(String token) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,215 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.security;
+
+import site.hexaarch.ecommerce.logistics.domain.tenant.valueobject.UserStatus;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * 租户权限快照，创建后不可变。
+ * <p>
+ * 快照内把租户角色用到的权限编号，每个角色的权限转换为位图，用户的权限位图是其所有角色位图的并集，
+ * 权限检查只需一次哈希查找和一次位运算。引用了快照中不存在的角色的用户忽略该角色。
+ *
+ * @author kenyon
+ */
+public final class PermissionSnapshot {
+    private final String tenantId;
+    private final Map<String, Integer> permissionIndex;
+    private final Map<String, UserGrant> usersByUsername;
+
+    private PermissionSnapshot(String tenantId, Map<String, Integer> permissionIndex, Map<String, UserGrant> usersByUsername) {
+        this.tenantId = tenantId;
+        this.permissionIndex = permissionIndex;
+        this.usersByUsername = usersByUsername;
+    }
+
+    public static Builder builder(String tenantId) {
+        return new Builder(tenantId);
+    }
+
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    /**
+     * 检查用户是否拥有权限。
+     *
+     * @param username   用户名
+     * @param permission 权限
+     * @return 用户存在且任一角色拥有该权限时返回true
+     */
+    public boolean hasPermission(String username, String permission) {
+        if (username == null || permission == null) {
+            return false;
+        }
+        UserGrant grant = usersByUsername.get(username);
+        Integer index = permissionIndex.get(permission);
+        return grant != null && index != null && grant.has(index);
+    }
+
+    /**
+     * 按用户名查找用户授权。
+     *
+     * @param username 用户名
+     * @return 用户授权
+     */
+    public Optional<UserGrant> findUser(String username) {
+        return username == null ? Optional.empty() : Optional.ofNullable(usersByUsername.get(username));
+    }
+
+    /**
+     * 获取快照中的所有用户名。
+     *
+     * @return 用户名集合
+     */
+    public Set<String> usernames() {
+        return usersByUsername.keySet();
+    }
+
+    /**
+     * 获取快照中编号的权限数量。
+     *
+     * @return 权限数量
+     */
+    public int permissionCount() {
+        return permissionIndex.size();
+    }
+
+    /**
+     * 用户授权，包含认证所需的用户信息、角色名称和权限位图。
+     */
+    public static final class UserGrant {
+        private final String userId;
+        private final String username;
+        private final String password;
+        private final UserStatus status;
+        private final List<String> roleNames;
+        private final List<String> permissions;
+        private final long[] permissionBits;
+
+        private UserGrant(String userId, String username, String password, UserStatus status, List<String> roleNames,
+                          List<String> permissions, long[] permissionBits) {
+            this.userId = userId;
+            this.username = username;
+            this.password = password;
+            this.status = status;
+            this.roleNames = roleNames;
+            this.permissions = permissions;
+            this.permissionBits = permissionBits;
+        }
+
+        public String getUserId() {
+            return userId;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public UserStatus getStatus() {
+            return status;
+        }
+
+        public List<String> getRoleNames() {
+            return roleNames;
+        }
+
+        public List<String> getPermissions() {
+            return permissions;
+        }
+
+        private boolean has(int index) {
+            int word = index >>> 6;
+            return word < permissionBits.length && (permissionBits[word] & (1L << index)) != 0;
+        }
+    }
+
+    /**
+     * 权限快照构建器。
+     */
+    public static final class Builder {
+        private final String tenantId;
+        private final Map<String, RoleEntry> roles = new HashMap<>();
+        private final List<UserEntry> users = new ArrayList<>();
+
+        private Builder(String tenantId) {
+            this.tenantId = tenantId;
+        }
+
+        public Builder role(String roleId, String name, Collection<String> permissions) {
+            roles.put(roleId, new RoleEntry(name, permissions != null ? List.copyOf(permissions) : List.of()));
+            return this;
+        }
+
+        public Builder user(String userId, String username, String password, UserStatus status, Collection<String> roleIds) {
+            users.add(new UserEntry(userId, username, password, status, roleIds != null ? List.copyOf(roleIds) : List.of()));
+            return this;
+        }
+
+        public PermissionSnapshot build() {
+            // 按字典序编号，同一份角色数据总是得到同样的编号
+            TreeSet<String> allPermissions = new TreeSet<>();
+            for (RoleEntry role : roles.values()) {
+                allPermissions.addAll(role.permissions());
+            }
+            Map<String, Integer> permissionIndex = new HashMap<>();
+            List<String> permissionNames = new ArrayList<>(allPermissions);
+            for (String permission : permissionNames) {
+                permissionIndex.put(permission, permissionIndex.size());
+            }
+            int words = (permissionIndex.size() + 63) >>> 6;
+
+            Map<String, long[]> roleBits = new HashMap<>();
+            for (Map.Entry<String, RoleEntry> role : roles.entrySet()) {
+                long[] bits = new long[words];
+                for (String permission : role.getValue().permissions()) {
+                    int index = permissionIndex.get(permission);
+                    bits[index >>> 6] |= 1L << index;
+                }
+                roleBits.put(role.getKey(), bits);
+            }
+
+            Map<String, UserGrant> usersByUsername = new HashMap<>();
+            for (UserEntry user : users) {
+                long[] bits = new long[words];
+                TreeSet<String> roleNames = new TreeSet<>();
+                for (String roleId : user.roleIds()) {
+                    long[] granted = roleBits.get(roleId);
+                    if (granted == null) {
+                        continue;
+                    }
+                    roleNames.add(roles.get(roleId).name());
+                    for (int i = 0; i < words; i++) {
+                        bits[i] |= granted[i];
+                    }
+                }
+                List<String> permissions = new ArrayList<>();
+                for (int i = 0; i < permissionNames.size(); i++) {
+                    if ((bits[i >>> 6] & (1L << i)) != 0) {
+                        permissions.add(permissionNames.get(i));
+                    }
+                }
+                usersByUsername.put(user.username(), new UserGrant(user.userId(), user.username(), user.password(),
+                        user.status(), List.copyOf(roleNames), List.copyOf(permissions), bits));
+            }
+            return new PermissionSnapshot(tenantId, Map.copyOf(permissionIndex), Map.copyOf(usersByUsername));
+        }
+    }
+
+    private record RoleEntry(String name, List<String> permissions) {
+    }
+
+    private record UserEntry(String userId, String username, String password, UserStatus status, List<String> roleIds) {
+    }
+}
@@ -0,0 +1,211 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.security;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import site.hexaarch.ecommerce.logistics.domain.tenant.valueobject.UserStatus;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.RoleJpaEntity;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.UserJpaEntity;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.RoleJpaRepository;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.UserJpaRepository;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 租户权限快照缓存，按租户缓存 {@link PermissionSnapshot}，第一次使用时用两条查询构建（租户用户及其角色ID、租户角色和系统角色及其权限）。
+ * <p>
+ * 用户或角色保存、删除时由仓储调用 {@link #invalidateTenant(String)} 使该租户的快照失效，系统角色变更使所有快照失效；
+ * 在事务中失效时提交后再失效一次，避免并发请求在提交前把旧数据重新放回缓存。每次失效递增代数，构建期间发生过失效的快照不写入缓存。
+ * 失效只作用于当前节点，快照在TTL到期后重新构建，其他节点上的权限变更最迟在TTL后生效。
+ * 认证过滤器每个请求从快照读取用户状态、角色和权限，请求路径上的权限检查只读取快照，不访问数据库。
+ * 状态为空或无法识别的用户按非活跃处理，不授予任何权限。
+ *
+ * @author kenyon
+ */
+@Component
+public class PermissionSnapshotCache {
+    private static final String SYSTEM_TENANT_ID = "SYSTEM";
+
+    private final UserJpaRepository userJpaRepository;
+    private final RoleJpaRepository roleJpaRepository;
+    private final long ttlMillis;
+    private final Clock clock;
+    private final Map<String, Entry> snapshots = new ConcurrentHashMap<>();
+    private final Map<String, String> tenantByUsername = new ConcurrentHashMap<>();
+    private long generation;
+
+    // 手动添加构造函数，避免Lombok注解问题
+    @Autowired
+    public PermissionSnapshotCache(UserJpaRepository userJpaRepository, RoleJpaRepository roleJpaRepository,
+                                   @Value("${security.permission-cache.ttl-seconds:60}") long ttlSeconds) {
+        this(userJpaRepository, roleJpaRepository, ttlSeconds, Clock.systemUTC());
+    }
+
+    PermissionSnapshotCache(UserJpaRepository userJpaRepository, RoleJpaRepository roleJpaRepository,
+                            long ttlSeconds, Clock clock) {
+        this.userJpaRepository = userJpaRepository;
+        this.roleJpaRepository = roleJpaRepository;
+        this.ttlMillis = Math.max(1, ttlSeconds) * 1000;
+        this.clock = clock;
+    }
+
+    /**
+     * 获取租户的权限快照，未缓存时构建。
+     *
+     * @param tenantId 租户ID
+     * @return 权限快照
+     */
+    public PermissionSnapshot snapshot(String tenantId) {
+        Entry entry = snapshots.get(tenantId);
+        if (entry != null && clock.millis() < entry.expiresAt()) {
+            return entry.snapshot();
+        }
+        long loadGeneration;
+        synchronized (this) {
+            if (entry != null) {
+                snapshots.remove(tenantId, entry);
+            }
+            loadGeneration = generation;
+        }
+
+        // 在锁外访问数据库
+        long expiresAt = clock.millis() + ttlMillis;
+        PermissionSnapshot loaded = load(tenantId);
+        synchronized (this) {
+            if (generation != loadGeneration) {
+                return loaded;
+            }
+            Entry existing = snapshots.putIfAbsent(tenantId, new Entry(loaded, expiresAt));
+            if (existing != null) {
+                return existing.snapshot();
+            }
+            for (String username : loaded.usernames()) {
+                tenantByUsername.put(username, tenantId);
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * 按用户名查找用户授权，用户名对应的租户已知时不访问数据库，否则先查一次用户所属租户。
+     *
+     * @param username 用户名
+     * @return 用户授权
+     */
+    public Optional<PermissionSnapshot.UserGrant> findUser(String username) {
+        if (username == null) {
+            return Optional.empty();
+        }
+        String tenantId = tenantByUsername.get(username);
+        if (tenantId != null) {
+            Optional<PermissionSnapshot.UserGrant> grant = snapshot(tenantId).findUser(username);
+            if (grant.isPresent()) {
+                return grant;
+            }
+            // 用户已删除或已转到其他租户
+            tenantByUsername.remove(username, tenantId);
+        }
+        return userJpaRepository.findByUsername(username)
+                .flatMap(user -> snapshot(user.getTenantId()).findUser(username));
+    }
+
+    /**
+     * 检查租户用户是否拥有权限。
+     *
+     * @param tenantId   租户ID
+     * @param username   用户名
+     * @param permission 权限
+     * @return 用户处于活跃状态且拥有该权限时返回true
+     */
+    public boolean hasPermission(String tenantId, String username, String permission) {
+        if (tenantId == null || username == null) {
+            return false;
+        }
+        PermissionSnapshot snapshot = snapshot(tenantId);
+        return snapshot.hasPermission(username, permission)
+                && snapshot.findUser(username).map(grant -> grant.getStatus() == UserStatus.ACTIVE).orElse(false);
+    }
+
+    /**
+     * 检查当前认证用户在当前租户下是否拥有权限，可用于 {@code @PreAuthorize("@permissionSnapshotCache.hasPermission(authentication, 'order:write')")}。
+     *
+     * @param authentication 认证信息
+     * @param permission     权限
+     * @return 是否拥有权限
+     */
+    public boolean hasPermission(Authentication authentication, String permission) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return false;
+        }
+        return hasPermission(TenantContext.getTenantId(), authentication.getName(), permission);
+    }
+
+    /**
+     * 使租户的权限快照失效，系统角色所在的租户使所有快照失效。
+     *
+     * @param tenantId 租户ID
+     */
+    public void invalidateTenant(String tenantId) {
+        evict(tenantId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(tenantId);
+                }
+            });
+        }
+    }
+
+    /**
+     * 清空缓存。
+     */
+    public synchronized void invalidateAll() {
+        generation++;
+        snapshots.clear();
+        tenantByUsername.clear();
+    }
+
+    private void evict(String tenantId) {
+        if (tenantId == null || SYSTEM_TENANT_ID.equals(tenantId)) {
+            invalidateAll();
+            return;
+        }
+        synchronized (this) {
+            generation++;
+            snapshots.remove(tenantId);
+        }
+    }
+
+    private PermissionSnapshot load(String tenantId) {
+        PermissionSnapshot.Builder builder = PermissionSnapshot.builder(tenantId);
+        for (RoleJpaEntity role : roleJpaRepository.findWithPermissionsByTenantIdIn(List.of(tenantId, SYSTEM_TENANT_ID))) {
+            builder.role(role.getId(), role.getName(), role.getPermissions());
+        }
+        for (UserJpaEntity user : userJpaRepository.findWithRoleIdsByTenantId(tenantId)) {
+            builder.user(user.getId(), user.getUsername(), user.getPassword(), toStatus(user.getStatus()), user.getRoleIds());
+        }
+        return builder.build();
+    }
+
+    /**
+     * 缓存的快照及其过期时间（毫秒）
+     */
+    private record Entry(PermissionSnapshot snapshot, long expiresAt) {
+    }
+
+    private static UserStatus toStatus(String status) {
+        try {
+            return status != null ? UserStatus.valueOf(status) : UserStatus.INACTIVE;
+        } catch (IllegalArgumentException e) {
+            return UserStatus.INACTIVE;
+        }
+    }
+}
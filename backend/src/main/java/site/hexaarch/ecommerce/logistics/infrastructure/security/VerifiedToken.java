@@ -0,0 +1,15 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.security;
+
+import java.util.List;
+
+/**
+ * 已验证签名的JWT令牌中认证所需的声明。
+ *
+ * @param username        用户名
+ * @param tenantId        租户ID
+ * @param roles           角色列表
+ * @param expiresAtMillis 令牌过期时间（毫秒时间戳）
+ * @author kenyon
+ */
+public record VerifiedToken(String username, String tenantId, List<String> roles, long expiresAtMillis) {
+}
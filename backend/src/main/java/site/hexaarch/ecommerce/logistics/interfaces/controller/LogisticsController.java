@@ -3,17 +3,36 @@ package site.hexaarch.ecommerce.logistics.interfaces.controller;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import site.hexaarch.ecommerce.logistics.application.service.LabelBatchApplicationService;
 import site.hexaarch.ecommerce.logistics.application.service.LogisticsApplicationService;
+import site.hexaarch.ecommerce.logistics.application.service.RateShoppingApplicationService;
+import site.hexaarch.ecommerce.logistics.application.service.TrackingApplicationService;
+import site.hexaarch.ecommerce.logistics.domain.common.exception.ValidationException;
 import site.hexaarch.ecommerce.logistics.domain.logistics.aggregate.LogisticsOrder;
 import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.LogisticsStatus;
+import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.Parcel;
+import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.RateShoppingResult;
+import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.TrackingEvent;
+import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.TrackingIngestResult;
+import site.hexaarch.ecommerce.logistics.infrastructure.label.LabelBatchWriter;
+import site.hexaarch.ecommerce.logistics.infrastructure.label.LabelFormat;
 import site.hexaarch.ecommerce.logistics.interfaces.common.Result;
+import site.hexaarch.ecommerce.logistics.interfaces.dto.logistics.LabelBatchRequestDto;
+import site.hexaarch.ecommerce.logistics.interfaces.dto.logistics.RateShoppingRequestDto;
+import site.hexaarch.ecommerce.logistics.interfaces.dto.logistics.TrackingEventBatchDto;
 
 import java.util.List;
 
@@ -27,9 +46,16 @@ import java.util.List;
 @Tag(name = "物流管理", description = "物流单相关的API接口")
 public class LogisticsController {
     private final LogisticsApplicationService logisticsApplicationService;
+    private final RateShoppingApplicationService rateShoppingApplicationService;
+    private final LabelBatchApplicationService labelBatchApplicationService;
+    private final TrackingApplicationService trackingApplicationService;
 
-    public LogisticsController(LogisticsApplicationService logisticsApplicationService) {
+    public LogisticsController(LogisticsApplicationService logisticsApplicationService, RateShoppingApplicationService rateShoppingApplicationService,
+                               LabelBatchApplicationService labelBatchApplicationService, TrackingApplicationService trackingApplicationService) {
         this.logisticsApplicationService = logisticsApplicationService;
+        this.rateShoppingApplicationService = rateShoppingApplicationService;
+        this.labelBatchApplicationService = labelBatchApplicationService;
+        this.trackingApplicationService = trackingApplicationService;
     }
 
     @Operation(summary = "创建物流单", description = "为指定订单创建物流单")
@@ -73,4 +99,58 @@ public class LogisticsController {
         var logisticsOrders = logisticsApplicationService.findAllLogisticsOrders();
         return Result.success(logisticsOrders);
     }
+
+    @Operation(summary = "单包裹比价", description = "并行评估所有支持目的国家的激活渠道，返回按费用排序的报价及最便宜、最快的选项")
+    @GetMapping("/rates")
+    public Result<RateShoppingResult> shopRates(
+            @Parameter(description = "重量") @RequestParam double weight,
+            @Parameter(description = "体积") @RequestParam(defaultValue = "0") double volume,
+            @Parameter(description = "目的国家代码") @RequestParam String country) {
+        var result = rateShoppingApplicationService.shop(new Parcel(weight, volume, country));
+        return Result.success(result);
+    }
+
+    @Operation(summary = "批量包裹比价", description = "拆单发货时一次为多个包裹比价，结果与请求中的包裹顺序一致")
+    @PostMapping("/rates")
+    public Result<List<RateShoppingResult>> shopRates(@RequestBody RateShoppingRequestDto request) {
+        if (request.getParcels() == null) {
+            throw new ValidationException("At least one parcel is required");
+        }
+        var parcels = request.getParcels().stream()
+                .map(parcel -> new Parcel(parcel.getWeight(), parcel.getVolume(), parcel.getCountry()))
+                .toList();
+        var results = rateShoppingApplicationService.shop(parcels);
+        return Result.success(results);
+    }
+
+    @Operation(summary = "批量打单", description = "为一批物流单生成标签，流式输出为多页ZPL/PDF文件或每张标签一个文件的zip包")
+    @PostMapping("/labels")
+    public ResponseEntity<StreamingResponseBody> generateLabels(
+            @RequestBody LabelBatchRequestDto request,
+            @Parameter(description = "标签格式") @RequestParam(defaultValue = "ZPL") LabelFormat format,
+            @Parameter(description = "是否打包为zip") @RequestParam(defaultValue = "false") boolean zip) {
+        // 在开始写出响应前完成校验，校验失败时仍可返回错误信息
+        var logisticsOrderIds = labelBatchApplicationService.prepareBatch(request.getLogisticsOrderIds());
+        StreamingResponseBody body = outputStream -> labelBatchApplicationService.writeLabels(logisticsOrderIds, format, zip, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(LabelBatchWriter.contentType(format, zip)))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(LabelBatchWriter.fileName(format, zip)).build().toString())
+                .body(body);
+    }
+
+    @Operation(summary = "批量接入轨迹事件", description = "接入一批承运商扫描，追加到轨迹时间线，只在状态推进时更新物流单；重复扫描被忽略")
+    @PostMapping("/tracking-events")
+    public Result<TrackingIngestResult> ingestTrackingEvents(@RequestBody TrackingEventBatchDto request) {
+        var result = trackingApplicationService.ingest(request.toTrackingEvents());
+        return Result.success(result);
+    }
+
+    @Operation(summary = "获取轨迹时间线", description = "按发生时间升序返回运单的全部扫描")
+    @GetMapping("/tracking/{trackingNumber}/timeline")
+    public Result<List<TrackingEvent>> getTrackingTimeline(
+            @Parameter(description = "运单号") @PathVariable String trackingNumber) {
+        var timeline = trackingApplicationService.getTimeline(trackingNumber);
+        return Result.success(timeline);
+    }
 }
@@ -1,8 +1,11 @@
 package site.hexaarch.ecommerce.logistics.interfaces.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -11,13 +14,21 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import site.hexaarch.ecommerce.logistics.application.service.OrderApplicationService;
 import site.hexaarch.ecommerce.logistics.domain.order.valueobject.OrderStatus;
 import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.mapper.OrderMapper;
 import site.hexaarch.ecommerce.logistics.interfaces.common.Result;
 import site.hexaarch.ecommerce.logistics.interfaces.dto.order.CreateOrderDto;
 import site.hexaarch.ecommerce.logistics.interfaces.dto.order.OrderDto;
+import site.hexaarch.ecommerce.logistics.interfaces.dto.order.OrderPageDto;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 /**
@@ -29,12 +40,17 @@ import java.util.List;
 @RequestMapping("/api/orders")
 @Tag(name = "订单管理", description = "订单相关的API接口")
 public class OrderController {
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final int EXPORT_FLUSH_INTERVAL = 1000;
+
     private final OrderApplicationService orderApplicationService;
     private final OrderMapper orderMapper;
+    private final ObjectMapper objectMapper;
 
-    public OrderController(OrderApplicationService orderApplicationService, OrderMapper orderMapper) {
+    public OrderController(OrderApplicationService orderApplicationService, OrderMapper orderMapper, ObjectMapper objectMapper) {
         this.orderApplicationService = orderApplicationService;
         this.orderMapper = orderMapper;
+        this.objectMapper = objectMapper;
     }
 
     @Operation(summary = "创建订单", description = "创建一个新的订单")
@@ -76,4 +92,39 @@ public class OrderController {
         var orders = orderApplicationService.findOrdersByCustomerId(customerId);
         return Result.success(orderMapper.toDtoList(orders));
     }
-}
\ No newline at end of file
+
+    @Operation(summary = "分页查询订单", description = "按创建时间倒序分页查询订单，使用上一页返回的nextCursor获取下一页")
+    @GetMapping
+    public Result<OrderPageDto> listOrders(
+            @Parameter(description = "订单状态") @RequestParam(required = false) OrderStatus status,
+            @Parameter(description = "客户ID") @RequestParam(required = false) String customerId,
+            @Parameter(description = "分页游标") @RequestParam(required = false) String cursor,
+            @Parameter(description = "每页数量，最大200") @RequestParam(defaultValue = "50") int limit) {
+        var page = orderApplicationService.findOrderPage(status, customerId, cursor, limit);
+        var nextCursor = page.hasNext() ? page.getNextCursor().encode() : null;
+        return Result.success(new OrderPageDto(orderMapper.toDtoList(page.getOrders()), nextCursor));
+    }
+
+    @Operation(summary = "导出订单", description = "以NDJSON格式流式导出订单，每行一个订单")
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @Parameter(description = "订单状态") @RequestParam(required = false) OrderStatus status) {
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            int[] written = {0};
+            orderApplicationService.exportOrders(status, order -> {
+                try {
+                    writer.write(objectMapper.writeValueAsString(orderMapper.toDto(order)));
+                    writer.write('\n');
+                    if (++written[0] % EXPORT_FLUSH_INTERVAL == 0) {
+                        writer.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+        };
+        return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(body);
+    }
+}
@@ -15,6 +15,9 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import site.hexaarch.ecommerce.logistics.application.service.platform.PlatformIntegrationApplicationService;
+import site.hexaarch.ecommerce.logistics.domain.common.exception.EntityNotFoundException;
+import site.hexaarch.ecommerce.logistics.domain.common.exception.InvalidOperationException;
+import site.hexaarch.ecommerce.logistics.domain.order.valueobject.OrderImportResult;
 import site.hexaarch.ecommerce.logistics.domain.platform.aggregate.PlatformIntegration;
 import site.hexaarch.ecommerce.logistics.interfaces.common.Result;
 
@@ -142,12 +145,18 @@ public class PlatformIntegrationController {
         }
     }
 
-    @Operation(summary = "同步订单", description = "从平台同步订单")
+    @Operation(summary = "同步订单", description = "从平台分页拉取全部订单并批量导入，已导入过的订单按平台订单号跳过")
     @PostMapping("/{id}/sync-orders")
-    public ResponseEntity<Result<Void>> syncOrdersFromPlatform(@Parameter(description = "平台集成ID") @PathVariable UUID id) {
+    public ResponseEntity<Result<OrderImportResult>> syncOrdersFromPlatform(@Parameter(description = "平台集成ID") @PathVariable UUID id) {
         try {
-            platformIntegrationApplicationService.syncOrdersFromPlatform(id);
-            return ResponseEntity.ok(Result.success(null));
+            OrderImportResult result = platformIntegrationApplicationService.syncOrdersFromPlatform(id);
+            return ResponseEntity.ok(Result.success(result));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Result.fail("平台集成不存在"));
+        } catch (InvalidOperationException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Result.fail("订单同步失败: " + e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Result.error("订单同步失败: " + e.getMessage()));
@@ -12,10 +12,14 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import site.hexaarch.ecommerce.logistics.application.service.ProductApplicationService;
 import site.hexaarch.ecommerce.logistics.domain.product.entity.ProductCategory;
+import site.hexaarch.ecommerce.logistics.infrastructure.cache.SkuCacheStats;
+import site.hexaarch.ecommerce.logistics.infrastructure.cache.SkuLookupCache;
 import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.mapper.ProductMapper;
 import site.hexaarch.ecommerce.logistics.interfaces.common.Result;
 import site.hexaarch.ecommerce.logistics.interfaces.dto.product.ProductDto;
 
+import java.util.List;
+
 /**
  * 产品控制器，处理产品和SKU相关的HTTP请求。
  *
@@ -27,10 +31,12 @@ import site.hexaarch.ecommerce.logistics.interfaces.dto.product.ProductDto;
 public class ProductController {
     private final ProductApplicationService productApplicationService;
     private final ProductMapper productMapper;
+    private final SkuLookupCache skuLookupCache;
 
-    public ProductController(ProductApplicationService productApplicationService, ProductMapper productMapper) {
+    public ProductController(ProductApplicationService productApplicationService, ProductMapper productMapper, SkuLookupCache skuLookupCache) {
         this.productApplicationService = productApplicationService;
         this.productMapper = productMapper;
+        this.skuLookupCache = skuLookupCache;
     }
 
     @Operation(summary = "创建产品", description = "创建一个新的产品")
@@ -56,6 +62,16 @@ public class ProductController {
         return Result.success(productMapper.toDto(product));
     }
 
+    @Operation(summary = "获取分类下的产品", description = "分页获取分类及其所有后代分类下的产品，按产品ID排序")
+    @GetMapping("/category/{categoryId}")
+    public Result<List<ProductDto>> getProductsInCategory(
+            @Parameter(description = "分类ID") @PathVariable String categoryId,
+            @Parameter(description = "页码，从0开始") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "每页数量") @RequestParam(defaultValue = "20") int size) {
+        var products = productApplicationService.findProductsInCategory(categoryId, page, size);
+        return Result.success(productMapper.toDtoList(products));
+    }
+
     @Operation(summary = "根据SKU编码获取产品", description = "根据SKU编码查找产品")
     @GetMapping("/sku/{skuCode}")
     public Result<ProductDto> getProductBySkuCode(
@@ -64,6 +80,12 @@ public class ProductController {
         return Result.success(productMapper.toDto(product));
     }
 
+    @Operation(summary = "获取SKU查询缓存统计", description = "返回SKU查询近端缓存的命中、未命中和淘汰次数")
+    @GetMapping("/sku-cache/stats")
+    public Result<SkuCacheStats> getSkuCacheStats() {
+        return Result.success(skuLookupCache.getStats());
+    }
+
     @Operation(summary = "激活产品", description = "激活指定ID的产品")
     @PutMapping("/{id}/activate")
     public Result<ProductDto> activateProduct(
@@ -165,6 +165,20 @@ public class PurchaseController {
         }
     }
 
+    /**
+     * 采购单收货
+     */
+    @Operation(summary = "采购单收货", description = "标记指定ID的采购单为已送达，并将所有采购项一次入库到目标仓库")
+    @PutMapping("/{purchaseOrderId}/received")
+    public Result<PurchaseOrder> receivePurchaseOrder(@Parameter(description = "采购单ID") @PathVariable String purchaseOrderId) {
+        try {
+            var purchaseOrder = purchaseApplicationService.receivePurchaseOrder(purchaseOrderId);
+            return Result.success(purchaseOrder);
+        } catch (Exception e) {
+            return Result.error("采购单收货失败: " + e.getMessage());
+        }
+    }
+
     /**
      * 取消采购单
      */
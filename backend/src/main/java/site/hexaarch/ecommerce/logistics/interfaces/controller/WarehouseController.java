@@ -3,6 +3,7 @@ package site.hexaarch.ecommerce.logistics.interfaces.controller;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -16,6 +17,7 @@ import site.hexaarch.ecommerce.logistics.domain.warehouse.entity.InventoryRecord
 import site.hexaarch.ecommerce.logistics.domain.warehouse.valueobject.InventoryMovement;
 import site.hexaarch.ecommerce.logistics.interfaces.common.Result;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -68,6 +70,16 @@ public class WarehouseController {
         return Result.success(inventoryRecords);
     }
 
+    @Operation(summary = "查询流水在库数量", description = "按库存流水查询SKU的在库数量，指定asOf时查询该时间的在库数量")
+    @GetMapping("/{warehouseId}/inventory/{skuCode}/ledger-quantity")
+    public Result<Integer> getLedgerQuantity(
+            @Parameter(description = "仓库ID") @PathVariable String warehouseId,
+            @Parameter(description = "SKU编码") @PathVariable String skuCode,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf) {
+        var quantity = warehouseApplicationService.findLedgerQuantity(warehouseId, skuCode, asOf);
+        return Result.success(quantity);
+    }
+
     @Operation(summary = "执行库存盘点", description = "对指定仓库和产品进行库存盘点")
     @PostMapping("/{warehouseId}/inventory/count")
     public Result<InventoryRecord> countInventory(
@@ -0,0 +1,18 @@
+package site.hexaarch.ecommerce.logistics.interfaces.dto.logistics;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 批量打单请求DTO。
+ *
+ * @author kenyon
+ */
+@Data
+@Schema(description = "批量打单请求DTO")
+public class LabelBatchRequestDto {
+    @Schema(description = "物流单ID列表，标签按此顺序输出", requiredMode = Schema.RequiredMode.REQUIRED)
+    private List<String> logisticsOrderIds;
+}
@@ -0,0 +1,20 @@
+package site.hexaarch.ecommerce.logistics.interfaces.dto.logistics;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+/**
+ * 包裹DTO，用于接收比价请求中的单个包裹。
+ *
+ * @author kenyon
+ */
+@Data
+@Schema(description = "包裹DTO")
+public class ParcelDto {
+    @Schema(description = "重量", requiredMode = Schema.RequiredMode.REQUIRED, example = "1.5")
+    private double weight;
+    @Schema(description = "体积", example = "3000")
+    private double volume;
+    @Schema(description = "目的国家代码", requiredMode = Schema.RequiredMode.REQUIRED, example = "US")
+    private String country;
+}
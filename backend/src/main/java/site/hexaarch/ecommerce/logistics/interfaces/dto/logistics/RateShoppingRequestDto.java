@@ -0,0 +1,18 @@
+package site.hexaarch.ecommerce.logistics.interfaces.dto.logistics;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 比价请求DTO，一次请求可包含拆单发货的多个包裹。
+ *
+ * @author kenyon
+ */
+@Data
+@Schema(description = "比价请求DTO")
+public class RateShoppingRequestDto {
+    @Schema(description = "包裹列表", requiredMode = Schema.RequiredMode.REQUIRED)
+    private List<ParcelDto> parcels;
+}
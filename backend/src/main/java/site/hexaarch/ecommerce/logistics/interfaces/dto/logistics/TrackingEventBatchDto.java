@@ -0,0 +1,32 @@
+package site.hexaarch.ecommerce.logistics.interfaces.dto.logistics;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import site.hexaarch.ecommerce.logistics.domain.common.exception.ValidationException;
+import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.TrackingEvent;
+
+import java.util.List;
+
+/**
+ * 轨迹事件批量DTO，HTTP批量接口和承运商RocketMQ消息共用。
+ *
+ * @author kenyon
+ */
+@Data
+@Schema(description = "轨迹事件批量DTO")
+public class TrackingEventBatchDto {
+    @Schema(description = "扫描列表", requiredMode = Schema.RequiredMode.REQUIRED)
+    private List<TrackingEventDto> events;
+
+    /**
+     * 转换为轨迹事件值对象列表。
+     *
+     * @return 轨迹事件列表
+     */
+    public List<TrackingEvent> toTrackingEvents() {
+        if (events == null) {
+            throw new ValidationException("At least one tracking event is required");
+        }
+        return events.stream().map(TrackingEventDto::toTrackingEvent).toList();
+    }
+}
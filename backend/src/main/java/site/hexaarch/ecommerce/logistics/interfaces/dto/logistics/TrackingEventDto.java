@@ -0,0 +1,37 @@
+package site.hexaarch.ecommerce.logistics.interfaces.dto.logistics;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.LogisticsStatus;
+import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.TrackingEvent;
+
+import java.time.LocalDateTime;
+
+/**
+ * 轨迹事件DTO，表示承运商的一次扫描。
+ *
+ * @author kenyon
+ */
+@Data
+@Schema(description = "轨迹事件DTO")
+public class TrackingEventDto {
+    @Schema(description = "运单号", requiredMode = Schema.RequiredMode.REQUIRED, example = "SF1234567890")
+    private String trackingNumber;
+    @Schema(description = "扫描对应的物流状态", requiredMode = Schema.RequiredMode.REQUIRED, example = "IN_TRANSIT")
+    private LogisticsStatus status;
+    @Schema(description = "扫描时间（UTC）", requiredMode = Schema.RequiredMode.REQUIRED)
+    private LocalDateTime occurredAt;
+    @Schema(description = "扫描地点", example = "Shenzhen Hub")
+    private String location;
+    @Schema(description = "扫描描述")
+    private String description;
+
+    /**
+     * 转换为轨迹事件值对象。
+     *
+     * @return 轨迹事件
+     */
+    public TrackingEvent toTrackingEvent() {
+        return new TrackingEvent(trackingNumber, status, occurredAt, location, description);
+    }
+}
@@ -0,0 +1,23 @@
+package site.hexaarch.ecommerce.logistics.interfaces.dto.order;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 订单分页数据传输对象，nextCursor作为下一页请求的cursor参数，为空表示已到最后一页。
+ *
+ * @author kenyon
+ */
+@Getter
+public class OrderPageDto {
+    private final List<OrderDto> items;
+    private final String nextCursor;
+    private final boolean hasNext;
+
+    public OrderPageDto(List<OrderDto> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasNext = nextCursor != null;
+    }
+}
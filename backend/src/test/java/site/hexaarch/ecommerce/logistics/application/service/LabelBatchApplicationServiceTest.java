@@ -0,0 +1,168 @@
+package site.hexaarch.ecommerce.logistics.application.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import site.hexaarch.ecommerce.logistics.domain.common.exception.ValidationException;
+import site.hexaarch.ecommerce.logistics.domain.logistics.aggregate.LogisticsOrder;
+import site.hexaarch.ecommerce.logistics.domain.logistics.event.LogisticsLabelGeneratedEvent;
+import site.hexaarch.ecommerce.logistics.domain.logistics.repository.LogisticsOrderRepository;
+import site.hexaarch.ecommerce.logistics.domain.logistics.service.LogisticsChannelService;
+import site.hexaarch.ecommerce.logistics.domain.logistics.service.LogisticsOrderProcessingService;
+import site.hexaarch.ecommerce.logistics.domain.logistics.service.LogisticsTrackingService;
+import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.LogisticsStatus;
+import site.hexaarch.ecommerce.logistics.domain.order.aggregate.Order;
+import site.hexaarch.ecommerce.logistics.domain.order.repository.OrderRepository;
+import site.hexaarch.ecommerce.logistics.domain.order.valueobject.OrderStatus;
+import site.hexaarch.ecommerce.logistics.domain.order.valueobject.ShippingAddress;
+import site.hexaarch.ecommerce.logistics.infrastructure.label.LabelFormat;
+import site.hexaarch.ecommerce.logistics.infrastructure.label.PdfLabelRenderer;
+import site.hexaarch.ecommerce.logistics.infrastructure.label.ZplLabelRenderer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 物流标签批量生成应用服务单元测试。
+ */
+class LabelBatchApplicationServiceTest {
+    @Mock
+    private LogisticsOrderRepository logisticsOrderRepository;
+    @Mock
+    private OrderRepository orderRepository;
+    @Mock
+    private LogisticsApplicationService logisticsApplicationService;
+    private LabelBatchApplicationService labelBatchApplicationService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        LogisticsOrderProcessingService logisticsOrderProcessingService = new LogisticsOrderProcessingService(
+                logisticsOrderRepository, mock(LogisticsChannelService.class), mock(LogisticsTrackingService.class));
+        labelBatchApplicationService = new LabelBatchApplicationService(logisticsOrderRepository, orderRepository,
+                logisticsOrderProcessingService, logisticsApplicationService,
+                List.of(new ZplLabelRenderer(), new PdfLabelRenderer()), 2, 2, 5, "Shipper", "1 Warehouse Road", "400");
+    }
+
+    @AfterEach
+    void tearDown() {
+        labelBatchApplicationService.shutdown();
+    }
+
+    @Test
+    void deduplicatesAndLimitsBatch() {
+        assertEquals(List.of("LO-1", "LO-2"), labelBatchApplicationService.prepareBatch(List.of("LO-1", "LO-2", "LO-1")));
+        assertThrows(ValidationException.class, () -> labelBatchApplicationService.prepareBatch(List.of()));
+        assertThrows(ValidationException.class, () -> labelBatchApplicationService.prepareBatch(List.of("LO-1", " ")));
+        assertThrows(ValidationException.class, () -> labelBatchApplicationService.prepareBatch(
+                List.of("LO-1", "LO-2", "LO-3", "LO-4", "LO-5", "LO-6")));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rendersLabelsInRequestOrderAndPublishesEventsPerChunk() throws Exception {
+        givenLogisticsOrders(
+                logisticsOrder("LO-1", LogisticsStatus.PENDING),
+                logisticsOrder("LO-2", LogisticsStatus.LABEL_GENERATED),
+                logisticsOrder("LO-3", LogisticsStatus.CANCELLED),
+                logisticsOrder("LO-4", LogisticsStatus.PENDING));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        int written = labelBatchApplicationService.writeLabels(List.of("LO-4", "LO-2", "LO-3", "LO-1", "LO-9"), LabelFormat.ZPL, false, output);
+
+        assertEquals(3, written);
+        String zpl = output.toString(StandardCharsets.UTF_8);
+        assertEquals(3, zpl.split("\\^XA", -1).length - 1);
+        assertTrue(zpl.indexOf("TRK-LO-4") < zpl.indexOf("TRK-LO-2"));
+        assertTrue(zpl.indexOf("TRK-LO-2") < zpl.indexOf("TRK-LO-1"));
+        assertTrue(zpl.contains("TO: Alice_5FSmith"));
+
+        // 块大小为2：[LO-4, LO-2] 和 [LO-3, LO-1] 各保存一次，已打单的LO-2只补打
+        ArgumentCaptor<List<LogisticsOrder>> saved = ArgumentCaptor.forClass(List.class);
+        verify(logisticsApplicationService, times(2)).saveGeneratedLabels(saved.capture());
+        assertEquals(List.of("LO-4"), saved.getAllValues().get(0).stream().map(LogisticsOrder::getLogisticsOrderId).toList());
+        assertEquals(List.of("LO-1"), saved.getAllValues().get(1).stream().map(LogisticsOrder::getLogisticsOrderId).toList());
+        LogisticsOrder generated = saved.getAllValues().get(1).get(0);
+        assertEquals(LogisticsStatus.LABEL_GENERATED, generated.getLogisticsStatus());
+        assertTrue(generated.getDomainEvents().stream().anyMatch(LogisticsLabelGeneratedEvent.class::isInstance));
+    }
+
+    @Test
+    void writesOneZipEntryPerLabel() throws Exception {
+        givenLogisticsOrders(logisticsOrder("LO-1", LogisticsStatus.PENDING), logisticsOrder("LO-2", LogisticsStatus.PENDING));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        labelBatchApplicationService.writeLabels(List.of("LO-1", "LO-2"), LabelFormat.PDF, true, output);
+
+        List<String> entries = new ArrayList<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(output.toByteArray()))) {
+            for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                entries.add(entry.getName());
+                assertTrue(new String(zip.readAllBytes(), StandardCharsets.ISO_8859_1).startsWith("%PDF-1.4"));
+            }
+        }
+        assertEquals(List.of("TRK-LO-1.pdf", "TRK-LO-2.pdf"), entries);
+    }
+
+    @Test
+    void doesNotSaveChunkWithoutNewLabels() throws Exception {
+        givenLogisticsOrders(logisticsOrder("LO-1", LogisticsStatus.IN_TRANSIT));
+
+        int written = labelBatchApplicationService.writeLabels(List.of("LO-1"), LabelFormat.ZPL, false, new ByteArrayOutputStream());
+
+        assertEquals(0, written);
+        verify(logisticsApplicationService, never()).saveGeneratedLabels(any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenLogisticsOrders(LogisticsOrder... logisticsOrders) {
+        when(logisticsOrderRepository.findAllById(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> ids = invocation.getArgument(0);
+            return List.of(logisticsOrders).stream().filter(order -> ids.contains(order.getLogisticsOrderId())).toList();
+        });
+        when(orderRepository.findAllById(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> ids = invocation.getArgument(0);
+            return ids.stream().map(this::order).toList();
+        });
+    }
+
+    private LogisticsOrder logisticsOrder(String id, LogisticsStatus status) {
+        return LogisticsOrder.reconstitute(id, "TENANT", "ORD-" + id, "CH-1", status, "TRK-" + id, null, null,
+                LocalDateTime.now(), LocalDateTime.now());
+    }
+
+    private Order order(String id) {
+        ShippingAddress shippingAddress = ShippingAddress.builder()
+                .country("US")
+                .province("CA")
+                .city("San Jose")
+                .street("1 Main St")
+                .zipCode("95110")
+                .recipient("Alice_Smith")
+                .phone("555-0100")
+                .build();
+        return Order.reconstitute(id, "TENANT", "CUS-1", "NO-" + id, List.of(), shippingAddress, null,
+                LocalDateTime.now(), OrderStatus.PENDING, LocalDateTime.now());
+    }
+}
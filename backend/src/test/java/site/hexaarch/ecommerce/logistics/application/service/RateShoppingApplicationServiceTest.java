@@ -0,0 +1,156 @@
+package site.hexaarch.ecommerce.logistics.application.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import site.hexaarch.ecommerce.logistics.domain.logistics.entity.LogisticsChannel;
+import site.hexaarch.ecommerce.logistics.domain.logistics.repository.LogisticsChannelRepository;
+import site.hexaarch.ecommerce.logistics.domain.logistics.service.LogisticsChannelService;
+import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.Parcel;
+import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.PriceRule;
+import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.RateShoppingResult;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 物流比价应用服务单元测试。
+ */
+class RateShoppingApplicationServiceTest {
+    @Mock
+    private LogisticsChannelRepository logisticsChannelRepository;
+    private LogisticsChannelService logisticsChannelService;
+    private RateShoppingApplicationService rateShoppingApplicationService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        List<LogisticsChannel> channels = List.of(
+                channel("ECONOMY", List.of("US", "DE"), rule("US", "8", 12), rule("DE", "9", 10)),
+                channel("EXPRESS", List.of("US"), rule("US", "25", 3)),
+                channel("POST", List.of("US", "DE"), rule("US", "10", null)));
+        when(logisticsChannelRepository.findActiveChannels()).thenReturn(channels);
+        channels.forEach(channel -> when(logisticsChannelRepository.findById(channel.getChannelId())).thenReturn(Optional.of(channel)));
+        logisticsChannelService = spy(new LogisticsChannelService(logisticsChannelRepository));
+        rateShoppingApplicationService = new RateShoppingApplicationService(logisticsChannelService, 4, 16, 200, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        rateShoppingApplicationService.shutdown();
+    }
+
+    @Test
+    void returnsCheapestAndFastestQuotes() {
+        RateShoppingResult result = rateShoppingApplicationService.shop(new Parcel(1, 0, "US"));
+
+        assertEquals(List.of("ECONOMY", "POST", "EXPRESS"), result.getQuotes().stream().map(quote -> quote.getChannelId()).toList());
+        assertEquals("ECONOMY", result.getCheapest().getChannelId());
+        assertEquals("EXPRESS", result.getFastest().getChannelId());
+        assertTrue(result.getUnavailableChannelIds().isEmpty());
+    }
+
+    @Test
+    void quotesBatchOfParcelsWithOneTaskPerChannel() {
+        List<RateShoppingResult> results = rateShoppingApplicationService.shop(List.of(
+                new Parcel(1, 0, "US"),
+                new Parcel(2, 0, "DE"),
+                new Parcel(1, 0, "JP")));
+
+        assertEquals(3, results.size());
+        assertEquals(3, results.get(0).getQuotes().size());
+        assertEquals(List.of("ECONOMY"), results.get(1).getQuotes().stream().map(quote -> quote.getChannelId()).toList());
+        assertNull(results.get(2).getCheapest());
+        verify(logisticsChannelRepository, times(1)).findActiveChannels();
+        verify(logisticsChannelService, times(1)).getRateIndex("ECONOMY");
+    }
+
+    @Test
+    void reportsSlowChannelAsUnavailable() {
+        doAnswer(invocation -> {
+            Thread.sleep(1000);
+            return invocation.callRealMethod();
+        }).when(logisticsChannelService).getRateIndex("EXPRESS");
+
+        RateShoppingResult result = rateShoppingApplicationService.shop(new Parcel(1, 0, "US"));
+
+        assertEquals(List.of("EXPRESS"), result.getUnavailableChannelIds());
+        assertEquals("ECONOMY", result.getCheapest().getChannelId());
+        assertEquals("ECONOMY", result.getFastest().getChannelId());
+    }
+
+    @Test
+    void cancelsTimedOutChannelTask() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            try {
+                Thread.sleep(5000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+            return invocation.callRealMethod();
+        }).when(logisticsChannelService).getRateIndex("EXPRESS");
+
+        RateShoppingResult result = rateShoppingApplicationService.shop(new Parcel(1, 0, "US"));
+
+        assertEquals(List.of("EXPRESS"), result.getUnavailableChannelIds());
+        assertTrue(interrupted.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void rejectsChannelsWhenQueueIsFull() {
+        rateShoppingApplicationService.shutdown();
+        rateShoppingApplicationService = new RateShoppingApplicationService(logisticsChannelService, 1, 1, 200, 10);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await();
+            return invocation.callRealMethod();
+        }).when(logisticsChannelService).getRateIndex("ECONOMY");
+
+        try {
+            RateShoppingResult result = rateShoppingApplicationService.shop(new Parcel(1, 0, "US"));
+
+            // ECONOMY占用唯一的线程，EXPRESS排队，POST被拒绝
+            assertTrue(result.getUnavailableChannelIds().contains("POST"));
+            assertTrue(result.getUnavailableChannelIds().contains("ECONOMY"));
+            verify(logisticsChannelService, never()).getRateIndex("POST");
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private static LogisticsChannel channel(String channelId, List<String> countries, PriceRule... priceRules) {
+        return LogisticsChannel.builder()
+                .channelId(channelId)
+                .channelName(channelId)
+                .countries(countries)
+                .priceRules(List.of(priceRules))
+                .active(true)
+                .build();
+    }
+
+    private static PriceRule rule(String country, String price, Integer transitDays) {
+        return PriceRule.builder()
+                .country(country)
+                .weightRange(PriceRule.WeightRange.builder().minWeight(0).maxWeight(30).build())
+                .price(new BigDecimal(price))
+                .transitDays(transitDays)
+                .build();
+    }
+}
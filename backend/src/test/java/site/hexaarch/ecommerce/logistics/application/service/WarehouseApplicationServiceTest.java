@@ -0,0 +1,147 @@
+package site.hexaarch.ecommerce.logistics.application.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import site.hexaarch.ecommerce.logistics.domain.common.DomainEventSource;
+import site.hexaarch.ecommerce.logistics.domain.product.repository.ProductRepository;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.aggregate.Warehouse;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.entity.InventoryRecord;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.event.InventoryCountEvent;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.event.InventoryMovementEvent;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.repository.InventoryLedgerRepository;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.repository.InventoryRecordRepository;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.repository.WarehouseRepository;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.service.InventoryCountService;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.service.InventoryManagementService;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.service.WarehouseManagementService;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.valueobject.InventoryMovement;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.valueobject.InventoryStatus;
+import site.hexaarch.ecommerce.logistics.infrastructure.messaging.DomainEventPublisher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 仓储应用服务单元测试，覆盖单SKU库存变动和盘点的领域事件发布。
+ */
+class WarehouseApplicationServiceTest {
+
+    @Mock
+    private WarehouseRepository warehouseRepository;
+    @Mock
+    private InventoryRecordRepository inventoryRecordRepository;
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private WarehouseManagementService warehouseManagementService;
+    @Mock
+    private DomainEventPublisher domainEventPublisher;
+    @Mock
+    private InventoryLedgerRepository inventoryLedgerRepository;
+
+    private WarehouseApplicationService warehouseApplicationService;
+    private final List<Object> publishedEvents = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        warehouseApplicationService = new WarehouseApplicationService(warehouseRepository, inventoryRecordRepository,
+                warehouseManagementService, new InventoryManagementService(warehouseRepository, productRepository),
+                new InventoryCountService(warehouseRepository), domainEventPublisher, inventoryLedgerRepository);
+        doAnswer(invocation -> {
+            DomainEventSource aggregate = invocation.getArgument(0);
+            publishedEvents.addAll(aggregate.getDomainEvents());
+            aggregate.clearDomainEvents();
+            return null;
+        }).when(domainEventPublisher).publishEventsFrom(any(DomainEventSource.class));
+    }
+
+    @Test
+    void publishesMovementEventOfOutboundSlice() {
+        when(warehouseRepository.findInventorySlice(eq("WH1"), anyCollection())).thenReturn(Optional.of(slice(record(50))));
+
+        InventoryRecord moved = warehouseApplicationService.moveInventory("WH1", movement(InventoryMovement.MovementType.OUTBOUND, 20));
+
+        assertEquals(30, moved.getQuantity());
+        assertEquals(1, publishedEvents.size());
+        assertInstanceOf(InventoryMovementEvent.class, publishedEvents.get(0));
+        verify(warehouseRepository).saveInventorySlice(any());
+    }
+
+    @Test
+    void publishesMovementEventOfInboundSliceForNewRecord() {
+        when(warehouseRepository.findInventorySlice(eq("WH1"), anyCollection())).thenReturn(Optional.of(slice()));
+
+        InventoryRecord moved = warehouseApplicationService.moveInventory("WH1", movement(InventoryMovement.MovementType.INBOUND, 40));
+
+        assertEquals(40, moved.getQuantity());
+        assertTrue(publishedEvents.stream().anyMatch(InventoryMovementEvent.class::isInstance));
+    }
+
+    @Test
+    void publishesCountEventOfCountedSlice() {
+        when(warehouseRepository.findInventorySlice(eq("WH1"), anyCollection())).thenReturn(Optional.of(slice(record(50))));
+
+        InventoryRecord counted = warehouseApplicationService.countInventory("WH1", "P1", 48);
+
+        assertEquals(48, counted.getQuantity());
+        assertTrue(publishedEvents.stream().anyMatch(InventoryCountEvent.class::isInstance));
+    }
+
+    @Test
+    void publishesNothingWhenOutboundIsRejected() {
+        when(warehouseRepository.findInventorySlice(eq("WH1"), anyCollection())).thenReturn(Optional.of(slice(record(5))));
+
+        assertThrows(IllegalStateException.class,
+                () -> warehouseApplicationService.moveInventory("WH1", movement(InventoryMovement.MovementType.OUTBOUND, 20)));
+        verify(domainEventPublisher, never()).publishEventsFrom(any(DomainEventSource.class));
+    }
+
+    private static InventoryMovement movement(InventoryMovement.MovementType movementType, int quantity) {
+        return InventoryMovement.builder()
+                .warehouseId("WH1")
+                .productId("P1")
+                .sku("SKU-1")
+                .quantity(quantity)
+                .movementType(movementType)
+                .build();
+    }
+
+    private static Warehouse slice(InventoryRecord... records) {
+        return Warehouse.builder()
+                .warehouseId("WH1")
+                .warehouseName("Main Warehouse")
+                .warehouseCode("MW1")
+                .capacity(1000)
+                .active(true)
+                .inventoryRecords(new ArrayList<>(List.of(records)))
+                .inventorySlice(true)
+                .build();
+    }
+
+    private static InventoryRecord record(int quantity) {
+        return InventoryRecord.builder()
+                .inventoryId("INV-1")
+                .warehouseId("WH1")
+                .productId("P1")
+                .sku("SKU-1")
+                .quantity(quantity)
+                .inventoryStatus(InventoryStatus.NORMAL)
+                .build();
+    }
+}
@@ -0,0 +1,328 @@
+package site.hexaarch.ecommerce.logistics.application.service.platform;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import site.hexaarch.ecommerce.logistics.application.service.OrderApplicationService;
+import site.hexaarch.ecommerce.logistics.domain.common.exception.InvalidOperationException;
+import site.hexaarch.ecommerce.logistics.domain.order.aggregate.Order;
+import site.hexaarch.ecommerce.logistics.domain.order.repository.OrderImportRejectionRepository;
+import site.hexaarch.ecommerce.logistics.domain.order.repository.OrderRepository;
+import site.hexaarch.ecommerce.logistics.domain.order.service.OrderProcessingService;
+import site.hexaarch.ecommerce.logistics.domain.order.service.OrderSyncService;
+import site.hexaarch.ecommerce.logistics.domain.order.valueobject.OrderImportRejection;
+import site.hexaarch.ecommerce.logistics.domain.order.valueobject.OrderImportResult;
+import site.hexaarch.ecommerce.logistics.domain.platform.aggregate.PlatformIntegration;
+import site.hexaarch.ecommerce.logistics.domain.platform.service.PlatformIntegrationService;
+import site.hexaarch.ecommerce.logistics.domain.platform.valueobject.PlatformName;
+import site.hexaarch.ecommerce.logistics.domain.platform.valueobject.PlatformStatus;
+import site.hexaarch.ecommerce.logistics.infrastructure.messaging.DomainEventPublisher;
+import site.hexaarch.ecommerce.logistics.infrastructure.platform.HttpPlatformOrderClient;
+import site.hexaarch.ecommerce.logistics.infrastructure.platform.PlatformRateLimiter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 平台订单导入流水线测试，使用本地HTTP服务模拟电商平台订单接口。
+ */
+class PlatformOrderImportServiceTest {
+    private static final int ORDER_COUNT = 2350;
+    private static final int PAGE_SIZE = 100;
+
+    @Mock
+    private PlatformIntegrationService platformIntegrationService;
+    @Mock
+    private OrderRepository orderRepository;
+    @Mock
+    private OrderProcessingService orderProcessingService;
+    @Mock
+    private DomainEventPublisher domainEventPublisher;
+    @Mock
+    private OrderImportRejectionRepository orderImportRejectionRepository;
+
+    private HttpServer server;
+    private final List<String> orderJson = new ArrayList<>();
+    private final AtomicInteger failuresBeforeSuccess = new AtomicInteger();
+    private final Set<String> authorizations = new HashSet<>();
+    private final List<String> updatedSinceParameters = new CopyOnWriteArrayList<>();
+    private final Set<String> storedOrderNumbers = new HashSet<>();
+    private final List<Order> publishedOrders = new ArrayList<>();
+    private final Set<String> unwritableOrderNumbers = new HashSet<>();
+    private final List<OrderImportRejection> quarantined = new CopyOnWriteArrayList<>();
+    private UUID platformId;
+    private PlatformOrderImportService importService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        MockitoAnnotations.openMocks(this);
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/orders", this::handleOrders);
+        server.start();
+
+        platformId = UUID.randomUUID();
+        when(platformIntegrationService.getPlatformIntegrationById(platformId)).thenReturn(platform(PlatformStatus.ACTIVE));
+        when(orderRepository.findExistingOrderNumbers(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> orderNumbers = invocation.getArgument(0);
+            Set<String> existing = new HashSet<>();
+            for (String orderNumber : orderNumbers) {
+                if (storedOrderNumbers.contains(orderNumber)) {
+                    existing.add(orderNumber);
+                }
+            }
+            return existing;
+        });
+        doAnswer(invocation -> {
+            List<Order> orders = invocation.getArgument(0);
+            // 块中任一订单违反数据约束时整块回滚
+            for (Order order : orders) {
+                if (unwritableOrderNumbers.contains(order.getOrderNumber())) {
+                    throw new DataIntegrityViolationException("Value too long for column: " + order.getOrderNumber());
+                }
+            }
+            orders.forEach(order -> assertTrue(storedOrderNumbers.add(order.getOrderNumber())));
+            return null;
+        }).when(orderRepository).insertAll(anyList());
+        doAnswer(invocation -> {
+            quarantined.addAll(invocation.getArgument(0));
+            return null;
+        }).when(orderImportRejectionRepository).saveAll(anyCollection());
+        doAnswer(invocation -> {
+            Collection<Order> orders = invocation.getArgument(0);
+            orders.forEach(order -> assertEquals(1, order.getDomainEvents().size()));
+            publishedOrders.addAll(orders);
+            return null;
+        }).when(domainEventPublisher).publishEventsFrom(anyCollection());
+
+        OrderSyncService orderSyncService = new OrderSyncService(orderRepository);
+        OrderApplicationService orderApplicationService =
+                new OrderApplicationService(orderRepository, orderProcessingService, orderSyncService, domainEventPublisher);
+        HttpPlatformOrderClient client = new HttpPlatformOrderClient(new ObjectMapper(), new PlatformRateLimiter(0), 1000, 5000, 3, 10);
+        importService = new PlatformOrderImportService(platformIntegrationService, client, orderSyncService,
+                orderApplicationService, orderImportRejectionRepository, PAGE_SIZE, 2, 3, 500, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        importService.shutdown();
+        server.stop(0);
+    }
+
+    @Test
+    void importsAllPagesAndSkipsDuplicatesAndInvalidOrders() {
+        for (int i = 0; i < ORDER_COUNT; i++) {
+            // 每50个订单中有一个缺少收货地址
+            orderJson.add(orderJson("EXT-" + i, i % 50 != 49));
+        }
+        // 平台在分页过程中重复返回了部分订单
+        for (int i = 200; i < 220; i++) {
+            orderJson.add(orderJson("EXT-" + i, true));
+        }
+        // 前100个订单已在上一次同步中导入
+        for (int i = 0; i < 100; i++) {
+            storedOrderNumbers.add(OrderSyncService.orderNumberOf(platformId, "EXT-" + i));
+        }
+
+        OrderImportResult result = importService.importOrders(platformId);
+
+        int rejected = ORDER_COUNT / 50;
+        assertEquals(ORDER_COUNT + 20, result.getFetched());
+        assertEquals(rejected, result.getRejected());
+        assertEquals(ORDER_COUNT - rejected - 98, result.getImported());
+        assertEquals(98 + 20, result.getDuplicates());
+        assertEquals(result.getImported(), publishedOrders.size());
+        assertEquals(ORDER_COUNT - rejected + 2, storedOrderNumbers.size());
+        assertEquals(Set.of("Basic a2V5OnNlY3JldA=="), authorizations);
+
+        Order order = publishedOrders.stream()
+                .filter(imported -> imported.getOrderNumber().equals(OrderSyncService.orderNumberOf(platformId, "EXT-1000")))
+                .findFirst()
+                .orElseThrow();
+        assertEquals("tenant-1", order.getTenantId());
+        assertEquals("customer-1000", order.getCustomerId());
+        assertEquals(2, order.getOrderItems().size());
+        assertEquals(2025, order.getCreatedAt().getYear());
+        assertEquals(rejected, quarantined.size());
+        assertTrue(quarantined.stream().allMatch(rejection -> rejection.getStage() == OrderImportRejection.Stage.VALIDATION));
+        assertTrue(quarantined.stream().anyMatch(rejection -> rejection.getExternalOrderNumber().equals("EXT-49")));
+    }
+
+    @Test
+    void rejectsOrdersMissingColumnsThatCannotBeNull() {
+        orderJson.add(orderJson("EXT-1", true));
+        orderJson.add(orderJson("EXT-2", true).replace("\"productName\":\"Phone\"", "\"productName\":null"));
+        orderJson.add(orderJson("EXT-3", true).replace("\"status\":\"PAID\"", "\"status\":\"\""));
+        orderJson.add(orderJson("EXT-4", true).replace("\"phone\":\"13800138000\"", "\"phone\":null"));
+
+        OrderImportResult result = importService.importOrders(platformId);
+
+        assertEquals(1, result.getImported());
+        assertEquals(3, result.getRejected());
+        assertEquals(Set.of("EXT-2", "EXT-3", "EXT-4"), quarantined.stream()
+                .map(OrderImportRejection::getExternalOrderNumber)
+                .collect(Collectors.toSet()));
+    }
+
+    @Test
+    void quarantinesOrdersThatFailToWriteAndImportsTheRestOfTheChunk() {
+        for (int i = 0; i < 300; i++) {
+            orderJson.add(orderJson("EXT-" + i, true));
+        }
+        unwritableOrderNumbers.add(OrderSyncService.orderNumberOf(platformId, "EXT-42"));
+
+        OrderImportResult result = importService.importOrders(platformId);
+
+        assertEquals(299, result.getImported());
+        assertEquals(1, result.getRejected());
+        assertEquals(0, result.getDuplicates());
+        assertEquals(1, quarantined.size());
+        assertEquals("EXT-42", quarantined.get(0).getExternalOrderNumber());
+        assertEquals(OrderImportRejection.Stage.WRITE, quarantined.get(0).getStage());
+        assertEquals(platformId, quarantined.get(0).getPlatformId());
+    }
+
+    @Test
+    void rejectsPlatformWithoutTenant() {
+        PlatformIntegration platform = platform(PlatformStatus.ACTIVE);
+        when(platformIntegrationService.getPlatformIntegrationById(platformId)).thenReturn(PlatformIntegration.builder()
+                .id(platformId)
+                .platformName(PlatformName.SHOPIFY)
+                .apiKey("key")
+                .apiSecret("secret")
+                .storeUrl(platform.getStoreUrl())
+                .status(PlatformStatus.ACTIVE)
+                .build());
+
+        assertThrows(InvalidOperationException.class, () -> importService.importOrders(platformId));
+    }
+
+    @Test
+    void retriesWhenPlatformIsTemporarilyUnavailable() {
+        orderJson.add(orderJson("EXT-1", true));
+        failuresBeforeSuccess.set(2);
+
+        OrderImportResult result = importService.importOrders(platformId);
+
+        assertEquals(1, result.getImported());
+        verify(domainEventPublisher).publishEventsFrom(anyCollection());
+    }
+
+    @Test
+    void resumesFromCursorAndCheckpointsOnlyCommittedPages() {
+        for (int i = 0; i < 1000; i++) {
+            orderJson.add(orderJson("EXT-" + i, true));
+        }
+        List<Integer> checkpoints = new ArrayList<>();
+
+        OrderImportResult result = importService.importOrders(platformId, LocalDateTime.of(2025, 6, 1, 8, 0), "300",
+                cursor -> {
+                    int next = Integer.parseInt(cursor);
+                    // 游标之前的订单必须已全部提交
+                    for (int i = 300; i < next; i++) {
+                        assertTrue(storedOrderNumbers.contains(OrderSyncService.orderNumberOf(platformId, "EXT-" + i)));
+                    }
+                    checkpoints.add(next);
+                });
+
+        assertEquals(700, result.getFetched());
+        assertEquals(700, result.getImported());
+        assertFalse(storedOrderNumbers.contains(OrderSyncService.orderNumberOf(platformId, "EXT-299")));
+        assertEquals(Set.of("2025-06-01T08:00Z"), Set.copyOf(updatedSinceParameters));
+        assertEquals(checkpoints.stream().sorted().distinct().toList(), checkpoints);
+    }
+
+    @Test
+    void rejectsInactivePlatform() {
+        when(platformIntegrationService.getPlatformIntegrationById(any())).thenReturn(platform(PlatformStatus.INACTIVE));
+
+        assertThrows(InvalidOperationException.class, () -> importService.importOrders(platformId));
+    }
+
+    private PlatformIntegration platform(PlatformStatus status) {
+        return PlatformIntegration.builder()
+                .id(platformId)
+                .tenantId("tenant-1")
+                .platformName(PlatformName.SHOPIFY)
+                .apiKey("key")
+                .apiSecret("secret")
+                .storeUrl("http://127.0.0.1:" + server.getAddress().getPort() + "/")
+                .status(status)
+                .build();
+    }
+
+    private void handleOrders(HttpExchange exchange) throws IOException {
+        if (failuresBeforeSuccess.getAndUpdate(remaining -> Math.max(0, remaining - 1)) > 0) {
+            exchange.sendResponseHeaders(503, -1);
+            exchange.close();
+            return;
+        }
+        synchronized (authorizations) {
+            authorizations.add(exchange.getRequestHeaders().getFirst("Authorization"));
+        }
+        int offset = 0;
+        int limit = PAGE_SIZE;
+        for (String parameter : exchange.getRequestURI().getQuery().split("&")) {
+            String[] pair = parameter.split("=");
+            if (pair[0].equals("cursor")) {
+                offset = Integer.parseInt(pair[1]);
+            } else if (pair[0].equals("limit")) {
+                limit = Integer.parseInt(pair[1]);
+            } else if (pair[0].equals("updated_since")) {
+                updatedSinceParameters.add(pair[1]);
+            }
+        }
+        int end = Math.min(orderJson.size(), offset + limit);
+        String body = "{\"orders\":[" + String.join(",", orderJson.subList(offset, end)) + "],"
+                + "\"nextCursor\":" + (end < orderJson.size() ? "\"" + end + "\"" : "null") + "}";
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+
+    private static String orderJson(String orderNumber, boolean withAddress) {
+        String customerId = "customer-" + orderNumber.substring(4);
+        String address = withAddress
+                ? ",\"shippingAddress\":{\"country\":\"CN\",\"province\":\"Guangdong\",\"city\":\"Shenzhen\","
+                + "\"street\":\"Nanshan\",\"zipCode\":\"518000\",\"recipient\":\"Zhang San\",\"phone\":\"13800138000\"}"
+                : "";
+        return "{\"orderNumber\":\"" + orderNumber + "\",\"customerId\":\"" + customerId + "\","
+                + "\"createdAt\":\"2025-06-01T10:15:30+08:00\","
+                + "\"items\":[{\"sku\":\"SKU-1\",\"productName\":\"Phone\",\"quantity\":1,\"unitPrice\":99.50},"
+                + "{\"sku\":\"SKU-2\",\"productName\":\"Case\",\"quantity\":2,\"unitPrice\":5}]"
+                + address
+                + ",\"payment\":{\"method\":\"CARD\",\"status\":\"PAID\",\"transactionId\":\"T-" + orderNumber + "\",\"amount\":109.50}"
+                + ",\"unknownField\":true}";
+    }
+}
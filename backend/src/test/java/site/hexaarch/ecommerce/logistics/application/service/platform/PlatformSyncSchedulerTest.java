@@ -0,0 +1,198 @@
+package site.hexaarch.ecommerce.logistics.application.service.platform;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import site.hexaarch.ecommerce.logistics.domain.common.exception.BusinessException;
+import site.hexaarch.ecommerce.logistics.domain.common.exception.InvalidOperationException;
+import site.hexaarch.ecommerce.logistics.domain.order.valueobject.OrderImportResult;
+import site.hexaarch.ecommerce.logistics.domain.platform.aggregate.PlatformIntegration;
+import site.hexaarch.ecommerce.logistics.domain.platform.repository.PlatformIntegrationRepository;
+import site.hexaarch.ecommerce.logistics.domain.platform.repository.SyncWatermarkRepository;
+import site.hexaarch.ecommerce.logistics.domain.platform.valueobject.PlatformName;
+import site.hexaarch.ecommerce.logistics.domain.platform.valueobject.PlatformStatus;
+import site.hexaarch.ecommerce.logistics.domain.platform.valueobject.PlatformSyncType;
+import site.hexaarch.ecommerce.logistics.domain.platform.valueobject.SyncWatermark;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 平台增量同步调度器测试。
+ */
+class PlatformSyncSchedulerTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 6, 1, 12, 0);
+    private static final String OWNER = "node-1";
+
+    @Mock
+    private PlatformIntegrationRepository platformIntegrationRepository;
+    @Mock
+    private SyncWatermarkRepository syncWatermarkRepository;
+    @Mock
+    private PlatformOrderImportService platformOrderImportService;
+
+    private final UUID platformId = UUID.randomUUID();
+    private PlatformSyncScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        Clock clock = Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        scheduler = new PlatformSyncScheduler(platformIntegrationRepository, syncWatermarkRepository,
+                platformOrderImportService, Runnable::run, clock, OWNER, Duration.ofMinutes(5), Duration.ZERO,
+                Duration.ofMinutes(1), Duration.ofSeconds(30), Duration.ofMinutes(10), Duration.ofMinutes(10));
+        PlatformIntegration platform = PlatformIntegration.builder()
+                .id(platformId)
+                .platformName(PlatformName.SHOPIFY)
+                .status(PlatformStatus.ACTIVE)
+                .build();
+        when(platformIntegrationRepository.findByStatusActive()).thenReturn(List.of(platform));
+        when(syncWatermarkRepository.tryAcquireLease(eq(platformId), eq(PlatformSyncType.ORDERS), eq(OWNER), any(), any()))
+                .thenReturn(true);
+    }
+
+    @Test
+    void resumesInterruptedRunFromPersistedCursor() {
+        LocalDateTime updatedSince = NOW.minusHours(1);
+        LocalDateTime runStartedAt = NOW.minusMinutes(3);
+        givenWatermark(new SyncWatermark(platformId, PlatformSyncType.ORDERS, updatedSince, "500", runStartedAt,
+                NOW.minusSeconds(1), 0, null, null));
+        when(platformOrderImportService.importOrders(eq(platformId), eq(updatedSince), eq("500"), any()))
+                .thenAnswer(invocation -> {
+                    Consumer<String> checkpoint = invocation.getArgument(3);
+                    checkpoint.accept("750");
+                    return new OrderImportResult(300, 300, 0, 0, 10);
+                });
+
+        scheduler.dispatch();
+
+        List<SyncWatermark> saved = savedWatermarks();
+        assertEquals("750", saved.get(saved.size() - 2).getCursor());
+        SyncWatermark completed = saved.get(saved.size() - 1);
+        assertEquals(runStartedAt.minusMinutes(1), completed.getUpdatedSince());
+        assertNull(completed.getCursor());
+        assertNull(completed.getRunStartedAt());
+        assertEquals(NOW.plusMinutes(5), completed.getNextRunAt());
+        assertEquals(NOW, completed.getLastSuccessAt());
+        verify(syncWatermarkRepository).releaseLease(platformId, PlatformSyncType.ORDERS, OWNER);
+    }
+
+    @Test
+    void backsOffAndKeepsCursorWhenSyncFails() {
+        givenWatermark(new SyncWatermark(platformId, PlatformSyncType.ORDERS, NOW.minusHours(1), "500", NOW.minusMinutes(3),
+                NOW.minusSeconds(1), 1, null, "previous"));
+        when(platformOrderImportService.importOrders(eq(platformId), any(), any(), any()))
+                .thenThrow(new BusinessException("Platform order API returned status 500", "PLATFORM_API_ERROR"));
+
+        scheduler.dispatch();
+
+        List<SyncWatermark> saved = savedWatermarks();
+        SyncWatermark failed = saved.get(saved.size() - 1);
+        assertEquals("500", failed.getCursor());
+        assertEquals(NOW.minusMinutes(3), failed.getRunStartedAt());
+        assertEquals(2, failed.getConsecutiveFailures());
+        assertEquals(NOW.plusSeconds(60), failed.getNextRunAt());
+        verify(syncWatermarkRepository).releaseLease(platformId, PlatformSyncType.ORDERS, OWNER);
+    }
+
+    @Test
+    void postponesWithoutFailureWhenManualSyncIsRunning() {
+        givenWatermark(SyncWatermark.initial(platformId, PlatformSyncType.ORDERS, NOW));
+        when(platformOrderImportService.importOrders(eq(platformId), any(), any(), any()))
+                .thenThrow(new InvalidOperationException("Order sync is already running for platform: " + platformId));
+
+        scheduler.dispatch();
+
+        List<SyncWatermark> saved = savedWatermarks();
+        SyncWatermark postponed = saved.get(saved.size() - 1);
+        assertEquals(0, postponed.getConsecutiveFailures());
+        assertEquals(NOW.plusMinutes(5), postponed.getNextRunAt());
+    }
+
+    @Test
+    void createsWatermarkAndRunsFullSyncForNewPlatform() {
+        when(syncWatermarkRepository.findBySyncType(PlatformSyncType.ORDERS)).thenReturn(List.of());
+        when(syncWatermarkRepository.find(platformId, PlatformSyncType.ORDERS))
+                .thenReturn(Optional.of(SyncWatermark.initial(platformId, PlatformSyncType.ORDERS, NOW)));
+        when(platformOrderImportService.importOrders(eq(platformId), any(), any(), any()))
+                .thenReturn(new OrderImportResult(0, 0, 0, 0, 1));
+
+        scheduler.dispatch();
+
+        verify(platformOrderImportService).importOrders(eq(platformId), eq(null), eq(null), any());
+        List<SyncWatermark> saved = savedWatermarks();
+        assertEquals(NOW.minusMinutes(1), saved.get(saved.size() - 1).getUpdatedSince());
+    }
+
+    @Test
+    void recordsWatermarkInUtcRegardlessOfClockZone() {
+        Clock shanghaiClock = Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneId.of("Asia/Shanghai"));
+        scheduler = new PlatformSyncScheduler(platformIntegrationRepository, syncWatermarkRepository,
+                platformOrderImportService, Runnable::run, shanghaiClock, OWNER, Duration.ofMinutes(5), Duration.ZERO,
+                Duration.ofMinutes(1), Duration.ofSeconds(30), Duration.ofMinutes(10), Duration.ofMinutes(10));
+        givenWatermark(new SyncWatermark(platformId, PlatformSyncType.ORDERS, NOW.minusHours(1), null, null,
+                NOW.minusSeconds(1), 0, null, null));
+        when(platformOrderImportService.importOrders(eq(platformId), any(), any(), any()))
+                .thenReturn(new OrderImportResult(0, 0, 0, 0, 1));
+
+        scheduler.dispatch();
+
+        // 本地时间比UTC快8小时，按本地时间记录会让下一轮跳过8小时内变更的订单
+        verify(syncWatermarkRepository, atLeastOnce()).tryAcquireLease(platformId, PlatformSyncType.ORDERS, OWNER, NOW, NOW.plusMinutes(10));
+        List<SyncWatermark> saved = savedWatermarks();
+        SyncWatermark completed = saved.get(saved.size() - 1);
+        assertEquals(NOW.minusMinutes(1), completed.getUpdatedSince());
+        assertEquals(NOW.plusMinutes(5), completed.getNextRunAt());
+    }
+
+    @Test
+    void skipsPlatformsThatAreNotDue() {
+        givenWatermark(SyncWatermark.initial(platformId, PlatformSyncType.ORDERS, NOW.plusMinutes(1)));
+
+        scheduler.dispatch();
+
+        verify(syncWatermarkRepository, never()).tryAcquireLease(any(), any(), any(), any(), any());
+        verify(platformOrderImportService, never()).importOrders(any(), any(), any(), any());
+    }
+
+    @Test
+    void skipsPlatformsLeasedByAnotherNode() {
+        givenWatermark(SyncWatermark.initial(platformId, PlatformSyncType.ORDERS, NOW));
+        when(syncWatermarkRepository.tryAcquireLease(eq(platformId), eq(PlatformSyncType.ORDERS), eq(OWNER), any(), any()))
+                .thenReturn(false);
+
+        scheduler.dispatch();
+
+        verify(platformOrderImportService, never()).importOrders(any(), any(), any(), any());
+        verify(syncWatermarkRepository, never()).releaseLease(any(), any(), any());
+    }
+
+    private void givenWatermark(SyncWatermark watermark) {
+        when(syncWatermarkRepository.findBySyncType(PlatformSyncType.ORDERS)).thenReturn(List.of(watermark));
+        when(syncWatermarkRepository.find(platformId, PlatformSyncType.ORDERS)).thenReturn(Optional.of(watermark));
+    }
+
+    private List<SyncWatermark> savedWatermarks() {
+        ArgumentCaptor<SyncWatermark> captor = ArgumentCaptor.forClass(SyncWatermark.class);
+        verify(syncWatermarkRepository, atLeastOnce()).save(captor.capture());
+        return captor.getAllValues();
+    }
+}
@@ -0,0 +1,102 @@
+package site.hexaarch.ecommerce.logistics.application.service.purchase;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import site.hexaarch.ecommerce.logistics.application.service.WarehouseApplicationService;
+import site.hexaarch.ecommerce.logistics.domain.purchase.aggregate.PurchaseOrder;
+import site.hexaarch.ecommerce.logistics.domain.purchase.repository.PurchaseOrderRepository;
+import site.hexaarch.ecommerce.logistics.domain.purchase.service.PurchaseOrderServiceImpl;
+import site.hexaarch.ecommerce.logistics.domain.purchase.valueobject.PurchaseStatus;
+import site.hexaarch.ecommerce.logistics.infrastructure.messaging.DomainEventPublisher;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 采购应用服务单元测试，覆盖采购单收货入库和重复收货。
+ */
+class PurchaseApplicationServiceTest {
+
+    @Mock
+    private PurchaseOrderRepository purchaseOrderRepository;
+
+    @Mock
+    private DomainEventPublisher domainEventPublisher;
+
+    @Mock
+    private WarehouseApplicationService warehouseApplicationService;
+
+    private PurchaseApplicationService purchaseApplicationService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        purchaseApplicationService = new PurchaseApplicationService(new PurchaseOrderServiceImpl(purchaseOrderRepository),
+                domainEventPublisher, warehouseApplicationService);
+    }
+
+    @Test
+    void receivesAllItemsIntoTheTargetWarehouseOnce() {
+        PurchaseOrder purchaseOrder = inTransitOrder();
+        when(purchaseOrderRepository.findByIdForUpdate("PO-1")).thenReturn(Optional.of(purchaseOrder));
+
+        purchaseApplicationService.receivePurchaseOrder("PO-1");
+
+        assertEquals(PurchaseStatus.DELIVERED, purchaseOrder.getStatus());
+        verify(warehouseApplicationService).receiveInventory("WH1", Map.of("SKU-A", 5, "SKU-B", 2), "采购入库: PO-1");
+        verify(purchaseOrderRepository).save(purchaseOrder);
+        verify(purchaseOrderRepository, never()).findById(anyString());
+    }
+
+    @Test
+    void rejectsRepeatedReceiptWithoutBookingStockAgain() {
+        // 第二次收货在第一次提交后拿到行锁，读到的是已送达的采购单
+        PurchaseOrder purchaseOrder = inTransitOrder();
+        when(purchaseOrderRepository.findByIdForUpdate("PO-1")).thenReturn(Optional.of(purchaseOrder));
+        purchaseApplicationService.receivePurchaseOrder("PO-1");
+
+        assertThrows(IllegalArgumentException.class, () -> purchaseApplicationService.receivePurchaseOrder("PO-1"));
+
+        verify(purchaseOrderRepository, times(2)).findByIdForUpdate("PO-1");
+        verify(warehouseApplicationService, times(1)).receiveInventory(anyString(), anyMap(), anyString());
+    }
+
+    @Test
+    void recordsDeliveryTimeAndKeepsCreationTimeOfReloadedOrder() {
+        // 从数据库重建的采购单保留原来的创建时间
+        LocalDateTime createdAt = LocalDateTime.now().minusDays(5);
+        PurchaseOrder purchaseOrder = inTransitOrder().toBuilder().createdAt(createdAt).build();
+        when(purchaseOrderRepository.findByIdForUpdate("PO-1")).thenReturn(Optional.of(purchaseOrder));
+
+        purchaseApplicationService.receivePurchaseOrder("PO-1");
+
+        assertEquals(createdAt, purchaseOrder.getCreatedAt());
+        assertNotNull(purchaseOrder.getDeliveredAt());
+        assertTrue(purchaseOrder.getDeliveredAt().isAfter(createdAt));
+    }
+
+    private static PurchaseOrder inTransitOrder() {
+        PurchaseOrder purchaseOrder = PurchaseOrder.create("PO-1", "tenant-1", "SUP-1", "Supplier", "WH1");
+        purchaseOrder.addItem("SKU-A", "Product A", 3, BigDecimal.ONE);
+        purchaseOrder.addItem("SKU-B", "Product B", 2, BigDecimal.ONE);
+        purchaseOrder.addItem("SKU-A", "Product A", 2, BigDecimal.ONE);
+        purchaseOrder.approve();
+        purchaseOrder.markAsInTransit();
+        return purchaseOrder;
+    }
+}
@@ -0,0 +1,130 @@
+package site.hexaarch.ecommerce.logistics.domain.logistics.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import site.hexaarch.ecommerce.logistics.domain.logistics.entity.LogisticsChannel;
+import site.hexaarch.ecommerce.logistics.domain.logistics.repository.LogisticsChannelRepository;
+import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.LogisticsFee;
+import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.PriceRule;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 物流渠道服务单元测试，覆盖费率索引的查找语义和缓存失效。
+ */
+class LogisticsChannelServiceTest {
+    @Mock
+    private LogisticsChannelRepository logisticsChannelRepository;
+    private LogisticsChannelService logisticsChannelService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        logisticsChannelService = new LogisticsChannelService(logisticsChannelRepository);
+    }
+
+    @Test
+    void quotesFirstApplicableRuleWithInclusiveBounds() {
+        givenChannel(List.of(
+                rule("CN", 0, 1, null, "10"),
+                rule("CN", 1, 5, null, "20"),
+                rule("CN", 0, 5, 0, 100, "99"),
+                rule("US", 0, 5, null, "30")));
+
+        assertEquals(new BigDecimal("10"), fee(0, 0, "CN").getTotalFee());
+        assertEquals(new BigDecimal("10"), fee(1, 0, "CN").getTotalFee());
+        assertEquals(new BigDecimal("20"), fee(1.5, 0, "CN").getTotalFee());
+        assertEquals(new BigDecimal("20"), fee(5, 0, "CN").getTotalFee());
+        assertEquals(new BigDecimal("30"), fee(1.5, 0, "US").getTotalFee());
+        assertThrows(IllegalArgumentException.class, () -> fee(5.5, 0, "CN"));
+        assertThrows(IllegalArgumentException.class, () -> fee(1, 0, "JP"));
+    }
+
+    @Test
+    void filtersRulesByVolumeWithinWeightSlot() {
+        givenChannel(List.of(
+                rule("CN", 0, 10, 0, 100, "10"),
+                rule("CN", 0, 10, 100, 1000, "15"),
+                rule("CN", 0, 10, null, "50")));
+
+        assertEquals(new BigDecimal("10"), fee(2, 50, "CN").getTotalFee());
+        assertEquals(new BigDecimal("15"), fee(2, 500, "CN").getTotalFee());
+        assertEquals(new BigDecimal("50"), fee(2, 5000, "CN").getTotalFee());
+    }
+
+    @Test
+    void loadsChannelOncePerIndexAndReloadsAfterUpdate() {
+        LogisticsChannel channel = givenChannel(List.of(rule("CN", 0, 10, null, "10")));
+
+        fee(1, 0, "CN");
+        fee(2, 0, "CN");
+        verify(logisticsChannelRepository, times(1)).findById("CH-1");
+
+        LogisticsChannel updated = channel.toBuilder().priceRules(List.of(rule("CN", 0, 10, null, "12"))).build();
+        when(logisticsChannelRepository.save(any())).thenReturn(updated);
+        logisticsChannelService.updateLogisticsChannel(updated);
+        when(logisticsChannelRepository.findById("CH-1")).thenReturn(Optional.of(updated));
+
+        assertEquals(new BigDecimal("12"), fee(1, 0, "CN").getTotalFee());
+    }
+
+    @Test
+    void rateIndexIsRebuiltFromRepositoryNotFromStaleChannelSnapshot() {
+        LogisticsChannel channel = givenChannel(List.of(rule("CN", 0, 10, null, "10")));
+        when(logisticsChannelRepository.findActiveChannels()).thenReturn(List.of(channel));
+        // 比价开始时取到的国家索引快照
+        LogisticsChannel snapshot = logisticsChannelService.getAvailableChannels("CN").get(0);
+
+        LogisticsChannel updated = channel.toBuilder().priceRules(List.of(rule("CN", 0, 10, null, "12"))).build();
+        when(logisticsChannelRepository.save(any())).thenReturn(updated);
+        when(logisticsChannelRepository.findById("CH-1")).thenReturn(Optional.of(updated));
+        logisticsChannelService.updateLogisticsChannel(updated);
+
+        // 失效之后仍在进行的比价只带着旧快照的渠道ID，索引按仓储中的新费率重建
+        assertEquals(new BigDecimal("12"), logisticsChannelService.getRateIndex(snapshot.getChannelId())
+                .forCountry("CN").quote(1, 0).getTotalFee());
+        assertEquals(new BigDecimal("12"), fee(1, 0, "CN").getTotalFee());
+    }
+
+    private LogisticsChannel givenChannel(List<PriceRule> priceRules) {
+        LogisticsChannel channel = LogisticsChannel.builder()
+                .channelId("CH-1")
+                .channelName("Express")
+                .countries(List.of("CN", "US", "JP"))
+                .priceRules(priceRules)
+                .active(true)
+                .build();
+        when(logisticsChannelRepository.findById("CH-1")).thenReturn(Optional.of(channel));
+        return channel;
+    }
+
+    private LogisticsFee fee(double weight, double volume, String country) {
+        return logisticsChannelService.calculateFee("CH-1", weight, volume, country);
+    }
+
+    private static PriceRule rule(String country, double minWeight, double maxWeight, Integer minVolume, String price) {
+        return rule(country, minWeight, maxWeight, minVolume, null, price);
+    }
+
+    private static PriceRule rule(String country, double minWeight, double maxWeight, Integer minVolume, Integer maxVolume, String price) {
+        PriceRule.PriceRuleBuilder builder = PriceRule.builder()
+                .country(country)
+                .weightRange(PriceRule.WeightRange.builder().minWeight(minWeight).maxWeight(maxWeight).build())
+                .price(new BigDecimal(price));
+        if (minVolume != null) {
+            builder.volumeRange(PriceRule.VolumeRange.builder().minVolume(minVolume).maxVolume(maxVolume).build());
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,88 @@
+package site.hexaarch.ecommerce.logistics.domain.logistics.service;
+
+import org.junit.jupiter.api.Test;
+import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.LogisticsStatus;
+import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.ShipmentStatus;
+import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.StatusTransition;
+import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.TrackingEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 轨迹事件接入服务单元测试，覆盖重复扫描合并和状态只前进的语义。
+ */
+class TrackingEventIngestionServiceTest {
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 10, 1, 8, 0);
+
+    private final TrackingEventIngestionService service = new TrackingEventIngestionService();
+
+    @Test
+    void coalescesDuplicateScansKeepingFirstOccurrence() {
+        TrackingEvent first = scan("SF001", LogisticsStatus.COLLECTED, 0, "Shenzhen");
+        List<TrackingEvent> coalesced = service.coalesce(List.of(
+                first,
+                scan("SF001", LogisticsStatus.COLLECTED, 0, "Shenzhen Hub"),
+                scan("SF001", LogisticsStatus.IN_TRANSIT, 1, null)));
+
+        assertEquals(2, coalesced.size());
+        assertEquals("Shenzhen", coalesced.get(0).getLocation());
+    }
+
+    @Test
+    void advancesToFurthestStatusRegardlessOfArrivalOrder() {
+        Map<String, ShipmentStatus> shipments = Map.of("SF001", shipment("SF001", LogisticsStatus.LABEL_GENERATED));
+
+        List<StatusTransition> transitions = service.planTransitions(shipments, List.of(
+                scan("SF001", LogisticsStatus.DELIVERING, 3, null),
+                scan("SF001", LogisticsStatus.COLLECTED, 1, null),
+                scan("SF001", LogisticsStatus.IN_TRANSIT, 2, null)));
+
+        assertEquals(1, transitions.size());
+        assertEquals(LogisticsStatus.DELIVERING, transitions.get(0).getNewStatus());
+        assertEquals(T0.plusHours(3), transitions.get(0).getChangedAt());
+    }
+
+    @Test
+    void ignoresRegressingAndUnknownScans() {
+        Map<String, ShipmentStatus> shipments = Map.of(
+                "SF001", shipment("SF001", LogisticsStatus.IN_TRANSIT),
+                "SF002", shipment("SF002", LogisticsStatus.DELIVERED));
+
+        List<StatusTransition> transitions = service.planTransitions(shipments, List.of(
+                scan("SF001", LogisticsStatus.COLLECTED, 1, null),
+                scan("SF002", LogisticsStatus.FAILED, 1, null),
+                scan("SF999", LogisticsStatus.IN_TRANSIT, 1, null)));
+
+        assertTrue(transitions.isEmpty());
+    }
+
+    @Test
+    void failedShipmentResumesOnLaterScan() {
+        assertTrue(LogisticsStatus.IN_TRANSIT.canAdvanceTo(LogisticsStatus.FAILED));
+        assertTrue(LogisticsStatus.FAILED.canAdvanceTo(LogisticsStatus.DELIVERING));
+        assertFalse(LogisticsStatus.FAILED.canAdvanceTo(LogisticsStatus.LABEL_GENERATED));
+        assertFalse(LogisticsStatus.PENDING.canAdvanceTo(LogisticsStatus.CANCELLED));
+
+        Map<String, ShipmentStatus> shipments = Map.of("SF001", shipment("SF001", LogisticsStatus.IN_TRANSIT));
+        List<StatusTransition> transitions = service.planTransitions(shipments, List.of(
+                scan("SF001", LogisticsStatus.FAILED, 1, null),
+                scan("SF001", LogisticsStatus.DELIVERED, 2, null)));
+
+        assertEquals(LogisticsStatus.DELIVERED, transitions.get(0).getNewStatus());
+        assertEquals(2, transitions.get(0).toDomainEvents().size());
+    }
+
+    private static ShipmentStatus shipment(String trackingNumber, LogisticsStatus status) {
+        return new ShipmentStatus("LO-" + trackingNumber, "ORD-" + trackingNumber, trackingNumber, status);
+    }
+
+    private static TrackingEvent scan(String trackingNumber, LogisticsStatus status, int hours, String location) {
+        return new TrackingEvent(trackingNumber, status, T0.plusHours(hours), location, null);
+    }
+}
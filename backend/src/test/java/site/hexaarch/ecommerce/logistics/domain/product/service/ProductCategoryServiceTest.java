@@ -0,0 +1,75 @@
+package site.hexaarch.ecommerce.logistics.domain.product.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import site.hexaarch.ecommerce.logistics.domain.product.entity.ProductCategory;
+import site.hexaarch.ecommerce.logistics.domain.product.repository.ProductCategoryRepository;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 产品分类服务单元测试，覆盖分类树快照的存活时间和未知分类的重新加载。
+ */
+class ProductCategoryServiceTest {
+    private static final long TTL_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+    @Mock
+    private ProductCategoryRepository productCategoryRepository;
+
+    private final AtomicLong now = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+    private ProductCategoryService service;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        service = new ProductCategoryService(productCategoryRepository, TTL_NANOS, now::get);
+    }
+
+    @Test
+    void reloadsKnownCategoryMovedByAnotherInstanceAfterTtl() {
+        when(productCategoryRepository.findAll()).thenReturn(List.of(
+                category("ROOT", null), category("A", "ROOT"), category("B", "ROOT")));
+        assertEquals(List.of("A"), service.getSubtreeIds("A"));
+
+        // 其他实例把B移到A下
+        when(productCategoryRepository.findAll()).thenReturn(List.of(
+                category("ROOT", null), category("A", "ROOT"), category("B", "A")));
+        now.addAndGet(TTL_NANOS - 1);
+        assertEquals(List.of("A"), service.getSubtreeIds("A"));
+
+        now.addAndGet(1);
+        assertEquals(List.of("A", "B"), service.getSubtreeIds("A"));
+        verify(productCategoryRepository, times(2)).findAll();
+    }
+
+    @Test
+    void keepsSnapshotWithinTtl() {
+        when(productCategoryRepository.findAll()).thenReturn(List.of(category("ROOT", null), category("A", "ROOT")));
+
+        for (int i = 0; i < 5; i++) {
+            service.getSubtreeIds("ROOT");
+            now.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        }
+
+        verify(productCategoryRepository, times(1)).findAll();
+    }
+
+    private static ProductCategory category(String id, String parentId) {
+        return ProductCategory.builder()
+                .id(id)
+                .name(id)
+                .parentId(parentId)
+                .level(parentId == null ? 1 : 2)
+                .active(true)
+                .build();
+    }
+}
@@ -0,0 +1,64 @@
+package site.hexaarch.ecommerce.logistics.domain.product.valueobject;
+
+import org.junit.jupiter.api.Test;
+import site.hexaarch.ecommerce.logistics.domain.product.entity.ProductCategory;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 分类树单元测试，覆盖子树区间、祖先判断和写时复制。
+ */
+class CategoryTreeTest {
+
+    @Test
+    void answersSubtreeAndAncestorQueriesFromIntervals() {
+        CategoryTree tree = CategoryTree.of(List.of(
+                category("electronics", null),
+                category("phones", "electronics"),
+                category("laptops", "electronics"),
+                category("android", "phones"),
+                category("books", null)));
+
+        assertEquals(List.of("electronics", "phones", "android", "laptops"), tree.subtreeIds("electronics"));
+        assertEquals(List.of("phones", "android"), tree.subtreeIds("phones"));
+        assertEquals(List.of("books"), tree.subtreeIds("books"));
+        assertEquals(List.of(), tree.subtreeIds("missing"));
+
+        assertTrue(tree.isAncestor("electronics", "android"));
+        assertFalse(tree.isAncestor("laptops", "android"));
+        assertFalse(tree.isAncestor("phones", "phones"));
+        assertEquals(List.of("electronics", "phones"), tree.ancestorIds("android"));
+        assertEquals(3, tree.depth("android"));
+    }
+
+    @Test
+    void toleratesOrphansAndCycles() {
+        CategoryTree tree = CategoryTree.of(List.of(
+                category("orphan", "deleted"),
+                category("a", "b"),
+                category("b", "a")));
+
+        assertEquals(3, tree.size());
+        assertEquals(List.of("orphan"), tree.subtreeIds("orphan"));
+        assertEquals(List.of("a", "b"), tree.subtreeIds("a"));
+        assertFalse(tree.isAncestor("b", "a"));
+    }
+
+    @Test
+    void copiesOnWrite() {
+        CategoryTree tree = CategoryTree.of(List.of(category("root", null)));
+
+        CategoryTree updated = tree.withCategory(category("child", "root"));
+
+        assertEquals(List.of("root"), tree.subtreeIds("root"));
+        assertEquals(List.of("root", "child"), updated.subtreeIds("root"));
+    }
+
+    private static ProductCategory category(String id, String parentId) {
+        return ProductCategory.builder().id(id).parentId(parentId).name(id).active(true).build();
+    }
+}
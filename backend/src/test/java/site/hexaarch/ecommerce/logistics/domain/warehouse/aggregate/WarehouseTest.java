@@ -0,0 +1,176 @@
+package site.hexaarch.ecommerce.logistics.domain.warehouse.aggregate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.entity.InventoryRecord;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.event.InventoryMovementBatchEvent;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.event.InventoryMovementEvent;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.valueobject.InventoryLedgerEntry;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.valueobject.InventoryMovement;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.valueobject.InventoryStatus;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 仓库聚合根单元测试。
+ */
+class WarehouseTest {
+    private Warehouse warehouse;
+
+    @BeforeEach
+    void setUp() {
+        warehouse = Warehouse.builder()
+                .warehouseId("WH001")
+                .warehouseName("Main Warehouse")
+                .warehouseCode("MW001")
+                .capacity(1000)
+                .active(true)
+                .build();
+        for (int i = 0; i < 100; i++) {
+            warehouse.addInventoryRecord(record("P" + i, "SKU" + i, 50));
+        }
+    }
+
+    private InventoryRecord record(String productId, String sku, int quantity) {
+        return InventoryRecord.builder()
+                .inventoryId("INV-" + productId)
+                .warehouseId("WH001")
+                .productId(productId)
+                .sku(sku)
+                .quantity(quantity)
+                .inventoryStatus(InventoryStatus.NORMAL)
+                .build();
+    }
+
+    @Test
+    void testFindInventoryRecordByProductIdAndSku() {
+        InventoryRecord byProduct = warehouse.findInventoryRecord("P42").orElseThrow();
+        InventoryRecord bySku = warehouse.findInventoryRecordBySku("SKU42").orElseThrow();
+
+        assertSame(byProduct, bySku);
+        assertTrue(warehouse.findInventoryRecord("missing").isEmpty());
+    }
+
+    @Test
+    void testIndexFollowsRecordsAddedAfterLookup() {
+        warehouse.findInventoryRecord("P0");
+        warehouse.addInventoryRecord(record("P-new", "SKU-new", 5));
+
+        assertEquals("SKU-new", warehouse.findInventoryRecord("P-new").orElseThrow().getSku());
+    }
+
+    @Test
+    void testIndexRebuiltWhenListModifiedDirectly() {
+        warehouse.findInventoryRecord("P0");
+        warehouse.getInventoryRecords().add(record("P-direct", "SKU-direct", 5));
+
+        assertTrue(warehouse.findInventoryRecord("P-direct").isPresent());
+    }
+
+    @Test
+    void testUpdateInventoryUsesIndexedRecord() {
+        warehouse.updateInventory("P7", 20, InventoryMovement.MovementType.INBOUND, "入库");
+        warehouse.updateInventory("P7", 5, InventoryMovement.MovementType.OUTBOUND, "出库");
+
+        assertEquals(65, warehouse.findInventoryRecord("P7").orElseThrow().getQuantity());
+        assertEquals(2, warehouse.getDomainEvents().size());
+        assertThrows(IllegalArgumentException.class,
+                () -> warehouse.updateInventory("missing", 1, InventoryMovement.MovementType.INBOUND, "入库"));
+    }
+
+    @Test
+    void testInventoryChangesRecordLedgerEntriesUntilCleared() {
+        warehouse.updateInventory("P7", 20, InventoryMovement.MovementType.INBOUND, "入库");
+        warehouse.updateInventory("P7", 5, InventoryMovement.MovementType.OUTBOUND, "出库");
+        warehouse.updateInventory("P7", 30, InventoryMovement.MovementType.ADJUSTMENT, "调整");
+        warehouse.countInventory("P7", 28);
+
+        List<InventoryLedgerEntry> entries = warehouse.pendingLedgerEntries();
+        assertEquals(List.of(20, -5, -35, -2), entries.stream().map(InventoryLedgerEntry::getQuantityChange).toList());
+        assertEquals(List.of(70, 65, 30, 28), entries.stream().map(InventoryLedgerEntry::getBalanceAfter).toList());
+        assertEquals(50, entries.get(0).getBalanceBefore());
+        assertEquals("SKU7", entries.get(3).getMovement().getSku());
+        assertEquals("盘点", entries.get(3).getMovement().getReason());
+
+        warehouse.clearInventoryChanges();
+
+        assertTrue(warehouse.pendingLedgerEntries().isEmpty());
+    }
+
+    @Test
+    void testReceiveInventoryRegistersOneBatchEvent() {
+        warehouse.clearInventoryChanges();
+        Map<String, Integer> quantitiesBySku = new LinkedHashMap<>();
+        quantitiesBySku.put("SKU3", 10);
+        quantitiesBySku.put("SKU8", 25);
+
+        warehouse.receiveInventory(quantitiesBySku, "采购入库: PO-1");
+
+        assertEquals(60, warehouse.findInventoryRecordBySku("SKU3").orElseThrow().getQuantity());
+        assertEquals(75, warehouse.findInventoryRecordBySku("SKU8").orElseThrow().getQuantity());
+        assertEquals(2, warehouse.changedInventoryRecords().size());
+        assertEquals(List.of(60, 75), warehouse.pendingLedgerEntries().stream().map(InventoryLedgerEntry::getBalanceAfter).toList());
+        assertEquals(1, warehouse.getDomainEvents().size());
+        InventoryMovementBatchEvent event = (InventoryMovementBatchEvent) warehouse.getDomainEvents().get(0);
+        assertEquals("WH001", event.getWarehouseId());
+        assertEquals(List.of(50, 50), event.getMovements().stream().map(InventoryMovementEvent::getOriginalQuantity).toList());
+        assertEquals("采购入库: PO-1", event.getMovements().get(1).getInventoryMovement().getReason());
+    }
+
+    @Test
+    void testReceiveInventorySplitsLargeBatchWithinOutboxPayloadLimit() throws Exception {
+        Warehouse large = Warehouse.builder()
+                .warehouseId(UUID.randomUUID().toString())
+                .warehouseName("Large Warehouse")
+                .warehouseCode("LW001")
+                .capacity(100000)
+                .active(true)
+                .build();
+        Map<String, Integer> quantitiesBySku = new LinkedHashMap<>();
+        for (int i = 0; i < 250; i++) {
+            // 按库存记录列的最大长度构造ID和SKU，估算最坏情况下的负载大小
+            String sku = String.format("SKU-%060d", i);
+            large.addInventoryRecord(InventoryRecord.builder()
+                    .inventoryId(UUID.randomUUID().toString())
+                    .warehouseId(large.getWarehouseId())
+                    .productId(UUID.randomUUID().toString())
+                    .sku(sku)
+                    .quantity(Integer.MAX_VALUE / 2)
+                    .inventoryStatus(InventoryStatus.NORMAL)
+                    .build());
+            quantitiesBySku.put(sku, 1000000);
+        }
+
+        large.receiveInventory(quantitiesBySku, "采购入库: " + UUID.randomUUID());
+
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        List<Object> events = large.getDomainEvents();
+        assertEquals(List.of(100, 100, 50), events.stream()
+                .map(event -> ((InventoryMovementBatchEvent) event).getMovements().size())
+                .toList());
+        for (Object event : events) {
+            // 发件箱负载列为TEXT，最多65535字节
+            assertTrue(objectMapper.writeValueAsBytes(event).length < 65535);
+        }
+    }
+
+    @Test
+    void testReceiveInventoryRejectsUnknownSkuWithoutChanges() {
+        Map<String, Integer> quantitiesBySku = new LinkedHashMap<>();
+        quantitiesBySku.put("SKU3", 10);
+        quantitiesBySku.put("SKU-missing", 5);
+
+        assertThrows(IllegalArgumentException.class, () -> warehouse.receiveInventory(quantitiesBySku, "采购入库"));
+        assertEquals(50, warehouse.findInventoryRecordBySku("SKU3").orElseThrow().getQuantity());
+        assertTrue(warehouse.pendingLedgerEntries().isEmpty());
+    }
+}
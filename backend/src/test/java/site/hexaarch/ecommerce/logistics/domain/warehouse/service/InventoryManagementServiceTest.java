@@ -0,0 +1,143 @@
+package site.hexaarch.ecommerce.logistics.domain.warehouse.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import site.hexaarch.ecommerce.logistics.domain.product.aggregate.Product;
+import site.hexaarch.ecommerce.logistics.domain.product.repository.ProductRepository;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.aggregate.Warehouse;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.entity.InventoryRecord;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.event.InventoryMovementBatchEvent;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.repository.WarehouseRepository;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.valueobject.InventoryStatus;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 库存管理服务单元测试，覆盖按SKU批量入库和新SKU的产品ID关联。
+ */
+class InventoryManagementServiceTest {
+
+    @Mock
+    private WarehouseRepository warehouseRepository;
+    @Mock
+    private ProductRepository productRepository;
+
+    private InventoryManagementService inventoryManagementService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        inventoryManagementService = new InventoryManagementService(warehouseRepository, productRepository);
+        when(productRepository.findBySkuCode(any())).thenAnswer(invocation ->
+                Optional.of(product("P-" + invocation.getArgument(0))));
+    }
+
+    @Test
+    void receivesAllSkusWithOneLockedSliceAndOneBatchWrite() {
+        Warehouse slice = slice(record("SKU-1", 10));
+        when(warehouseRepository.lockInventorySliceBySkus(eq("WH1"), anyCollection())).thenReturn(Optional.of(slice));
+        List<Integer> writtenQuantities = new ArrayList<>();
+        doAnswer(invocation -> {
+            Warehouse saved = invocation.getArgument(0);
+            saved.changedInventoryRecords().forEach(changed -> writtenQuantities.add(changed.getQuantity()));
+            saved.clearInventoryChanges();
+            return null;
+        }).when(warehouseRepository).saveLockedInventorySlice(any());
+        Map<String, Integer> quantitiesBySku = new LinkedHashMap<>();
+        quantitiesBySku.put("SKU-1", 5);
+        quantitiesBySku.put("SKU-2", 7);
+
+        Warehouse received = inventoryManagementService.receiveInventory("WH1", quantitiesBySku, "采购入库: PO-1");
+
+        assertEquals(15, received.findInventoryRecordBySku("SKU-1").orElseThrow().getQuantity());
+        InventoryRecord created = received.findInventoryRecordBySku("SKU-2").orElseThrow();
+        assertEquals(7, created.getQuantity());
+        assertEquals("P-SKU-2", created.getProductId());
+        writtenQuantities.sort(null);
+        assertEquals(List.of(7, 15), writtenQuantities);
+        assertEquals(1, received.getDomainEvents().size());
+        assertEquals(2, ((InventoryMovementBatchEvent) received.getDomainEvents().get(0)).getMovements().size());
+        verify(warehouseRepository).lockInventorySliceBySkus("WH1", quantitiesBySku.keySet());
+    }
+
+    @Test
+    void receivesIntoEmptyWarehouse() {
+        when(warehouseRepository.lockInventorySliceBySkus(eq("WH1"), anyCollection())).thenReturn(Optional.of(slice()));
+        Map<String, Integer> quantitiesBySku = new LinkedHashMap<>();
+        quantitiesBySku.put("SKU-1", 5);
+        quantitiesBySku.put("SKU-2", 7);
+
+        Warehouse received = inventoryManagementService.receiveInventory("WH1", quantitiesBySku, "采购入库: PO-1");
+
+        assertEquals("P-SKU-1", received.findInventoryRecordBySku("SKU-1").orElseThrow().getProductId());
+        assertEquals(7, received.findInventoryRecordBySku("SKU-2").orElseThrow().getQuantity());
+        List<String> movedProductIds = ((InventoryMovementBatchEvent) received.getDomainEvents().get(0)).getMovements().stream()
+                .map(movement -> movement.getInventoryMovement().getProductId())
+                .sorted()
+                .toList();
+        assertEquals(List.of("P-SKU-1", "P-SKU-2"), movedProductIds);
+        verify(warehouseRepository).saveLockedInventorySlice(received);
+    }
+
+    @Test
+    void rejectsSkuWithoutProduct() {
+        when(warehouseRepository.lockInventorySliceBySkus(eq("WH1"), anyCollection())).thenReturn(Optional.of(slice()));
+        when(productRepository.findBySkuCode("SKU-unknown")).thenReturn(Optional.empty());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> inventoryManagementService.receiveInventory("WH1", Map.of("SKU-unknown", 1), "采购入库"));
+        verify(warehouseRepository, never()).saveLockedInventorySlice(any());
+    }
+
+    @Test
+    void rejectsUnknownWarehouse() {
+        when(warehouseRepository.lockInventorySliceBySkus(eq("WH-missing"), anyCollection())).thenReturn(Optional.empty());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> inventoryManagementService.receiveInventory("WH-missing", Map.of("SKU-1", 1), "采购入库"));
+        verify(warehouseRepository, never()).saveLockedInventorySlice(any());
+    }
+
+    private static Warehouse slice(InventoryRecord... records) {
+        return Warehouse.builder()
+                .warehouseId("WH1")
+                .warehouseName("Main Warehouse")
+                .warehouseCode("MW1")
+                .capacity(1000)
+                .active(true)
+                .inventoryRecords(new ArrayList<>(List.of(records)))
+                .inventorySlice(true)
+                .build();
+    }
+
+    private static Product product(String productId) {
+        return Product.reconstitute(productId, "default-tenant", null, productId, null, List.of(), true);
+    }
+
+    private static InventoryRecord record(String sku, int quantity) {
+        return InventoryRecord.builder()
+                .inventoryId("INV-" + sku)
+                .warehouseId("WH1")
+                .productId("P-" + sku)
+                .sku(sku)
+                .quantity(quantity)
+                .inventoryStatus(InventoryStatus.NORMAL)
+                .build();
+    }
+}
@@ -0,0 +1,164 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import site.hexaarch.ecommerce.logistics.domain.product.aggregate.Product;
+import site.hexaarch.ecommerce.logistics.domain.product.entity.SKU;
+import site.hexaarch.ecommerce.logistics.domain.product.event.ProductUpdatedEvent;
+import site.hexaarch.ecommerce.logistics.domain.product.valueobject.ProductPrice;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+/**
+ * SKU查询缓存单元测试，覆盖租户隔离、容量淘汰、深拷贝、失效（包括事务回滚后的失效）和统计。
+ */
+class SkuLookupCacheTest {
+
+    @Test
+    void cachesPerTenantAndCountsHitsAndMisses() {
+        SkuLookupCache cache = new SkuLookupCache(10, 300);
+        AtomicInteger loads = new AtomicInteger();
+
+        Product first = cache.get("T1", "SKU-1", () -> load(loads, "P-1")).orElseThrow();
+        Product second = cache.get("T1", "SKU-1", () -> load(loads, "P-1")).orElseThrow();
+        cache.get("T2", "SKU-1", () -> load(loads, "P-1"));
+
+        assertEquals(2, loads.get());
+        assertNotSame(first, second);
+        SkuCacheStats stats = cache.getStats();
+        assertEquals(1, stats.getHits());
+        assertEquals(2, stats.getMisses());
+        assertEquals(2, stats.getSize());
+    }
+
+    @Test
+    void doesNotCacheMissingProducts() {
+        SkuLookupCache cache = new SkuLookupCache(10, 300);
+
+        assertFalse(cache.get("T1", "SKU-X", Optional::empty).isPresent());
+
+        assertEquals(0, cache.getStats().getSize());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedBeyondMaxSize() {
+        SkuLookupCache cache = new SkuLookupCache(2, 300);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("T1", "SKU-1", () -> load(loads, "P-1"));
+        cache.get("T1", "SKU-2", () -> load(loads, "P-2"));
+        cache.get("T1", "SKU-1", () -> load(loads, "P-1"));
+        cache.get("T1", "SKU-3", () -> load(loads, "P-3"));
+        cache.get("T1", "SKU-1", () -> load(loads, "P-1"));
+        cache.get("T1", "SKU-2", () -> load(loads, "P-2"));
+
+        assertEquals(4, loads.get());
+        assertEquals(2, cache.getStats().getEvictions());
+    }
+
+    @Test
+    void invalidatesAllEntriesOfUpdatedProduct() {
+        SkuLookupCache cache = new SkuLookupCache(10, 300);
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("T1", "SKU-1", () -> load(loads, "P-1"));
+        cache.get("T1", "SKU-2", () -> load(loads, "P-1"));
+
+        cache.onProductUpdated(ProductUpdatedEvent.builder().productId("P-1").build());
+        cache.get("T1", "SKU-1", () -> load(loads, "P-1"));
+
+        assertEquals(3, loads.get());
+        assertEquals(1, cache.getStats().getSize());
+    }
+
+    @Test
+    void returnsDeepCopiesOfSkus() {
+        SkuLookupCache cache = new SkuLookupCache(10, 300);
+        Product loaded = Product.reconstitute("P-1", null, null, "Product P-1", null,
+                new ArrayList<>(List.of(SKU.builder().id("S-1").skuCode("SKU-1").productId("P-1").price(price("10")).build())), true);
+
+        Product first = cache.get("T1", "SKU-1", () -> Optional.of(loaded)).orElseThrow();
+        // 修改加载时的对象和返回的副本都不影响缓存
+        loaded.getSkus().get(0).updatePrice(price("20"));
+        first.getSkus().get(0).updatePrice(price("30"));
+        Product second = cache.get("T1", "SKU-1", Optional::empty).orElseThrow();
+
+        assertNotSame(first.getSkus().get(0), second.getSkus().get(0));
+        assertEquals(new BigDecimal("10"), second.getSkus().get(0).getPrice().getSellingPrice());
+    }
+
+    @Test
+    void invalidatesOnlyEntriesOfTheProductAcrossSegments() {
+        SkuLookupCache cache = new SkuLookupCache(10000, 300);
+        AtomicInteger loads = new AtomicInteger();
+        for (int i = 0; i < 1000; i++) {
+            String productId = "P-" + (i % 10);
+            cache.get("T1", "SKU-" + i, () -> load(loads, productId));
+        }
+
+        cache.invalidateProduct("P-3");
+        for (int i = 0; i < 1000; i++) {
+            String productId = "P-" + (i % 10);
+            cache.get("T1", "SKU-" + i, () -> load(loads, productId));
+        }
+
+        assertEquals(1100, loads.get());
+        assertEquals(1000, cache.getStats().getSize());
+        assertEquals(900, cache.getStats().getHits());
+    }
+
+    @Test
+    void invalidatesAgainWhenPublishingTransactionRollsBack() {
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+            context.register(TransactionalListenerConfig.class);
+            context.registerBean(SkuLookupCache.class, () -> new SkuLookupCache(10, 300));
+            context.refresh();
+            SkuLookupCache cache = context.getBean(SkuLookupCache.class);
+            AtomicInteger loads = new AtomicInteger();
+            cache.get("T1", "SKU-1", () -> load(loads, "P-1"));
+
+            TransactionSynchronizationManager.initSynchronization();
+            TransactionSynchronizationManager.setActualTransactionActive(true);
+            try {
+                context.publishEvent(ProductUpdatedEvent.builder().productId("P-1").build());
+                // 事务结束前不失效
+                cache.get("T1", "SKU-1", () -> load(loads, "P-1"));
+                assertEquals(1, loads.get());
+                TransactionSynchronizationUtils.invokeAfterCompletion(
+                        TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_ROLLED_BACK);
+            } finally {
+                TransactionSynchronizationManager.setActualTransactionActive(false);
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+
+            cache.get("T1", "SKU-1", () -> load(loads, "P-1"));
+            assertEquals(2, loads.get());
+        }
+    }
+
+    private static ProductPrice price(String sellingPrice) {
+        return ProductPrice.builder().sellingPrice(new BigDecimal(sellingPrice)).currency("USD").build();
+    }
+
+    private static Optional<Product> load(AtomicInteger loads, String productId) {
+        loads.incrementAndGet();
+        return Optional.of(Product.reconstitute(productId, null, null, "Product " + productId, null, new ArrayList<>(), true));
+    }
+
+    @Configuration
+    @EnableTransactionManagement
+    static class TransactionalListenerConfig {
+    }
+}
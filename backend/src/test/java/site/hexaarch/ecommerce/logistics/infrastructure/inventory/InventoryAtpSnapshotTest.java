@@ -0,0 +1,195 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.inventory;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionOperations;
+import site.hexaarch.ecommerce.logistics.domain.purchase.event.PurchaseOrderStatusChangedEvent;
+import site.hexaarch.ecommerce.logistics.domain.purchase.valueobject.PurchaseStatus;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.event.InventoryCountEvent;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.event.InventoryMovementEvent;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.valueobject.AtpQuantity;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.valueobject.InventoryMovement;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.InventoryRecordJpaRepository;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.purchase.PurchaseOrderJpaRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 可承诺量快照单元测试，覆盖重建、事件增量更新、预留推送和在途数量汇总。
+ */
+class InventoryAtpSnapshotTest {
+
+    @Mock
+    private InventoryRecordJpaRepository inventoryRecordJpaRepository;
+    @Mock
+    private PurchaseOrderJpaRepository purchaseOrderJpaRepository;
+    @Mock
+    private InventoryReservationEngine inventoryReservationEngine;
+
+    private InventoryAtpSnapshot snapshot;
+    private InventoryReservationEngine.CommittedQuantityListener committedQuantityListener;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(inventoryRecordJpaRepository.streamInventoryLevels()).thenAnswer(invocation -> Stream.of(
+                level("WH1", "SKU-1", "P-1", 100, 10, 5),
+                level("WH2", "SKU-1", "P-1", 20, 0, 0),
+                level("WH1", "SKU-2", "P-2", 3, 3, 0)));
+        when(purchaseOrderJpaRepository.sumQuantitiesByStatusIn(anyCollection()))
+                .thenReturn(List.of(skuQuantity("WH2", "SKU-1", 50)));
+        snapshot = new InventoryAtpSnapshot(inventoryRecordJpaRepository, purchaseOrderJpaRepository,
+                inventoryReservationEngine, TransactionOperations.withoutTransaction());
+        ArgumentCaptor<InventoryReservationEngine.CommittedQuantityListener> captor =
+                ArgumentCaptor.forClass(InventoryReservationEngine.CommittedQuantityListener.class);
+        verify(inventoryReservationEngine).addCommittedQuantityListener(captor.capture());
+        committedQuantityListener = captor.getValue();
+        snapshot.rebuild();
+    }
+
+    @Test
+    void answersFromSnapshotBuiltAtRebuild() {
+        assertEquals(85, snapshot.getAvailableToPromise("WH1", "SKU-1"));
+        assertEquals(70, snapshot.getAvailableToPromise("WH2", "SKU-1"));
+        assertEquals(155, snapshot.getAvailableToPromise("SKU-1"));
+        assertEquals(0, snapshot.getAvailableToPromise("SKU-2"));
+        assertEquals(0, snapshot.getAvailableToPromise("WH9", "SKU-1"));
+        assertEquals(Map.of("SKU-1", 155, "SKU-2", 0, "SKU-X", 0),
+                snapshot.getAvailableToPromise(List.of("SKU-1", "SKU-2", "SKU-X")));
+        assertEquals(List.of(AtpQuantity.of("WH1", "SKU-1", 100, 15, 0), AtpQuantity.of("WH2", "SKU-1", 20, 0, 50)),
+                snapshot.findAtpQuantities("SKU-1"));
+    }
+
+    @Test
+    void appliesMovementsCountsAndReservations() {
+        snapshot.onInventoryMovement(movement("WH1", "SKU-1", "P-1", 60));
+        assertEquals(45, snapshot.getAvailableToPromise("WH1", "SKU-1"));
+
+        snapshot.onInventoryCount(InventoryCountEvent.builder()
+                .warehouseId("WH1")
+                .countResult(InventoryCountEvent.CountResult.builder().productId("P-1").actualQuantity(90).build())
+                .countedAt(LocalDateTime.now())
+                .build());
+        assertEquals(75, snapshot.getAvailableToPromise("WH1", "SKU-1"));
+
+        committedQuantityListener.onCommittedQuantityChanged("WH1", "SKU-1", 30, 10);
+        assertEquals(50, snapshot.getAvailableToPromise("WH1", "SKU-1"));
+
+        snapshot.onInventoryMovement(movement("WH3", "SKU-3", "P-3", 7));
+        assertEquals(7, snapshot.getAvailableToPromise("SKU-3"));
+    }
+
+    @Test
+    void recalculatesInboundWhenPurchaseOrderEntersOrLeavesTransit() {
+        when(purchaseOrderJpaRepository.sumQuantitiesByPurchaseOrderId("PO-1"))
+                .thenReturn(List.of(skuQuantity("WH1", "SKU-2", 40)));
+        when(purchaseOrderJpaRepository.sumQuantitiesByStatusIn(anyCollection(), eq("WH1"), any()))
+                .thenReturn(List.of(skuQuantity("WH1", "SKU-2", 40)));
+
+        snapshot.onPurchaseOrderStatusChanged(new PurchaseOrderStatusChangedEvent("PO-1",
+                PurchaseStatus.PENDING, PurchaseStatus.APPROVED, LocalDateTime.now()));
+        assertEquals(40, snapshot.getAvailableToPromise("WH1", "SKU-2"));
+
+        when(purchaseOrderJpaRepository.sumQuantitiesByStatusIn(anyCollection(), eq("WH1"), any())).thenReturn(List.of());
+        snapshot.onPurchaseOrderStatusChanged(new PurchaseOrderStatusChangedEvent("PO-1",
+                PurchaseStatus.IN_TRANSIT, PurchaseStatus.DELIVERED, LocalDateTime.now()));
+        assertEquals(0, snapshot.getAvailableToPromise("WH1", "SKU-2"));
+    }
+
+    @Test
+    void replaysUpdatesThatArriveDuringRebuild() {
+        when(inventoryRecordJpaRepository.streamInventoryLevels()).thenAnswer(invocation -> {
+            // 重建读取期间到达的变动
+            snapshot.onInventoryMovement(movement("WH1", "SKU-1", "P-1", 1));
+            return Stream.of(level("WH1", "SKU-1", "P-1", 100, 0, 0));
+        });
+
+        snapshot.rebuild();
+
+        assertEquals(1, snapshot.getAvailableToPromise("WH1", "SKU-1"));
+    }
+
+    private static InventoryRecordJpaRepository.InventoryLevel level(String warehouseId, String skuCode, String productId,
+                                                                     int quantity, int reserved, int allocated) {
+        // 投影使用普通实现而不是mock，可以在外层when(...)的参数里直接构造
+        return new InventoryRecordJpaRepository.InventoryLevel() {
+            @Override
+            public String getWarehouseId() {
+                return warehouseId;
+            }
+
+            @Override
+            public String getSkuCode() {
+                return skuCode;
+            }
+
+            @Override
+            public String getProductId() {
+                return productId;
+            }
+
+            @Override
+            public Integer getQuantity() {
+                return quantity;
+            }
+
+            @Override
+            public int getReservedQuantity() {
+                return reserved;
+            }
+
+            @Override
+            public int getAllocatedQuantity() {
+                return allocated;
+            }
+        };
+    }
+
+    private static PurchaseOrderJpaRepository.SkuQuantity skuQuantity(String warehouseId, String skuCode, long quantity) {
+        return new PurchaseOrderJpaRepository.SkuQuantity() {
+            @Override
+            public String getWarehouseId() {
+                return warehouseId;
+            }
+
+            @Override
+            public String getSkuCode() {
+                return skuCode;
+            }
+
+            @Override
+            public Long getQuantity() {
+                return quantity;
+            }
+        };
+    }
+
+    private static InventoryMovementEvent movement(String warehouseId, String sku, String productId, int newQuantity) {
+        return InventoryMovementEvent.builder()
+                .warehouseId(warehouseId)
+                .inventoryMovement(InventoryMovement.builder()
+                        .warehouseId(warehouseId)
+                        .productId(productId)
+                        .sku(sku)
+                        .quantity(1)
+                        .movementType(InventoryMovement.MovementType.OUTBOUND)
+                        .movedAt(LocalDateTime.now())
+                        .build())
+                .newQuantity(newQuantity)
+                .occurredAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,345 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.inventory;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.event.InventoryMovementEvent;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.event.InventoryCountEvent;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.valueobject.InventoryMovement;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.valueobject.StockReservation;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.InventoryRecordJpaEntity;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.InventoryStatusJpaEntity;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.StockReservationJpaEntity;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.InventoryRecordJpaRepository;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.StockReservationJpaRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 库存预留引擎单元测试，包含热点SKU并发预留的压力测试，预留明细落库和重启恢复，以及调用方事务提交和回滚。
+ */
+class InventoryReservationEngineTest {
+    private static final String WAREHOUSE_ID = "WH001";
+    private static final String HOT_SKU = "SKU-HOT";
+    private static final String COLD_SKU = "SKU-COLD";
+
+    private InventoryRecordJpaRepository inventoryRecordJpaRepository;
+    private StockReservationJpaRepository stockReservationJpaRepository;
+    private InventoryRecordJpaEntity hotRecord;
+    private InventoryReservationEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        inventoryRecordJpaRepository = mock(InventoryRecordJpaRepository.class);
+        stockReservationJpaRepository = mock(StockReservationJpaRepository.class);
+        hotRecord = record("INV-HOT", HOT_SKU, 1000);
+        InventoryRecordJpaEntity coldRecord = record("INV-COLD", COLD_SKU, 1);
+
+        when(inventoryRecordJpaRepository.findBySkuCodeAndWarehouseId(HOT_SKU, WAREHOUSE_ID)).thenReturn(Optional.of(hotRecord));
+        when(inventoryRecordJpaRepository.findBySkuCodeAndWarehouseId(COLD_SKU, WAREHOUSE_ID)).thenReturn(Optional.of(coldRecord));
+        Map<String, InventoryRecordJpaEntity> records = Map.of(hotRecord.getId(), hotRecord, coldRecord.getId(), coldRecord);
+        when(inventoryRecordJpaRepository.updateCommittedQuantities(anyString(), anyInt(), anyInt())).thenAnswer(invocation -> {
+            InventoryRecordJpaEntity entity = records.get(invocation.<String>getArgument(0));
+            entity.setReservedQuantity(invocation.getArgument(1));
+            entity.setAllocatedQuantity(invocation.getArgument(2));
+            return 1;
+        });
+        when(inventoryRecordJpaRepository.findQuantitiesByIdIn(any())).thenAnswer(invocation ->
+                invocation.<Collection<String>>getArgument(0).stream()
+                        .map(records::get)
+                        .map(entity -> quantity(entity.getId(), entity.getQuantity()))
+                        .toList());
+
+        engine = newEngine();
+    }
+
+    private InventoryReservationEngine newEngine() {
+        return new InventoryReservationEngine(inventoryRecordJpaRepository, stockReservationJpaRepository,
+                TransactionOperations.withoutTransaction(), 50);
+    }
+
+    private InventoryRecordJpaEntity record(String id, String skuCode, int quantity) {
+        InventoryRecordJpaEntity entity = new InventoryRecordJpaEntity();
+        entity.setId(id);
+        entity.setSkuCode(skuCode);
+        entity.setQuantity(quantity);
+        entity.setStatus(InventoryStatusJpaEntity.NORMAL);
+        return entity;
+    }
+
+    private static InventoryRecordJpaRepository.RecordQuantity quantity(String id, Integer quantity) {
+        return new InventoryRecordJpaRepository.RecordQuantity() {
+            @Override
+            public String getId() {
+                return id;
+            }
+
+            @Override
+            public Integer getQuantity() {
+                return quantity;
+            }
+        };
+    }
+
+    private List<StockReservation> line(String orderId, String skuCode, int quantity) {
+        return List.of(StockReservation.of(orderId, WAREHOUSE_ID, skuCode, quantity));
+    }
+
+    @Test
+    void testParallelReservationsOnHotSkuNeverOversell() throws Exception {
+        int attempts = 5000;
+        ExecutorService pool = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger succeeded = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < attempts; i++) {
+            String orderId = "ORDER-" + i;
+            futures.add(pool.submit(() -> {
+                start.await();
+                if (engine.reserve(orderId, line(orderId, HOT_SKU, 1))) {
+                    succeeded.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertEquals(1000, succeeded.get());
+        assertEquals(0, engine.getAvailableQuantity(WAREHOUSE_ID, HOT_SKU));
+
+        engine.flush();
+        assertEquals(1000, hotRecord.getReservedQuantity());
+    }
+
+    @Test
+    void testMultiLineReservationIsAllOrNothing() {
+        List<StockReservation> lines = List.of(
+                StockReservation.of("ORDER-1", WAREHOUSE_ID, HOT_SKU, 5),
+                StockReservation.of("ORDER-1", WAREHOUSE_ID, COLD_SKU, 2));
+
+        assertFalse(engine.reserve("ORDER-1", lines));
+        assertEquals(1000, engine.getAvailableQuantity(WAREHOUSE_ID, HOT_SKU));
+        assertTrue(engine.findReservations("ORDER-1").isEmpty());
+    }
+
+    @Test
+    void testReserveIsIdempotentAndReleaseRestoresAvailability() {
+        assertTrue(engine.reserve("ORDER-1", line("ORDER-1", HOT_SKU, 10)));
+        assertTrue(engine.reserve("ORDER-1", line("ORDER-1", HOT_SKU, 10)));
+        assertEquals(990, engine.getAvailableQuantity(WAREHOUSE_ID, HOT_SKU));
+
+        engine.allocate("ORDER-1");
+        assertEquals(990, engine.getAvailableQuantity(WAREHOUSE_ID, HOT_SKU));
+        engine.flush();
+        assertEquals(0, hotRecord.getReservedQuantity());
+        assertEquals(10, hotRecord.getAllocatedQuantity());
+
+        engine.release("ORDER-1");
+        assertEquals(1000, engine.getAvailableQuantity(WAREHOUSE_ID, HOT_SKU));
+    }
+
+    @Test
+    void testReservationSurvivesRestartAndCanBeReleased() {
+        assertTrue(engine.reserve("ORDER-1", line("ORDER-1", HOT_SKU, 10)));
+        engine.flush();
+        assertEquals(10, hotRecord.getReservedQuantity());
+        verify(stockReservationJpaRepository).saveAll(any());
+
+        // 新引擎从库存预留表恢复订单的预留明细，从库存记录表加载计数器
+        StockReservationJpaEntity persisted = new StockReservationJpaEntity();
+        persisted.setOrderId("ORDER-1");
+        persisted.setWarehouseId(WAREHOUSE_ID);
+        persisted.setSkuCode(HOT_SKU);
+        persisted.setQuantity(10);
+        when(stockReservationJpaRepository.findByOrderId("ORDER-1")).thenReturn(List.of(persisted));
+        InventoryReservationEngine restarted = newEngine();
+
+        assertEquals(1, restarted.findReservations("ORDER-1").size());
+        restarted.release("ORDER-1");
+        verify(stockReservationJpaRepository).deleteByOrderId("ORDER-1");
+        assertEquals(1000, restarted.getAvailableQuantity(WAREHOUSE_ID, HOT_SKU));
+        restarted.flush();
+        assertEquals(0, hotRecord.getReservedQuantity());
+    }
+
+    @Test
+    void testFailedPersistUndoesReservation() {
+        when(stockReservationJpaRepository.saveAll(any())).thenThrow(new IllegalStateException("db down"));
+
+        assertThrows(IllegalStateException.class, () -> engine.reserve("ORDER-1", line("ORDER-1", HOT_SKU, 10)));
+
+        assertEquals(1000, engine.getAvailableQuantity(WAREHOUSE_ID, HOT_SKU));
+        assertTrue(engine.findReservations("ORDER-1").isEmpty());
+    }
+
+    @Test
+    void testInventoryCountUpdatesOnHand() {
+        assertTrue(engine.reserve("ORDER-1", line("ORDER-1", HOT_SKU, 10)));
+
+        engine.onInventoryCount(InventoryCountEvent.builder()
+                .warehouseId(WAREHOUSE_ID)
+                .countResult(InventoryCountEvent.CountResult.builder()
+                        .productId("P-HOT")
+                        .sku(HOT_SKU)
+                        .expectedQuantity(1000)
+                        .actualQuantity(400)
+                        .build())
+                .build());
+
+        assertEquals(390, engine.getAvailableQuantity(WAREHOUSE_ID, HOT_SKU));
+    }
+
+    @Test
+    void testConcurrentReserveAndReleaseOfSameOrderKeepCountersConsistent() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            boolean reserve = i % 2 == 0;
+            futures.add(pool.submit(() -> {
+                start.await();
+                if (reserve) {
+                    engine.reserve("ORDER-1", line("ORDER-1", HOT_SKU, 7));
+                } else {
+                    engine.release("ORDER-1");
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        int expected = engine.findReservations("ORDER-1").isEmpty() ? 1000 : 993;
+        assertEquals(expected, engine.getAvailableQuantity(WAREHOUSE_ID, HOT_SKU));
+    }
+
+    @Test
+    void testRolledBackCallerTransactionUndoesReservation() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertTrue(engine.reserve("ORDER-1", line("ORDER-1", HOT_SKU, 10)));
+            assertEquals(990, engine.getAvailableQuantity(WAREHOUSE_ID, HOT_SKU));
+
+            completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(1000, engine.getAvailableQuantity(WAREHOUSE_ID, HOT_SKU));
+        assertTrue(engine.findReservations("ORDER-1").isEmpty());
+    }
+
+    @Test
+    void testReleaseAndAllocateTakeEffectOnlyAfterCallerCommits() {
+        assertTrue(engine.reserve("ORDER-1", line("ORDER-1", HOT_SKU, 10)));
+        assertTrue(engine.reserve("ORDER-2", line("ORDER-2", HOT_SKU, 5)));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            engine.release("ORDER-1");
+            engine.allocate("ORDER-2");
+            // 提交前内存中的预留保持不变
+            assertEquals(985, engine.getAvailableQuantity(WAREHOUSE_ID, HOT_SKU));
+            completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(985, engine.getAvailableQuantity(WAREHOUSE_ID, HOT_SKU));
+        assertEquals(1, engine.findReservations("ORDER-1").size());
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            engine.release("ORDER-1");
+            engine.allocate("ORDER-2");
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(995, engine.getAvailableQuantity(WAREHOUSE_ID, HOT_SKU));
+        assertTrue(engine.findReservations("ORDER-1").isEmpty());
+        engine.flush();
+        assertEquals(0, hotRecord.getReservedQuantity());
+        assertEquals(5, hotRecord.getAllocatedQuantity());
+    }
+
+    @Test
+    void testFlushWritesOnlyCommittedQuantitiesAndKeepsNewerOnHand() {
+        assertTrue(engine.reserve("ORDER-1", line("ORDER-1", HOT_SKU, 10)));
+        // 写回读取在库数量期间提交了一次出库，读到的旧值不能覆盖事件同步的新值
+        doAnswer(invocation -> {
+            engine.onInventoryMovement(movement(HOT_SKU, 300));
+            return List.of(quantity("INV-HOT", 1000));
+        }).when(inventoryRecordJpaRepository).findQuantitiesByIdIn(any());
+
+        engine.flush();
+
+        verify(inventoryRecordJpaRepository).updateCommittedQuantities("INV-HOT", 10, 0);
+        verify(inventoryRecordJpaRepository, never()).saveAll(any());
+        assertEquals(1000, hotRecord.getQuantity());
+        assertEquals(290, engine.getAvailableQuantity(WAREHOUSE_ID, HOT_SKU));
+    }
+
+    @Test
+    void testWrittenQuantityListenerIsNotifiedAfterFlush() {
+        List<String> written = new ArrayList<>();
+        engine.addWrittenQuantityListener((warehouseId, skuCode, reserved, allocated) ->
+                written.add(warehouseId + "/" + skuCode + "/" + reserved + "/" + allocated));
+        assertTrue(engine.reserve("ORDER-1", line("ORDER-1", HOT_SKU, 10)));
+        assertTrue(written.isEmpty());
+
+        engine.flush();
+
+        assertEquals(List.of(WAREHOUSE_ID + "/" + HOT_SKU + "/10/0"), written);
+    }
+
+    private static void completeTransaction(int status) {
+        TransactionSynchronizationManager.getSynchronizations().forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+
+    private static InventoryMovementEvent movement(String skuCode, int newQuantity) {
+        return InventoryMovementEvent.builder()
+                .warehouseId(WAREHOUSE_ID)
+                .inventoryMovement(InventoryMovement.builder()
+                        .warehouseId(WAREHOUSE_ID)
+                        .productId("P-" + skuCode)
+                        .sku(skuCode)
+                        .quantity(newQuantity)
+                        .movementType(InventoryMovement.MovementType.OUTBOUND)
+                        .build())
+                .newQuantity(newQuantity)
+                .build();
+    }
+}
@@ -0,0 +1,42 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.messaging;
+
+import org.junit.jupiter.api.Test;
+import site.hexaarch.ecommerce.logistics.domain.customer.event.CustomerCreatedEvent;
+import site.hexaarch.ecommerce.logistics.domain.logistics.event.LogisticsOrderCreatedEvent;
+import site.hexaarch.ecommerce.logistics.domain.order.event.OrderCreatedEvent;
+import site.hexaarch.ecommerce.logistics.domain.purchase.event.PurchaseOrderCreatedEvent;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.event.InventoryMovementEvent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * 领域事件路由解析器单元测试。
+ */
+class EventRouteResolverTest {
+    private final EventRouteResolver resolver = new EventRouteResolver();
+
+    @Test
+    void routesEventsByBoundedContextPackage() {
+        assertEquals("order-events", resolver.routeFor(OrderCreatedEvent.class).getTopic());
+        assertEquals("logistics-events", resolver.routeFor(LogisticsOrderCreatedEvent.class).getTopic());
+        assertEquals("inventory-events", resolver.routeFor(InventoryMovementEvent.class).getTopic());
+        assertEquals("purchase-events", resolver.routeFor(PurchaseOrderCreatedEvent.class).getTopic());
+    }
+
+    @Test
+    void usesSimpleClassNameAsTag() {
+        EventRoute route = resolver.routeFor(OrderCreatedEvent.class);
+
+        assertEquals("OrderCreatedEvent", route.getTag());
+        assertEquals(OrderCreatedEvent.class.getName(), route.getEventType());
+        assertSame(route, resolver.routeFor(OrderCreatedEvent.class));
+    }
+
+    @Test
+    void leavesEventsOutsideRoutedContextsUnrouted() {
+        assertFalse(resolver.routeFor(CustomerCreatedEvent.class).isRouted());
+        assertFalse(resolver.routeFor(String.class).isRouted());
+    }
+}
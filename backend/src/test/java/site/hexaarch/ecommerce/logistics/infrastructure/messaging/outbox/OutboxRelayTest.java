@@ -0,0 +1,253 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.messaging.outbox;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.outbox.OutboxEventJpaEntity;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.outbox.OutboxEventStatusJpaEntity;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.outbox.OutboxEventJpaRepository;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 发件箱中继单元测试，使用内存消息发送器模拟中间件故障。
+ */
+class OutboxRelayTest {
+    private static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+
+    private final List<OutboxEventJpaEntity> table = new ArrayList<>();
+    private InMemoryOutboxMessageSender sender;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        sender = new InMemoryOutboxMessageSender();
+        relay = new OutboxRelay(repositoryFor(table), sender, TransactionOperations.withoutTransaction(),
+                100, 1000, 30000, 1000, 60000, 7, 3, "node-1", Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void brokerOutageKeepsEventsPendingWithBackoff() {
+        OutboxEventJpaEntity event = event(1L, "ORDER-1");
+        sender.setAvailable(false);
+
+        relay.relay();
+
+        assertEquals(OutboxEventStatusJpaEntity.PENDING, event.getStatus());
+        assertEquals(1, event.getAttempts());
+        assertEquals(LocalDateTime.ofInstant(NOW, ZoneOffset.UTC).plusSeconds(1), event.getNextAttemptAt());
+        assertNotNull(event.getLastError());
+
+        // 退避期内不再投递
+        sender.setAvailable(true);
+        relay.relay();
+        assertEquals(OutboxEventStatusJpaEntity.PENDING, event.getStatus());
+        assertTrue(sender.getMessages("order-events").isEmpty());
+
+        // 退避期结束后投递成功
+        event.setNextAttemptAt(LocalDateTime.ofInstant(NOW, ZoneOffset.UTC).minusSeconds(1));
+        relay.relay();
+        assertEquals(OutboxEventStatusJpaEntity.SENT, event.getStatus());
+        assertNull(event.getNextAttemptAt());
+        assertEquals(1, sender.getMessages("order-events").size());
+    }
+
+    @Test
+    void failedEventBlocksLaterEventsOfSameAggregateOnly() {
+        OutboxEventJpaEntity first = event(1L, "ORDER-1");
+        OutboxEventJpaEntity second = event(2L, "ORDER-1");
+        OutboxEventJpaEntity third = event(3L, "ORDER-1");
+        OutboxEventJpaEntity other = event(4L, "ORDER-2");
+        sender.failWhen(message -> message.getEventId().equals("evt-2"));
+
+        relay.relay();
+
+        assertEquals(OutboxEventStatusJpaEntity.SENT, first.getStatus());
+        assertEquals(OutboxEventStatusJpaEntity.PENDING, second.getStatus());
+        assertEquals(1, second.getAttempts());
+        assertEquals(OutboxEventStatusJpaEntity.PENDING, third.getStatus());
+        assertEquals(0, third.getAttempts());
+        assertEquals(OutboxEventStatusJpaEntity.SENT, other.getStatus());
+
+        sender.failWhen(message -> false);
+        second.setNextAttemptAt(null);
+        relay.relay();
+
+        List<String> delivered = sender.getMessages("order-events").stream()
+                .filter(message -> message.getAggregateId().equals("ORDER-1"))
+                .map(OutboxMessage::getEventId)
+                .toList();
+        assertEquals(List.of("evt-1", "evt-2", "evt-3"), delivered);
+    }
+
+    @Test
+    void backoffGrowsExponentiallyAndIsCapped() {
+        OutboxEventJpaEntity event = event(1L, "ORDER-1");
+        sender.setAvailable(false);
+        LocalDateTime now = LocalDateTime.ofInstant(NOW, ZoneOffset.UTC);
+
+        relay = new OutboxRelay(repositoryFor(table), sender, TransactionOperations.withoutTransaction(),
+                100, 1000, 30000, 1000, 60000, 7, 20, "node-1", Clock.fixed(NOW, ZoneOffset.UTC));
+        for (int attempt = 1; attempt <= 8; attempt++) {
+            event.setNextAttemptAt(null);
+            relay.relayBatch();
+            long expectedMs = Math.min(60000, 1000L << (attempt - 1));
+            assertEquals(now.plusNanos(expectedMs * 1_000_000), event.getNextAttemptAt());
+        }
+        assertEquals(8, event.getAttempts());
+    }
+
+    @Test
+    void eventIsDeadLetteredAfterMaxAttemptsAndStopsBlockingItsAggregate() {
+        OutboxEventJpaEntity poisoned = event(1L, "ORDER-1");
+        OutboxEventJpaEntity next = event(2L, "ORDER-1");
+        sender.failWhen(message -> message.getEventId().equals("evt-1"));
+
+        for (int attempt = 1; attempt <= 3; attempt++) {
+            poisoned.setNextAttemptAt(null);
+            relay.relayBatch();
+        }
+
+        assertEquals(OutboxEventStatusJpaEntity.FAILED, poisoned.getStatus());
+        assertEquals(3, poisoned.getAttempts());
+        assertNull(poisoned.getNextAttemptAt());
+        assertNotNull(poisoned.getLastError());
+
+        relay.relay();
+        assertEquals(OutboxEventStatusJpaEntity.SENT, next.getStatus());
+        assertEquals(List.of("evt-2"), sender.getMessages("order-events").stream().map(OutboxMessage::getEventId).toList());
+    }
+
+    @Test
+    void sendsAfterTheClaimIsCommitted() {
+        OutboxEventJpaEntity event = event(1L, "ORDER-1");
+        AtomicBoolean inTransaction = new AtomicBoolean();
+        List<Boolean> sentInTransaction = new ArrayList<>();
+        List<String> leaseOwnersWhileSending = new ArrayList<>();
+        relay = new OutboxRelay(repositoryFor(table), sender, trackingTransactions(inTransaction),
+                100, 1000, 30000, 1000, 60000, 7, 3, "node-1", Clock.fixed(NOW, ZoneOffset.UTC));
+        sender.failWhen(message -> {
+            sentInTransaction.add(inTransaction.get());
+            leaseOwnersWhileSending.add(event.getLeaseOwner());
+            return false;
+        });
+
+        relay.relayBatch();
+
+        assertEquals(List.of(false), sentInTransaction);
+        assertEquals(List.of("node-1"), leaseOwnersWhileSending);
+        assertEquals(OutboxEventStatusJpaEntity.SENT, event.getStatus());
+        assertNull(event.getLeaseOwner());
+        assertNull(event.getLeaseUntil());
+    }
+
+    @Test
+    void sendsOnlyOneEventPerAggregateAtATime() {
+        event(1L, "ORDER-1");
+        event(2L, "ORDER-1");
+        event(3L, "ORDER-2");
+
+        OutboxRelay.RelayResult first = relay.relayBatch();
+
+        assertEquals(2, first.fetched());
+        assertEquals(List.of("evt-1", "evt-3"), sender.getMessages("order-events").stream()
+                .map(OutboxMessage::getEventId).toList());
+
+        relay.relayBatch();
+        assertEquals(List.of("evt-1", "evt-3", "evt-2"), sender.getMessages("order-events").stream()
+                .map(OutboxMessage::getEventId).toList());
+    }
+
+    @Test
+    void doesNotOverwriteEventReclaimedByAnotherNode() {
+        OutboxEventJpaEntity event = event(1L, "ORDER-1");
+        // 投递期间租约过期，事件被其他节点重新认领
+        sender.failWhen(message -> {
+            event.setLeaseOwner("node-2");
+            return true;
+        });
+
+        relay.relayBatch();
+
+        assertEquals(OutboxEventStatusJpaEntity.PENDING, event.getStatus());
+        assertEquals("node-2", event.getLeaseOwner());
+        assertEquals(0, event.getAttempts());
+    }
+
+    private static TransactionOperations trackingTransactions(AtomicBoolean inTransaction) {
+        return new TransactionOperations() {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) {
+                inTransaction.set(true);
+                try {
+                    return action.doInTransaction(new SimpleTransactionStatus());
+                } finally {
+                    inTransaction.set(false);
+                }
+            }
+        };
+    }
+
+    private static OutboxEventJpaRepository repositoryFor(List<OutboxEventJpaEntity> table) {
+        OutboxEventJpaRepository repository = mock(OutboxEventJpaRepository.class);
+        // 模拟认领查询：只取各聚合最早的待投递事件，且已到期、未被认领
+        when(repository.lockDueBatchByStatus(eq(OutboxEventStatusJpaEntity.PENDING), any(), any())).thenAnswer(invocation -> {
+            LocalDateTime now = invocation.getArgument(1);
+            Set<String> seenAggregates = new HashSet<>();
+            List<OutboxEventJpaEntity> batch = new ArrayList<>();
+            for (OutboxEventJpaEntity event : table) {
+                if (event.getStatus() != OutboxEventStatusJpaEntity.PENDING || !seenAggregates.add(event.getAggregateId())) {
+                    continue;
+                }
+                boolean due = event.getNextAttemptAt() == null || !event.getNextAttemptAt().isAfter(now);
+                boolean unclaimed = event.getLeaseUntil() == null || !event.getLeaseUntil().isAfter(now);
+                if (due && unclaimed) {
+                    batch.add(event);
+                }
+            }
+            return batch;
+        });
+        when(repository.findAllById(any())).thenAnswer(invocation -> {
+            Iterable<Long> ids = invocation.getArgument(0);
+            Set<Long> wanted = new HashSet<>();
+            ids.forEach(wanted::add);
+            return table.stream().filter(event -> wanted.contains(event.getId())).toList();
+        });
+        when(repository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        return repository;
+    }
+
+    private OutboxEventJpaEntity event(long id, String aggregateId) {
+        OutboxEventJpaEntity event = new OutboxEventJpaEntity();
+        event.setId(id);
+        event.setEventId("evt-" + id);
+        event.setAggregateType("Order");
+        event.setAggregateId(aggregateId);
+        event.setEventType("site.hexaarch.ecommerce.logistics.domain.order.event.OrderCreatedEvent");
+        event.setTopic("order-events");
+        event.setPayload("{}");
+        event.setStatus(OutboxEventStatusJpaEntity.PENDING);
+        event.setCreatedAt(LocalDateTime.ofInstant(NOW, ZoneOffset.UTC));
+        table.add(event);
+        return event;
+    }
+}
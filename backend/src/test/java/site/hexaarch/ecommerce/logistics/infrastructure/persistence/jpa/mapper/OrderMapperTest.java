@@ -0,0 +1,65 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.mapper;
+
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import site.hexaarch.ecommerce.logistics.domain.order.aggregate.Order;
+import site.hexaarch.ecommerce.logistics.domain.order.valueobject.OrderStatus;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.OrderItemJpaEntity;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.OrderJpaEntity;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.OrderStatusJpaEntity;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 订单映射器单元测试，验证通过重建API而非反射还原订单聚合根。
+ */
+class OrderMapperTest {
+    private final OrderMapper orderMapper = Mappers.getMapper(OrderMapper.class);
+
+    @Test
+    void reconstitutesOrderWithoutDefaultsOrEvents() {
+        OrderJpaEntity entity = new OrderJpaEntity();
+        entity.setId("ORD-1");
+        entity.setOrderNumber("NO-1");
+        entity.setCustomerId("CUST-1");
+        entity.setStatus(OrderStatusJpaEntity.SHIPPED);
+        entity.setCreatedAt(1_700_000_000_000L);
+        entity.setUpdatedAt(1_700_000_060_000L);
+        OrderItemJpaEntity item = new OrderItemJpaEntity();
+        item.setId("ITEM-1");
+        item.setSkuCode("SKU-1");
+        item.setQuantity(2);
+        item.setUnitPrice(10.0);
+        item.setTotalPrice(20.0);
+        entity.setOrderItems(List.of(item));
+
+        Order order = orderMapper.toDomainAggregate(entity);
+
+        assertEquals("ORD-1", order.getId());
+        assertEquals("NO-1", order.getOrderNumber());
+        assertEquals("CUST-1", order.getCustomerId());
+        assertEquals(OrderStatus.SHIPPED, order.getOrderStatus());
+        assertEquals(LocalDateTime.of(2023, 11, 14, 22, 13, 20), order.getCreatedAt());
+        assertEquals(LocalDateTime.of(2023, 11, 14, 22, 14, 20), order.getUpdatedAt());
+        assertEquals(1, order.getOrderItems().size());
+        assertEquals("SKU-1", order.getOrderItems().get(0).getSku());
+        assertTrue(order.getDomainEvents().isEmpty());
+    }
+
+    @Test
+    void keepsMissingColumnsNull() {
+        OrderJpaEntity entity = new OrderJpaEntity();
+        entity.setId("ORD-2");
+
+        Order order = orderMapper.toDomainAggregate(entity);
+
+        assertNull(order.getOrderStatus());
+        assertNull(order.getCreatedAt());
+        assertTrue(order.getOrderItems().isEmpty());
+    }
+}
@@ -0,0 +1,128 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.persistence.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.RowMapper;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.valueobject.InventoryLedgerEntry;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.valueobject.InventoryMovement;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 库存流水仓库单元测试，覆盖批量追加、快照加增量的数量查询和空快照任务。
+ */
+class InventoryLedgerRepositoryImplTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private InventoryLedgerRepositoryImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        repository = new InventoryLedgerRepositoryImpl(jdbcTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void appendsEntriesInOneBatch() throws Exception {
+        List<InventoryLedgerEntry> entries = List.of(entry(50, 45), entry(45, 60));
+
+        repository.appendAll(entries);
+
+        ArgumentCaptor<ParameterizedPreparedStatementSetter<InventoryLedgerEntry>> setter =
+                ArgumentCaptor.forClass(ParameterizedPreparedStatementSetter.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO inventory_movement_ledger"), eq(entries), eq(1000), setter.capture());
+        PreparedStatement statement = mock(PreparedStatement.class);
+        setter.getValue().setValues(statement, entries.get(0));
+        verify(statement).setString(4, "SKU-1");
+        verify(statement).setInt(7, -5);
+        verify(statement).setInt(8, 45);
+    }
+
+    @Test
+    void addsChangesAfterLatestSnapshot() throws Exception {
+        stubSnapshot("ORDER BY last_entry_id DESC", 100L, 40L);
+        when(jdbcTemplate.queryForObject(contains("id > ?"), eq(Long.class), eq("WH1"), eq("SKU-1"), eq(100L)))
+                .thenReturn(-3L);
+
+        assertEquals(Optional.of(37), repository.findQuantity("WH1", "SKU-1"));
+    }
+
+    @Test
+    void startsFromOpeningBalanceWhenNoSnapshotExists() {
+        when(jdbcTemplate.query(startsWith("SELECT last_entry_id"), any(RowMapper.class), anyString(), anyString()))
+                .thenReturn(List.of());
+        when(jdbcTemplate.query(startsWith("SELECT balance_after - quantity_change"), any(RowMapper.class), eq("WH1"), eq("SKU-1")))
+                .thenReturn(List.of(10));
+        when(jdbcTemplate.query(startsWith("SELECT balance_after - quantity_change"), any(RowMapper.class), eq("WH1"), eq("SKU-2")))
+                .thenReturn(List.of());
+        when(jdbcTemplate.queryForObject(contains("id > ?"), eq(Long.class), eq("WH1"), eq("SKU-1"), eq(0L)))
+                .thenReturn(5L);
+
+        assertEquals(Optional.of(15), repository.findQuantity("WH1", "SKU-1"));
+        assertEquals(Optional.empty(), repository.findQuantity("WH1", "SKU-2"));
+    }
+
+    @Test
+    void answersQuantityAsOfTimeFromSnapshotCoveringThatTime() throws Exception {
+        LocalDateTime asOf = LocalDateTime.of(2026, 10, 1, 12, 0);
+        stubSnapshot("covered_until <= ?", 80L, 25L);
+        when(jdbcTemplate.queryForObject(contains("moved_at <= ?"), eq(Long.class), eq("WH1"), eq("SKU-1"), eq(80L), any()))
+                .thenReturn(4L);
+
+        assertEquals(Optional.of(29), repository.findQuantityAsOf("WH1", "SKU-1", asOf));
+    }
+
+    @Test
+    void skipsSnapshotWhenNoEntriesAreNewEnough() {
+        when(jdbcTemplate.queryForObject(startsWith("SELECT COALESCE(MAX(last_entry_id)"), eq(Long.class))).thenReturn(120L);
+        when(jdbcTemplate.queryForObject(startsWith("SELECT MAX(id)"), eq(Long.class), eq(120L), any())).thenReturn(null);
+
+        assertEquals(0, repository.takeSnapshots(LocalDateTime.now()));
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubSnapshot(String sqlFragment, long lastEntryId, long quantity) throws Exception {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getLong("last_entry_id")).thenReturn(lastEntryId);
+        when(resultSet.getLong("quantity")).thenReturn(quantity);
+        when(jdbcTemplate.query(contains(sqlFragment), any(RowMapper.class), any(Object[].class)))
+                .thenAnswer(invocation -> List.of(((RowMapper<Object>) invocation.getArgument(1)).mapRow(resultSet, 0)));
+    }
+
+    private static InventoryLedgerEntry entry(int originalQuantity, int newQuantity) {
+        InventoryMovement movement = InventoryMovement.builder()
+                .warehouseId("WH1")
+                .productId("P-1")
+                .sku("SKU-1")
+                .quantity(Math.abs(newQuantity - originalQuantity))
+                .movementType(newQuantity < originalQuantity
+                        ? InventoryMovement.MovementType.OUTBOUND : InventoryMovement.MovementType.INBOUND)
+                .movedAt(LocalDateTime.now())
+                .build();
+        return InventoryLedgerEntry.of(movement, originalQuantity, newQuantity);
+    }
+}
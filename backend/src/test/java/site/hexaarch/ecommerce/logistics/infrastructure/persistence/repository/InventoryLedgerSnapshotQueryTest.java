@@ -0,0 +1,86 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.persistence.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.InventoryLedgerEntryJpaEntity;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 库存流水快照SQL测试（H2 MySQL模式），断言较晚提交的较小流水序号不会被其他SKU推进的快照序号跳过。
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ledger;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class InventoryLedgerSnapshotQueryTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private InventoryLedgerRepositoryImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new InventoryLedgerRepositoryImpl(jdbcTemplate);
+    }
+
+    @Test
+    void lateCommittedLowerIdIsCountedAfterSnapshotOfOtherSku() {
+        insert(10, "SKU-A", 5, 5);
+        insert(100, "SKU-B", 3, 3);
+        // 序号50的写事务在快照时尚未提交
+        assertEquals(2, repository.takeSnapshots(NOW));
+        insert(50, "SKU-A", 2, 7);
+
+        assertEquals(10L, jdbcTemplate.queryForObject("SELECT last_entry_id FROM inventory_ledger_snapshots"
+                + " WHERE sku_code = 'SKU-A'", Long.class));
+        assertEquals(Optional.of(7), repository.findQuantity("WH1", "SKU-A"));
+        assertEquals(Optional.of(3), repository.findQuantity("WH1", "SKU-B"));
+    }
+
+    @Test
+    void repeatedSnapshotWithoutNewEntriesAddsNothing() {
+        insert(1, "SKU-A", 5, 5);
+        insert(2, "SKU-A", -2, 3);
+
+        assertEquals(1, repository.takeSnapshots(NOW));
+        assertEquals(0, repository.takeSnapshots(NOW));
+        insert(3, "SKU-A", 4, 7);
+        assertEquals(1, repository.takeSnapshots(NOW));
+
+        assertEquals(7L, jdbcTemplate.queryForObject("SELECT quantity FROM inventory_ledger_snapshots"
+                + " WHERE sku_code = 'SKU-A' AND last_entry_id = 3", Long.class));
+        assertEquals(Optional.of(7), repository.findQuantity("WH1", "SKU-A"));
+    }
+
+    private void insert(long id, String skuCode, int quantityChange, int balanceAfter) {
+        jdbcTemplate.update("INSERT INTO inventory_movement_ledger (id, movement_id, warehouse_id, product_id, sku_code,"
+                        + " movement_type, quantity, quantity_change, balance_after, reason, moved_at)"
+                        + " VALUES (?, ?, 'WH1', ?, ?, ?, ?, ?, ?, NULL, ?)",
+                id, "MOV-" + id, "P-" + skuCode, skuCode, quantityChange < 0 ? "OUTBOUND" : "INBOUND",
+                Math.abs(quantityChange), quantityChange, balanceAfter, Timestamp.valueOf(NOW.minusMinutes(10)));
+    }
+
+    @SpringBootConfiguration
+    @AutoConfigurationPackage
+    @EntityScan(basePackageClasses = InventoryLedgerEntryJpaEntity.class)
+    static class TestConfig {
+    }
+}
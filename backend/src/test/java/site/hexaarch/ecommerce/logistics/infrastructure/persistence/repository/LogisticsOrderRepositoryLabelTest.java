@@ -0,0 +1,147 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.persistence.repository;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.mapstruct.factory.Mappers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import site.hexaarch.ecommerce.logistics.domain.logistics.aggregate.LogisticsOrder;
+import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.LogisticsLabel;
+import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.LogisticsStatus;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.LogisticsChannelJpaEntity;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.LogisticsLabelJpaEntity;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.LogisticsOrderJpaEntity;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.LogisticsStatusJpaEntity;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.mapper.LogisticsOrderMapper;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.LogisticsOrderJpaRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * 物流单仓库标签持久化测试，断言打印标签后再次保存物流单不会丢失标签行和物流单号，批量保存只读取一次已有行。
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class LogisticsOrderRepositoryLabelTest {
+
+    @Autowired
+    private LogisticsOrderJpaRepository logisticsOrderJpaRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private LogisticsOrderRepositoryImpl logisticsOrderRepository;
+
+    @BeforeEach
+    void setUp() {
+        logisticsOrderRepository = new LogisticsOrderRepositoryImpl(logisticsOrderJpaRepository,
+                Mappers.getMapper(LogisticsOrderMapper.class));
+
+        LogisticsChannelJpaEntity channel = new LogisticsChannelJpaEntity();
+        channel.setId("CH-1");
+        channel.setChannelName("Express");
+        channel.setChannelCode("EXP");
+        channel.setActive(true);
+        entityManager.persist(channel);
+
+        for (int i = 1; i <= 3; i++) {
+            LogisticsOrderJpaEntity order = new LogisticsOrderJpaEntity();
+            order.setId("LO-" + i);
+            order.setLogisticsOrderNumber("LON-" + i);
+            order.setOrderId("ORD-" + i);
+            order.setLogisticsChannel(channel);
+            order.setStatus(LogisticsStatusJpaEntity.PENDING);
+            order.setTrackingNumber("TRK-" + i);
+            entityManager.persist(order);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void keepsLabelWhenSavingAfterLabelGeneration() {
+        LogisticsOrder labelled = logisticsOrderRepository.findById("LO-1").orElseThrow();
+        labelled.generateLabel(label("LBL-1", "TRK-1"));
+        labelled.updateStatus(LogisticsStatus.LABEL_GENERATED);
+        logisticsOrderRepository.save(labelled);
+        entityManager.flush();
+        entityManager.clear();
+
+        // 重新读取的物流单不带标签值对象，后续状态变更的保存不能清掉标签外键
+        LogisticsOrder reloaded = logisticsOrderRepository.findById("LO-1").orElseThrow();
+        reloaded.updateStatus(LogisticsStatus.COLLECTED);
+        logisticsOrderRepository.save(reloaded);
+        entityManager.flush();
+        entityManager.clear();
+
+        LogisticsOrderJpaEntity stored = entityManager.find(LogisticsOrderJpaEntity.class, "LO-1");
+        assertEquals(LogisticsStatusJpaEntity.PICKED_UP, stored.getStatus());
+        assertEquals("LON-1", stored.getLogisticsOrderNumber());
+        assertNotNull(stored.getLogisticsLabel());
+        assertEquals("LBL-1", stored.getLogisticsLabel().getId());
+        assertEquals("TRK-1", entityManager.find(LogisticsLabelJpaEntity.class, "LBL-1").getLabelData());
+    }
+
+    @Test
+    void saveAllReadsExistingRowsOnceAndKeepsLabels() {
+        List<String> ids = List.of("LO-1", "LO-2", "LO-3");
+        List<LogisticsOrder> labelled = logisticsOrderRepository.findAllById(ids);
+        labelled.forEach(order -> {
+            order.generateLabel(label("LBL-" + order.getLogisticsOrderId(), order.getTrackingNumber()));
+            order.updateStatus(LogisticsStatus.LABEL_GENERATED);
+        });
+        logisticsOrderRepository.saveAll(labelled);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<LogisticsOrder> reloaded = logisticsOrderRepository.findAllById(ids);
+        reloaded.forEach(order -> order.updateStatus(LogisticsStatus.COLLECTED));
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        logisticsOrderRepository.saveAll(reloaded);
+        // 合并前只执行一次批量读取，不逐个查询物流单或标签
+        assertEquals(1, statistics.getPrepareStatementCount());
+        entityManager.flush();
+        entityManager.clear();
+
+        for (String id : ids) {
+            LogisticsOrderJpaEntity stored = entityManager.find(LogisticsOrderJpaEntity.class, id);
+            assertEquals(LogisticsStatusJpaEntity.PICKED_UP, stored.getStatus());
+            assertEquals("LON-" + id.substring(3), stored.getLogisticsOrderNumber());
+            assertEquals("LBL-" + id, stored.getLogisticsLabel().getId());
+        }
+    }
+
+    private static LogisticsLabel label(String labelId, String trackingNumber) {
+        return LogisticsLabel.builder()
+                .labelId(labelId)
+                .trackingNumber(trackingNumber)
+                .barcode(trackingNumber)
+                .shipperInfo(LogisticsLabel.ShipperInfo.builder().name("Shipper").address("Shanghai").phone("123").build())
+                .recipientInfo(LogisticsLabel.RecipientInfo.builder().name("Recipient").address("Berlin").phone("456").build())
+                .packageInfo(LogisticsLabel.PackageInfo.builder().weight(1).build())
+                .build();
+    }
+
+    @SpringBootConfiguration
+    @EntityScan(basePackageClasses = LogisticsOrderJpaEntity.class)
+    @EnableJpaRepositories(basePackageClasses = LogisticsOrderJpaRepository.class,
+            includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = LogisticsOrderJpaRepository.class))
+    static class TestConfig {
+    }
+}
@@ -0,0 +1,174 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.persistence.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import site.hexaarch.ecommerce.logistics.domain.order.aggregate.Order;
+import site.hexaarch.ecommerce.logistics.domain.order.valueobject.OrderPage;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.OrderItemJpaEntity;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.OrderJpaEntity;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.OrderStatusJpaEntity;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.PaymentInfoJpaEntity;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.ShippingAddressJpaEntity;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.mapper.OrderMapper;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.OrderJpaRepository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 订单读取抓取计划测试，通过Hibernate统计信息断言SQL语句数量，防止N+1查询回归。
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class OrderRepositoryFetchPlanTest {
+    private static final int ORDER_COUNT = 1000;
+    private static final int ITEMS_PER_ORDER = 2;
+    private static final int BATCH_FETCH_SIZE = 100;
+
+    @Autowired
+    private OrderJpaRepository orderJpaRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private OrderRepositoryImpl orderRepository;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository = new OrderRepositoryImpl(orderJpaRepository, Mappers.getMapper(OrderMapper.class), entityManager, jdbcTemplate);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        for (int i = 0; i < ORDER_COUNT; i++) {
+            entityManager.persist(order(i));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+    }
+
+    @Test
+    void pageOfThousandOrdersUsesBatchedStatements() {
+        OrderPage page = orderRepository.findPage(null, null, null, ORDER_COUNT);
+
+        assertEquals(ORDER_COUNT, page.getOrders().size());
+        page.getOrders().forEach(order -> {
+            assertEquals(ITEMS_PER_ORDER, order.getOrderItems().size());
+            assertEquals("Shanghai", order.getShippingAddress().getCity());
+        });
+        // 1条分页查询（连接抓取地址和付款信息）+ 每100个订单1条行项批量查询
+        long expectedMax = 1 + (ORDER_COUNT + BATCH_FETCH_SIZE - 1) / BATCH_FETCH_SIZE;
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= expectedMax, "Expected at most " + expectedMax + " statements but was " + statements);
+    }
+
+    @Test
+    void streamAllLoadsItemsPerChunk() {
+        List<Order> orders;
+        try (Stream<Order> stream = orderRepository.streamAll(null)) {
+            orders = stream.toList();
+        }
+
+        assertEquals(ORDER_COUNT, orders.size());
+        assertEquals("ORDER-0999", orders.get(0).getId());
+        orders.forEach(order -> assertEquals(ITEMS_PER_ORDER, order.getOrderItems().size()));
+        // 1条游标查询 + 每100个订单1条行项批量查询
+        long expectedMax = 1 + (ORDER_COUNT + BATCH_FETCH_SIZE - 1) / BATCH_FETCH_SIZE;
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= expectedMax, "Expected at most " + expectedMax + " statements but was " + statements);
+        // 映射后的订单已从持久化上下文移除
+        assertTrue(entityManager.unwrap(Session.class).getStatistics().getEntityCount() < BATCH_FETCH_SIZE,
+                "Persistence context should not grow with the number of exported orders");
+    }
+
+    @Test
+    void findByIdLoadsFullAggregateInOneStatement() {
+        Order order = orderRepository.findById("ORDER-0042").orElseThrow();
+
+        assertEquals(ITEMS_PER_ORDER, order.getOrderItems().size());
+        assertEquals(new BigDecimal("42.00"), order.getPaymentInfo().getAmount());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private OrderJpaEntity order(int index) {
+        String id = String.format("ORDER-%04d", index);
+
+        ShippingAddressJpaEntity address = new ShippingAddressJpaEntity();
+        address.setId("ADDR-" + id);
+        address.setRecipientName("Recipient " + index);
+        address.setAddressLine1("No." + index + " Nanjing Road");
+        address.setCity("Shanghai");
+        address.setStateProvince("Shanghai");
+        address.setPostalCode("200000");
+        address.setCountry("CN");
+        address.setPhoneNumber("13800000000");
+
+        PaymentInfoJpaEntity payment = new PaymentInfoJpaEntity();
+        payment.setId("PAY-" + id);
+        payment.setPaymentMethod("CREDIT_CARD");
+        payment.setPaymentStatus("SUCCESS");
+        payment.setTransactionId("TXN-" + id);
+        payment.setAmount(new BigDecimal(index).setScale(2));
+
+        OrderJpaEntity order = new OrderJpaEntity();
+        order.setId(id);
+        order.setOrderNumber("ORD-" + index);
+        order.setCustomerId("CUSTOMER-" + (index % 10));
+        order.setStatus(OrderStatusJpaEntity.PENDING);
+        order.setShippingAddress(address);
+        order.setPaymentInfo(payment);
+        order.setCreatedAt(1_700_000_000_000L + index * 1000L);
+        order.setUpdatedAt(order.getCreatedAt());
+
+        List<OrderItemJpaEntity> items = new ArrayList<>(ITEMS_PER_ORDER);
+        for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+            OrderItemJpaEntity item = new OrderItemJpaEntity();
+            item.setId(id + "-ITEM-" + i);
+            item.setOrder(order);
+            item.setProductName("Product " + i);
+            item.setSkuCode("SKU-" + i);
+            item.setQuantity(1);
+            item.setUnitPrice(10.0);
+            item.setTotalPrice(10.0);
+            items.add(item);
+        }
+        order.setOrderItems(items);
+        return order;
+    }
+
+    @SpringBootConfiguration
+    @EntityScan(basePackageClasses = OrderJpaEntity.class)
+    @EnableJpaRepositories(basePackageClasses = OrderJpaRepository.class,
+            includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = OrderJpaRepository.class))
+    static class TestConfig {
+    }
+}
@@ -0,0 +1,129 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.persistence.repository;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.outbox.OutboxEventJpaEntity;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.outbox.OutboxEventStatusJpaEntity;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.outbox.OutboxEventJpaRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 发件箱待投递批次查询测试，断言每个聚合只取最早的待投递事件，退避中或已被认领的聚合整体跳过，死信事件不阻塞聚合。
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false"
+})
+class OutboxEventDueBatchQueryTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    @Autowired
+    private OutboxEventJpaRepository outboxEventJpaRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void skipsBackedOffEventsAndLaterEventsOfTheirAggregate() {
+        String due = save("ORDER-1", OutboxEventStatusJpaEntity.PENDING, NOW.minusSeconds(1));
+        // ORDER-2的第一条事件在退避中，第二条虽已到期也要等待
+        save("ORDER-2", OutboxEventStatusJpaEntity.PENDING, NOW.plusMinutes(1));
+        save("ORDER-2", OutboxEventStatusJpaEntity.PENDING, null);
+        String fresh = save("ORDER-3", OutboxEventStatusJpaEntity.PENDING, null);
+        // ORDER-4的死信事件不再阻塞该聚合
+        save("ORDER-4", OutboxEventStatusJpaEntity.FAILED, null);
+        String afterDeadLetter = save("ORDER-4", OutboxEventStatusJpaEntity.PENDING, null);
+        save("ORDER-5", OutboxEventStatusJpaEntity.SENT, null);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<String> eventIds = outboxEventJpaRepository
+                .lockDueBatchByStatus(OutboxEventStatusJpaEntity.PENDING, NOW, PageRequest.of(0, 10))
+                .stream()
+                .map(OutboxEventJpaEntity::getEventId)
+                .toList();
+
+        assertEquals(List.of(due, fresh, afterDeadLetter), eventIds);
+    }
+
+    @Test
+    void backedOffHeadDoesNotFillTheBatch() {
+        for (int i = 0; i < 5; i++) {
+            save("ORDER-" + i, OutboxEventStatusJpaEntity.PENDING, NOW.plusMinutes(5));
+        }
+        String due = save("ORDER-9", OutboxEventStatusJpaEntity.PENDING, null);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<OutboxEventJpaEntity> batch = outboxEventJpaRepository
+                .lockDueBatchByStatus(OutboxEventStatusJpaEntity.PENDING, NOW, PageRequest.of(0, 2));
+
+        assertEquals(1, batch.size());
+        assertEquals(due, batch.get(0).getEventId());
+    }
+
+    @Test
+    void takesOnlyTheHeadOfEachAggregateAndSkipsClaimedAggregates() {
+        String head = save("ORDER-1", OutboxEventStatusJpaEntity.PENDING, null);
+        save("ORDER-1", OutboxEventStatusJpaEntity.PENDING, null);
+        // ORDER-2的第一条事件正由其他节点投递，第二条要等它回写
+        claim(save("ORDER-2", OutboxEventStatusJpaEntity.PENDING, null), NOW.plusSeconds(30));
+        save("ORDER-2", OutboxEventStatusJpaEntity.PENDING, null);
+        // ORDER-3的认领租约已过期，可重新认领
+        String expired = save("ORDER-3", OutboxEventStatusJpaEntity.PENDING, null);
+        claim(expired, NOW.minusSeconds(1));
+        entityManager.flush();
+        entityManager.clear();
+
+        List<String> eventIds = outboxEventJpaRepository
+                .lockDueBatchByStatus(OutboxEventStatusJpaEntity.PENDING, NOW, PageRequest.of(0, 10))
+                .stream()
+                .map(OutboxEventJpaEntity::getEventId)
+                .toList();
+
+        assertEquals(List.of(head, expired), eventIds);
+    }
+
+    private void claim(String eventId, LocalDateTime leaseUntil) {
+        entityManager.createQuery("update OutboxEventJpaEntity e set e.leaseOwner = 'node-2', e.leaseUntil = :leaseUntil"
+                        + " where e.eventId = :eventId")
+                .setParameter("leaseUntil", leaseUntil)
+                .setParameter("eventId", eventId)
+                .executeUpdate();
+    }
+
+    private String save(String aggregateId, OutboxEventStatusJpaEntity status, LocalDateTime nextAttemptAt) {
+        OutboxEventJpaEntity event = new OutboxEventJpaEntity();
+        event.setEventId("evt-" + System.nanoTime());
+        event.setAggregateType("Order");
+        event.setAggregateId(aggregateId);
+        event.setEventType("OrderCreatedEvent");
+        event.setTopic("order-events");
+        event.setPayload("{}");
+        event.setStatus(status);
+        event.setNextAttemptAt(nextAttemptAt);
+        event.setCreatedAt(NOW);
+        entityManager.persist(event);
+        return event.getEventId();
+    }
+
+    @SpringBootConfiguration
+    @EntityScan(basePackageClasses = OutboxEventJpaEntity.class)
+    @EnableJpaRepositories(basePackageClasses = OutboxEventJpaRepository.class,
+            includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = OutboxEventJpaRepository.class))
+    static class TestConfig {
+    }
+}
@@ -0,0 +1,100 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.persistence.repository;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.purchase.PurchaseOrderItemJpaEntity;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.purchase.PurchaseOrderJpaEntity;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.purchase.PurchaseOrderJpaRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 采购提前期查询测试，断言提前期按创建到到货的时长统计，不受到货后的更新影响。
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false"
+})
+class PurchaseOrderLeadTimeQueryTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 31, 12, 0);
+
+    @Autowired
+    private PurchaseOrderJpaRepository purchaseOrderJpaRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void measuresLeadTimeFromCreationToDelivery() {
+        // 2天到货，到货后10天又被更新
+        persist("PO-1", "delivered", NOW.minusDays(12), NOW.minusDays(10), NOW);
+        // 4天到货
+        persist("PO-2", "delivered", NOW.minusDays(6), NOW.minusDays(2), NOW.minusDays(2));
+        // 没有到货时间的采购单不参与统计
+        persist("PO-3", "delivered", NOW.minusDays(30), null, NOW);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<PurchaseOrderJpaRepository.SkuLeadTime> leadTimes =
+                purchaseOrderJpaRepository.averageLeadTimesByStatus("delivered", "WH1", NOW.minusDays(20));
+
+        assertEquals(1, leadTimes.size());
+        assertEquals("SKU-A", leadTimes.get(0).getSkuCode());
+        assertEquals(3 * 86_400L, leadTimes.get(0).getLeadTimeSeconds().longValue());
+    }
+
+    @Test
+    void onlyCountsOrdersDeliveredSinceTheHistoryWindow() {
+        persist("PO-1", "delivered", NOW.minusDays(40), NOW.minusDays(35), NOW);
+        persist("PO-2", "delivered", NOW.minusDays(3), NOW.minusDays(2), NOW.minusDays(2));
+        entityManager.flush();
+        entityManager.clear();
+
+        List<PurchaseOrderJpaRepository.SkuLeadTime> leadTimes =
+                purchaseOrderJpaRepository.averageLeadTimesByStatus("delivered", "WH1", NOW.minusDays(20));
+
+        assertEquals(86_400L, leadTimes.get(0).getLeadTimeSeconds().longValue());
+    }
+
+    private void persist(String purchaseOrderId, String status, LocalDateTime createdAt, LocalDateTime deliveredAt,
+                         LocalDateTime updatedAt) {
+        PurchaseOrderJpaEntity order = new PurchaseOrderJpaEntity();
+        order.setPurchaseOrderId(purchaseOrderId);
+        order.setSupplierId("SUP-1");
+        order.setSupplierName("Supplier");
+        order.setWarehouseId("WH1");
+        order.setStatus(status);
+        order.setTotalAmount(BigDecimal.TEN);
+        order.setCreatedAt(createdAt);
+        order.setDeliveredAt(deliveredAt);
+        order.setUpdatedAt(updatedAt);
+        PurchaseOrderItemJpaEntity item = new PurchaseOrderItemJpaEntity();
+        item.setSkuCode("SKU-A");
+        item.setProductName("Product A");
+        item.setQuantity(10);
+        item.setUnitPrice(BigDecimal.ONE);
+        item.setTotalPrice(BigDecimal.TEN);
+        item.setPurchaseOrder(order);
+        order.setItems(List.of(item));
+        entityManager.persist(order);
+    }
+
+    @SpringBootConfiguration
+    @EntityScan(basePackageClasses = PurchaseOrderJpaEntity.class)
+    @EnableJpaRepositories(basePackageClasses = PurchaseOrderJpaRepository.class,
+            includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = PurchaseOrderJpaRepository.class))
+    static class TestConfig {
+    }
+}
@@ -0,0 +1,76 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.persistence.repository;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.SchedulerLeaseJpaEntity;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.SchedulerLeaseJpaRepository;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 定时任务租约查询测试，断言租约只能由一个节点持有，过期或释放后可被其他节点获取。
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false"
+})
+class SchedulerLeaseQueryTest {
+    private static final String LEASE = "shortage-replenishment";
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    @Autowired
+    private SchedulerLeaseJpaRepository schedulerLeaseJpaRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void onlyOneNodeHoldsTheLeaseUntilItExpires() {
+        assertEquals(0, schedulerLeaseJpaRepository.acquireLease(LEASE, "node-1", NOW, NOW.plusMinutes(5)));
+        assertEquals(1, schedulerLeaseJpaRepository.insertLease(LEASE, "node-1", NOW.plusMinutes(5)));
+        assertThrows(DataIntegrityViolationException.class,
+                () -> schedulerLeaseJpaRepository.insertLease(LEASE, "node-2", NOW.plusMinutes(5)));
+
+        assertEquals(0, schedulerLeaseJpaRepository.acquireLease(LEASE, "node-2", NOW.plusMinutes(1), NOW.plusMinutes(6)));
+        // 同一节点可以续约
+        assertEquals(1, schedulerLeaseJpaRepository.acquireLease(LEASE, "node-1", NOW.plusMinutes(1), NOW.plusMinutes(6)));
+        // 过期后其他节点可以接管
+        assertEquals(1, schedulerLeaseJpaRepository.acquireLease(LEASE, "node-2", NOW.plusMinutes(7), NOW.plusMinutes(12)));
+        entityManager.clear();
+
+        assertEquals("node-2", entityManager.find(SchedulerLeaseJpaEntity.class, LEASE).getLeaseOwner());
+    }
+
+    @Test
+    void releasedLeaseCanBeAcquiredByAnotherNode() {
+        schedulerLeaseJpaRepository.insertLease(LEASE, "node-1", NOW.plusMinutes(5));
+
+        // 其他节点不能释放不属于自己的租约
+        assertEquals(0, schedulerLeaseJpaRepository.releaseLease(LEASE, "node-2"));
+        assertEquals(1, schedulerLeaseJpaRepository.releaseLease(LEASE, "node-1"));
+        entityManager.clear();
+        assertNull(entityManager.find(SchedulerLeaseJpaEntity.class, LEASE).getLeaseOwner());
+
+        assertEquals(1, schedulerLeaseJpaRepository.acquireLease(LEASE, "node-2", NOW, NOW.plusMinutes(5)));
+    }
+
+    @SpringBootConfiguration
+    @EntityScan(basePackageClasses = SchedulerLeaseJpaEntity.class)
+    @EnableJpaRepositories(basePackageClasses = SchedulerLeaseJpaRepository.class,
+            includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = SchedulerLeaseJpaRepository.class))
+    static class TestConfig {
+    }
+}
@@ -0,0 +1,130 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.persistence.repository;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.LogisticsStatus;
+import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.ShipmentStatus;
+import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.StatusTransition;
+import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.TrackingEvent;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.LogisticsChannelJpaEntity;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.LogisticsOrderJpaEntity;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.LogisticsStatusJpaEntity;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.mapper.LogisticsOrderMapperImpl;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.LogisticsOrderJpaRepository;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.TrackingEventJpaRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 轨迹接入持久化测试（H2 MySQL模式），断言状态推进只计入本次更新的物流单，追加时间线只计入实际写入的扫描。
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:tracking;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class TrackingIngestPersistenceTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    @Autowired
+    private LogisticsOrderJpaRepository logisticsOrderJpaRepository;
+
+    @Autowired
+    private TrackingEventJpaRepository trackingEventJpaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private LogisticsOrderRepositoryImpl logisticsOrderRepository;
+    private TrackingEventRepositoryImpl trackingEventRepository;
+
+    @BeforeEach
+    void setUp() {
+        LogisticsOrderMapperImpl mapper = new LogisticsOrderMapperImpl();
+        logisticsOrderRepository = new LogisticsOrderRepositoryImpl(logisticsOrderJpaRepository, mapper);
+        trackingEventRepository = new TrackingEventRepositoryImpl(jdbcTemplate, trackingEventJpaRepository, mapper);
+    }
+
+    @Test
+    void countsOnlyOrdersThisUpdateMoved() {
+        LogisticsChannelJpaEntity channel = channel();
+        order("LO-1", channel, LogisticsStatusJpaEntity.IN_TRANSIT);
+        // LO-2在读取后已被其他事务推进到同一新状态
+        order("LO-2", channel, LogisticsStatusJpaEntity.DELIVERED);
+        order("LO-3", channel, LogisticsStatusJpaEntity.CANCELLED);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<StatusTransition> applied = logisticsOrderRepository.applyTransitions(List.of(
+                transition("LO-1"), transition("LO-2"), transition("LO-3")));
+
+        assertEquals(List.of("LO-1"), applied.stream().map(t -> t.getShipment().getLogisticsOrderId()).toList());
+        assertEquals(LogisticsStatusJpaEntity.DELIVERED, logisticsOrderJpaRepository.findById("LO-1").orElseThrow().getStatus());
+        assertEquals(LogisticsStatusJpaEntity.CANCELLED, logisticsOrderJpaRepository.findById("LO-3").orElseThrow().getStatus());
+    }
+
+    @Test
+    void countsOnlyScansActuallyAppended() {
+        TrackingEvent first = new TrackingEvent("TN-1", LogisticsStatus.IN_TRANSIT, NOW, "SZX", "departed");
+        TrackingEvent second = new TrackingEvent("TN-1", LogisticsStatus.DELIVERED, NOW.plusHours(5), "LAX", "delivered");
+
+        assertEquals(1, trackingEventRepository.appendAll(List.of(first)));
+        assertEquals(1, trackingEventRepository.appendAll(List.of(first, second)));
+        assertEquals(0, trackingEventRepository.appendAll(List.of(first, second)));
+        assertEquals(2, trackingEventRepository.findTimeline("TN-1").size());
+    }
+
+    private LogisticsChannelJpaEntity channel() {
+        LogisticsChannelJpaEntity channel = new LogisticsChannelJpaEntity();
+        channel.setId("CH-1");
+        channel.setChannelName("Express");
+        channel.setChannelCode("EXP");
+        channel.setActive(true);
+        entityManager.persist(channel);
+        return channel;
+    }
+
+    private void order(String id, LogisticsChannelJpaEntity channel, LogisticsStatusJpaEntity status) {
+        LogisticsOrderJpaEntity order = new LogisticsOrderJpaEntity();
+        order.setId(id);
+        order.setLogisticsOrderNumber("NO-" + id);
+        order.setOrderId("ORDER-" + id);
+        order.setLogisticsChannel(channel);
+        order.setStatus(status);
+        order.setTrackingNumber("TN-" + id);
+        entityManager.persist(order);
+    }
+
+    private static StatusTransition transition(String logisticsOrderId) {
+        ShipmentStatus shipment = new ShipmentStatus(logisticsOrderId, "ORDER-" + logisticsOrderId, "TN-" + logisticsOrderId,
+                LogisticsStatus.IN_TRANSIT);
+        return new StatusTransition(shipment, LogisticsStatus.DELIVERED, NOW);
+    }
+
+    @SpringBootConfiguration
+    @EntityScan(basePackageClasses = LogisticsOrderJpaEntity.class)
+    @EnableJpaRepositories(basePackageClasses = LogisticsOrderJpaRepository.class,
+            includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE,
+                    classes = {LogisticsOrderJpaRepository.class, TrackingEventJpaRepository.class}))
+    static class TestConfig {
+    }
+}
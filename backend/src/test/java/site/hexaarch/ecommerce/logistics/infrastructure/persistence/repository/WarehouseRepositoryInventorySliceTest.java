@@ -0,0 +1,195 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.persistence.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.aggregate.Warehouse;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.repository.InventoryLedgerRepository;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.valueobject.InventoryLedgerEntry;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.valueobject.InventoryMovement;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.InventoryRecordJpaEntity;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.InventoryStatusJpaEntity;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.WarehouseJpaEntity;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.mapper.WarehouseMapper;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.InventoryRecordJpaRepository;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.WarehouseJpaRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * 仓库库存切片读写测试，通过Hibernate统计信息断言只写回变更的库存记录，未加载的库存记录保持不变。
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class WarehouseRepositoryInventorySliceTest {
+
+    @Autowired
+    private WarehouseJpaRepository warehouseJpaRepository;
+
+    @Autowired
+    private InventoryRecordJpaRepository inventoryRecordJpaRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final InventoryLedgerRepository inventoryLedgerRepository = mock(InventoryLedgerRepository.class);
+
+    private WarehouseRepositoryImpl warehouseRepository;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        warehouseRepository = new WarehouseRepositoryImpl(warehouseJpaRepository, inventoryRecordJpaRepository,
+                Mappers.getMapper(WarehouseMapper.class), inventoryLedgerRepository, jdbcTemplate);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        WarehouseJpaEntity warehouse = new WarehouseJpaEntity();
+        warehouse.setId("WH1");
+        warehouse.setWarehouseName("Main Warehouse");
+        warehouse.setWarehouseCode("MW1");
+        warehouse.setCapacity(1000);
+        warehouse.setActive(true);
+        warehouse.setCreatedAt(LocalDateTime.of(2026, 1, 1, 0, 0));
+        warehouse.setUpdatedAt(warehouse.getCreatedAt());
+        entityManager.persist(warehouse);
+        entityManager.persist(record(warehouse, "P1", 10));
+        entityManager.persist(record(warehouse, "P2", 20));
+        entityManager.persist(record(warehouse, "P3", 30));
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+    }
+
+    @Test
+    void writesBackOnlyTheChangedRecord() {
+        Warehouse slice = warehouseRepository.findInventorySlice("WH1", List.of("P1")).orElseThrow();
+        assertEquals(1, slice.getInventoryRecords().size());
+
+        slice.updateInventory("P1", 5, InventoryMovement.MovementType.INBOUND, "入库");
+        List<InventoryLedgerEntry> ledgerEntries = slice.pendingLedgerEntries();
+        warehouseRepository.saveInventorySlice(slice);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(1, statistics.getEntityUpdateCount());
+        assertEquals(0, statistics.getEntityInsertCount());
+        assertEquals(0, statistics.getEntityDeleteCount());
+        verify(inventoryLedgerRepository).appendAll(ledgerEntries);
+
+        InventoryRecordJpaEntity changed = entityManager.find(InventoryRecordJpaEntity.class, "INV-P1");
+        assertEquals(15, changed.getQuantity());
+        assertEquals(1L, changed.getVersion());
+        InventoryRecordJpaEntity untouched = entityManager.find(InventoryRecordJpaEntity.class, "INV-P2");
+        assertEquals(20, untouched.getQuantity());
+        assertEquals(0L, untouched.getVersion());
+        assertEquals(30, entityManager.find(InventoryRecordJpaEntity.class, "INV-P3").getQuantity());
+        assertEquals(3, inventoryRecordJpaRepository.count());
+    }
+
+    @Test
+    void unchangedSliceWritesNothing() {
+        Warehouse slice = warehouseRepository.findInventorySlice("WH1", List.of("P1", "P2")).orElseThrow();
+        statistics.clear();
+
+        warehouseRepository.saveInventorySlice(slice);
+        entityManager.flush();
+
+        assertEquals(0, statistics.getEntityUpdateCount());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        verify(inventoryLedgerRepository, never()).appendAll(anyList());
+    }
+
+    @Test
+    void rejectsSavingSliceAsWholeAggregate() {
+        Warehouse slice = warehouseRepository.findInventorySlice("WH1", List.of("P1")).orElseThrow();
+
+        assertThrows(IllegalStateException.class, () -> warehouseRepository.save(slice));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(3, inventoryRecordJpaRepository.count());
+    }
+
+    @Test
+    void committedQuantityUpdateLeavesOnHandUntouched() {
+        assertEquals(1, inventoryRecordJpaRepository.updateCommittedQuantities("INV-P1", 4, 3));
+        entityManager.clear();
+
+        InventoryRecordJpaEntity updated = entityManager.find(InventoryRecordJpaEntity.class, "INV-P1");
+        assertEquals(10, updated.getQuantity());
+        assertEquals(4, updated.getReservedQuantity());
+        assertEquals(3, updated.getAllocatedQuantity());
+        assertEquals(1L, updated.getVersion());
+        assertEquals(10, inventoryRecordJpaRepository.findQuantitiesByIdIn(List.of("INV-P1")).get(0).getQuantity());
+    }
+
+    @Test
+    void sumsAvailableQuantityNetOfCommittedQuantitiesPerRecord() {
+        WarehouseJpaEntity warehouse = entityManager.find(WarehouseJpaEntity.class, "WH1");
+        InventoryRecordJpaEntity oversold = record(warehouse, "P4", 3);
+        oversold.setSkuCode("SKU-P1");
+        entityManager.persist(oversold);
+        entityManager.flush();
+        // P1: 10 - 4 - 3 = 3；P4: 3 - 5 = -2 按0计
+        inventoryRecordJpaRepository.updateCommittedQuantities("INV-P1", 4, 3);
+        inventoryRecordJpaRepository.updateCommittedQuantities("INV-P4", 5, 0);
+        entityManager.clear();
+
+        List<InventoryRecordJpaRepository.SkuAvailable> totals =
+                inventoryRecordJpaRepository.sumAvailableBySkuCodeIn(List.of("SKU-P1", "SKU-P2", "SKU-NONE"));
+
+        assertEquals(2, totals.size());
+        for (InventoryRecordJpaRepository.SkuAvailable total : totals) {
+            assertEquals("SKU-P1".equals(total.getSkuCode()) ? 3L : 20L, total.getQuantity());
+        }
+    }
+
+    private static InventoryRecordJpaEntity record(WarehouseJpaEntity warehouse, String productId, int quantity) {
+        InventoryRecordJpaEntity record = new InventoryRecordJpaEntity();
+        record.setId("INV-" + productId);
+        record.setSkuCode("SKU-" + productId);
+        record.setProductId(productId);
+        record.setWarehouse(warehouse);
+        record.setQuantity(quantity);
+        record.setStatus(InventoryStatusJpaEntity.NORMAL);
+        return record;
+    }
+
+    @SpringBootConfiguration
+    @EntityScan(basePackageClasses = WarehouseJpaEntity.class)
+    @EnableJpaRepositories(basePackageClasses = WarehouseJpaRepository.class,
+            includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE,
+                    classes = {WarehouseJpaRepository.class, InventoryRecordJpaRepository.class}))
+    static class TestConfig {
+    }
+}
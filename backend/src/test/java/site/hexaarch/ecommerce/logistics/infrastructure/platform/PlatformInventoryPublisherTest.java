@@ -0,0 +1,234 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.platform;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import site.hexaarch.ecommerce.logistics.domain.common.exception.BusinessException;
+import site.hexaarch.ecommerce.logistics.domain.platform.aggregate.PlatformIntegration;
+import site.hexaarch.ecommerce.logistics.domain.platform.repository.PlatformIntegrationRepository;
+import site.hexaarch.ecommerce.logistics.domain.platform.valueobject.PlatformName;
+import site.hexaarch.ecommerce.logistics.domain.platform.valueobject.PlatformStatus;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.event.InventoryMovementEvent;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.valueobject.InventoryMovement;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.InventoryRecordJpaRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 平台库存推送器单元测试，覆盖变动合并、推送时汇总在库数量、分批推送、失败重推和积压触发。
+ */
+class PlatformInventoryPublisherTest {
+
+    @Mock
+    private PlatformIntegrationRepository platformIntegrationRepository;
+    @Mock
+    private InventoryRecordJpaRepository inventoryRecordJpaRepository;
+    @Mock
+    private PlatformInventoryClient platformInventoryClient;
+
+    private final PlatformIntegration shopify = platform(PlatformName.SHOPIFY);
+    private final PlatformIntegration amazon = platform(PlatformName.AMAZON);
+    private final List<List<PlatformInventoryLevel>> pushedToShopify = new ArrayList<>();
+    private final List<List<PlatformInventoryLevel>> pushedToAmazon = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(platformIntegrationRepository.findByStatusActive()).thenReturn(List.of(shopify, amazon));
+        doAnswer(invocation -> {
+            PlatformIntegration platform = invocation.getArgument(0);
+            List<PlatformInventoryLevel> levels = invocation.getArgument(1);
+            (platform == shopify ? pushedToShopify : pushedToAmazon).add(List.copyOf(levels));
+            return null;
+        }).when(platformInventoryClient).pushInventory(any(), anyList());
+    }
+
+    @Test
+    void coalescesMovementsIntoOneTotalPerPlatformAndSku() {
+        givenAvailable(Map.of("SKU-1", 6L));
+        PlatformInventoryPublisher publisher = publisher(100, 10_000);
+
+        for (int quantity = 999; quantity >= 1; quantity--) {
+            publisher.onInventoryMovement(movement("WH-1", "SKU-1", quantity));
+        }
+        publisher.flush();
+
+        assertEquals(List.of(List.of(new PlatformInventoryLevel("SKU-1", 6))), pushedToShopify);
+        assertEquals(List.of(List.of(new PlatformInventoryLevel("SKU-1", 6))), pushedToAmazon);
+        verify(inventoryRecordJpaRepository).sumAvailableBySkuCodeIn(List.of("SKU-1"));
+        assertEquals(0, publisher.pendingCount());
+    }
+
+    @Test
+    void recomputesTotalsFromInventoryRecordsAtEachFlush() {
+        when(platformIntegrationRepository.findByStatusActive()).thenReturn(List.of(shopify));
+        PlatformInventoryPublisher publisher = publisher(100, 10_000);
+        givenAvailable(Map.of("SKU-1", 6L));
+        publisher.onInventoryMovement(movement("WH-1", "SKU-1", 5));
+        publisher.flush();
+
+        // 乱序到达的旧事件或其他节点上的变动只触发重新汇总，推送的始终是库存记录表中的合计
+        givenAvailable(Map.of("SKU-1", 7L));
+        publisher.onInventoryMovement(movement("WH-1", "SKU-1", 1000));
+        publisher.flush();
+
+        assertEquals(List.of(List.of(new PlatformInventoryLevel("SKU-1", 6)), List.of(new PlatformInventoryLevel("SKU-1", 7))),
+                pushedToShopify);
+    }
+
+    @Test
+    void splitsEachPlatformIntoBatches() {
+        when(platformIntegrationRepository.findByStatusActive()).thenReturn(List.of(shopify));
+        PlatformInventoryPublisher publisher = publisher(2, 10_000);
+
+        for (int i = 0; i < 5; i++) {
+            publisher.onInventoryMovement(movement("WH-1", "SKU-" + i, i));
+        }
+        publisher.flush();
+
+        assertEquals(3, pushedToShopify.size());
+        assertEquals(5, pushedToShopify.stream().mapToInt(List::size).sum());
+    }
+
+    @Test
+    void requeuesFailedBatchesAndPushesCurrentTotals() {
+        when(platformIntegrationRepository.findByStatusActive()).thenReturn(List.of(shopify));
+        PlatformInventoryPublisher publisher = publisher(100, 10_000);
+        givenAvailable(Map.of("SKU-1", 10L, "SKU-2", 20L));
+        publisher.onInventoryMovement(movement("WH-1", "SKU-1", 10));
+        publisher.onInventoryMovement(movement("WH-1", "SKU-2", 20));
+        doThrow(new BusinessException("Platform inventory API returned status 503", "PLATFORM_API_ERROR"))
+                .when(platformInventoryClient).pushInventory(any(), anyList());
+
+        publisher.flush();
+
+        assertEquals(2, publisher.pendingCount());
+        givenAvailable(Map.of("SKU-1", 8L, "SKU-2", 20L));
+        doAnswer(invocation -> {
+            pushedToShopify.add(List.copyOf(invocation.<List<PlatformInventoryLevel>>getArgument(1)));
+            return null;
+        }).when(platformInventoryClient).pushInventory(any(), anyList());
+
+        publisher.flush();
+
+        assertEquals(1, pushedToShopify.size());
+        assertEquals(List.of(new PlatformInventoryLevel("SKU-1", 8), new PlatformInventoryLevel("SKU-2", 20)),
+                pushedToShopify.get(0).stream().sorted((a, b) -> a.sku().compareTo(b.sku())).toList());
+    }
+
+    @Test
+    void pushesSkuAgainAfterItsReservationIsWritten() {
+        when(platformIntegrationRepository.findByStatusActive()).thenReturn(List.of(shopify));
+        PlatformInventoryPublisher publisher = publisher(100, 10_000);
+        givenAvailable(Map.of("SKU-1", 6L));
+        publisher.onInventoryMovement(movement("WH-1", "SKU-1", 10));
+        publisher.flush();
+
+        // 预留引擎写回4件预留后，没有库存变动也要推送减少后的可用数量
+        givenAvailable(Map.of("SKU-1", 2L));
+        publisher.onCommittedQuantityWritten("SKU-1");
+        publisher.flush();
+
+        assertEquals(List.of(List.of(new PlatformInventoryLevel("SKU-1", 6)), List.of(new PlatformInventoryLevel("SKU-1", 2))),
+                pushedToShopify);
+    }
+
+    @Test
+    void keepsPendingSkusWhenTotalsCannotBeLoaded() {
+        when(platformIntegrationRepository.findByStatusActive()).thenReturn(List.of(shopify));
+        PlatformInventoryPublisher publisher = publisher(100, 10_000);
+        publisher.onInventoryMovement(movement("WH-1", "SKU-1", 10));
+        when(inventoryRecordJpaRepository.sumAvailableBySkuCodeIn(anyCollection()))
+                .thenThrow(new IllegalStateException("database unavailable"));
+
+        publisher.flush();
+
+        assertEquals(1, publisher.pendingCount());
+        verify(platformInventoryClient, never()).pushInventory(any(), anyList());
+    }
+
+    @Test
+    void flushesEarlyWhenBacklogReachesThreshold() {
+        when(platformIntegrationRepository.findByStatusActive()).thenReturn(List.of(shopify));
+        PlatformInventoryPublisher publisher = publisher(100, 3);
+
+        publisher.onInventoryMovement(movement("WH-1", "SKU-1", 1));
+        publisher.onInventoryMovement(movement("WH-1", "SKU-2", 1));
+        verify(platformInventoryClient, never()).pushInventory(any(), anyList());
+
+        publisher.onInventoryMovement(movement("WH-1", "SKU-3", 1));
+
+        assertEquals(1, pushedToShopify.size());
+        assertEquals(3, pushedToShopify.get(0).size());
+    }
+
+    private PlatformInventoryPublisher publisher(int batchSize, int flushThreshold) {
+        return new PlatformInventoryPublisher(platformIntegrationRepository, inventoryRecordJpaRepository,
+                platformInventoryClient, Runnable::run, batchSize, flushThreshold);
+    }
+
+    private static PlatformIntegration platform(PlatformName platformName) {
+        return PlatformIntegration.builder()
+                .id(UUID.randomUUID())
+                .platformName(platformName)
+                .status(PlatformStatus.ACTIVE)
+                .build();
+    }
+
+    private void givenAvailable(Map<String, Long> totals) {
+        when(inventoryRecordJpaRepository.sumAvailableBySkuCodeIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> skuCodes = invocation.getArgument(0);
+            return skuCodes.stream()
+                    .filter(totals::containsKey)
+                    .map(sku -> available(sku, totals.get(sku)))
+                    .toList();
+        });
+    }
+
+    private static InventoryRecordJpaRepository.SkuAvailable available(String skuCode, long quantity) {
+        return new InventoryRecordJpaRepository.SkuAvailable() {
+            @Override
+            public String getSkuCode() {
+                return skuCode;
+            }
+
+            @Override
+            public Long getQuantity() {
+                return quantity;
+            }
+        };
+    }
+
+    private static InventoryMovementEvent movement(String warehouseId, String sku, int newQuantity) {
+        return InventoryMovementEvent.builder()
+                .warehouseId(warehouseId)
+                .inventoryMovement(InventoryMovement.builder()
+                        .warehouseId(warehouseId)
+                        .productId("P-" + sku)
+                        .sku(sku)
+                        .quantity(1)
+                        .movementType(InventoryMovement.MovementType.OUTBOUND)
+                        .movedAt(LocalDateTime.now())
+                        .build())
+                .originalQuantity(newQuantity + 1)
+                .newQuantity(newQuantity)
+                .occurredAt(LocalDateTime.now())
+                .build();
+    }
+}
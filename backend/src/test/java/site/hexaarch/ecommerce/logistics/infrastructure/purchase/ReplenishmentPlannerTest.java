@@ -0,0 +1,267 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.purchase;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionOperations;
+import site.hexaarch.ecommerce.logistics.application.service.purchase.PurchaseApplicationService;
+import site.hexaarch.ecommerce.logistics.domain.purchase.repository.ReplenishmentPolicyRepository;
+import site.hexaarch.ecommerce.logistics.domain.purchase.valueobject.PurchaseOrderDraft;
+import site.hexaarch.ecommerce.logistics.domain.purchase.valueobject.ReplenishmentPolicy;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.repository.InventoryLedgerRepository;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.InventoryRecordJpaRepository;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.SchedulerLeaseJpaRepository;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.purchase.PurchaseOrderJpaRepository;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 补货计划单元测试，覆盖按出库速度和提前期计算补货点、库存位置、按供应商合并采购单和并行拆分。
+ */
+class ReplenishmentPlannerTest {
+
+    @Mock
+    private InventoryRecordJpaRepository inventoryRecordJpaRepository;
+
+    @Mock
+    private InventoryLedgerRepository inventoryLedgerRepository;
+
+    @Mock
+    private PurchaseOrderJpaRepository purchaseOrderJpaRepository;
+
+    @Mock
+    private ReplenishmentPolicyRepository replenishmentPolicyRepository;
+
+    @Mock
+    private PurchaseApplicationService purchaseApplicationService;
+
+    @Mock
+    private SchedulerLeaseJpaRepository schedulerLeaseJpaRepository;
+
+    private final ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+
+    private ReplenishmentPlanner planner;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(purchaseOrderJpaRepository.averageLeadTimesByStatus(anyString(), anyString(), any())).thenReturn(List.of());
+        when(purchaseOrderJpaRepository.sumQuantitiesByStatusIn(anyCollection(), anyString())).thenReturn(List.of());
+        when(replenishmentPolicyRepository.findByWarehouseId(anyString())).thenReturn(List.of());
+        when(purchaseApplicationService.createPurchaseOrders(any())).thenReturn(List.of());
+        when(schedulerLeaseJpaRepository.acquireLease(eq("replenishment-planner"), eq("node-1"), any(), any())).thenReturn(1);
+        planner = new ReplenishmentPlanner(inventoryRecordJpaRepository, inventoryLedgerRepository, purchaseOrderJpaRepository,
+                replenishmentPolicyRepository, purchaseApplicationService, TransactionOperations.withoutTransaction(),
+                schedulerLeaseJpaRepository, "tenant-1", "DEFAULT_SUPPLIER", "Default Supplier", 28, 180, 7, 3, 14,
+                Duration.ofMinutes(30), "node-1", Clock.fixed(Instant.parse("2026-10-01T02:00:00Z"), ZoneId.of("UTC")), forkJoinPool);
+    }
+
+    @AfterEach
+    void tearDown() {
+        forkJoinPool.shutdown();
+    }
+
+    @Test
+    void ordersSkusBelowReorderPointGroupedBySupplier() {
+        // SKU-A: 日均10，提前期5天 -> 补货点80，补货数量140
+        // SKU-B: 日均2，默认提前期7天 -> 补货点20，在库足够
+        // SKU-C: 没有出库，不计算
+        // SKU-D: 日均1 -> 补货点10，补货数量14，按已有策略的供应商下单
+        when(inventoryLedgerRepository.sumOutboundQuantities(eq("WH1"), any()))
+                .thenReturn(Map.of("SKU-A", 280L, "SKU-B", 56L, "SKU-D", 28L));
+        PurchaseOrderJpaRepository.SkuLeadTime leadTime = mock(PurchaseOrderJpaRepository.SkuLeadTime.class);
+        when(leadTime.getSkuCode()).thenReturn("SKU-A");
+        when(leadTime.getLeadTimeSeconds()).thenReturn(5 * 86_400L);
+        when(purchaseOrderJpaRepository.averageLeadTimesByStatus(eq("delivered"), eq("WH1"), any())).thenReturn(List.of(leadTime));
+        when(replenishmentPolicyRepository.findByWarehouseId("WH1")).thenReturn(List.of(policy("SKU-D", 5, 5, "SUP-2")));
+        stubLevels("WH1", level("SKU-A", 50, 10), level("SKU-B", 100, 0), level("SKU-C", 0, 0), level("SKU-D", 0, 0));
+
+        assertEquals(2, planner.planWarehouse("WH1"));
+
+        Map<String, PurchaseOrderDraft> bySupplier = capturedDrafts().stream()
+                .collect(Collectors.toMap(PurchaseOrderDraft::getSupplierId, Function.identity()));
+        PurchaseOrderDraft.Line lineA = bySupplier.get("DEFAULT_SUPPLIER").getLines().get(0);
+        assertEquals("SKU-A", lineA.getSkuCode());
+        assertEquals(140, lineA.getQuantity());
+        assertEquals("tenant-1", bySupplier.get("DEFAULT_SUPPLIER").getTenantId());
+        PurchaseOrderDraft.Line lineD = bySupplier.get("SUP-2").getLines().get(0);
+        assertEquals(14, lineD.getQuantity());
+        assertEquals(BigDecimal.ONE, lineD.getUnitPrice());
+
+        Map<String, ReplenishmentPolicy> saved = capturedPolicies();
+        assertEquals(3, saved.size());
+        assertEquals(80, saved.get("SKU-A").getReorderPoint());
+        assertEquals(140, saved.get("SKU-A").getReorderQuantity());
+        assertEquals(20, saved.get("SKU-B").getReorderPoint());
+        assertEquals(10, saved.get("SKU-D").getReorderPoint());
+        assertEquals("SUP-2", saved.get("SKU-D").getSupplierId());
+    }
+
+    @Test
+    void countsOpenPurchaseOrdersAndAllLocationsOfSku() {
+        when(inventoryLedgerRepository.sumOutboundQuantities(eq("WH1"), any())).thenReturn(Map.of("SKU-A", 280L));
+        PurchaseOrderJpaRepository.SkuQuantity onOrder = mock(PurchaseOrderJpaRepository.SkuQuantity.class);
+        when(onOrder.getSkuCode()).thenReturn("SKU-A");
+        when(onOrder.getQuantity()).thenReturn(30L);
+        when(purchaseOrderJpaRepository.sumQuantitiesByStatusIn(anyCollection(), eq("WH1"))).thenReturn(List.of(onOrder));
+        // 两个库位共80，加在途30为110，不低于补货点10 × (7 + 3) = 100，不下单
+        stubLevels("WH1", level("SKU-A", 40, 0), level("SKU-A", 40, 0));
+
+        assertEquals(0, planner.planWarehouse("WH1"));
+
+        assertTrue(capturedDrafts().isEmpty());
+    }
+
+    @Test
+    void keepsUnchangedPolicies() {
+        when(inventoryLedgerRepository.sumOutboundQuantities(eq("WH1"), any())).thenReturn(Map.of("SKU-A", 28L));
+        when(replenishmentPolicyRepository.findByWarehouseId("WH1")).thenReturn(List.of(policy("SKU-A", 10, 14, "SUP-1")));
+        stubLevels("WH1", level("SKU-A", 50, 0));
+
+        planner.planWarehouse("WH1");
+
+        assertTrue(capturedPolicies().isEmpty());
+    }
+
+    @Test
+    void plansLargeWarehouseInParallelIntoOneOrderPerSupplier() {
+        int skus = 20_000;
+        Map<String, Long> outbound = new HashMap<>();
+        List<InventoryRecordJpaRepository.InventoryLevel> levels = new ArrayList<>(skus);
+        for (int i = 0; i < skus; i++) {
+            outbound.put("SKU-" + i, 28L);
+            levels.add(level("SKU-" + i, i % 2 == 0 ? 0 : 50, 0));
+        }
+        when(inventoryLedgerRepository.sumOutboundQuantities(eq("WH1"), any())).thenReturn(outbound);
+        stubLevels("WH1", levels.toArray(InventoryRecordJpaRepository.InventoryLevel[]::new));
+
+        assertEquals(1, planner.planWarehouse("WH1"));
+
+        List<PurchaseOrderDraft> drafts = capturedDrafts();
+        assertEquals(skus / 2, drafts.get(0).getLines().size());
+        assertEquals(skus, capturedPolicies().size());
+    }
+
+    @Test
+    void continuesWithOtherWarehousesWhenOneFails() {
+        when(inventoryRecordJpaRepository.findWarehouseIds()).thenReturn(List.of("WH1", "WH2"));
+        when(inventoryLedgerRepository.sumOutboundQuantities(eq("WH1"), any())).thenThrow(new IllegalStateException("db down"));
+        when(inventoryLedgerRepository.sumOutboundQuantities(eq("WH2"), any())).thenReturn(Map.of("SKU-A", 28L));
+        stubLevels("WH2", level("SKU-A", 0, 0));
+
+        planner.planAll();
+
+        assertEquals("WH2", capturedDrafts().get(0).getWarehouseId());
+    }
+
+    @Test
+    void skipsPlanWhileAnotherNodeHoldsLease() {
+        when(schedulerLeaseJpaRepository.acquireLease(eq("replenishment-planner"), eq("node-1"), any(), any())).thenReturn(0);
+        when(schedulerLeaseJpaRepository.existsById("replenishment-planner")).thenReturn(true);
+
+        planner.planAll();
+
+        verify(inventoryRecordJpaRepository, never()).findWarehouseIds();
+        verify(purchaseApplicationService, never()).createPurchaseOrders(any());
+    }
+
+    @Test
+    void keepsLeaseAfterPlanSoLaterTriggeredNodesSkip() {
+        when(inventoryRecordJpaRepository.findWarehouseIds()).thenReturn(List.of());
+
+        planner.planAll();
+
+        verify(inventoryRecordJpaRepository).findWarehouseIds();
+        verify(schedulerLeaseJpaRepository, never()).releaseLease(anyString(), anyString());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<PurchaseOrderDraft> capturedDrafts() {
+        ArgumentCaptor<List<PurchaseOrderDraft>> captor = ArgumentCaptor.forClass(List.class);
+        verify(purchaseApplicationService).createPurchaseOrders(captor.capture());
+        return captor.getValue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, ReplenishmentPolicy> capturedPolicies() {
+        ArgumentCaptor<Collection<ReplenishmentPolicy>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(replenishmentPolicyRepository).saveAll(captor.capture());
+        return captor.getValue().stream().collect(Collectors.toMap(ReplenishmentPolicy::getSkuCode, Function.identity()));
+    }
+
+    private void stubLevels(String warehouseId, InventoryRecordJpaRepository.InventoryLevel... levels) {
+        when(inventoryRecordJpaRepository.streamInventoryLevelsByWarehouseId(warehouseId)).thenReturn(Stream.of(levels));
+    }
+
+    private static ReplenishmentPolicy policy(String sku, int reorderPoint, int reorderQuantity, String supplierId) {
+        return ReplenishmentPolicy.builder()
+                .warehouseId("WH1")
+                .skuCode(sku)
+                .reorderPoint(reorderPoint)
+                .reorderQuantity(reorderQuantity)
+                .supplierId(supplierId)
+                .unitCost(BigDecimal.ONE)
+                .build();
+    }
+
+    private static InventoryRecordJpaRepository.InventoryLevel level(String sku, int quantity, int reserved) {
+        return new InventoryRecordJpaRepository.InventoryLevel() {
+            @Override
+            public String getWarehouseId() {
+                return "WH1";
+            }
+
+            @Override
+            public String getSkuCode() {
+                return sku;
+            }
+
+            @Override
+            public String getProductId() {
+                return "P-" + sku;
+            }
+
+            @Override
+            public Integer getQuantity() {
+                return quantity;
+            }
+
+            @Override
+            public int getReservedQuantity() {
+                return reserved;
+            }
+
+            @Override
+            public int getAllocatedQuantity() {
+                return 0;
+            }
+        };
+    }
+}
@@ -0,0 +1,280 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.purchase;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import site.hexaarch.ecommerce.logistics.application.service.purchase.PurchaseApplicationService;
+import site.hexaarch.ecommerce.logistics.domain.purchase.repository.ReplenishmentPolicyRepository;
+import site.hexaarch.ecommerce.logistics.domain.purchase.valueobject.PurchaseOrderDraft;
+import site.hexaarch.ecommerce.logistics.domain.purchase.valueobject.ReplenishmentPolicy;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.event.InventoryShortageEvent;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.SchedulerLeaseJpaRepository;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.purchase.PurchaseOrderJpaRepository;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 缺货补货聚合器单元测试，覆盖按窗口去重合并、补货策略阈值、已有采购单、冷却期、失败重试和租约。
+ */
+class ShortageReplenishmentAggregatorTest {
+    private static final long COOLDOWN_MS = 60_000L;
+    private static final String OWNER = "node-1";
+
+    @Mock
+    private ReplenishmentPolicyRepository replenishmentPolicyRepository;
+
+    @Mock
+    private PurchaseOrderJpaRepository purchaseOrderJpaRepository;
+
+    @Mock
+    private PurchaseApplicationService purchaseApplicationService;
+
+    @Mock
+    private SchedulerLeaseJpaRepository schedulerLeaseJpaRepository;
+
+    @Mock
+    private Clock clock;
+
+    private ShortageReplenishmentAggregator aggregator;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(clock.millis()).thenReturn(1_000L);
+        when(replenishmentPolicyRepository.findAll()).thenReturn(List.of(
+                policy("WH1", "SKU-A", 20, 50, "SUP-1"),
+                policy("WH1", "SKU-B", 5, 30, "SUP-1"),
+                policy("WH1", "SKU-C", 10, 40, "SUP-2")));
+        when(purchaseOrderJpaRepository.sumQuantitiesByStatusIn(anyCollection(), anyString(), anyCollection()))
+                .thenReturn(List.of());
+        when(schedulerLeaseJpaRepository.acquireLease(anyString(), anyString(), any(), any())).thenReturn(1);
+        aggregator = new ShortageReplenishmentAggregator(replenishmentPolicyRepository, purchaseOrderJpaRepository,
+                purchaseApplicationService, schedulerLeaseJpaRepository, "tenant-1", 10, 100, "DEFAULT_SUPPLIER",
+                "Default Supplier", COOLDOWN_MS, Duration.ofMinutes(5), clock, OWNER);
+        aggregator.loadPolicies();
+    }
+
+    @Test
+    void mergesRepeatedShortagesIntoOneOrderPerWarehouseAndSupplier() {
+        aggregator.onShortage(shortage("WH1", "SKU-A", 8));
+        aggregator.onShortage(shortage("WH1", "SKU-A", 6));
+        aggregator.onShortage(shortage("WH1", "SKU-B", 2));
+        aggregator.onShortage(shortage("WH1", "SKU-C", 1));
+        assertEquals(3, aggregator.pendingCount());
+
+        aggregator.flush();
+
+        List<PurchaseOrderDraft> drafts = capturedDrafts();
+        assertEquals(2, drafts.size());
+        Map<String, PurchaseOrderDraft> bySupplier = drafts.stream()
+                .collect(Collectors.toMap(PurchaseOrderDraft::getSupplierId, Function.identity()));
+        assertEquals(2, bySupplier.get("SUP-1").getLines().size());
+        assertEquals("tenant-1", bySupplier.get("SUP-1").getTenantId());
+        assertEquals(1, bySupplier.get("SUP-2").getLines().size());
+        assertEquals(0, aggregator.pendingCount());
+        verify(purchaseOrderJpaRepository, times(1)).sumQuantitiesByStatusIn(anyCollection(), eq("WH1"), anyCollection());
+    }
+
+    @Test
+    void usesPerSkuReorderPointAndQuantity() {
+        // SKU-B的补货点是5，数量7不算不足
+        aggregator.onShortage(shortage("WH1", "SKU-B", 7));
+        assertEquals(0, aggregator.pendingCount());
+
+        // SKU-A补货点20、补货量50；数量-40时至少补到补货点
+        aggregator.onShortage(shortage("WH1", "SKU-A", -40));
+        aggregator.flush();
+
+        PurchaseOrderDraft.Line line = capturedDrafts().get(0).getLines().get(0);
+        assertEquals("SKU-A", line.getSkuCode());
+        assertEquals(60, line.getQuantity());
+    }
+
+    @Test
+    void fallsBackToDefaultsWithoutPolicy() {
+        aggregator.onShortage(shortage("WH2", "SKU-X", 3));
+        aggregator.flush();
+
+        PurchaseOrderDraft draft = capturedDrafts().get(0);
+        assertEquals("DEFAULT_SUPPLIER", draft.getSupplierId());
+        assertEquals(100, draft.getLines().get(0).getQuantity());
+    }
+
+    @Test
+    void skipsSkusThatAlreadyHaveAnOpenPurchaseOrder() {
+        PurchaseOrderJpaRepository.SkuQuantity onOrder = skuQuantity("SKU-A");
+        when(purchaseOrderJpaRepository.sumQuantitiesByStatusIn(anyCollection(), eq("WH1"), anyCollection()))
+                .thenReturn(List.of(onOrder));
+        aggregator.onShortage(shortage("WH1", "SKU-A", 1));
+        aggregator.onShortage(shortage("WH1", "SKU-B", 1));
+
+        aggregator.flush();
+
+        List<PurchaseOrderDraft> drafts = capturedDrafts();
+        assertEquals(1, drafts.size());
+        assertEquals("SKU-B", drafts.get(0).getLines().get(0).getSkuCode());
+    }
+
+    @Test
+    void skuSkippedForOpenPurchaseOrderIsNotPutIntoCooldown() {
+        PurchaseOrderJpaRepository.SkuQuantity onOrder = skuQuantity("SKU-A");
+        when(purchaseOrderJpaRepository.sumQuantitiesByStatusIn(anyCollection(), eq("WH1"), anyCollection()))
+                .thenReturn(List.of(onOrder))
+                .thenReturn(List.of());
+        aggregator.onShortage(shortage("WH1", "SKU-A", 1));
+        aggregator.onShortage(shortage("WH1", "SKU-B", 1));
+        aggregator.flush();
+
+        // 已有的采购单完成后SKU-A仍不足，冷却期内也要下单
+        aggregator.onShortage(shortage("WH1", "SKU-A", 1));
+        aggregator.flush();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<PurchaseOrderDraft>> captor = ArgumentCaptor.forClass(List.class);
+        verify(purchaseApplicationService, times(2)).createPurchaseOrders(captor.capture());
+        assertEquals("SKU-A", captor.getAllValues().get(1).get(0).getLines().get(0).getSkuCode());
+    }
+
+    @Test
+    void keepsShortagesWhenAnotherNodeHoldsTheLease() {
+        when(schedulerLeaseJpaRepository.acquireLease(anyString(), anyString(), any(), any())).thenReturn(0);
+        when(schedulerLeaseJpaRepository.existsById("shortage-replenishment")).thenReturn(true);
+        aggregator.onShortage(shortage("WH1", "SKU-A", 1));
+
+        aggregator.flush();
+
+        assertEquals(1, aggregator.pendingCount());
+        verify(purchaseOrderJpaRepository, never()).sumQuantitiesByStatusIn(anyCollection(), anyString(), anyCollection());
+        verify(purchaseApplicationService, never()).createPurchaseOrders(any());
+        verify(schedulerLeaseJpaRepository, never()).releaseLease(anyString(), anyString());
+    }
+
+    @Test
+    void createsLeaseRowOnFirstFlushAndReleasesItAfterwards() {
+        when(schedulerLeaseJpaRepository.acquireLease(anyString(), anyString(), any(), any())).thenReturn(0);
+        when(schedulerLeaseJpaRepository.existsById("shortage-replenishment")).thenReturn(false);
+        when(schedulerLeaseJpaRepository.insertLease(anyString(), anyString(), any())).thenReturn(1);
+        aggregator.onShortage(shortage("WH1", "SKU-A", 1));
+
+        aggregator.flush();
+
+        // 时钟1000毫秒，租约5分钟，按UTC记录
+        verify(schedulerLeaseJpaRepository).insertLease("shortage-replenishment", OWNER,
+                LocalDateTime.of(1970, 1, 1, 0, 5, 1));
+        verify(purchaseApplicationService).createPurchaseOrders(anyList());
+        verify(schedulerLeaseJpaRepository).releaseLease("shortage-replenishment", OWNER);
+    }
+
+    @Test
+    void doesNotReorderDuringCooldownUntilStockRecovers() {
+        aggregator.onShortage(shortage("WH1", "SKU-A", 1));
+        aggregator.flush();
+
+        aggregator.onShortage(shortage("WH1", "SKU-A", 0));
+        aggregator.flush();
+        verify(purchaseApplicationService, times(1)).createPurchaseOrders(anyList());
+
+        // 库存恢复到补货点后解除限制
+        aggregator.onShortage(shortage("WH1", "SKU-A", 25));
+        aggregator.onShortage(shortage("WH1", "SKU-A", 2));
+        aggregator.flush();
+        verify(purchaseApplicationService, times(2)).createPurchaseOrders(anyList());
+
+        // 冷却期结束后再次下单
+        aggregator.onShortage(shortage("WH1", "SKU-A", 1));
+        when(clock.millis()).thenReturn(1_000L + COOLDOWN_MS);
+        aggregator.flush();
+        verify(purchaseApplicationService, times(3)).createPurchaseOrders(anyList());
+    }
+
+    @Test
+    void keepsShortagesForNextWindowWhenOrderingFails() {
+        when(purchaseApplicationService.createPurchaseOrders(anyList()))
+                .thenThrow(new IllegalStateException("db down"))
+                .thenReturn(List.of());
+        aggregator.onShortage(shortage("WH1", "SKU-A", 1));
+
+        aggregator.flush();
+        assertEquals(1, aggregator.pendingCount());
+
+        aggregator.flush();
+        assertEquals(0, aggregator.pendingCount());
+        verify(purchaseApplicationService, times(2)).createPurchaseOrders(anyList());
+    }
+
+    @Test
+    void emptyWindowDoesNothing() {
+        aggregator.flush();
+
+        verify(purchaseApplicationService, never()).createPurchaseOrders(any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<PurchaseOrderDraft> capturedDrafts() {
+        ArgumentCaptor<List<PurchaseOrderDraft>> captor = ArgumentCaptor.forClass(List.class);
+        verify(purchaseApplicationService).createPurchaseOrders(captor.capture());
+        return captor.getValue();
+    }
+
+    private static PurchaseOrderJpaRepository.SkuQuantity skuQuantity(String skuCode) {
+        return new PurchaseOrderJpaRepository.SkuQuantity() {
+            @Override
+            public String getWarehouseId() {
+                return "WH1";
+            }
+
+            @Override
+            public String getSkuCode() {
+                return skuCode;
+            }
+
+            @Override
+            public Long getQuantity() {
+                return 10L;
+            }
+        };
+    }
+
+    private static InventoryShortageEvent shortage(String warehouseId, String sku, int quantity) {
+        return InventoryShortageEvent.builder()
+                .warehouseId(warehouseId)
+                .productId("P-" + sku)
+                .sku(sku)
+                .currentQuantity(quantity)
+                .threshold(10)
+                .build();
+    }
+
+    private static ReplenishmentPolicy policy(String warehouseId, String sku, int reorderPoint, int reorderQuantity,
+                                              String supplierId) {
+        return ReplenishmentPolicy.builder()
+                .warehouseId(warehouseId)
+                .skuCode(sku)
+                .reorderPoint(reorderPoint)
+                .reorderQuantity(reorderQuantity)
+                .supplierId(supplierId)
+                .supplierName(supplierId + " Ltd")
+                .unitCost(BigDecimal.ONE)
+                .build();
+    }
+}
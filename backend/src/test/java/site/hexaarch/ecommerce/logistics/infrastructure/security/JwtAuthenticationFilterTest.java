@@ -0,0 +1,95 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.security;
+
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import site.hexaarch.ecommerce.logistics.domain.tenant.valueobject.UserStatus;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.when;
+
+/**
+ * JWT认证过滤器单元测试，断言角色和用户状态取自权限快照而不是令牌声明。
+ */
+class JwtAuthenticationFilterTest {
+    private static final String SECRET = "mySecretKeyMustBeAtLeast256BitsLongForHS512AlgorithmAndShouldContainComplexCharacters12345!";
+
+    @Mock
+    private PermissionSnapshotCache permissionSnapshotCache;
+
+    private final JwtTokenProvider jwtTokenProvider = new JwtTokenProvider(SECRET, 60000, 120000, 100);
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        filter = new JwtAuthenticationFilter(jwtTokenProvider, permissionSnapshotCache);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void grantsRolesAndPermissionsFromSnapshotInsteadOfTokenClaims() throws Exception {
+        when(permissionSnapshotCache.snapshot("tenant-1")).thenReturn(snapshot(UserStatus.ACTIVE));
+
+        Authentication authentication = authenticate(jwtTokenProvider.generateToken("alice", "tenant-1", new String[]{"ROLE_ADMIN"}));
+
+        assertEquals("alice", authentication.getName());
+        assertEquals(Set.of("ROLE_VIEWER", "order:read"), authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toSet()));
+    }
+
+    @Test
+    void doesNotAuthenticateUserDisabledAfterTokenWasIssued() throws Exception {
+        when(permissionSnapshotCache.snapshot("tenant-1")).thenReturn(snapshot(UserStatus.INACTIVE));
+
+        assertNull(authenticate(jwtTokenProvider.generateToken("alice", "tenant-1", new String[]{"ROLE_VIEWER"})));
+    }
+
+    @Test
+    void doesNotAuthenticateUserMissingFromSnapshot() throws Exception {
+        when(permissionSnapshotCache.snapshot("tenant-1")).thenReturn(PermissionSnapshot.builder("tenant-1").build());
+
+        assertNull(authenticate(jwtTokenProvider.generateToken("alice", "tenant-1", new String[]{"ROLE_VIEWER"})));
+    }
+
+    private Authentication authenticate(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        Authentication[] seen = new Authentication[1];
+        MockFilterChain chain = new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse) {
+                seen[0] = SecurityContextHolder.getContext().getAuthentication();
+            }
+        };
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        return seen[0];
+    }
+
+    private static PermissionSnapshot snapshot(UserStatus status) {
+        return PermissionSnapshot.builder("tenant-1")
+                .role("r-viewer", "VIEWER", List.of("order:read"))
+                .user("id-alice", "alice", "{noop}secret", status, List.of("r-viewer"))
+                .build();
+    }
+}
@@ -0,0 +1,119 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * JWT令牌提供者单元测试，覆盖签名校验、过期、令牌类型、声明提取和声明缓存。
+ */
+class JwtTokenProviderTest {
+    private static final String SECRET = "mySecretKeyMustBeAtLeast256BitsLongForHS512AlgorithmAndShouldContainComplexCharacters12345!";
+
+    private final JwtTokenProvider provider = new JwtTokenProvider(SECRET, 60000, 120000, 100);
+
+    @Test
+    void extractsClaimsFromValidToken() {
+        String token = provider.generateToken("alice", "tenant-1", new String[]{"ROLE_ADMIN"});
+
+        VerifiedToken verified = provider.verify(token).orElseThrow();
+
+        assertEquals("alice", verified.username());
+        assertEquals("tenant-1", verified.tenantId());
+        assertEquals(List.of("ROLE_ADMIN"), verified.roles());
+        assertTrue(provider.validateToken(token));
+        assertEquals("alice", provider.getUsernameFromToken(token));
+        assertEquals("tenant-1", provider.getTenantIdFromToken(token));
+    }
+
+    @Test
+    void readsRolesFromAuthenticationAndDefaultsTenant() {
+        User user = new User("bob", "secret", List.of(new SimpleGrantedAuthority("ROLE_PLATFORM_ADMIN")));
+        String token = provider.generateToken(new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+
+        VerifiedToken verified = provider.verify(token).orElseThrow();
+
+        assertEquals(List.of("ROLE_PLATFORM_ADMIN"), verified.roles());
+        assertEquals("default-tenant", verified.tenantId());
+    }
+
+    @Test
+    void rejectsTamperedAndForeignTokens() {
+        String token = provider.generateToken("alice", "tenant-1", new String[]{"ROLE_ADMIN"});
+        String[] parts = token.split("\\.");
+        String tampered = parts[0] + "." + parts[1] + "." + (parts[2].startsWith("A") ? "B" : "A") + parts[2].substring(1);
+        JwtTokenProvider other = new JwtTokenProvider(SECRET.replace('m', 'n'), 60000, 120000, 100);
+
+        assertFalse(provider.validateToken(tampered));
+        assertFalse(provider.validateToken(other.generateToken("alice", "tenant-1", new String[]{"ROLE_ADMIN"})));
+        assertFalse(provider.validateToken("not-a-token"));
+        assertFalse(provider.validateToken(null));
+        assertNull(provider.getUsernameFromToken("not-a-token"));
+    }
+
+    @Test
+    void rejectsRefreshTokensAndUntypedTokens() {
+        String refreshToken = provider.generateRefreshToken("alice");
+        String untyped = Jwts.builder()
+                .subject("alice")
+                .expiration(new Date(System.currentTimeMillis() + 60000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+
+        assertTrue(provider.verify(refreshToken).isEmpty());
+        assertFalse(provider.validateToken(refreshToken));
+        assertNull(provider.getUsernameFromToken(refreshToken));
+        assertFalse(provider.validateToken(untyped));
+    }
+
+    @Test
+    void rejectsExpiredTokens() {
+        JwtTokenProvider expiring = new JwtTokenProvider(SECRET, -1000, -1000, 100);
+
+        assertFalse(expiring.validateToken(expiring.generateToken("alice", "tenant-1", new String[]{"ROLE_ADMIN"})));
+    }
+
+    @Test
+    void cachesVerifiedClaimsPerToken() {
+        String token = provider.generateToken("alice", "tenant-1", new String[]{"ROLE_ADMIN"});
+
+        VerifiedToken first = provider.verify(token).orElseThrow();
+
+        assertSame(first, provider.verify(token).orElseThrow());
+    }
+
+    @Test
+    void verifiesEveryTimeWhenCacheIsDisabled() {
+        JwtTokenProvider uncached = new JwtTokenProvider(SECRET, 60000, 120000, 0);
+        String token = uncached.generateToken("alice", "tenant-1", new String[]{"ROLE_ADMIN"});
+
+        VerifiedToken first = uncached.verify(token).orElseThrow();
+        VerifiedToken second = uncached.verify(token).orElseThrow();
+
+        assertEquals(first, second);
+        assertNotSame(first, second);
+    }
+
+    @Test
+    void staysWithinCacheCapacity() {
+        JwtTokenProvider small = new JwtTokenProvider(SECRET, 60000, 120000, 2);
+        for (int i = 0; i < 10; i++) {
+            String token = small.generateToken("user-" + i, "tenant-1", new String[]{"ROLE_ADMIN"});
+            assertEquals("user-" + i, small.getUsernameFromToken(token));
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package site.hexaarch.ecommerce.logistics.infrastructure.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import site.hexaarch.ecommerce.logistics.domain.tenant.valueobject.UserStatus;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.RoleJpaEntity;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.UserJpaEntity;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.RoleJpaRepository;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.UserJpaRepository;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 租户权限快照缓存单元测试，覆盖位图权限检查、按需构建、登录查找、失效和TTL过期。
+ */
+class PermissionSnapshotCacheTest {
+
+    @Mock
+    private UserJpaRepository userJpaRepository;
+    @Mock
+    private RoleJpaRepository roleJpaRepository;
+    @Mock
+    private Clock clock;
+
+    private PermissionSnapshotCache cache;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(clock.millis()).thenReturn(0L);
+        cache = new PermissionSnapshotCache(userJpaRepository, roleJpaRepository, 60, clock);
+        when(roleJpaRepository.findWithPermissionsByTenantIdIn(List.of("tenant-1", "SYSTEM"))).thenReturn(List.of(
+                role("r-admin", "tenant-1", "ADMIN", Set.of("order:read", "order:write")),
+                role("r-viewer", "tenant-1", "VIEWER", Set.of("order:read")),
+                role("r-auditor", "SYSTEM", "AUDITOR", Set.of("finance:read"))));
+        when(userJpaRepository.findWithRoleIdsByTenantId("tenant-1")).thenReturn(List.of(
+                user("alice", "tenant-1", "ACTIVE", Set.of("r-viewer", "r-auditor")),
+                user("bob", "tenant-1", "LOCKED", Set.of("r-admin")),
+                user("carol", "tenant-1", "ACTIVE", Set.of("r-deleted"))));
+    }
+
+    @Test
+    void checksPermissionsFromSnapshotWithoutFurtherQueries() {
+        for (int i = 0; i < 100; i++) {
+            assertTrue(cache.hasPermission("tenant-1", "alice", "order:read"));
+            assertTrue(cache.hasPermission("tenant-1", "alice", "finance:read"));
+            assertFalse(cache.hasPermission("tenant-1", "alice", "order:write"));
+            assertFalse(cache.hasPermission("tenant-1", "bob", "order:write"));
+            assertFalse(cache.hasPermission("tenant-1", "carol", "order:read"));
+            assertFalse(cache.hasPermission("tenant-1", "alice", "unknown:permission"));
+        }
+
+        verify(roleJpaRepository, times(1)).findWithPermissionsByTenantIdIn(List.of("tenant-1", "SYSTEM"));
+        verify(userJpaRepository, times(1)).findWithRoleIdsByTenantId("tenant-1");
+    }
+
+    @Test
+    void findsUserByUsernameWithOneLookupOfItsTenant() {
+        when(userJpaRepository.findByUsername("alice")).thenReturn(Optional.of(user("alice", "tenant-1", "ACTIVE", Set.of())));
+
+        PermissionSnapshot.UserGrant first = cache.findUser("alice").orElseThrow();
+        PermissionSnapshot.UserGrant second = cache.findUser("alice").orElseThrow();
+        cache.findUser("bob").orElseThrow();
+
+        assertEquals(List.of("AUDITOR", "VIEWER"), first.getRoleNames());
+        assertEquals(List.of("finance:read", "order:read"), first.getPermissions());
+        assertEquals(UserStatus.LOCKED, cache.findUser("bob").orElseThrow().getStatus());
+        assertSame(first, second);
+        verify(userJpaRepository, times(1)).findByUsername("alice");
+        verify(userJpaRepository, never()).findByUsername("bob");
+    }
+
+    @Test
+    void rebuildsSnapshotAfterTenantIsInvalidated() {
+        assertFalse(cache.hasPermission("tenant-1", "alice", "order:write"));
+        when(roleJpaRepository.findWithPermissionsByTenantIdIn(List.of("tenant-1", "SYSTEM"))).thenReturn(List.of(
+                role("r-viewer", "tenant-1", "VIEWER", Set.of("order:read", "order:write"))));
+
+        cache.invalidateTenant("tenant-1");
+
+        assertTrue(cache.hasPermission("tenant-1", "alice", "order:write"));
+        assertFalse(cache.hasPermission("tenant-1", "alice", "finance:read"));
+        verify(userJpaRepository, times(2)).findWithRoleIdsByTenantId("tenant-1");
+    }
+
+    @Test
+    void systemRoleChangesInvalidateAllTenants() {
+        PermissionSnapshot before = cache.snapshot("tenant-1");
+
+        cache.invalidateTenant("SYSTEM");
+
+        assertNotSame(before, cache.snapshot("tenant-1"));
+        verify(userJpaRepository, times(2)).findWithRoleIdsByTenantId("tenant-1");
+    }
+
+    @Test
+    void rebuildsSnapshotAfterTtlSoChangesFromOtherNodesTakeEffect() {
+        PermissionSnapshot before = cache.snapshot("tenant-1");
+        when(clock.millis()).thenReturn(59_999L);
+        assertSame(before, cache.snapshot("tenant-1"));
+
+        // 其他节点修改了角色，本节点没有收到失效调用
+        when(roleJpaRepository.findWithPermissionsByTenantIdIn(List.of("tenant-1", "SYSTEM"))).thenReturn(List.of(
+                role("r-viewer", "tenant-1", "VIEWER", Set.of("order:read", "order:write"))));
+        when(clock.millis()).thenReturn(60_000L);
+
+        assertTrue(cache.hasPermission("tenant-1", "alice", "order:write"));
+        assertSame(cache.snapshot("tenant-1"), cache.snapshot("tenant-1"));
+        verify(userJpaRepository, times(2)).findWithRoleIdsByTenantId("tenant-1");
+    }
+
+    @Test
+    void deniesUsersWithMissingOrUnknownStatus() {
+        when(userJpaRepository.findWithRoleIdsByTenantId("tenant-1")).thenReturn(List.of(
+                user("dave", "tenant-1", null, Set.of("r-admin")),
+                user("erin", "tenant-1", "ARCHIVED", Set.of("r-admin"))));
+
+        assertFalse(cache.hasPermission("tenant-1", "dave", "order:read"));
+        assertFalse(cache.hasPermission("tenant-1", "erin", "order:read"));
+        assertEquals(UserStatus.INACTIVE, cache.snapshot("tenant-1").findUser("dave").orElseThrow().getStatus());
+        assertEquals(UserStatus.INACTIVE, cache.snapshot("tenant-1").findUser("erin").orElseThrow().getStatus());
+    }
+
+    private static RoleJpaEntity role(String id, String tenantId, String name, Set<String> permissions) {
+        RoleJpaEntity role = new RoleJpaEntity();
+        role.setId(id);
+        role.setTenantId(tenantId);
+        role.setName(name);
+        role.setPermissions(permissions);
+        return role;
+    }
+
+    private static UserJpaEntity user(String username, String tenantId, String status, Set<String> roleIds) {
+        UserJpaEntity user = new UserJpaEntity();
+        user.setId("id-" + username);
+        user.setUsername(username);
+        user.setPassword("{noop}secret");
+        user.setTenantId(tenantId);
+        user.setStatus(status);
+        user.setRoleIds(roleIds);
+        return user;
+    }
+}
@@ -1,20 +1,36 @@
 package site.hexaarch.ecommerce.logistics.interfaces.controller;
 
+import site.hexaarch.ecommerce.logistics.application.service.LabelBatchApplicationService;
 import site.hexaarch.ecommerce.logistics.application.service.LogisticsApplicationService;
+import site.hexaarch.ecommerce.logistics.application.service.RateShoppingApplicationService;
+import site.hexaarch.ecommerce.logistics.application.service.TrackingApplicationService;
 import site.hexaarch.ecommerce.logistics.domain.logistics.aggregate.LogisticsOrder;
+import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.LogisticsFee;
 import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.LogisticsStatus;
+import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.Parcel;
+import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.RateQuote;
+import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.RateShoppingResult;
+import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.TrackingEvent;
+import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.TrackingIngestResult;
+import site.hexaarch.ecommerce.logistics.infrastructure.label.LabelFormat;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -24,6 +40,15 @@ class LogisticsControllerTest {
     @Mock
     private LogisticsApplicationService logisticsApplicationService;
 
+    @Mock
+    private RateShoppingApplicationService rateShoppingApplicationService;
+
+    @Mock
+    private LabelBatchApplicationService labelBatchApplicationService;
+
+    @Mock
+    private TrackingApplicationService trackingApplicationService;
+
     @InjectMocks
     private LogisticsController logisticsController;
 
@@ -124,4 +149,61 @@ class LogisticsControllerTest {
                 .andExpect(jsonPath("$.code").value(200))
                 .andExpect(jsonPath("$.data.logisticsStatus").value("IN_TRANSIT"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testShopRatesForBatchOfParcels() throws Exception {
+        RateQuote economy = new RateQuote("ECONOMY", "Economy", LogisticsFee.builder().totalFee(new BigDecimal("8")).build(), 12);
+        RateQuote express = new RateQuote("EXPRESS", "Express", LogisticsFee.builder().totalFee(new BigDecimal("25")).build(), 3);
+        RateShoppingResult usResult = new RateShoppingResult(new Parcel(1, 0, "US"), List.of(express, economy), List.of());
+        RateShoppingResult deResult = new RateShoppingResult(new Parcel(2, 0, "DE"), List.of(), List.of("EXPRESS"));
+
+        when(rateShoppingApplicationService.shop(anyList())).thenReturn(List.of(usResult, deResult));
+
+        mockMvc.perform(post("/api/logistics/rates")
+                .contentType("application/json")
+                .content("{\"parcels\":[{\"weight\":1,\"country\":\"US\"},{\"weight\":2,\"country\":\"DE\"}]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value(200))
+                .andExpect(jsonPath("$.data.length()").value(2))
+                .andExpect(jsonPath("$.data[0].cheapest.channelId").value("ECONOMY"))
+                .andExpect(jsonPath("$.data[0].fastest.channelId").value("EXPRESS"))
+                .andExpect(jsonPath("$.data[1].unavailableChannelIds[0]").value("EXPRESS"));
+    }
+
+    @Test
+    void testGenerateLabelsStreamsAttachment() throws Exception {
+        when(labelBatchApplicationService.prepareBatch(List.of("LO-1", "LO-2"))).thenReturn(List.of("LO-1", "LO-2"));
+        doAnswer(invocation -> {
+            OutputStream outputStream = invocation.getArgument(3);
+            outputStream.write("^XA^XZ^XA^XZ".getBytes(StandardCharsets.UTF_8));
+            return 2;
+        }).when(labelBatchApplicationService).writeLabels(eq(List.of("LO-1", "LO-2")), eq(LabelFormat.ZPL), eq(false), any());
+
+        MvcResult result = mockMvc.perform(post("/api/logistics/labels")
+                        .contentType("application/json")
+                        .content("{\"logisticsOrderIds\":[\"LO-1\",\"LO-2\"]}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/zpl"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"labels.zpl\""))
+                .andExpect(content().string("^XA^XZ^XA^XZ"));
+    }
+
+    @Test
+    void testIngestTrackingEvents() throws Exception {
+        TrackingEvent event = new TrackingEvent("SF001", LogisticsStatus.IN_TRANSIT, LocalDateTime.of(2026, 10, 1, 8, 0), "Shenzhen Hub", null);
+        when(trackingApplicationService.ingest(List.of(event))).thenReturn(new TrackingIngestResult(1, 1, 1, 0));
+
+        mockMvc.perform(post("/api/logistics/tracking-events")
+                        .contentType("application/json")
+                        .content("{\"events\":[{\"trackingNumber\":\"SF001\",\"status\":\"IN_TRANSIT\","
+                                + "\"occurredAt\":\"2026-10-01T08:00:00\",\"location\":\"Shenzhen Hub\"}]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value(200))
+                .andExpect(jsonPath("$.data.received").value(1))
+                .andExpect(jsonPath("$.data.statusUpdates").value(1));
+    }
+}
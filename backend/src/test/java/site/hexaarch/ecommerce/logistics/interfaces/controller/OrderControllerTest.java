@@ -1,27 +1,37 @@
 package site.hexaarch.ecommerce.logistics.interfaces.controller;
 
 import site.hexaarch.ecommerce.logistics.application.service.OrderApplicationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import site.hexaarch.ecommerce.logistics.domain.order.aggregate.Order;
+import site.hexaarch.ecommerce.logistics.domain.order.valueobject.OrderCursor;
+import site.hexaarch.ecommerce.logistics.domain.order.valueobject.OrderPage;
 import site.hexaarch.ecommerce.logistics.domain.order.valueobject.OrderStatus;
 import site.hexaarch.ecommerce.logistics.domain.order.valueobject.PaymentInfo;
 import site.hexaarch.ecommerce.logistics.domain.order.valueobject.ShippingAddress;
 import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.mapper.OrderMapper;
 import site.hexaarch.ecommerce.logistics.interfaces.dto.order.CreateOrderDto;
+import site.hexaarch.ecommerce.logistics.interfaces.dto.order.OrderDto;
 import site.hexaarch.ecommerce.logistics.interfaces.dto.order.OrderItemDto;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -34,6 +44,9 @@ class OrderControllerTest {
     @Mock
     private OrderMapper orderMapper;
 
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
     @InjectMocks
     private OrderController orderController;
 
@@ -163,4 +176,57 @@ class OrderControllerTest {
                 .andExpect(jsonPath("$.code").value(200))
                 .andExpect(jsonPath("$.data.length()").value(1));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testListOrdersReturnsNextCursor() throws Exception {
+        OrderCursor nextCursor = OrderCursor.of(LocalDateTime.of(2025, 1, 1, 12, 0), "ORDER-50");
+        OrderDto orderDto = new OrderDto();
+        orderDto.setOrderId("ORDER-50");
+
+        when(orderApplicationService.findOrderPage(eq(OrderStatus.PENDING), isNull(), eq("abc"), eq(20)))
+                .thenReturn(new OrderPage(List.of(), nextCursor));
+        when(orderMapper.toDtoList(any())).thenReturn(List.of(orderDto));
+
+        mockMvc.perform(get("/api/orders")
+                .param("status", "PENDING")
+                .param("cursor", "abc")
+                .param("limit", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.items.length()").value(1))
+                .andExpect(jsonPath("$.data.nextCursor").value(nextCursor.encode()))
+                .andExpect(jsonPath("$.data.hasNext").value(true));
+    }
+
+    @Test
+    void testExportOrdersWritesOneJsonObjectPerLine() throws Exception {
+        Order first = Order.builder().id("ORDER-1").orderNumber("ORD-1").customerId("C1").orderStatus(OrderStatus.PENDING).build();
+        Order second = Order.builder().id("ORDER-2").orderNumber("ORD-2").customerId("C1").orderStatus(OrderStatus.PENDING).build();
+        OrderDto firstDto = new OrderDto();
+        firstDto.setOrderId("ORDER-1");
+        OrderDto secondDto = new OrderDto();
+        secondDto.setOrderId("ORDER-2");
+
+        doAnswer(invocation -> {
+            Consumer<Order> consumer = invocation.getArgument(1);
+            consumer.accept(first);
+            consumer.accept(second);
+            return null;
+        }).when(orderApplicationService).exportOrders(isNull(), any());
+        when(orderMapper.toDto(first)).thenReturn(firstDto);
+        when(orderMapper.toDto(second)).thenReturn(secondDto);
+
+        MvcResult result = mockMvc.perform(get("/api/orders/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("ORDER-1", objectMapper.readTree(lines[0]).get("orderId").asText());
+        assertEquals("ORDER-2", objectMapper.readTree(lines[1]).get("orderId").asText());
+    }
+}
@@ -0,0 +1,138 @@
+#!/usr/bin/env python3
+"""对比JMH JSON结果与基线，发现性能回退时以非零状态码退出。
+
+只有变差超过阈值且两次结果的99.9%置信区间（score±scoreError）不重叠时才判定为回退，
+区间重叠的变化属于测量噪声，标记为 NOISE 但不导致失败。
+基线为空或本次结果没有任何基准能与基线对比时同样失败，避免回归检查形同虚设；
+基线中缺少的基准（NEW）会醒目提示，加 --fail-on-new 时也视为失败。
+
+用法:
+    python3 scripts/compare.py target/results.json                   # 与 baseline/results.json 对比
+    python3 scripts/compare.py target/results.json --threshold 0.15  # 自定义回退阈值（默认10%）
+    python3 scripts/compare.py target/results.json --fail-on-new     # 基线缺少某个基准时失败
+    python3 scripts/compare.py target/results.json --update          # 用本次结果覆盖基线
+"""
+import argparse
+import json
+import math
+import shutil
+import sys
+from pathlib import Path
+
+DEFAULT_BASELINE = Path(__file__).resolve().parent.parent / "baseline" / "results.json"
+
+# 这些模式下分数越高越好，其余（AverageTime、SampleTime、SingleShotTime）越低越好
+HIGHER_IS_BETTER = {"thrpt"}
+
+
+def load(path):
+    with open(path, encoding="utf-8") as f:
+        return {key_of(entry): entry for entry in json.load(f)}
+
+
+def key_of(entry):
+    params = entry.get("params") or {}
+    suffix = ",".join(f"{name}={params[name]}" for name in sorted(params))
+    return f"{entry['benchmark']}({suffix})" if suffix else entry["benchmark"]
+
+
+def change_of(baseline, current):
+    """返回相对变化，正数表示变差。"""
+    base_score = baseline["primaryMetric"]["score"]
+    score = current["primaryMetric"]["score"]
+    if base_score == 0:
+        return 0.0
+    change = (score - base_score) / base_score
+    return -change if current["mode"] in HIGHER_IS_BETTER else change
+
+
+def interval_of(entry):
+    """返回 (下界, 上界)，单次迭代等情况下 scoreError 为 NaN，按0处理。"""
+    metric = entry["primaryMetric"]
+    error = metric.get("scoreError")
+    if not isinstance(error, (int, float)) or math.isnan(error):
+        error = 0.0
+    return metric["score"] - error, metric["score"] + error
+
+
+def overlaps(baseline, current):
+    """两次结果的置信区间是否重叠，重叠时无法区分变化与测量噪声。"""
+    base_low, base_high = interval_of(baseline)
+    low, high = interval_of(current)
+    if current["mode"] in HIGHER_IS_BETTER:
+        return high >= base_low
+    return low <= base_high
+
+
+def main():
+    parser = argparse.ArgumentParser(description="Compare JMH results against the checked-in baseline.")
+    parser.add_argument("results", help="JMH JSON results, e.g. produced with -rf json -rff target/results.json")
+    parser.add_argument("--baseline", default=str(DEFAULT_BASELINE), help="baseline JSON file")
+    parser.add_argument("--threshold", type=float, default=0.10, help="allowed relative slowdown, default 0.10")
+    parser.add_argument("--fail-on-new", action="store_true", help="fail when a benchmark is missing from the baseline")
+    parser.add_argument("--update", action="store_true", help="overwrite the baseline with the given results")
+    args = parser.parse_args()
+
+    current = load(args.results)
+    if not current:
+        print(f"ERROR: no benchmark results in {args.results}", file=sys.stderr)
+        return 2
+
+    if args.update:
+        shutil.copyfile(args.results, args.baseline)
+        print(f"baseline updated: {args.baseline} ({len(current)} benchmarks)")
+        return 0
+
+    baseline = load(args.baseline)
+    if not baseline:
+        print(f"ERROR: baseline {args.baseline} is empty, nothing to compare against.\n"
+              f"Run the benchmarks on the reference machine and refresh it with --update.", file=sys.stderr)
+        return 2
+    regressions = 0
+    noise = 0
+    new = []
+
+    print(f"{'benchmark':<90} {'baseline':>12} {'current':>12} {'change':>8}  unit")
+    for key in sorted(current):
+        entry = current[key]
+        metric = entry["primaryMetric"]
+        if key not in baseline:
+            new.append(key)
+            print(f"{key:<90} {'-':>12} {metric['score']:>12.3f} {'NEW':>8}  {metric['scoreUnit']}")
+            continue
+        change = change_of(baseline[key], entry)
+        flag = ""
+        if change > args.threshold:
+            if overlaps(baseline[key], entry):
+                noise += 1
+                flag = "  NOISE"
+            else:
+                regressions += 1
+                flag = "  REGRESSION"
+        print(f"{key:<90} {baseline[key]['primaryMetric']['score']:>12.3f} {metric['score']:>12.3f} "
+              f"{change:>+8.1%}  {metric['scoreUnit']}{flag}")
+
+    for key in sorted(set(baseline) - set(current)):
+        print(f"{key:<90} missing from current results")
+
+    if len(new) == len(current):
+        print("\nERROR: none of the benchmarks exist in the baseline, nothing was compared", file=sys.stderr)
+        return 2
+    if new:
+        print(f"\nWARNING: {len(new)} benchmark(s) missing from the baseline were not checked; "
+              f"refresh the baseline with --update", file=sys.stderr)
+        if args.fail_on_new:
+            return 1
+    if noise:
+        print(f"\n{noise} benchmark(s) slowed down by more than {args.threshold:.0%} "
+              f"but their confidence intervals overlap the baseline, treated as noise")
+    if regressions:
+        print(f"\n{regressions} benchmark(s) regressed by more than {args.threshold:.0%} "
+              f"outside the confidence interval")
+        return 1
+    print("\nno regressions")
+    return 0
+
+
+if __name__ == "__main__":
+    sys.exit(main())
@@ -0,0 +1,132 @@
+package site.hexaarch.ecommerce.logistics.benchmarks.logistics;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import site.hexaarch.ecommerce.logistics.domain.logistics.entity.LogisticsChannel;
+import site.hexaarch.ecommerce.logistics.domain.logistics.repository.LogisticsChannelRepository;
+import site.hexaarch.ecommerce.logistics.domain.logistics.service.LogisticsChannelService;
+import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.LogisticsFee;
+import site.hexaarch.ecommerce.logistics.domain.logistics.valueobject.PriceRule;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 物流费用计算基准测试，衡量单个渠道在不同价格规则数量下的单次报价开销。
+ * 渠道仓储使用内存实现，结果不包含数据库访问耗时。
+ *
+ * @author kenyon
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+@State(Scope.Thread)
+public class LogisticsFeeCalculationBenchmark {
+
+    private static final String CHANNEL_ID = "CH-BENCH";
+    private static final String[] COUNTRIES = {"CN", "US", "DE", "JP"};
+
+    @Param({"10", "100"})
+    private int ruleCount;
+
+    private LogisticsChannelService logisticsChannelService;
+    private double[] weights;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // 每个国家一组连续的重量区间，每个区间宽1kg
+        int rulesPerCountry = Math.max(1, ruleCount / COUNTRIES.length);
+        List<PriceRule> priceRules = new ArrayList<>(ruleCount);
+        for (String country : COUNTRIES) {
+            for (int i = 0; i < rulesPerCountry; i++) {
+                priceRules.add(PriceRule.builder()
+                        .ruleId(country + "-" + i)
+                        .country(country)
+                        .weightRange(PriceRule.WeightRange.builder().minWeight(i).maxWeight(i + 1).unit("kg").build())
+                        .price(BigDecimal.valueOf(10 + i))
+                        .currency("CNY")
+                        .build());
+            }
+        }
+        LogisticsChannel channel = LogisticsChannel.builder()
+                .channelId(CHANNEL_ID)
+                .channelName("Benchmark Express")
+                .countries(List.of(COUNTRIES))
+                .priceRules(priceRules)
+                .active(true)
+                .build();
+
+        logisticsChannelService = new LogisticsChannelService(new InMemoryLogisticsChannelRepository(channel));
+
+        weights = new double[1024];
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = (i * 7919 % (rulesPerCountry * 100)) / 100.0;
+        }
+    }
+
+    @Benchmark
+    public LogisticsFee calculateFee() {
+        cursor = (cursor + 1) & (weights.length - 1);
+        return logisticsChannelService.calculateFee(CHANNEL_ID, weights[cursor], 0, "CN");
+    }
+
+    /**
+     * 基于内存Map的物流渠道仓储，仅用于基准测试。
+     */
+    private static final class InMemoryLogisticsChannelRepository implements LogisticsChannelRepository {
+        private final Map<String, LogisticsChannel> channels = new ConcurrentHashMap<>();
+
+        private InMemoryLogisticsChannelRepository(LogisticsChannel channel) {
+            channels.put(channel.getChannelId(), channel);
+        }
+
+        @Override
+        public LogisticsChannel save(LogisticsChannel logisticsChannel) {
+            channels.put(logisticsChannel.getChannelId(), logisticsChannel);
+            return logisticsChannel;
+        }
+
+        @Override
+        public Optional<LogisticsChannel> findById(String id) {
+            return Optional.ofNullable(channels.get(id));
+        }
+
+        @Override
+        public List<LogisticsChannel> findActiveChannels() {
+            return channels.values().stream().filter(LogisticsChannel::isActive).toList();
+        }
+
+        @Override
+        public List<LogisticsChannel> findByCountry(String country) {
+            return channels.values().stream().filter(channel -> channel.supportsCountry(country)).toList();
+        }
+
+        @Override
+        public List<LogisticsChannel> findAll() {
+            return new ArrayList<>(channels.values());
+        }
+
+        @Override
+        public void delete(String id) {
+            channels.remove(id);
+        }
+    }
+}
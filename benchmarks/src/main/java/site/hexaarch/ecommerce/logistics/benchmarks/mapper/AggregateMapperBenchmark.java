@@ -0,0 +1,269 @@
+package site.hexaarch.ecommerce.logistics.benchmarks.mapper;
+
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import site.hexaarch.ecommerce.logistics.domain.logistics.aggregate.LogisticsOrder;
+import site.hexaarch.ecommerce.logistics.domain.order.aggregate.Order;
+import site.hexaarch.ecommerce.logistics.domain.product.aggregate.Product;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.aggregate.Warehouse;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.InventoryRecordJpaEntity;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.InventoryStatusJpaEntity;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.LogisticsChannelJpaEntity;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.LogisticsFeeJpaEntity;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.LogisticsOrderJpaEntity;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.LogisticsStatusJpaEntity;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.OrderItemJpaEntity;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.OrderJpaEntity;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.OrderStatusJpaEntity;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.PaymentInfoJpaEntity;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.ProductJpaEntity;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.ShippingAddressJpaEntity;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.SkuJpaEntity;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.entity.WarehouseJpaEntity;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.mapper.LogisticsOrderMapper;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.mapper.OrderMapper;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.mapper.ProductMapper;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.mapper.WarehouseMapper;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 聚合根映射开销基准测试，对比原逐字段反射赋值与重建API直接映射的单实体开销。
+ * 每次调用映射一个JPA实体，结果即为每个实体的平均映射耗时。
+ *
+ * @author kenyon
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+@State(Scope.Thread)
+public class AggregateMapperBenchmark {
+
+    @Param({"1", "10"})
+    private int childCount;
+
+    private OrderMapper orderMapper;
+    private WarehouseMapper warehouseMapper;
+    private LogisticsOrderMapper logisticsOrderMapper;
+    private ProductMapper productMapper;
+
+    private OrderJpaEntity orderJpaEntity;
+    private WarehouseJpaEntity warehouseJpaEntity;
+    private LogisticsOrderJpaEntity logisticsOrderJpaEntity;
+    private ProductJpaEntity productJpaEntity;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        orderMapper = Mappers.getMapper(OrderMapper.class);
+        warehouseMapper = Mappers.getMapper(WarehouseMapper.class);
+        logisticsOrderMapper = Mappers.getMapper(LogisticsOrderMapper.class);
+        productMapper = Mappers.getMapper(ProductMapper.class);
+
+        orderJpaEntity = createOrderJpaEntity();
+        warehouseJpaEntity = createWarehouseJpaEntity();
+        logisticsOrderJpaEntity = createLogisticsOrderJpaEntity();
+        productJpaEntity = createProductJpaEntity();
+    }
+
+    @Benchmark
+    public Order orderReflective() throws ReflectiveOperationException {
+        return reflectiveOrder(orderJpaEntity);
+    }
+
+    @Benchmark
+    public Order orderDirect() {
+        return orderMapper.toDomainAggregate(orderJpaEntity);
+    }
+
+    @Benchmark
+    public Warehouse warehouseDirect() {
+        return warehouseMapper.toDomainAggregate(warehouseJpaEntity);
+    }
+
+    @Benchmark
+    public LogisticsOrder logisticsOrderDirect() {
+        return logisticsOrderMapper.toDomainAggregate(logisticsOrderJpaEntity);
+    }
+
+    @Benchmark
+    public Product productDirect() {
+        return productMapper.toDomainAggregate(productJpaEntity);
+    }
+
+    /**
+     * 订单往返映射：领域模型转JPA实体再还原为领域模型。
+     */
+    @Benchmark
+    public Order orderRoundTrip() {
+        return orderMapper.toDomainAggregate(orderMapper.toJpaEntity(orderMapper.toDomainAggregate(orderJpaEntity)));
+    }
+
+    /**
+     * 仓库往返映射：领域模型转JPA实体再还原为领域模型。
+     */
+    @Benchmark
+    public Warehouse warehouseRoundTrip() {
+        return warehouseMapper.toDomainAggregate(warehouseMapper.toJpaEntity(warehouseMapper.toDomainAggregate(warehouseJpaEntity)));
+    }
+
+    /**
+     * 原OrderMapper.toDomainAggregate的反射实现，作为对比基线保留。
+     */
+    private Order reflectiveOrder(OrderJpaEntity entity) throws ReflectiveOperationException {
+        Constructor<Order> constructor = Order.class.getDeclaredConstructor();
+        constructor.setAccessible(true);
+        Order order = constructor.newInstance();
+        setField(order, "id", entity.getId());
+        setField(order, "orderNumber", entity.getOrderNumber());
+        setField(order, "orderStatus", orderMapper.orderStatusFromJpaEntity(entity.getStatus()));
+        setField(order, "shippingAddress", orderMapper.toDomainValueObject(entity.getShippingAddress()));
+        setField(order, "paymentInfo", orderMapper.toDomainValueObject(entity.getPaymentInfo()));
+        setField(order, "orderItems", orderMapper.toDomainEntityList(entity.getOrderItems()));
+        setField(order, "createdAt", orderMapper.longToLocalDateTime(entity.getCreatedAt()));
+        setField(order, "updatedAt", orderMapper.longToLocalDateTime(entity.getUpdatedAt()));
+        setField(order, "domainEvents", new ArrayList<>());
+        return order;
+    }
+
+    private static void setField(Object target, String name, Object value) throws ReflectiveOperationException {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+
+    private OrderJpaEntity createOrderJpaEntity() {
+        OrderJpaEntity entity = new OrderJpaEntity();
+        entity.setId("ORD-BENCH");
+        entity.setOrderNumber("NO-BENCH");
+        entity.setCustomerId("CUST-BENCH");
+        entity.setStatus(OrderStatusJpaEntity.CONFIRMED);
+        entity.setCreatedAt(System.currentTimeMillis());
+        entity.setUpdatedAt(System.currentTimeMillis());
+
+        ShippingAddressJpaEntity shippingAddress = new ShippingAddressJpaEntity();
+        shippingAddress.setRecipientName("Benchmark");
+        shippingAddress.setAddressLine1("1 Bench Street");
+        shippingAddress.setCity("Shenzhen");
+        shippingAddress.setStateProvince("Guangdong");
+        shippingAddress.setPostalCode("518000");
+        shippingAddress.setCountry("CN");
+        shippingAddress.setPhoneNumber("13800000000");
+        entity.setShippingAddress(shippingAddress);
+
+        PaymentInfoJpaEntity paymentInfo = new PaymentInfoJpaEntity();
+        paymentInfo.setPaymentMethod("CARD");
+        paymentInfo.setPaymentStatus("PAID");
+        paymentInfo.setTransactionId("TX-BENCH");
+        paymentInfo.setAmount(BigDecimal.valueOf(100));
+        entity.setPaymentInfo(paymentInfo);
+
+        List<OrderItemJpaEntity> items = new ArrayList<>(childCount);
+        for (int i = 0; i < childCount; i++) {
+            OrderItemJpaEntity item = new OrderItemJpaEntity();
+            item.setId("ITEM-" + i);
+            item.setProductName("Product " + i);
+            item.setSkuCode("SKU-" + i);
+            item.setQuantity(1);
+            item.setUnitPrice(10.0);
+            item.setTotalPrice(10.0);
+            items.add(item);
+        }
+        entity.setOrderItems(items);
+        return entity;
+    }
+
+    private WarehouseJpaEntity createWarehouseJpaEntity() {
+        WarehouseJpaEntity entity = new WarehouseJpaEntity();
+        entity.setId("WH-BENCH");
+        entity.setWarehouseName("Benchmark Warehouse");
+        entity.setWarehouseCode("WH-BENCH");
+        entity.setAddress("1 Bench Street");
+        entity.setCapacity(1000);
+        entity.setActive(true);
+        entity.setCreatedAt(LocalDateTime.now());
+        entity.setUpdatedAt(LocalDateTime.now());
+        entity.setLocations(new ArrayList<>());
+
+        List<InventoryRecordJpaEntity> records = new ArrayList<>(childCount);
+        for (int i = 0; i < childCount; i++) {
+            InventoryRecordJpaEntity record = new InventoryRecordJpaEntity();
+            record.setId("INV-" + i);
+            record.setSkuCode("SKU-" + i);
+            record.setProductId("P-" + i);
+            record.setWarehouse(entity);
+            record.setQuantity(100);
+            record.setStatus(InventoryStatusJpaEntity.NORMAL);
+            record.setLastUpdated(System.currentTimeMillis());
+            records.add(record);
+        }
+        entity.setInventoryRecords(records);
+        return entity;
+    }
+
+    private LogisticsOrderJpaEntity createLogisticsOrderJpaEntity() {
+        LogisticsChannelJpaEntity channel = new LogisticsChannelJpaEntity();
+        channel.setId("CH-BENCH");
+        channel.setChannelName("Benchmark Express");
+
+        LogisticsFeeJpaEntity fee = new LogisticsFeeJpaEntity();
+        fee.setId("FEE-BENCH");
+        fee.setBaseFee(10.0);
+        fee.setWeightFee(2.5);
+        fee.setTotalFee(12.5);
+        fee.setCurrency("CNY");
+
+        LogisticsOrderJpaEntity entity = new LogisticsOrderJpaEntity();
+        entity.setId("LO-BENCH");
+        entity.setOrderId("ORD-BENCH");
+        entity.setLogisticsChannel(channel);
+        entity.setStatus(LogisticsStatusJpaEntity.IN_TRANSIT);
+        entity.setLogisticsFee(fee);
+        entity.setTrackingNumber("TN-BENCH");
+        entity.setCreatedAt(System.currentTimeMillis());
+        entity.setUpdatedAt(System.currentTimeMillis());
+        return entity;
+    }
+
+    private ProductJpaEntity createProductJpaEntity() {
+        ProductJpaEntity entity = new ProductJpaEntity();
+        entity.setId("PRD-BENCH");
+        entity.setName("Benchmark Product");
+        entity.setDescription("Benchmark");
+        entity.setCategoryId("CAT-BENCH");
+        entity.setCategoryName("Benchmark Category");
+        entity.setActive(true);
+
+        List<SkuJpaEntity> skus = new ArrayList<>(childCount);
+        for (int i = 0; i < childCount; i++) {
+            SkuJpaEntity sku = new SkuJpaEntity();
+            sku.setId("SKU-ID-" + i);
+            sku.setSkuCode("SKU-" + i);
+            sku.setSkuName("SKU-" + i);
+            sku.setPrice(10.0);
+            sku.setWeight(500.0);
+            sku.setProduct(entity);
+            skus.add(sku);
+        }
+        entity.setSkus(skus);
+        return entity;
+    }
+}
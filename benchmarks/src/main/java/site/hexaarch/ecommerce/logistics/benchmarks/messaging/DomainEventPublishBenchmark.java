@@ -0,0 +1,138 @@
+package site.hexaarch.ecommerce.logistics.benchmarks.messaging;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.aggregate.Warehouse;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.entity.InventoryRecord;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.valueobject.InventoryMovement;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.valueobject.InventoryStatus;
+import site.hexaarch.ecommerce.logistics.infrastructure.messaging.DomainEventPublisher;
+import site.hexaarch.ecommerce.logistics.infrastructure.messaging.EventRouteResolver;
+import site.hexaarch.ecommerce.logistics.infrastructure.persistence.jpa.repository.outbox.OutboxEventJpaRepository;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 领域事件发布开销基准测试，对比原反射读取domainEvents字段加类名字符串匹配路由，
+ * 与DomainEventSource契约加ClassValue缓存路由的分发开销，并给出包含序列化和写发件箱的完整发布开销。
+ *
+ * @author kenyon
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+@State(Scope.Thread)
+public class DomainEventPublishBenchmark {
+
+    @Param({"1", "10"})
+    private int eventCount;
+
+    private Warehouse warehouse;
+    private List<Object> events;
+    private EventRouteResolver eventRouteResolver;
+    private DomainEventPublisher domainEventPublisher;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        warehouse = Warehouse.builder()
+                .warehouseId("WH-BENCH")
+                .tenantId("default-tenant")
+                .warehouseName("Benchmark Warehouse")
+                .warehouseCode("WH-BENCH")
+                .capacity(100)
+                .active(true)
+                .build();
+        warehouse.addInventoryRecord(InventoryRecord.builder()
+                .inventoryId("INV-BENCH")
+                .warehouseId("WH-BENCH")
+                .productId("P-BENCH")
+                .sku("SKU-BENCH")
+                .quantity(50)
+                .inventoryStatus(InventoryStatus.NORMAL)
+                .build());
+        for (int i = 0; i < eventCount; i++) {
+            warehouse.updateInventory("P-BENCH", 1, InventoryMovement.MovementType.ADJUSTMENT, "benchmark");
+        }
+        events = new ArrayList<>(warehouse.getDomainEvents());
+        warehouse.clearDomainEvents();
+
+        eventRouteResolver = new EventRouteResolver();
+        OutboxEventJpaRepository outboxEventJpaRepository = (OutboxEventJpaRepository) Proxy.newProxyInstance(
+                OutboxEventJpaRepository.class.getClassLoader(),
+                new Class<?>[]{OutboxEventJpaRepository.class},
+                (proxy, method, args) -> "saveAll".equals(method.getName()) ? args[0] : null);
+        domainEventPublisher = new DomainEventPublisher(event -> {
+        }, outboxEventJpaRepository, JsonMapper.builder().findAndAddModules().build(), eventRouteResolver);
+    }
+
+    /**
+     * 原实现：反射读取domainEvents字段，按类名String.contains链确定主题。
+     */
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public void reflectiveDispatch(Blackhole blackhole) throws ReflectiveOperationException {
+        warehouse.getDomainEvents().addAll(events);
+        Field domainEventsField = warehouse.getClass().getDeclaredField("domainEvents");
+        domainEventsField.setAccessible(true);
+        List<Object> pending = (List<Object>) domainEventsField.get(warehouse);
+        for (Object event : pending) {
+            blackhole.consume(legacyTopicFor(event));
+        }
+        pending.clear();
+    }
+
+    /**
+     * 新实现：通过DomainEventSource契约读取事件，ClassValue缓存的路由表确定主题。
+     */
+    @Benchmark
+    public void contractDispatch(Blackhole blackhole) {
+        warehouse.getDomainEvents().addAll(events);
+        for (Object event : warehouse.getDomainEvents()) {
+            blackhole.consume(eventRouteResolver.resolve(event).getTopic());
+        }
+        warehouse.clearDomainEvents();
+    }
+
+    /**
+     * 完整发布路径：分发、JSON序列化并构造发件箱记录（仓库写入为空操作）。
+     */
+    @Benchmark
+    public void publishToOutbox() {
+        warehouse.getDomainEvents().addAll(events);
+        domainEventPublisher.publishEventsFrom(warehouse);
+    }
+
+    private static String legacyTopicFor(Object event) {
+        String eventClassName = event.getClass().getName();
+        if (eventClassName.contains("order.event")) {
+            return "order-events";
+        } else if (eventClassName.contains("logistics.event")) {
+            return "logistics-events";
+        } else if (eventClassName.contains("warehouse.event")) {
+            return "inventory-events";
+        } else if (eventClassName.contains("finance.event")) {
+            return "finance-events";
+        } else if (eventClassName.contains("purchase.event")) {
+            return "purchase-events";
+        }
+        return null;
+    }
+}
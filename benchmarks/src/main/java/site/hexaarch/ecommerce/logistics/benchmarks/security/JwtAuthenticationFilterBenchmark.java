@@ -0,0 +1,122 @@
+package site.hexaarch.ecommerce.logistics.benchmarks.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.context.SecurityContextHolder;
+import site.hexaarch.ecommerce.logistics.domain.tenant.valueobject.UserStatus;
+import site.hexaarch.ecommerce.logistics.infrastructure.security.JwtAuthenticationFilter;
+import site.hexaarch.ecommerce.logistics.infrastructure.security.JwtTokenProvider;
+import site.hexaarch.ecommerce.logistics.infrastructure.security.PermissionSnapshot;
+import site.hexaarch.ecommerce.logistics.infrastructure.security.PermissionSnapshotCache;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT认证过滤器吞吐量基准测试，4个线程并发处理携带同一令牌的请求，
+ * 对比每次验签解析与命中声明缓存两种情况下过滤器的吞吐量。用户状态和权限取自已缓存的租户权限快照。
+ *
+ * @author kenyon
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+@Threads(4)
+@State(Scope.Benchmark)
+public class JwtAuthenticationFilterBenchmark {
+
+    /**
+     * 声明缓存容量，0表示每次都验签和解析
+     */
+    @Param({"0", "10000"})
+    private int claimsCacheSize;
+
+    private JwtAuthenticationFilter filter;
+    private String authorization;
+    private final FilterChain chain = (request, response) -> {
+    };
+    private final HttpServletResponse response = proxy(HttpServletResponse.class, Map.of());
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        JwtTokenProvider jwtTokenProvider = new JwtTokenProvider(JwtTokenProviderBenchmark.SECRET, 86400000L, 604800000L,
+                claimsCacheSize);
+        PermissionSnapshot snapshot = PermissionSnapshot.builder("default-tenant")
+                .role("r-admin", "ADMIN", List.of("order:read", "order:write"))
+                .role("r-warehouse", "WAREHOUSE", List.of("inventory:read", "inventory:write"))
+                .user("u-benchmark", "benchmark", "{noop}secret", UserStatus.ACTIVE, List.of("r-admin", "r-warehouse"))
+                .build();
+        // 只测量快照命中后的过滤器开销，不访问仓储
+        PermissionSnapshotCache permissionSnapshotCache = new PermissionSnapshotCache(null, null, 60) {
+            @Override
+            public PermissionSnapshot snapshot(String tenantId) {
+                return snapshot;
+            }
+        };
+        filter = new JwtAuthenticationFilter(jwtTokenProvider, permissionSnapshotCache);
+        authorization = "Bearer " + jwtTokenProvider.generateToken("benchmark", "default-tenant",
+                new String[]{"ROLE_ADMIN", "ROLE_WAREHOUSE"});
+    }
+
+    @Benchmark
+    public Object authenticate() throws Exception {
+        HttpServletRequest request = proxy(HttpServletRequest.class, Map.of("Authorization", authorization));
+        filter.doFilter(request, response, chain);
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    /**
+     * 最小化的请求/响应代理：只返回给定请求头，请求属性存放在Map中，其余方法返回默认值。
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Map<String, String> headers) {
+        Map<String, Object> attributes = new HashMap<>();
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getHeader":
+                    return headers.get((String) args[0]);
+                case "getAttribute":
+                    return attributes.get((String) args[0]);
+                case "setAttribute":
+                    attributes.put((String) args[0], args[1]);
+                    return null;
+                case "removeAttribute":
+                    attributes.remove((String) args[0]);
+                    return null;
+                default:
+                    Class<?> returnType = method.getReturnType();
+                    if (returnType == boolean.class) {
+                        return false;
+                    }
+                    if (returnType == int.class) {
+                        return 0;
+                    }
+                    if (returnType == long.class) {
+                        return 0L;
+                    }
+                    return null;
+            }
+        });
+    }
+}
@@ -0,0 +1,63 @@
+package site.hexaarch.ecommerce.logistics.benchmarks.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import site.hexaarch.ecommerce.logistics.infrastructure.security.JwtTokenProvider;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT令牌生成与校验基准测试，衡量每个请求在认证链路上的令牌处理开销。
+ *
+ * @author kenyon
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+@State(Scope.Thread)
+public class JwtTokenProviderBenchmark {
+
+    static final String SECRET = "mySecretKeyMustBeAtLeast256BitsLongForHS512AlgorithmAndShouldContainComplexCharacters12345!";
+    private static final String[] ROLES = {"ROLE_ADMIN", "ROLE_WAREHOUSE"};
+
+    private JwtTokenProvider jwtTokenProvider;
+    private String token;
+
+    /**
+     * 声明缓存容量，0表示每次都验签和解析
+     */
+    @Param({"0", "10000"})
+    private int claimsCacheSize;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // 与application.yml默认值保持一致
+        jwtTokenProvider = new JwtTokenProvider(SECRET, 86400000L, 604800000L, claimsCacheSize);
+        token = jwtTokenProvider.generateToken("benchmark", "default-tenant", ROLES);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtTokenProvider.generateToken("benchmark", "default-tenant", ROLES);
+    }
+
+    @Benchmark
+    public void validateToken(Blackhole blackhole) {
+        blackhole.consume(jwtTokenProvider.validateToken(token));
+        blackhole.consume(jwtTokenProvider.getUsernameFromToken(token));
+        blackhole.consume(jwtTokenProvider.getTenantIdFromToken(token));
+    }
+}
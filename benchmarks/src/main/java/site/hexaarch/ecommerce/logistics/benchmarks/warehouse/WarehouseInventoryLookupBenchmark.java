@@ -0,0 +1,105 @@
+package site.hexaarch.ecommerce.logistics.benchmarks.warehouse;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.aggregate.Warehouse;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.entity.InventoryRecord;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.valueobject.InventoryMovement;
+import site.hexaarch.ecommerce.logistics.domain.warehouse.valueobject.InventoryStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 仓库库存记录查找基准测试，对比原线性扫描与聚合根内哈希索引在不同库存规模下的开销。
+ *
+ * @author kenyon
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+@State(Scope.Thread)
+public class WarehouseInventoryLookupBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int recordCount;
+
+    private Warehouse warehouse;
+    private String[] productIds;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        productIds = new String[recordCount];
+        List<InventoryRecord> inventoryRecords = new ArrayList<>(recordCount);
+        for (int i = 0; i < recordCount; i++) {
+            productIds[i] = "P" + i;
+            inventoryRecords.add(InventoryRecord.builder()
+                    .inventoryId("INV" + i)
+                    .warehouseId("WH-BENCH")
+                    .productId(productIds[i])
+                    .sku("SKU" + i)
+                    .quantity(50)
+                    .inventoryStatus(InventoryStatus.NORMAL)
+                    .build());
+        }
+        // 与从数据库加载的仓库一致，通过重建API装入库存记录：逐条addInventoryRecord会把全部记录登记为变更，
+        // 变更集合的容量随之扩大，之后每次清理都要遍历整张表，测得的是清理开销而非库存变动
+        LocalDateTime now = LocalDateTime.now();
+        warehouse = Warehouse.reconstitute("WH-BENCH", "default-tenant", "Benchmark Warehouse", "WH-BENCH", null,
+                recordCount, new ArrayList<>(), inventoryRecords, true, now, now);
+    }
+
+    private String nextProductId() {
+        // 按固定步长跳跃访问，避免总是命中列表头部
+        cursor = (cursor + 7919) % recordCount;
+        return productIds[cursor];
+    }
+
+    /**
+     * 原实现：对库存记录列表做线性stream过滤。
+     */
+    @Benchmark
+    public Optional<InventoryRecord> linearScan() {
+        String productId = nextProductId();
+        return warehouse.getInventoryRecords().stream()
+                .filter(record -> record.getProductId().equals(productId))
+                .findFirst();
+    }
+
+    /**
+     * 新实现：通过聚合根维护的哈希索引查找。
+     */
+    @Benchmark
+    public Optional<InventoryRecord> indexedLookup() {
+        return warehouse.findInventoryRecord(nextProductId());
+    }
+
+    /**
+     * 完整的库存变动路径（索引查找 + 数量更新 + 事件注册）。
+     */
+    @Benchmark
+    public int updateInventory() {
+        warehouse.updateInventory(nextProductId(), 1, InventoryMovement.MovementType.ADJUSTMENT, "benchmark");
+        int events = warehouse.getDomainEvents().size();
+        warehouse.clearDomainEvents();
+        // 待写入的流水和变更记录随调用累积，不清理时内存持续增长，GC使测量结果波动很大
+        warehouse.clearInventoryChanges();
+        return events;
+    }
+}